@@ -0,0 +1,232 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file against a checked in baseline and fails if
+ * any benchmark has regressed by more than the given tolerance.
+ * <p/>
+ * The primary score of each benchmark and parameter combination is compared,
+ * where a lower score is a regression in throughput mode and a higher score is
+ * a regression in the time modes, along with the
+ * <code>gc.alloc.rate.norm</code> secondary result of the GC profiler, the
+ * bytes allocated per operation. The other GC profiler results depend on the
+ * score and are not compared. Benchmarks present in only one of the files are
+ * listed but do not fail the comparison.
+ * <p/>
+ * Usage:
+ *
+ * <pre>
+ * java -cp benchmarks.jar org.irods.jargon.benchmarks.BaselineComparison baseline.csv jmh-result.csv [tolerancePercent]
+ * </pre>
+ *
+ * The exit status is 0 if nothing regressed, 1 if something did, and 2 for a
+ * usage or file error.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class BaselineComparison {
+
+	/**
+	 * Default allowed change, in percent, before a result is a regression
+	 */
+	public static final double DEFAULT_TOLERANCE_PERCENT = 15.0;
+
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+	private BaselineComparison() {
+	}
+
+	public static void main(final String[] args) {
+		if (args.length < 2 || args.length > 3) {
+			System.err
+			.println("usage: BaselineComparison baseline.csv current.csv [tolerancePercent]");
+			System.exit(2);
+			return;
+		}
+
+		double tolerancePercent = DEFAULT_TOLERANCE_PERCENT;
+		Map<String, Result> baseline;
+		Map<String, Result> current;
+		try {
+			if (args.length == 3) {
+				tolerancePercent = Double.parseDouble(args[2]);
+			}
+			baseline = readResults(new File(args[0]));
+			current = readResults(new File(args[1]));
+		} catch (NumberFormatException e) {
+			System.err.println("invalid tolerance:" + args[2]);
+			System.exit(2);
+			return;
+		} catch (IOException e) {
+			System.err.println("cannot read results:" + e.getMessage());
+			System.exit(2);
+			return;
+		}
+
+		int regressions = compare(baseline, current, tolerancePercent);
+		System.out.println(regressions + " regression(s) beyond "
+				+ tolerancePercent + "%");
+		System.exit(regressions == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Compare the results, printing a line for each
+	 *
+	 * @param baseline
+	 *            <code>Map</code> of the baseline results by key
+	 * @param current
+	 *            <code>Map</code> of the current results by key
+	 * @param tolerancePercent
+	 *            <code>double</code> with the allowed change in percent
+	 * @return <code>int</code> with the count of regressions
+	 */
+	static int compare(final Map<String, Result> baseline,
+			final Map<String, Result> current, final double tolerancePercent) {
+		int regressions = 0;
+
+		for (Map.Entry<String, Result> entry : current.entrySet()) {
+			Result now = entry.getValue();
+			Result then = baseline.get(entry.getKey());
+			if (then == null) {
+				System.out.println("NEW        " + entry.getKey() + " "
+						+ now.score + " " + now.unit);
+				continue;
+			}
+
+			double change = then.score == 0 ? 0 : (now.score - then.score)
+					/ then.score * 100.0;
+			double worse = now.higherIsBetter ? -change : change;
+			String status;
+			if (worse > tolerancePercent) {
+				status = "REGRESSED  ";
+				regressions++;
+			} else if (worse < -tolerancePercent) {
+				status = "IMPROVED   ";
+			} else {
+				status = "OK         ";
+			}
+
+			System.out.println(status + entry.getKey() + " " + then.score
+					+ " -> " + now.score + " " + now.unit + " ("
+					+ String.format("%+.1f", change) + "%)");
+		}
+
+		for (String key : baseline.keySet()) {
+			if (!current.containsKey(key)) {
+				System.out.println("MISSING    " + key);
+			}
+		}
+
+		return regressions;
+	}
+
+	/**
+	 * Read the compared results from a JMH CSV file
+	 *
+	 * @param file
+	 *            <code>File</code> written with <code>-rf csv</code>
+	 * @return <code>Map</code> of results, keyed by benchmark, mode and
+	 *         parameters
+	 * @throws IOException
+	 */
+	static Map<String, Result> readResults(final File file) throws IOException {
+		Map<String, Result> results = new LinkedHashMap<String, Result>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), "UTF-8"));
+		try {
+			String line = reader.readLine();
+			if (line == null) {
+				throw new IOException("empty result file:" + file);
+			}
+			List<String> header = splitCsvLine(line);
+			int benchmarkIndex = columnIndex(header, "Benchmark", file);
+			int modeIndex = columnIndex(header, "Mode", file);
+			int scoreIndex = columnIndex(header, "Score", file);
+			int unitIndex = columnIndex(header, "Unit", file);
+
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				List<String> fields = splitCsvLine(line);
+				String benchmark = fields.get(benchmarkIndex);
+				String mode = fields.get(modeIndex);
+				int secondary = benchmark.indexOf(':');
+				if (secondary != -1
+						&& !benchmark.endsWith(ALLOCATION_METRIC)) {
+					continue;
+				}
+
+				StringBuilder key = new StringBuilder(benchmark);
+				key.append(' ').append(mode);
+				for (int i = unitIndex + 1; i < fields.size()
+						&& i < header.size(); i++) {
+					if (!fields.get(i).isEmpty()) {
+						key.append(' ').append(header.get(i).replace("Param: ", ""))
+						.append('=').append(fields.get(i));
+					}
+				}
+
+				Result result = new Result();
+				result.score = Double.parseDouble(fields.get(scoreIndex));
+				result.unit = fields.get(unitIndex);
+				result.higherIsBetter = secondary == -1 && "thrpt".equals(mode);
+				results.put(key.toString(), result);
+			}
+		} finally {
+			reader.close();
+		}
+		return results;
+	}
+
+	private static int columnIndex(final List<String> header,
+			final String name, final File file) throws IOException {
+		int index = header.indexOf(name);
+		if (index == -1) {
+			throw new IOException("no " + name + " column in:" + file);
+		}
+		return index;
+	}
+
+	private static List<String> splitCsvLine(final String line) {
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				if (quoted && i + 1 < line.length()
+						&& line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+			} else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	static final class Result {
+		double score;
+		String unit;
+		boolean higherIsBetter;
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.irods.jargon.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.ProfilersFailedException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Main class of the benchmarks jar. Takes the usual JMH command line, and
+ * unless told otherwise adds the GC profiler, so that every run reports the
+ * bytes allocated per operation, and writes the results as CSV to
+ * <code>jmh-result.csv</code>, the format read by {@link BaselineComparison}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class BenchmarkRunner {
+
+	private static final String GC_PROFILER_NAME = "gc";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		CommandLineOptions commandLineOptions;
+		try {
+			commandLineOptions = new CommandLineOptions(args);
+		} catch (CommandLineOptionException e) {
+			System.err.println("Error parsing command line:");
+			System.err.println(" " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+				|| commandLineOptions.shouldListWithParams()
+				|| commandLineOptions.shouldListProfilers()
+				|| commandLineOptions.shouldListResultFormats()) {
+			Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder builder = new OptionsBuilder()
+				.parent(commandLineOptions);
+
+		if (!hasGCProfiler(commandLineOptions)) {
+			builder.addProfiler(GCProfiler.class);
+		}
+
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			builder.resultFormat(ResultFormatType.CSV);
+		}
+
+		try {
+			new Runner(builder.build()).run();
+		} catch (NoBenchmarksException e) {
+			System.err.println("No matching benchmarks. Miss-spelled regexp?");
+			System.exit(1);
+		} catch (ProfilersFailedException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (RunnerException e) {
+			System.err.print("ERROR: ");
+			e.printStackTrace(System.err);
+			System.exit(1);
+		}
+	}
+
+	private static boolean hasGCProfiler(
+			final CommandLineOptions commandLineOptions) {
+		for (ProfilerConfig profilerConfig : commandLineOptions.getProfilers()) {
+			if (GC_PROFILER_NAME.equals(profilerConfig.getKlass())
+					|| GCProfiler.class.getName().equals(
+							profilerConfig.getKlass())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,132 @@
+package org.irods.jargon.benchmarks.io;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.pub.io.PackingIrodsInputStream;
+import org.irods.jargon.core.pub.io.PackingIrodsOutputStream;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading and writing a data object in small pieces through the plain
+ * iRODS file streams, where each call is a round trip, with the
+ * {@link PackingIrodsInputStream} and {@link PackingIrodsOutputStream} that
+ * gather the pieces into buffers of the configured get and put sizes. The
+ * streams are connected to an {@link IRODSStandInServer} on the loopback
+ * interface, so every round trip costs a real protocol exchange but no
+ * network latency; the gap is wider against a remote grid.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackingStreamBenchmark {
+
+	private static final String USER = "bench";
+	private static final int SIZE = 256 * 1024;
+
+	@Param({ "512", "8192" })
+	public int ioSize;
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSFileFactory irodsFileFactory;
+	private String readPath;
+	private String writePath;
+	private byte[] buffer;
+
+	@Setup
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser(USER, USER);
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsFileFactory = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getIRODSFileFactory(server.buildIRODSAccount(USER));
+
+		String home = "/" + IRODSStandInServer.DEFAULT_ZONE + "/home/" + USER;
+		readPath = home + "/read.dat";
+		writePath = home + "/write.dat";
+		byte[] content = new byte[SIZE];
+		new Random(42).nextBytes(content);
+		server.getCatalog().putDataObject(readPath, USER, content);
+		buffer = new byte[ioSize];
+		new Random(ioSize).nextBytes(buffer);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Benchmark
+	public long rawRead() throws Exception {
+		return drain(irodsFileFactory.instanceIRODSFileInputStream(readPath));
+	}
+
+	@Benchmark
+	public long packingRead() throws Exception {
+		return drain(new PackingIrodsInputStream(
+				irodsFileFactory.instanceIRODSFileInputStream(readPath)));
+	}
+
+	@Benchmark
+	public void rawWrite() throws Exception {
+		fill(irodsFileFactory.instanceIRODSFileOutputStream(writePath,
+				OpenFlags.WRITE_TRUNCATE));
+	}
+
+	@Benchmark
+	public void packingWrite() throws Exception {
+		fill(new PackingIrodsOutputStream(
+				irodsFileFactory.instanceIRODSFileOutputStream(writePath,
+						OpenFlags.WRITE_TRUNCATE)));
+	}
+
+	private long drain(final InputStream in) throws Exception {
+		long total = 0;
+		int read;
+		try {
+			while ((read = in.read(buffer)) != -1) {
+				total += read;
+			}
+		} finally {
+			in.close();
+		}
+		return total;
+	}
+
+	private void fill(final OutputStream out) throws Exception {
+		try {
+			for (int written = 0; written < SIZE; written += ioSize) {
+				out.write(buffer, 0, ioSize);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+}
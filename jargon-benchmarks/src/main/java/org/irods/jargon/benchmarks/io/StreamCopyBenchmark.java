@@ -0,0 +1,201 @@
+package org.irods.jargon.benchmarks.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.pub.Stream2StreamAOImpl;
+import org.irods.jargon.core.utils.ByteBufferPool;
+import org.irods.jargon.core.utils.ChannelTools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the copy loops behind {@link Stream2StreamAOImpl}. The
+ * <code>standardIO</code> benchmarks reproduce the heap array loop of
+ * <code>streamToStreamCopyUsingStandardIO</code> and
+ * <code>transferStreamToFileUsingIOStreams</code>,
+ * <code>channelCopyAllocating</code> is the former
+ * <code>streamToStreamCopy</code> that allocated a direct buffer per copy,
+ * and the others are the pooled buffer and <code>FileChannel</code> transfer
+ * paths. The access object itself needs a connection, so the loops are driven
+ * directly with in memory streams and a temporary local file.
+ * <p/>
+ * Run with <code>-prof gc</code> to see the allocation rate per copy.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamCopyBenchmark {
+
+	/**
+	 * Matches jargon.io.input.to.output.copy.byte.buffer.size in the default
+	 * jargon.properties
+	 */
+	private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+	@Param({ "1048576", "33554432" })
+	public int size;
+
+	private byte[] source;
+	private File sourceFile;
+	private File targetFile;
+	private ByteBufferPool byteBufferPool;
+
+	@Setup
+	public void setUp() throws Exception {
+		source = new byte[size];
+		new Random(42).nextBytes(source);
+		sourceFile = File.createTempFile("StreamCopyBenchmark", ".src");
+		sourceFile.deleteOnExit();
+		targetFile = File.createTempFile("StreamCopyBenchmark", ".tgt");
+		targetFile.deleteOnExit();
+		FileOutputStream fileOutputStream = new FileOutputStream(sourceFile);
+		try {
+			fileOutputStream.write(source);
+		} finally {
+			fileOutputStream.close();
+		}
+		byteBufferPool = new ByteBufferPool(4);
+	}
+
+	@TearDown
+	public void tearDown() {
+		sourceFile.delete();
+		targetFile.delete();
+	}
+
+	@Benchmark
+	public long streamStandardIO() throws Exception {
+		return copyStandardIO(new ByteArrayInputStream(source),
+				new NullOutputStream());
+	}
+
+	@Benchmark
+	public long streamChannelCopyAllocating() throws Exception {
+		NullOutputStream target = new NullOutputStream();
+		ChannelTools.fastChannelCopy(
+				Channels.newChannel(new ByteArrayInputStream(source)),
+				Channels.newChannel(target), COPY_BUFFER_SIZE);
+		return target.count;
+	}
+
+	@Benchmark
+	public long streamChannelCopyPooled() throws Exception {
+		ByteBuffer buffer = byteBufferPool.acquire(COPY_BUFFER_SIZE);
+		try {
+			return ChannelTools.fastChannelCopy(
+					Channels.newChannel(new ByteArrayInputStream(source)),
+					Channels.newChannel(new NullOutputStream()), buffer);
+		} finally {
+			byteBufferPool.release(buffer);
+		}
+	}
+
+	@Benchmark
+	public long toLocalFileStandardIO() throws Exception {
+		return copyStandardIO(new ByteArrayInputStream(source),
+				new FileOutputStream(targetFile));
+	}
+
+	@Benchmark
+	public long toLocalFileTransferFrom() throws Exception {
+		FileOutputStream fileOutputStream = new FileOutputStream(targetFile);
+		try {
+			return ChannelTools.transferToFileChannel(
+					Channels.newChannel(new ByteArrayInputStream(source)),
+					fileOutputStream.getChannel(), COPY_BUFFER_SIZE);
+		} finally {
+			fileOutputStream.close();
+		}
+	}
+
+	@Benchmark
+	public long fromLocalFileStandardIO() throws Exception {
+		return copyStandardIO(new FileInputStream(sourceFile),
+				new NullOutputStream());
+	}
+
+	@Benchmark
+	public long fromLocalFileTransferTo() throws Exception {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(sourceFile,
+				"r");
+		try {
+			return ChannelTools.transferFromFileChannel(
+					randomAccessFile.getChannel(),
+					Channels.newChannel(new NullOutputStream()),
+					COPY_BUFFER_SIZE);
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * The read/write loop of <code>streamToStreamCopyUsingStandardIO</code>,
+	 * buffered streams around a fresh heap array
+	 */
+	private long copyStandardIO(final InputStream inputStream,
+			final OutputStream outputStream) throws IOException {
+		InputStream myInput = new BufferedInputStream(inputStream);
+		OutputStream myOutput = new BufferedOutputStream(outputStream);
+		final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+		long count = 0;
+		int n = 0;
+		try {
+			while (-1 != (n = myInput.read(buffer))) {
+				myOutput.write(buffer, 0, n);
+				count += n;
+			}
+			myOutput.flush();
+		} finally {
+			myInput.close();
+			myOutput.close();
+		}
+		return count;
+	}
+
+	/**
+	 * Stands in for a network stream, counting and discarding the bytes
+	 */
+	private static class NullOutputStream extends OutputStream {
+		private long count = 0;
+
+		@Override
+		public void write(final int b) {
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			count += len;
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.irods.jargon.benchmarks.protocol;
+
+/**
+ * Builds synthetic iRODS protocol messages for the benchmarks, shaped like the
+ * replies a server sends for a data object listing
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class BenchmarkMessages {
+
+	/**
+	 * Attribute indexes of the listing columns: data name, coll name, size,
+	 * owner, resource, modify time
+	 */
+	public static final int[] LISTING_COLUMNS = { 403, 501, 407, 411, 409, 420 };
+
+	private BenchmarkMessages() {
+	}
+
+	/**
+	 * Create a <code>GenQueryOut_PI</code> message with the given number of
+	 * rows over the {@link #LISTING_COLUMNS}
+	 *
+	 * @param rows
+	 *            <code>int</code> with the number of rows
+	 * @return <code>String</code> with the message as sent by the server
+	 */
+	public static String genQueryOut(final int rows) {
+		StringBuilder sb = new StringBuilder(rows * LISTING_COLUMNS.length * 40);
+		sb.append("<GenQueryOut_PI>\n");
+		sb.append("<rowCnt>").append(rows).append("</rowCnt>\n");
+		sb.append("<attriCnt>").append(LISTING_COLUMNS.length)
+		.append("</attriCnt>\n");
+		sb.append("<continueInx>0</continueInx>\n");
+		sb.append("<totalRowCount>0</totalRowCount>\n");
+
+		for (int col = 0; col < LISTING_COLUMNS.length; col++) {
+			sb.append("<SqlResult_PI>\n");
+			sb.append("<attriInx>").append(LISTING_COLUMNS[col])
+			.append("</attriInx>\n");
+			sb.append("<reslen>100</reslen>\n");
+			for (int row = 0; row < rows; row++) {
+				sb.append("<value>").append(value(col, row))
+				.append("</value>\n");
+			}
+			sb.append("</SqlResult_PI>\n");
+		}
+
+		sb.append("</GenQueryOut_PI>\n");
+		return sb.toString();
+	}
+
+	private static String value(final int col, final int row) {
+		switch (col) {
+		case 0:
+			// every tenth name needs entity decoding
+			return row % 10 == 0 ? "data&amp;file" + row + ".txt" : "datafile"
+			+ row + ".txt";
+		case 1:
+			return "/tempZone/home/test1/benchmark/subdir" + (row / 1000);
+		case 2:
+			return String.valueOf(row * 1024L);
+		case 3:
+			return "test1";
+		case 4:
+			return "demoResc";
+		default:
+			return String.valueOf(1400000000L + row);
+		}
+	}
+
+}
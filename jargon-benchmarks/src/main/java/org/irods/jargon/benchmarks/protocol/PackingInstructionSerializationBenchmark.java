@@ -0,0 +1,74 @@
+package org.irods.jargon.benchmarks.protocol;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.packinstr.DataObjInp;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
+import org.irods.jargon.core.packinstr.PackingInstructionWriter;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding the <code>String</code> from
+ * {@link IRodsPI#getParsedTags()} with serializing into a reused
+ * {@link PackingInstructionWriter}, for the small requests that dominate bulk
+ * metadata and file operations.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackingInstructionSerializationBenchmark {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Param({ "modAvu", "dataObjInp" })
+	public String instruction;
+
+	private IRodsPI irodsPI;
+	private PackingInstructionWriter writer;
+
+	@Setup
+	public void setUp() throws Exception {
+		if (instruction.equals("modAvu")) {
+			irodsPI = ModAvuMetadataInp.instanceForAddDataObjectMetadata(
+					"/tempZone/home/test1/benchmark/data&file.txt",
+					AvuData.instance("attribute", "value <1>", "unit"));
+		} else {
+			irodsPI = DataObjInp.instanceForOpen(
+					"/tempZone/home/test1/benchmark/datafile.txt",
+					DataObjInp.OpenFlags.READ);
+		}
+		writer = new PackingInstructionWriter(Charset.forName(ENCODING));
+	}
+
+	@Benchmark
+	public byte[] parseTagAndEncode() throws Exception {
+		return irodsPI.getParsedTags().getBytes(ENCODING);
+	}
+
+	@Benchmark
+	public int packingInstructionWriter() throws Exception {
+		writer.reset();
+		writer.write(irodsPI);
+		return writer.getLength();
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.irods.jargon.benchmarks.protocol;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the original string based protocol message parser in {@link Tag}
+ * with the byte level {@link TagReader}, using a synthetic
+ * <code>GenQueryOut_PI</code> reply shaped like a data object listing.
+ * <code>readNextTag</code> is the entry point the protocol manager calls, and
+ * <code>parseTag</code> serializes the parsed reply back to XML, as is done for
+ * every outgoing packing instruction.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagParsingBenchmark {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Param({ "100", "5000" })
+	public int rows;
+
+	private byte[] message;
+	private Charset charset;
+	private Tag parsed;
+
+	@Setup
+	public void setUp() throws Exception {
+		message = BenchmarkMessages.genQueryOut(rows).getBytes(ENCODING);
+		charset = Charset.forName(ENCODING);
+		parsed = Tag.readNextTag(message, true, ENCODING);
+	}
+
+	@Benchmark
+	public Tag stringParsing() throws Exception {
+		return Tag.readNextTagUsingStringParsing(message, true, ENCODING);
+	}
+
+	@Benchmark
+	public Tag tagReader() {
+		return TagReader.readTag(message, 0, message.length, true, charset);
+	}
+
+	@Benchmark
+	public Tag readNextTag() throws Exception {
+		return Tag.readNextTag(message, true, ENCODING);
+	}
+
+	@Benchmark
+	public String parseTag() {
+		return parsed.parseTag();
+	}
+
+}
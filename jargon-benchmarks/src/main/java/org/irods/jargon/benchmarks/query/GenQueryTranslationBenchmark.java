@@ -0,0 +1,67 @@
+package org.irods.jargon.benchmarks.query;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.connection.IRODSServerProperties.IcatEnabled;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link IRODSGenQueryTranslator#getTranslatedQuery(IRODSGenQuery)},
+ * which parses the string form of every general query before it is packed,
+ * for a plain collection listing and for a metadata query with several
+ * conditions.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenQueryTranslationBenchmark {
+
+	private static final String LISTING_QUERY = "select DATA_NAME, COLL_NAME, DATA_SIZE, DATA_OWNER_NAME, DATA_RESC_NAME, DATA_MODIFY_TIME"
+			+ " where COLL_NAME = '/tempZone/home/test1/benchmark'";
+
+	private static final String METADATA_QUERY = "select COLL_NAME, DATA_NAME, META_DATA_ATTR_NAME, META_DATA_ATTR_VALUE, META_DATA_ATTR_UNITS"
+			+ " where COLL_NAME like '/tempZone/home/test1/%' AND META_DATA_ATTR_NAME = 'experiment'"
+			+ " AND META_DATA_ATTR_VALUE like 'run%' AND DATA_SIZE > '1024'";
+
+	private IRODSGenQueryTranslator translator;
+	private IRODSGenQuery listingQuery;
+	private IRODSGenQuery metadataQuery;
+
+	@Setup
+	public void setUp() throws Exception {
+		translator = new IRODSGenQueryTranslator(IRODSServerProperties.instance(
+				IcatEnabled.ICAT_ENABLED, 100, "rods4.1.8", "d", "tempZone"));
+		listingQuery = IRODSGenQuery.instance(LISTING_QUERY, 5000);
+		metadataQuery = IRODSGenQuery.instance(METADATA_QUERY, 5000);
+	}
+
+	@Benchmark
+	public TranslatedIRODSGenQuery listingQuery() throws Exception {
+		return translator.getTranslatedQuery(listingQuery);
+	}
+
+	@Benchmark
+	public TranslatedIRODSGenQuery metadataQuery() throws Exception {
+		return translator.getTranslatedQuery(metadataQuery);
+	}
+
+}
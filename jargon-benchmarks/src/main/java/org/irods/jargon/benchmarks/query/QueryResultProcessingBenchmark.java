@@ -0,0 +1,60 @@
+package org.irods.jargon.benchmarks.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.benchmarks.protocol.BenchmarkMessages;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryResultProcessingUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the building of result rows in {@link QueryResultProcessingUtils},
+ * which turns the column major <code>GenQueryOut_PI</code> reply, already
+ * parsed, into one {@link IRODSQueryResultRow} per row.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryResultProcessingBenchmark {
+
+	private static final List<String> COLUMN_NAMES = Arrays.asList(
+			"DATA_NAME", "COLL_NAME", "DATA_SIZE", "DATA_OWNER_NAME",
+			"DATA_RESC_NAME", "DATA_MODIFY_TIME");
+
+	@Param({ "100", "5000" })
+	public int rows;
+
+	private Tag response;
+
+	@Setup
+	public void setUp() throws Exception {
+		response = Tag.readNextTag(BenchmarkMessages.genQueryOut(rows)
+				.getBytes("UTF-8"), "UTF-8");
+	}
+
+	@Benchmark
+	public List<IRODSQueryResultRow> translateResponse() throws Exception {
+		return QueryResultProcessingUtils.translateResponseIntoResultSet(
+				response, COLUMN_NAMES, 0, 0);
+	}
+
+}
@@ -0,0 +1,238 @@
+package org.irods.jargon.benchmarks.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.transfer.MappedLocalFile;
+import org.irods.jargon.core.transfer.ParallelGetTransferThread;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the two local file strategies of the parallel transfer threads.
+ * The <code>randomAccessFile</code> benchmarks reproduce the loops in
+ * {@link ParallelGetTransferThread} and the put thread, which seek and copy
+ * through a heap buffer, and the <code>mapped</code> benchmarks use
+ * {@link MappedLocalFile} as the <code>MEMORY_MAPPED</code> strategy does.
+ * <p/>
+ * The file is moved in blocks the way iRODS hands them to the threads, with
+ * the blocks of each thread in turn, from an in memory channel standing in for
+ * the socket. A real transfer also pays for the network, so these numbers show
+ * only the local side.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelLocalFileBenchmark {
+
+	/**
+	 * Matches jargon.parallel.copy.buffer.size in the default jargon.properties
+	 */
+	private static final int COPY_BUFFER_SIZE = 4 * 1024 * 1024;
+
+	private static final int BLOCK_SIZE = 4 * 1024 * 1024;
+
+	private static final int THREADS = 4;
+
+	@Param({ "67108864", "268435456" })
+	public int size;
+
+	private byte[] block;
+	private File getFile;
+	private File putFile;
+
+	@Setup
+	public void setUp() throws Exception {
+		block = new byte[BLOCK_SIZE];
+		new Random(42).nextBytes(block);
+		getFile = File.createTempFile("ParallelLocalFileBenchmark", ".get");
+		getFile.deleteOnExit();
+		putFile = File.createTempFile("ParallelLocalFileBenchmark", ".put");
+		putFile.deleteOnExit();
+		FileOutputStream fileOutputStream = new FileOutputStream(putFile);
+		try {
+			for (long written = 0; written < size; written += BLOCK_SIZE) {
+				fileOutputStream.write(block);
+			}
+		} finally {
+			fileOutputStream.close();
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		getFile.delete();
+		putFile.delete();
+	}
+
+	@Benchmark
+	public long getRandomAccessFile() throws Exception {
+		RandomAccessFile local = new RandomAccessFile(getFile, "rw");
+		byte[] buffer = new byte[COPY_BUFFER_SIZE];
+		long count = 0;
+		try {
+			for (long offset : blockOrder()) {
+				InputStream in = new ByteArrayInputStream(block);
+				local.seek(offset);
+				int read;
+				while ((read = in.read(buffer, 0, buffer.length)) > 0) {
+					local.write(buffer, 0, read);
+					count += read;
+				}
+			}
+		} finally {
+			local.close();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long getMapped() throws Exception {
+		MappedLocalFile.presize(getFile, size);
+		MappedLocalFile local = MappedLocalFile.instanceForWrite(getFile,
+				MappedLocalFile.DEFAULT_WINDOW_SIZE);
+		long count = 0;
+		try {
+			for (long offset : blockOrder()) {
+				ReadableByteChannel in = Channels
+						.newChannel(new ByteArrayInputStream(block));
+				count += local.readFrom(in, offset, BLOCK_SIZE);
+			}
+		} finally {
+			local.close();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long putRandomAccessFile() throws Exception {
+		RandomAccessFile local = new RandomAccessFile(putFile, "r");
+		byte[] buffer = new byte[COPY_BUFFER_SIZE];
+		NullOutputStream out = new NullOutputStream();
+		try {
+			for (long offset : blockOrder()) {
+				local.seek(offset);
+				long remaining = BLOCK_SIZE;
+				while (remaining > 0) {
+					int read = local.read(buffer, 0,
+							(int) Math.min(buffer.length, remaining));
+					out.write(buffer, 0, read);
+					remaining -= read;
+				}
+			}
+		} finally {
+			local.close();
+		}
+		return out.count;
+	}
+
+	@Benchmark
+	public long putMapped() throws Exception {
+		MappedLocalFile local = MappedLocalFile.instanceForRead(putFile,
+				MappedLocalFile.DEFAULT_WINDOW_SIZE);
+		NullChannel out = new NullChannel();
+		try {
+			for (long offset : blockOrder()) {
+				local.writeTo(out, offset, BLOCK_SIZE);
+			}
+		} finally {
+			local.close();
+		}
+		return out.count;
+	}
+
+	/**
+	 * Block offsets with the file split in contiguous ranges, one per thread,
+	 * visited a block from each range in turn
+	 */
+	private long[] blockOrder() {
+		int blocks = size / BLOCK_SIZE;
+		int blocksPerThread = blocks / THREADS;
+		long[] offsets = new long[blocks];
+		int i = 0;
+		for (int b = 0; b < blocksPerThread; b++) {
+			for (int t = 0; t < THREADS; t++) {
+				offsets[i++] = ((long) t * blocksPerThread + b) * BLOCK_SIZE;
+			}
+		}
+		return offsets;
+	}
+
+	/**
+	 * Stands in for a network stream, counting and discarding the bytes
+	 */
+	private static class NullOutputStream extends OutputStream {
+		private long count = 0;
+
+		@Override
+		public void write(final int b) {
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			count += len;
+		}
+	}
+
+	/**
+	 * Stands in for a socket channel, counting and discarding the bytes
+	 */
+	private static class NullChannel implements WritableByteChannel {
+		private final ByteBuffer scratch = ByteBuffer.allocateDirect(64 * 1024);
+		private long count = 0;
+
+		@Override
+		public int write(final ByteBuffer src) throws IOException {
+			int length = src.remaining();
+			// copy the bytes out, as a socket write does
+			while (src.hasRemaining()) {
+				scratch.clear();
+				int chunk = Math.min(scratch.capacity(), src.remaining());
+				ByteBuffer slice = src.duplicate();
+				slice.limit(slice.position() + chunk);
+				scratch.put(slice);
+				src.position(src.position() + chunk);
+			}
+			count += length;
+			return length;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
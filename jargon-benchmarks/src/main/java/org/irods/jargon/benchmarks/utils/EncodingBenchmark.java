@@ -0,0 +1,88 @@
+package org.irods.jargon.benchmarks.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.utils.Base64;
+import org.irods.jargon.core.utils.BinaryDataFormat;
+import org.irods.jargon.core.utils.EscapeTagChars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the small conversions done for every message or record:
+ * {@link EscapeTagChars#forXML(String)} on a path with and without characters
+ * to escape, {@link Base64} on an authentication challenge sized array, and
+ * {@link BinaryDataFormat} decoding and encoding of the integers read and
+ * written by <code>IRODSRandomAccessFile</code>.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodingBenchmark {
+
+	private static final String PLAIN_PATH = "/tempZone/home/test1/benchmark/subdir1/datafile1234.txt";
+	private static final String MARKUP_PATH = "/tempZone/home/test1/benchmark/<subdir1>/data&file'1234\".txt";
+
+	private final BinaryDataFormat format = new BinaryDataFormat();
+	private final byte[] encoded = new byte[16];
+	private byte[] challenge;
+	private String challengeBase64;
+	private long value = 0;
+
+	@Setup
+	public void setUp() {
+		challenge = new byte[64];
+		new Random(64).nextBytes(challenge);
+		challengeBase64 = Base64.toString(challenge);
+		format.encodeInt(123456789, encoded, 0);
+		format.encodeLong(1234567890123L, encoded, 8);
+	}
+
+	@Benchmark
+	public String escapeXmlPlain() {
+		return EscapeTagChars.forXML(PLAIN_PATH);
+	}
+
+	@Benchmark
+	public String escapeXmlMarkup() {
+		return EscapeTagChars.forXML(MARKUP_PATH);
+	}
+
+	@Benchmark
+	public String base64Encode() {
+		return Base64.toString(challenge);
+	}
+
+	@Benchmark
+	public byte[] base64Decode() {
+		return Base64.fromString(challengeBase64);
+	}
+
+	@Benchmark
+	public long binaryDecode() {
+		return format.intValue(encoded, 0) + format.longValue(encoded, 8);
+	}
+
+	@Benchmark
+	public int binaryEncode() {
+		value++;
+		return format.encodeInt((int) value, encoded, 0)
+				+ format.encodeLong(value, encoded, 8);
+	}
+
+}
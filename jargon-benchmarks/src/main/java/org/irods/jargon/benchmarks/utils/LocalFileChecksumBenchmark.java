@@ -0,0 +1,80 @@
+package org.irods.jargon.benchmarks.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the local file checksums in {@link LocalFileUtils} that are
+ * computed to verify a put or get. The file is written once and is in the page
+ * cache for every iteration, so these numbers show the digest and read loop
+ * cost, not the disk.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalFileChecksumBenchmark {
+
+	@Param({ "MD5", "SHA256", "CRC32" })
+	public String algorithm;
+
+	@Param({ "1", "32" })
+	public int fileSizeMb;
+
+	private File file;
+
+	@Setup
+	public void setUp() throws Exception {
+		file = File.createTempFile("LocalFileChecksumBenchmark", ".dat");
+		file.deleteOnExit();
+		byte[] block = new byte[1024 * 1024];
+		new Random(fileSizeMb).nextBytes(block);
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			for (int i = 0; i < fileSizeMb; i++) {
+				out.write(block);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public Object checksum() throws Exception {
+		String path = file.getAbsolutePath();
+		if (algorithm.equals("MD5")) {
+			return LocalFileUtils.computeMD5FileCheckSumViaAbsolutePath(path);
+		} else if (algorithm.equals("SHA256")) {
+			return LocalFileUtils.computeSHA256FileCheckSumViaAbsolutePath(path);
+		} else {
+			return LocalFileUtils.computeCRC32FileCheckSumViaAbsolutePath(path);
+		}
+	}
+
+}
@@ -4,6 +4,7 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
 
 import org.irods.jargon.core.exception.JargonException;
 
@@ -28,4 +29,34 @@ public abstract class AbstractChecksumComputeStrategy {
 			final String localFileAbsolutePath) throws FileNotFoundException,
 			JargonException;
 
+	/**
+	 * Get a digest for this algorithm, so that a checksum can be computed on
+	 * bytes as they are transferred rather than by reading a file
+	 *
+	 * @return <code>MessageDigest</code> ready for the first bytes
+	 * @throws ChecksumMethodUnavailableException
+	 *             if this strategy can only compute checksums of files
+	 */
+	public MessageDigest instanceMessageDigest()
+			throws ChecksumMethodUnavailableException {
+		throw new ChecksumMethodUnavailableException(
+				"no message digest available for this checksum strategy");
+	}
+
+	/**
+	 * Build a checksum value from a digest got from
+	 * {@link #instanceMessageDigest()}
+	 *
+	 * @param digest
+	 *            <code>byte[]</code> with the finished digest
+	 * @return {@link ChecksumValue} with a checksum in digest (string) form.
+	 * @throws ChecksumMethodUnavailableException
+	 *             if this strategy can only compute checksums of files
+	 */
+	public ChecksumValue checksumValueFromDigest(final byte[] digest)
+			throws ChecksumMethodUnavailableException {
+		throw new ChecksumMethodUnavailableException(
+				"no message digest available for this checksum strategy");
+	}
+
 }
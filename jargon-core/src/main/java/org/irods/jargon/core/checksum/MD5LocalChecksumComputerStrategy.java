@@ -4,6 +4,8 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
@@ -42,13 +44,34 @@ AbstractChecksumComputeStrategy {
 
 		byte[] digest = LocalFileUtils
 				.computeMD5FileCheckSumViaAbsolutePath(localFileAbsolutePath);
+		return checksumValueFromDigest(digest);
+
+	}
+
+	@Override
+	public MessageDigest instanceMessageDigest()
+			throws ChecksumMethodUnavailableException {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new ChecksumMethodUnavailableException(
+					"no such algorithm exception for MD5", e);
+		}
+	}
+
+	@Override
+	public ChecksumValue checksumValueFromDigest(final byte[] digest) {
+
+		if (digest == null) {
+			throw new IllegalArgumentException("null digest");
+		}
+
 		ChecksumValue value = new ChecksumValue();
 		value.setChecksumEncoding(ChecksumEncodingEnum.MD5);
 		value.setChecksumStringValue(LocalFileUtils
 				.digestByteArrayToString(digest));
 		value.setChecksumTransmissionFormat(value.getChecksumStringValue());
 		return value;
-
 	}
 
 }
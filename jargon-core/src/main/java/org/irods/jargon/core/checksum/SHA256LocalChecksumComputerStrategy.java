@@ -4,6 +4,8 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.irods.jargon.core.exception.JargonException;
@@ -43,6 +45,27 @@ AbstractChecksumComputeStrategy {
 
 		byte[] digest = LocalFileUtils
 				.computeSHA256FileCheckSumViaAbsolutePath(localFileAbsolutePath);
+		return checksumValueFromDigest(digest);
+
+	}
+
+	@Override
+	public MessageDigest instanceMessageDigest()
+			throws ChecksumMethodUnavailableException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new ChecksumMethodUnavailableException(
+					"no such algorithm exception for SHA-256", e);
+		}
+	}
+
+	@Override
+	public ChecksumValue checksumValueFromDigest(final byte[] digest) {
+
+		if (digest == null) {
+			throw new IllegalArgumentException("null digest");
+		}
 
 		ChecksumValue value = new ChecksumValue();
 		value.setChecksumEncoding(ChecksumEncodingEnum.SHA256);
@@ -52,7 +75,6 @@ AbstractChecksumComputeStrategy {
 		sb.append(value.getChecksumStringValue());
 		value.setChecksumTransmissionFormat(sb.toString().trim());
 		return value;
-
 	}
 
 }
@@ -2,7 +2,6 @@ package org.irods.jargon.core.connection;
 
 import static org.irods.jargon.core.connection.ConnectionConstants.INT_LENGTH;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
@@ -42,6 +41,12 @@ public abstract class AbstractConnection {
 	protected final IRODSAccount irodsAccount;
 	protected final PipelineConfiguration pipelineConfiguration;
 	private final long connectTimeInMillis = System.currentTimeMillis();
+	/**
+	 * Totals for the life of the connection, kept for metrics. A connection
+	 * is used by one thread at a time, so these are plain fields.
+	 */
+	private long bytesSent = 0L;
+	private long bytesReceived = 0L;
 
 	public enum EncryptionType {
 		NONE, SSL_WRAPPED
@@ -60,6 +65,11 @@ public abstract class AbstractConnection {
 	 * Holds the offset into the outputBuffer array for adding new data.
 	 */
 	private int outputOffset = 0;
+	/**
+	 * Reused by {@link #read(OutputStream, long, ConnectionProgressStatusListener)}
+	 * so that each streamed read does not allocate its own copy buffer
+	 */
+	private byte[] readToStreamBuffer = null;
 
 	/**
 	 * Constructor with account info to set up socket and information about
@@ -189,31 +199,41 @@ public abstract class AbstractConnection {
 	 */
 	public void send(final byte[] value) throws IOException {
 
-		try {
-			// packing instructions may be null, in which case nothing is sent
-			if (value == null) {
-				return;
-			}
+		// packing instructions may be null, in which case nothing is sent
+		if (value == null) {
+			return;
+		}
 
-			if (value.length == 0) {
-				// nothing to send, warn and ignore
-				return;
-			}
+		if (value.length == 0) {
+			// nothing to send, warn and ignore
+			return;
+		}
+
+		write(value, 0, value.length);
+	}
 
+	/**
+	 * Write the given region of the array through the internal cache buffer,
+	 * if used, without copying it first
+	 */
+	private void write(final byte[] value, final int offset, final int length)
+			throws IOException {
+		bytesSent += length;
+		try {
 			if (pipelineConfiguration.getInternalCacheBufferSize() <= 0) {
-				irodsOutputStream.write(value);
-			} else if ((value.length + outputOffset) >= pipelineConfiguration
+				irodsOutputStream.write(value, offset, length);
+			} else if ((length + outputOffset) >= pipelineConfiguration
 					.getInternalCacheBufferSize()) {
 				// in cases where OUTPUT_BUFFER_LENGTH isn't big enough
 				irodsOutputStream.write(outputBuffer, 0, outputOffset);
-				irodsOutputStream.write(value);
+				irodsOutputStream.write(value, offset, length);
 				outputOffset = 0;
 			} else {
 
 				// the message sent isn't longer than OUTPUT_BUFFER_LENGTH
-				System.arraycopy(value, 0, outputBuffer, outputOffset,
-						value.length);
-				outputOffset += value.length;
+				System.arraycopy(value, offset, outputBuffer, outputOffset,
+						length);
+				outputOffset += length;
 
 			}
 		} catch (IOException ioe) {
@@ -224,8 +244,7 @@ public abstract class AbstractConnection {
 
 	/**
 	 * Writes a certain length of bytes at some offset in the value array to the
-	 * output stream, by converting the value to a byte array and calling send(
-	 * byte[] value ).
+	 * output stream.
 	 *
 	 * @param value
 	 *            value to be sent
@@ -263,11 +282,13 @@ public abstract class AbstractConnection {
 			throw new IllegalArgumentException(err);
 		}
 
-		byte temp[] = new byte[length];
-
-		System.arraycopy(value, offset, temp, 0, length);
+		if (offset + length > value.length) {
+			String err = "trying to send a byte buffer past the end of the array";
+			log.error(err);
+			throw new IllegalArgumentException(err);
+		}
 
-		send(temp);
+		write(value, offset, length);
 	}
 
 	/**
@@ -414,7 +435,11 @@ public abstract class AbstractConnection {
 	 *             If an IOException occurs
 	 */
 	protected byte read() throws IOException {
-		return (byte) irodsInputStream.read();
+		int read = irodsInputStream.read();
+		if (read != -1) {
+			bytesReceived++;
+		}
+		return (byte) read;
 
 	}
 
@@ -445,8 +470,9 @@ public abstract class AbstractConnection {
 	 *
 	 * @param destination
 	 *            <code>OutputStream</code> to which data will be streamed from
-	 *            iRODS. Note that this method will wrap the output stream with
-	 *            a buffered stream for you.
+	 *            iRODS. Data is written in chunks the size of the copy buffer
+	 *            in the <code>PipelineConfiguration</code>, so the stream does
+	 *            not need to be buffered. The stream is closed when done.
 	 * @param length
 	 *            <code>long</code> with the length of data to be read from
 	 *            iRODS and pushed to the stream.
@@ -471,28 +497,23 @@ public abstract class AbstractConnection {
 			throw new IllegalArgumentException(err);
 		}
 
-		BufferedOutputStream bos = new BufferedOutputStream(destination);
 		try {
-			byte[] temp = new byte[Math.min(
-					pipelineConfiguration.getInputToOutputCopyBufferByteSize(),
-					(int) length)];
+			byte[] temp = getReadToStreamBuffer(length);
 
 			int n = 0;
 			while (length > 0) {
 
 				if (Thread.interrupted()) {
-					bos.close();
 					throw new IOException(
 
 							"interrupted, consider connection corrupted and return IOException to clear");
 				}
 
-				n = read(temp, 0, Math.min(pipelineConfiguration
-						.getInputToOutputCopyBufferByteSize(), (int) length));
+				n = read(temp, 0, (int) Math.min(temp.length, length));
 
 				if (n > 0) {
 					length -= n;
-					bos.write(temp, 0, n);
+					destination.write(temp, 0, n);
 					/*
 					 * If a listener is specified, send call-backs with progress
 					 */
@@ -506,17 +527,41 @@ public abstract class AbstractConnection {
 				}
 			}
 
-			bos.flush();
+			destination.flush();
 
 		} finally {
 			try {
-				bos.close();
+				destination.close();
 			} catch (Exception e) {
 				// ignore
 			}
 		}
 	}
 
+	/**
+	 * Get the copy buffer for streaming reads, which is kept by this connection
+	 * and reused by later reads. Connections are confined to one thread, so the
+	 * buffer is never shared.
+	 *
+	 * @param length
+	 *            <code>long</code> with the length of the read, smaller reads
+	 *            get a buffer of just that size that is not kept
+	 * @return <code>byte[]</code> to read into
+	 */
+	protected byte[] getReadToStreamBuffer(final long length) {
+		int copyBufferSize = pipelineConfiguration
+				.getInputToOutputCopyBufferByteSize();
+		if (length < copyBufferSize) {
+			return new byte[(int) length];
+		}
+
+		if (readToStreamBuffer == null
+				|| readToStreamBuffer.length != copyBufferSize) {
+			readToStreamBuffer = new byte[copyBufferSize];
+		}
+		return readToStreamBuffer;
+	}
+
 	/**
 	 * Reads a byte array from the server. Blocks until <code>length</code>
 	 * number of bytes are read.
@@ -576,6 +621,7 @@ public abstract class AbstractConnection {
 				}
 				bytesRead += read;
 			}
+			bytesReceived += bytesRead;
 			result = bytesRead;
 
 			return result;
@@ -729,4 +775,42 @@ public abstract class AbstractConnection {
 		return connectTimeInMillis;
 	}
 
+	/**
+	 * @return <code>long</code> with the bytes written to the connection since
+	 *         it was opened
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * @return <code>long</code> with the bytes read from the connection since
+	 *         it was opened
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * @return <code>boolean</code> that is <code>true</code> if a
+	 *         {@link #read(OutputStream, long, ConnectionProgressStatusListener)}
+	 *         into an unwrapped <code>FileOutputStream</code> moves the data
+	 *         straight into the file channel, so the stream should not be
+	 *         buffered
+	 */
+	public boolean isReadIntoFileChannel() {
+		return false;
+	}
+
+	/**
+	 * Count bytes read from the connection other than through the
+	 * <code>read</code> methods of this class
+	 *
+	 * @param count
+	 *            <code>long</code> with the bytes read
+	 */
+	protected void addBytesReceived(final long count) {
+		bytesReceived += count;
+	}
+
 }
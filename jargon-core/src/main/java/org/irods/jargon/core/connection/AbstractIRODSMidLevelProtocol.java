@@ -6,11 +6,16 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.irods.jargon.core.connection.auth.AuthResponse;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.metrics.JargonMetrics;
 import org.irods.jargon.core.packinstr.AbstractIRODSPackingInstruction;
 import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.PackingInstructionWriter;
 import org.irods.jargon.core.packinstr.RErrMsg;
 import org.irods.jargon.core.packinstr.Tag;
 import org.irods.jargon.core.protovalues.ErrorEnum;
@@ -27,6 +32,12 @@ public abstract class AbstractIRODSMidLevelProtocol {
 	private IRODSSession irodsSession = null;
 	private StartupResponseData startupResponseData;
 
+	/**
+	 * Reusable buffer that outgoing packing instructions are serialized into,
+	 * lazily created as it depends on the configured encoding
+	 */
+	private PackingInstructionWriter packingInstructionWriter = null;
+
 	/**
 	 * This is an overhead for iRODS 4.0 - 4.0.3 servers per
 	 * https://github.com/DICE-UNC/jargon/issues/70
@@ -34,6 +45,18 @@ public abstract class AbstractIRODSMidLevelProtocol {
 	 */
 	private boolean forceSslFlush = false;
 
+	/**
+	 * Metrics from the session, cached when the session is set, or
+	 * <code>null</code> when no metrics are kept
+	 */
+	private JargonMetrics jargonMetrics = null;
+
+	/**
+	 * Set once the close of the connection has been given to the metrics, as
+	 * a forced close may follow a failed normal one
+	 */
+	private boolean closeRecorded = false;
+
 	public static final int EIRODS_MIN = 301;
 	public static final int EIRODS_MAX = 301;
 
@@ -209,6 +232,80 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			final int byteStringLength, final int intInfo)
 					throws JargonException;
 
+	/**
+	 * Send the given iRODS protocol request, where the message has already
+	 * been encoded, with any included binary data, and return the iRODS
+	 * response as a <code>Tag</code> object.
+	 *
+	 * @param type
+	 *            <code>String</code> with the type of request, typically an
+	 *            iRODS protocol request
+	 * @param message
+	 *            <code>byte[]</code> with the encoded XML message, can be
+	 *            <code>null</code> if <code>messageLength</code> is zero
+	 * @param messageLength
+	 *            <code>int</code> with the length of the message, starting at
+	 *            index zero of the <code>message</code> array
+	 * @param errorBytes
+	 *            <code>byte[]</code> with any error data to send to iRODS, can
+	 *            be set to <code>null</code>
+	 * @param errorOffset
+	 *            <code>int</code> with offset into the error data to send
+	 * @param errorLength
+	 *            <code>int</code> with the length of error data
+	 * @param bytes
+	 *            <code>byte[]</code> with binary data to send to iRODS.
+	 * @param byteOffset
+	 *            <code>int</code> with an offset into the byte array to send
+	 * @param byteStringLength
+	 *            <code>int</code> with the length of the bytes to send
+	 * @param intInfo
+	 *            <code>int</code> with the iRODS API number
+	 * @return {@link Tag} with the iRODS protocol response
+	 * @throws JargonException
+	 */
+	public abstract Tag irodsFunction(final String type, final byte[] message,
+			final int messageLength, final byte[] errorBytes,
+			final int errorOffset, final int errorLength, final byte[] bytes,
+			final int byteOffset, final int byteStringLength, final int intInfo)
+					throws JargonException;
+
+	/**
+	 * Serialize the given packing instruction into the reusable per connection
+	 * buffer. The returned writer is valid until the next call.
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} to serialize
+	 * @return {@link PackingInstructionWriter} holding the encoded message,
+	 *         which is empty if the packing instruction has no message
+	 * @throws JargonException
+	 */
+	protected synchronized PackingInstructionWriter writePackingInstruction(
+			final IRodsPI irodsPI) throws JargonException {
+		PackingInstructionWriter writer = getPackingInstructionWriter();
+		writer.write(irodsPI);
+		return writer;
+	}
+
+	/**
+	 * Get the per connection writer, reset and ready for a new message
+	 */
+	private PackingInstructionWriter getPackingInstructionWriter()
+			throws JargonException {
+		if (packingInstructionWriter == null) {
+			try {
+				packingInstructionWriter = new PackingInstructionWriter(
+						Charset.forName(getEncoding()));
+			} catch (IllegalArgumentException e) {
+				log.error("Unsupported encoding for:{}", getEncoding());
+				throw new JargonException("Unsupported encoding for:"
+						+ getEncoding(), e);
+			}
+		}
+		packingInstructionWriter.reset();
+		return packingInstructionWriter;
+	}
+
 	/**
 	 * iRODS protocol request that sends data to iRODS using the
 	 * <code>OpenedDataObjInp</code> protocol interaction to send binary data in
@@ -264,17 +361,14 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		log.debug("api number is:{}", irodsPI.getApiNumber());
 
 		long dataSent = 0;
+		long startNanos = startApiCall();
 
 		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(irodsConnection
-						.getPipelineConfiguration().getDefaultEncoding()).length;
-			}
+			PackingInstructionWriter message = writePackingInstruction(irodsPI);
 			irodsConnection.send(createHeader(IRODSConstants.RODS_API_REQ,
-					length, 0, byteStreamLength, irodsPI.getApiNumber()));
-			irodsConnection.send(message);
+					message.getLength(), 0, byteStreamLength,
+					irodsPI.getApiNumber()));
+			sendMessage(message);
 
 			if (byteStreamLength > 0) {
 				dataSent += irodsConnection.send(byteStream, byteStreamLength,
@@ -294,7 +388,7 @@ public abstract class AbstractIRODSMidLevelProtocol {
 
 		log.debug("reading message from frame send...");
 		log.debug("read commented out");
-		readMessage();
+		readTimedReply(irodsPI.getApiNumber(), startNanos);
 		log.debug("message read");
 		return dataSent;
 	}
@@ -361,19 +455,17 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		log.debug("calling irods function with streams");
 		log.debug("calling irods function with:{}", irodsPI);
 		log.debug("api number is:{}", irodsPI.getApiNumber());
+		long startNanos = startApiCall();
 
 		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(getEncoding()).length;
-			}
+			PackingInstructionWriter message = writePackingInstruction(irodsPI);
 
 			log.debug("message:{}", message);
 
 			irodsConnection.send(createHeader(IRODSConstants.RODS_API_REQ,
-					length, 0, byteStreamLength, irodsPI.getApiNumber()));
-			irodsConnection.send(message);
+					message.getLength(), 0, byteStreamLength,
+					irodsPI.getApiNumber()));
+			sendMessage(message);
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(byteStream, byteStreamLength,
@@ -395,7 +487,7 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		}
 
 		log.debug("data sent, getting response");
-		return readMessage();
+		return readTimedReply(irodsPI.getApiNumber(), startNanos);
 	}
 
 	/**
@@ -413,30 +505,32 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		String out = irodsPI.getParsedTags();
+		PackingInstructionWriter out = writePackingInstruction(irodsPI);
 
-		if (out == null || out.length() == 0) {
+		if (out.getLength() == 0) {
 			String err = "null or missing message returned from parse";
 			log.error(err);
 			throw new IllegalArgumentException(err);
 		}
 
 		if (log.isDebugEnabled()) {
-			log.debug(out);
+			log.debug(out.toString());
 		}
 
+		long startNanos = startApiCall();
+
 		try {
 			irodsConnection.send(createHeader(IRODSConstants.RODS_API_REQ,
-					out.getBytes(getEncoding()).length, errorLength,
-					byteStreamLength, irodsPI.getApiNumber()));
-			irodsConnection.send(out);
+					out.getLength(), errorLength, byteStreamLength,
+					irodsPI.getApiNumber()));
+			sendMessage(out);
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(bytes, byteOffset, byteStreamLength);
 			}
 
 			irodsConnection.flush();
-			return readMessage();
+			return readTimedReply(irodsPI.getApiNumber(), startNanos);
 
 		} catch (UnsupportedEncodingException e) {
 			log.error("unsupported encoding", e);
@@ -568,8 +662,172 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_API_REQ,
-				irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		PackingInstructionWriter message = writePackingInstruction(irodsPI);
+		return irodsFunction(IRODSConstants.RODS_API_REQ, message.getBuffer(),
+				message.getLength(), null, 0, 0, null, 0, 0,
+				irodsPI.getApiNumber());
+	}
+
+	/**
+	 * Send a run of independent requests without waiting for each reply, then
+	 * read the replies in order. This trades one round trip per request for
+	 * one per window of requests, which is what dominates bulk operations such
+	 * as adding many AVUs over a high latency link.
+	 * <p/>
+	 * At most <code>pipelined.request.window.size</code> requests are sent
+	 * ahead of their replies, so that neither side blocks on a full socket.
+	 * The requests must not depend on each other, must not stream binary data
+	 * and must each expect exactly one reply message.
+	 * <p/>
+	 * An error that iRODS returns for one request is held in its reply and
+	 * the remaining replies are still read. An i/o error fails the whole call
+	 * and closes the connection, as it does for {@link #irodsFunction(IRodsPI)}
+	 * .
+	 *
+	 * @param irodsPIs
+	 *            <code>List</code> of {@link IRodsPI} to send, in order
+	 * @return <code>List</code> of {@link PipelinedReply}, one per request in
+	 *         the same order, all of which are complete
+	 * @throws JargonException
+	 */
+	public synchronized List<PipelinedReply> irodsFunctionPipelined(
+			final List<? extends IRodsPI> irodsPIs) throws JargonException {
+
+		if (irodsPIs == null) {
+			throw new IllegalArgumentException("null irodsPIs");
+		}
+
+		// check up front, a failure part way would leave replies unread
+		for (IRodsPI irodsPI : irodsPIs) {
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
+		}
+
+		int window = Math.max(1, getPipelineConfiguration()
+				.getPipelinedRequestWindowSize());
+		log.debug("pipelining {} requests with window:{}", irodsPIs.size(),
+				window);
+
+		List<PipelinedReply> replies = new ArrayList<PipelinedReply>(
+				irodsPIs.size());
+		int sent = 0;
+		// each reply is timed from the send of its own request
+		long[] sendNanos = jargonMetrics == null ? null
+				: new long[irodsPIs.size()];
+
+		try {
+			while (replies.size() < irodsPIs.size()) {
+				if (sent - replies.size() < window && sent < irodsPIs.size()) {
+					while (sent - replies.size() < window
+							&& sent < irodsPIs.size()) {
+						if (sendNanos != null) {
+							sendNanos[sent] = System.nanoTime();
+						}
+						sendRequest(irodsPIs.get(sent++));
+					}
+					irodsConnection.flush();
+				}
+				IRodsPI irodsPI = irodsPIs.get(replies.size());
+				PipelinedReply reply = readPipelinedReply(irodsPI);
+				if (sendNanos != null) {
+					jargonMetrics.recordApiCall(irodsPI.getApiNumber(),
+							System.nanoTime() - sendNanos[replies.size()],
+							reply.getException() == null);
+				}
+				replies.add(reply);
+			}
+		} catch (IOException e) {
+			log.error("io exception sending pipelined irods commands", e);
+			disconnectWithForce();
+			throw new JargonException(e);
+		}
+
+		return replies;
+	}
+
+	/**
+	 * Serialize and send one request with its header, without flushing
+	 */
+	private void sendRequest(final IRodsPI irodsPI) throws JargonException,
+			IOException {
+		PackingInstructionWriter message = writePackingInstruction(irodsPI);
+		irodsConnection.send(createHeader(IRODSConstants.RODS_API_REQ,
+				message.getLength(), 0, 0, irodsPI.getApiNumber()));
+		sendMessage(message);
+	}
+
+	/**
+	 * Read the reply to one pipelined request, holding an iRODS error in the
+	 * reply as long as the connection is still usable
+	 */
+	private PipelinedReply readPipelinedReply(final IRodsPI irodsPI)
+			throws JargonException {
+		try {
+			return new PipelinedReply(irodsPI, readMessage(), null);
+		} catch (JargonException e) {
+			if (!irodsConnection.isConnected()) {
+				throw e;
+			}
+			log.debug("pipelined request failed:{}", e.getMessage());
+			return new PipelinedReply(irodsPI, null, e);
+		}
+	}
+
+	/**
+	 * Note the start of a request, returning the time to give to
+	 * {@link #readTimedReply(int, long)}, or 0 when no metrics are kept
+	 */
+	final long startApiCall() {
+		return jargonMetrics == null ? 0L : System.nanoTime();
+	}
+
+	/**
+	 * Read the reply to a request, and give the time since
+	 * <code>startNanos</code> to the metrics, if kept, as the latency of the
+	 * API call
+	 */
+	final Tag readTimedReply(final int apiNumber, final long startNanos)
+			throws JargonException {
+		if (jargonMetrics == null) {
+			return readMessage();
+		}
+
+		boolean succeeded = false;
+		try {
+			Tag reply = readMessage();
+			succeeded = true;
+			return reply;
+		} finally {
+			jargonMetrics.recordApiCall(apiNumber, System.nanoTime()
+					- startNanos, succeeded);
+		}
+	}
+
+	/**
+	 * Give the totals of the connection to the metrics, if kept, once
+	 */
+	private void recordConnectionClosed() {
+		if (jargonMetrics == null || closeRecorded) {
+			return;
+		}
+		closeRecorded = true;
+		jargonMetrics.recordConnectionClosed(irodsConnection.getIrodsAccount()
+				.getHost(), irodsConnection.getBytesSent(), irodsConnection
+				.getBytesReceived(), System.currentTimeMillis()
+				- irodsConnection.getConnectTimeInMillis());
+	}
+
+	/**
+	 * Send the serialized message, if any, to the connection
+	 */
+	private void sendMessage(final PackingInstructionWriter message)
+			throws IOException {
+		if (message.getLength() > 0) {
+			irodsConnection.send(message.getBuffer(), 0, message.getLength());
+		}
 	}
 
 	/**
@@ -725,6 +983,7 @@ public abstract class AbstractIRODSMidLevelProtocol {
 				irodsConnection.flush();
 				log.debug("finally, shutdown is being called on the given connection");
 				irodsConnection.shutdown();
+				recordConnectionClosed();
 			} catch (ClosedChannelException e) {
 				log.error("closed channel", e);
 				disconnectWithForce();
@@ -835,7 +1094,10 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		Tag message = new Tag(AbstractIRODSPackingInstruction.INT_PI,
 				new Tag[] { new Tag(AbstractIRODSPackingInstruction.MY_INT,
 						status), });
-		irodsFunction(IRODSConstants.RODS_API_REQ, message.parseTag(),
+		PackingInstructionWriter writer = getPackingInstructionWriter();
+		writer.write(message);
+		irodsFunction(IRODSConstants.RODS_API_REQ, writer.getBuffer(),
+				writer.getLength(), null, 0, 0, null, 0, 0,
 				IRODSConstants.OPR_COMPLETE_AN);
 	}
 
@@ -877,6 +1139,17 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		}
 		irodsConnection.setIrodsSession(irodsSession);
 		this.irodsSession = irodsSession;
+		jargonMetrics = irodsSession.getJargonMetrics();
+	}
+
+	/**
+	 * Get the metrics that the calls on this connection are recorded to
+	 *
+	 * @return {@link JargonMetrics}, or <code>null</code> if the session keeps
+	 *         no metrics
+	 */
+	public synchronized JargonMetrics getJargonMetrics() {
+		return jargonMetrics;
 	}
 
 	/**
@@ -1136,19 +1409,17 @@ public abstract class AbstractIRODSMidLevelProtocol {
 	public synchronized void obliterateConnectionAndDiscardErrors() {
 		log.warn("obliterateConnectionAndDiscardErrors() will forcefully close the connection");
 		irodsConnection.obliterateConnectionAndDiscardErrors();
+		recordConnectionClosed();
 	}
 
 	void processMessageInfoLessThanZero(final int messageLength,
 			final int errorLength, final int info) throws JargonException {
 		log.debug("info is < 0");
-		byte[] messageByte = new byte[messageLength];
 		// if nothing else, read the returned bytes and throw them away
 		if (messageLength > 0) {
 			log.debug("throwing away bytes");
 			try {
 				irodsConnection.read(new byte[messageLength], 0, messageLength);
-				Tag.readNextTag(messageByte, getEncoding());
-
 			} catch (ClosedChannelException e) {
 				log.error("closed channel", e);
 				throw new JargonException(e);
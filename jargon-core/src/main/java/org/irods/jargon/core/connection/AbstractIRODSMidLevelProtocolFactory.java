@@ -90,8 +90,10 @@ abstract class AbstractIRODSMidLevelProtocolFactory {
 		log.info("instance() method...calling connection life cycle");
 
 		log.info("create connection....");
+		long connectStart = System.nanoTime();
 		AbstractConnection connection = irodsConnectionFactory.instance(
 				irodsAccount, irodsSession, irodsProtocolManager);
+		long connectNanos = System.nanoTime() - connectStart;
 
 		AbstractIRODSMidLevelProtocol protocol = createInitialProtocol(
 				connection, irodsProtocolManager);
@@ -100,8 +102,14 @@ abstract class AbstractIRODSMidLevelProtocolFactory {
 			protocol.setIrodsSession(irodsSession);
 
 			log.info("...have connection, now authenticate given the auth scheme in the iRODS account...");
+			long authenticateStart = System.nanoTime();
 			protocol = authenticate(protocol, irodsAccount, irodsSession,
 					irodsProtocolManager);
+			if (protocol.getJargonMetrics() != null) {
+				protocol.getJargonMetrics().recordConnect(
+						irodsAccount.getHost(), connectNanos,
+						System.nanoTime() - authenticateStart);
+			}
 			log.info("..authenticated...now decorate and return...");
 			return decorate(protocol, irodsAccount, irodsSession);
 		} catch (AuthenticationException e) {
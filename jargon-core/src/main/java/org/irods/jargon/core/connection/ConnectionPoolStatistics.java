@@ -0,0 +1,170 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Immutable snapshot of the activity of an {@link IRODSPoolingProtocolManager}
+ * , summed over all of the accounts in the pool.
+ * <p/>
+ * A hit is a request served by an idle pooled connection, a miss is a request
+ * that had to create a new connection. Wait time is the time spent waiting for
+ * the per account active limit, and does not include the connection time of a
+ * miss.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ConnectionPoolStatistics {
+
+	private final long hits;
+	private final long misses;
+	private final long timeouts;
+	private final long totalWaitTimeInMillis;
+	private final long maxWaitTimeInMillis;
+	private final long created;
+	private final long destroyed;
+	private final long evicted;
+	private final int numActive;
+	private final int numIdle;
+
+	ConnectionPoolStatistics(final long hits, final long misses,
+			final long timeouts, final long totalWaitTimeInMillis,
+			final long maxWaitTimeInMillis, final long created,
+			final long destroyed, final long evicted, final int numActive,
+			final int numIdle) {
+		this.hits = hits;
+		this.misses = misses;
+		this.timeouts = timeouts;
+		this.totalWaitTimeInMillis = totalWaitTimeInMillis;
+		this.maxWaitTimeInMillis = maxWaitTimeInMillis;
+		this.created = created;
+		this.destroyed = destroyed;
+		this.evicted = evicted;
+		this.numActive = numActive;
+		this.numIdle = numIdle;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of requests served from an
+	 *         idle pooled connection
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of requests that created a new
+	 *         connection
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of requests that gave up
+	 *         waiting for a connection
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * @return <code>long</code> with the total time in milliseconds requests
+	 *         spent waiting for a connection
+	 */
+	public long getTotalWaitTimeInMillis() {
+		return totalWaitTimeInMillis;
+	}
+
+	/**
+	 * @return <code>long</code> with the longest time in milliseconds a
+	 *         request waited for a connection
+	 */
+	public long getMaxWaitTimeInMillis() {
+		return maxWaitTimeInMillis;
+	}
+
+	/**
+	 * @return <code>long</code> with the average time in milliseconds a
+	 *         served request waited for a connection
+	 */
+	public long getAverageWaitTimeInMillis() {
+		long served = hits + misses;
+		return served == 0 ? 0 : totalWaitTimeInMillis / served;
+	}
+
+	/**
+	 * @return <code>double</code> with the fraction of served requests that
+	 *         were hits
+	 */
+	public double getHitRatio() {
+		long served = hits + misses;
+		return served == 0 ? 0 : (double) hits / served;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of connections created by the
+	 *         pool, including those created to keep the minimum idle
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of connections closed by the
+	 *         pool
+	 */
+	public long getDestroyed() {
+		return destroyed;
+	}
+
+	/**
+	 * @return <code>long</code> with the number of idle connections closed by
+	 *         the evictor, these are also counted as destroyed
+	 */
+	public long getEvicted() {
+		return evicted;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of connections currently lent
+	 *         out
+	 */
+	public int getNumActive() {
+		return numActive;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of connections currently idle
+	 *         in the pool
+	 */
+	public int getNumIdle() {
+		return numIdle;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ConnectionPoolStatistics [hits=");
+		builder.append(hits);
+		builder.append(", misses=");
+		builder.append(misses);
+		builder.append(", timeouts=");
+		builder.append(timeouts);
+		builder.append(", totalWaitTimeInMillis=");
+		builder.append(totalWaitTimeInMillis);
+		builder.append(", maxWaitTimeInMillis=");
+		builder.append(maxWaitTimeInMillis);
+		builder.append(", created=");
+		builder.append(created);
+		builder.append(", destroyed=");
+		builder.append(destroyed);
+		builder.append(", evicted=");
+		builder.append(evicted);
+		builder.append(", numActive=");
+		builder.append(numActive);
+		builder.append(", numIdle=");
+		builder.append(numIdle);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
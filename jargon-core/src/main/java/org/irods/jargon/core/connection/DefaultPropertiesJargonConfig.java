@@ -543,4 +543,74 @@ public class DefaultPropertiesJargonConfig implements JargonProperties {
 		return verifyPropExistsAndGetAsBoolean("bypass.ssl.cert.checks");
 
 	}
+
+	@Override
+	public int getRandomAccessFilePageSize() {
+		return verifyPropExistsAndGetAsInt("random.access.file.page.size");
+	}
+
+	@Override
+	public int getRandomAccessFilePageCount() {
+		return verifyPropExistsAndGetAsInt("random.access.file.page.count");
+	}
+
+	@Override
+	public int getPipelinedRequestWindowSize() {
+		return verifyPropExistsAndGetAsInt("pipelined.request.window.size");
+	}
+
+	@Override
+	public int getDirectByteBufferPoolSize() {
+		return verifyPropExistsAndGetAsInt("jargon.io.direct.buffer.pool.size");
+	}
+
+	@Override
+	public int getRecursiveTransferThreads() {
+		return verifyPropExistsAndGetAsInt("transfer.recursive.threads");
+	}
+
+	@Override
+	public boolean isComputeChecksumDuringTransfer() {
+		return verifyPropExistsAndGetAsBoolean("transfer.checksum.inline");
+	}
+
+	@Override
+	public boolean isAdaptiveTransferTuning() {
+		return verifyPropExistsAndGetAsBoolean("transfer.adaptive.tuning");
+	}
+
+	@Override
+	public boolean isUseSharedTransferExecutor() {
+		return verifyPropExistsAndGetAsBoolean("transfer.use.shared.executor");
+	}
+
+	@Override
+	public int getSharedTransferExecutorMaxThreads() {
+		return verifyPropExistsAndGetAsInt("transfer.shared.executor.max.threads");
+	}
+
+	@Override
+	public String getRestartJournalFile() {
+		return verifyPropExistsAndGetAsString("transfer.restart.journal.file");
+	}
+
+	@Override
+	public boolean isUseObjStatCache() {
+		return verifyPropExistsAndGetAsBoolean("objstat.use.cache");
+	}
+
+	@Override
+	public int getObjStatCacheMaxEntries() {
+		return verifyPropExistsAndGetAsInt("objstat.cache.max.entries");
+	}
+
+	@Override
+	public long getObjStatCacheTimeToLiveMillis() {
+		return verifyPropExistsAndGetAsLong("objstat.cache.time.to.live.millis");
+	}
+
+	@Override
+	public int getReadAheadBlocks() {
+		return verifyPropExistsAndGetAsInt("jargon.io.read.ahead.blocks");
+	}
 }
@@ -129,7 +129,7 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 			try {
 
 				log.debug("normal iRODS connection");
-				connection = new Socket();
+				connection = createSocket();
 				connection.setSoTimeout(getPipelineConfiguration()
 						.getIrodsSocketTimeout() * 1000); // time is specified
 				// in seconds
@@ -197,6 +197,17 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 		log.debug("socket opened successfully");
 	}
 
+	/**
+	 * Create the unconnected socket that {@link #connect(IRODSAccount)} will
+	 * configure and connect
+	 *
+	 * @return {@link Socket}
+	 * @throws IOException
+	 */
+	protected Socket createSocket() throws IOException {
+		return new Socket();
+	}
+
 	/**
 	 * @param irodsAccount
 	 * @throws JargonException
@@ -42,6 +42,8 @@ public class IRODSConnectionFactoryProducingFactory {
 
 		if (jargonProperties.getConnectionFactory().equals("tcp")) {
 			return new IRODSTCPConnectionFactoryImpl();
+		} else if (jargonProperties.getConnectionFactory().equals("nio")) {
+			return new IRODSNIOTCPConnectionFactoryImpl();
 		} else {
 			throw new JargonException("unsupported connection factory type:"
 					+ jargonProperties.getConnectionFactory());
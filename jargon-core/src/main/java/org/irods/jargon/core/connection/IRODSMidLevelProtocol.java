@@ -177,10 +177,48 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 			final int byteOffset, final int byteStringLength, final int intInfo)
 			throws JargonException {
 
+		// message may be null for some operations
+		byte[] messageBytes = null;
+		if (message != null) {
+			try {
+				messageBytes = message.getBytes(getEncoding());
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			}
+		}
+
+		return irodsFunction(type, messageBytes,
+				messageBytes == null ? 0 : messageBytes.length, errorBytes,
+				errorOffset, errorLength, bytes, byteOffset, byteStringLength,
+				intInfo);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol#irodsFunction
+	 * (java.lang.String, byte[], int, byte[], int, int, byte[], int, int, int)
+	 */
+	@Override
+	public synchronized Tag irodsFunction(final String type,
+			final byte[] message, final int messageLength,
+			final byte[] errorBytes, final int errorOffset,
+			final int errorLength, final byte[] bytes, final int byteOffset,
+			final int byteStringLength, final int intInfo)
+			throws JargonException {
+
 		log.debug("calling irods function with byte array");
 
-		if (intInfo != 1201) {
-			log.debug("calling irods function with:{}", message);
+		if (intInfo != 1201 && log.isDebugEnabled() && messageLength > 0) {
+			try {
+				log.debug("calling irods function with:{}", new String(
+						message, 0, messageLength, getEncoding()));
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			}
 		}
 
 		log.debug("api number is:{}", intInfo);
@@ -191,15 +229,9 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 			throw new JargonException(err);
 		}
 
-		// message may be null for some operations
+		long startNanos = startApiCall();
 
 		try {
-			int messageLength = 0;
-
-			if (message != null) {
-				messageLength = message.getBytes(getEncoding()).length;
-			}
-
 			getIrodsConnection().send(
 					createHeader(IRODSConstants.RODS_API_REQ, messageLength,
 							errorLength, byteStringLength, intInfo));
@@ -209,7 +241,9 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 				getIrodsConnection().flush();
 			}
 
-			getIrodsConnection().send(message);
+			if (messageLength > 0) {
+				getIrodsConnection().send(message, 0, messageLength);
+			}
 			getIrodsConnection().flush();
 
 			if (byteStringLength > 0) {
@@ -218,15 +252,12 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 
 			getIrodsConnection().flush();
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
 		} catch (IOException e) {
 			disconnectWithForce();
 			throw new JargonException(e);
 		}
 
-		return readMessage();
+		return readTimedReply(intInfo, startNanos);
 	}
 
 }
@@ -0,0 +1,294 @@
+package org.irods.jargon.core.connection;
+
+import java.io.BufferedInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection to iRODS over a blocking NIO <code>SocketChannel</code>. Requests
+ * and replies go through the socket streams just as in
+ * {@link IRODSBasicTCPConnection}, but a streamed read into a
+ * <code>FileOutputStream</code> (as in a single stream get) moves the data
+ * from the channel to the file with <code>FileChannel.transferFrom</code>
+ * rather than copying it through a heap buffer.
+ * <p/>
+ * <code>transferFrom</code> on a blocking channel ignores the socket timeout,
+ * so for such a transfer the channel is switched to non-blocking mode and
+ * waits on a <code>Selector</code> for the same timeout, failing a stalled
+ * transfer with a <code>SocketTimeoutException</code>.
+ * <p/>
+ * This connection is produced when the <code>connection.factory</code> jargon
+ * property is set to <code>nio</code>.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class IRODSNIOTCPConnection extends IRODSBasicTCPConnection {
+
+	static final Logger log = LoggerFactory
+			.getLogger(IRODSNIOTCPConnection.class);
+
+	private SocketChannel socketChannel;
+
+	/**
+	 * Default constructor that gives the account and pipeline setup
+	 * information.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} that defines the connection
+	 * @param pipelineConfiguration
+	 *            {@link PipelineConfiguration} that defines the low level
+	 *            connection and networking configuration
+	 * @param irodsProtocolManager
+	 *            {@link irodsProtocolManager} that requested this connection
+	 * @throws JargonException
+	 */
+	IRODSNIOTCPConnection(final IRODSAccount irodsAccount,
+			final PipelineConfiguration pipelineConfiguration,
+			final IRODSProtocolManager irodsProtocolManager)
+					throws JargonException {
+		super(irodsAccount, pipelineConfiguration, irodsProtocolManager);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.connection.IRODSBasicTCPConnection#createSocket()
+	 */
+	@Override
+	protected Socket createSocket() throws IOException {
+		socketChannel = SocketChannel.open();
+		return socketChannel.socket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.connection.IRODSBasicTCPConnection#
+	 * setUpSocketAndStreamsAfterConnection
+	 * (org.irods.jargon.core.connection.IRODSAccount)
+	 */
+	@Override
+	void setUpSocketAndStreamsAfterConnection(final IRODSAccount irodsAccount)
+			throws JargonException {
+		super.setUpSocketAndStreamsAfterConnection(irodsAccount);
+
+		/*
+		 * Nothing has been read yet, so the input buffer can be swapped for one
+		 * that tells how much it holds, which has to be drained before reading
+		 * from the channel directly
+		 */
+		int bufferSize = pipelineConfiguration
+				.getInternalInputStreamBufferSize();
+		if (bufferSize <= -1) {
+			return;
+		}
+
+		try {
+			if (bufferSize == 0) {
+				irodsInputStream = new DrainableBufferedInputStream(
+						connection.getInputStream());
+			} else {
+				irodsInputStream = new DrainableBufferedInputStream(
+						connection.getInputStream(), bufferSize);
+			}
+		} catch (IOException ioe) {
+			log.error(
+					"io exception opening socket to:" + irodsAccount.getHost()
+					+ " port:" + irodsAccount.getPort(), ioe);
+			throw new JargonException(ioe);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.connection.AbstractConnection#isReadIntoFileChannel
+	 * ()
+	 */
+	@Override
+	public boolean isReadIntoFileChannel() {
+		return socketChannel != null;
+	}
+
+	/**
+	 * Read from the iRODS connection for a given length, and write what is read
+	 * to the given <code>OutputStream</code>. A <code>FileOutputStream</code>
+	 * is written from its current position with
+	 * <code>FileChannel.transferFrom</code>, other streams are written through
+	 * the reused copy buffer.
+	 *
+	 * @param destination
+	 *            <code>OutputStream</code> to which data will be streamed from
+	 *            iRODS, which is closed when done. A buffered stream wrapping a
+	 *            file cannot use the channel transfer, so files should be
+	 *            passed unwrapped.
+	 * @param length
+	 *            <code>long</code> with the length of data to be read from
+	 *            iRODS and pushed to the stream.
+	 * @param intraFileStatusListener
+	 *            {@link ConnectionProgressStatusListener} that will receive
+	 *            progress on the streaming, or <code>null</code> for no such
+	 *            call-backs.
+	 * @throws SocketTimeoutException
+	 *             if no data arrives for the socket timeout during a transfer
+	 *             to a file
+	 */
+	@Override
+	public void read(final OutputStream destination, final long length,
+			final ConnectionProgressStatusListener intraFileStatusListener)
+					throws IOException {
+
+		if (!(destination instanceof FileOutputStream)
+				|| socketChannel == null) {
+			super.read(destination, length, intraFileStatusListener);
+			return;
+		}
+
+		if (length == 0) {
+			String err = "read length is set to zero";
+			log.error(err);
+			throw new IllegalArgumentException(err);
+		}
+
+		FileOutputStream fileOutputStream = (FileOutputStream) destination;
+		try {
+			long remaining = length;
+
+			/*
+			 * Bytes already in the input buffer precede those still in the
+			 * channel
+			 */
+			if (irodsInputStream instanceof DrainableBufferedInputStream) {
+				int buffered = (int) Math.min(
+						((DrainableBufferedInputStream) irodsInputStream)
+						.getBufferedCount(), remaining);
+				if (buffered > 0) {
+					byte[] temp = getReadToStreamBuffer(buffered);
+					int n = read(temp, 0, buffered);
+					fileOutputStream.write(temp, 0, n);
+					remaining -= n;
+					notifyListener(intraFileStatusListener, n);
+				}
+			}
+
+			if (remaining > 0) {
+				transferFromChannel(fileOutputStream.getChannel(), remaining,
+						intraFileStatusListener);
+			}
+			fileOutputStream.flush();
+
+		} finally {
+			try {
+				fileOutputStream.close();
+			} catch (Exception e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Move bytes from the socket channel to the file channel, from its current
+	 * position, waiting on a selector so that the socket timeout applies. The
+	 * channel is back in blocking mode on return.
+	 */
+	private void transferFromChannel(final FileChannel fileChannel,
+			final long length,
+			final ConnectionProgressStatusListener intraFileStatusListener)
+			throws IOException {
+
+		int timeoutMillis = connection.getSoTimeout();
+		long chunkSize = pipelineConfiguration
+				.getInputToOutputCopyBufferByteSize();
+		long position = fileChannel.position();
+		long remaining = length;
+
+		Selector selector = Selector.open();
+		try {
+			socketChannel.configureBlocking(false);
+			socketChannel.register(selector, SelectionKey.OP_READ);
+
+			while (remaining > 0) {
+				// a zero timeout waits without limit, as it does for the socket
+				int ready = selector.select(timeoutMillis);
+				if (Thread.interrupted()) {
+					throw new IOException(
+							"interrupted, consider connection corrupted and return IOException to clear");
+				}
+				if (ready == 0) {
+					log.error("no data in {} ms with {} bytes left to read",
+							timeoutMillis, remaining);
+					throw new SocketTimeoutException("no data from iRODS in "
+							+ timeoutMillis + " ms with " + remaining
+							+ " bytes left to read");
+				}
+				selector.selectedKeys().clear();
+
+				long transferred = fileChannel.transferFrom(socketChannel,
+						position, Math.min(chunkSize, remaining));
+				if (transferred <= 0) {
+					// a channel that is readable but gives nothing is at its end
+					log.warn("end of stream with {} bytes left to read",
+							remaining);
+					break;
+				}
+				position += transferred;
+				remaining -= transferred;
+				addBytesReceived(transferred);
+				notifyListener(intraFileStatusListener, transferred);
+			}
+			fileChannel.position(position);
+		} finally {
+			// closing the selector deregisters the channel
+			selector.close();
+			socketChannel.configureBlocking(true);
+		}
+	}
+
+	private void notifyListener(
+			final ConnectionProgressStatusListener intraFileStatusListener,
+			final long byteCount) {
+		if (intraFileStatusListener != null) {
+			intraFileStatusListener
+			.connectionProgressStatusCallback(ConnectionProgressStatus
+					.instanceForSend(byteCount));
+		}
+	}
+
+	/**
+	 * Input buffer that reports how many bytes it holds
+	 */
+	static class DrainableBufferedInputStream extends BufferedInputStream {
+
+		DrainableBufferedInputStream(final InputStream in) {
+			super(in);
+		}
+
+		DrainableBufferedInputStream(final InputStream in, final int size) {
+			super(in, size);
+		}
+
+		/**
+		 * @return <code>int</code> with the number of bytes read from the
+		 *         underlying stream but not yet read from this one
+		 */
+		synchronized int getBufferedCount() {
+			return count - pos;
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package org.irods.jargon.core.connection;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of a connection factory for producing the NIO
+ * <code>SocketChannel</code> based TCP/IP connection layer, see
+ * {@link IRODSNIOTCPConnection}.
+ *
+ * @author Mike Conway - DICE (www.irods.org) see http://code.renci.org for
+ *         trackers, access info, and documentation
+ *
+ */
+class IRODSNIOTCPConnectionFactoryImpl extends IRODSConnectionFactory {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSNIOTCPConnectionFactoryImpl.class);
+
+	@Override
+	protected AbstractConnection instance(final IRODSAccount irodsAccount,
+			final IRODSSession irodsSession,
+			final IRODSProtocolManager irodsProtocolManager)
+					throws JargonException {
+
+		log.info("instance()");
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		IRODSNIOTCPConnection connection = new IRODSNIOTCPConnection(
+				irodsAccount,
+				irodsSession
+				.buildPipelineConfigurationBasedOnJargonProperties(),
+				irodsProtocolManager);
+		return connection;
+	}
+
+}
@@ -0,0 +1,753 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.exception.AuthenticationException;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Protocol manager that keeps connections to iRODS in a pool, keyed by the
+ * credentials and target of the <code>IRODSAccount</code>, so that a
+ * connection returned by one thread can be reused by another without paying
+ * for the connect, startup and authentication handshake again.
+ * <p/>
+ * The {@link IRODSSession} still caches the connection for the current thread,
+ * the pool comes into play when the session is closed, and the connection is
+ * returned here rather than shut down. This suits web tiers and services
+ * where each request runs in its own thread and closes its session when done.
+ * <p/>
+ * The pool is tuned with the following settings, which should be set before
+ * the first connection is requested:
+ * <ul>
+ * <li>maxActivePerAccount - the most connections lent out at once for an
+ * account. Further requests wait, in arrival order, for a connection to be
+ * returned</li>
+ * <li>maxWaitInMillis - how long a request waits before failing, a value less
+ * than zero waits indefinitely</li>
+ * <li>maxIdlePerAccount - the most idle connections kept for an account,
+ * connections returned beyond this are shut down</li>
+ * <li>minIdlePerAccount - idle connections the evictor keeps open for an
+ * account once it has been used</li>
+ * <li>maxIdleTimeInSeconds - idle connections above the minimum are shut down
+ * after this long, 0 keeps them until they must be renewed</li>
+ * <li>evictionIntervalInSeconds - how often the evictor runs, 0 turns it off</li>
+ * </ul>
+ * Connections are validated on borrow and by the evictor. A connection whose
+ * socket has closed is discarded, as is one older than the
+ * <code>socketRenewalIntervalInSeconds</code> in the
+ * <code>PipelineConfiguration</code>, which would otherwise be renewed by the
+ * session as soon as it is handed out.
+ * <p/>
+ * Activity is available from {@link #getPoolStatistics()}. Call
+ * {@link #destroy()} when done to close the idle connections and stop the
+ * evictor.
+ * <p/>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSPoolingProtocolManager extends IRODSProtocolManager {
+
+	public static final int DEFAULT_MAX_ACTIVE_PER_ACCOUNT = 8;
+	public static final int DEFAULT_MAX_IDLE_PER_ACCOUNT = 8;
+	public static final int DEFAULT_MIN_IDLE_PER_ACCOUNT = 0;
+	public static final long DEFAULT_MAX_WAIT_IN_MILLIS = 30000;
+	public static final int DEFAULT_MAX_IDLE_TIME_IN_SECONDS = 300;
+	public static final int DEFAULT_EVICTION_INTERVAL_IN_SECONDS = 30;
+
+	private volatile int maxActivePerAccount = DEFAULT_MAX_ACTIVE_PER_ACCOUNT;
+	private volatile int maxIdlePerAccount = DEFAULT_MAX_IDLE_PER_ACCOUNT;
+	private volatile int minIdlePerAccount = DEFAULT_MIN_IDLE_PER_ACCOUNT;
+	private volatile long maxWaitInMillis = DEFAULT_MAX_WAIT_IN_MILLIS;
+	private volatile int maxIdleTimeInSeconds = DEFAULT_MAX_IDLE_TIME_IN_SECONDS;
+	private volatile int evictionIntervalInSeconds = DEFAULT_EVICTION_INTERVAL_IN_SECONDS;
+
+	private final ConcurrentMap<PoolKey, AccountPool> pools = new ConcurrentHashMap<PoolKey, AccountPool>();
+
+	/**
+	 * Lent out connections, by identity, with the pool they came from. The
+	 * account of a connection may be changed by authentication (e.g. PAM), so
+	 * it is not used to find the pool on return
+	 */
+	private final Map<AbstractIRODSMidLevelProtocol, AccountPool> activeProtocols = new IdentityHashMap<AbstractIRODSMidLevelProtocol, AccountPool>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong timeouts = new AtomicLong();
+	private final AtomicLong totalWaitTimeInMillis = new AtomicLong();
+	private final AtomicLong maxWaitTimeInMillis = new AtomicLong();
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong destroyed = new AtomicLong();
+	private final AtomicLong evicted = new AtomicLong();
+
+	private ScheduledExecutorService evictor = null;
+	private volatile boolean closed = false;
+
+	private final Logger log = LoggerFactory
+			.getLogger(IRODSPoolingProtocolManager.class);
+
+	public static IRODSPoolingProtocolManager instance() {
+		return new IRODSPoolingProtocolManager();
+	}
+
+	public IRODSPoolingProtocolManager() {
+		log.info("creating pooling protocol manager");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.connection.IRODSProtocolManager#getIRODSProtocol
+	 * (org.irods.jargon.core.connection.IRODSAccount,
+	 * org.irods.jargon.core.connection.PipelineConfiguration,
+	 * org.irods.jargon.core.connection.IRODSSession)
+	 */
+	@Override
+	public AbstractIRODSMidLevelProtocol getIRODSProtocol(
+			final IRODSAccount irodsAccount,
+			final PipelineConfiguration pipelineConfiguration,
+			final IRODSSession irodsSession) throws AuthenticationException,
+			JargonException {
+
+		log.debug("getIRODSProtocol() from pool for account:{}", irodsAccount);
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (pipelineConfiguration == null) {
+			throw new IllegalArgumentException("null pipelineConfiguration");
+		}
+
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+
+		if (closed) {
+			throw new JargonException("the connection pool has been destroyed");
+		}
+
+		checkMidLevelProtocolFactory(irodsSession);
+		startEvictor();
+
+		AccountPool pool = poolFor(irodsAccount, pipelineConfiguration,
+				irodsSession);
+		acquirePermit(pool, irodsAccount);
+
+		AbstractIRODSMidLevelProtocol protocol;
+		try {
+			protocol = pollValidIdle(pool,
+					pipelineConfiguration.getSocketRenewalIntervalInSeconds());
+			if (protocol == null) {
+				misses.incrementAndGet();
+				log.debug("pool miss, creating a new connection");
+				protocol = createNewProtocol(irodsAccount,
+						pipelineConfiguration, irodsSession);
+				created.incrementAndGet();
+			} else {
+				hits.incrementAndGet();
+				log.debug("pool hit, reusing connection:{}", protocol);
+			}
+			protocol.setIrodsSession(irodsSession);
+			protocol.setIrodsProtocolManager(this);
+		} catch (JargonException e) {
+			pool.permits.release();
+			throw e;
+		} catch (RuntimeException e) {
+			pool.permits.release();
+			throw e;
+		}
+
+		synchronized (activeProtocols) {
+			activeProtocols.put(protocol, pool);
+		}
+		return protocol;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.connection.IRODSProtocolManager#returnIRODSProtocol
+	 * (org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol)
+	 */
+	@Override
+	public void returnIRODSProtocol(
+			final AbstractIRODSMidLevelProtocol irodsMidLevelProtocol)
+			throws JargonException {
+		log.debug("irodsMidLevelProtocol returned:{}", irodsMidLevelProtocol);
+
+		if (irodsMidLevelProtocol == null) {
+			throw new IllegalArgumentException("null irodsMidLevelProtocol");
+		}
+
+		AccountPool pool = removeActive(irodsMidLevelProtocol);
+		if (pool == null) {
+			log.warn("returned connection did not come from this pool, shut it down");
+			closeProtocol(irodsMidLevelProtocol);
+			return;
+		}
+
+		try {
+			if (closed
+					|| !irodsMidLevelProtocol.isConnected()
+					|| isExpired(irodsMidLevelProtocol,
+							pool.socketRenewalIntervalInSeconds)
+					|| !pool.offerIdle(irodsMidLevelProtocol, maxIdlePerAccount)) {
+				log.debug("not keeping returned connection, shut it down");
+				closeProtocol(irodsMidLevelProtocol);
+			}
+		} finally {
+			pool.permits.release();
+		}
+	}
+
+	/**
+	 * Discard a connection that was returned because of an error, it is
+	 * closed rather than pooled
+	 */
+	@Override
+	protected void returnWithForce(
+			final AbstractIRODSMidLevelProtocol irodsMidLevelProtocol) {
+		if (irodsMidLevelProtocol == null) {
+			return;
+		}
+		AccountPool pool = removeActive(irodsMidLevelProtocol);
+		super.returnWithForce(irodsMidLevelProtocol);
+		destroyed.incrementAndGet();
+		if (pool != null) {
+			pool.permits.release();
+		}
+	}
+
+	/**
+	 * Start the evictor. This is done on the first request for a connection if
+	 * not called directly.
+	 */
+	@Override
+	public void initialize() throws JargonException {
+		log.info("initialize()");
+		startEvictor();
+	}
+
+	/**
+	 * Close all idle connections and stop the evictor. Connections lent out at
+	 * the time are shut down when returned, and any further requests for a
+	 * connection will fail.
+	 */
+	@Override
+	public void destroy() throws JargonException {
+		log.info("destroy(), closing idle connections");
+		closed = true;
+
+		synchronized (this) {
+			if (evictor != null) {
+				evictor.shutdownNow();
+				evictor = null;
+			}
+		}
+
+		for (AccountPool pool : pools.values()) {
+			for (AbstractIRODSMidLevelProtocol protocol : pool.drainIdle()) {
+				closeProtocol(protocol);
+			}
+		}
+	}
+
+	/**
+	 * Get a snapshot of the pool activity since it was created
+	 *
+	 * @return {@link ConnectionPoolStatistics}
+	 */
+	public ConnectionPoolStatistics getPoolStatistics() {
+		int numIdle = 0;
+		for (AccountPool pool : pools.values()) {
+			numIdle += pool.getNumIdle();
+		}
+
+		int numActive;
+		synchronized (activeProtocols) {
+			numActive = activeProtocols.size();
+		}
+
+		return new ConnectionPoolStatistics(hits.get(), misses.get(),
+				timeouts.get(), totalWaitTimeInMillis.get(),
+				maxWaitTimeInMillis.get(), created.get(), destroyed.get(),
+				evicted.get(), numActive, numIdle);
+	}
+
+	/**
+	 * Close idle connections that are no longer valid, or have been idle too
+	 * long, and top up each account to the minimum idle. This is run
+	 * periodically by the evictor.
+	 */
+	void evictIdleProtocols() {
+		log.debug("evictIdleProtocols()");
+		long idleCutoff = maxIdleTimeInSeconds > 0 ? System
+				.currentTimeMillis() - maxIdleTimeInSeconds * 1000L
+				: Long.MIN_VALUE;
+
+		for (AccountPool pool : pools.values()) {
+			for (AbstractIRODSMidLevelProtocol protocol : pool.removeEvictable(
+					this, idleCutoff, minIdlePerAccount)) {
+				log.debug("evicting idle connection:{}", protocol);
+				closeProtocol(protocol);
+				evicted.incrementAndGet();
+			}
+			ensureMinIdle(pool);
+		}
+	}
+
+	private void ensureMinIdle(final AccountPool pool) {
+		if (pool.irodsAccount == null) {
+			return;
+		}
+		int needed = Math.min(minIdlePerAccount, maxIdlePerAccount)
+				- pool.getNumIdle();
+		for (int i = 0; i < needed && !closed; i++) {
+			AbstractIRODSMidLevelProtocol protocol;
+			try {
+				protocol = createNewProtocol(pool.irodsAccount,
+						pool.pipelineConfiguration, pool.irodsSession);
+			} catch (JargonException e) {
+				log.warn("unable to create connection for minimum idle", e);
+				return;
+			}
+			created.incrementAndGet();
+			if (closed || !pool.offerIdle(protocol, maxIdlePerAccount)) {
+				closeProtocol(protocol);
+				return;
+			}
+		}
+	}
+
+	private AccountPool poolFor(final IRODSAccount irodsAccount,
+			final PipelineConfiguration pipelineConfiguration,
+			final IRODSSession irodsSession) {
+		PoolKey key = new PoolKey(irodsAccount);
+		AccountPool pool = pools.get(key);
+		if (pool == null) {
+			AccountPool newPool = new AccountPool(maxActivePerAccount);
+			pool = pools.putIfAbsent(key, newPool);
+			if (pool == null) {
+				pool = newPool;
+			}
+		}
+		pool.lastUsed(irodsAccount, pipelineConfiguration, irodsSession);
+		return pool;
+	}
+
+	private void acquirePermit(final AccountPool pool,
+			final IRODSAccount irodsAccount) throws JargonException {
+		long start = System.nanoTime();
+		boolean acquired;
+		try {
+			if (maxWaitInMillis < 0) {
+				pool.permits.acquire();
+				acquired = true;
+			} else {
+				// the timed acquire honors the fairness of the semaphore
+				acquired = pool.permits.tryAcquire(maxWaitInMillis,
+						TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException(
+					"interrupted waiting for a pooled connection", e);
+		}
+
+		long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		if (!acquired) {
+			timeouts.incrementAndGet();
+			log.error("timed out after {} ms waiting for a connection for:{}",
+					waited, irodsAccount);
+			throw new JargonException(
+					"timed out waiting for a pooled connection for:"
+							+ irodsAccount);
+		}
+
+		totalWaitTimeInMillis.addAndGet(waited);
+		long max = maxWaitTimeInMillis.get();
+		while (waited > max && !maxWaitTimeInMillis.compareAndSet(max, waited)) {
+			max = maxWaitTimeInMillis.get();
+		}
+	}
+
+	private AbstractIRODSMidLevelProtocol pollValidIdle(
+			final AccountPool pool, final int socketRenewalIntervalInSeconds) {
+		AbstractIRODSMidLevelProtocol protocol;
+		while ((protocol = pool.pollIdle()) != null) {
+			if (protocol.isConnected()
+					&& !isExpired(protocol, socketRenewalIntervalInSeconds)) {
+				return protocol;
+			}
+			/*
+			 * close the socket rather than shutting down, a failed shutdown
+			 * would ask the session of this thread to discard the account it
+			 * is now connecting
+			 */
+			log.debug("discarding invalid idle connection:{}", protocol);
+			protocol.obliterateConnectionAndDiscardErrors();
+			destroyed.incrementAndGet();
+		}
+		return null;
+	}
+
+	/**
+	 * Is the connection older than the socket renewal interval, and so to be
+	 * closed rather than lent out again? Subclasses whose connections cannot
+	 * be made again may override this to keep them.
+	 *
+	 * @param protocol
+	 *            {@link AbstractIRODSMidLevelProtocol} being pooled
+	 * @param socketRenewalIntervalInSeconds
+	 *            <code>int</code> from the pipeline configuration, 0 means
+	 *            never renew
+	 * @return <code>boolean</code> of <code>true</code> if the connection is
+	 *         to be renewed
+	 */
+	protected boolean isExpired(final AbstractIRODSMidLevelProtocol protocol,
+			final int socketRenewalIntervalInSeconds) {
+		// 0 means ignore, as in IRODSSession
+		if (socketRenewalIntervalInSeconds == 0) {
+			return false;
+		}
+		return System.currentTimeMillis() > protocol.getConnectTimeInMillis()
+				+ socketRenewalIntervalInSeconds * 1000L;
+	}
+
+	private AccountPool removeActive(
+			final AbstractIRODSMidLevelProtocol irodsMidLevelProtocol) {
+		synchronized (activeProtocols) {
+			return activeProtocols.remove(irodsMidLevelProtocol);
+		}
+	}
+
+	private void closeProtocol(final AbstractIRODSMidLevelProtocol protocol) {
+		try {
+			if (protocol.isConnected()) {
+				protocol.shutdown();
+			}
+		} catch (Exception e) {
+			log.warn("error shutting down pooled connection, discarding it", e);
+			protocol.obliterateConnectionAndDiscardErrors();
+		}
+		destroyed.incrementAndGet();
+	}
+
+	private synchronized void startEvictor() {
+		if (evictor != null || closed || evictionIntervalInSeconds <= 0) {
+			return;
+		}
+
+		log.info("starting evictor every {} seconds", evictionIntervalInSeconds);
+		evictor = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"jargon-connection-pool-evictor");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					evictIdleProtocols();
+				} catch (RuntimeException e) {
+					log.error("error evicting idle connections", e);
+				}
+			}
+		}, evictionIntervalInSeconds, evictionIntervalInSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * @return the maxActivePerAccount
+	 */
+	public int getMaxActivePerAccount() {
+		return maxActivePerAccount;
+	}
+
+	/**
+	 * @param maxActivePerAccount
+	 *            the most connections lent out at once for an account, applies
+	 *            to accounts first seen after it is set
+	 */
+	public void setMaxActivePerAccount(final int maxActivePerAccount) {
+		if (maxActivePerAccount < 1) {
+			throw new IllegalArgumentException(
+					"maxActivePerAccount must be at least 1");
+		}
+		this.maxActivePerAccount = maxActivePerAccount;
+	}
+
+	/**
+	 * @return the maxIdlePerAccount
+	 */
+	public int getMaxIdlePerAccount() {
+		return maxIdlePerAccount;
+	}
+
+	/**
+	 * @param maxIdlePerAccount
+	 *            the most idle connections kept for an account
+	 */
+	public void setMaxIdlePerAccount(final int maxIdlePerAccount) {
+		if (maxIdlePerAccount < 0) {
+			throw new IllegalArgumentException("negative maxIdlePerAccount");
+		}
+		this.maxIdlePerAccount = maxIdlePerAccount;
+	}
+
+	/**
+	 * @return the minIdlePerAccount
+	 */
+	public int getMinIdlePerAccount() {
+		return minIdlePerAccount;
+	}
+
+	/**
+	 * @param minIdlePerAccount
+	 *            idle connections the evictor keeps open for each account that
+	 *            has been used
+	 */
+	public void setMinIdlePerAccount(final int minIdlePerAccount) {
+		if (minIdlePerAccount < 0) {
+			throw new IllegalArgumentException("negative minIdlePerAccount");
+		}
+		this.minIdlePerAccount = minIdlePerAccount;
+	}
+
+	/**
+	 * @return the maxWaitInMillis
+	 */
+	public long getMaxWaitInMillis() {
+		return maxWaitInMillis;
+	}
+
+	/**
+	 * @param maxWaitInMillis
+	 *            how long to wait for a connection when the account is at the
+	 *            active limit, less than zero waits indefinitely
+	 */
+	public void setMaxWaitInMillis(final long maxWaitInMillis) {
+		this.maxWaitInMillis = maxWaitInMillis;
+	}
+
+	/**
+	 * @return the maxIdleTimeInSeconds
+	 */
+	public int getMaxIdleTimeInSeconds() {
+		return maxIdleTimeInSeconds;
+	}
+
+	/**
+	 * @param maxIdleTimeInSeconds
+	 *            how long a connection above the minimum idle may sit in the
+	 *            pool, 0 keeps it until it must be renewed
+	 */
+	public void setMaxIdleTimeInSeconds(final int maxIdleTimeInSeconds) {
+		if (maxIdleTimeInSeconds < 0) {
+			throw new IllegalArgumentException("negative maxIdleTimeInSeconds");
+		}
+		this.maxIdleTimeInSeconds = maxIdleTimeInSeconds;
+	}
+
+	/**
+	 * @return the evictionIntervalInSeconds
+	 */
+	public int getEvictionIntervalInSeconds() {
+		return evictionIntervalInSeconds;
+	}
+
+	/**
+	 * @param evictionIntervalInSeconds
+	 *            how often the evictor runs, 0 turns it off. Takes effect when
+	 *            the evictor is started.
+	 */
+	public void setEvictionIntervalInSeconds(final int evictionIntervalInSeconds) {
+		if (evictionIntervalInSeconds < 0) {
+			throw new IllegalArgumentException(
+					"negative evictionIntervalInSeconds");
+		}
+		this.evictionIntervalInSeconds = evictionIntervalInSeconds;
+	}
+
+	/**
+	 * Connections for one pool key. The idle connections are used most
+	 * recently returned first, so that surplus connections age at the tail and
+	 * are evicted.
+	 */
+	private static final class AccountPool {
+
+		private final Semaphore permits;
+		private final Deque<IdleProtocol> idle = new ArrayDeque<IdleProtocol>();
+
+		/*
+		 * the most recent request, used to create connections for the minimum
+		 * idle
+		 */
+		private volatile IRODSAccount irodsAccount;
+		private volatile PipelineConfiguration pipelineConfiguration;
+		private volatile IRODSSession irodsSession;
+		private volatile int socketRenewalIntervalInSeconds;
+
+		AccountPool(final int maxActive) {
+			permits = new Semaphore(maxActive, true);
+		}
+
+		void lastUsed(final IRODSAccount irodsAccount,
+				final PipelineConfiguration pipelineConfiguration,
+				final IRODSSession irodsSession) {
+			this.irodsAccount = irodsAccount;
+			this.pipelineConfiguration = pipelineConfiguration;
+			this.irodsSession = irodsSession;
+			socketRenewalIntervalInSeconds = pipelineConfiguration
+					.getSocketRenewalIntervalInSeconds();
+		}
+
+		synchronized AbstractIRODSMidLevelProtocol pollIdle() {
+			IdleProtocol idleProtocol = idle.pollFirst();
+			return idleProtocol == null ? null : idleProtocol.protocol;
+		}
+
+		synchronized boolean offerIdle(
+				final AbstractIRODSMidLevelProtocol protocol, final int maxIdle) {
+			if (idle.size() >= maxIdle) {
+				return false;
+			}
+			idle.addFirst(new IdleProtocol(protocol));
+			return true;
+		}
+
+		synchronized int getNumIdle() {
+			return idle.size();
+		}
+
+		synchronized List<AbstractIRODSMidLevelProtocol> drainIdle() {
+			List<AbstractIRODSMidLevelProtocol> drained = new ArrayList<AbstractIRODSMidLevelProtocol>(
+					idle.size());
+			for (IdleProtocol idleProtocol : idle) {
+				drained.add(idleProtocol.protocol);
+			}
+			idle.clear();
+			return drained;
+		}
+
+		synchronized List<AbstractIRODSMidLevelProtocol> removeEvictable(
+				final IRODSPoolingProtocolManager manager,
+				final long idleCutoff, final int minIdle) {
+			List<AbstractIRODSMidLevelProtocol> evictable = new ArrayList<AbstractIRODSMidLevelProtocol>();
+
+			Iterator<IdleProtocol> oldestFirst = idle.descendingIterator();
+			while (oldestFirst.hasNext()) {
+				IdleProtocol idleProtocol = oldestFirst.next();
+				AbstractIRODSMidLevelProtocol protocol = idleProtocol.protocol;
+				if (!protocol.isConnected()
+						|| manager.isExpired(protocol,
+								socketRenewalIntervalInSeconds)
+						|| (idleProtocol.idleSince < idleCutoff && idle.size() > minIdle)) {
+					oldestFirst.remove();
+					evictable.add(protocol);
+				}
+			}
+			return evictable;
+		}
+	}
+
+	private static final class IdleProtocol {
+		private final AbstractIRODSMidLevelProtocol protocol;
+		private final long idleSince = System.currentTimeMillis();
+
+		IdleProtocol(final AbstractIRODSMidLevelProtocol protocol) {
+			this.protocol = protocol;
+		}
+	}
+
+	/**
+	 * Identifies connections that can be shared. Unlike
+	 * <code>IRODSAccount.equals()</code> this takes the zone, proxy user,
+	 * authentication scheme, password and default resource into account, so
+	 * a connection is only reused with the credentials it was opened with.
+	 */
+	private static final class PoolKey {
+
+		private final String host;
+		private final int port;
+		private final String zone;
+		private final String userName;
+		private final String proxyName;
+		private final String proxyZone;
+		private final AuthScheme authScheme;
+		private final String password;
+		private final String defaultStorageResource;
+
+		PoolKey(final IRODSAccount irodsAccount) {
+			host = irodsAccount.getHost();
+			port = irodsAccount.getPort();
+			zone = irodsAccount.getZone();
+			userName = irodsAccount.getUserName();
+			proxyName = irodsAccount.getProxyName();
+			proxyZone = irodsAccount.getProxyZone();
+			authScheme = irodsAccount.getAuthenticationScheme();
+			password = irodsAccount.getPassword();
+			defaultStorageResource = irodsAccount.getDefaultStorageResource();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PoolKey)) {
+				return false;
+			}
+			PoolKey other = (PoolKey) obj;
+			return port == other.port && same(host, other.host)
+					&& same(zone, other.zone)
+					&& same(userName, other.userName)
+					&& same(proxyName, other.proxyName)
+					&& same(proxyZone, other.proxyZone)
+					&& authScheme == other.authScheme
+					&& same(password, other.password)
+					&& same(defaultStorageResource,
+							other.defaultStorageResource);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = port;
+			result = 31 * result + (host == null ? 0 : host.hashCode());
+			result = 31 * result + (zone == null ? 0 : zone.hashCode());
+			result = 31 * result
+					+ (userName == null ? 0 : userName.hashCode());
+			return result;
+		}
+
+		private static boolean same(final String a, final String b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+
+}
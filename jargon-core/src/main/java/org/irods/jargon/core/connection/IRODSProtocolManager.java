@@ -147,6 +147,25 @@ public abstract class IRODSProtocolManager {
 				irodsAccount, this);
 	}
 
+	/**
+	 * This is an interim fix to initialize the mid level protocol factory from
+	 * the <code>JargonProperties</code> of the session, if one was not injected
+	 *
+	 * @param irodsSession
+	 *            {@link IRODSSession} that will manage the connection
+	 * @throws JargonException
+	 */
+	protected synchronized void checkMidLevelProtocolFactory(
+			final IRODSSession irodsSession) throws JargonException {
+		if (getIrodsMidLevelProtocolFactory() == null) {
+			IRODSConnectionFactory irodsConnectionFactory = getIrodsConnectionFactoryProducingFactory()
+					.instance(irodsSession.getJargonProperties());
+
+			setIrodsMidLevelProtocolFactory(new IRODSMidLevelProtocolFactory(
+					irodsConnectionFactory, getAuthenticationFactory()));
+		}
+	}
+
 	/**
 	 * Abandon a connection to iRODS for some error by forcefully shutting it
 	 * down.
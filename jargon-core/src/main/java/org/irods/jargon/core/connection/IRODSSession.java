@@ -3,6 +3,7 @@
  */
 package org.irods.jargon.core.connection;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -17,9 +18,12 @@ import org.irods.jargon.core.checksum.LocalChecksumComputerFactoryImpl;
 import org.irods.jargon.core.exception.AuthenticationException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.metrics.JargonMetrics;
+import org.irods.jargon.core.metrics.Slf4jJargonMetrics;
 import org.irods.jargon.core.packinstr.TransferOptions;
 import org.irods.jargon.core.pub.IRODSFileSystem;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.irods.jargon.core.pub.ObjStatCache;
 import org.irods.jargon.core.query.GenQueryBuilderException;
 import org.irods.jargon.core.query.GenQueryProcessor;
 import org.irods.jargon.core.query.IRODSGenQueryBuilder;
@@ -31,9 +35,14 @@ import org.irods.jargon.core.query.QueryConditionOperators;
 import org.irods.jargon.core.query.RodsGenQueryEnum;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
+import org.irods.jargon.core.transfer.AdaptiveTransferTuner;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.FileBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.FileRestartManagementException;
 import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.ParallelTransferExecutor;
 import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.utils.ByteBufferPool;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +93,8 @@ public class IRODSSession {
 	 * effect.
 	 */
 	private ExecutorService parallelTransferThreadPool = null;
+	private ParallelTransferExecutor parallelTransferExecutor = null;
+	private ByteBufferPool byteBufferPool = null;
 	private IRODSProtocolManager irodsProtocolManager;
 	private static final Logger log = LoggerFactory
 			.getLogger(IRODSSession.class);
@@ -131,6 +142,42 @@ public class IRODSSession {
 	 */
 	private AbstractRestartManager restartManager = null;
 
+	/**
+	 * Set when the restart manager was created by this session, which then
+	 * flushes and closes it
+	 */
+	private boolean restartManagerCreated = false;
+
+	/**
+	 * Learns parallel transfer settings, created on first use if the
+	 * <code>transfer.adaptive.tuning</code> property is set, or injected
+	 */
+	private AdaptiveTransferTuner adaptiveTransferTuner = null;
+
+	/**
+	 * Caches ObjStat and listing entry lookups, created on first use if the
+	 * <code>objstat.use.cache</code> property is set, or injected
+	 */
+	private ObjStatCache objStatCache = null;
+
+	/**
+	 * Set when the ObjStat cache was created by this session from the
+	 * properties, which then drops it when the cache is turned off
+	 */
+	private boolean objStatCacheCreated = false;
+
+	/**
+	 * Receives timings of protocol operations, created on first use if the
+	 * <code>jargon.instrument</code> property is set, or injected
+	 */
+	private JargonMetrics jargonMetrics = null;
+
+	/**
+	 * Most threads an adaptive tuner tries when the jargon properties set no
+	 * thread cap, the default cap of an iRODS server
+	 */
+	private static final int ADAPTIVE_TUNING_UNCAPPED_MAX_THREADS = 16;
+
 	/**
 	 * General configuration properties for operation of jargon, buffer sizes,
 	 * thread counts, etc.
@@ -241,6 +288,10 @@ public class IRODSSession {
 					.getIntraFileStatusCallbacksTotalBytesInterval());
 			transferOptions.setChecksumEncoding(jargonProperties
 					.getChecksumEncoding());
+			transferOptions.setRecursiveTransferThreads(jargonProperties
+					.getRecursiveTransferThreads());
+			transferOptions.setComputeChecksumDuringTransfer(jargonProperties
+					.isComputeChecksumDuringTransfer());
 
 		}
 
@@ -253,11 +304,16 @@ public class IRODSSession {
 	 * Close all sessions to iRODS that exist for this Thread. This method can
 	 * be safely called by multiple threads, as the connections are in a
 	 * <code>ThreadLocal</code>
+	 * <p/>
+	 * Pending segment updates of a journaled restart manager created by this
+	 * session are written out, the journal stays open for other threads, see
+	 * {@link #closeRestartManager()}
 	 *
 	 * @throws JargonException
 	 */
 	public void closeSession() throws JargonException {
 		log.debug("closing all irods sessions");
+		flushRestartManager();
 		final Map<String, AbstractIRODSMidLevelProtocol> irodsProtocols = sessionMap
 				.get();
 
@@ -303,7 +359,7 @@ public class IRODSSession {
 				// in-memory implementation. If the dev futzes with this, they
 				// have to make sure
 				// a restart manager is available.
-				restartManager = new MemoryBasedTransferRestartManager();
+				restartManager = createDefaultRestartManager();
 			}
 		} catch (Exception e) {
 			log.warn("unable to load default jargon properties");
@@ -731,6 +787,10 @@ public class IRODSSession {
 	 * first request based on the <code>JargonProperties</code>, and once
 	 * created, changing the properties does not reconfigure the pool, it just
 	 * returns the lazily created instance.
+	 * <p/>
+	 * If the shared transfer executor is set in the
+	 * <code>JargonProperties</code>, the {@link ParallelTransferExecutor} of
+	 * this session is returned in place of the pool.
 	 *
 	 * @return {@link ExecutorService} that is the pool of threads for the
 	 *         paralllel transfers, or <code>null</code> if the pool is not
@@ -742,6 +802,10 @@ public class IRODSSession {
 		log.debug("getting the ParallelTransferThreadPool");
 		synchronized (this) {
 
+			if (jargonProperties.isUseSharedTransferExecutor()) {
+				return getParallelTransferExecutor();
+			}
+
 			if (!jargonProperties.isUseTransferThreadsPool()) {
 				log.debug("I am not using the parallel transfer threads pool, return null");
 				return null;
@@ -775,6 +839,52 @@ public class IRODSSession {
 		}
 	}
 
+	/**
+	 * Get (lazily) the executor that runs the parallel transfer threads of
+	 * this session on the elastic thread pool shared by all sessions. This
+	 * returns <code>null</code> unless the shared transfer executor is set in
+	 * the <code>JargonProperties</code>. The thread limit is read from the
+	 * properties on the first request.
+	 *
+	 * @return {@link ParallelTransferExecutor}, whose statistics give the
+	 *         queue depth and thread use of this session, or
+	 *         <code>null</code>
+	 */
+	public synchronized ParallelTransferExecutor getParallelTransferExecutor() {
+
+		if (!jargonProperties.isUseSharedTransferExecutor()) {
+			return null;
+		}
+
+		if (parallelTransferExecutor == null) {
+			log.debug("creating the parallel transfer executor, max threads:{}",
+					jargonProperties.getSharedTransferExecutorMaxThreads());
+			parallelTransferExecutor = new ParallelTransferExecutor(
+					Math.max(1, jargonProperties
+							.getSharedTransferExecutorMaxThreads()));
+		}
+
+		return parallelTransferExecutor;
+	}
+
+	/**
+	 * Get (lazily) the pool of direct buffers used by channel based stream
+	 * copies. The pool is sized from the <code>JargonProperties</code> on the
+	 * first request, and changing the properties later does not resize it.
+	 *
+	 * @return {@link ByteBufferPool} shared by this session
+	 */
+	public ByteBufferPool getByteBufferPool() {
+		synchronized (this) {
+			if (byteBufferPool == null) {
+				log.debug("creating the byteBufferPool");
+				byteBufferPool = new ByteBufferPool(Math.max(0,
+						jargonProperties.getDirectByteBufferPoolSize()));
+			}
+			return byteBufferPool;
+		}
+	}
+
 	/**
 	 * Set the Jargon properties
 	 *
@@ -784,6 +894,11 @@ public class IRODSSession {
 	public void setJargonProperties(final JargonProperties jargonProperties) {
 		synchronized (this) {
 			this.jargonProperties = jargonProperties;
+			if (objStatCacheCreated && !jargonProperties.isUseObjStatCache()) {
+				log.info("ObjStat cache turned off, dropping it");
+				objStatCache = null;
+				objStatCacheCreated = false;
+			}
 		}
 	}
 
@@ -832,17 +947,204 @@ public class IRODSSession {
 
 		if (restartManager == null) {
 			if (jargonProperties.isLongTransferRestart()) {
-				log.warn("no restart manager provided, long file restart is on, create default memory based manager");
-				restartManager = new MemoryBasedTransferRestartManager();
+				log.warn("no restart manager provided, long file restart is on, create default manager");
+				restartManager = createDefaultRestartManager();
 			}
 		}
 
 		return restartManager;
 	}
 
+	/**
+	 * Create the restart manager used when none is provided, journaled to the
+	 * file given by the <code>transfer.restart.journal.file</code> property,
+	 * or in memory if that property is blank or the journal cannot be opened
+	 *
+	 * @return {@link AbstractRestartManager}
+	 */
+	private AbstractRestartManager createDefaultRestartManager() {
+		restartManagerCreated = true;
+		String journalFile = jargonProperties.getRestartJournalFile();
+		if (journalFile != null && !journalFile.trim().isEmpty()) {
+			try {
+				log.info("creating journaled restart manager at:{}",
+						journalFile);
+				return new FileBasedTransferRestartManager(new File(
+						journalFile.trim()));
+			} catch (FileRestartManagementException e) {
+				log.warn(
+						"unable to open restart journal, restarts will be kept in memory",
+						e);
+			}
+		}
+		return new MemoryBasedTransferRestartManager();
+	}
+
+	/**
+	 * Set the restart manager, a manager created by this session that is
+	 * replaced is closed. A manager set here is not closed by the session.
+	 *
+	 * @param restartManager
+	 *            {@link AbstractRestartManager}, or <code>null</code>
+	 */
 	public synchronized void setRestartManager(
 			final AbstractRestartManager restartManager) {
+		if (restartManager != this.restartManager) {
+			closeCreatedRestartManager();
+		}
 		this.restartManager = restartManager;
+		restartManagerCreated = false;
+	}
+
+	/**
+	 * Close the restart manager if it was created by this session, which for
+	 * a journaled manager writes any pending segment updates, stops its flush
+	 * thread and releases the journal for another session or JVM. A new
+	 * manager is created on the next call to {@link #getRestartManager()}.
+	 * <p/>
+	 * Call this once no transfers are running, such as when the application
+	 * shuts down.
+	 */
+	public synchronized void closeRestartManager() {
+		log.info("closeRestartManager()");
+		if (closeCreatedRestartManager()) {
+			restartManager = null;
+			restartManagerCreated = false;
+		}
+	}
+
+	/**
+	 * @return <code>boolean</code> of <code>true</code> if the manager was
+	 *         created by this session
+	 */
+	private boolean closeCreatedRestartManager() {
+		if (!restartManagerCreated) {
+			return false;
+		}
+
+		if (restartManager instanceof FileBasedTransferRestartManager) {
+			try {
+				((FileBasedTransferRestartManager) restartManager).close();
+			} catch (FileRestartManagementException e) {
+				log.warn("error closing restart journal", e);
+			}
+		}
+		return true;
+	}
+
+	private synchronized void flushRestartManager() {
+		if (restartManagerCreated
+				&& restartManager instanceof FileBasedTransferRestartManager) {
+			try {
+				((FileBasedTransferRestartManager) restartManager).flush();
+			} catch (FileRestartManagementException e) {
+				log.warn("error writing restart journal", e);
+			}
+		}
+	}
+
+	/**
+	 * Get the tuner that learns thread counts and copy buffer sizes for
+	 * parallel transfers. If none was set, one is created when the
+	 * <code>transfer.adaptive.tuning</code> property is <code>true</code>.
+	 *
+	 * @return {@link AdaptiveTransferTuner}, or <code>null</code> if parallel
+	 *         transfers are not tuned
+	 */
+	public synchronized AdaptiveTransferTuner getAdaptiveTransferTuner() {
+
+		if (adaptiveTransferTuner == null
+				&& jargonProperties.isAdaptiveTransferTuning()) {
+			log.info("creating adaptive transfer tuner");
+			int maxThreads = jargonProperties.getMaxParallelThreads();
+			if (maxThreads <= 0) {
+				maxThreads = ADAPTIVE_TUNING_UNCAPPED_MAX_THREADS;
+			}
+			adaptiveTransferTuner = new AdaptiveTransferTuner(maxThreads,
+					jargonProperties.getParallelCopyBufferSize());
+		}
+
+		return adaptiveTransferTuner;
+	}
+
+	/**
+	 * Set the tuner that learns thread counts and copy buffer sizes for
+	 * parallel transfers, for instance to share what one session has learned
+	 * with another
+	 *
+	 * @param adaptiveTransferTuner
+	 *            {@link AdaptiveTransferTuner}, or <code>null</code> to go
+	 *            back to the <code>transfer.adaptive.tuning</code> property
+	 */
+	public synchronized void setAdaptiveTransferTuner(
+			final AdaptiveTransferTuner adaptiveTransferTuner) {
+		this.adaptiveTransferTuner = adaptiveTransferTuner;
+	}
+
+	/**
+	 * Get the cache of ObjStat and listing entry lookups. If none was set, one
+	 * is created when the <code>objstat.use.cache</code> property is
+	 * <code>true</code>, sized by the <code>objstat.cache.*</code> properties.
+	 *
+	 * @return {@link ObjStatCache}, or <code>null</code> if lookups are not
+	 *         cached
+	 */
+	public synchronized ObjStatCache getObjStatCache() {
+
+		if (objStatCache == null && jargonProperties.isUseObjStatCache()) {
+			log.info("creating ObjStat cache");
+			objStatCache = new ObjStatCache(
+					jargonProperties.getObjStatCacheMaxEntries(),
+					jargonProperties.getObjStatCacheTimeToLiveMillis());
+			objStatCacheCreated = true;
+		}
+
+		return objStatCache;
+	}
+
+	/**
+	 * Set the cache of ObjStat and listing entry lookups, for instance to share
+	 * one cache between sessions
+	 *
+	 * @param objStatCache
+	 *            {@link ObjStatCache}, or <code>null</code> to go back to the
+	 *            <code>objstat.use.cache</code> property
+	 */
+	public synchronized void setObjStatCache(final ObjStatCache objStatCache) {
+		this.objStatCache = objStatCache;
+		objStatCacheCreated = false;
+	}
+
+	/**
+	 * Get the receiver of timings and counts of protocol operations. If none
+	 * was set, a {@link Slf4jJargonMetrics} is created when the
+	 * <code>jargon.instrument</code> property is <code>true</code>.
+	 * Connections and access objects look this up when they are created, so
+	 * it should be set before they are.
+	 *
+	 * @return {@link JargonMetrics}, or <code>null</code> if operations are
+	 *         not timed
+	 */
+	public synchronized JargonMetrics getJargonMetrics() {
+
+		if (jargonMetrics == null && jargonProperties.isInstrument()) {
+			log.info("creating SLF4J jargon metrics");
+			jargonMetrics = new Slf4jJargonMetrics();
+		}
+
+		return jargonMetrics;
+	}
+
+	/**
+	 * Set the receiver of timings and counts of protocol operations, for
+	 * instance a bridge to a metrics library
+	 *
+	 * @param jargonMetrics
+	 *            {@link JargonMetrics}, or <code>null</code> to go back to the
+	 *            <code>jargon.instrument</code> property
+	 */
+	public synchronized void setJargonMetrics(final JargonMetrics jargonMetrics) {
+		this.jargonMetrics = jargonMetrics;
 	}
 
 }
@@ -70,22 +70,6 @@ public final class IRODSSimpleProtocolManager extends IRODSProtocolManager {
 				irodsSession);
 	}
 
-	/**
-	 * This is an interim fix to initialize the mid level protocol factory
-	 *
-	 * @throws JargonException
-	 */
-	private synchronized void checkMidLevelProtocolFactory(
-			final IRODSSession irodsSession) throws JargonException {
-		if (getIrodsMidLevelProtocolFactory() == null) {
-			IRODSConnectionFactory irodsConnectionFactory = getIrodsConnectionFactoryProducingFactory()
-					.instance(irodsSession.getJargonProperties());
-
-			setIrodsMidLevelProtocolFactory(new IRODSMidLevelProtocolFactory(
-					irodsConnectionFactory, getAuthenticationFactory()));
-		}
-	}
-
 	/*
 	 * (non-Javadoc)
 	 *
@@ -280,15 +280,13 @@ public interface JargonProperties {
 	long getReconnectTimeInMillis();
 
 	/**
-	 * <code>boolean</code> that indicates whether certain performance
-	 * statistics are gathered and reported to the DEBUG log. This will turn on
-	 * useful statistics for optimization and tuning, but will introduce a
-	 * certain amount of overhead, so this is typically unsuitable for
-	 * production deployment.
-	 * <p/>
-	 * Note that actual instrumentation will be an ongoing process, and will be
-	 * done as certain operations are tuned. Initially, this will represent the
-	 * infrastructure for such tuning information.
+	 * <code>boolean</code> that indicates whether performance statistics are
+	 * gathered and reported to the DEBUG log. When set, the
+	 * <code>IRODSSession</code> creates a
+	 * {@link org.irods.jargon.core.metrics.Slf4jJargonMetrics} that times each
+	 * API call, connect and authenticate, and counts connection bytes, query
+	 * pages and transfers. The overhead is a clock read per call and a few
+	 * atomic updates, with a DEBUG log line per event.
 	 *
 	 * @return
 	 */
@@ -480,8 +478,10 @@ public interface JargonProperties {
 
 	/**
 	 * Get the type of networking layer that will be used in the low level
-	 * connections to iRODS (currently the values are limited to 'tcp'). If no
-	 * property is found, then 'tcp' will be defaulted.
+	 * connections to iRODS (currently the values are limited to 'tcp', or 'nio'
+	 * for a <code>SocketChannel</code> based connection that reads gets
+	 * straight into local files). If no property is found, then 'tcp' will be
+	 * defaulted.
 	 *
 	 * @return
 	 */
@@ -519,4 +519,133 @@ public interface JargonProperties {
 	 */
 	boolean isBypassSslCertChecks();
 
+	/**
+	 * Get the size in bytes of the pages cached by an
+	 * <code>IRODSRandomAccessFile</code>, see
+	 * {@link #getRandomAccessFilePageCount()}
+	 *
+	 * @return <code>int</code> with the page size in bytes
+	 */
+	int getRandomAccessFilePageSize();
+
+	/**
+	 * Get the number of pages an <code>IRODSRandomAccessFile</code> keeps in
+	 * its read-ahead/write-behind page cache. Small reads and writes are then
+	 * served from, or gathered in, whole pages rather than each going to iRODS.
+	 * Set to 0 to turn off the cache, so that every read and write goes to
+	 * iRODS.
+	 *
+	 * @return <code>int</code> with the number of cached pages, 0 if the cache
+	 *         is not used
+	 */
+	int getRandomAccessFilePageCount();
+
+	/**
+	 * Get the most requests that a pipelined call will have sent to iRODS
+	 * without having read their replies. Bounding the outstanding requests keeps
+	 * the server from blocking on a full socket while the client is still
+	 * writing.
+	 *
+	 * @return <code>int</code> with the most outstanding pipelined requests
+	 */
+	int getPipelinedRequestWindowSize();
+
+	/**
+	 * Get the most idle direct <code>ByteBuffer</code>s kept by the session for
+	 * reuse in channel based stream copies. Direct buffers are costly to allocate
+	 * and are only freed by the garbage collector, so pooling them avoids churn
+	 * when streaming many objects.
+	 *
+	 * @return <code>int</code> with the most idle pooled buffers, 0 to allocate a
+	 *         buffer for each copy
+	 */
+	int getDirectByteBufferPoolSize();
+
+	/**
+	 * Get the number of worker threads, each with its own connection, that
+	 * move the files of a recursive put, get or replicate. A value of 1 or less
+	 * moves one file at a time on the calling thread.
+	 *
+	 * @return <code>int</code> with the number of recursive transfer workers
+	 */
+	int getRecursiveTransferThreads();
+
+	/**
+	 * Should checksums asked for by the compute and verify options be computed on
+	 * the bytes as they are transferred, rather than by reading the local file
+	 * again?
+	 *
+	 * @return <code>boolean</code> that is <code>true</code> if checksums are
+	 *         computed during the transfer
+	 */
+	boolean isComputeChecksumDuringTransfer();
+
+	/**
+	 * Should parallel transfers learn thread counts and copy buffer sizes from
+	 * measured throughput, per host and file size?
+	 *
+	 * @return <code>boolean</code> that is <code>true</code> if an
+	 *         {@link org.irods.jargon.core.transfer.AdaptiveTransferTuner} is used
+	 */
+	boolean isAdaptiveTransferTuning();
+
+	/**
+	 * Should parallel transfer threads run on the elastic thread pool shared by
+	 * all sessions, with transfers queued against a per-session thread limit? This
+	 * takes the place of the <code>transfer.use.pool</code> pool.
+	 *
+	 * @return <code>boolean</code> that is <code>true</code> to use a
+	 *         {@link org.irods.jargon.core.transfer.ParallelTransferExecutor}
+	 */
+	boolean isUseSharedTransferExecutor();
+
+	/**
+	 * Most parallel transfer threads a session runs at once on the shared
+	 * elastic thread pool, later transfers wait for threads to finish. Used when
+	 * {@link #isUseSharedTransferExecutor()} is <code>true</code>.
+	 *
+	 * @return <code>int</code> with the thread limit of each session
+	 */
+	int getSharedTransferExecutorMaxThreads();
+
+	/**
+	 * Path of the journal file in which long file restart information is kept
+	 * across restarts of the JVM, used when long file restart is on. Blank keeps
+	 * restart information in memory only.
+	 *
+	 * @return <code>String</code> with the journal file path, or blank
+	 */
+	String getRestartJournalFile();
+
+	/**
+	 * Are ObjStat and listing entry lookups cached in the session, with entries
+	 * dropped after a time to live or when written through Jargon?
+	 *
+	 * @return <code>boolean</code> of <code>true</code> if the cache is used
+	 */
+	boolean isUseObjStatCache();
+
+	/**
+	 * Get the most ObjStat and listing entries kept in the cache, the least
+	 * recently used are dropped past this
+	 *
+	 * @return <code>int</code> with the most entries kept
+	 */
+	int getObjStatCacheMaxEntries();
+
+	/**
+	 * Get the milliseconds an ObjStat or listing entry stays in the cache
+	 *
+	 * @return <code>long</code> with the time to live in milliseconds
+	 */
+	long getObjStatCacheTimeToLiveMillis();
+
+	/**
+	 * Get the number of get buffer sized blocks a read ahead input stream fetches
+	 * from iRODS ahead of its reader, on its own connection
+	 *
+	 * @return <code>int</code> with the blocks read ahead
+	 */
+	int getReadAheadBlocks();
+
 }
\ No newline at end of file
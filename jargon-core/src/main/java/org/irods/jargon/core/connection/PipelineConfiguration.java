@@ -43,6 +43,7 @@ public class PipelineConfiguration {
 	private final int primaryTcpPerformancePrefsLatency;
 	private final int primaryTcpPerformancePrefsBandwidth;
 	private final int socketRenewalIntervalInSeconds;
+	private final int pipelinedRequestWindowSize;
 
 	/**
 	 * Static initializer method will derive an immutable
@@ -109,6 +110,8 @@ public class PipelineConfiguration {
 				.getPrimaryTcpSendWindowSize();
 		socketRenewalIntervalInSeconds = jargonProperties
 				.getSocketRenewalIntervalInSeconds();
+		pipelinedRequestWindowSize = jargonProperties
+				.getPipelinedRequestWindowSize();
 
 	}
 
@@ -320,6 +323,8 @@ public class PipelineConfiguration {
 		builder.append(primaryTcpPerformancePrefsBandwidth);
 		builder.append(", socketRenewalIntervalInSeconds=");
 		builder.append(socketRenewalIntervalInSeconds);
+		builder.append(", pipelinedRequestWindowSize=");
+		builder.append(pipelinedRequestWindowSize);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -331,4 +336,11 @@ public class PipelineConfiguration {
 		return socketRenewalIntervalInSeconds;
 	}
 
+	/**
+	 * @return the pipelinedRequestWindowSize
+	 */
+	public int getPipelinedRequestWindowSize() {
+		return pipelinedRequestWindowSize;
+	}
+
 }
@@ -0,0 +1,106 @@
+package org.irods.jargon.core.connection;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.Tag;
+
+/**
+ * The reply to one request sent by
+ * {@link AbstractIRODSMidLevelProtocol#irodsFunctionPipelined(java.util.List)}
+ * . The reply holds either the response <code>Tag</code> or the exception that
+ * iRODS raised for that request alone, and so can be inspected without
+ * failing the other requests in the pipeline.
+ * <p/>
+ * Replies are complete when the pipelined call returns, so the
+ * <code>Future</code> methods never block. {@link #getReply()} is the
+ * convenient way to get the response, as it throws the original
+ * <code>JargonException</code> rather than wrapping it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class PipelinedReply implements Future<Tag> {
+
+	private final IRodsPI request;
+	private final Tag reply;
+	private final JargonException exception;
+
+	PipelinedReply(final IRodsPI request, final Tag reply,
+			final JargonException exception) {
+		this.request = request;
+		this.reply = reply;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return {@link IRodsPI} that was sent
+	 */
+	public IRodsPI getRequest() {
+		return request;
+	}
+
+	/**
+	 * Get the response to the request
+	 *
+	 * @return {@link Tag} with the iRODS response, which can be
+	 *         <code>null</code> for requests that have no response message
+	 * @throws JargonException
+	 *             the exception iRODS returned for this request
+	 */
+	public Tag getReply() throws JargonException {
+		if (exception != null) {
+			throw exception;
+		}
+		return reply;
+	}
+
+	/**
+	 * @return <code>JargonException</code> that iRODS returned for this
+	 *         request, or <code>null</code> if it succeeded
+	 */
+	public JargonException getException() {
+		return exception;
+	}
+
+	/**
+	 * @return <code>boolean</code> that is <code>true</code> if iRODS returned
+	 *         an error for this request
+	 */
+	public boolean isFailed() {
+		return exception != null;
+	}
+
+	@Override
+	public boolean cancel(final boolean mayInterruptIfRunning) {
+		return false;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return false;
+	}
+
+	@Override
+	public boolean isDone() {
+		return true;
+	}
+
+	@Override
+	public Tag get() throws ExecutionException {
+		if (exception != null) {
+			throw new ExecutionException(exception);
+		}
+		return reply;
+	}
+
+	@Override
+	public Tag get(final long timeout, final TimeUnit unit)
+			throws ExecutionException {
+		return get();
+	}
+
+}
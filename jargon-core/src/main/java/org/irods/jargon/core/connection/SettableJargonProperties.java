@@ -89,6 +89,20 @@ public class SettableJargonProperties implements JargonProperties {
 	 * and is the recommended production setting.
 	 */
 	private boolean bypassSslCertChecks;
+	private int randomAccessFilePageSize;
+	private int randomAccessFilePageCount;
+	private int pipelinedRequestWindowSize;
+	private int directByteBufferPoolSize;
+	private int recursiveTransferThreads;
+	private boolean computeChecksumDuringTransfer;
+	private boolean adaptiveTransferTuning;
+	private boolean useSharedTransferExecutor;
+	private int sharedTransferExecutorMaxThreads;
+	private String restartJournalFile;
+	private boolean useObjStatCache;
+	private int objStatCacheMaxEntries;
+	private long objStatCacheTimeToLiveMillis;
+	private int readAheadBlocks;
 
 	/**
 	 * Construct a default properties set based on the provided initial set of
@@ -196,6 +210,29 @@ public class SettableJargonProperties implements JargonProperties {
 		intraFileStatusCallbacksTotalBytesInterval = jargonProperties
 				.getIntraFileStatusCallbacksTotalBytesInterval();
 		this.bypassSslCertChecks = jargonProperties.isBypassSslCertChecks();
+		randomAccessFilePageSize = jargonProperties
+				.getRandomAccessFilePageSize();
+		randomAccessFilePageCount = jargonProperties
+				.getRandomAccessFilePageCount();
+		pipelinedRequestWindowSize = jargonProperties
+				.getPipelinedRequestWindowSize();
+		directByteBufferPoolSize = jargonProperties
+				.getDirectByteBufferPoolSize();
+		recursiveTransferThreads = jargonProperties
+				.getRecursiveTransferThreads();
+		computeChecksumDuringTransfer = jargonProperties
+				.isComputeChecksumDuringTransfer();
+		adaptiveTransferTuning = jargonProperties.isAdaptiveTransferTuning();
+		useSharedTransferExecutor = jargonProperties
+				.isUseSharedTransferExecutor();
+		sharedTransferExecutorMaxThreads = jargonProperties
+				.getSharedTransferExecutorMaxThreads();
+		restartJournalFile = jargonProperties.getRestartJournalFile();
+		useObjStatCache = jargonProperties.isUseObjStatCache();
+		objStatCacheMaxEntries = jargonProperties.getObjStatCacheMaxEntries();
+		objStatCacheTimeToLiveMillis = jargonProperties
+				.getObjStatCacheTimeToLiveMillis();
+		readAheadBlocks = jargonProperties.getReadAheadBlocks();
 
 	}
 
@@ -1114,6 +1151,34 @@ public class SettableJargonProperties implements JargonProperties {
 		builder.append(intraFileStatusCallbacksNumberCallsInterval);
 		builder.append(", intraFileStatusCallbacksTotalBytesInterval=");
 		builder.append(intraFileStatusCallbacksTotalBytesInterval);
+		builder.append(", randomAccessFilePageSize=");
+		builder.append(randomAccessFilePageSize);
+		builder.append(", randomAccessFilePageCount=");
+		builder.append(randomAccessFilePageCount);
+		builder.append(", pipelinedRequestWindowSize=");
+		builder.append(pipelinedRequestWindowSize);
+		builder.append(", directByteBufferPoolSize=");
+		builder.append(directByteBufferPoolSize);
+		builder.append(", recursiveTransferThreads=");
+		builder.append(recursiveTransferThreads);
+		builder.append(", computeChecksumDuringTransfer=");
+		builder.append(computeChecksumDuringTransfer);
+		builder.append(", adaptiveTransferTuning=");
+		builder.append(adaptiveTransferTuning);
+		builder.append(", useSharedTransferExecutor=");
+		builder.append(useSharedTransferExecutor);
+		builder.append(", sharedTransferExecutorMaxThreads=");
+		builder.append(sharedTransferExecutorMaxThreads);
+		builder.append(", restartJournalFile=");
+		builder.append(restartJournalFile);
+		builder.append(", useObjStatCache=");
+		builder.append(useObjStatCache);
+		builder.append(", objStatCacheMaxEntries=");
+		builder.append(objStatCacheMaxEntries);
+		builder.append(", objStatCacheTimeToLiveMillis=");
+		builder.append(objStatCacheTimeToLiveMillis);
+		builder.append(", readAheadBlocks=");
+		builder.append(readAheadBlocks);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -1212,4 +1277,223 @@ public class SettableJargonProperties implements JargonProperties {
 		this.bypassSslCertChecks = bypassSslCertChecks;
 	}
 
+	@Override
+	public synchronized int getRandomAccessFilePageSize() {
+		return randomAccessFilePageSize;
+	}
+
+	/**
+	 * Set the size in bytes of the pages cached by an
+	 * <code>IRODSRandomAccessFile</code>
+	 *
+	 * @param randomAccessFilePageSize
+	 */
+	public synchronized void setRandomAccessFilePageSize(
+			final int randomAccessFilePageSize) {
+		this.randomAccessFilePageSize = randomAccessFilePageSize;
+	}
+
+	@Override
+	public synchronized int getRandomAccessFilePageCount() {
+		return randomAccessFilePageCount;
+	}
+
+	/**
+	 * Set the number of pages an <code>IRODSRandomAccessFile</code> caches, 0
+	 * turns the cache off
+	 *
+	 * @param randomAccessFilePageCount
+	 */
+	public synchronized void setRandomAccessFilePageCount(
+			final int randomAccessFilePageCount) {
+		this.randomAccessFilePageCount = randomAccessFilePageCount;
+	}
+
+	@Override
+	public synchronized int getPipelinedRequestWindowSize() {
+		return pipelinedRequestWindowSize;
+	}
+
+	/**
+	 * Set the most requests that a pipelined call will have sent to iRODS
+	 * without having read their replies
+	 *
+	 * @param pipelinedRequestWindowSize
+	 */
+	public synchronized void setPipelinedRequestWindowSize(
+			final int pipelinedRequestWindowSize) {
+		this.pipelinedRequestWindowSize = pipelinedRequestWindowSize;
+	}
+
+	@Override
+	public synchronized int getDirectByteBufferPoolSize() {
+		return directByteBufferPoolSize;
+	}
+
+	/**
+	 * Set the most idle direct <code>ByteBuffer</code>s kept by the session for
+	 * reuse in channel based stream copies
+	 *
+	 * @param directByteBufferPoolSize
+	 */
+	public synchronized void setDirectByteBufferPoolSize(
+			final int directByteBufferPoolSize) {
+		this.directByteBufferPoolSize = directByteBufferPoolSize;
+	}
+
+	@Override
+	public synchronized int getRecursiveTransferThreads() {
+		return recursiveTransferThreads;
+	}
+
+	/**
+	 * Set the number of worker threads, each with its own connection, that move
+	 * the files of a recursive put, get or replicate
+	 *
+	 * @param recursiveTransferThreads
+	 */
+	public synchronized void setRecursiveTransferThreads(
+			final int recursiveTransferThreads) {
+		this.recursiveTransferThreads = recursiveTransferThreads;
+	}
+
+	@Override
+	public synchronized boolean isComputeChecksumDuringTransfer() {
+		return computeChecksumDuringTransfer;
+	}
+
+	/**
+	 * Set whether checksums are computed on the bytes as they are transferred
+	 *
+	 * @param computeChecksumDuringTransfer
+	 */
+	public synchronized void setComputeChecksumDuringTransfer(
+			final boolean computeChecksumDuringTransfer) {
+		this.computeChecksumDuringTransfer = computeChecksumDuringTransfer;
+	}
+
+	@Override
+	public synchronized boolean isAdaptiveTransferTuning() {
+		return adaptiveTransferTuning;
+	}
+
+	/**
+	 * Set whether parallel transfers learn thread counts and copy buffer sizes
+	 * from measured throughput
+	 *
+	 * @param adaptiveTransferTuning
+	 */
+	public synchronized void setAdaptiveTransferTuning(
+			final boolean adaptiveTransferTuning) {
+		this.adaptiveTransferTuning = adaptiveTransferTuning;
+	}
+
+	@Override
+	public synchronized boolean isUseSharedTransferExecutor() {
+		return useSharedTransferExecutor;
+	}
+
+	/**
+	 * Set whether parallel transfer threads run on the shared elastic thread pool
+	 *
+	 * @param useSharedTransferExecutor
+	 */
+	public synchronized void setUseSharedTransferExecutor(
+			final boolean useSharedTransferExecutor) {
+		this.useSharedTransferExecutor = useSharedTransferExecutor;
+	}
+
+	@Override
+	public synchronized int getSharedTransferExecutorMaxThreads() {
+		return sharedTransferExecutorMaxThreads;
+	}
+
+	/**
+	 * Set the most parallel transfer threads a session runs at once on the shared
+	 * elastic thread pool
+	 *
+	 * @param sharedTransferExecutorMaxThreads
+	 */
+	public synchronized void setSharedTransferExecutorMaxThreads(
+			final int sharedTransferExecutorMaxThreads) {
+		this.sharedTransferExecutorMaxThreads = sharedTransferExecutorMaxThreads;
+	}
+
+	@Override
+	public synchronized String getRestartJournalFile() {
+		return restartJournalFile;
+	}
+
+	/**
+	 * Set the path of the long file restart journal, blank to keep restart
+	 * information in memory only
+	 *
+	 * @param restartJournalFile
+	 */
+	public synchronized void setRestartJournalFile(
+			final String restartJournalFile) {
+		this.restartJournalFile = restartJournalFile;
+	}
+
+	@Override
+	public synchronized boolean isUseObjStatCache() {
+		return useObjStatCache;
+	}
+
+	/**
+	 * Set whether ObjStat and listing entry lookups are cached in the session
+	 *
+	 * @param useObjStatCache
+	 */
+	public synchronized void setUseObjStatCache(
+			final boolean useObjStatCache) {
+		this.useObjStatCache = useObjStatCache;
+	}
+
+	@Override
+	public synchronized int getObjStatCacheMaxEntries() {
+		return objStatCacheMaxEntries;
+	}
+
+	/**
+	 * Set the most ObjStat and listing entries kept in the cache
+	 *
+	 * @param objStatCacheMaxEntries
+	 */
+	public synchronized void setObjStatCacheMaxEntries(
+			final int objStatCacheMaxEntries) {
+		this.objStatCacheMaxEntries = objStatCacheMaxEntries;
+	}
+
+	@Override
+	public synchronized long getObjStatCacheTimeToLiveMillis() {
+		return objStatCacheTimeToLiveMillis;
+	}
+
+	/**
+	 * Set the milliseconds an ObjStat or listing entry stays in the cache
+	 *
+	 * @param objStatCacheTimeToLiveMillis
+	 */
+	public synchronized void setObjStatCacheTimeToLiveMillis(
+			final long objStatCacheTimeToLiveMillis) {
+		this.objStatCacheTimeToLiveMillis = objStatCacheTimeToLiveMillis;
+	}
+
+	@Override
+	public synchronized int getReadAheadBlocks() {
+		return readAheadBlocks;
+	}
+
+	/**
+	 * Set the number of get buffer sized blocks a read ahead input stream fetches
+	 * ahead of its reader
+	 *
+	 * @param readAheadBlocks
+	 */
+	public synchronized void setReadAheadBlocks(
+			final int readAheadBlocks) {
+		this.readAheadBlocks = readAheadBlocks;
+	}
+
 }
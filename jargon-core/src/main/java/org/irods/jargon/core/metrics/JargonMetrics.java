@@ -0,0 +1,88 @@
+package org.irods.jargon.core.metrics;
+
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+
+/**
+ * Receives the timings and counts of jargon protocol operations. An
+ * implementation is given to {@link org.irods.jargon.core.connection.IRODSSession}
+ * with <code>setJargonMetrics()</code>, or a {@link Slf4jJargonMetrics} is
+ * created when the <code>jargon.instrument</code> property is
+ * <code>true</code>. With neither, no timings are taken at all.
+ * <p/>
+ * Methods are called on the thread doing the work, often many threads at once,
+ * and while a connection is held, so implementations must be thread safe and
+ * should return quickly. Times are in nanoseconds, from
+ * <code>System.nanoTime()</code>.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface JargonMetrics {
+
+	/**
+	 * A request to the iRODS agent was answered
+	 *
+	 * @param apiNumber
+	 *            <code>int</code> with the iRODS API number of the request
+	 * @param elapsedNanos
+	 *            <code>long</code> with the time from sending the request to
+	 *            reading the reply, including any data sent with the request
+	 * @param succeeded
+	 *            <code>boolean</code> that is <code>false</code> if the reply
+	 *            was an error, or the exchange failed
+	 */
+	void recordApiCall(int apiNumber, long elapsedNanos, boolean succeeded);
+
+	/**
+	 * A connection was opened and authenticated
+	 *
+	 * @param host
+	 *            <code>String</code> with the iRODS host
+	 * @param connectNanos
+	 *            <code>long</code> with the time to open the socket and
+	 *            exchange the startup pack
+	 * @param authenticateNanos
+	 *            <code>long</code> with the time to authenticate
+	 */
+	void recordConnect(String host, long connectNanos, long authenticateNanos);
+
+	/**
+	 * A connection was closed, or discarded after an error
+	 *
+	 * @param host
+	 *            <code>String</code> with the iRODS host
+	 * @param bytesSent
+	 *            <code>long</code> with the bytes sent over the connection
+	 * @param bytesReceived
+	 *            <code>long</code> with the bytes read from the connection
+	 * @param openMillis
+	 *            <code>long</code> with the time the connection was open
+	 */
+	void recordConnectionClosed(String host, long bytesSent,
+			long bytesReceived, long openMillis);
+
+	/**
+	 * A page of general query results was read
+	 *
+	 * @param rowCount
+	 *            <code>int</code> with the rows in the page
+	 * @param morePages
+	 *            <code>boolean</code> that is <code>true</code> if the query
+	 *            has further pages
+	 */
+	void recordGenQueryPage(int rowCount, boolean morePages);
+
+	/**
+	 * A data object was transferred
+	 *
+	 * @param transferType
+	 *            {@link TransferType} of the transfer
+	 * @param bytes
+	 *            <code>long</code> with the length of the data object
+	 * @param elapsedNanos
+	 *            <code>long</code> with the time the transfer took
+	 */
+	void recordTransfer(TransferType transferType, long bytes,
+			long elapsedNanos);
+
+}
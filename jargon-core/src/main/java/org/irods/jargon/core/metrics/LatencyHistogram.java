@@ -0,0 +1,126 @@
+package org.irods.jargon.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations that may be updated from many threads without
+ * locking. Durations are counted in buckets that double in width, so a
+ * percentile is reported as the upper bound of its bucket, within a factor of
+ * two of the true value, while the count, total and maximum are exact.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Bucket <code>i</code> holds durations below <code>2^i</code>
+	 * nanoseconds and at or above <code>2^(i-1)</code>
+	 */
+	private static final int BUCKET_COUNT = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Add a duration
+	 *
+	 * @param nanos
+	 *            <code>long</code> with the duration in nanoseconds, negative
+	 *            values are counted as zero
+	 */
+	public void record(final long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1,
+				64 - Long.numberOfLeadingZeros(value)));
+		count.incrementAndGet();
+		totalNanos.addAndGet(value);
+
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * @return <code>long</code> with the number of durations recorded
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the sum of the durations in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the longest duration in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the mean duration in nanoseconds, or 0 if
+	 *         none were recorded
+	 */
+	public long getMeanNanos() {
+		long n = count.get();
+		return n == 0 ? 0 : totalNanos.get() / n;
+	}
+
+	/**
+	 * Estimate a percentile of the durations
+	 *
+	 * @param percentile
+	 *            <code>double</code> from 0 to 100
+	 * @return <code>long</code> with the upper bound, in nanoseconds, of the
+	 *         bucket holding the percentile, no more than the maximum, or 0 if
+	 *         none were recorded
+	 */
+	public long getPercentileNanos(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be 0 to 100");
+		}
+
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				long upperBound = i == BUCKET_COUNT - 1 ? Long.MAX_VALUE
+						: (1L << i) - 1;
+				return Math.min(upperBound, maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("count=");
+		builder.append(getCount());
+		builder.append(", meanMicros=");
+		builder.append(getMeanNanos() / 1000);
+		builder.append(", p50Micros=");
+		builder.append(getPercentileNanos(50) / 1000);
+		builder.append(", p99Micros=");
+		builder.append(getPercentileNanos(99) / 1000);
+		builder.append(", maxMicros=");
+		builder.append(getMaxNanos() / 1000);
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,258 @@
+package org.irods.jargon.core.metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default {@link JargonMetrics}, created when the
+ * <code>jargon.instrument</code> property is <code>true</code>, that needs
+ * nothing beyond SLF4J. Every operation is logged at DEBUG to the
+ * <code>org.irods.jargon.core.metrics.Slf4jJargonMetrics</code> logger, and
+ * kept in per API number {@link LatencyHistogram}s and running totals that
+ * may be read with the getters, or written to the log at INFO with
+ * {@link #logSummary()}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class Slf4jJargonMetrics implements JargonMetrics {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(Slf4jJargonMetrics.class);
+
+	private final ConcurrentMap<Integer, LatencyHistogram> apiLatencies = new ConcurrentHashMap<Integer, LatencyHistogram>();
+	private final AtomicLong apiFailures = new AtomicLong();
+	private final LatencyHistogram connectLatency = new LatencyHistogram();
+	private final LatencyHistogram authenticateLatency = new LatencyHistogram();
+	private final AtomicLong connectionsClosed = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicLong bytesReceived = new AtomicLong();
+	private final AtomicLong genQueryPages = new AtomicLong();
+	private final AtomicLong genQueryRows = new AtomicLong();
+	private final ConcurrentMap<TransferType, TransferTotals> transfers = new ConcurrentHashMap<TransferType, TransferTotals>();
+
+	@Override
+	public void recordApiCall(final int apiNumber, final long elapsedNanos,
+			final boolean succeeded) {
+		LatencyHistogram histogram = apiLatencies.get(apiNumber);
+		if (histogram == null) {
+			LatencyHistogram created = new LatencyHistogram();
+			histogram = apiLatencies.putIfAbsent(apiNumber, created);
+			if (histogram == null) {
+				histogram = created;
+			}
+		}
+		histogram.record(elapsedNanos);
+		if (!succeeded) {
+			apiFailures.incrementAndGet();
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("api:{} micros:{} succeeded:{}", new Object[] {
+					apiNumber, elapsedNanos / 1000, succeeded });
+		}
+	}
+
+	@Override
+	public void recordConnect(final String host, final long connectNanos,
+			final long authenticateNanos) {
+		connectLatency.record(connectNanos);
+		authenticateLatency.record(authenticateNanos);
+
+		if (log.isDebugEnabled()) {
+			log.debug("connected to:{} connectMicros:{} authenticateMicros:{}",
+					new Object[] { host, connectNanos / 1000,
+					authenticateNanos / 1000 });
+		}
+	}
+
+	@Override
+	public void recordConnectionClosed(final String host,
+			final long bytesSent, final long bytesReceived,
+			final long openMillis) {
+		connectionsClosed.incrementAndGet();
+		this.bytesSent.addAndGet(bytesSent);
+		this.bytesReceived.addAndGet(bytesReceived);
+
+		if (log.isDebugEnabled()) {
+			log.debug("closed connection to:{} sent:{} received:{} openMillis:{}",
+					new Object[] { host, bytesSent, bytesReceived, openMillis });
+		}
+	}
+
+	@Override
+	public void recordGenQueryPage(final int rowCount, final boolean morePages) {
+		genQueryPages.incrementAndGet();
+		genQueryRows.addAndGet(rowCount);
+
+		log.debug("gen query page rows:{} morePages:{}", rowCount, morePages);
+	}
+
+	@Override
+	public void recordTransfer(final TransferType transferType,
+			final long bytes, final long elapsedNanos) {
+		TransferTotals totals = transfers.get(transferType);
+		if (totals == null) {
+			TransferTotals created = new TransferTotals();
+			totals = transfers.putIfAbsent(transferType, created);
+			if (totals == null) {
+				totals = created;
+			}
+		}
+		totals.count.incrementAndGet();
+		totals.bytes.addAndGet(bytes);
+		totals.nanos.addAndGet(elapsedNanos);
+
+		if (log.isDebugEnabled()) {
+			log.debug("{} of {} bytes in {} millis, {} MB/s", new Object[] {
+					transferType, bytes, elapsedNanos / 1000000,
+					megabytesPerSecond(bytes, elapsedNanos) });
+		}
+	}
+
+	/**
+	 * Write the totals and per API latencies to the log at INFO
+	 */
+	public void logSummary() {
+		if (!log.isInfoEnabled()) {
+			return;
+		}
+
+		for (Map.Entry<Integer, LatencyHistogram> entry : getApiLatencies()
+				.entrySet()) {
+			log.info("api:{} {}", entry.getKey(), entry.getValue());
+		}
+		log.info("api failures:{}", apiFailures.get());
+		log.info("connect:{}", connectLatency);
+		log.info("authenticate:{}", authenticateLatency);
+		log.info("connections closed:{} bytes sent:{} bytes received:{}",
+				new Object[] { connectionsClosed.get(), bytesSent.get(),
+				bytesReceived.get() });
+		log.info("gen query pages:{} rows:{}", genQueryPages.get(),
+				genQueryRows.get());
+		for (Map.Entry<TransferType, TransferTotals> entry : transfers
+				.entrySet()) {
+			TransferTotals totals = entry.getValue();
+			log.info("{} transfers:{} bytes:{} MB/s:{}", new Object[] {
+					entry.getKey(), totals.count.get(), totals.bytes.get(),
+					megabytesPerSecond(totals.bytes.get(), totals.nanos.get()) });
+		}
+	}
+
+	/**
+	 * @return <code>SortedMap</code> of the latency histogram of each API
+	 *         number called so far
+	 */
+	public SortedMap<Integer, LatencyHistogram> getApiLatencies() {
+		return new TreeMap<Integer, LatencyHistogram>(apiLatencies);
+	}
+
+	/**
+	 * @param apiNumber
+	 *            <code>int</code> with an iRODS API number
+	 * @return {@link LatencyHistogram} for the API, or <code>null</code> if it
+	 *         has not been called
+	 */
+	public LatencyHistogram getApiLatency(final int apiNumber) {
+		return apiLatencies.get(apiNumber);
+	}
+
+	/**
+	 * @return <code>long</code> with the count of API calls that failed
+	 */
+	public long getApiFailures() {
+		return apiFailures.get();
+	}
+
+	/**
+	 * @return {@link LatencyHistogram} of the time to open connections
+	 */
+	public LatencyHistogram getConnectLatency() {
+		return connectLatency;
+	}
+
+	/**
+	 * @return {@link LatencyHistogram} of the time to authenticate
+	 *         connections
+	 */
+	public LatencyHistogram getAuthenticateLatency() {
+		return authenticateLatency;
+	}
+
+	/**
+	 * @return <code>long</code> with the count of connections closed
+	 */
+	public long getConnectionsClosed() {
+		return connectionsClosed.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the bytes sent over closed connections
+	 */
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the bytes read from closed connections
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the count of general query pages read
+	 */
+	public long getGenQueryPages() {
+		return genQueryPages.get();
+	}
+
+	/**
+	 * @return <code>long</code> with the rows in all general query pages
+	 */
+	public long getGenQueryRows() {
+		return genQueryRows.get();
+	}
+
+	/**
+	 * @param transferType
+	 *            {@link TransferType}
+	 * @return <code>long</code> with the count of transfers of the type
+	 */
+	public long getTransferCount(final TransferType transferType) {
+		TransferTotals totals = transfers.get(transferType);
+		return totals == null ? 0 : totals.count.get();
+	}
+
+	/**
+	 * @param transferType
+	 *            {@link TransferType}
+	 * @return <code>long</code> with the bytes moved by transfers of the type
+	 */
+	public long getTransferBytes(final TransferType transferType) {
+		TransferTotals totals = transfers.get(transferType);
+		return totals == null ? 0 : totals.bytes.get();
+	}
+
+	private static long megabytesPerSecond(final long bytes, final long nanos) {
+		if (nanos <= 0) {
+			return 0;
+		}
+		return (long) (bytes / (nanos / 1000000000.0) / (1024 * 1024));
+	}
+
+	private static final class TransferTotals {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong bytes = new AtomicLong();
+		private final AtomicLong nanos = new AtomicLong();
+	}
+
+}
@@ -0,0 +1,8 @@
+/**
+ * Timings and counts of protocol operations, for tuning and monitoring. See
+ * {@link org.irods.jargon.core.metrics.JargonMetrics}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+package org.irods.jargon.core.metrics;
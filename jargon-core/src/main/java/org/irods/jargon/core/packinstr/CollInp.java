@@ -88,6 +88,23 @@ public class CollInp extends AbstractIRODSPackingInstruction {
 		return new CollInp(collectionName, true, true);
 	}
 
+	/**
+	 * Create the packing instruction to make a collection, and any missing
+	 * parents, carrying the api number so that it may be pipelined
+	 *
+	 * @param collectionName
+	 *            <code>String</code> with the absolute path to the iRODS
+	 *            collection to be created.
+	 * @return <code>CollInp</code> packing instruction.
+	 * @throws JargonException
+	 */
+	public static final CollInp instanceForMkdirs(final String collectionName)
+			throws JargonException {
+		CollInp collInp = new CollInp(collectionName, RECURSIVE_OPERATION);
+		collInp.setApiNumber(MKDIR_API_NBR);
+		return collInp;
+	}
+
 	public static final CollInp instance(final String collectionName,
 			final boolean recursiveOperation) throws JargonException {
 		return new CollInp(collectionName, recursiveOperation);
@@ -875,6 +875,17 @@ public class DataObjInp extends AbstractIRODSPackingInstruction {
 
 		if (transferOptions.isComputeAndVerifyChecksumAfterTransfer()
 				|| transferOptions.isComputeChecksumAfterTransfer()) {
+			if (fileChecksumValue == null
+					&& transferOptions.isComputeChecksumDuringTransfer()) {
+				/*
+				 * the local checksum is computed as the data is sent, so have
+				 * iRODS compute and register its own, and compare after
+				 */
+				log.info("adding kvp to register a checksum computed by iRODS");
+				kvps.add(KeyValuePair.instance("regChksum", ""));
+				return;
+			}
+
 			if (fileChecksumValue == null) {
 				throw new JargonException(
 						"no fileChecksumValue set, call the setter with the encoded checksum value");
@@ -0,0 +1,251 @@
+package org.irods.jargon.core.packinstr;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Serializes packing instructions directly into a reusable byte buffer,
+ * escaping values as they are written.
+ * <p/>
+ * This is the byte level counterpart of {@link Tag#parseTag()}, and produces
+ * exactly the bytes that the <code>String</code> returned by
+ * <code>parseTag()</code> would encode to, without building the intermediate
+ * buffers and strings per node. A writer is meant to be held per connection
+ * and {@link #reset()} before each message. It is not thread safe.
+ * <p/>
+ * Encodings that are not ASCII compatible (see
+ * {@link TagReader#isSupportedCharset(Charset)}) are handled by encoding the
+ * result of <code>parseTag()</code>.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class PackingInstructionWriter {
+
+	static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * A buffer grown beyond this size (e.g. by a large rule body) is dropped
+	 * on reset rather than pinned for the life of the connection
+	 */
+	static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+	private static final byte[] AMP = Tag.AMP.getBytes();
+	private static final byte[] LT = Tag.LT.getBytes();
+	private static final byte[] GT = Tag.GT.getBytes();
+	private static final byte[] QUOTE = Tag.QUOTE.getBytes();
+	private static final byte[] APOS = Tag.APOS.getBytes();
+	private static final String NULL_VALUE = "null";
+
+	private final Charset charset;
+	private final CharsetEncoder encoder;
+	private final boolean asciiCompatible;
+	private byte[] buffer = new byte[INITIAL_CAPACITY];
+	private int length = 0;
+
+	/**
+	 * Create a writer for the given encoding
+	 *
+	 * @param charset
+	 *            <code>Charset</code> used to encode the messages, typically
+	 *            the default encoding from the <code>PipelineConfiguration</code>
+	 */
+	public PackingInstructionWriter(final Charset charset) {
+		if (charset == null) {
+			throw new IllegalArgumentException("null charset");
+		}
+		this.charset = charset;
+		encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		asciiCompatible = TagReader.isSupportedCharset(charset);
+	}
+
+	/**
+	 * Clear the content so the buffer can be reused for the next message
+	 */
+	public void reset() {
+		length = 0;
+		if (buffer.length > MAX_RETAINED_CAPACITY) {
+			buffer = new byte[INITIAL_CAPACITY];
+		}
+	}
+
+	/**
+	 * Append the given packing instruction. Instructions derived from
+	 * {@link AbstractIRODSPackingInstruction} are written from their
+	 * <code>getTagValue()</code>, others from <code>getParsedTags()</code>. A
+	 * packing instruction without a message writes nothing.
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} to write
+	 * @throws JargonException
+	 */
+	public void write(final IRodsPI irodsPI) throws JargonException {
+		if (irodsPI == null) {
+			throw new IllegalArgumentException("null irodsPI");
+		}
+
+		if (asciiCompatible
+				&& irodsPI instanceof AbstractIRODSPackingInstruction) {
+			Tag message = ((AbstractIRODSPackingInstruction) irodsPI)
+					.getTagValue();
+			if (message != null) {
+				write(message);
+			}
+			return;
+		}
+
+		String message = irodsPI.getParsedTags();
+		if (message != null) {
+			writeBytes(message.getBytes(charset));
+		}
+	}
+
+	/**
+	 * Append the given tag, and all of its sub tags, in the form produced by
+	 * {@link Tag#parseTag()}
+	 *
+	 * @param tag
+	 *            {@link Tag} to write
+	 */
+	public void write(final Tag tag) {
+		if (tag == null) {
+			throw new IllegalArgumentException("null tag");
+		}
+
+		if (!asciiCompatible) {
+			writeBytes(tag.parseTag().getBytes(charset));
+			return;
+		}
+
+		writeTag(tag);
+	}
+
+	private void writeTag(final Tag tag) {
+		put((byte) Tag.OPEN_START_TAG);
+		writeChars(tag.getName(), false);
+		put((byte) Tag.CLOSE_START_TAG);
+
+		if (tag.tags != null) {
+			for (Tag child : tag.tags) {
+				writeTag(child);
+			}
+		} else {
+			String value = tag.getStringValue();
+			// parseTag() appends a null value as the text 'null'
+			writeChars(value == null ? NULL_VALUE : value, true);
+		}
+
+		put((byte) Tag.OPEN_START_TAG);
+		put((byte) '/');
+		writeChars(tag.getName(), false);
+		put((byte) Tag.CLOSE_END_TAG);
+		put((byte) '\n');
+	}
+
+	private void writeChars(final String value, final boolean escape) {
+		int n = value.length();
+		for (int i = 0; i < n; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				int end = i + 1;
+				while (end < n && value.charAt(end) >= 0x80) {
+					end++;
+				}
+				encode(value, i, end);
+				i = end - 1;
+			} else if (!escape) {
+				put((byte) c);
+			} else {
+				switch (c) {
+				case '&':
+					writeBytes(AMP);
+					break;
+				case '<':
+					writeBytes(LT);
+					break;
+				case '>':
+					writeBytes(GT);
+					break;
+				case '"':
+					writeBytes(QUOTE);
+					break;
+				case '`':
+					writeBytes(APOS);
+					break;
+				default:
+					put((byte) c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Encode a run of non-ASCII characters, which never need escaping
+	 */
+	private void encode(final String value, final int start, final int end) {
+		ensureCapacity(length
+				+ (int) Math.ceil(encoder.maxBytesPerChar() * (end - start)));
+		ByteBuffer out = ByteBuffer.wrap(buffer, length, buffer.length
+				- length);
+		encoder.reset();
+		encoder.encode(CharBuffer.wrap(value, start, end), out, true);
+		encoder.flush(out);
+		length = out.position();
+	}
+
+	private void writeBytes(final byte[] bytes) {
+		ensureCapacity(length + bytes.length);
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+	}
+
+	private void put(final byte b) {
+		if (length == buffer.length) {
+			ensureCapacity(length + 1);
+		}
+		buffer[length++] = b;
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity <= buffer.length) {
+			return;
+		}
+		byte[] grown = new byte[Math.max(capacity, buffer.length * 2)];
+		System.arraycopy(buffer, 0, grown, 0, length);
+		buffer = grown;
+	}
+
+	/**
+	 * Get the backing buffer, which is valid from index 0 to
+	 * {@link #getLength()}, and is overwritten on the next reset
+	 *
+	 * @return <code>byte[]</code> with the serialized message
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of bytes written since the
+	 *         last reset
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Decode the current content, intended for logging
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length, charset);
+	}
+
+}
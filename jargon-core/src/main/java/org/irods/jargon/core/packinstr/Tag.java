@@ -2,6 +2,7 @@ package org.irods.jargon.core.packinstr;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -434,6 +435,35 @@ public class Tag implements Cloneable {
 			return null;
 		}
 
+		Charset charset;
+		try {
+			charset = Charset.forName(encoding);
+		} catch (IllegalArgumentException e) {
+			throw new UnsupportedEncodingException(encoding);
+		}
+
+		if (TagReader.isSupportedCharset(charset)) {
+			return TagReader.readTag(data, 0, data.length, decode, charset);
+		}
+
+		return readNextTagUsingStringParsing(data, decode, encoding);
+	}
+
+	/**
+	 * Original parser that decodes the entire buffer to a <code>String</code>
+	 * before discovering the tags. This is retained for encodings that are not
+	 * ASCII compatible, all others are handled by {@link TagReader}.
+	 *
+	 * @throws UnsupportedEncodingException
+	 *             shouldn't throw, already tested for
+	 */
+	public static Tag readNextTagUsingStringParsing(final byte[] data,
+			final boolean decode, final String encoding)
+			throws UnsupportedEncodingException {
+		if (data == null) {
+			return null;
+		}
+
 		String d = new String(data, encoding);
 
 		// remove the random '\n'
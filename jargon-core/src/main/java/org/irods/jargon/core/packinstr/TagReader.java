@@ -0,0 +1,346 @@
+package org.irods.jargon.core.packinstr;
+
+import java.nio.charset.Charset;
+
+import org.irods.jargon.core.exception.JargonRuntimeException;
+
+/**
+ * Single pass pull parser that builds a {@link Tag} tree directly from the
+ * bytes of an iRODS XML protocol message.
+ * <p/>
+ * The original parser in {@link Tag} decoded the whole message into a
+ * <code>String</code>, ran a regular expression over it, and then recursively
+ * searched and sub-stringed the copy. For large <code>GenQueryOut</code>
+ * replies this made several copies of the payload per message. This reader
+ * walks the bytes once, only materializing the tag names (which are cached per
+ * message, as they repeat heavily) and the leaf values.
+ * <p/>
+ * The resulting tree is identical to the one produced by
+ * {@link Tag#readNextTagUsingStringParsing(byte[], boolean, String)},
+ * including the dropping of a line feed that directly follows a
+ * <code>&gt;</code> and the entity decoding rules of
+ * {@link Tag#setValue(String, boolean)}.
+ * <p/>
+ * The reader works on the raw bytes, and so is only usable for character sets
+ * where the markup characters are single bytes that cannot appear inside a
+ * multi-byte sequence (see {@link #isSupportedCharset(Charset)}).
+ * <p/>
+ * Instances are not thread safe, and are meant to be used for one message.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class TagReader {
+
+	private static final byte LT = '<';
+	private static final byte GT = '>';
+	private static final byte SLASH = '/';
+	private static final byte AMP = '&';
+	private static final byte LF = '\n';
+
+	private static final int NAME_CACHE_SIZE = 64;
+
+	private static final byte[][] ENTITIES = { Tag.AMP.getBytes(),
+		Tag.LT.getBytes(), Tag.GT.getBytes(), Tag.QUOTE.getBytes(),
+		Tag.APOS.getBytes() };
+
+	/**
+	 * Replacement for each entry in <code>ENTITIES</code>, note that the
+	 * <code>&amp;apos;</code> mapping mirrors {@link Tag#setValue(String, boolean)}
+	 */
+	private static final byte[] ENTITY_VALUES = { '&', '<', '>', '"', '`' };
+
+	private final byte[] data;
+	private final int limit;
+	private final boolean decode;
+	private final Charset charset;
+	private final String[] nameCache = new String[NAME_CACHE_SIZE];
+	private byte[] scratch;
+	private int pos;
+
+	/**
+	 * Parse the first tag found in the given region of the byte array,
+	 * returning <code>null</code> if no tag is present
+	 *
+	 * @param data
+	 *            <code>byte[]</code> with the protocol message
+	 * @param offset
+	 *            <code>int</code> with the offset of the message in the array
+	 * @param length
+	 *            <code>int</code> with the length of the message
+	 * @param decode
+	 *            <code>boolean</code> indicating that entities in values
+	 *            should be decoded
+	 * @param charset
+	 *            <code>Charset</code> of the message, must be a supported
+	 *            charset per {@link #isSupportedCharset(Charset)}
+	 * @return {@link Tag} that is the root of the message, or
+	 *         <code>null</code>
+	 */
+	public static Tag readTag(final byte[] data, final int offset,
+			final int length, final boolean decode, final Charset charset) {
+
+		if (data == null) {
+			throw new IllegalArgumentException("null data");
+		}
+
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IllegalArgumentException("offset or length out of range");
+		}
+
+		if (charset == null) {
+			throw new IllegalArgumentException("null charset");
+		}
+
+		return new TagReader(data, offset, length, decode, charset).readRoot();
+	}
+
+	/**
+	 * Check whether messages in the given <code>Charset</code> can be parsed
+	 * at the byte level by this reader
+	 *
+	 * @param charset
+	 *            <code>Charset</code> to check
+	 * @return <code>boolean</code> of <code>true</code> if the charset is
+	 *         ASCII compatible
+	 */
+	public static boolean isSupportedCharset(final Charset charset) {
+		if (charset == null) {
+			return false;
+		}
+		String name = charset.name();
+		return name.equals("UTF-8") || name.equals("US-ASCII")
+				|| name.equals("ISO-8859-1");
+	}
+
+	private TagReader(final byte[] data, final int offset, final int length,
+			final boolean decode, final Charset charset) {
+		this.data = data;
+		pos = offset;
+		limit = offset + length;
+		this.decode = decode;
+		this.charset = charset;
+	}
+
+	private Tag readRoot() {
+		int start = indexOf(LT, pos);
+		if (start < 0) {
+			return null;
+		}
+
+		int nameEnd = indexOf(GT, start);
+		if (nameEnd < 0) {
+			throw malformed("unterminated root tag", start);
+		}
+
+		Tag tag = new Tag(readName(start + 1, nameEnd));
+		pos = nameEnd + 1;
+
+		int next = indexOf(LT, pos);
+		if (next < 0) {
+			return tag;
+		}
+
+		if (isCloseTag(next)) {
+			// the root is never a leaf with an empty value
+			if (valueStart(pos) < next) {
+				tag.value = readValue(pos, next);
+			}
+			pos = next;
+			return tag;
+		}
+
+		readChildren(tag);
+		return tag;
+	}
+
+	/**
+	 * Read the content of the tag whose start tag ends at <code>pos</code>,
+	 * leaving <code>pos</code> after the matching end tag
+	 */
+	private void readElement(final Tag tag) {
+		int next = indexOf(LT, pos);
+		if (next < 0) {
+			throw malformed("unterminated tag " + tag.getName(), pos);
+		}
+
+		if (isCloseTag(next)) {
+			tag.value = readValue(pos, next);
+			pos = skipCloseTag(next);
+			return;
+		}
+
+		readChildren(tag);
+	}
+
+	private void readChildren(final Tag tag) {
+		while (true) {
+			int next = indexOf(LT, pos);
+			if (next < 0) {
+				// tolerate a truncated message, as the string parser did
+				pos = limit;
+				return;
+			}
+
+			if (isCloseTag(next)) {
+				pos = skipCloseTag(next);
+				return;
+			}
+
+			int nameEnd = indexOf(GT, next);
+			if (nameEnd < 0) {
+				throw malformed("unterminated tag", next);
+			}
+
+			Tag child = new Tag(readName(next + 1, nameEnd));
+			tag.addTag(child);
+			pos = nameEnd + 1;
+			readElement(child);
+		}
+	}
+
+	private boolean isCloseTag(final int ltIndex) {
+		return ltIndex + 1 < limit && data[ltIndex + 1] == SLASH;
+	}
+
+	private int skipCloseTag(final int ltIndex) {
+		int end = indexOf(GT, ltIndex);
+		if (end < 0) {
+			throw malformed("unterminated end tag", ltIndex);
+		}
+		return end + 1;
+	}
+
+	private int indexOf(final byte b, final int from) {
+		for (int i = from; i < limit; i++) {
+			if (data[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The string parser removed every line feed following a '&gt;', which for
+	 * a value means a leading line feed is dropped
+	 */
+	private int valueStart(final int start) {
+		if (start < limit && data[start] == LF) {
+			return start + 1;
+		}
+		return start;
+	}
+
+	private String readValue(final int from, final int to) {
+		int start = valueStart(from);
+		if (start >= to) {
+			return "";
+		}
+
+		for (int i = start; i < to; i++) {
+			byte b = data[i];
+			if ((b == AMP && decode) || (b == GT && i + 1 < to && data[i + 1] == LF)) {
+				return readValueWithTranslation(start, to);
+			}
+		}
+
+		return new String(data, start, to - start, charset);
+	}
+
+	/**
+	 * Slow path for values that need entity decoding or line feed removal,
+	 * translated into a scratch buffer that is reused for the message
+	 */
+	private String readValueWithTranslation(final int start, final int to) {
+		int length = to - start;
+		if (scratch == null || scratch.length < length) {
+			scratch = new byte[Math.max(length, 256)];
+		}
+
+		int out = 0;
+		int i = start;
+		while (i < to) {
+			byte b = data[i];
+			if (b == GT && i + 1 < to && data[i + 1] == LF) {
+				scratch[out++] = b;
+				i += 2;
+			} else if (b == AMP && decode) {
+				int entity = matchEntity(i, to);
+				if (entity < 0) {
+					scratch[out++] = b;
+					i++;
+				} else {
+					scratch[out++] = ENTITY_VALUES[entity];
+					i += ENTITIES[entity].length;
+				}
+			} else {
+				scratch[out++] = b;
+				i++;
+			}
+		}
+
+		return new String(scratch, 0, out, charset);
+	}
+
+	private int matchEntity(final int start, final int to) {
+		for (int e = 0; e < ENTITIES.length; e++) {
+			byte[] entity = ENTITIES[e];
+			if (start + entity.length > to) {
+				continue;
+			}
+			int j = 1;
+			while (j < entity.length && data[start + j] == entity[j]) {
+				j++;
+			}
+			if (j == entity.length) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Tag names repeat many times in a message (e.g. the values of a
+	 * <code>SqlResult_PI</code>), so they are cached by content for the life
+	 * of the reader
+	 */
+	private String readName(final int from, final int to) {
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			byte b = data[i];
+			if (b < 0) {
+				return new String(data, from, to - from, charset);
+			}
+			hash = 31 * hash + b;
+		}
+
+		int slot = hash & (NAME_CACHE_SIZE - 1);
+		String cached = nameCache[slot];
+		if (cached != null && sameName(cached, from, to)) {
+			return cached;
+		}
+
+		String name = new String(data, from, to - from, charset);
+		nameCache[slot] = name;
+		return name;
+	}
+
+	private boolean sameName(final String name, final int from, final int to) {
+		if (name.length() != to - from) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			if (name.charAt(i - from) != data[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private JargonRuntimeException malformed(final String message,
+			final int index) {
+		return new JargonRuntimeException("malformed protocol message, "
+				+ message + " at offset " + index);
+	}
+
+}
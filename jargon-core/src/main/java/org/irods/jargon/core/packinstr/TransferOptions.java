@@ -29,6 +29,17 @@ public class TransferOptions {
 		NORMAL, MSSO_FILE
 	}
 
+	/**
+	 * How parallel transfer threads read and write the local file.
+	 * <code>RANDOM_ACCESS_FILE</code> seeks and copies through a heap buffer in
+	 * each thread, <code>MEMORY_MAPPED</code> pre-sizes the file on a get and
+	 * moves data between the socket and mapped windows of the file, which
+	 * suits very large files on fast local storage.
+	 */
+	public enum LocalFileIOStrategy {
+		RANDOM_ACCESS_FILE, MEMORY_MAPPED
+	}
+
 	public static final int DEFAULT_UDP_SEND_RATE = 600000;
 	public static final int DEFAULT_UDP_PACKET_SIZE = 8192;
 	public static final int DEFAULT_MAX_PARALLEL_THREADS = 4;
@@ -71,6 +82,28 @@ public class TransferOptions {
 	 */
 	private boolean computeAndVerifyChecksumAfterTransfer = false;
 
+	/**
+	 * How parallel transfers access the local file
+	 */
+	private LocalFileIOStrategy localFileIOStrategy = LocalFileIOStrategy.RANDOM_ACCESS_FILE;
+
+	/**
+	 * Worker threads for the files of a recursive transfer, 1 for one file at
+	 * a time
+	 */
+	private int recursiveTransferThreads = 1;
+
+	/**
+	 * Compute checksums on the bytes as they are transferred
+	 */
+	private boolean computeChecksumDuringTransfer = false;
+
+	/**
+	 * Copy buffer size for each parallel transfer thread, 0 to use the jargon
+	 * properties
+	 */
+	private int parallelCopyBufferSize = 0;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -117,6 +150,14 @@ public class TransferOptions {
 		builder.append(computeChecksumAfterTransfer);
 		builder.append(", computeAndVerifyChecksumAfterTransfer=");
 		builder.append(computeAndVerifyChecksumAfterTransfer);
+		builder.append(", localFileIOStrategy=");
+		builder.append(localFileIOStrategy);
+		builder.append(", recursiveTransferThreads=");
+		builder.append(recursiveTransferThreads);
+		builder.append(", computeChecksumDuringTransfer=");
+		builder.append(computeChecksumDuringTransfer);
+		builder.append(", parallelCopyBufferSize=");
+		builder.append(parallelCopyBufferSize);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -152,6 +193,13 @@ public class TransferOptions {
 						.getIntraFileStatusCallbacksNumberCallsInterval());
 				setIntraFileStatusCallbacksTotalBytesInterval(transferOptions
 						.getIntraFileStatusCallbacksTotalBytesInterval());
+				setLocalFileIOStrategy(transferOptions.getLocalFileIOStrategy());
+				setRecursiveTransferThreads(transferOptions
+						.getRecursiveTransferThreads());
+				setComputeChecksumDuringTransfer(transferOptions
+						.isComputeChecksumDuringTransfer());
+				setParallelCopyBufferSize(transferOptions
+						.getParallelCopyBufferSize());
 			}
 		}
 	}
@@ -375,6 +423,111 @@ public class TransferOptions {
 
 	}
 
+	/**
+	 * @return {@link LocalFileIOStrategy} used by parallel transfers for the
+	 *         local file
+	 */
+	public synchronized LocalFileIOStrategy getLocalFileIOStrategy() {
+		return localFileIOStrategy;
+	}
+
+	/**
+	 * Set how parallel transfer threads access the local file. Transfers that
+	 * are not parallel are not affected.
+	 *
+	 * @param localFileIOStrategy
+	 *            {@link LocalFileIOStrategy}
+	 */
+	public synchronized void setLocalFileIOStrategy(
+			final LocalFileIOStrategy localFileIOStrategy) {
+
+		if (localFileIOStrategy == null) {
+			throw new IllegalArgumentException("null localFileIOStrategy");
+		}
+
+		this.localFileIOStrategy = localFileIOStrategy;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of worker threads that move
+	 *         the files of a recursive transfer
+	 */
+	public synchronized int getRecursiveTransferThreads() {
+		return recursiveTransferThreads;
+	}
+
+	/**
+	 * Set the number of worker threads, each with its own connection, that
+	 * move the files of a recursive put, get or replicate. With more than one,
+	 * the collections are created before any files are moved, and files are
+	 * moved in no particular order. A value of 1 or less moves one file at a
+	 * time on the calling thread.
+	 *
+	 * @param recursiveTransferThreads
+	 *            <code>int</code> with the number of workers
+	 */
+	public synchronized void setRecursiveTransferThreads(
+			final int recursiveTransferThreads) {
+		this.recursiveTransferThreads = recursiveTransferThreads;
+	}
+
+	/**
+	 * @return <code>boolean</code> that is <code>true</code> if checksums are
+	 *         computed on the bytes as they are transferred
+	 */
+	public synchronized boolean isComputeChecksumDuringTransfer() {
+		return computeChecksumDuringTransfer;
+	}
+
+	/**
+	 * Set whether the checksums asked for by
+	 * {@link #setComputeChecksumAfterTransfer(boolean)} and
+	 * {@link #setComputeAndVerifyChecksumAfterTransfer(boolean)} are computed
+	 * on the bytes as they are transferred. iRODS then computes and registers
+	 * its own checksum, and the two are compared after the transfer, so the
+	 * local file is not read a second time. A put is then verified by the
+	 * client after the data object is registered, with a query for the iRODS
+	 * checksum, so this pays off for large files rather than many small ones.
+	 * When <code>false</code> (the default), the local checksum is computed
+	 * from the file, before a put or after a get, and sent to iRODS to check
+	 * during the put.
+	 *
+	 * @param computeChecksumDuringTransfer
+	 *            <code>boolean</code> that is <code>true</code> to compute
+	 *            checksums during the transfer
+	 */
+	public synchronized void setComputeChecksumDuringTransfer(
+			final boolean computeChecksumDuringTransfer) {
+		this.computeChecksumDuringTransfer = computeChecksumDuringTransfer;
+	}
+
+	/**
+	 * @return <code>int</code> with the copy buffer size, in bytes, of each
+	 *         parallel transfer thread, or 0 if the jargon properties decide
+	 */
+	public synchronized int getParallelCopyBufferSize() {
+		return parallelCopyBufferSize;
+	}
+
+	/**
+	 * Set the copy buffer size of each parallel transfer thread. This is set
+	 * for each file by an
+	 * {@link org.irods.jargon.core.transfer.AdaptiveTransferTuner}, and may be
+	 * set by hand. A value of 0 uses the
+	 * <code>jargon.parallel.copy.buffer.size</code> property.
+	 *
+	 * @param parallelCopyBufferSize
+	 *            <code>int</code> with the buffer size in bytes
+	 */
+	public synchronized void setParallelCopyBufferSize(
+			final int parallelCopyBufferSize) {
+		if (parallelCopyBufferSize < 0) {
+			throw new IllegalArgumentException(
+					"parallelCopyBufferSize must not be negative");
+		}
+		this.parallelCopyBufferSize = parallelCopyBufferSize;
+	}
+
 	/**
 	 * @return the intraFileStatusCallbacksNumberCallsInterval
 	 */
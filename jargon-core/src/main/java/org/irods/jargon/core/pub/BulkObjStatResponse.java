@@ -0,0 +1,101 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.pub.domain.ObjStat;
+
+/**
+ * Response to a bulk ObjStat lookup, with the <code>ObjStat</code> of each
+ * path that was found and the paths that were not, in the order they were
+ * asked for
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkObjStatResponse {
+
+	private final Map<String, ObjStat> objStats;
+	private final List<String> missingPaths;
+	private final int queryCount;
+
+	BulkObjStatResponse(final Map<String, ObjStat> objStats,
+			final List<String> missingPaths, final int queryCount) {
+
+		if (objStats == null) {
+			throw new IllegalArgumentException("null objStats");
+		}
+
+		if (missingPaths == null) {
+			throw new IllegalArgumentException("null missingPaths");
+		}
+
+		this.objStats = Collections.unmodifiableMap(objStats);
+		this.missingPaths = Collections.unmodifiableList(missingPaths);
+		this.queryCount = queryCount;
+	}
+
+	/**
+	 * @return <code>Map</code> of each path that was found, as given, to its
+	 *         {@link ObjStat}
+	 */
+	public Map<String, ObjStat> getObjStats() {
+		return objStats;
+	}
+
+	/**
+	 * @return <code>List</code> of the paths, as given, that do not exist or
+	 *         are not visible to the user
+	 */
+	public List<String> getMissingPaths() {
+		return missingPaths;
+	}
+
+	/**
+	 * Get the <code>ObjStat</code> of a path
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the path as given in the lookup
+	 * @return {@link ObjStat}, or <code>null</code> if the path was not found
+	 */
+	public ObjStat getObjStat(final String irodsAbsolutePath) {
+		return objStats.get(irodsAbsolutePath);
+	}
+
+	/**
+	 * Was the path found?
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the path as given in the lookup
+	 * @return <code>boolean</code> of <code>true</code> if the path exists
+	 */
+	public boolean isFound(final String irodsAbsolutePath) {
+		return objStats.containsKey(irodsAbsolutePath);
+	}
+
+	/**
+	 * @return <code>int</code> with the GenQuery and ObjStat calls made to
+	 *         iRODS for the lookup
+	 */
+	public int getQueryCount() {
+		return queryCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BulkObjStatResponse [found=");
+		builder.append(objStats.size());
+		builder.append(", missing=");
+		builder.append(missingPaths.size());
+		builder.append(", queryCount=");
+		builder.append(queryCount);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,528 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.pub.domain.ObjStat.SpecColType;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.IRODSDataConversionUtil;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Looks up the <code>ObjStat</code> of many paths with a few GenQueries,
+ * instead of one ObjStat call per path.
+ * <p/>
+ * Paths are grouped by parent collection. Groups are packed into queries with
+ * an <code>IN</code> condition on the parent collections and one on the names,
+ * up to {@link #MAX_CONDITION_CHARS} characters, and the rows are matched back
+ * to the paths asked for. A parent with more names than fit in one query is
+ * listed whole instead. Data objects are looked for first, and the paths left
+ * over are then looked for as collections.
+ * <p/>
+ * A few paths are still looked up one by one: the root, paths with a quote,
+ * which cannot be put in an <code>IN</code> condition, and special
+ * collections, whose ObjStat carries more than the catalog holds. Paths under
+ * soft linked or mounted collections are not in the catalog, and are reported
+ * missing.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class BulkObjStatUtils {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(BulkObjStatUtils.class);
+
+	/**
+	 * Most characters of values in the <code>IN</code> conditions of one
+	 * query, kept well under the SQL size iRODS allows for a GenQuery
+	 */
+	static final int MAX_CONDITION_CHARS = 1500;
+
+	private final CollectionAndDataObjectListAndSearchAO collectionAndDataObjectListAndSearchAO;
+	private int queryCount = 0;
+
+	BulkObjStatUtils(
+			final CollectionAndDataObjectListAndSearchAO collectionAndDataObjectListAndSearchAO) {
+		if (collectionAndDataObjectListAndSearchAO == null) {
+			throw new IllegalArgumentException(
+					"null collectionAndDataObjectListAndSearchAO");
+		}
+
+		this.collectionAndDataObjectListAndSearchAO = collectionAndDataObjectListAndSearchAO;
+	}
+
+	/**
+	 * Look up the <code>ObjStat</code> of each path
+	 *
+	 * @param irodsAbsolutePaths
+	 *            <code>List</code> of absolute paths
+	 * @return {@link BulkObjStatResponse}
+	 * @throws JargonException
+	 */
+	BulkObjStatResponse retrieveObjectStats(
+			final List<String> irodsAbsolutePaths) throws JargonException {
+
+		if (irodsAbsolutePaths == null) {
+			throw new IllegalArgumentException("null irodsAbsolutePaths");
+		}
+
+		log.info("retrieveObjectStats() for {} paths",
+				irodsAbsolutePaths.size());
+
+		Map<String, String> normalizedPaths = new LinkedHashMap<String, String>();
+		for (String irodsAbsolutePath : irodsAbsolutePaths) {
+			if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+				throw new IllegalArgumentException(
+						"null or empty path in irodsAbsolutePaths");
+			}
+			normalizedPaths.put(irodsAbsolutePath, normalize(irodsAbsolutePath));
+		}
+
+		Map<String, ObjStat> found = new HashMap<String, ObjStat>();
+		ObjStatCache objStatCache = collectionAndDataObjectListAndSearchAO
+				.getIRODSSession().getObjStatCache();
+		Set<String> toQuery = new LinkedHashSet<String>();
+
+		for (String path : normalizedPaths.values()) {
+			if (found.containsKey(path) || toQuery.contains(path)) {
+				continue;
+			}
+
+			ObjStat cached = null;
+			if (objStatCache != null) {
+				cached = objStatCache.retrieveObjStat(
+						collectionAndDataObjectListAndSearchAO
+								.getIRODSAccount(), path);
+			}
+
+			if (cached != null) {
+				found.put(path, cached);
+			} else if (path.equals("/") || path.indexOf('\'') >= 0) {
+				retrieveObjectStatOneByOne(path, found);
+			} else {
+				toQuery.add(path);
+			}
+		}
+
+		for (List<QueryBatch> batches : planQueriesByZone(toQuery).values()) {
+			for (QueryBatch batch : batches) {
+				queryDataObjects(batch, found);
+			}
+		}
+
+		toQuery.removeAll(found.keySet());
+
+		for (List<QueryBatch> batches : planQueriesByZone(toQuery).values()) {
+			for (QueryBatch batch : batches) {
+				queryCollections(batch, found);
+			}
+		}
+
+		if (objStatCache != null) {
+			for (String path : toQuery) {
+				ObjStat objStat = found.get(path);
+				if (objStat != null) {
+					objStatCache.cacheObjStat(
+							collectionAndDataObjectListAndSearchAO
+									.getIRODSAccount(), path, objStat);
+				}
+			}
+		}
+
+		Map<String, ObjStat> objStats = new LinkedHashMap<String, ObjStat>();
+		List<String> missingPaths = new ArrayList<String>();
+		for (Map.Entry<String, String> entry : normalizedPaths.entrySet()) {
+			ObjStat objStat = found.get(entry.getValue());
+			if (objStat == null) {
+				missingPaths.add(entry.getKey());
+			} else {
+				objStats.put(entry.getKey(), objStat);
+			}
+		}
+
+		log.info("found {} paths, {} missing, in {} queries", new Object[] {
+				objStats.size(), missingPaths.size(), queryCount });
+		return new BulkObjStatResponse(objStats, missingPaths, queryCount);
+	}
+
+	/**
+	 * Group the paths by zone and parent collection, and pack the groups into
+	 * queries
+	 */
+	private Map<String, List<QueryBatch>> planQueriesByZone(
+			final Set<String> paths) {
+
+		Map<String, Map<String, Set<String>>> namesByParentByZone = new LinkedHashMap<String, Map<String, Set<String>>>();
+		for (String path : paths) {
+			int lastSlash = path.lastIndexOf('/');
+			String parent = lastSlash == 0 ? "/" : path.substring(0,
+					lastSlash);
+			String zone = MiscIRODSUtils.getZoneInPath(path);
+
+			Map<String, Set<String>> namesByParent = namesByParentByZone
+					.get(zone);
+			if (namesByParent == null) {
+				namesByParent = new LinkedHashMap<String, Set<String>>();
+				namesByParentByZone.put(zone, namesByParent);
+			}
+
+			Set<String> names = namesByParent.get(parent);
+			if (names == null) {
+				names = new LinkedHashSet<String>();
+				namesByParent.put(parent, names);
+			}
+			names.add(path.substring(lastSlash + 1));
+		}
+
+		Map<String, List<QueryBatch>> batchesByZone = new LinkedHashMap<String, List<QueryBatch>>();
+		for (Map.Entry<String, Map<String, Set<String>>> entry : namesByParentByZone
+				.entrySet()) {
+			batchesByZone.put(entry.getKey(),
+					planQueries(entry.getValue(), MAX_CONDITION_CHARS));
+		}
+		return batchesByZone;
+	}
+
+	/**
+	 * Pack the names under each parent into as few queries as the condition
+	 * size allows. A parent whose names do not fit in one query is listed
+	 * whole.
+	 *
+	 * @param namesByParent
+	 *            <code>Map</code> of parent collection to the names under it
+	 * @param maxConditionChars
+	 *            <code>int</code> with the most characters of condition values
+	 *            in one query
+	 * @return <code>List</code> of {@link QueryBatch}
+	 */
+	static List<QueryBatch> planQueries(
+			final Map<String, Set<String>> namesByParent,
+			final int maxConditionChars) {
+
+		List<QueryBatch> batches = new ArrayList<QueryBatch>();
+		QueryBatch current = null;
+
+		for (Map.Entry<String, Set<String>> entry : namesByParent.entrySet()) {
+			int chars = conditionChars(entry.getKey());
+			for (String name : entry.getValue()) {
+				chars += conditionChars(name);
+			}
+
+			if (chars > maxConditionChars) {
+				QueryBatch whole = new QueryBatch(true);
+				whole.add(entry.getKey(), entry.getValue(), chars);
+				batches.add(whole);
+				continue;
+			}
+
+			if (current != null
+					&& current.conditionChars + chars > maxConditionChars) {
+				batches.add(current);
+				current = null;
+			}
+
+			if (current == null) {
+				current = new QueryBatch(false);
+			}
+			current.add(entry.getKey(), entry.getValue(), chars);
+		}
+
+		if (current != null) {
+			batches.add(current);
+		}
+
+		return batches;
+	}
+
+	/**
+	 * A value in an <code>IN</code> condition takes its length, two quotes
+	 * and a comma
+	 */
+	private static int conditionChars(final String value) {
+		return value.length() + 3;
+	}
+
+	private void queryDataObjects(final QueryBatch batch,
+			final Map<String, ObjStat> found) throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_ID)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_D_CREATE_TIME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_D_MODIFY_TIME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_OWNER_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_OWNER_ZONE)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_D_DATA_CHECKSUM)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_DATA_REPL_NUM);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		addConditions(builder, batch, RodsGenQueryEnum.COL_COLL_NAME,
+				RodsGenQueryEnum.COL_DATA_NAME);
+
+		GenQueryResultIterator rows = iterate(builder, batch);
+		try {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String parent = row.getColumn(0);
+				String name = row.getColumn(1);
+				if (!batch.isRequested(parent, name)) {
+					continue;
+				}
+
+				String path = childPath(parent, name);
+				int replNumber = IRODSDataConversionUtil
+						.getIntOrZeroFromIRODSValue(row.getColumn(9));
+				ObjStat existing = found.get(path);
+				if (existing != null && existing.getReplNumber() <= replNumber) {
+					continue;
+				}
+
+				ObjStat objStat = new ObjStat();
+				objStat.setAbsolutePath(path);
+				objStat.setObjectType(ObjectType.DATA_OBJECT);
+				objStat.setSpecColType(SpecColType.NORMAL);
+				objStat.setDataId(IRODSDataConversionUtil
+						.getIntOrZeroFromIRODSValue(row.getColumn(2)));
+				objStat.setObjSize(IRODSDataConversionUtil
+						.getLongOrZeroFromIRODSValue(row.getColumn(3)));
+				objStat.setCreatedAt(IRODSDataConversionUtil
+						.getDateFromIRODSValue(row.getColumn(4)));
+				objStat.setModifiedAt(IRODSDataConversionUtil
+						.getDateFromIRODSValue(row.getColumn(5)));
+				objStat.setOwnerName(row.getColumn(6));
+				objStat.setOwnerZone(row.getColumn(7));
+				objStat.setChecksum(row.getColumn(8));
+				objStat.setReplNumber(replNumber);
+				found.put(path, objStat);
+			}
+		} finally {
+			rows.close();
+		}
+	}
+
+	private void queryCollections(final QueryBatch batch,
+			final Map<String, ObjStat> found) throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(
+					RodsGenQueryEnum.COL_COLL_PARENT_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_ID)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_OWNER_NAME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_OWNER_ZONE)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_CREATE_TIME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_TYPE);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		/*
+		 * the collection name is the whole path, so the names asked for are
+		 * turned back into paths for the condition
+		 */
+		QueryBatch pathBatch = new QueryBatch(batch.wholeCollection);
+		for (Map.Entry<String, Set<String>> entry : batch.namesByParent
+				.entrySet()) {
+			Set<String> paths = new LinkedHashSet<String>();
+			for (String name : entry.getValue()) {
+				paths.add(childPath(entry.getKey(), name));
+			}
+			pathBatch.add(entry.getKey(), paths, 0);
+		}
+
+		addConditions(builder, pathBatch,
+				RodsGenQueryEnum.COL_COLL_PARENT_NAME,
+				RodsGenQueryEnum.COL_COLL_NAME);
+
+		List<String> specialCollections = new ArrayList<String>();
+		GenQueryResultIterator rows = iterate(builder, pathBatch);
+		try {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String path = row.getColumn(1);
+				if (!pathBatch.isRequested(row.getColumn(0), path)) {
+					continue;
+				}
+
+				SpecColType specColType = IRODSDataConversionUtil
+						.getCollectionTypeFromIRODSValue(row.getColumn(7));
+				if (specColType != SpecColType.NORMAL) {
+					specialCollections.add(path);
+					continue;
+				}
+
+				ObjStat objStat = new ObjStat();
+				objStat.setAbsolutePath(path);
+				objStat.setObjectType(ObjectType.COLLECTION);
+				objStat.setSpecColType(SpecColType.NORMAL);
+				objStat.setDataId(IRODSDataConversionUtil
+						.getIntOrZeroFromIRODSValue(row.getColumn(2)));
+				objStat.setOwnerName(row.getColumn(3));
+				objStat.setOwnerZone(row.getColumn(4));
+				objStat.setCreatedAt(IRODSDataConversionUtil
+						.getDateFromIRODSValue(row.getColumn(5)));
+				objStat.setModifiedAt(IRODSDataConversionUtil
+						.getDateFromIRODSValue(row.getColumn(6)));
+				found.put(path, objStat);
+			}
+		} finally {
+			rows.close();
+		}
+
+		for (String path : specialCollections) {
+			retrieveObjectStatOneByOne(path, found);
+		}
+	}
+
+	private void addConditions(final IRODSGenQueryBuilder builder,
+			final QueryBatch batch, final RodsGenQueryEnum parentField,
+			final RodsGenQueryEnum nameField) {
+
+		List<String> parents = new ArrayList<String>(
+				batch.namesByParent.keySet());
+		if (batch.wholeCollection) {
+			builder.addConditionAsGenQueryField(parentField,
+					QueryConditionOperators.EQUAL, parents.get(0));
+			return;
+		}
+
+		Set<String> names = new LinkedHashSet<String>();
+		for (Set<String> parentNames : batch.namesByParent.values()) {
+			names.addAll(parentNames);
+		}
+
+		builder.addConditionAsMultiValueCondition(parentField,
+				QueryConditionOperators.IN, parents);
+		builder.addConditionAsMultiValueCondition(nameField,
+				QueryConditionOperators.IN, new ArrayList<String>(names));
+	}
+
+	private GenQueryResultIterator iterate(final IRODSGenQueryBuilder builder,
+			final QueryBatch batch) throws JargonException {
+
+		String zone = MiscIRODSUtils.getZoneInPath(batch.namesByParent
+				.keySet().iterator().next());
+		IRODSGenQueryExecutor irodsGenQueryExecutor = collectionAndDataObjectListAndSearchAO
+				.getIRODSAccessObjectFactory().getIRODSGenQueryExecutor(
+						collectionAndDataObjectListAndSearchAO
+								.getIRODSAccount());
+		queryCount++;
+
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder
+					.exportIRODSQueryFromBuilder(collectionAndDataObjectListAndSearchAO
+							.getJargonProperties().getMaxFilesAndDirsQueryMax());
+			return irodsGenQueryExecutor.iterateIRODSQueryInZone(irodsQuery,
+					zone);
+		} catch (JargonQueryException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		} catch (GenQueryBuilderException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		}
+	}
+
+	private void retrieveObjectStatOneByOne(final String path,
+			final Map<String, ObjStat> found) throws JargonException {
+		queryCount++;
+		try {
+			found.put(path, collectionAndDataObjectListAndSearchAO
+					.retrieveObjectStatForPath(path));
+		} catch (FileNotFoundException e) {
+			log.debug("not found:{}", path);
+		}
+	}
+
+	private static String childPath(final String parent, final String name) {
+		if (parent.equals("/")) {
+			return "/" + name;
+		}
+		return parent + "/" + name;
+	}
+
+	private static String normalize(final String irodsAbsolutePath) {
+		String path = irodsAbsolutePath.trim();
+		while (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+		return path;
+	}
+
+	/**
+	 * The parents and names looked for by one query, either with
+	 * <code>IN</code> conditions, or by listing one parent whole
+	 */
+	static final class QueryBatch {
+		private final boolean wholeCollection;
+		private final Map<String, Set<String>> namesByParent = new LinkedHashMap<String, Set<String>>();
+		private int conditionChars = 0;
+
+		QueryBatch(final boolean wholeCollection) {
+			this.wholeCollection = wholeCollection;
+		}
+
+		private void add(final String parent, final Set<String> names,
+				final int chars) {
+			namesByParent.put(parent, names);
+			conditionChars += chars;
+		}
+
+		private boolean isRequested(final String parent, final String name) {
+			Set<String> names = namesByParent.get(parent);
+			return names != null && names.contains(name);
+		}
+
+		boolean isWholeCollection() {
+			return wholeCollection;
+		}
+
+		Map<String, Set<String>> getNamesByParent() {
+			return namesByParent;
+		}
+
+		int getConditionChars() {
+			return conditionChars;
+		}
+	}
+
+}
@@ -899,6 +899,10 @@ public interface CollectionAO extends FileCatalogObjectAO {
 	 * not throw them. <br/>
 	 * This method will return a collection of individual success or failure for
 	 * each AVU.
+	 * <p/>
+	 * The AVUs are sent without waiting for each reply, so a large set costs
+	 * a round trip per <code>pipelined.request.window.size</code> AVUs rather
+	 * than one per AVU.
 	 *
 	 * @param absolutePath
 	 *            <code>String</code> with the absolute path for the collection
@@ -409,34 +409,21 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
+		String myPath = MiscIRODSUtils.checkPathSizeForMax(absolutePath);
 
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(
+				avuData.size());
 		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (FileNotFoundException dnf) {
-				log.error(
-						"FileNotFoundException when adding an AVU, catch and add to response data",
-						dnf);
-				responses.add(BulkAVUOperationResponse.instance(
-						ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error(
-						"DuplicateDataException when adding an AVU, catch and add to response data",
-						dde);
-				responses.add(BulkAVUOperationResponse.instance(
-						ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
-
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
 			}
-
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK,
-					value, ""));
+			requests.add(ModAvuMetadataInp.instanceForAddCollectionMetadata(
+					myPath, value));
 		}
 
+		List<BulkAVUOperationResponse> responses = processBulkAVURequestsPipelined(
+				requests, avuData);
+
 		log.info("...complete");
 		return responses;
 	}
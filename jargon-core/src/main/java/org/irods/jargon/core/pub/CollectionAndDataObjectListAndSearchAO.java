@@ -165,6 +165,61 @@ IRODSAccessObject {
 			final String absolutePathToParent) throws FileNotFoundException,
 			JargonException;
 
+	/**
+	 * Iterate over all of the collections, and then all of the data objects,
+	 * underneath the given parent. This lists the same entries as
+	 * <code>listDataObjectsAndCollectionsUnderPath()</code>, but rather than
+	 * returning the first page of each, the iterator gets each page from iRODS
+	 * when the entries before it have been read, so that very large
+	 * collections may be processed in constant memory.
+	 * <p/>
+	 * A caller that stops before the end must call <code>close()</code> on
+	 * the iterator so that the query is closed in iRODS.
+	 * <p/>
+	 * Soft links are supported with this method, as described for
+	 * <code>listDataObjectsAndCollectionsUnderPath()</code>.
+	 *
+	 * @param absolutePathToParent
+	 *            <code>String</code> with the absolute path to the parent.
+	 * @return {@link CollectionAndDataObjectListingIterator} over the
+	 *         {@link org.irods.jargon.core.query.CollectionAndDataObjectListingEntry}
+	 *         for files and collections
+	 * @throws FileNotFoundException
+	 *             if the given path does not exist
+	 * @throws JargonException
+	 */
+	CollectionAndDataObjectListingIterator iterateDataObjectsAndCollectionsUnderPath(
+			final String absolutePathToParent) throws FileNotFoundException,
+			JargonException;
+
+	/**
+	 * Iterate over all of the collections, and then all of the data objects,
+	 * underneath the given parent, as
+	 * {@link #iterateDataObjectsAndCollectionsUnderPath(String)} does,
+	 * optionally getting the next page from iRODS in the background while the
+	 * current one is read.
+	 * <p/>
+	 * The prefetch uses the connection of this access object from another
+	 * thread, so with prefetch the caller must not use the connection, through
+	 * this or any other access object of the account on this thread, until
+	 * the iteration is done or the iterator is closed.
+	 *
+	 * @param absolutePathToParent
+	 *            <code>String</code> with the absolute path to the parent.
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            the next page while the current one is read
+	 * @return {@link CollectionAndDataObjectListingIterator} over the
+	 *         {@link org.irods.jargon.core.query.CollectionAndDataObjectListingEntry}
+	 *         for files and collections
+	 * @throws FileNotFoundException
+	 *             if the given path does not exist
+	 * @throws JargonException
+	 */
+	CollectionAndDataObjectListingIterator iterateDataObjectsAndCollectionsUnderPath(
+			final String absolutePathToParent, final boolean prefetch)
+			throws FileNotFoundException, JargonException;
+
 	/**
 	 * This method is in support of applications and interfaces that need to
 	 * support listing and paging of collections. This method returns a simple
@@ -513,6 +568,27 @@ IRODSAccessObject {
 	ObjStat retrieveObjectStatForPath(String irodsAbsolutePath)
 			throws FileNotFoundException, JargonException;
 
+	/**
+	 * Retrieve the <code>ObjStat</code> for each of a list of paths, with a
+	 * few GenQueries grouped by parent collection, rather than one rsObjStat
+	 * call per path. Paths that do not exist, or that the user cannot see, are
+	 * reported as missing instead of raising a
+	 * <code>FileNotFoundException</code>.
+	 * <p/>
+	 * The returned <code>ObjStat</code> carries what the catalog holds for
+	 * the path. Paths under soft linked or mounted collections are not in the
+	 * catalog, and are reported missing.
+	 *
+	 * @param irodsAbsolutePaths
+	 *            <code>List</code> of <code>String</code> with absolute paths
+	 *            to iRODS collections or data objects
+	 * @return {@link BulkObjStatResponse} with the <code>ObjStat</code> of
+	 *         each path found, and the paths that were not
+	 * @throws JargonException
+	 */
+	BulkObjStatResponse retrieveObjectStatsForPaths(
+			List<String> irodsAbsolutePaths) throws JargonException;
+
 	/**
 	 * Return the <code>CollectionAndDataObjectListingEntry</code> that is
 	 * associated with the given iRODS absolute path. This is equivalent to
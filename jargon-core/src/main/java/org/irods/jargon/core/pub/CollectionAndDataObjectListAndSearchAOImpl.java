@@ -107,6 +107,16 @@ implements CollectionAndDataObjectListAndSearchAO {
 			throw new IllegalArgumentException("absolutePath is null or empty");
 		}
 
+		ObjStatCache objStatCache = getIRODSSession().getObjStatCache();
+		if (objStatCache != null) {
+			CollectionAndDataObjectListingEntry cachedEntry = objStatCache
+					.retrieveListingEntry(getIRODSAccount(), absolutePath);
+			if (cachedEntry != null) {
+				log.debug("listing entry from cache for:{}", absolutePath);
+				return cachedEntry;
+			}
+		}
+
 		ObjStat objStat = retrieveObjectStatForPath(absolutePath.trim());
 
 		/*
@@ -137,6 +147,12 @@ implements CollectionAndDataObjectListAndSearchAO {
 		entry.setSpecColType(objStat.getSpecColType());
 		entry.setSpecialObjectPath(objStat.getObjectPath());
 		log.info("created entry for path as: {}", entry);
+
+		if (objStatCache != null) {
+			objStatCache.cacheListingEntry(getIRODSAccount(), absolutePath,
+					entry);
+		}
+
 		return entry;
 
 	}
@@ -291,6 +307,72 @@ implements CollectionAndDataObjectListAndSearchAO {
 		return entries;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO#
+	 * iterateDataObjectsAndCollectionsUnderPath(java.lang.String)
+	 */
+	@Override
+	public CollectionAndDataObjectListingIterator iterateDataObjectsAndCollectionsUnderPath(
+			final String absolutePathToParent) throws FileNotFoundException,
+			JargonException {
+		return iterateDataObjectsAndCollectionsUnderPath(absolutePathToParent,
+				false);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO#
+	 * iterateDataObjectsAndCollectionsUnderPath(java.lang.String, boolean)
+	 */
+	@Override
+	public CollectionAndDataObjectListingIterator iterateDataObjectsAndCollectionsUnderPath(
+			final String absolutePathToParent, final boolean prefetch)
+			throws FileNotFoundException, JargonException {
+
+		log.info("iterateDataObjectsAndCollectionsUnderPath()");
+
+		if (absolutePathToParent == null || absolutePathToParent.isEmpty()) {
+			throw new IllegalArgumentException(
+					"absolutePathToParent is null or empty");
+		}
+
+		log.info("absolutePath:{}", absolutePathToParent);
+
+		ObjStat objStat;
+		CollectionListingUtils collectionListingUtils = new CollectionListingUtils(
+				this);
+
+		try {
+			objStat = retrieveObjectStatForPath(absolutePathToParent);
+		} catch (FileNotFoundException fnf) {
+			log.info("didn't find an objStat for the path, account for cases where there are strict acls and give Jargon a chance to drill down to a place where the user has permissions");
+			return new CollectionAndDataObjectListingIterator(
+					collectionListingUtils
+							.handleNoListingUnderRootOrHomeByLookingForPublicAndHome(absolutePathToParent));
+		}
+
+		/*
+		 * See if jargon supports the given object type
+		 */
+		MiscIRODSUtils.evaluateSpecCollSupport(objStat);
+
+		if (objStat.getSpecColType() == SpecColType.STRUCT_FILE_COLL
+				|| objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
+			log.info("special collection is not listed by GenQuery, listing in full");
+			return new CollectionAndDataObjectListingIterator(
+					listDataObjectsAndCollectionsUnderPath(objStat));
+		}
+
+		return new CollectionAndDataObjectListingIterator(
+				collectionListingUtils, objStat,
+				MiscIRODSUtils
+						.determineAbsolutePathBasedOnCollTypeInObjectStat(objStat),
+				prefetch);
+	}
+
 	@Override
 	public List<CollectionAndDataObjectListingEntry> listDataObjectsAndCollectionsUnderPath(
 			final ObjStat objStat) throws FileNotFoundException,
@@ -1561,6 +1643,26 @@ implements CollectionAndDataObjectListAndSearchAO {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO#
+	 * retrieveObjectStatsForPaths(java.util.List)
+	 */
+	@Override
+	public BulkObjStatResponse retrieveObjectStatsForPaths(
+			final List<String> irodsAbsolutePaths) throws JargonException {
+
+		log.info("retrieveObjectStatsForPaths()");
+
+		if (irodsAbsolutePaths == null) {
+			throw new IllegalArgumentException("null irodsAbsolutePaths");
+		}
+
+		BulkObjStatUtils bulkObjStatUtils = new BulkObjStatUtils(this);
+		return bulkObjStatUtils.retrieveObjectStats(irodsAbsolutePaths);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -1613,6 +1715,17 @@ implements CollectionAndDataObjectListAndSearchAO {
 		}
 
 		String myPath = MiscIRODSUtils.checkPathSizeForMax(irodsAbsolutePath);
+
+		ObjStatCache objStatCache = getIRODSSession().getObjStatCache();
+		if (objStatCache != null) {
+			ObjStat cachedObjStat = objStatCache.retrieveObjStat(
+					getIRODSAccount(), myPath);
+			if (cachedObjStat != null) {
+				log.debug("objStat from cache for:{}", myPath);
+				return cachedObjStat;
+			}
+		}
+
 		DataObjInpForObjStat dataObjInp = DataObjInpForObjStat.instance(myPath);
 		Tag response;
 		try {
@@ -1727,11 +1840,12 @@ implements CollectionAndDataObjectListAndSearchAO {
 		objStat.setModifiedAt(IRODSDataConversionUtil
 				.getDateFromIRODSValue(modifiedDate));
 
-		/*
-		 * if (this.isInstrumented()) { stopWatch.stop(); }
-		 */
-
 		log.info(objStat.toString());
+
+		if (objStatCache != null) {
+			objStatCache.cacheObjStat(getIRODSAccount(), myPath, objStat);
+		}
+
 		return objStat;
 
 	}
@@ -0,0 +1,197 @@
+package org.irods.jargon.core.pub;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over every collection, and then every data object, under a parent
+ * collection, as returned by
+ * {@link CollectionAndDataObjectListAndSearchAO#iterateDataObjectsAndCollectionsUnderPath(String)}
+ * . Entries are built as they are read from a {@link GenQueryResultIterator},
+ * so that a collection of any size may be listed in constant memory.
+ * <p/>
+ * Listing entries carry a count that runs across the whole listing of each
+ * type, rather than restarting with each page.
+ * <p/>
+ * A caller that stops before the end must call {@link #close()} to close the
+ * query in iRODS. Errors from iRODS are thrown as a
+ * {@link JargonRuntimeException} with the <code>JargonException</code> as the
+ * cause.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class CollectionAndDataObjectListingIterator implements
+		Iterator<CollectionAndDataObjectListingEntry>, Closeable {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(CollectionAndDataObjectListingIterator.class);
+
+	private final CollectionListingUtils collectionListingUtils;
+	private final ObjStat objStat;
+	private final String effectiveAbsolutePath;
+	private final boolean prefetch;
+	private final Iterator<CollectionAndDataObjectListingEntry> listedEntries;
+	private GenQueryResultIterator rows = null;
+	private boolean listingDataObjects = false;
+	private CollectionAndDataObjectListingEntry nextEntry = null;
+	private String lastDataObjectPath = "";
+	private int count = 0;
+	private boolean done = false;
+
+	/**
+	 * Iterate over the children of a collection found by GenQuery
+	 *
+	 * @param collectionListingUtils
+	 *            {@link CollectionListingUtils} used to query and build entries
+	 * @param objStat
+	 *            {@link ObjStat} of the parent collection
+	 * @param effectiveAbsolutePath
+	 *            <code>String</code> with the path to query, which differs from
+	 *            the parent for soft links
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            each next page of the queries in the background
+	 * @throws JargonException
+	 */
+	CollectionAndDataObjectListingIterator(
+			final CollectionListingUtils collectionListingUtils,
+			final ObjStat objStat, final String effectiveAbsolutePath,
+			final boolean prefetch) throws JargonException {
+		this.collectionListingUtils = collectionListingUtils;
+		this.objStat = objStat;
+		this.effectiveAbsolutePath = effectiveAbsolutePath;
+		this.prefetch = prefetch;
+		listedEntries = null;
+		rows = collectionListingUtils.iterateCollectionsUnderPathViaGenQuery(
+				objStat, effectiveAbsolutePath, prefetch);
+	}
+
+	/**
+	 * Iterate over entries that are already listed, as for mounted
+	 * collections, or the stand-in entries given when the parent cannot be
+	 * read
+	 *
+	 * @param entries
+	 *            <code>List</code> of {@link CollectionAndDataObjectListingEntry}
+	 */
+	CollectionAndDataObjectListingIterator(
+			final List<CollectionAndDataObjectListingEntry> entries) {
+		collectionListingUtils = null;
+		objStat = null;
+		effectiveAbsolutePath = null;
+		prefetch = false;
+		listedEntries = entries.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextEntry == null && !done) {
+			nextEntry = advance();
+		}
+		return nextEntry != null;
+	}
+
+	@Override
+	public CollectionAndDataObjectListingEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("no more listing entries");
+		}
+		CollectionAndDataObjectListingEntry entry = nextEntry;
+		nextEntry = null;
+		return entry;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("listing is read only");
+	}
+
+	/**
+	 * Stop the listing and close any open query in iRODS. This may be called
+	 * more than once.
+	 */
+	@Override
+	public void close() {
+		done = true;
+		nextEntry = null;
+		if (rows != null) {
+			rows.close();
+			rows = null;
+		}
+	}
+
+	private CollectionAndDataObjectListingEntry advance() {
+		if (listedEntries != null) {
+			if (listedEntries.hasNext()) {
+				return listedEntries.next();
+			}
+			done = true;
+			return null;
+		}
+
+		try {
+			while (true) {
+				if (rows.hasNext()) {
+					CollectionAndDataObjectListingEntry entry = buildEntry(rows
+							.next());
+					if (entry != null) {
+						entry.setCount(++count);
+						return entry;
+					}
+				} else if (!listingDataObjects) {
+					log.info("collections listed, listing data objects");
+					listingDataObjects = true;
+					count = 0;
+					rows = collectionListingUtils
+							.iterateDataObjectsUnderPathViaGenQuery(
+									effectiveAbsolutePath, prefetch);
+				} else {
+					rows = null;
+					done = true;
+					return null;
+				}
+			}
+		} catch (JargonException e) {
+			log.error("error listing under:{}", effectiveAbsolutePath, e);
+			close();
+			throw new JargonRuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return the entry for a row, or <code>null</code> for a row that is
+	 *         skipped
+	 */
+	private CollectionAndDataObjectListingEntry buildEntry(
+			final IRODSQueryResultRow row) throws JargonException {
+		if (!listingDataObjects) {
+			return collectionListingUtils.buildCollectionEntryFromRow(objStat,
+					effectiveAbsolutePath, row, rows.getTotalRecords());
+		}
+
+		CollectionAndDataObjectListingEntry entry = collectionListingUtils
+				.buildDataObjectEntryFromRow(objStat, effectiveAbsolutePath,
+						row, rows.getTotalRecords());
+
+		// rows repeat for each replica
+		String currentPath = entry.getFormattedAbsolutePath();
+		if (currentPath.equals(lastDataObjectPath)) {
+			return null;
+		}
+		lastDataObjectPath = currentPath;
+		return entry;
+	}
+
+}
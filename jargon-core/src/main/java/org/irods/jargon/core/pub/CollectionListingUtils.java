@@ -23,6 +23,7 @@ import org.irods.jargon.core.pub.io.IRODSFileSystemAOHelper;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
 import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
 import org.irods.jargon.core.query.IRODSGenQueryBuilder;
 import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
 import org.irods.jargon.core.query.IRODSQueryResultRow;
@@ -688,21 +689,11 @@ class CollectionListingUtils {
 		CollectionAndDataObjectListingEntry collectionAndDataObjectListingEntry = null;
 
 		for (IRODSQueryResultRow row : resultSet.getResults()) {
-			collectionAndDataObjectListingEntry = CollectionAOHelper
-					.buildCollectionListEntryFromResultSetRowForCollectionQuery(
-							row, resultSet.getTotalRecords());
-
-			adjustEntryFromRowInCaseOfSpecialCollection(objStat,
-					effectiveAbsolutePath, collectionAndDataObjectListingEntry);
-
-			/*
-			 * for some reason, a query for collections with a parent of '/'
-			 * returns the root as a result, which creates weird situations when
-			 * trying to show collections in a tree structure. This test papers
-			 * over that idiosyncrasy and discards that extraneous result.
-			 */
-			if (!collectionAndDataObjectListingEntry.getPathOrName()
-					.equals("/")) {
+			collectionAndDataObjectListingEntry = buildCollectionEntryFromRow(
+					objStat, effectiveAbsolutePath, row,
+					resultSet.getTotalRecords());
+
+			if (collectionAndDataObjectListingEntry != null) {
 				subdirs.add(collectionAndDataObjectListingEntry);
 			}
 		}
@@ -710,6 +701,122 @@ class CollectionListingUtils {
 		return subdirs;
 	}
 
+	/**
+	 * Build the listing entry for a row of the collections query
+	 *
+	 * @return {@link CollectionAndDataObjectListingEntry}, or <code>null</code>
+	 *         if the row should not be listed
+	 * @throws JargonException
+	 */
+	CollectionAndDataObjectListingEntry buildCollectionEntryFromRow(
+			final ObjStat objStat, final String effectiveAbsolutePath,
+			final IRODSQueryResultRow row, final int totalRecords)
+			throws JargonException {
+
+		CollectionAndDataObjectListingEntry collectionAndDataObjectListingEntry = CollectionAOHelper
+				.buildCollectionListEntryFromResultSetRowForCollectionQuery(
+						row, totalRecords);
+
+		adjustEntryFromRowInCaseOfSpecialCollection(objStat,
+				effectiveAbsolutePath, collectionAndDataObjectListingEntry);
+
+		/*
+		 * for some reason, a query for collections with a parent of '/' returns
+		 * the root as a result, which creates weird situations when trying to
+		 * show collections in a tree structure. This test papers over that
+		 * idiosyncrasy and discards that extraneous result.
+		 */
+		if (collectionAndDataObjectListingEntry.getPathOrName().equals("/")) {
+			return null;
+		}
+
+		return collectionAndDataObjectListingEntry;
+	}
+
+	/**
+	 * Start a query over all of the collections under a path, for the listing
+	 * iterator
+	 *
+	 * @param objStat
+	 *            {@link ObjStat} of the parent, which is not a mounted or
+	 *            structured file collection
+	 * @param effectiveAbsolutePath
+	 *            <code>String</code> with the path to query
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            the next page in the background
+	 * @return {@link GenQueryResultIterator} over the rows
+	 * @throws JargonException
+	 */
+	GenQueryResultIterator iterateCollectionsUnderPathViaGenQuery(
+			final ObjStat objStat, final String effectiveAbsolutePath,
+			final boolean prefetch) throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, false,
+				true, null);
+		try {
+			IRODSFileSystemAOHelper.buildQueryListAllCollections(
+					effectiveAbsolutePath, builder);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		return queryForPathAndReturnIterator(objStat.getAbsolutePath(),
+				builder, prefetch);
+	}
+
+	/**
+	 * Start a query over all of the data objects under a path, for the
+	 * listing iterator. Rows repeat for each replica.
+	 *
+	 * @param effectiveAbsolutePath
+	 *            <code>String</code> with the path to query
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            the next page in the background
+	 * @return {@link GenQueryResultIterator} over the rows
+	 * @throws JargonException
+	 */
+	GenQueryResultIterator iterateDataObjectsUnderPathViaGenQuery(
+			final String effectiveAbsolutePath, final boolean prefetch)
+			throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, false,
+				true, null);
+		IRODSFileSystemAOHelper
+				.buildQueryListAllDataObjectsWithSizeAndDateInfo(
+						effectiveAbsolutePath, builder);
+
+		return queryForPathAndReturnIterator(effectiveAbsolutePath, builder,
+				prefetch);
+	}
+
+	private GenQueryResultIterator queryForPathAndReturnIterator(
+			final String absolutePath, final IRODSGenQueryBuilder builder,
+			final boolean prefetch) throws JargonException {
+
+		log.info("queryForPathAndReturnIterator for: {}", absolutePath);
+		IRODSGenQueryExecutor irodsGenQueryExecutor = collectionAndDataObjectListAndSearchAO
+				.getIRODSAccessObjectFactory().getIRODSGenQueryExecutor(
+						collectionAndDataObjectListAndSearchAO
+								.getIRODSAccount());
+
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder
+					.exportIRODSQueryFromBuilder(collectionAndDataObjectListAndSearchAO
+							.getJargonProperties().getMaxFilesAndDirsQueryMax());
+			return irodsGenQueryExecutor.iterateIRODSQueryInZone(irodsQuery,
+					MiscIRODSUtils.getZoneInPath(absolutePath), prefetch);
+		} catch (JargonQueryException e) {
+			log.error(QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		} catch (GenQueryBuilderException e) {
+			log.error(QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		}
+	}
+
 	IRODSQueryResultSet queryForPathAndReturnResultSet(
 			final String absolutePath, final IRODSGenQueryBuilder builder,
 			final int partialStartIndex, final ObjStat objStat)
@@ -857,22 +964,10 @@ class CollectionListingUtils {
 		String currentPath = "";
 		CollectionAndDataObjectListingEntry entry;
 		for (IRODSQueryResultRow row : resultSet.getResults()) {
-			entry = CollectionAOHelper
-					.buildCollectionListEntryFromResultSetRowForDataObjectQuery(
-							row, resultSet.getTotalRecords());
+			entry = buildDataObjectEntryFromRow(objStat, effectiveAbsolutePath,
+					row, resultSet.getTotalRecords());
 
-			/**
-			 * Use the data in the objStat, in the case of special collections,
-			 * to augment the data returned
-			 */
-			augmentCollectionEntryForSpecialCollections(objStat,
-					effectiveAbsolutePath, entry);
-
-			StringBuilder sb = new StringBuilder();
-			sb.append(entry.getParentPath());
-			sb.append('/');
-			sb.append(entry.getPathOrName());
-			currentPath = sb.toString();
+			currentPath = entry.getFormattedAbsolutePath();
 			if (currentPath.equals(lastPath)) {
 				continue;
 			}
@@ -883,6 +978,30 @@ class CollectionListingUtils {
 		return files;
 	}
 
+	/**
+	 * Build the listing entry for a row of the data objects query
+	 *
+	 * @return {@link CollectionAndDataObjectListingEntry}
+	 * @throws JargonException
+	 */
+	CollectionAndDataObjectListingEntry buildDataObjectEntryFromRow(
+			final ObjStat objStat, final String effectiveAbsolutePath,
+			final IRODSQueryResultRow row, final int totalRecords)
+			throws JargonException {
+
+		CollectionAndDataObjectListingEntry entry = CollectionAOHelper
+				.buildCollectionListEntryFromResultSetRowForDataObjectQuery(
+						row, totalRecords);
+
+		/**
+		 * Use the data in the objStat, in the case of special collections, to
+		 * augment the data returned
+		 */
+		augmentCollectionEntryForSpecialCollections(objStat,
+				effectiveAbsolutePath, entry);
+		return entry;
+	}
+
 	/**
 	 * Use the data in the objStat, in the case of special collections, to
 	 * augment the entry for a collection
@@ -0,0 +1,555 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatus.TransferState;
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the files of a recursive put, get or replicate with several worker
+ * threads, each holding its own connection, used by
+ * {@link TransferOperationsHelper} when
+ * {@link org.irods.jargon.core.packinstr.TransferOptions#getRecursiveTransferThreads()}
+ * is more than one.
+ * <p/>
+ * The source tree is walked first on the calling thread. The target
+ * collections or directories are all created at that point, iRODS collections
+ * as one pipelined batch, and the restart filter of the transfer control block
+ * is applied in walk order, as it is for a serial transfer. The files are then
+ * queued, and each worker takes the next file as it finishes the last, so that
+ * slow files do not hold up the others.
+ * <p/>
+ * Each file is moved with the same single file methods, callbacks and control
+ * block counters as a serial transfer. Callbacks to the listener are
+ * serialized, so listeners need not be thread safe. Workers check for a pause
+ * or cancel before each file, and a single callback reports the interruption
+ * once they have all stopped. Files are moved in no particular order, so a
+ * restart by last good file is only exact for serial transfers.
+ * <p/>
+ * This is used internally.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class ConcurrentRecursiveTransfer {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ConcurrentRecursiveTransfer.class);
+
+	private final TransferOperationsHelper transferOperationsHelper;
+	private final CollectionAO collectionAO;
+	private final int threads;
+
+	/**
+	 * @param transferOperationsHelper
+	 *            {@link TransferOperationsHelper} that moves each file
+	 * @param collectionAO
+	 *            {@link CollectionAO} for the account of the transfer
+	 * @param threads
+	 *            <code>int</code> with the number of workers
+	 */
+	ConcurrentRecursiveTransfer(
+			final TransferOperationsHelper transferOperationsHelper,
+			final CollectionAO collectionAO, final int threads) {
+
+		if (transferOperationsHelper == null) {
+			throw new IllegalArgumentException("null transferOperationsHelper");
+		}
+
+		if (collectionAO == null) {
+			throw new IllegalArgumentException("null collectionAO");
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1");
+		}
+
+		this.transferOperationsHelper = transferOperationsHelper;
+		this.collectionAO = collectionAO;
+		this.threads = threads;
+	}
+
+	/**
+	 * Put the contents of a local directory into an existing collection
+	 */
+	void put(
+			final File sourceFile,
+			final IRODSFile targetIrodsCollection,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		log.info("concurrently putting source file: {}",
+				sourceFile.getAbsolutePath());
+		log.info("    into iRODS file: {}",
+				targetIrodsCollection.getAbsolutePath());
+		log.info("    with workers:{}", threads);
+
+		TransferStatusCallbackListener listener = synchronizedListener(transferStatusCallbackListener);
+		Queue<FileTask> tasks = new ConcurrentLinkedQueue<FileTask>();
+		List<String> collections = new ArrayList<String>();
+		walkForPut(sourceFile, targetIrodsCollection, collections, tasks,
+				listener, transferControlBlock);
+
+		if (!collections.isEmpty()) {
+			try {
+				collectionAO.getIRODSAccessObjectFactory()
+				.getIRODSFileSystemAO(collectionAO.getIRODSAccount())
+				.mkdirs(collections);
+			} catch (JargonException je) {
+				if (listener == null) {
+					throw je;
+				}
+				// files under a missing collection report their own errors
+				log.error("error creating collections, files will be tried",
+						je);
+			}
+		}
+
+		runTasks(TransferType.PUT, sourceFile.getAbsolutePath(),
+				targetIrodsCollection.getAbsolutePath(), "", tasks, listener,
+				transferControlBlock);
+	}
+
+	/**
+	 * Get the contents of a collection into an existing local directory
+	 */
+	void get(
+			final IRODSFile irodsSourceFile,
+			final File targetLocalFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		log.info("concurrently getting source file: {}",
+				irodsSourceFile.getAbsolutePath());
+		log.info("    into local file: {}", targetLocalFile.getAbsolutePath());
+		log.info("    with workers:{}", threads);
+
+		TransferStatusCallbackListener listener = synchronizedListener(transferStatusCallbackListener);
+		Queue<FileTask> tasks = new ConcurrentLinkedQueue<FileTask>();
+		walkForGet(irodsSourceFile, targetLocalFile, tasks, listener,
+				transferControlBlock);
+
+		runTasks(TransferType.GET, irodsSourceFile.getAbsolutePath(),
+				targetLocalFile.getAbsolutePath(), "", tasks, listener,
+				transferControlBlock);
+	}
+
+	/**
+	 * Replicate the contents of a collection to a resource
+	 */
+	void replicate(
+			final IRODSFile sourceFile,
+			final String targetResource,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		log.info("concurrently replicating source file: {}",
+				sourceFile.getAbsolutePath());
+		log.info("    into resource: {}", targetResource);
+		log.info("    with workers:{}", threads);
+
+		TransferStatusCallbackListener listener = synchronizedListener(transferStatusCallbackListener);
+		Queue<FileTask> tasks = new ConcurrentLinkedQueue<FileTask>();
+		walkForReplicate(sourceFile, targetResource, tasks, listener,
+				transferControlBlock);
+
+		runTasks(TransferType.REPLICATE, sourceFile.getAbsolutePath(), "",
+				targetResource, tasks, listener, transferControlBlock);
+	}
+
+	private void walkForPut(final File sourceFile,
+			final IRODSFile targetIrodsCollection,
+			final List<String> collections, final Queue<FileTask> tasks,
+			final TransferStatusCallbackListener listener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		File[] files = sourceFile.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		for (final File fileInSourceCollection : files) {
+			if (fileInSourceCollection.isDirectory()) {
+				StringBuilder sb = new StringBuilder();
+				sb.append(targetIrodsCollection.getAbsolutePath());
+				sb.append('/');
+				sb.append(fileInSourceCollection.getName());
+				IRODSFile newSubCollection = collectionAO
+						.instanceIRODSFileForCollectionPath(sb.toString());
+				newSubCollection.setResource(targetIrodsCollection
+						.getResource());
+				collections.add(newSubCollection.getAbsolutePath());
+				walkForPut(fileInSourceCollection, newSubCollection,
+						collections, tasks, listener, transferControlBlock);
+				continue;
+			}
+
+			String targetPath = targetIrodsCollection.getAbsolutePath() + '/'
+					+ fileInSourceCollection.getName();
+			if (!transferControlBlock.filter(fileInSourceCollection
+					.getAbsolutePath())) {
+				log.debug("file filtered and not transferred");
+				transferOperationsHelper.notifyFilteredFile(TransferType.PUT,
+						fileInSourceCollection.getAbsolutePath(), targetPath,
+						"", listener, transferControlBlock);
+				continue;
+			}
+
+			tasks.add(new FileTask(fileInSourceCollection.getAbsolutePath()) {
+				@Override
+				void transfer() throws JargonException {
+					transferOperationsHelper.processPutOfSingleFile(
+							fileInSourceCollection, targetIrodsCollection,
+							listener, transferControlBlock);
+				}
+			});
+		}
+	}
+
+	private void walkForGet(final IRODSFile irodsSourceFile,
+			final File targetLocalFile, final Queue<FileTask> tasks,
+			final TransferStatusCallbackListener listener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		for (File child : irodsSourceFile.listFiles()) {
+			final IRODSFile fileInSourceCollection = (IRODSFile) child;
+			fileInSourceCollection.setResource(irodsSourceFile.getResource());
+
+			if (fileInSourceCollection.isDirectory()) {
+				File newSubCollection = new File(targetLocalFile,
+						fileInSourceCollection.getName());
+				if (!newSubCollection.mkdirs()) {
+					log.warn("unable to make directories in local file system, log and proceed");
+				}
+				walkForGet(fileInSourceCollection, newSubCollection, tasks,
+						listener, transferControlBlock);
+				continue;
+			}
+
+			if (!transferControlBlock.filter(fileInSourceCollection
+					.getAbsolutePath())) {
+				log.info("file is filtered and discarded: {}",
+						fileInSourceCollection.getAbsolutePath());
+				transferOperationsHelper.notifyFilteredFile(TransferType.GET,
+						fileInSourceCollection.getAbsolutePath(), new File(
+								targetLocalFile, fileInSourceCollection
+								.getName()).getAbsolutePath(), "",
+								listener, transferControlBlock);
+				continue;
+			}
+
+			tasks.add(new FileTask(fileInSourceCollection.getAbsolutePath()) {
+				@Override
+				void transfer() throws JargonException {
+					transferOperationsHelper.processGetOfSingleFile(
+							fileInSourceCollection, targetLocalFile, listener,
+							transferControlBlock);
+				}
+			});
+		}
+	}
+
+	private void walkForReplicate(final IRODSFile sourceFile,
+			final String targetResource, final Queue<FileTask> tasks,
+			final TransferStatusCallbackListener listener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		for (File fileInSourceCollection : sourceFile.listFiles()) {
+			if (fileInSourceCollection.isDirectory()) {
+				walkForReplicate((IRODSFile) fileInSourceCollection,
+						targetResource, tasks, listener, transferControlBlock);
+				continue;
+			}
+
+			final String irodsFileAbsolutePath = fileInSourceCollection
+					.getAbsolutePath();
+			if (!transferControlBlock.filter(irodsFileAbsolutePath)) {
+				log.info("file is filtered and discarded: {}",
+						irodsFileAbsolutePath);
+				transferOperationsHelper.notifyFilteredFile(
+						TransferType.REPLICATE, irodsFileAbsolutePath, "",
+						targetResource, listener, transferControlBlock);
+				continue;
+			}
+
+			tasks.add(new FileTask(irodsFileAbsolutePath) {
+				@Override
+				void transfer() throws JargonException {
+					transferOperationsHelper.processReplicationOfSingleFile(
+							irodsFileAbsolutePath, targetResource, listener,
+							transferControlBlock);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Run the queued files on the workers, wait for them all to stop, then
+	 * report any pause or cancel, or throw the first error if there is no
+	 * listener to take it
+	 */
+	private void runTasks(final TransferType transferType,
+			final String sourcePath, final String targetPath,
+			final String targetResource, final Queue<FileTask> tasks,
+			final TransferStatusCallbackListener listener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		int workers = Math.min(threads, tasks.size());
+		log.info("queued {} files for {} workers", tasks.size(), workers);
+		if (workers == 0) {
+			return;
+		}
+
+		final IRODSSession irodsSession = collectionAO.getIRODSSession();
+		final IRODSAccount irodsAccount = collectionAO.getIRODSAccount();
+		ExecutorService executor = Executors.newFixedThreadPool(workers,
+				new WorkerThreadFactory());
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+		try {
+			for (int i = 0; i < workers; i++) {
+				futures.add(executor.submit(new Worker(tasks,
+						transferControlBlock, irodsSession, irodsAccount)));
+			}
+			awaitWorkers(futures, transferControlBlock);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (transferControlBlock.isCancelled()
+				|| transferControlBlock.isPaused()) {
+			notifyPauseOrCancel(transferType, sourcePath, targetPath,
+					targetResource, tasks.peek(), listener,
+					transferControlBlock);
+		}
+	}
+
+	/**
+	 * Wait for every worker, passing an interrupt of the calling thread to
+	 * the workers as a cancel, and throw the first worker error
+	 */
+	private void awaitWorkers(final List<Future<Void>> futures,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		JargonException failure = null;
+		for (Future<Void> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					log.info("cancellation detected, set cancelled in tcb");
+					transferControlBlock.setCancelled(true);
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof JargonException ? (JargonException) e
+								.getCause() : new JargonException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void notifyPauseOrCancel(final TransferType transferType,
+			final String sourcePath, final String targetPath,
+			final String targetResource, final FileTask nextTask,
+			final TransferStatusCallbackListener listener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		if (listener == null) {
+			return;
+		}
+
+		TransferState interruptStatus;
+		if (transferControlBlock.shouldTransferBeAbandonedDueToNumberOfErrors()) {
+			interruptStatus = TransferState.FAILURE;
+		} else if (transferControlBlock.isCancelled()) {
+			interruptStatus = TransferState.CANCELLED;
+		} else {
+			interruptStatus = TransferState.PAUSED;
+		}
+
+		TransferStatus status = TransferStatus.instance(transferType,
+				nextTask == null ? sourcePath : nextTask.getSourcePath(),
+				targetPath, targetResource, 0, 0,
+				transferControlBlock.getTotalFilesTransferredSoFar(),
+				transferControlBlock.getTotalFilesSkippedSoFar(),
+				transferControlBlock.getTotalFilesToTransfer(),
+				interruptStatus, collectionAO.getIRODSAccount().getHost(),
+				collectionAO.getIRODSAccount().getZone());
+		log.info("status callback for interruption:{}", status);
+		listener.statusCallback(status);
+	}
+
+	private static TransferStatusCallbackListener synchronizedListener(
+			final TransferStatusCallbackListener transferStatusCallbackListener) {
+		if (transferStatusCallbackListener == null) {
+			return null;
+		}
+		return new SynchronizedTransferStatusCallbackListener(
+				transferStatusCallbackListener);
+	}
+
+	/**
+	 * One file to move
+	 */
+	abstract static class FileTask {
+
+		private final String sourcePath;
+
+		FileTask(final String sourcePath) {
+			this.sourcePath = sourcePath;
+		}
+
+		String getSourcePath() {
+			return sourcePath;
+		}
+
+		abstract void transfer() throws JargonException;
+	}
+
+	/**
+	 * Takes files from the queue until it is empty, or the transfer is paused
+	 * or cancelled, then closes the connections of its thread
+	 */
+	static final class Worker implements Callable<Void> {
+
+		private final Queue<FileTask> tasks;
+		private final TransferControlBlock transferControlBlock;
+		private final IRODSSession irodsSession;
+		private final IRODSAccount irodsAccount;
+
+		Worker(final Queue<FileTask> tasks,
+				final TransferControlBlock transferControlBlock,
+				final IRODSSession irodsSession, final IRODSAccount irodsAccount) {
+			this.tasks = tasks;
+			this.transferControlBlock = transferControlBlock;
+			this.irodsSession = irodsSession;
+			this.irodsAccount = irodsAccount;
+		}
+
+		@Override
+		public Void call() throws JargonException {
+			try {
+				while (!transferControlBlock.isCancelled()
+						&& !transferControlBlock.isPaused()) {
+					FileTask task = tasks.poll();
+					if (task == null) {
+						break;
+					}
+
+					if (irodsSession.getJargonProperties()
+							.getSocketRenewalIntervalInSeconds() > 0) {
+						irodsSession
+						.currentConnectionCheckRenewalOfSocket(irodsAccount);
+					}
+
+					try {
+						task.transfer();
+					} catch (JargonException je) {
+						if (!transferControlBlock.isCancelled()) {
+							log.error("error in transfer of:{}",
+									task.getSourcePath(), je);
+							transferControlBlock.setCancelled(true);
+							throw je;
+						}
+					} catch (RuntimeException e) {
+						if (!transferControlBlock.isCancelled()) {
+							log.error(
+									"unanticipated exception will be transformed into a Jargon exception",
+									e);
+							transferControlBlock.setCancelled(true);
+							throw new JargonException(e);
+						}
+					}
+				}
+			} finally {
+				irodsSession.closeSession();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Names the workers so they can be found in a thread dump
+	 */
+	static final class WorkerThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable,
+					"jargon-recursive-transfer-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Passes callbacks from the workers to the listener one at a time
+	 */
+	static final class SynchronizedTransferStatusCallbackListener implements
+	TransferStatusCallbackListener {
+
+		private final TransferStatusCallbackListener delegate;
+
+		SynchronizedTransferStatusCallbackListener(
+				final TransferStatusCallbackListener delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public synchronized FileStatusCallbackResponse statusCallback(
+				final TransferStatus transferStatus) throws JargonException {
+			return delegate.statusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized void overallStatusCallback(
+				final TransferStatus transferStatus) throws JargonException {
+			delegate.overallStatusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized CallbackResponse transferAsksWhetherToForceOperation(
+				final String irodsAbsolutePath, final boolean isCollection) {
+			return delegate.transferAsksWhetherToForceOperation(
+					irodsAbsolutePath, isCollection);
+		}
+	}
+
+}
@@ -8,16 +8,22 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
 import org.irods.jargon.core.checksum.ChecksumManager;
 import org.irods.jargon.core.checksum.ChecksumManagerImpl;
+import org.irods.jargon.core.checksum.ChecksumMethodUnavailableException;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
 import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
 import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.FileIntegrityException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.DataObjInp;
 import org.irods.jargon.core.packinstr.OpenedDataObjInp;
@@ -276,9 +282,12 @@ public final class DataAOHelper extends AOHelper {
 	 * @param transferOptions
 	 * @param transferStatusCallbackListener
 	 * @param transferControlBlock
+	 * @return {@link ChecksumValue} of the bytes received, if the options ask
+	 *         for a verified checksum computed during the transfer, otherwise
+	 *         <code>null</code>
 	 * @throws JargonException
 	 */
-	void processNormalGetTransfer(final File localFileToHoldData,
+	ChecksumValue processNormalGetTransfer(final File localFileToHoldData,
 			final long length,
 			final AbstractIRODSMidLevelProtocol irodsProtocol,
 			final TransferOptions transferOptions,
@@ -300,21 +309,25 @@ public final class DataAOHelper extends AOHelper {
 			throw new IllegalArgumentException("null transferControlBlock");
 		}
 
-		// get an input stream from the irodsFile
-		BufferedOutputStream localFileOutputStream;
+		/*
+		 * An nio connection transfers straight into the file channel of an
+		 * unwrapped file, other connections write through the local buffer
+		 */
+		OutputStream localFileOutputStream;
 
 		try {
-
-			if (irodsProtocol.getPipelineConfiguration()
-					.getLocalFileOutputStreamBufferSize() <= 0) {
-
+			localFileOutputStream = new FileOutputStream(localFileToHoldData);
+			int bufferSize = irodsProtocol.getPipelineConfiguration()
+					.getLocalFileOutputStreamBufferSize();
+			if (irodsProtocol.getIrodsConnection().isReadIntoFileChannel()
+					|| bufferSize < 0) {
+				log.debug("not buffering local file");
+			} else if (bufferSize == 0) {
 				localFileOutputStream = new BufferedOutputStream(
-						new FileOutputStream(localFileToHoldData));
+						localFileOutputStream);
 			} else {
 				localFileOutputStream = new BufferedOutputStream(
-						new FileOutputStream(localFileToHoldData),
-						irodsProtocol.getPipelineConfiguration()
-								.getLocalFileOutputStreamBufferSize());
+						localFileOutputStream, bufferSize);
 			}
 		} catch (FileNotFoundException e) {
 			log.error(
@@ -340,6 +353,23 @@ public final class DataAOHelper extends AOHelper {
 							transferStatusCallbackListener);
 		}
 
+		/*
+		 * A digest of the bytes as they arrive saves reading the file again to
+		 * verify it, though the bytes are then copied through the stream
+		 * rather than straight into the file channel
+		 */
+		AbstractChecksumComputeStrategy inlineChecksumStrategy = null;
+		MessageDigest messageDigest = null;
+		if (transferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+			inlineChecksumStrategy = checksumStrategyForTransfer(transferOptions);
+		}
+
+		if (inlineChecksumStrategy != null) {
+			messageDigest = inlineChecksumStrategy.instanceMessageDigest();
+			localFileOutputStream = new DigestOutputStream(
+					localFileOutputStream, messageDigest);
+		}
+
 		// read the message byte stream into the local file
 		irodsProtocol.read(localFileOutputStream, length,
 				intraFileStatusListener);
@@ -355,6 +385,15 @@ public final class DataAOHelper extends AOHelper {
 					"IOException for local file when trying to get to: "
 							+ localFileToHoldData.getAbsolutePath(), e);
 		}
+
+		if (messageDigest == null) {
+			return null;
+		}
+
+		ChecksumValue localFileChecksum = inlineChecksumStrategy
+				.checksumValueFromDigest(messageDigest.digest());
+		log.info("checksum computed during get:{}", localFileChecksum);
+		return localFileChecksum;
 	}
 
 	/**
@@ -425,9 +464,12 @@ public final class DataAOHelper extends AOHelper {
 				targetFile.getResource(), overwrite, myTransferOptions,
 				execFlag);
 
-		// see if checksum is required
+		// see if checksum is required, and whether it is computed as the data
+		// is sent
+
+		AbstractChecksumComputeStrategy inlineChecksumStrategy = checksumStrategyForTransfer(myTransferOptions);
 
-		if (myTransferOptions != null) {
+		if (inlineChecksumStrategy == null) {
 			if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()
 					|| myTransferOptions.isComputeChecksumAfterTransfer()) {
 				log.info("computing a checksum on the file at:{}",
@@ -470,9 +512,137 @@ public final class DataAOHelper extends AOHelper {
 					inputStreamBuffSize);
 		}
 
+		MessageDigest messageDigest = null;
+		if (inlineChecksumStrategy != null
+				&& myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+			messageDigest = inlineChecksumStrategy.instanceMessageDigest();
+			fileInputStream = new DigestInputStream(fileInputStream,
+					messageDigest);
+		}
+
 		irodsProtocol.irodsFunctionIncludingAllDataInStream(dataObjInp,
 				localFile.length(), fileInputStream, intraFileStatusListener);
 
+		if (messageDigest != null) {
+			verifyChecksumAfterPut(
+					inlineChecksumStrategy.checksumValueFromDigest(messageDigest
+							.digest()), localFile, targetFile);
+		}
+
+	}
+
+	/**
+	 * Get the strategy that computes a checksum on the bytes of a transfer,
+	 * if the options ask for a checksum computed during the transfer. A put
+	 * made with this strategy has iRODS compute and register its own checksum,
+	 * which is verified against the local one after the transfer by
+	 * {@link #verifyChecksumAfterPut(ChecksumValue, File, IRODSFile)}.
+	 *
+	 * @param transferOptions
+	 *            {@link TransferOptions} for the transfer
+	 * @return {@link AbstractChecksumComputeStrategy} for the checksum
+	 *         algorithm of the server, or <code>null</code> if any checksum is
+	 *         to be computed from the local file
+	 * @throws JargonException
+	 */
+	AbstractChecksumComputeStrategy checksumStrategyForTransfer(
+			final TransferOptions transferOptions) throws JargonException {
+
+		if (transferOptions == null
+				|| !transferOptions.isComputeChecksumDuringTransfer()) {
+			return null;
+		}
+
+		if (!transferOptions.isComputeAndVerifyChecksumAfterTransfer()
+				&& !transferOptions.isComputeChecksumAfterTransfer()) {
+			return null;
+		}
+
+		AbstractChecksumComputeStrategy strategy = irodsAccessObjectFactory
+				.getIrodsSession()
+				.getLocalChecksumComputerFactory()
+				.instance(
+						checksumManager.determineChecksumEncodingForTargetServer());
+
+		try {
+			strategy.instanceMessageDigest();
+		} catch (ChecksumMethodUnavailableException e) {
+			log.info("checksum strategy cannot digest a stream, will checksum the file");
+			return null;
+		}
+
+		return strategy;
+	}
+
+	/**
+	 * Compare a local checksum computed during a put with the checksum
+	 * registered by iRODS
+	 *
+	 * @param localChecksum
+	 *            {@link ChecksumValue} computed as the data was sent
+	 * @param localFile
+	 *            <code>File</code> that was sent, read again only if iRODS
+	 *            used another algorithm
+	 * @param targetFile
+	 *            {@link IRODSFile} that was written
+	 * @throws FileIntegrityException
+	 *             if the checksums do not match
+	 * @throws JargonException
+	 */
+	void verifyChecksumAfterPut(final ChecksumValue localChecksum,
+			final File localFile, final IRODSFile targetFile)
+			throws JargonException {
+
+		log.info("verifyChecksumAfterPut()");
+		log.info("local checksum:{}", localChecksum);
+
+		DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO = irodsAccessObjectFactory
+				.getDataObjectChecksumUtilitiesAO(irodsAccount);
+		ChecksumValue irodsChecksum = dataObjectChecksumUtilitiesAO
+				.retrieveExistingChecksumForDataObject(targetFile
+						.getAbsolutePath());
+		if (irodsChecksum == null) {
+			log.info("no checksum registered, have iRODS compute one");
+			irodsChecksum = dataObjectChecksumUtilitiesAO
+					.computeChecksumOnDataObject(targetFile);
+		}
+
+		log.info("irods checksum:{}", irodsChecksum);
+		ChecksumValue comparedChecksum = localChecksumWithEncoding(
+				localChecksum, irodsChecksum.getChecksumEncoding(), localFile);
+		if (!irodsChecksum.getChecksumStringValue().equals(
+				comparedChecksum.getChecksumStringValue())) {
+			throw new FileIntegrityException(
+					"checksum verification after put fails");
+		}
+	}
+
+	/**
+	 * Get a local checksum with the algorithm that iRODS used, taking one
+	 * computed during the transfer when it used the same algorithm, and
+	 * otherwise computing it from the local file
+	 *
+	 * @param localChecksum
+	 *            {@link ChecksumValue} computed during the transfer, or
+	 *            <code>null</code> if there is none
+	 * @param checksumEncoding
+	 *            {@link ChecksumEncodingEnum} used by iRODS
+	 * @param localFile
+	 *            <code>File</code> that was transferred
+	 * @return {@link ChecksumValue} to compare with the iRODS checksum
+	 * @throws JargonException
+	 */
+	ChecksumValue localChecksumWithEncoding(final ChecksumValue localChecksum,
+			final ChecksumEncodingEnum checksumEncoding, final File localFile)
+			throws JargonException {
+		if (localChecksum != null
+				&& localChecksum.getChecksumEncoding() == checksumEncoding) {
+			return localChecksum;
+		}
+
+		log.info("computing a checksum on the file at:{}",
+				localFile.getAbsolutePath());
+		return computeLocalFileChecksum(localFile, checksumEncoding);
 	}
 
 	/**
@@ -549,8 +719,9 @@ public final class DataAOHelper extends AOHelper {
 			final IRODSFile targetFile, final int fd,
 			final AbstractIRODSMidLevelProtocol irodsProtocol,
 			final TransferControlBlock transferControlBlock,
-			final ConnectionProgressStatusListener intraFileStatusListener)
-			throws JargonException, FileNotFoundException {
+			final ConnectionProgressStatusListener intraFileStatusListener,
+			final MessageDigest messageDigest) throws JargonException,
+			FileNotFoundException {
 
 		log.info("put read/write loop");
 
@@ -590,6 +761,12 @@ public final class DataAOHelper extends AOHelper {
 					inputStreamBuffSize);
 		}
 
+		if (messageDigest != null) {
+			// updated with the bytes as they are sent
+			fileInputStream = new DigestInputStream(fileInputStream,
+					messageDigest);
+		}
+
 		try {
 
 			log.info("starting read/write loop to send data to iRODS");
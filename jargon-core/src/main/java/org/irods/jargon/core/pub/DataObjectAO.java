@@ -1091,6 +1091,10 @@ public interface DataObjectAO extends FileCatalogObjectAO {
 	 * be returned giving individual success/failure information. For example,
 	 * an attempt to add a duplicate AVU will result in an error entry in the
 	 * response versus a thrown exception.
+	 * <p/>
+	 * The AVUs are sent without waiting for each reply, so a large set costs
+	 * a round trip per <code>pipelined.request.window.size</code> AVUs rather
+	 * than one per AVU.
 	 *
 	 * @param absolutePath
 	 *            <code>String</code> with the absolute path to the data object
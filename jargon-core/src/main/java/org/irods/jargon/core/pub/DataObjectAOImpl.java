@@ -8,7 +8,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.ConnectionConstants;
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
@@ -61,7 +65,9 @@ import org.irods.jargon.core.query.SpecificQuery;
 import org.irods.jargon.core.query.SpecificQueryResultSet;
 import org.irods.jargon.core.rule.IRODSRuleExecResult;
 import org.irods.jargon.core.rule.IRODSRuleParameter;
+import org.irods.jargon.core.transfer.AbstractParallelFileTransferStrategy;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
+import org.irods.jargon.core.transfer.AdaptiveTransferTuner;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
 import org.irods.jargon.core.transfer.FileRestartInfo;
 import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
@@ -75,6 +81,7 @@ import org.irods.jargon.core.transfer.RestartFailedException;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.transfer.TransferStatus.TransferType;
 import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.irods.jargon.core.transfer.TransferThroughputMeasurement;
 import org.irods.jargon.core.utils.CollectionAndPath;
 import org.irods.jargon.core.utils.IRODSConstants;
 import org.irods.jargon.core.utils.IRODSDataConversionUtil;
@@ -554,9 +561,32 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 				localFile, irodsFileDestination, ignoreChecks,
 				getIRODSFileFactory());
 
+		try {
+			putToTargetFile(localFile, irodsFileDestination, targetFile,
+					ignoreChecks, transferControlBlock,
+					transferStatusCallbackListener);
+		} finally {
+			invalidateCachedObjStat(targetFile.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Put a local file to the data object chosen by
+	 * {@link #putCommonProcessing}, restarting or checking for an overwrite
+	 * as needed
+	 */
+	private void putToTargetFile(final File localFile,
+			final IRODSFile irodsFileDestination, final IRODSFile targetFile,
+			final boolean ignoreChecks,
+			final TransferControlBlock transferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener)
+			throws DataNotFoundException, JargonException,
+			JargonRuntimeException, OverwriteException {
+
 		long localFileLength = localFile.length();
 		log.debug("localFileLength:{}", localFileLength);
 		long startTime = System.currentTimeMillis();
+		long startNanos = System.nanoTime();
 
 		log.info("checking to see if this is a restart...");
 
@@ -661,6 +691,10 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 		long endTime = System.currentTimeMillis();
 		long duration = endTime - startTime;
 		log.info(">>>>>>>>>>>>>>transfer complete in:{} millis", duration);
+		if (getJargonMetrics() != null) {
+			getJargonMetrics().recordTransfer(TransferType.PUT,
+					localFileLength, System.nanoTime() - startNanos);
+		}
 		/*
 		 * Send a final 100% callback if intra-file callbacks are desired
 		 */
@@ -838,6 +872,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 			myTransferOptions.setMaxThreads(-1);
 		}
 
+		tuneParallelTransfer(localFile.length(), myTransferOptions);
+
 		ConnectionProgressStatusListener intraFileStatusListener = null;
 
 		boolean execFlag = false;
@@ -859,8 +895,16 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 
 		try {
 
-			if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()
-					|| myTransferOptions.isComputeChecksumAfterTransfer()) {
+			AbstractChecksumComputeStrategy inlineChecksumStrategy = dataAOHelper
+					.checksumStrategyForTransfer(myTransferOptions);
+			boolean verifyAfterPut = inlineChecksumStrategy != null
+					&& myTransferOptions
+							.isComputeAndVerifyChecksumAfterTransfer();
+
+			if (inlineChecksumStrategy == null
+					&& (myTransferOptions
+							.isComputeAndVerifyChecksumAfterTransfer() || myTransferOptions
+							.isComputeChecksumAfterTransfer())) {
 				log.info(
 						"before generating parallel transfer threads, computing a checksum on the file at:{}",
 						localFile.getAbsolutePath());
@@ -888,13 +932,30 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 				throw new JargonException(
 						"numberOfThreads returned from iRODS is < 0, some error occurred");
 			} else if (numberOfThreads > 0) {
+				/*
+				 * The threads each send a segment of the file, and a digest of
+				 * the whole file cannot be made from digests of its segments,
+				 * so the file is checksummed alongside the transfer instead
+				 */
+				FutureTask<ChecksumValue> localFileChecksum = null;
+				if (verifyAfterPut) {
+					localFileChecksum = startLocalFileChecksum(
+							inlineChecksumStrategy, localFile);
+				}
+
 				/*
 				 * restart processing is done inside of the parallel put code
 				 */
 				parallelPutTransfer(localFile, targetFile.getAbsolutePath(),
 						responseToInitialCallForPut, numberOfThreads,
-						localFile.length(), transferControlBlock,
-						transferStatusCallbackListener);
+						localFile.length(), myTransferOptions,
+						transferControlBlock, transferStatusCallbackListener);
+
+				if (localFileChecksum != null) {
+					dataAOHelper.verifyChecksumAfterPut(
+							waitForLocalFileChecksum(localFileChecksum),
+							localFile, targetFile);
+				}
 			} else {
 				log.info("parallel operation deferred by server sending 0 threads back in PortalOperOut, revert to single thread transfer");
 				if (transferStatusCallbackListener != null
@@ -905,9 +966,19 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 									transferStatusCallbackListener,
 									transferControlBlock.getTransferOptions());
 				}
+				MessageDigest messageDigest = null;
+				if (verifyAfterPut) {
+					messageDigest = inlineChecksumStrategy
+							.instanceMessageDigest();
+				}
 				dataAOHelper.putReadWriteLoop(localFile, overwrite, targetFile,
 						fd, getIRODSProtocol(), transferControlBlock,
-						intraFileStatusListener);
+						intraFileStatusListener, messageDigest);
+				if (messageDigest != null) {
+					dataAOHelper.verifyChecksumAfterPut(inlineChecksumStrategy
+							.checksumValueFromDigest(messageDigest.digest()),
+							localFile, targetFile);
+				}
 			}
 
 		} catch (DataNotFoundException dnf) {
@@ -927,6 +998,105 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 		}
 	}
 
+	/**
+	 * Start computing the checksum of a local file on its own thread, so that
+	 * it is read while a parallel transfer is under way
+	 *
+	 * @param checksumComputeStrategy
+	 *            {@link AbstractChecksumComputeStrategy} for the algorithm
+	 * @param localFile
+	 *            <code>File</code> to checksum
+	 * @return <code>FutureTask</code> that gives the {@link ChecksumValue}
+	 */
+	private FutureTask<ChecksumValue> startLocalFileChecksum(
+			final AbstractChecksumComputeStrategy checksumComputeStrategy,
+			final File localFile) {
+		log.info("computing a checksum on the file at:{} during the transfer",
+				localFile.getAbsolutePath());
+		FutureTask<ChecksumValue> localFileChecksum = new FutureTask<ChecksumValue>(
+				new Callable<ChecksumValue>() {
+					@Override
+					public ChecksumValue call() throws Exception {
+						return checksumComputeStrategy
+								.computeChecksumValueForLocalFile(localFile
+										.getAbsolutePath());
+					}
+				});
+		Thread thread = new Thread(localFileChecksum, "jargon-local-checksum");
+		thread.setDaemon(true);
+		thread.start();
+		return localFileChecksum;
+	}
+
+	private ChecksumValue waitForLocalFileChecksum(
+			final FutureTask<ChecksumValue> localFileChecksum)
+			throws JargonException {
+		try {
+			return localFileChecksum.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException(
+					"interrupted waiting for local file checksum", e);
+		} catch (ExecutionException e) {
+			log.error("error computing local file checksum", e.getCause());
+			throw new JargonException("error computing local file checksum",
+					e.getCause());
+		}
+	}
+
+	/**
+	 * Let the adaptive transfer tuner, if there is one, choose the number of
+	 * threads and the copy buffer size for a parallel transfer of a file
+	 *
+	 * @param transferLength
+	 *            <code>long</code> with the length of the file
+	 * @param transferOptions
+	 *            {@link TransferOptions} for this file only
+	 */
+	private void tuneParallelTransfer(final long transferLength,
+			final TransferOptions transferOptions) {
+		AdaptiveTransferTuner adaptiveTransferTuner = getIRODSSession()
+				.getAdaptiveTransferTuner();
+		if (adaptiveTransferTuner != null) {
+			adaptiveTransferTuner.tuneTransferOptions(getIRODSAccount()
+					.getHost(), transferLength, transferOptions);
+		}
+	}
+
+	/**
+	 * Give a parallel transfer the copy buffer size of its transfer options,
+	 * and have the adaptive transfer tuner, if there is one, measure it
+	 *
+	 * @return {@link TransferThroughputMeasurement} to complete when the
+	 *         transfer succeeds, or <code>null</code> if it is not measured
+	 */
+	private TransferThroughputMeasurement prepareParallelTransfer(
+			final AbstractParallelFileTransferStrategy parallelFileTransferStrategy,
+			final long transferLength, final int numberOfThreads,
+			final TransferOptions transferOptions) {
+
+		if (transferOptions.getParallelCopyBufferSize() > 0) {
+			parallelFileTransferStrategy
+					.setParallelCopyBufferSize(transferOptions
+							.getParallelCopyBufferSize());
+		}
+
+		AdaptiveTransferTuner adaptiveTransferTuner = getIRODSSession()
+				.getAdaptiveTransferTuner();
+		if (adaptiveTransferTuner == null
+				|| transferLength <= ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			return null;
+		}
+
+		TransferThroughputMeasurement transferThroughputMeasurement = adaptiveTransferTuner
+				.startMeasurement(getIRODSAccount().getHost(), transferLength,
+						numberOfThreads,
+						transferOptions.getParallelCopyBufferSize());
+		parallelFileTransferStrategy
+				.measureThroughput(transferThroughputMeasurement);
+		return transferThroughputMeasurement;
+	}
+
 	/**
 	 * Transfer is > 32MB and the server has responded to set up a parallel
 	 * transfer. Any restart processing has already been done Do the transfer,
@@ -938,13 +1108,14 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 	 * @param responseToInitialCallForPut
 	 * @param numberOfThreads
 	 * @param transferLength
+	 * @param transferOptions
 	 * @param transferControlBlock
 	 * @param transferStatusCallbackListener
 	 */
 	private void parallelPutTransfer(final File localFile,
 			final String irodsAbsolutePath,
 			final Tag responseToInitialCallForPut, final int numberOfThreads,
-			final long transferLength,
+			final long transferLength, final TransferOptions transferOptions,
 			final TransferControlBlock transferControlBlock,
 			final TransferStatusCallbackListener transferStatusCallbackListener)
 			throws DataNotFoundException, OverwriteException, JargonException {
@@ -976,9 +1147,15 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 		log.info(
 				"getting ready to initiate parallel file transfer strategy:{}",
 				parallelPutFileStrategy);
+		TransferThroughputMeasurement transferThroughputMeasurement = prepareParallelTransfer(
+				parallelPutFileStrategy, transferLength, numberOfThreads,
+				transferOptions);
 
 		try {
 			parallelPutFileStrategy.transfer();
+			if (transferThroughputMeasurement != null) {
+				transferThroughputMeasurement.complete();
+			}
 			log.info("transfer process is complete");
 			int statusForComplete = responseToInitialCallForPut.getTag(
 					IRODSConstants.L1_DESC_INX).getIntValue();
@@ -1138,6 +1315,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 			} else {
 				thisFileTransferOptions.setMaxThreads(0);
 			}
+			tuneParallelTransfer(irodsFileLength, thisFileTransferOptions);
 
 			log.info("target local file: {}", localFile.getAbsolutePath());
 			log.info("from source file: {}", irodsFileToGet.getAbsolutePath());
@@ -1154,10 +1332,15 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 						thisFileTransferOptions);
 			}
 
+			long startNanos = System.nanoTime();
 			processGetAfterResourceDetermined(irodsFileToGet, localFile,
 					dataObjInp, thisFileTransferOptions, irodsFileLength,
 					operativeTransferControlBlock,
 					transferStatusCallbackListener, false);
+			if (getJargonMetrics() != null) {
+				getJargonMetrics().recordTransfer(TransferType.GET,
+						irodsFileLength, System.nanoTime() - startNanos);
+			}
 		}
 	}
 
@@ -1514,6 +1697,9 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 
 		log.debug("l1descInx value is:{}", l1descInx);
 
+		// set when the checksum is computed as the data is received
+		ChecksumValue checksumDuringTransfer = null;
+
 		// if length == zero, check for multiple thread copy, may still process
 		// as a standard txfr if 0 threads specified
 		try {
@@ -1562,10 +1748,10 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 					throw e;
 				}
 			} else {
-				dataAOHelper.processNormalGetTransfer(localFileToHoldData,
-						lengthFromIrodsResponse, getIRODSProtocol(),
-						thisFileTransferOptions, transferControlBlock,
-						transferStatusCallbackListener);
+				checksumDuringTransfer = dataAOHelper.processNormalGetTransfer(
+						localFileToHoldData, lengthFromIrodsResponse,
+						getIRODSProtocol(), thisFileTransferOptions,
+						transferControlBlock, transferStatusCallbackListener);
 			}
 
 			/*
@@ -1596,12 +1782,10 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 
 				ChecksumValue irodsChecksum = computeChecksumOnDataObject(irodsFileToGet);
 
-				log.info("computing a checksum on the file at:{}",
-						localFileToHoldData.getAbsolutePath());
-
 				ChecksumValue localFileChecksum = dataAOHelper
-						.computeLocalFileChecksum(localFileToHoldData,
-								irodsChecksum.getChecksumEncoding());
+						.localChecksumWithEncoding(checksumDuringTransfer,
+								irodsChecksum.getChecksumEncoding(),
+								localFileToHoldData);
 
 				log.info("local file checksum is:{}", localFileChecksum);
 				log.info("irods checksum:{}", irodsChecksum);
@@ -1699,9 +1883,15 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 							localFileToHoldData, getIRODSAccessObjectFactory(),
 							irodsFileLength, transferControlBlock,
 							transferStatusCallbackListener, fileRestartInfo);
+			TransferThroughputMeasurement transferThroughputMeasurement = prepareParallelTransfer(
+					parallelGetTransferStrategy, irodsFileLength,
+					numberOfThreads, transferOptions);
 
 			try {
 				parallelGetTransferStrategy.transfer();
+				if (transferThroughputMeasurement != null) {
+					transferThroughputMeasurement.complete();
+				}
 
 			} catch (Throwable e) {
 
@@ -1982,34 +2172,49 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
+		MiscIRODSUtils.checkPathSizeForMax(absolutePath);
 
-		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (DataNotFoundException dnf) {
-				log.error(
-						"dataNotFoundException when adding an AVU, catch and add to response data",
-						dnf);
+		/*
+		 * Resolve soft links once for the whole set, a missing data object
+		 * fails each AVU
+		 */
+		ObjStat objStat;
+		try {
+			objStat = this.retrieveObjStat(absolutePath);
+		} catch (FileNotFoundException fnf) {
+			log.error("data object not found when adding bulk AVUs", fnf);
+			List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
+			for (AvuData value : avuData) {
 				responses.add(BulkAVUOperationResponse.instance(
 						ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error(
-						"DuplicateDataException when adding an AVU, catch and add to response data",
-						dde);
-				responses.add(BulkAVUOperationResponse.instance(
-						ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
-
+						fnf.getMessage() == null ? "" : fnf.getMessage()));
 			}
+			return responses;
+		}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK,
-					value, ""));
+		if (objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
+			log.info(
+					"objStat indicates collection type that does not support this operation:{}",
+					objStat);
+			throw new OperationNotSupportedForCollectionTypeException(
+					"The special collection type does not support this operation");
+		}
+
+		String absPath = resolveAbsolutePathGivenObjStat(objStat);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(
+				avuData.size());
+		for (AvuData value : avuData) {
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
+			}
+			requests.add(ModAvuMetadataInp.instanceForAddDataObjectMetadata(
+					absPath, value));
 		}
 
+		List<BulkAVUOperationResponse> responses = processBulkAVURequestsPipelined(
+				requests, avuData);
+
 		log.info("...complete");
 		return responses;
 	}
@@ -2722,6 +2927,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements
 		} catch (JargonException je) {
 			log.error("error copying irods file", je);
 			throw je;
+		} finally {
+			invalidateCachedObjStat(myTargetFile.getAbsolutePath());
 		}
 		log.info("copy complete");
 
@@ -3,14 +3,21 @@
  */
 package org.irods.jargon.core.pub;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.PipelinedReply;
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.DuplicateDataException;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.DataObjInp;
+import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
 import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse.ResultStatus;
+import org.irods.jargon.core.pub.domain.AvuData;
 import org.irods.jargon.core.pub.domain.ObjStat;
 import org.irods.jargon.core.pub.domain.Resource;
 import org.irods.jargon.core.pub.domain.UserFilePermission;
@@ -302,6 +309,64 @@ FileCatalogObjectAO {
 
 	}
 
+	/**
+	 * Send a set of AVU metadata operations as one pipeline, rather than
+	 * waiting for each reply in turn, and build the bulk response for each
+	 * AVU. A missing target or a duplicate AVU is noted in the response, any
+	 * other error is thrown once all of the replies have been read.
+	 *
+	 * @param requests
+	 *            <code>List</code> of {@link ModAvuMetadataInp} with one
+	 *            operation per AVU
+	 * @param avuData
+	 *            <code>List</code> of {@link AvuData} in the same order as
+	 *            the requests
+	 * @return <code>List</code> of {@link BulkAVUOperationResponse}
+	 * @throws JargonException
+	 */
+	protected List<BulkAVUOperationResponse> processBulkAVURequestsPipelined(
+			final List<ModAvuMetadataInp> requests, final List<AvuData> avuData)
+			throws JargonException {
+
+		List<PipelinedReply> replies = getIRODSProtocol()
+				.irodsFunctionPipelined(requests);
+		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>(
+				replies.size());
+		JargonException unexpected = null;
+
+		for (int i = 0; i < replies.size(); i++) {
+			JargonException je = replies.get(i).getException();
+			AvuData value = avuData.get(i);
+			String message = je == null || je.getMessage() == null ? "" : je
+					.getMessage();
+			if (je == null) {
+				responses.add(BulkAVUOperationResponse.instance(
+						ResultStatus.OK, value, ""));
+			} else if (je instanceof DataNotFoundException
+					|| je instanceof FileNotFoundException
+					|| message.indexOf("-817000") > -1
+					|| message.indexOf("-814000") > -1) {
+				log.error("target missing for AVU:{}", value);
+				responses.add(BulkAVUOperationResponse.instance(
+						ResultStatus.MISSING_METADATA_TARGET, value, message));
+			} else if (je instanceof DuplicateDataException
+					|| message.indexOf("-809000") > -1) {
+				log.error("duplicate AVU:{}", value);
+				responses.add(BulkAVUOperationResponse.instance(
+						ResultStatus.DUPLICATE_AVU, value, message));
+			} else if (unexpected == null) {
+				log.error("jargon exception in bulk AVU operation", je);
+				unexpected = je;
+			}
+		}
+
+		if (unexpected != null) {
+			throw unexpected;
+		}
+
+		return responses;
+	}
+
 	@Override
 	public abstract boolean isUserHasAccess(final String irodsAbsolutePath,
 			final String userName) throws JargonException;
@@ -108,11 +108,11 @@ public interface IRODSAccessObject {
 	Tag operationComplete(int status) throws JargonException;
 
 	/**
-	 * Upon creation, refer to jargon properties and see if this code should be
+	 * Upon creation, refer to the session and see if this code should be
 	 * instrumented
 	 *
-	 * @return <code>boolean</code> of <code>true</code> if performance
-	 *         instrumentation is desired
+	 * @return <code>boolean</code> of <code>true</code> if the session keeps
+	 *         {@link org.irods.jargon.core.metrics.JargonMetrics}
 	 */
 	boolean isInstrumented();
 
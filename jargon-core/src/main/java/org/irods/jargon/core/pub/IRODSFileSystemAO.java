@@ -167,6 +167,21 @@ public interface IRODSFileSystemAO extends IRODSAccessObject {
 	void mkdir(IRODSFile irodsFile, boolean recursiveOpr)
 			throws JargonException;
 
+	/**
+	 * Create each of the given collections, and any missing parents, sending
+	 * the requests as one pipeline rather than waiting for each reply in turn.
+	 * Collections that already exist are not an error. This is meant for
+	 * creating the collections of a recursive put up front.
+	 *
+	 * @param collectionAbsolutePaths
+	 *            <code>List</code> of <code>String</code> with the absolute
+	 *            paths of the collections to create
+	 * @throws JargonException
+	 *             the first error other than an existing collection, thrown
+	 *             once all of the replies have been read
+	 */
+	void mkdirs(List<String> collectionAbsolutePaths) throws JargonException;
+
 	/**
 	 * Delete the given directory, and do not move the file to trash. This
 	 * removes the file and metadata completely from iRODS.
@@ -365,6 +380,20 @@ public interface IRODSFileSystemAO extends IRODSAccessObject {
 	ObjStat getObjStat(String irodsAbsolutePath) throws FileNotFoundException,
 	JargonException;
 
+	/**
+	 * Return the <code>ObjStat</code> of each of a list of iRODS paths, looked
+	 * up in a few batched queries, with the paths not in iRODS listed as
+	 * missing
+	 *
+	 * @param irodsAbsolutePaths
+	 *            <code>List</code> of <code>String</code> with iRODS absolute
+	 *            paths
+	 * @return {@link BulkObjStatResponse}
+	 * @throws JargonException
+	 */
+	BulkObjStatResponse getObjStats(List<String> irodsAbsolutePaths)
+			throws JargonException;
+
 	void fileClose(int fileDescriptor, boolean putOpr) throws JargonException;
 
 }
\ No newline at end of file
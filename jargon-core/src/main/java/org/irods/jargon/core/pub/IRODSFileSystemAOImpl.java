@@ -12,6 +12,7 @@ import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.PipelinedReply;
 import org.irods.jargon.core.exception.CatalogAlreadyHasItemByThatNameException;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.DuplicateDataException;
@@ -465,6 +466,19 @@ IRODSFileSystemAO {
 				.retrieveObjectStatForPathWithHeuristicPathGuessing(irodsAbsolutePath);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.IRODSFileSystemAO#getObjStats(java.util.List)
+	 */
+	@Override
+	public BulkObjStatResponse getObjStats(final List<String> irodsAbsolutePaths)
+			throws JargonException {
+		log.info("getObjStats()");
+		return collectionAndDataObjectListAndSearchAO
+				.retrieveObjectStatsForPaths(irodsAbsolutePaths);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -985,6 +999,7 @@ IRODSFileSystemAO {
 				.getTag(MsgHeader.INT_INFO).getIntValue();
 
 		log.debug("response file nbr:{}", responseFileNbr);
+		invalidateCachedObjStat(absolutePath);
 
 		return responseFileNbr;
 
@@ -1024,9 +1039,59 @@ IRODSFileSystemAO {
 			log.info("directory already exists in mkdir, log and ignore");
 		}
 
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 		log.debug("mkdir succesful");
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.IRODSFileSystemAO#mkdirs(java.util.List)
+	 */
+	@Override
+	public void mkdirs(final List<String> collectionAbsolutePaths)
+			throws JargonException {
+
+		log.info("mkdirs(final List<String> collectionAbsolutePaths)");
+		if (collectionAbsolutePaths == null) {
+			throw new IllegalArgumentException("null collectionAbsolutePaths");
+		}
+
+		log.info("making {} collections", collectionAbsolutePaths.size());
+
+		List<CollInp> requests = new ArrayList<CollInp>(
+				collectionAbsolutePaths.size());
+		for (String collectionAbsolutePath : collectionAbsolutePaths) {
+			requests.add(CollInp.instanceForMkdirs(MiscIRODSUtils
+					.checkPathSizeForMax(collectionAbsolutePath)));
+		}
+
+		JargonException unexpected = null;
+		for (PipelinedReply reply : getIRODSProtocol().irodsFunctionPipelined(
+				requests)) {
+			JargonException je = reply.getException();
+			if (je == null
+					|| je instanceof CatalogAlreadyHasItemByThatNameException) {
+				continue;
+			}
+			log.error("error in mkdir of:{}",
+					((CollInp) reply.getRequest()).getCollectionName(), je);
+			if (unexpected == null) {
+				unexpected = je;
+			}
+		}
+
+		for (String collectionAbsolutePath : collectionAbsolutePaths) {
+			invalidateCachedObjStat(collectionAbsolutePath);
+		}
+
+		if (unexpected != null) {
+			throw unexpected;
+		}
+
+		log.debug("mkdirs succesful");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -1094,6 +1159,7 @@ IRODSFileSystemAO {
 				.getAbsolutePath());
 		Tag response = getIRODSProtocol().irodsFunction(DataObjInp.PI_TAG,
 				dataObjInp.getParsedTags(), DataObjInp.DELETE_FILE_API_NBR);
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 
 		if (response != null) {
 			String msg = "unexpected response from irods, expected null message - logged and ignored ";
@@ -1139,6 +1205,8 @@ IRODSFileSystemAO {
 			log.warn("duplicate data exception logged and ignored, see GForge: [#639] 809000 errors on delete operations when trash file already exists");
 		}
 
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
+
 	}
 
 	/*
@@ -1173,6 +1241,7 @@ IRODSFileSystemAO {
 				collInp.getParsedTags(), CollInp.RMDIR_API_NBR);
 
 		processClientStatusMessages(response);
+		invalidateCachedObjStatTree(irodsFile.getAbsolutePath());
 
 		log.info("deletion successful");
 
@@ -1209,6 +1278,7 @@ IRODSFileSystemAO {
 				collInp.getParsedTags(), CollInp.RMDIR_API_NBR);
 
 		processClientStatusMessages(response);
+		invalidateCachedObjStatTree(irodsFile.getAbsolutePath());
 
 		log.info("deletion successful");
 
@@ -1267,6 +1337,8 @@ IRODSFileSystemAO {
 		Tag response = getIRODSProtocol().irodsFunction(DataObjInp.PI_TAG,
 				dataObjCopyInp.getParsedTags(),
 				DataObjCopyInp.RENAME_FILE_API_NBR);
+		invalidateCachedObjStatTree(fromFile.getAbsolutePath());
+		invalidateCachedObjStatTree(toFile.getAbsolutePath());
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1301,6 +1373,8 @@ IRODSFileSystemAO {
 		Tag response = getIRODSProtocol().irodsFunction(DataObjInp.PI_TAG,
 				dataObjCopyInp.getParsedTags(),
 				DataObjCopyInp.RENAME_FILE_API_NBR);
+		invalidateCachedObjStat(fromFile.getAbsolutePath());
+		invalidateCachedObjStat(toFile.getAbsolutePath());
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1421,6 +1495,7 @@ IRODSFileSystemAO {
 
 		Tag response = getIRODSProtocol().irodsFunction(DataObjInp.PI_TAG,
 				dataObjCopyInp.getParsedTags(), apiNbr);
+		invalidateCachedObjStat(absolutePathToSourceFile);
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -5,6 +5,8 @@ package org.irods.jargon.core.pub;
 
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSColumnarQueryResultSet;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 
@@ -212,4 +214,113 @@ public interface IRODSGenQueryExecutor extends IRODSAccessObject {
 	IRODSQueryResultSet getMoreResults(IRODSQueryResultSet irodsQueryResultSet)
 			throws JargonException, JargonQueryException;
 
+	/**
+	 * Execute an iquest-like query and return the results by column, which
+	 * holds large results in far fewer objects than the row based
+	 * <code>IRODSQueryResultSet</code>. Id, size, time and count columns are
+	 * parsed once into <code>long</code> values.
+	 * <p/>
+	 * As with <code>executeIRODSQuery()</code>, the result set is not closed,
+	 * so it may be paged with <code>getMoreResultsColumnarInZone()</code>, and
+	 * it is up to the caller to call <code>closeResults()</code> when done.
+	 *
+	 * @param irodsQuery
+	 *            {@link org.irods.jargon.core.query.AbstractIRODSGenQuery} that
+	 *            will wrap the given iquest-like query
+	 * @param continueIndex
+	 *            <code>int</code> that indicates whether this is a requery when
+	 *            more resuts than the limit have been generated
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @return {@link IRODSColumnarQueryResultSet} that contains the results of
+	 *         the query
+	 * @throws JargonException
+	 * @throws JargonQueryException
+	 */
+	IRODSColumnarQueryResultSet executeIRODSQueryColumnarInZone(
+			AbstractIRODSGenQuery irodsQuery, int continueIndex, String zoneName)
+					throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute a re-query meant to retrieve more results by column, see
+	 * <code>executeIRODSQueryColumnarInZone()</code>
+	 *
+	 * @param irodsColumnarQueryResultSet
+	 *            {@link IRODSColumnarQueryResultSet} that contains the results
+	 *            of the previous query.
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @return {@link IRODSColumnarQueryResultSet} containing the next batch of
+	 *         query results.
+	 * @throws JargonException
+	 * @throws JargonQueryException
+	 */
+	IRODSColumnarQueryResultSet getMoreResultsColumnarInZone(
+			IRODSColumnarQueryResultSet irodsColumnarQueryResultSet,
+			String zoneName) throws JargonException, JargonQueryException;
+
+	/**
+	 * Close the columnar result set that had been continued
+	 *
+	 * @param resultSet
+	 *            {@link IRODSColumnarQueryResultSet} that contains the results
+	 *            of the previous query.
+	 * @throws JargonException
+	 */
+	void closeResults(IRODSColumnarQueryResultSet resultSet)
+			throws JargonException;
+
+	/**
+	 * Execute an iquest-like query and return an iterator over all of its
+	 * rows. Each page is requested from iRODS when the rows before it have
+	 * been read, so that large results need not be paged by hand or held in
+	 * memory.
+	 * <p/>
+	 * The query is closed once the last row is read. A caller that stops early
+	 * must call <code>close()</code> on the iterator.
+	 *
+	 * @param irodsQuery
+	 *            {@link org.irods.jargon.core.query.AbstractIRODSGenQuery} that
+	 *            will wrap the given iquest-like query
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @return {@link GenQueryResultIterator} over the query results
+	 * @throws JargonException
+	 * @throws JargonQueryException
+	 */
+	GenQueryResultIterator iterateIRODSQueryInZone(
+			AbstractIRODSGenQuery irodsQuery, String zoneName)
+					throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute an iquest-like query and return an iterator over all of its
+	 * rows, as {@link #iterateIRODSQueryInZone(AbstractIRODSGenQuery, String)}
+	 * does, optionally requesting the next page in the background while the
+	 * current one is read.
+	 * <p/>
+	 * The prefetch uses the connection of this executor from another thread,
+	 * so with prefetch the caller must not use the connection, through this or
+	 * any other access object of the account on this thread, until the
+	 * iteration is done or the iterator is closed.
+	 *
+	 * @param irodsQuery
+	 *            {@link org.irods.jargon.core.query.AbstractIRODSGenQuery} that
+	 *            will wrap the given iquest-like query
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            the next page while the current one is read
+	 * @return {@link GenQueryResultIterator} over the query results
+	 * @throws JargonException
+	 * @throws JargonQueryException
+	 */
+	GenQueryResultIterator iterateIRODSQueryInZone(
+			AbstractIRODSGenQuery irodsQuery, String zoneName, boolean prefetch)
+					throws JargonException, JargonQueryException;
+
 }
@@ -5,6 +5,8 @@ import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
 import org.irods.jargon.core.query.GenQueryProcessor;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSColumnarQueryResultSet;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
@@ -286,4 +288,134 @@ IRODSGenQueryExecutor {
 		genQueryProcessor.closeResults(irodsQueryResultSet);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.IRODSGenQueryExecutor#
+	 * executeIRODSQueryColumnarInZone
+	 * (org.irods.jargon.core.query.AbstractIRODSGenQuery, int,
+	 * java.lang.String)
+	 */
+	@Override
+	public IRODSColumnarQueryResultSet executeIRODSQueryColumnarInZone(
+			final AbstractIRODSGenQuery irodsQuery, final int continueIndex,
+			final String zoneName) throws JargonException, JargonQueryException {
+
+		log.info("executeIRODSQueryColumnarInZone()");
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		if (continueIndex < 0) {
+			throw new IllegalArgumentException("continue index must be > 0");
+		}
+
+		log.info("query: {}", irodsQuery);
+
+		GenQueryProcessor genQueryProcessor = new GenQueryProcessor(
+				getIRODSProtocol());
+
+		TranslatedIRODSGenQuery translatedIRODSQuery = genQueryProcessor
+				.translateProvidedQuery(irodsQuery);
+
+		return genQueryProcessor.executeTranslatedIRODSQueryColumnar(
+				translatedIRODSQuery, continueIndex, 0,
+				QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.IRODSGenQueryExecutor#getMoreResultsColumnarInZone
+	 * (org.irods.jargon.core.query.IRODSColumnarQueryResultSet,
+	 * java.lang.String)
+	 */
+	@Override
+	public IRODSColumnarQueryResultSet getMoreResultsColumnarInZone(
+			final IRODSColumnarQueryResultSet irodsColumnarQueryResultSet,
+			final String zoneName) throws JargonException, JargonQueryException {
+
+		log.info("getting more columnar results for query");
+		if (irodsColumnarQueryResultSet == null) {
+			throw new JargonException("null irodsColumnarQueryResultSet");
+		}
+
+		if (!irodsColumnarQueryResultSet.isHasMoreRecords()) {
+			throw new JargonQueryException("no more results");
+		}
+
+		GenQueryProcessor genQueryProcessor = new GenQueryProcessor(
+				getIRODSProtocol());
+
+		return genQueryProcessor.executeTranslatedIRODSQueryColumnar(
+				irodsColumnarQueryResultSet.getTranslatedIRODSQuery(),
+				irodsColumnarQueryResultSet.getContinuationIndex(), 0,
+				QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.IRODSGenQueryExecutor#closeResults(org.irods
+	 * .jargon.core.query.IRODSColumnarQueryResultSet)
+	 */
+	@Override
+	public void closeResults(
+			final IRODSColumnarQueryResultSet irodsColumnarQueryResultSet)
+					throws JargonException {
+
+		log.info("closeResults()");
+		GenQueryProcessor genQueryProcessor = new GenQueryProcessor(
+				getIRODSProtocol());
+		genQueryProcessor.closeResults(irodsColumnarQueryResultSet);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.IRODSGenQueryExecutor#iterateIRODSQueryInZone
+	 * (org.irods.jargon.core.query.AbstractIRODSGenQuery, java.lang.String)
+	 */
+	@Override
+	public GenQueryResultIterator iterateIRODSQueryInZone(
+			final AbstractIRODSGenQuery irodsQuery, final String zoneName)
+					throws JargonException, JargonQueryException {
+		return iterateIRODSQueryInZone(irodsQuery, zoneName, false);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.IRODSGenQueryExecutor#iterateIRODSQueryInZone
+	 * (org.irods.jargon.core.query.AbstractIRODSGenQuery, java.lang.String,
+	 * boolean)
+	 */
+	@Override
+	public GenQueryResultIterator iterateIRODSQueryInZone(
+			final AbstractIRODSGenQuery irodsQuery, final String zoneName,
+			final boolean prefetch) throws JargonException,
+			JargonQueryException {
+
+		log.info("iterateIRODSQueryInZone()");
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		log.info("query: {}", irodsQuery);
+		GenQueryProcessor genQueryProcessor = new GenQueryProcessor(
+				getIRODSProtocol());
+		TranslatedIRODSGenQuery translatedIRODSQuery = genQueryProcessor
+				.translateProvidedQuery(irodsQuery);
+
+		log.info("prefetch:{}", prefetch);
+		return GenQueryResultIterator.instance(genQueryProcessor,
+				translatedIRODSQuery, zoneName, prefetch);
+	}
+
 }
@@ -9,6 +9,7 @@ import org.irods.jargon.core.connection.IRODSServerProperties;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.metrics.JargonMetrics;
 import org.irods.jargon.core.packinstr.OperationComplete;
 import org.irods.jargon.core.packinstr.Tag;
 import org.irods.jargon.core.packinstr.TransferOptions;
@@ -27,6 +28,7 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 
 	private final IRODSSession irodsSession;
 	private final IRODSAccount irodsAccount;
+	private final JargonMetrics jargonMetrics;
 	private final boolean instrumented;
 
 	private static final Logger log = LoggerFactory
@@ -58,8 +60,8 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 
 		this.irodsSession = irodsSession;
 		this.irodsAccount = irodsAccount;
-		instrumented = getIRODSAccessObjectFactory().getJargonProperties()
-				.isInstrument();
+		jargonMetrics = irodsSession.getJargonMetrics();
+		instrumented = jargonMetrics != null;
 
 		log.debug("establishing connection");
 		irodsSession.currentConnection(irodsAccount);
@@ -75,6 +77,17 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		return instrumented;
 	}
 
+	/**
+	 * Get the metrics of the session, for access objects that record their
+	 * own operations, such as transfers
+	 *
+	 * @return {@link JargonMetrics}, or <code>null</code> if the session keeps
+	 *         no metrics
+	 */
+	protected JargonMetrics getJargonMetrics() {
+		return jargonMetrics;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -198,4 +211,32 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		return getIRODSProtocol().irodsFunction(operationComplete);
 	}
 
+	/**
+	 * Drop cached lookups for a path that was created, written, or deleted,
+	 * and for its parent collection, if lookups are cached
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path that changed
+	 */
+	protected void invalidateCachedObjStat(final String irodsAbsolutePath) {
+		ObjStatCache objStatCache = getIRODSSession().getObjStatCache();
+		if (objStatCache != null) {
+			objStatCache.invalidate(irodsAbsolutePath);
+		}
+	}
+
+	/**
+	 * Drop cached lookups for a collection that was deleted or renamed,
+	 * everything under it, and its parent collection, if lookups are cached
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path that changed
+	 */
+	protected void invalidateCachedObjStatTree(final String irodsAbsolutePath) {
+		ObjStatCache objStatCache = getIRODSSession().getObjStatCache();
+		if (objStatCache != null) {
+			objStatCache.invalidateTree(irodsAbsolutePath);
+		}
+	}
+
 }
@@ -0,0 +1,356 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of {@link ObjStat} and
+ * {@link CollectionAndDataObjectListingEntry} lookups, by account and path.
+ * <code>IRODSFile</code> methods such as <code>exists()</code>,
+ * <code>isFile()</code> and <code>length()</code> each stat the path, so a
+ * tree walk or a UI render asks iRODS about the same path several times in a
+ * row. With this cache those repeats are answered locally.
+ * <p/>
+ * Entries expire after a time to live, and past the maximum number of entries
+ * the least recently used are dropped. Deletes, renames, new collections and
+ * puts made through Jargon drop the affected paths, and their parents, for
+ * every account. Changes made by other clients are seen once the entry
+ * expires. Paths that are not found are not cached.
+ * <p/>
+ * Cached objects are shared between callers, and should not be changed.
+ * <p/>
+ * The cache is held in the <code>IRODSSession</code>, and is used when the
+ * <code>objstat.use.cache</code> property is <code>true</code>. This object is
+ * thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ObjStatCache {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ObjStatCache.class);
+
+	private final int maxEntries;
+	private final long timeToLiveNanos;
+
+	/**
+	 * In access order, so the eldest entry is the least recently used
+	 */
+	private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long expirations = 0;
+	private long invalidations = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxEntries
+	 *            <code>int</code> with the most entries to keep
+	 * @param timeToLiveMillis
+	 *            <code>long</code> with the milliseconds an entry is kept
+	 */
+	public ObjStatCache(final int maxEntries, final long timeToLiveMillis) {
+
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be at least 1");
+		}
+
+		if (timeToLiveMillis < 0) {
+			throw new IllegalArgumentException("negative timeToLiveMillis");
+		}
+
+		this.maxEntries = maxEntries;
+		timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+		entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<CacheKey, CacheEntry> eldest) {
+				if (size() > ObjStatCache.this.maxEntries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Get the cached <code>ObjStat</code> for a path
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the path was looked up with
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 * @return {@link ObjStat}, or <code>null</code> if not cached or expired
+	 */
+	public ObjStat retrieveObjStat(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath) {
+		return (ObjStat) retrieve(irodsAccount, irodsAbsolutePath, false);
+	}
+
+	/**
+	 * Cache the <code>ObjStat</code> for a path
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the path was looked up with
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 * @param objStat
+	 *            {@link ObjStat} for the path
+	 */
+	public void cacheObjStat(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath, final ObjStat objStat) {
+
+		if (objStat == null) {
+			throw new IllegalArgumentException("null objStat");
+		}
+
+		cache(irodsAccount, irodsAbsolutePath, false, objStat);
+	}
+
+	/**
+	 * Get the cached listing entry for a path
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the path was looked up with
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 * @return {@link CollectionAndDataObjectListingEntry}, or
+	 *         <code>null</code> if not cached or expired
+	 */
+	public CollectionAndDataObjectListingEntry retrieveListingEntry(
+			final IRODSAccount irodsAccount, final String irodsAbsolutePath) {
+		return (CollectionAndDataObjectListingEntry) retrieve(irodsAccount,
+				irodsAbsolutePath, true);
+	}
+
+	/**
+	 * Cache the listing entry for a path
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the path was looked up with
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 * @param listingEntry
+	 *            {@link CollectionAndDataObjectListingEntry} for the path
+	 */
+	public void cacheListingEntry(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath,
+			final CollectionAndDataObjectListingEntry listingEntry) {
+
+		if (listingEntry == null) {
+			throw new IllegalArgumentException("null listingEntry");
+		}
+
+		cache(irodsAccount, irodsAbsolutePath, true, listingEntry);
+	}
+
+	/**
+	 * Drop the entries for a path and its parent collection, for every
+	 * account, after the data object or collection at the path was created,
+	 * written, or deleted
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 */
+	public void invalidate(final String irodsAbsolutePath) {
+		invalidate(irodsAbsolutePath, false);
+	}
+
+	/**
+	 * Drop the entries for a path, its parent collection, and everything
+	 * under the path, for every account, after a collection was deleted or
+	 * renamed
+	 *
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path
+	 */
+	public void invalidateTree(final String irodsAbsolutePath) {
+		invalidate(irodsAbsolutePath, true);
+	}
+
+	/**
+	 * Drop every entry
+	 */
+	public synchronized void clear() {
+		log.info("clearing ObjStat cache");
+		invalidations += entries.size();
+		entries.clear();
+	}
+
+	/**
+	 * Get the hit and miss counts of the cache, to size it
+	 *
+	 * @return {@link ObjStatCacheStatistics}
+	 */
+	public synchronized ObjStatCacheStatistics getStatistics() {
+		return new ObjStatCacheStatistics(maxEntries, entries.size(), hits,
+				misses, evictions, expirations, invalidations);
+	}
+
+	/**
+	 * @return <code>int</code> with the most entries kept
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return <code>long</code> with the milliseconds an entry is kept
+	 */
+	public long getTimeToLiveMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(timeToLiveNanos);
+	}
+
+	private synchronized Object retrieve(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath, final boolean listingEntry) {
+
+		CacheKey key = new CacheKey(irodsAccount, irodsAbsolutePath,
+				listingEntry);
+		CacheEntry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		if (System.nanoTime() - entry.cachedAt > timeToLiveNanos) {
+			entries.remove(key);
+			expirations++;
+			misses++;
+			return null;
+		}
+
+		hits++;
+		return entry.value;
+	}
+
+	private synchronized void cache(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath, final boolean listingEntry,
+			final Object value) {
+		entries.put(
+				new CacheKey(irodsAccount, irodsAbsolutePath, listingEntry),
+				new CacheEntry(value, System.nanoTime()));
+	}
+
+	private synchronized void invalidate(final String irodsAbsolutePath,
+			final boolean tree) {
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (entries.isEmpty()) {
+			return;
+		}
+
+		String path = normalize(irodsAbsolutePath);
+		String parent = parentOf(path);
+		String treePrefix = path.equals("/") ? "/" : path + "/";
+
+		/*
+		 * Writes are rare next to lookups and each costs a round trip to iRODS,
+		 * so a scan is cheaper than an index by path for every account
+		 */
+		Iterator<CacheKey> iterator = entries.keySet().iterator();
+		while (iterator.hasNext()) {
+			String entryPath = iterator.next().path;
+			if (entryPath.equals(path) || entryPath.equals(parent)
+					|| tree && entryPath.startsWith(treePrefix)) {
+				iterator.remove();
+				invalidations++;
+			}
+		}
+	}
+
+	private static String normalize(final String irodsAbsolutePath) {
+		String path = irodsAbsolutePath.trim();
+		while (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+		return path;
+	}
+
+	private static String parentOf(final String path) {
+		int lastSlash = path.lastIndexOf('/');
+		if (lastSlash <= 0) {
+			return "/";
+		}
+		return path.substring(0, lastSlash);
+	}
+
+	/**
+	 * Account, path and kind of entry. Accounts are kept apart because what
+	 * is visible depends on the user.
+	 */
+	private static final class CacheKey {
+		private final String account;
+		private final String path;
+		private final boolean listingEntry;
+
+		CacheKey(final IRODSAccount irodsAccount,
+				final String irodsAbsolutePath, final boolean listingEntry) {
+
+			if (irodsAccount == null) {
+				throw new IllegalArgumentException("null irodsAccount");
+			}
+
+			if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+				throw new IllegalArgumentException(
+						"null or empty irodsAbsolutePath");
+			}
+
+			account = irodsAccount.toString() + "#" + irodsAccount.getZone();
+			path = normalize(irodsAbsolutePath);
+			this.listingEntry = listingEntry;
+		}
+
+		@Override
+		public int hashCode() {
+			return (account.hashCode() * 31 + path.hashCode()) * 31
+					+ (listingEntry ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return listingEntry == other.listingEntry
+					&& path.equals(other.path) && account.equals(other.account);
+		}
+	}
+
+	private static final class CacheEntry {
+		private final Object value;
+		private final long cachedAt;
+
+		CacheEntry(final Object value, final long cachedAt) {
+			this.value = value;
+			this.cachedAt = cachedAt;
+		}
+	}
+
+}
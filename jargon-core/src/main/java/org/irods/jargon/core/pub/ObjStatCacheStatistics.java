@@ -0,0 +1,120 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+/**
+ * Immutable snapshot of the hit and miss counts of an {@link ObjStatCache}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ObjStatCacheStatistics {
+
+	private final int maxEntries;
+	private final int entries;
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long expirations;
+	private final long invalidations;
+
+	ObjStatCacheStatistics(final int maxEntries, final int entries,
+			final long hits, final long misses, final long evictions,
+			final long expirations, final long invalidations) {
+		this.maxEntries = maxEntries;
+		this.entries = entries;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.expirations = expirations;
+		this.invalidations = invalidations;
+	}
+
+	/**
+	 * @return <code>int</code> with the most entries the cache keeps
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return <code>int</code> with the entries in the cache now
+	 */
+	public int getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return <code>long</code> with the lookups answered from the cache
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return <code>long</code> with the lookups that went to iRODS, including
+	 *         those for expired entries
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return <code>long</code> with the least recently used entries dropped
+	 *         to stay within the most entries
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return <code>long</code> with the entries dropped because they were
+	 *         past their time to live when looked up
+	 */
+	public long getExpirations() {
+		return expirations;
+	}
+
+	/**
+	 * @return <code>long</code> with the entries dropped because their path
+	 *         was changed through Jargon, or the cache was cleared
+	 */
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * @return <code>float</code> with the share of lookups answered from the
+	 *         cache, from 0 to 1
+	 */
+	public float getHitRatio() {
+		long lookups = hits + misses;
+		if (lookups == 0) {
+			return 0;
+		}
+		return (float) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ObjStatCacheStatistics [maxEntries=");
+		builder.append(maxEntries);
+		builder.append(", entries=");
+		builder.append(entries);
+		builder.append(", hits=");
+		builder.append(hits);
+		builder.append(", misses=");
+		builder.append(misses);
+		builder.append(", evictions=");
+		builder.append(evictions);
+		builder.append(", expirations=");
+		builder.append(expirations);
+		builder.append(", invalidations=");
+		builder.append(invalidations);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -134,4 +134,65 @@ public interface Stream2StreamAO extends IRODSAccessObject {
 			InputStream inputStream, OutputStream outputStream)
 					throws JargonException;
 
+	/**
+	 * Copy an input stream to an output stream through a direct
+	 * <code>ByteBuffer</code> borrowed from the session pool, sized by the
+	 * jargon.io.input.to.output.copy.byte.buffer.size property. Unlike
+	 * {@link #streamToStreamCopyUsingStandardIO(InputStream, OutputStream)},
+	 * no buffers are allocated per copy, which keeps the garbage collector
+	 * quiet when streaming large objects.
+	 * <p/>
+	 * This method will close the streams, so no further processing is
+	 * necessary.
+	 *
+	 * @param inputStream
+	 *            {@link InputStream} to read to the end
+	 * @param outputStream
+	 *            {@link OutputStream} to write to
+	 * @return {@link TransferStatistics} that give information about the
+	 *         transfer size and rate
+	 * @throws JargonException
+	 */
+	TransferStatistics streamToStreamCopyUsingChannels(
+			InputStream inputStream, OutputStream outputStream)
+					throws JargonException;
+
+	/**
+	 * Copy an input stream, such as an iRODS file input stream, into a local
+	 * file using <code>FileChannel.transferFrom</code>, so the data does not
+	 * pass through a Java heap array. The local file is created or truncated.
+	 * <p/>
+	 * This method will close the stream, so no further processing is
+	 * necessary.
+	 *
+	 * @param inputStream
+	 *            {@link InputStream} to read to the end
+	 * @param targetFile
+	 *            <code>File</code> that is a local file to write
+	 * @return {@link TransferStatistics} that give information about the
+	 *         transfer size and rate
+	 * @throws JargonException
+	 */
+	TransferStatistics transferStreamToLocalFileUsingChannels(
+			InputStream inputStream, File targetFile) throws JargonException;
+
+	/**
+	 * Copy a local file to an output stream, such as an iRODS file output
+	 * stream or a servlet response, using <code>FileChannel.transferTo</code>
+	 * , so the data does not pass through a Java heap array.
+	 * <p/>
+	 * This method will close the stream, so no further processing is
+	 * necessary.
+	 *
+	 * @param sourceFile
+	 *            <code>File</code> that is a local file to read
+	 * @param outputStream
+	 *            {@link OutputStream} to write to
+	 * @return {@link TransferStatistics} that give information about the
+	 *         transfer size and rate
+	 * @throws JargonException
+	 */
+	TransferStatistics transferLocalFileToStreamUsingChannels(
+			File sourceFile, OutputStream outputStream) throws JargonException;
+
 }
\ No newline at end of file
@@ -10,16 +10,21 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.exception.NoResourceDefinedException;
 import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.pub.io.IRODSFileOutputStream;
+import org.irods.jargon.core.utils.ByteBufferPool;
 import org.irods.jargon.core.utils.ChannelTools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,9 +41,6 @@ import org.slf4j.LoggerFactory;
 public class Stream2StreamAOImpl extends IRODSGenericAO implements
 Stream2StreamAO {
 
-	// private final int bufferSize = this.getJargonProperties().get
-	private static final int bufferSize = 32 * 1024; // FIXME: temp code
-
 	public static final Logger log = LoggerFactory
 			.getLogger(Stream2StreamAOImpl.class);
 
@@ -81,8 +83,7 @@ Stream2StreamAO {
 		final WritableByteChannel outputChannel = Channels.newChannel(ifOs);
 		// copy the channels
 		try {
-			ChannelTools.fastChannelCopy(inputChannel, outputChannel,
-					bufferSize);
+			copyChannels(inputChannel, outputChannel);
 		} catch (IOException e) {
 			log.error("IO Exception copying buffers", e);
 			throw new JargonException("io exception copying buffers", e);
@@ -370,8 +371,7 @@ Stream2StreamAO {
 				.newChannel(outputStream);
 		// copy the channels
 		try {
-			ChannelTools.fastChannelCopy(inputChannel, outputChannel,
-					bufferSize);
+			copyChannels(inputChannel, outputChannel);
 		} catch (IOException e) {
 			log.error("IO Exception copying buffers", e);
 			throw new JargonException("io exception copying buffers", e);
@@ -386,6 +386,217 @@ Stream2StreamAO {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.Stream2StreamAO#streamToStreamCopyUsingChannels
+	 * (java.io.InputStream, java.io.OutputStream)
+	 */
+	@Override
+	public TransferStatistics streamToStreamCopyUsingChannels(
+			final InputStream inputStream, final OutputStream outputStream)
+					throws JargonException {
+
+		log.info("streamToStreamCopyUsingChannels()");
+
+		if (inputStream == null) {
+			throw new IllegalArgumentException("null inputStream");
+		}
+
+		if (outputStream == null) {
+			throw new IllegalArgumentException("null outputStream");
+		}
+
+		long timeStart = System.currentTimeMillis();
+		final ReadableByteChannel inputChannel = Channels
+				.newChannel(inputStream);
+		final WritableByteChannel outputChannel = Channels
+				.newChannel(outputStream);
+		long count;
+		try {
+			count = copyChannels(inputChannel, outputChannel);
+			outputStream.flush();
+		} catch (IOException e) {
+			log.error("IO Exception copying buffers", e);
+			throw new JargonException("io exception copying buffers", e);
+		} finally {
+			try {
+				inputChannel.close();
+				outputChannel.close();
+			} catch (Exception e) {
+
+			}
+		}
+
+		return buildTransferStatistics(timeStart, count);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.Stream2StreamAO#
+	 * transferStreamToLocalFileUsingChannels(java.io.InputStream, java.io.File)
+	 */
+	@Override
+	public TransferStatistics transferStreamToLocalFileUsingChannels(
+			final InputStream inputStream, final File targetFile)
+					throws JargonException {
+
+		log.info("transferStreamToLocalFileUsingChannels()");
+
+		if (inputStream == null) {
+			throw new IllegalArgumentException("null inputStream");
+		}
+
+		if (targetFile == null || targetFile instanceof IRODSFile) {
+			throw new IllegalArgumentException(
+					"null targetFile, or not a local file");
+		}
+
+		log.info("targetFile:{}", targetFile);
+
+		long timeStart = System.currentTimeMillis();
+		final ReadableByteChannel inputChannel = Channels
+				.newChannel(inputStream);
+		FileOutputStream fileOutputStream = null;
+		long count;
+		try {
+			fileOutputStream = new FileOutputStream(targetFile);
+			count = ChannelTools.transferToFileChannel(inputChannel,
+					fileOutputStream.getChannel(), getCopyBufferSize());
+		} catch (FileNotFoundException e) {
+			log.error("File not found exception copying to local file", e);
+			throw new JargonException(
+					"file not found exception copying to local file", e);
+		} catch (IOException e) {
+			log.error("io exception copying to local file", e);
+			throw new JargonException("io exception copying to local file",
+					e);
+		} finally {
+			try {
+				inputChannel.close();
+			} catch (Exception e) {
+			}
+
+			try {
+				fileOutputStream.close();
+			} catch (Exception e) {
+			}
+		}
+
+		return buildTransferStatistics(timeStart, count);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.Stream2StreamAO#
+	 * transferLocalFileToStreamUsingChannels(java.io.File,
+	 * java.io.OutputStream)
+	 */
+	@Override
+	public TransferStatistics transferLocalFileToStreamUsingChannels(
+			final File sourceFile, final OutputStream outputStream)
+					throws JargonException {
+
+		log.info("transferLocalFileToStreamUsingChannels()");
+
+		if (sourceFile == null || sourceFile instanceof IRODSFile) {
+			throw new IllegalArgumentException(
+					"null sourceFile, or not a local file");
+		}
+
+		if (outputStream == null) {
+			throw new IllegalArgumentException("null outputStream");
+		}
+
+		log.info("sourceFile:{}", sourceFile);
+
+		long timeStart = System.currentTimeMillis();
+		final WritableByteChannel outputChannel = Channels
+				.newChannel(outputStream);
+		RandomAccessFile randomAccessFile = null;
+		long count;
+		try {
+			randomAccessFile = new RandomAccessFile(sourceFile, "r");
+			FileChannel sourceChannel = randomAccessFile.getChannel();
+			count = ChannelTools.transferFromFileChannel(sourceChannel,
+					outputChannel, getCopyBufferSize());
+			outputStream.flush();
+		} catch (FileNotFoundException e) {
+			log.error("File not found exception copying from local file", e);
+			throw new JargonException(
+					"file not found exception copying from local file", e);
+		} catch (IOException e) {
+			log.error("io exception copying from local file", e);
+			throw new JargonException(
+					"io exception copying from local file", e);
+		} finally {
+			try {
+				randomAccessFile.close();
+			} catch (Exception e) {
+			}
+
+			try {
+				outputChannel.close();
+			} catch (Exception e) {
+			}
+		}
+
+		return buildTransferStatistics(timeStart, count);
+	}
+
+	/**
+	 * Copy between channels through a direct buffer borrowed from the session
+	 * pool
+	 */
+	private long copyChannels(final ReadableByteChannel inputChannel,
+			final WritableByteChannel outputChannel) throws IOException {
+		ByteBufferPool byteBufferPool = getIRODSSession().getByteBufferPool();
+		ByteBuffer buffer = byteBufferPool.acquire(getCopyBufferSize());
+		try {
+			return ChannelTools.fastChannelCopy(inputChannel, outputChannel,
+					buffer);
+		} finally {
+			byteBufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Size of the buffers used in copies, from the jargon properties
+	 */
+	private int getCopyBufferSize() {
+		int copyBufferSize = getJargonProperties()
+				.getInputToOutputCopyBufferByteSize();
+		if (copyBufferSize <= 0) {
+			throw new JargonRuntimeException(
+					"invalid stream to stream copy buffer size of "
+							+ copyBufferSize);
+		}
+		return copyBufferSize;
+	}
+
+	private TransferStatistics buildTransferStatistics(final long timeStart,
+			final long count) {
+		long timeEnd = System.currentTimeMillis();
+		TransferStatistics transferStatistics = new TransferStatistics();
+		long seconds = (timeEnd - timeStart) / 1000;
+
+		if (seconds == 0) {
+			seconds = 1;
+		}
+
+		transferStatistics.setSeconds((int) seconds);
+		transferStatistics.setTotalBytes(count);
+		transferStatistics.setKbPerSecond((int) (transferStatistics
+				.getTotalBytes() / seconds));
+
+		log.info("transfer stats:{}", transferStatistics);
+
+		return transferStatistics;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -417,8 +628,7 @@ Stream2StreamAO {
 		final WritableByteChannel outputChannel = Channels.newChannel(bos);
 		// copy the channels
 		try {
-			ChannelTools.fastChannelCopy(inputChannel, outputChannel,
-					bufferSize);
+			copyChannels(inputChannel, outputChannel);
 		} catch (IOException e) {
 			log.error("IO Exception copying buffers", e);
 			throw new JargonException("io exception copying buffers", e);
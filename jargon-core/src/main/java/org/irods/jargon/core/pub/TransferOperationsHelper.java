@@ -95,6 +95,13 @@ final class TransferOperationsHelper {
 				irodsSourceFile.getAbsolutePath());
 		log.info("    into iRODS file: {}", targetLocalFile.getAbsolutePath());
 
+		ConcurrentRecursiveTransfer concurrentRecursiveTransfer = concurrentRecursiveTransfer(transferControlBlock);
+		if (concurrentRecursiveTransfer != null) {
+			concurrentRecursiveTransfer.get(irodsSourceFile, targetLocalFile,
+					transferStatusCallbackListener, transferControlBlock);
+			return;
+		}
+
 		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
 
 			if (Thread.interrupted()) {
@@ -264,21 +271,10 @@ final class TransferOperationsHelper {
 		if (!transferControlBlock.filter(irodsSourceFile.getAbsolutePath())) {
 			log.info("file is filtered and discarded: {}",
 					irodsSourceFile.getAbsolutePath());
-
-			transferControlBlock.incrementFilesSkippedSoFar();
-
-			if (transferStatusCallbackListener != null) {
-				TransferStatus status = TransferStatus.instance(
-						TransferType.GET, irodsSourceFile.getAbsolutePath(),
-						targetLocalFileAsFile.getAbsolutePath(), "", 0, 0,
-						transferControlBlock.getTotalFilesTransferredSoFar(),
-						transferControlBlock.getTotalFilesSkippedSoFar(),
-						totalFiles, TransferState.RESTARTING, dataObjectAO
-						.getIRODSAccount().getHost(), dataObjectAO
-						.getIRODSAccount().getZone());
-
-				transferStatusCallbackListener.statusCallback(status);
-			}
+			notifyFilteredFile(TransferType.GET,
+					irodsSourceFile.getAbsolutePath(),
+					targetLocalFileAsFile.getAbsolutePath(), "",
+					transferStatusCallbackListener, transferControlBlock);
 			return;
 		}
 
@@ -457,6 +453,13 @@ final class TransferOperationsHelper {
 				targetIrodsCollection.getAbsolutePath());
 		log.info("     to resource:{}", targetIrodsCollection.getResource());
 
+		ConcurrentRecursiveTransfer concurrentRecursiveTransfer = concurrentRecursiveTransfer(transferControlBlock);
+		if (concurrentRecursiveTransfer != null) {
+			concurrentRecursiveTransfer.put(sourceFile, targetIrodsCollection,
+					transferStatusCallbackListener, transferControlBlock);
+			return;
+		}
+
 		try {
 			File[] files = sourceFile.listFiles();
 			if (files != null) {
@@ -712,6 +715,13 @@ final class TransferOperationsHelper {
 				sourceFile.getAbsolutePath());
 		log.info("    into resource: {}", targetResource);
 
+		ConcurrentRecursiveTransfer concurrentRecursiveTransfer = concurrentRecursiveTransfer(transferControlBlock);
+		if (concurrentRecursiveTransfer != null) {
+			concurrentRecursiveTransfer.replicate(sourceFile, targetResource,
+					transferStatusCallbackListener, transferControlBlock);
+			return;
+		}
+
 		for (File fileInSourceCollection : sourceFile.listFiles()) {
 
 			if (Thread.interrupted()) {
@@ -902,18 +912,10 @@ final class TransferOperationsHelper {
 
 			if (!transferControlBlock.filter(sourceFile.getAbsolutePath())) {
 				log.debug("file filtered and not transferred");
-				transferControlBlock.incrementFilesSkippedSoFar();
-				TransferStatus status = TransferStatus.instance(
-						TransferType.PUT, sourceFile.getAbsolutePath(),
-						targetFileAsFile.getAbsolutePath(), "", 0, 0,
-						transferControlBlock.getTotalFilesTransferredSoFar(),
-						transferControlBlock.getTotalFilesSkippedSoFar(),
-						transferControlBlock.getTotalFilesToTransfer(),
-						TransferState.RESTARTING, dataObjectAO
-						.getIRODSAccount().getHost(), dataObjectAO
-						.getIRODSAccount().getZone());
-
-				transferStatusCallbackListener.statusCallback(status);
+				notifyFilteredFile(TransferType.PUT,
+						sourceFile.getAbsolutePath(),
+						targetFileAsFile.getAbsolutePath(), "",
+						transferStatusCallbackListener, transferControlBlock);
 				return;
 			}
 
@@ -1053,17 +1055,9 @@ final class TransferOperationsHelper {
 		if (!transferControlBlock.filter(irodsFileAbsolutePath)) {
 			log.info("file is filtered and discarded: {}",
 					irodsFileAbsolutePath);
-			transferControlBlock.incrementFilesSkippedSoFar();
-			TransferStatus status = TransferStatus.instance(
-					TransferType.REPLICATE, irodsFileAbsolutePath, "",
-					targetResource, 0, 0, transferControlBlock
-					.getTotalFilesTransferredSoFar(),
-					transferControlBlock.getTotalFilesSkippedSoFar(),
-					transferControlBlock.getTotalFilesToTransfer(),
-					TransferState.RESTARTING, dataObjectAO.getIRODSAccount()
-					.getHost(), dataObjectAO.getIRODSAccount()
-					.getZone());
-			transferStatusCallbackListener.statusCallback(status);
+			notifyFilteredFile(TransferType.REPLICATE, irodsFileAbsolutePath,
+					"", targetResource, transferStatusCallbackListener,
+					transferControlBlock);
 			return;
 		}
 
@@ -1117,6 +1111,75 @@ final class TransferOperationsHelper {
 		}
 	}
 
+	/**
+	 * Get the concurrent engine for a recursive transfer, if the transfer
+	 * options ask for more than one thread
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer, which may be
+	 *            <code>null</code>
+	 * @return {@link ConcurrentRecursiveTransfer}, or <code>null</code> if the
+	 *         transfer should be done serially
+	 */
+	private ConcurrentRecursiveTransfer concurrentRecursiveTransfer(
+			final TransferControlBlock transferControlBlock) {
+		if (transferControlBlock == null
+				|| transferControlBlock.getTransferOptions() == null) {
+			return null;
+		}
+
+		int threads = transferControlBlock.getTransferOptions()
+				.getRecursiveTransferThreads();
+		if (threads <= 1) {
+			return null;
+		}
+
+		return new ConcurrentRecursiveTransfer(this, collectionAO, threads);
+	}
+
+	/**
+	 * Count a file that the transfer control block filtered out, as when a
+	 * restart skips the files already moved, and give the restarting callback
+	 *
+	 * @param transferType
+	 *            {@link TransferType} of the operation
+	 * @param sourcePath
+	 *            <code>String</code> with the path of the skipped file
+	 * @param targetPath
+	 *            <code>String</code> with the path it would have gone to, or
+	 *            blank
+	 * @param targetResource
+	 *            <code>String</code> with the target resource, or blank
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, which may be
+	 *            <code>null</code>
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer
+	 * @throws JargonException
+	 */
+	void notifyFilteredFile(
+			final TransferType transferType,
+			final String sourcePath,
+			final String targetPath,
+			final String targetResource,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		transferControlBlock.incrementFilesSkippedSoFar();
+
+		if (transferStatusCallbackListener != null) {
+			TransferStatus status = TransferStatus.instance(transferType,
+					sourcePath, targetPath, targetResource, 0, 0,
+					transferControlBlock.getTotalFilesTransferredSoFar(),
+					transferControlBlock.getTotalFilesSkippedSoFar(),
+					transferControlBlock.getTotalFilesToTransfer(),
+					TransferState.RESTARTING, dataObjectAO.getIRODSAccount()
+					.getHost(), dataObjectAO.getIRODSAccount().getZone());
+			transferStatusCallbackListener.statusCallback(status);
+		}
+	}
+
 	private void handleExceptionInReplicate(
 			final String irodsFileAbsolutePath,
 			final String targetResource,
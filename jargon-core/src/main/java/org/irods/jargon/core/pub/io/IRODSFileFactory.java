@@ -196,6 +196,35 @@ public interface IRODSFileFactory {
 	IRODSFileInputStream instanceIRODSFileInputStreamWithRerouting(
 			String irodsAbsolutePath) throws JargonException;
 
+	/**
+	 * Creates an input stream for sequential reads of the given iRODS file,
+	 * that fetches blocks of the get buffer size ahead of the reader on a
+	 * second connection. The number of blocks is set by the
+	 * <code>jargon.io.read.ahead.blocks</code> property.
+	 *
+	 * @param name
+	 *            <code>String</code> with the absolute path to the file that
+	 *            will be read
+	 * @return {@link ReadAheadIrodsInputStream}
+	 * @throws JargonException
+	 */
+	ReadAheadIrodsInputStream instanceReadAheadIRODSFileInputStream(String name)
+			throws JargonException;
+
+	/**
+	 * Creates an input stream for sequential reads of the given iRODS file,
+	 * that fetches blocks of the get buffer size ahead of the reader on a
+	 * second connection. The number of blocks is set by the
+	 * <code>jargon.io.read.ahead.blocks</code> property.
+	 *
+	 * @param irodsFile
+	 *            {@link IRODSFile} that will be read
+	 * @return {@link ReadAheadIrodsInputStream}
+	 * @throws JargonException
+	 */
+	ReadAheadIrodsInputStream instanceReadAheadIRODSFileInputStream(
+			IRODSFile irodsFile) throws JargonException;
+
 	/**
 	 * Create an IRODSRandomAccessFile given the <code>IRODSFileImpl</code>.
 	 * Note that this method will check if the file exists, and the file will be
@@ -10,6 +10,7 @@ import java.net.URI;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.NoResourceDefinedException;
 import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
@@ -22,8 +23,6 @@ import org.irods.jargon.core.utils.IRODSUriUtils;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-//import org.perf4j.StopWatch;
-//import org.perf4j.slf4j.Slf4JStopWatch;
 
 /**
  * Factory to create IRODS File objects, will handle initialization of iRODS
@@ -399,10 +398,6 @@ IRODSFileFactory {
 		} catch (FileNotFoundException e) {
 			log.error("FileNotFound creating output stream", e);
 			throw new JargonException(e);
-		} finally {
-			/*
-			 * if (this.isInstrumented()) { stopWatch.stop(); }
-			 */
 		}
 	}
 
@@ -589,6 +584,46 @@ IRODSFileFactory {
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.io.IRODSFileFactory#
+	 * instanceReadAheadIRODSFileInputStream(java.lang.String)
+	 */
+	@Override
+	public ReadAheadIrodsInputStream instanceReadAheadIRODSFileInputStream(
+			final String name) throws JargonException {
+
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("null or empty name");
+		}
+
+		JargonProperties jargonProperties = getIRODSSession()
+				.getJargonProperties();
+		return new ReadAheadIrodsInputStream(getIRODSSession(),
+				getIRODSAccount(), name, jargonProperties.getGetBufferSize(),
+				jargonProperties.getReadAheadBlocks());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.io.IRODSFileFactory#
+	 * instanceReadAheadIRODSFileInputStream
+	 * (org.irods.jargon.core.pub.io.IRODSFile)
+	 */
+	@Override
+	public ReadAheadIrodsInputStream instanceReadAheadIRODSFileInputStream(
+			final IRODSFile irodsFile) throws JargonException {
+
+		if (irodsFile == null) {
+			throw new IllegalArgumentException("null irodsFile");
+		}
+
+		return instanceReadAheadIRODSFileInputStream(irodsFile
+				.getAbsolutePath());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -668,7 +703,7 @@ IRODSFileFactory {
 
 		// open the file if it is not opened
 		irodsFile.open();
-		return new IRODSRandomAccessFile(irodsFile, fileIOOperations);
+		return newRandomAccessFile(irodsFile, fileIOOperations);
 
 	}
 
@@ -699,7 +734,7 @@ IRODSFileFactory {
 
 		// open the file if it is not opened
 		irodsFile.open(openFlags);
-		return new IRODSRandomAccessFile(irodsFile, fileIOOperations);
+		return newRandomAccessFile(irodsFile, fileIOOperations);
 
 	}
 
@@ -726,7 +761,21 @@ IRODSFileFactory {
 
 		// open the file if it is not opened
 		irodsFile.open();
-		return new IRODSRandomAccessFile(irodsFile, fileIOOperations);
+		return newRandomAccessFile(irodsFile, fileIOOperations);
+	}
+
+	/**
+	 * Wrap an open file, with the page cache configured in the jargon
+	 * properties
+	 */
+	private IRODSRandomAccessFile newRandomAccessFile(
+			final IRODSFile irodsFile, final FileIOOperations fileIOOperations)
+			throws JargonException {
+		JargonProperties jargonProperties = getIRODSSession()
+				.getJargonProperties();
+		return new IRODSRandomAccessFile(irodsFile, fileIOOperations,
+				jargonProperties.getRandomAccessFilePageSize(),
+				jargonProperties.getRandomAccessFilePageCount());
 	}
 
 }
@@ -25,6 +25,7 @@ import org.irods.jargon.core.exception.NoResourceDefinedException;
 import org.irods.jargon.core.packinstr.DataObjInp;
 import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
 import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.pub.ObjStatCache;
 import org.irods.jargon.core.pub.domain.ObjStat;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
@@ -1356,6 +1357,15 @@ public class IRODSFileImpl extends File implements IRODSFile {
 
 		}
 
+		if (openFlags != OpenFlags.READ) {
+			// size and modify time may have changed
+			ObjStatCache objStatCache = irodsFileSystemAO.getIRODSSession()
+					.getObjStatCache();
+			if (objStatCache != null) {
+				objStatCache.invalidate(getAbsolutePath());
+			}
+		}
+
 		setFileDescriptor(-1);
 
 	}
@@ -30,6 +30,7 @@ public class IRODSFileInputStream extends InputStream {
 	private transient final FileIOOperations fileIOOperations;
 	private transient int fd = -1;
 	private transient long filePointer = 0;
+	private transient final byte[] singleByte = new byte[1];
 
 	/**
 	 * Creates a <code>FileInputStream</code> by opening a connection to an
@@ -197,15 +198,13 @@ public class IRODSFileInputStream extends InputStream {
 	@Override
 	public int read() throws IOException {
 		try {
-			byte buffer[] = new byte[1];
-
-			int temp = fileIOOperations.fileRead(fd, buffer, 0, 1);
+			int temp = fileIOOperations.fileRead(fd, singleByte, 0, 1);
 
 			if (temp < 0) {
 				return -1;
 			}
 			filePointer += temp; // 0 or 1
-			return (buffer[0] & 0xFF);
+			return (singleByte[0] & 0xFF);
 
 		} catch (JargonException e) {
 			log.error(
@@ -51,6 +51,14 @@ import org.slf4j.LoggerFactory;
  * java.io.RandomAccessFile. However, it <I>is not</I> a subclass, due to the
  * unfortunate use of final methods in java.io.RandomAccessFile. </DIV>
  * <P>
+ * An optional page cache, sized by the
+ * <code>random.access.file.page.size</code> and
+ * <code>random.access.file.page.count</code> jargon properties, serves small
+ * reads and writes from whole pages, so that parsing a header field by field
+ * costs one round trip per page rather than one per field. With the cache on,
+ * writes may be held until the next <code>seek</code>, <code>close</code> or
+ * page eviction. This class is not thread safe.
+ * <P>
  *
  * @author Mike Conway - DICE (www.irods.org) adopted from original Jargon
  *         implementation by Lucas Gilbert
@@ -63,6 +71,12 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	private final IRODSFile irodsFile;
 	private long filePointer = 0;
 	private BinaryDataFormat fileFormat = new BinaryDataFormat();
+	private final RandomAccessFilePageCache pageCache;
+
+	/**
+	 * Scratch buffer for single value reads and writes
+	 */
+	private final byte[] valueBytes = new byte[Host.MAX_TYPE_SIZE];
 
 	/**
 	 * Create an instance of the IRODS implementation of a random access file
@@ -78,6 +92,29 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	protected IRODSRandomAccessFile(final IRODSFile irodsFile,
 			final FileIOOperations fileIOOperations) throws JargonException {
+		this(irodsFile, fileIOOperations, 0, 0);
+	}
+
+	/**
+	 * Create an instance of the IRODS implementation of a random access file,
+	 * with a page cache
+	 *
+	 * @param irodsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFileImpl} that
+	 *            describes the file.
+	 * @param fileIOOperations
+	 *            <code>FileIOOperations</code> that will encapsulate the actual
+	 *            methods in IRODS
+	 * @param pageSize
+	 *            <code>int</code> with the size in bytes of a cached page
+	 * @param pageCount
+	 *            <code>int</code> with the number of pages to cache, 0 to read
+	 *            and write directly
+	 * @throws JargonException
+	 */
+	protected IRODSRandomAccessFile(final IRODSFile irodsFile,
+			final FileIOOperations fileIOOperations, final int pageSize,
+			final int pageCount) throws JargonException {
 
 		log.info("constructor IRODSRandomAccessFile");
 
@@ -102,6 +139,15 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		this.irodsFile = irodsFile;
 		this.fileIOOperations = fileIOOperations;
 
+		if (pageCount > 0 && pageSize > 0) {
+			log.info("using page cache of {} pages of {} bytes", pageCount,
+					pageSize);
+			pageCache = new RandomAccessFilePageCache(irodsFile,
+					fileIOOperations, pageSize, pageCount, filePointer);
+		} else {
+			pageCache = null;
+		}
+
 	}
 
 	/**
@@ -204,9 +250,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public double readDouble() throws EOFException, IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getDoubleSize());
-		return fileFormat.doubleValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getDoubleSize());
+		return fileFormat.doubleValue(valueBytes);
 	}
 
 	/**
@@ -229,9 +274,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public float readFloat() throws EOFException, IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getFloatSize());
-		return fileFormat.floatValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getFloatSize());
+		return fileFormat.floatValue(valueBytes);
 	}
 
 	/**
@@ -306,9 +350,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public int readInt() throws EOFException, IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getIntSize());
-		return fileFormat.intValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getIntSize());
+		return fileFormat.intValue(valueBytes);
 	}
 
 	/**
@@ -338,18 +381,24 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public String readLine() throws IOException {
-		char ch = (char) read();
-		StringBuffer line = new StringBuffer();
+		int ch = read();
+		if (ch == -1) {
+			return null;
+		}
 
-		while ((ch != '\n') && (ch != '\r') && (ch != (char) -1)) {
-			line.append(ch);
-			ch = (char) read();
+		StringBuilder line = new StringBuilder();
+		while ((ch != '\n') && (ch != '\r') && (ch != -1)) {
+			line.append((char) ch);
+			ch = read();
 		}
 
-		if ((ch == '\r') && ((read()) != '\n')) {
-			seek(getFilePointer(), null);
-		} else if ((line.length() == 0)) {
-			return null;
+		// a lone carriage return ends the line, give back the byte after it
+		if (ch == '\r') {
+			long afterReturn = getFilePointer();
+			int next = read();
+			if ((next >= 0) && (next != '\n')) {
+				seek(afterReturn, SeekWhenceType.SEEK_START);
+			}
 		}
 
 		return line.toString();
@@ -375,9 +424,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public long readLong() throws EOFException, IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getLongSize());
-		return fileFormat.longValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getLongSize());
+		return fileFormat.longValue(valueBytes);
 	}
 
 	/**
@@ -400,9 +448,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public short readShort() throws EOFException, IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getShortSize());
-		return fileFormat.shortValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getShortSize());
+		return fileFormat.shortValue(valueBytes);
 	}
 
 	/**
@@ -484,9 +531,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public int readUnsignedShort() throws IOException, EOFException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		readFully(bytes, 0, fileFormat.getShortSize());
-		return fileFormat.unsignedShortValue(bytes);
+		readFully(valueBytes, 0, fileFormat.getShortSize());
+		return fileFormat.unsignedShortValue(valueBytes);
 	}
 
 	/**
@@ -519,7 +565,7 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 			newPosition = length;
 		}
 
-		seek(newPosition, SeekWhenceType.SEEK_CURRENT);
+		seek(newPosition, SeekWhenceType.SEEK_START);
 
 		return (int) (newPosition - position);
 	}
@@ -639,9 +685,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeChar(final int v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeShort(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeShort(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -684,9 +729,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeDouble(final double v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeDouble(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeDouble(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -710,9 +754,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeFloat(final float v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeFloat(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeFloat(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -735,9 +778,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeInt(final int v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeInt(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeInt(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -761,9 +803,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeLong(final long v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeLong(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeLong(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -787,9 +828,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public void writeShort(final int v) throws IOException {
-		byte bytes[] = new byte[Host.MAX_TYPE_SIZE];
-		int nBytes = fileFormat.encodeShort(v, bytes);
-		write(bytes, 0, nBytes);
+		int nBytes = fileFormat.encodeShort(v, valueBytes);
+		write(valueBytes, 0, nBytes);
 	}
 
 	/**
@@ -871,20 +911,8 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 *             reached.
 	 */
 	public int read() throws IOException {
-		byte buffer[] = new byte[1];
-		int offset = 0;
-		int read;
-		try {
-			read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(),
-					buffer, offset, 1);
-		} catch (JargonException e) {
-			log.error("JargonException reading file", e);
-			throw new IOException(e);
-		}
-		if (read == 1 && buffer != null) {
-			filePointer += 1;
-
-			return buffer[0];
+		if (readBytes(valueBytes, 0, 1) == 1) {
+			return valueBytes[0] & 0xff;
 		}
 		return -1;
 
@@ -906,13 +934,20 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 			throws IOException {
 		int read;
 		try {
-			read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(),
-					buffer, offset, len);
+			if (pageCache != null) {
+				read = pageCache.read(filePointer, buffer, offset, len);
+			} else {
+				read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(),
+						buffer, offset, len);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
 		}
-		filePointer += read;
+
+		if (read > 0) {
+			filePointer += read;
+		}
 
 		return read;
 	}
@@ -932,8 +967,13 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	protected void writeBytes(final byte buffer[], final int offset,
 			final int len) throws IOException {
 		try {
-			filePointer += fileIOOperations.write(
-					irodsFile.getFileDescriptor(), buffer, offset, len);
+			if (pageCache != null) {
+				pageCache.write(filePointer, buffer, offset, len);
+				filePointer += len;
+			} else {
+				filePointer += fileIOOperations.write(
+						irodsFile.getFileDescriptor(), buffer, offset, len);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
@@ -970,23 +1010,46 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 *            SEEK_END - sets the offset from the end of the file.<br>
 	 *
 	 * @throws IOException
-	 *             if <code>pos</code> is less than <code>0</code> or if an I/O
-	 *             error occurs.
+	 *             if an I/O error occurs.
+	 * @throws IllegalArgumentException
+	 *             if the resulting offset is less than <code>0</code>
 	 */
 	public void seek(final long position, final SeekWhenceType origin)
 			throws IOException {
-		if (position < 0) {
+		if (origin == null) {
+			throw new IllegalArgumentException("null origin");
+		}
+
+		if (position < 0 && origin == SeekWhenceType.SEEK_START) {
 			throw new IllegalArgumentException();
 		}
 
 		try {
-			fileIOOperations.seek(irodsFile.getFileDescriptor(), position,
-					origin);
+			if (pageCache != null) {
+				/*
+				 * the cache reads and writes at absolute positions, so only
+				 * the pointer moves, pending writes go out first so the file
+				 * is current for other readers
+				 */
+				pageCache.flush();
+				long newPointer = position;
+				if (origin == SeekWhenceType.SEEK_CURRENT) {
+					newPointer += filePointer;
+				} else if (origin == SeekWhenceType.SEEK_END) {
+					newPointer += pageCache.length();
+				}
+				if (newPointer < 0) {
+					throw new IllegalArgumentException();
+				}
+				filePointer = newPointer;
+			} else {
+				filePointer = fileIOOperations.seek(
+						irodsFile.getFileDescriptor(), position, origin);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
 		}
-		filePointer = position;
 	}
 
 	/**
@@ -1023,6 +1086,9 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 *             if an I/O error occurs.
 	 */
 	public long length() throws IOException {
+		if (pageCache != null) {
+			return pageCache.length();
+		}
 		return irodsFile.length();
 	}
 
@@ -1083,12 +1149,19 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	}
 
 	/**
-	 * This method closes the underlying IRODSFileImpl
+	 * This method closes the underlying IRODSFileImpl, after writing back any
+	 * cached changes
 	 */
 	public void close() throws IOException {
 		try {
 			log.debug("closing: {}", irodsFile.getAbsolutePath());
-			irodsFile.close();
+			try {
+				if (pageCache != null) {
+					pageCache.flush();
+				}
+			} finally {
+				irodsFile.close();
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
@@ -25,6 +25,11 @@ public class PackingIrodsInputStream extends InputStream {
 	private final int bufferSizeForIrods;
 	private final Logger log = LoggerFactory.getLogger(this.getClass());
 	private boolean done = false;
+	/**
+	 * Filled from iRODS and reused for each block, allocated on the first fill
+	 */
+	private byte[] irodsBuffer = null;
+	private final byte[] singleByte = new byte[1];
 
 	public PackingIrodsInputStream(
 			final IRODSFileInputStream irodsFileInputStream) {
@@ -61,28 +66,29 @@ public class PackingIrodsInputStream extends InputStream {
 	 */
 	private void fillByteBufferFromIrods() throws IOException {
 
-		byte[] b = new byte[bufferSizeForIrods];
+		if (irodsBuffer == null) {
+			irodsBuffer = new byte[bufferSizeForIrods];
+		}
 
-		int length = irodsFileInputStream.read(b);
+		int length = irodsFileInputStream.read(irodsBuffer);
 
 		if (length == -1) {
 			byteArrayInputStream = null;
 			done = true;
 		} else {
-			byteArrayInputStream = new ByteArrayInputStream(b, 0, length);
+			byteArrayInputStream = new ByteArrayInputStream(irodsBuffer, 0,
+					length);
 		}
 	}
 
 	@Override
 	public int read() throws IOException {
-		byte buffer[] = new byte[1];
-
-		int temp = this.read(buffer, 0, 1);
+		int temp = this.read(singleByte, 0, 1);
 
 		if (temp < 0) {
 			return -1;
 		}
-		return (buffer[0] & 0xFF);
+		return (singleByte[0] & 0xFF);
 
 	}
 
@@ -0,0 +1,337 @@
+package org.irods.jargon.core.pub.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-ahead/write-behind cache of fixed size pages of an open iRODS file, used
+ * by {@link IRODSRandomAccessFile}.
+ * <p/>
+ * Reads and writes smaller than a page are served from, or gathered in, cached
+ * pages, so a run of small reads costs one round trip per page instead of one
+ * per call. Pages are evicted least recently used first, and dirty pages are
+ * written back on eviction and on {@link #flush()}. Reads and writes of a page
+ * or more go straight to iRODS after dirty pages are written back, and cached
+ * pages they overlap are kept up to date.
+ * <p/>
+ * The cache works with absolute positions, and tracks the position of the
+ * iRODS file descriptor so that a seek is only sent when it would move. It is
+ * not thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class RandomAccessFilePageCache {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(RandomAccessFilePageCache.class);
+
+	private static final Comparator<Page> PAGE_ORDER = new Comparator<Page>() {
+		@Override
+		public int compare(final Page page1, final Page page2) {
+			return page1.index < page2.index ? -1
+					: page1.index == page2.index ? 0 : 1;
+		}
+	};
+
+	private final FileIOOperations fileIOOperations;
+	private final IRODSFile irodsFile;
+	private final int pageSize;
+	private final int pageCount;
+
+	/**
+	 * Cached pages by index, in access order
+	 */
+	private final LinkedHashMap<Long, Page> pages;
+
+	/**
+	 * Position of the iRODS file descriptor, or -1 if unknown
+	 */
+	private long serverPosition;
+
+	/**
+	 * Length of the file when opened, extended by any writes, including those
+	 * not yet flushed
+	 */
+	private long extent = -1;
+
+	/**
+	 * @param irodsFile
+	 *            {@link IRODSFile} that is open, and provides the file
+	 *            descriptor
+	 * @param fileIOOperations
+	 *            {@link FileIOOperations} used to read, write and seek
+	 * @param pageSize
+	 *            <code>int</code> with the size of a page in bytes
+	 * @param pageCount
+	 *            <code>int</code> with the most pages cached
+	 * @param serverPosition
+	 *            <code>long</code> with the current position of the file
+	 *            descriptor
+	 */
+	RandomAccessFilePageCache(final IRODSFile irodsFile,
+			final FileIOOperations fileIOOperations, final int pageSize,
+			final int pageCount, final long serverPosition) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		if (pageCount <= 0) {
+			throw new IllegalArgumentException("pageCount must be positive");
+		}
+		this.irodsFile = irodsFile;
+		this.fileIOOperations = fileIOOperations;
+		this.pageSize = pageSize;
+		this.pageCount = pageCount;
+		this.serverPosition = serverPosition;
+		pages = new LinkedHashMap<Long, Page>(pageCount * 2, 0.75f, true);
+	}
+
+	/**
+	 * Read up to <code>len</code> bytes at the given position
+	 *
+	 * @return <code>int</code> with the number of bytes read, or -1 at the end
+	 *         of the file
+	 * @throws JargonException
+	 */
+	int read(final long position, final byte[] buffer, final int offset,
+			final int len) throws JargonException {
+		if (len == 0) {
+			return 0;
+		}
+
+		if (len >= pageSize) {
+			return readDirect(position, buffer, offset, len);
+		}
+
+		int total = 0;
+		while (total < len) {
+			long current = position + total;
+			Page page = getPage(current / pageSize, true);
+			int inPage = (int) (current % pageSize);
+			int count = Math.min(len - total, validLength(page) - inPage);
+			if (count <= 0) {
+				break;
+			}
+			System.arraycopy(page.data, inPage, buffer, offset + total, count);
+			total += count;
+		}
+
+		return total == 0 ? -1 : total;
+	}
+
+	/**
+	 * Write <code>len</code> bytes at the given position
+	 *
+	 * @throws JargonException
+	 */
+	void write(final long position, final byte[] buffer, final int offset,
+			final int len) throws JargonException {
+		if (len == 0) {
+			return;
+		}
+
+		if (len >= pageSize) {
+			writeDirect(position, buffer, offset, len);
+			return;
+		}
+
+		long knownExtent = getExtent();
+		int total = 0;
+		while (total < len) {
+			long current = position + total;
+			long index = current / pageSize;
+			int inPage = (int) (current % pageSize);
+			int count = Math.min(len - total, pageSize - inPage);
+
+			/*
+			 * only read in a page the write leaves part of, and that holds
+			 * data, otherwise start from an empty page
+			 */
+			boolean load = count < pageSize && index * pageSize < knownExtent;
+			Page page = getPage(index, load);
+			System.arraycopy(buffer, offset + total, page.data, inPage, count);
+			page.markDirty(inPage, inPage + count);
+			total += count;
+		}
+
+		extent = Math.max(knownExtent, position + len);
+	}
+
+	/**
+	 * Write back all dirty pages, in file order
+	 *
+	 * @throws JargonException
+	 */
+	void flush() throws JargonException {
+		List<Page> dirty = new ArrayList<Page>();
+		for (Page page : pages.values()) {
+			if (page.dirty) {
+				dirty.add(page);
+			}
+		}
+
+		if (dirty.isEmpty()) {
+			return;
+		}
+
+		Collections.sort(dirty, PAGE_ORDER);
+		log.debug("flushing {} dirty pages", dirty.size());
+		for (Page page : dirty) {
+			writeBack(page);
+		}
+	}
+
+	/**
+	 * @return <code>long</code> with the length of the file, including
+	 *         writes that are not yet flushed
+	 */
+	long length() {
+		return Math.max(irodsFile.length(), getExtent());
+	}
+
+	/**
+	 * Bytes of the page that are in the file. A page short of the end of the
+	 * file is followed by zeros when a later page has been written.
+	 */
+	private int validLength(final Page page) {
+		if (page.length == pageSize) {
+			return pageSize;
+		}
+		long inFile = getExtent() - page.index * pageSize;
+		return (int) Math.max(page.length, Math.min(pageSize, inFile));
+	}
+
+	private long getExtent() {
+		if (extent < 0) {
+			extent = irodsFile.length();
+		}
+		return extent;
+	}
+
+	private Page getPage(final long index, final boolean load)
+			throws JargonException {
+		Page page = pages.get(index);
+		if (page != null) {
+			return page;
+		}
+
+		while (pages.size() >= pageCount) {
+			Iterator<Page> eldest = pages.values().iterator();
+			Page evicted = eldest.next();
+			if (evicted.dirty) {
+				writeBack(evicted);
+			}
+			eldest.remove();
+		}
+
+		page = new Page(index, pageSize);
+		if (load) {
+			long start = index * pageSize;
+			seekTo(start);
+			int read;
+			while (page.length < pageSize
+					&& (read = fileIOOperations.fileRead(fd(), page.data,
+							page.length, pageSize - page.length)) > 0) {
+				page.length += read;
+				serverPosition += read;
+			}
+		}
+		pages.put(index, page);
+		return page;
+	}
+
+	private int readDirect(final long position, final byte[] buffer,
+			final int offset, final int len) throws JargonException {
+		flush();
+		seekTo(position);
+		int read = fileIOOperations.fileRead(fd(), buffer, offset, len);
+		if (read <= 0) {
+			return -1;
+		}
+		serverPosition += read;
+		return read;
+	}
+
+	private void writeDirect(final long position, final byte[] buffer,
+			final int offset, final int len) throws JargonException {
+		flush();
+		seekTo(position);
+		int written = fileIOOperations.write(fd(), buffer, offset, len);
+		serverPosition += written;
+		extent = Math.max(getExtent(), position + written);
+
+		// keep cached pages in the written range current
+		long end = position + written;
+		for (Page page : pages.values()) {
+			long pageStart = page.index * pageSize;
+			long from = Math.max(position, pageStart);
+			long to = Math.min(end, pageStart + pageSize);
+			if (from < to) {
+				int inPage = (int) (from - pageStart);
+				int count = (int) (to - from);
+				System.arraycopy(buffer, offset + (int) (from - position),
+						page.data, inPage, count);
+				page.length = Math.max(page.length, inPage + count);
+			}
+		}
+	}
+
+	private void writeBack(final Page page) throws JargonException {
+		seekTo(page.index * pageSize + page.dirtyStart);
+		int count = page.dirtyEnd - page.dirtyStart;
+		serverPosition += fileIOOperations.write(fd(), page.data,
+				page.dirtyStart, count);
+		page.dirty = false;
+	}
+
+	private void seekTo(final long position) throws JargonException {
+		if (position != serverPosition) {
+			serverPosition = fileIOOperations.seek(fd(), position,
+					SeekWhenceType.SEEK_START);
+		}
+	}
+
+	private int fd() {
+		return irodsFile.getFileDescriptor();
+	}
+
+	/**
+	 * A cached page, valid from 0 to <code>length</code>, and with one
+	 * contiguous range of unflushed changes
+	 */
+	private static final class Page {
+		private final long index;
+		private final byte[] data;
+		private int length = 0;
+		private boolean dirty = false;
+		private int dirtyStart;
+		private int dirtyEnd;
+
+		Page(final long index, final int pageSize) {
+			this.index = index;
+			data = new byte[pageSize];
+		}
+
+		void markDirty(final int start, final int end) {
+			if (dirty) {
+				dirtyStart = Math.min(dirtyStart, start);
+				dirtyEnd = Math.max(dirtyEnd, end);
+			} else {
+				dirtyStart = start;
+				dirtyEnd = end;
+				dirty = true;
+			}
+			length = Math.max(length, end);
+		}
+	}
+
+}
@@ -0,0 +1,424 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Input stream for sequential reads of an iRODS file that keeps a number of
+ * blocks fetched ahead of the reader, so that the network and the reader of
+ * the stream work at the same time.
+ * <p/>
+ * A fetcher thread opens the file on its own connection (connections are kept
+ * per thread in the <code>IRODSSession</code>, and an iRODS file descriptor is
+ * only good on the connection that opened it), and reads blocks of the get
+ * buffer size into a fixed ring of buffers. The reader takes each filled block
+ * in turn, and gives it back to the fetcher once it has been read. At most
+ * <code>readAheadBlocks</code> blocks are fetched ahead of the block being
+ * read, so the stream holds <code>readAheadBlocks + 1</code> buffers however
+ * long the file.
+ * <p/>
+ * The fetcher closes the file and its connection at the end of the file, on
+ * an error, or when the stream is closed. An error in the fetcher is thrown
+ * as an <code>IOException</code> from the read that reaches it, after the
+ * blocks fetched before the error have been read.
+ * <p/>
+ * This stream is meant to be read by one thread, mark and reset are not
+ * supported, and a skip still fetches the skipped blocks.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ReadAheadIrodsInputStream extends InputStream {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ReadAheadIrodsInputStream.class);
+
+	/**
+	 * Queued after the last block, at the end of the file or on an error
+	 */
+	private static final Block END = new Block(0);
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final String irodsAbsolutePath;
+	private final BlockingQueue<Block> freeBlocks;
+	private final BlockingQueue<Block> filledBlocks;
+	private final CountDownLatch opened = new CountDownLatch(1);
+	private final Thread fetcher;
+
+	private volatile boolean closed = false;
+	private volatile Exception openException = null;
+	private volatile Exception fetchException = null;
+
+	private Block current = null;
+	private int position = 0;
+	private boolean endOfStream = false;
+
+	/**
+	 * Open the iRODS file and start fetching ahead, this waits for the file to
+	 * be opened so that a missing file is reported here
+	 *
+	 * @param irodsSession
+	 *            {@link IRODSSession} that gives the fetcher its connection
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the file is read as
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the absolute path of the iRODS file
+	 * @param blockSize
+	 *            <code>int</code> with the bytes fetched by each iRODS read
+	 * @param readAheadBlocks
+	 *            <code>int</code> with the most blocks fetched ahead of the
+	 *            reader
+	 * @throws JargonException
+	 *             if the file cannot be opened for reading
+	 */
+	protected ReadAheadIrodsInputStream(final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount, final String irodsAbsolutePath,
+			final int blockSize, final int readAheadBlocks)
+			throws JargonException {
+		super();
+
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("blockSize must be > 0");
+		}
+
+		if (readAheadBlocks <= 0) {
+			throw new IllegalArgumentException("readAheadBlocks must be > 0");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		this.irodsAbsolutePath = irodsAbsolutePath;
+
+		int ringSize = readAheadBlocks + 1;
+		freeBlocks = new ArrayBlockingQueue<Block>(ringSize);
+		// room for every block and the end marker, so the fetcher never
+		// waits on this queue
+		filledBlocks = new ArrayBlockingQueue<Block>(ringSize + 1);
+		for (int i = 0; i < ringSize; i++) {
+			freeBlocks.add(new Block(blockSize));
+		}
+
+		log.info("read ahead of:{} with {} blocks of {}", new Object[] {
+				irodsAbsolutePath, readAheadBlocks, blockSize });
+
+		fetcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				fetch();
+			}
+		}, "jargon-read-ahead");
+		fetcher.setDaemon(true);
+		fetcher.start();
+
+		try {
+			opened.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			closeAndEatExceptions();
+			throw new JargonException("interrupted opening:"
+					+ irodsAbsolutePath, e);
+		}
+
+		if (openException != null) {
+			closeAndEatExceptions();
+			if (openException instanceof JargonException) {
+				throw (JargonException) openException;
+			}
+			throw new JargonException("unable to open:" + irodsAbsolutePath,
+					openException);
+		}
+	}
+
+	/**
+	 * Runs on the fetcher thread, and so on its own connection
+	 */
+	private void fetch() {
+		IRODSFileInputStream irodsFileInputStream = null;
+		try {
+			irodsFileInputStream = new IRODSFileFactoryImpl(irodsSession,
+					irodsAccount)
+					.instanceIRODSFileInputStream(irodsAbsolutePath);
+		} catch (Exception e) {
+			log.error("unable to open:{}", irodsAbsolutePath, e);
+			openException = e;
+		} finally {
+			opened.countDown();
+		}
+
+		try {
+			if (irodsFileInputStream != null) {
+				fillBlocks(irodsFileInputStream);
+			}
+		} catch (InterruptedException e) {
+			log.warn("read ahead of:{} interrupted", irodsAbsolutePath);
+		} catch (Exception e) {
+			log.error("read ahead of:{} failed", irodsAbsolutePath, e);
+			fetchException = e;
+		} finally {
+			filledBlocks.offer(END);
+			// after an error the descriptor went with the connection
+			if (irodsFileInputStream != null && fetchException == null) {
+				try {
+					irodsFileInputStream.close();
+				} catch (IOException e) {
+					log.warn("error closing:{}", irodsAbsolutePath, e);
+				}
+			}
+			try {
+				irodsSession.closeSession(irodsAccount);
+			} catch (JargonException e) {
+				log.warn("error closing read ahead connection", e);
+			}
+		}
+	}
+
+	private void fillBlocks(final IRODSFileInputStream irodsFileInputStream)
+			throws IOException, InterruptedException {
+		while (!closed) {
+			Block block = freeBlocks.take();
+			if (closed) {
+				return;
+			}
+
+			int total = 0;
+			int read = 0;
+			while (total < block.data.length) {
+				read = irodsFileInputStream.read(block.data, total,
+						block.data.length - total);
+				if (read <= 0) {
+					break;
+				}
+				total += read;
+			}
+
+			if (total > 0) {
+				block.length = total;
+				filledBlocks.put(block);
+			}
+
+			if (read <= 0) {
+				log.debug("end of file for:{}", irodsAbsolutePath);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Make sure the current block has bytes left to read, taking the next
+	 * filled block when it does not
+	 *
+	 * @return <code>boolean</code> of <code>false</code> at the end of the
+	 *         file
+	 * @throws IOException
+	 *             if the fetcher failed
+	 */
+	private boolean nextBlock() throws IOException {
+		if (closed) {
+			throw new IOException("stream is closed");
+		}
+
+		if (current != null && position < current.length) {
+			return true;
+		}
+
+		if (!endOfStream) {
+			if (current != null) {
+				freeBlocks.offer(current);
+				current = null;
+			}
+
+			Block block;
+			try {
+				block = filledBlocks.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted waiting for:"
+						+ irodsAbsolutePath);
+			}
+
+			if (block != END) {
+				current = block;
+				position = 0;
+				return true;
+			}
+			endOfStream = true;
+		}
+
+		if (fetchException != null) {
+			throw new IOException("read ahead failed for:"
+					+ irodsAbsolutePath, fetchException);
+		}
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		if (!nextBlock()) {
+			return -1;
+		}
+		return current.data[position++] & 0xFF;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (b == null) {
+			throw new IllegalArgumentException("null b");
+		}
+
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		if (len == 0) {
+			return 0;
+		}
+
+		int totalRead = 0;
+		while (totalRead < len && nextBlock()) {
+			int toCopy = Math.min(len - totalRead, current.length - position);
+			System.arraycopy(current.data, position, b, off + totalRead,
+					toCopy);
+			position += toCopy;
+			totalRead += toCopy;
+		}
+		return totalRead > 0 ? totalRead : -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.InputStream#skip(long)
+	 */
+	@Override
+	public long skip(final long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n && nextBlock()) {
+			int toSkip = (int) Math.min(n - skipped, current.length - position);
+			position += toSkip;
+			skipped += toSkip;
+		}
+		return skipped;
+	}
+
+	/**
+	 * The bytes left in the block being read, which can be read without
+	 * waiting on iRODS
+	 */
+	@Override
+	public int available() throws IOException {
+		if (closed) {
+			throw new IOException("stream is closed");
+		}
+		return current == null ? 0 : current.length - position;
+	}
+
+	/**
+	 * Stop the fetcher, and wait for it to close the file and its connection.
+	 * A block being fetched is read to its end first.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		log.info("close()");
+		closed = true;
+
+		// give every block back, so a fetcher waiting for one sees the close
+		if (current != null) {
+			freeBlocks.offer(current);
+			current = null;
+		}
+		Block block;
+		while ((block = filledBlocks.poll()) != null) {
+			if (block != END) {
+				freeBlocks.offer(block);
+			}
+		}
+
+		try {
+			fetcher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted closing:"
+					+ irodsAbsolutePath);
+		}
+	}
+
+	private void closeAndEatExceptions() {
+		try {
+			close();
+		} catch (IOException e) {
+			log.warn("error closing read ahead stream", e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.InputStream#markSupported()
+	 */
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * @return <code>String</code> with the absolute path of the iRODS file
+	 *         being read
+	 */
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	/**
+	 * One buffer of the ring, with the bytes fetched into it
+	 */
+	private static final class Block {
+		private final byte[] data;
+		private int length = 0;
+
+		private Block(final int size) {
+			data = new byte[size];
+		}
+	}
+
+}
@@ -9,7 +9,9 @@ import java.util.List;
 import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.metrics.JargonMetrics;
 import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.GenQueryOut;
 import org.irods.jargon.core.packinstr.Tag;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
 import org.slf4j.Logger;
@@ -67,15 +69,8 @@ public class GenQueryProcessor {
 					"partial start index cannot be less than zero");
 		}
 
-		GenQueryInp genQueryInp;
-
-		if (partialStartIndex == 0) {
-			genQueryInp = GenQueryInp.instance(translatedIRODSQuery,
-					continueIndex, zoneName);
-		} else {
-			genQueryInp = GenQueryInp.instanceWithPartialStart(
-					translatedIRODSQuery, partialStartIndex, zoneName);
-		}
+		GenQueryInp genQueryInp = buildGenQueryInp(translatedIRODSQuery,
+				continueIndex, partialStartIndex, zoneName);
 
 		Tag response = null;
 		List<IRODSQueryResultRow> result = null;
@@ -87,6 +82,8 @@ public class GenQueryProcessor {
 					.getContinuationValue(response);
 
 			log.info("continuation value: {}", continuation);
+			recordPage(response.getTag(GenQueryOut.ROW_CNT).getIntValue(),
+					continuation > 0);
 
 			// get a list of the column names
 			List<String> columnNames = new ArrayList<String>();
@@ -114,6 +111,7 @@ public class GenQueryProcessor {
 			return resultSet;
 		} catch (DataNotFoundException dnf) {
 			log.info("response from IRODS call indicates no rows found");
+			recordPage(0, false);
 			result = new ArrayList<IRODSQueryResultRow>();
 			resultSet = IRODSQueryResultSet.instance(translatedIRODSQuery,
 					result, 0, 0);
@@ -127,6 +125,95 @@ public class GenQueryProcessor {
 		}
 	}
 
+	/**
+	 * Run a query, or page an earlier one, as
+	 * {@link #executeTranslatedIRODSQuery(TranslatedIRODSGenQuery, int, int, QueryCloseBehavior, String)}
+	 * does, but decode the response into an
+	 * {@link IRODSColumnarQueryResultSet}
+	 *
+	 * @param translatedIRODSQuery
+	 * @param continueIndex
+	 * @param partialStartIndex
+	 * @param queryCloseBehavior
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @return {@link IRODSColumnarQueryResultSet}
+	 * @throws JargonException
+	 */
+	public IRODSColumnarQueryResultSet executeTranslatedIRODSQueryColumnar(
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final int continueIndex, final int partialStartIndex,
+			final QueryCloseBehavior queryCloseBehavior, final String zoneName)
+					throws JargonException {
+
+		if (continueIndex < 0) {
+			throw new JargonException("continue index must be >= 0");
+		}
+
+		if (partialStartIndex < 0) {
+			throw new JargonException(
+					"partial start index cannot be less than zero");
+		}
+
+		GenQueryInp genQueryInp = buildGenQueryInp(translatedIRODSQuery,
+				continueIndex, partialStartIndex, zoneName);
+
+		IRODSColumnarQueryResultSet resultSet = null;
+		try {
+			Tag response = sendGenQueryAndReturnResponse(genQueryInp);
+
+			int continuation = QueryResultProcessingUtils
+					.getContinuationValue(response);
+			log.info("continuation value: {}", continuation);
+			recordPage(response.getTag(GenQueryOut.ROW_CNT).getIntValue(),
+					continuation > 0);
+
+			int totalRecords = response.getTag("totalRowCount").getIntValue();
+			log.info("total records:{}", totalRecords);
+
+			resultSet = IRODSColumnarQueryResultSet.instance(
+					translatedIRODSQuery, response, continuation,
+					partialStartIndex, totalRecords);
+			return resultSet;
+		} catch (DataNotFoundException dnf) {
+			log.info("response from IRODS call indicates no rows found");
+			recordPage(0, false);
+			resultSet = IRODSColumnarQueryResultSet.instance(
+					translatedIRODSQuery, null, 0, partialStartIndex, 0);
+			return resultSet;
+		} finally {
+			if (resultSet != null
+					&& queryCloseBehavior == QueryCloseBehavior.AUTO_CLOSE) {
+				log.info("auto closing result set");
+				closeResults(resultSet);
+			}
+		}
+	}
+
+	/**
+	 * Give a page of results to the metrics of the connection, if kept
+	 */
+	private void recordPage(final int rowCount, final boolean morePages) {
+		JargonMetrics jargonMetrics = irodsCommands.getJargonMetrics();
+		if (jargonMetrics != null) {
+			jargonMetrics.recordGenQueryPage(rowCount, morePages);
+		}
+	}
+
+	private GenQueryInp buildGenQueryInp(
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final int continueIndex, final int partialStartIndex,
+			final String zoneName) throws JargonException {
+		if (partialStartIndex == 0) {
+			return GenQueryInp.instance(translatedIRODSQuery, continueIndex,
+					zoneName);
+		} else {
+			return GenQueryInp.instanceWithPartialStart(translatedIRODSQuery,
+					partialStartIndex, zoneName);
+		}
+	}
+
 	/**
 	 * @param translatedIRODSQuery
 	 * @param continueIndex
@@ -137,8 +224,7 @@ public class GenQueryProcessor {
 	public Tag sendGenQueryAndReturnResponse(final GenQueryInp genQueryInp)
 			throws JargonException, DataNotFoundException {
 
-		Tag response = irodsCommands.irodsFunction(GenQueryInp.PI_TAG,
-				genQueryInp.getParsedTags(), GenQueryInp.API_NBR);
+		Tag response = irodsCommands.irodsFunction(genQueryInp);
 
 		return response;
 	}
@@ -169,6 +255,31 @@ public class GenQueryProcessor {
 
 	}
 
+	/**
+	 * send the notification to iRODS to close the columnar query result set.
+	 *
+	 * @param irodsColumnarQueryResultSet
+	 * @throws JargonException
+	 */
+	public void closeResults(
+			final IRODSColumnarQueryResultSet irodsColumnarQueryResultSet)
+					throws JargonException {
+
+		if (irodsColumnarQueryResultSet == null) {
+			throw new JargonException("null irodsColumnarQueryResultSet");
+		}
+
+		if (!irodsColumnarQueryResultSet.isHasMoreRecords()) {
+			log.info("no results to close, ignore");
+			return;
+		}
+
+		GenQueryInp genQueryInp = GenQueryInp.instanceForCloseQuery(
+				irodsColumnarQueryResultSet.getTranslatedIRODSQuery(),
+				irodsColumnarQueryResultSet.getContinuationIndex());
+		sendGenQueryAndReturnResponse(genQueryInp);
+	}
+
 	/**
 	 * @param irodsQuery
 	 * @return
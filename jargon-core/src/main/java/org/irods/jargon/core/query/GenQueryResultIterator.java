@@ -0,0 +1,284 @@
+package org.irods.jargon.core.query;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over every row of a GenQuery, asking iRODS for each page as it is
+ * needed, so that a large query may be processed without holding all of the
+ * results.
+ * <p/>
+ * By default the next page is requested when the rows of the current one are
+ * used up. With prefetch, the next page is requested in the background over
+ * the same connection while the rows of the current page are handed out. Only
+ * single calls to the connection are synchronized, and operations such as a
+ * file read take more than one, so with prefetch the caller must not use the
+ * connection for anything else until the iteration is done or closed.
+ * <p/>
+ * The query is closed in iRODS once the last row is read. A caller that stops
+ * early must call {@link #close()}, which waits for any page that is being
+ * prefetched and then closes the query. Errors talking to iRODS while paging
+ * are thrown from {@link #hasNext()} and {@link #next()} as a
+ * {@link JargonRuntimeException} with the <code>JargonException</code> as the
+ * cause.
+ * <p/>
+ * This object is not thread safe, and should be used by one thread.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class GenQueryResultIterator implements Iterator<IRODSQueryResultRow>,
+		Closeable {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(GenQueryResultIterator.class);
+
+	/**
+	 * Shared by all iterators that prefetch, created on first use
+	 */
+	private static ExecutorService prefetchExecutor = null;
+
+	private final GenQueryProcessor genQueryProcessor;
+	private final String zoneName;
+	private final boolean prefetch;
+	private IRODSQueryResultSet currentPage;
+	private List<IRODSQueryResultRow> currentRows;
+	private int currentRow = 0;
+	private Future<IRODSQueryResultSet> nextPage = null;
+	private boolean closed = false;
+
+	/**
+	 * Run the first page of a query and return an iterator over all of its
+	 * rows, requesting each later page when it is needed
+	 *
+	 * @param genQueryProcessor
+	 *            {@link GenQueryProcessor} connected to iRODS, which is used
+	 *            for every page
+	 * @param translatedIRODSQuery
+	 *            {@link TranslatedIRODSGenQuery} to run
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @return <code>GenQueryResultIterator</code>
+	 * @throws JargonException
+	 */
+	public static GenQueryResultIterator instance(
+			final GenQueryProcessor genQueryProcessor,
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final String zoneName) throws JargonException {
+		return instance(genQueryProcessor, translatedIRODSQuery, zoneName,
+				false);
+	}
+
+	/**
+	 * Run the first page of a query and return an iterator over all of its
+	 * rows, optionally requesting the next page in the background. See the
+	 * class comment for the care prefetch needs.
+	 *
+	 * @param genQueryProcessor
+	 *            {@link GenQueryProcessor} connected to iRODS, which is used
+	 *            for every page
+	 * @param translatedIRODSQuery
+	 *            {@link TranslatedIRODSGenQuery} to run
+	 * @param zoneName
+	 *            <code>String</code> (<code>null</code> or blank if not used)
+	 *            that indicates an optional zone for the query
+	 * @param prefetch
+	 *            <code>boolean</code> that is <code>true</code> to request
+	 *            the next page while the current one is read, the connection
+	 *            must then not be used by the caller until the iteration ends
+	 * @return <code>GenQueryResultIterator</code>
+	 * @throws JargonException
+	 */
+	public static GenQueryResultIterator instance(
+			final GenQueryProcessor genQueryProcessor,
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final String zoneName, final boolean prefetch)
+			throws JargonException {
+
+		if (genQueryProcessor == null) {
+			throw new IllegalArgumentException("null genQueryProcessor");
+		}
+
+		if (translatedIRODSQuery == null) {
+			throw new IllegalArgumentException("null translatedIRODSQuery");
+		}
+
+		IRODSQueryResultSet firstPage = genQueryProcessor
+				.executeTranslatedIRODSQuery(translatedIRODSQuery, 0, 0,
+						QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+		return new GenQueryResultIterator(genQueryProcessor, firstPage,
+				zoneName, prefetch);
+	}
+
+	private GenQueryResultIterator(final GenQueryProcessor genQueryProcessor,
+			final IRODSQueryResultSet firstPage, final String zoneName,
+			final boolean prefetch) {
+		this.genQueryProcessor = genQueryProcessor;
+		this.zoneName = zoneName;
+		this.prefetch = prefetch;
+		setCurrentPage(firstPage);
+	}
+
+	/**
+	 * Check for another row, waiting for the next page from iRODS if the
+	 * current one is used up
+	 *
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+		while (!closed && currentRow >= currentRows.size()) {
+			if (!currentPage.isHasMoreRecords()) {
+				log.info("query results exhausted");
+				closed = true;
+				break;
+			}
+
+			setCurrentPage(nextPage == null ? queryNextPage() : takeNextPage());
+		}
+		return !closed;
+	}
+
+	@Override
+	public IRODSQueryResultRow next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("no more query results");
+		}
+		return currentRows.get(currentRow++);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("query results are read only");
+	}
+
+	/**
+	 * Get the total records that iRODS reported with the current page, as
+	 * found in {@link IRODSQueryResultSet#getTotalRecords()}
+	 *
+	 * @return <code>int</code> with the total records, which iRODS leaves at
+	 *         zero unless the query asks for them
+	 */
+	public int getTotalRecords() {
+		return currentPage.getTotalRecords();
+	}
+
+	/**
+	 * Stop iterating and close the query in iRODS, if there are results that
+	 * have not been read. This may be called more than once.
+	 *
+	 * @throws JargonRuntimeException
+	 *             wrapping a <code>JargonException</code> if the query could
+	 *             not be closed
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		log.info("closing query results before the last row");
+		closed = true;
+		IRODSQueryResultSet lastPage = currentPage;
+		if (nextPage != null) {
+			try {
+				lastPage = takeNextPage();
+			} catch (JargonRuntimeException e) {
+				// the query is still open from the page already read
+				log.warn("error in prefetched page, closing current page", e);
+			}
+		}
+
+		try {
+			genQueryProcessor.closeResults(lastPage);
+		} catch (JargonException e) {
+			log.error("error closing query results", e);
+			throw new JargonRuntimeException(e);
+		}
+	}
+
+	private void setCurrentPage(final IRODSQueryResultSet page) {
+		currentPage = page;
+		currentRows = page.getResults();
+		currentRow = 0;
+
+		if (prefetch && page.isHasMoreRecords()) {
+			nextPage = getPrefetchExecutor().submit(
+					new Callable<IRODSQueryResultSet>() {
+						@Override
+						public IRODSQueryResultSet call() throws JargonException {
+							return continueQuery(page);
+						}
+					});
+		} else {
+			nextPage = null;
+		}
+	}
+
+	private IRODSQueryResultSet continueQuery(final IRODSQueryResultSet page)
+			throws JargonException {
+		return genQueryProcessor.executeTranslatedIRODSQuery(
+				page.getTranslatedIRODSQuery(), page.getContinuationIndex(), 0,
+				QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+	}
+
+	private IRODSQueryResultSet queryNextPage() {
+		try {
+			return continueQuery(currentPage);
+		} catch (JargonException e) {
+			closed = true;
+			log.error("error getting next page of query results", e);
+			throw new JargonRuntimeException(e);
+		}
+	}
+
+	private static synchronized ExecutorService getPrefetchExecutor() {
+		if (prefetchExecutor == null) {
+			prefetchExecutor = Executors
+					.newCachedThreadPool(new ThreadFactory() {
+						@Override
+						public Thread newThread(final Runnable runnable) {
+							Thread thread = new Thread(runnable,
+									"jargon-genquery-prefetch");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+		return prefetchExecutor;
+	}
+
+	private IRODSQueryResultSet takeNextPage() {
+		Future<IRODSQueryResultSet> page = nextPage;
+		nextPage = null;
+		try {
+			return page.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			closed = true;
+			throw new JargonRuntimeException(
+					"interrupted waiting for query results", e);
+		} catch (ExecutionException e) {
+			closed = true;
+			log.error("error getting next page of query results",
+					e.getCause());
+			throw new JargonRuntimeException(e.getCause());
+		}
+	}
+
+}
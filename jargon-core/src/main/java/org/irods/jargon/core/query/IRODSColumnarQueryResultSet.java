@@ -0,0 +1,577 @@
+package org.irods.jargon.core.query;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.GenQueryOut;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.utils.IRODSDataConversionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable result set returned from an iRODS general query, holding the
+ * results by column rather than as a <code>List</code> of
+ * {@link IRODSQueryResultRow}. This suits large listings, where a row per
+ * result is a lot of small objects:
+ * <ul>
+ * <li>Id, size, time and count columns (those whose names end in
+ * <code>_ID</code>, <code>_SIZE</code>, <code>_TIME</code>, <code>_NUM</code>
+ * or <code>_COUNT</code>) are parsed once into a <code>long</code> array.</li>
+ * <li>Values repeated down a column, such as owners, resources and zones, are
+ * shared rather than held once per row.</li>
+ * <li>Columns are found by name through a map rather than a search of the
+ * names.</li>
+ * </ul>
+ * Values are read by row index and column. {@link #getResults()} will build
+ * the familiar rows on demand for code that wants them.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSColumnarQueryResultSet implements
+IRODSQueryResultSetInterface {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSColumnarQueryResultSet.class);
+
+	private static final String[] LONG_COLUMN_SUFFIXES = { "_ID", "_SIZE",
+		"_TIME", "_NUM", "_COUNT" };
+
+	private final TranslatedIRODSGenQuery translatedIRODSQuery;
+	private final List<String> columnNames;
+	private final Map<String, Integer> columnIndexes;
+	private final Column[] columns;
+	private final int rowCount;
+	private final int firstRecordCount;
+	private final boolean hasMoreRecords;
+	private final int continuationIndex;
+	private final int totalRecords;
+	private List<IRODSQueryResultRow> results = null;
+
+	/**
+	 * Creates an instance of a result set by decoding the GenQuery response
+	 * data from iRODS.
+	 *
+	 * @param translatedIRODSQuery
+	 *            {@link TranslatedIRODSGenQuery} that had been sent to get
+	 *            these results.
+	 * @param queryResponse
+	 *            {@link Tag} with the <code>GenQueryOut</code> response, or
+	 *            <code>null</code> for no rows
+	 * @param continuationIndex
+	 *            <code>int</code> that indicates the continuation sent by
+	 *            iRODS, which is greater than zero if more results are
+	 *            available.
+	 * @param partialStartIndex
+	 *            <code>int</code> with the offset into the query results, so
+	 *            that record counts begin at the right point
+	 * @param totalRecords
+	 *            <code>int</code> with the total records, corresponding to
+	 *            totalRowCount in the genQueryOut_t structure
+	 * @return <code>IRODSColumnarQueryResultSet</code>
+	 * @throws JargonException
+	 */
+	public static IRODSColumnarQueryResultSet instance(
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final Tag queryResponse, final int continuationIndex,
+			final int partialStartIndex, final int totalRecords)
+					throws JargonException {
+
+		if (translatedIRODSQuery == null) {
+			throw new JargonException("translated IRODS query is null");
+		}
+
+		List<String> columnNames = new ArrayList<String>();
+		for (GenQuerySelectField selectField : translatedIRODSQuery
+				.getSelectFields()) {
+			columnNames.add(selectField.getSelectFieldColumnName());
+		}
+
+		int rows = 0;
+		Column[] columns = new Column[columnNames.size()];
+		if (queryResponse == null) {
+			log.info("empty result set from query, returning as an empty result set ( no rows found)");
+			for (int j = 0; j < columns.length; j++) {
+				columns[j] = new StringColumn(new String[0]);
+			}
+		} else {
+			rows = queryResponse.getTag(GenQueryOut.ROW_CNT).getIntValue();
+			log.info("rows returned from iRODS query: {}", rows);
+			int attributes = queryResponse.getTag(GenQueryOut.ATTRIB_CNT)
+					.getIntValue();
+			if (attributes != columns.length) {
+				throw new JargonException(
+						"query response column count does not match the selects");
+			}
+
+			for (int j = 0; j < attributes; j++) {
+				Tag[] values = queryResponse.getTags()[4 + j].getTags();
+				columns[j] = decodeColumn(columnNames.get(j), values, rows);
+			}
+		}
+
+		return new IRODSColumnarQueryResultSet(translatedIRODSQuery,
+				columnNames, columns, rows, partialStartIndex + 1,
+				continuationIndex, totalRecords);
+	}
+
+	private IRODSColumnarQueryResultSet(
+			final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final List<String> columnNames, final Column[] columns,
+			final int rowCount, final int firstRecordCount,
+			final int continuationIndex, final int totalRecords) {
+
+		if (totalRecords < 0) {
+			throw new IllegalArgumentException("totalRecords < 0");
+		}
+
+		this.translatedIRODSQuery = translatedIRODSQuery;
+		this.columnNames = Collections.unmodifiableList(columnNames);
+		this.columns = columns;
+		this.rowCount = rowCount;
+		this.firstRecordCount = firstRecordCount;
+		hasMoreRecords = continuationIndex > 0;
+		this.continuationIndex = continuationIndex;
+		this.totalRecords = totalRecords;
+
+		columnIndexes = new HashMap<String, Integer>(columnNames.size() * 2);
+		for (int j = columnNames.size() - 1; j >= 0; j--) {
+			// the first of any repeated name wins, as in IRODSQueryResultRow
+			columnIndexes.put(columnNames.get(j), j);
+		}
+	}
+
+	/**
+	 * @return <code>int</code> with the number of rows in this result set
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Get the position of a column
+	 *
+	 * @param columnName
+	 *            <code>String</code> with the column name
+	 * @return <code>int</code> with the column position, or -1 if the column
+	 *         is not in the results
+	 */
+	public int getColumnIndex(final String columnName) {
+		Integer index = columnIndexes.get(columnName);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Get a value as the <code>String</code> iRODS sent
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param column
+	 *            <code>int</code> with the column position
+	 * @return <code>String</code> with the value
+	 * @throws JargonException
+	 *             if the row or column is out of range
+	 */
+	public String getString(final int row, final int column)
+			throws JargonException {
+		return getColumnData(column).getString(checkRow(row));
+	}
+
+	/**
+	 * Get a value as the <code>String</code> iRODS sent
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param columnName
+	 *            <code>String</code> with the column name
+	 * @return <code>String</code> with the value
+	 * @throws JargonException
+	 *             if the row is out of range or the column is not in the
+	 *             results
+	 */
+	public String getString(final int row, final String columnName)
+			throws JargonException {
+		return getString(row, findColumn(columnName));
+	}
+
+	/**
+	 * Get a value as a <code>long</code>, which is already parsed for id,
+	 * size, time and count columns
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param column
+	 *            <code>int</code> with the column position
+	 * @return <code>long</code> with the value, or 0 if blank
+	 * @throws JargonException
+	 *             if the row or column is out of range
+	 */
+	public long getLongOrZero(final int row, final int column)
+			throws JargonException {
+		return getColumnData(column).getLong(checkRow(row));
+	}
+
+	/**
+	 * Get a value as a <code>long</code>, which is already parsed for id,
+	 * size, time and count columns
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param columnName
+	 *            <code>String</code> with the column name
+	 * @return <code>long</code> with the value, or 0 if blank
+	 * @throws JargonException
+	 *             if the row is out of range or the column is not in the
+	 *             results
+	 */
+	public long getLongOrZero(final int row, final String columnName)
+			throws JargonException {
+		return getLongOrZero(row, findColumn(columnName));
+	}
+
+	/**
+	 * Get a time value, given in seconds since the epoch, as a
+	 * <code>Date</code>
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param column
+	 *            <code>int</code> with the column position
+	 * @return <code>Date</code> or <code>null</code> if blank
+	 * @throws JargonException
+	 *             if the row or column is out of range
+	 */
+	public Date getDateOrNull(final int row, final int column)
+			throws JargonException {
+		Column data = getColumnData(column);
+		int checkedRow = checkRow(row);
+		if (data.isBlank(checkedRow)) {
+			return null;
+		}
+		return new Date(data.getLong(checkedRow) * 1000L);
+	}
+
+	/**
+	 * Get a time value, given in seconds since the epoch, as a
+	 * <code>Date</code>
+	 *
+	 * @param row
+	 *            <code>int</code> with the row index, from 0
+	 * @param columnName
+	 *            <code>String</code> with the column name
+	 * @return <code>Date</code> or <code>null</code> if blank
+	 * @throws JargonException
+	 *             if the row is out of range or the column is not in the
+	 *             results
+	 */
+	public Date getDateOrNull(final int row, final String columnName)
+			throws JargonException {
+		return getDateOrNull(row, findColumn(columnName));
+	}
+
+	/**
+	 * Builds a row object for each result the first time it is called, which
+	 * gives up the savings of the columnar form, so is best avoided for large
+	 * results.
+	 *
+	 * @see org.irods.jargon.core.query.IRODSQueryResultSetInterface#getResults()
+	 */
+	@Override
+	public synchronized List<IRODSQueryResultRow> getResults() {
+		if (results == null) {
+			List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>(
+					rowCount);
+			try {
+				for (int i = 0; i < rowCount; i++) {
+					rows.add(buildRow(i));
+				}
+			} catch (JargonException e) {
+				// rows are built from values already checked
+				throw new IllegalStateException(e);
+			}
+			results = Collections.unmodifiableList(rows);
+		}
+		return results;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.query.IRODSQueryResultSetInterface#getFirstResult()
+	 */
+	@Override
+	public IRODSQueryResultRow getFirstResult() throws DataNotFoundException {
+		if (rowCount == 0) {
+			throw new DataNotFoundException("no result found");
+		}
+
+		try {
+			return buildRow(0);
+		} catch (JargonException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public boolean isHasMoreRecords() {
+		return hasMoreRecords;
+	}
+
+	@Override
+	public int getNumberOfResultColumns() {
+		return columnNames.size();
+	}
+
+	@Override
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	@Override
+	public int getTotalRecords() {
+		return totalRecords;
+	}
+
+	public int getContinuationIndex() {
+		return continuationIndex;
+	}
+
+	public TranslatedIRODSGenQuery getTranslatedIRODSQuery() {
+		return translatedIRODSQuery;
+	}
+
+	private IRODSQueryResultRow buildRow(final int row) throws JargonException {
+		List<String> values = new ArrayList<String>(columns.length);
+		for (Column column : columns) {
+			values.add(column.getString(row));
+		}
+		return IRODSQueryResultRow.instance(values, columnNames,
+				firstRecordCount + row, !hasMoreRecords);
+	}
+
+	private int checkRow(final int row) throws JargonException {
+		if (row < 0 || row >= rowCount) {
+			throw new JargonException("row out of range");
+		}
+		return row;
+	}
+
+	private Column getColumnData(final int column) throws JargonException {
+		if (column < 0 || column >= columns.length) {
+			throw new JargonException("column out of range");
+		}
+		return columns[column];
+	}
+
+	private int findColumn(final String columnName) throws JargonException {
+		if (columnName == null || columnName.length() == 0) {
+			throw new JargonException("columnName is null or empty");
+		}
+
+		int index = getColumnIndex(columnName);
+		if (index == -1) {
+			throw new JargonException("column name not found in result set:"
+					+ columnName);
+		}
+		return index;
+	}
+
+	/**
+	 * Decode the values for one column, parsing columns that should hold
+	 * numbers, and falling back to strings if any value is not a number
+	 */
+	static Column decodeColumn(final String columnName, final Tag[] values,
+			final int rows) {
+		if (isLongColumnName(columnName)) {
+			LongColumn longColumn = LongColumn.decode(values, rows);
+			if (longColumn != null) {
+				return longColumn;
+			}
+			log.debug("column {} is not numeric, keeping strings", columnName);
+		}
+		return StringColumn.decode(values, rows);
+	}
+
+	static boolean isLongColumnName(final String columnName) {
+		for (String suffix : LONG_COLUMN_SUFFIXES) {
+			if (columnName.endsWith(suffix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Values for one column
+	 */
+	abstract static class Column {
+
+		abstract String getString(int row);
+
+		abstract long getLong(int row);
+
+		abstract boolean isBlank(int row);
+	}
+
+	/**
+	 * Column kept as strings, sharing repeated values
+	 */
+	static final class StringColumn extends Column {
+
+		/**
+		 * Rows seen before deciding whether a column repeats enough to be
+		 * worth sharing values
+		 */
+		private static final int SAMPLE_ROWS = 64;
+
+		private final String[] values;
+
+		StringColumn(final String[] values) {
+			this.values = values;
+		}
+
+		static StringColumn decode(final Tag[] tags, final int rows) {
+			String[] values = new String[rows];
+			Map<String, String> shared = new HashMap<String, String>();
+			for (int i = 0; i < rows; i++) {
+				String value = tags[2 + i].getStringValue();
+				if (shared != null) {
+					String previous = shared.get(value);
+					if (previous == null) {
+						shared.put(value, value);
+					} else {
+						value = previous;
+					}
+					// mostly distinct columns, such as names, are not shared
+					if (i == SAMPLE_ROWS && shared.size() > SAMPLE_ROWS / 2) {
+						shared = null;
+					}
+				}
+				values[i] = value;
+			}
+			return new StringColumn(values);
+		}
+
+		@Override
+		String getString(final int row) {
+			return values[row];
+		}
+
+		@Override
+		long getLong(final int row) {
+			return IRODSDataConversionUtil
+					.getLongOrZeroFromIRODSValue(values[row]);
+		}
+
+		@Override
+		boolean isBlank(final int row) {
+			return values[row].isEmpty();
+		}
+	}
+
+	/**
+	 * Column parsed to <code>long</code> values. iRODS pads times with leading
+	 * zeros, so the padded width is kept to give back the original string, and
+	 * any value that cannot be rebuilt that way is kept as sent.
+	 */
+	static final class LongColumn extends Column {
+
+		private final long[] values;
+		private final BitSet blanks;
+		private final int paddedWidth;
+		private final String[] irregular;
+
+		private LongColumn(final long[] values, final BitSet blanks,
+				final int paddedWidth, final String[] irregular) {
+			this.values = values;
+			this.blanks = blanks;
+			this.paddedWidth = paddedWidth;
+			this.irregular = irregular;
+		}
+
+		/**
+		 * @return <code>LongColumn</code>, or <code>null</code> if a value is
+		 *         not a number
+		 */
+		static LongColumn decode(final Tag[] tags, final int rows) {
+			long[] values = new long[rows];
+			BitSet blanks = new BitSet();
+			int paddedWidth = -1;
+			String[] irregular = null;
+
+			for (int i = 0; i < rows; i++) {
+				String value = tags[2 + i].getStringValue();
+				if (value.isEmpty()) {
+					blanks.set(i);
+					continue;
+				}
+
+				long parsed;
+				try {
+					parsed = Long.parseLong(value);
+				} catch (NumberFormatException nfe) {
+					return null;
+				}
+				values[i] = parsed;
+
+				if (paddedWidth == -1) {
+					// the first value decides the padding for the column
+					paddedWidth = value.length() > 1 && value.charAt(0) == '0' ? value
+							.length() : 0;
+				}
+
+				if (!value.equals(format(parsed, paddedWidth))) {
+					if (irregular == null) {
+						irregular = new String[rows];
+					}
+					irregular[i] = value;
+				}
+			}
+			return new LongColumn(values, blanks, paddedWidth, irregular);
+		}
+
+		private static String format(final long value, final int paddedWidth) {
+			String formatted = Long.toString(value);
+			if (value < 0 || formatted.length() >= paddedWidth) {
+				return formatted;
+			}
+			StringBuilder sb = new StringBuilder(paddedWidth);
+			for (int i = formatted.length(); i < paddedWidth; i++) {
+				sb.append('0');
+			}
+			sb.append(formatted);
+			return sb.toString();
+		}
+
+		@Override
+		String getString(final int row) {
+			if (blanks.get(row)) {
+				return "";
+			}
+			if (irregular != null && irregular[row] != null) {
+				return irregular[row];
+			}
+			return format(values[row], paddedWidth);
+		}
+
+		@Override
+		long getLong(final int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean isBlank(final int row) {
+			return blanks.get(row);
+		}
+	}
+
+}
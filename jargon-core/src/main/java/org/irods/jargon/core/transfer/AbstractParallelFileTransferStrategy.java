@@ -7,6 +7,7 @@ import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.connection.SettableJargonProperties;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.TransferOptions.LocalFileIOStrategy;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 
 /**
@@ -42,7 +43,8 @@ public abstract class AbstractParallelFileTransferStrategy {
 	private final TransferStatusCallbackListener transferStatusCallbackListener;
 	private ConnectionProgressStatusListener connectionProgressStatusListener = null;
 	private final int parallelSocketTimeoutInSecs;
-	private final JargonProperties jargonProperties;
+	private final SettableJargonProperties jargonProperties;
+	private final boolean memoryMapped;
 
 	/**
 	 * Constructor for a parallel file transfer runner. This runner will create
@@ -142,6 +144,10 @@ public abstract class AbstractParallelFileTransferStrategy {
 		parallelSocketTimeoutInSecs = jargonProperties
 				.getIRODSParallelTransferSocketTimeout();
 
+		memoryMapped = transferControlBlock.getTransferOptions() != null
+				&& transferControlBlock.getTransferOptions()
+				.getLocalFileIOStrategy() == LocalFileIOStrategy.MEMORY_MAPPED;
+
 	}
 
 	@Override
@@ -216,6 +222,41 @@ public abstract class AbstractParallelFileTransferStrategy {
 		this.connectionProgressStatusListener = connectionProgressStatusListener;
 	}
 
+	/**
+	 * Set the copy buffer size of the transfer threads, in place of the one in
+	 * the jargon properties. This must be called before {@link #transfer()}.
+	 *
+	 * @param parallelCopyBufferSize
+	 *            <code>int</code> with the buffer size in bytes
+	 */
+	public void setParallelCopyBufferSize(final int parallelCopyBufferSize) {
+		if (parallelCopyBufferSize <= 0) {
+			throw new IllegalArgumentException(
+					"parallelCopyBufferSize must be greater than zero");
+		}
+		jargonProperties.setParallelCopyBufferSize(parallelCopyBufferSize);
+	}
+
+	/**
+	 * Have a {@link TransferThroughputMeasurement} count the bytes moved by the
+	 * transfer threads. Any intra-file progress listener of this transfer
+	 * still receives its callbacks. This must be called before
+	 * {@link #transfer()}.
+	 *
+	 * @param transferThroughputMeasurement
+	 *            {@link TransferThroughputMeasurement} for this transfer
+	 */
+	public synchronized void measureThroughput(
+			final TransferThroughputMeasurement transferThroughputMeasurement) {
+		if (transferThroughputMeasurement == null) {
+			throw new IllegalArgumentException(
+					"null transferThroughputMeasurement");
+		}
+		transferThroughputMeasurement
+				.setDelegate(connectionProgressStatusListener);
+		connectionProgressStatusListener = transferThroughputMeasurement;
+	}
+
 	/**
 	 * @return the transferLength
 	 */
@@ -237,6 +278,14 @@ public abstract class AbstractParallelFileTransferStrategy {
 		return jargonProperties;
 	}
 
+	/**
+	 * @return <code>boolean</code> that is <code>true</code> if the threads
+	 *         should access the local file through a {@link MappedLocalFile}
+	 */
+	public boolean isMemoryMapped() {
+		return memoryMapped;
+	}
+
 	public FileRestartInfo getFileRestartInfo() {
 		return fileRestartInfo;
 	}
@@ -13,6 +13,11 @@ import org.slf4j.LoggerFactory;
  * This manager serves as a repository of file restart info and a place to
  * update that information, maintaining a representation of
  * {@link FileRestartInfo} for a given path
+ * <p/>
+ * Segment updates come from every parallel transfer thread after each buffer,
+ * so they do not hold a lock on the manager. Each thread owns its segment, and
+ * updates lock only that segment. {@link #segmentUpdated(FileRestartInfo,
+ * FileRestartDataSegment)} is then called, and must be thread safe.
  *
  * @author Mike Conway - DICE
  *
@@ -115,38 +120,36 @@ public abstract class AbstractRestartManager {
 			final FileRestartInfoIdentifier fileRestartInfoIdentifier,
 			final int threadNumber, final long length)
 					throws FileRestartManagementException {
-		log.info("updateLengthForSegment()");
+		log.debug("updateLengthForSegment()");
 		if (fileRestartInfoIdentifier == null) {
 			throw new IllegalArgumentException("null identifier");
 		}
 
-		synchronized (this) {
-			FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
-			if (info == null) {
-				throw new FileRestartManagementException(
-						"unable to find restart info");
-			}
+		FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
+		if (info == null) {
+			throw new FileRestartManagementException(
+					"unable to find restart info");
+		}
 
-			if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
-				throw new FileRestartManagementException(
-						"unable to locate thread number");
-			}
+		if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
+			throw new FileRestartManagementException(
+					"unable to locate thread number");
+		}
 
-			FileRestartDataSegment dataSegment = info
-					.getFileRestartDataSegments().get(threadNumber);
+		FileRestartDataSegment dataSegment = info.getFileRestartDataSegments()
+				.get(threadNumber);
 
-			if (dataSegment.getThreadNumber() != threadNumber) {
-				log.error(
-						"thread number in segment odos not match requested:{}",
-						threadNumber);
-				log.error("segment was:{}", dataSegment);
-				throw new FileRestartManagementException(
-						"thread number mismatch");
-			}
+		if (dataSegment.getThreadNumber() != threadNumber) {
+			log.error("thread number in segment odos not match requested:{}",
+					threadNumber);
+			log.error("segment was:{}", dataSegment);
+			throw new FileRestartManagementException("thread number mismatch");
+		}
 
+		synchronized (dataSegment) {
 			dataSegment.setLength(dataSegment.getLength() + length);
-			storeRestart(info);
 		}
+		segmentUpdated(info, dataSegment);
 
 	}
 
@@ -166,32 +169,53 @@ public abstract class AbstractRestartManager {
 			final FileRestartInfoIdentifier fileRestartInfoIdentifier,
 			final int threadNumber, final long offset)
 					throws FileRestartManagementException {
-		log.info("updateLenghtForSegment()");
+		log.debug("updateOffsetForSegment()");
 		if (fileRestartInfoIdentifier == null) {
 			throw new IllegalArgumentException("null identifier");
 		}
 
-		synchronized (this) {
-			FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
-			if (info == null) {
-				throw new FileRestartManagementException(
-						"unable to find restart info");
-			}
+		FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
+		if (info == null) {
+			throw new FileRestartManagementException(
+					"unable to find restart info");
+		}
 
-			if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
-				throw new FileRestartManagementException(
-						"unable to locate thread number");
-			}
+		if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
+			throw new FileRestartManagementException(
+					"unable to locate thread number");
+		}
 
-			FileRestartDataSegment dataSegment = info
-					.getFileRestartDataSegments().get(threadNumber);
+		FileRestartDataSegment dataSegment = info.getFileRestartDataSegments()
+				.get(threadNumber);
+		synchronized (dataSegment) {
 			dataSegment.setOffset(offset);
 			dataSegment.setLength(0);
-			storeRestart(info);
 		}
+		segmentUpdated(info, dataSegment);
 
 	}
 
+	/**
+	 * Called after the offset or length of a segment of a stored restart
+	 * changes, without a lock on this manager. The default stores the whole
+	 * restart again. Managers that hold the stored
+	 * <code>FileRestartInfo</code> itself, or that can save one segment
+	 * cheaply, should override this, as it is called by every parallel
+	 * transfer thread after each buffer.
+	 *
+	 * @param fileRestartInfo
+	 *            {@link FileRestartInfo} holding the segment
+	 * @param fileRestartDataSegment
+	 *            {@link FileRestartDataSegment} that changed, read its values
+	 *            while holding its lock
+	 * @throws FileRestartManagementException
+	 */
+	protected void segmentUpdated(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment)
+			throws FileRestartManagementException {
+		storeRestart(fileRestartInfo);
+	}
+
 	/**
 	 * Store the restart information
 	 *
@@ -0,0 +1,446 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Learns the number of threads and the copy buffer size that give the best
+ * throughput for parallel transfers, for each host and range of file sizes,
+ * and sets them in the {@link TransferOptions} of later transfers.
+ * <p/>
+ * File sizes are grouped into ranges that grow by a factor of four. For each
+ * host and range the tuner starts from the most threads allowed and the
+ * default buffer size, and measures each transfer through a
+ * {@link TransferThroughputMeasurement}. It then tries one neighbour of the
+ * best setting so far at a time (one thread fewer or more, half or twice the
+ * buffer), and settles on the best setting once all of its neighbours have
+ * been tried. Throughput is smoothed over transfers, and neighbours are tried
+ * again after {@link #STALE_AFTER_TRANSFERS} transfers, so the tuner follows
+ * changes in the network or the server.
+ * <p/>
+ * Concurrent transfers to one host share its bandwidth, so measurements taken
+ * during a concurrent recursive transfer favour fewer threads than a lone
+ * transfer would.
+ * <p/>
+ * This object is thread safe, and is meant to be shared, typically through
+ * {@link org.irods.jargon.core.connection.IRODSSession#getAdaptiveTransferTuner()}
+ * .
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class AdaptiveTransferTuner {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(AdaptiveTransferTuner.class);
+
+	/**
+	 * Smallest copy buffer size that is tried
+	 */
+	public static final int MIN_COPY_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Largest copy buffer size that is tried
+	 */
+	public static final int MAX_COPY_BUFFER_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * Number of transfers in a profile after which a neighbouring setting is
+	 * tried again
+	 */
+	public static final int STALE_AFTER_TRANSFERS = 32;
+
+	/**
+	 * Weight of the newest measurement in the smoothed throughput of a setting
+	 */
+	private static final double SMOOTHING = 0.3;
+
+	private final int maxThreads;
+	private final int defaultCopyBufferSize;
+	private final Map<String, Profile> profiles = new LinkedHashMap<String, Profile>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxThreads
+	 *            <code>int</code> with the most threads that are tried
+	 * @param defaultCopyBufferSize
+	 *            <code>int</code> with the copy buffer size tried first
+	 */
+	public AdaptiveTransferTuner(final int maxThreads,
+			final int defaultCopyBufferSize) {
+
+		if (maxThreads < 1) {
+			throw new IllegalArgumentException("maxThreads must be at least 1");
+		}
+
+		if (defaultCopyBufferSize <= 0) {
+			throw new IllegalArgumentException(
+					"defaultCopyBufferSize must be greater than zero");
+		}
+
+		this.maxThreads = maxThreads;
+		this.defaultCopyBufferSize = Math.min(
+				Math.max(defaultCopyBufferSize, MIN_COPY_BUFFER_SIZE),
+				MAX_COPY_BUFFER_SIZE);
+	}
+
+	/**
+	 * Set the number of threads and the copy buffer size for the next
+	 * parallel transfer of a file. Options that turn off parallel transfers,
+	 * and files too small for a parallel transfer, are left alone. A thread
+	 * cap already in the options is respected.
+	 *
+	 * @param host
+	 *            <code>String</code> with the iRODS host of the transfer
+	 * @param transferLength
+	 *            <code>long</code> with the length of the file
+	 * @param transferOptions
+	 *            {@link TransferOptions} for this file only, which are
+	 *            updated
+	 */
+	public synchronized void tuneTransferOptions(final String host,
+			final long transferLength, final TransferOptions transferOptions) {
+
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+
+		if (transferOptions == null) {
+			throw new IllegalArgumentException("null transferOptions");
+		}
+
+		if (!transferOptions.isUseParallelTransfer()
+				|| transferOptions.getMaxThreads() < 0
+				|| transferLength <= ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			return;
+		}
+
+		int threadCeiling = maxThreads;
+		if (transferOptions.getMaxThreads() > 0) {
+			threadCeiling = Math.min(threadCeiling,
+					transferOptions.getMaxThreads());
+		}
+
+		Setting setting = profileFor(host, transferLength).nextSetting(
+				threadCeiling);
+		log.debug("tuned setting for host:{} is {}", host, setting);
+		transferOptions.setMaxThreads(setting.numberOfThreads);
+		transferOptions.setParallelCopyBufferSize(setting.copyBufferSize);
+	}
+
+	/**
+	 * Start measuring a parallel transfer. Give the measurement to the
+	 * transfer with
+	 * {@link AbstractParallelFileTransferStrategy#measureThroughput(TransferThroughputMeasurement)}
+	 * , and call {@link TransferThroughputMeasurement#complete()} when it
+	 * succeeds.
+	 *
+	 * @param host
+	 *            <code>String</code> with the iRODS host, as given to
+	 *            {@link #tuneTransferOptions(String, long, TransferOptions)}
+	 * @param transferLength
+	 *            <code>long</code> with the length of the file
+	 * @param numberOfThreads
+	 *            <code>int</code> with the number of threads iRODS granted
+	 * @param copyBufferSize
+	 *            <code>int</code> with the copy buffer size of each thread,
+	 *            or 0 for the default
+	 * @return {@link TransferThroughputMeasurement}
+	 */
+	public TransferThroughputMeasurement startMeasurement(final String host,
+			final long transferLength, final int numberOfThreads,
+			final int copyBufferSize) {
+
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException(
+					"numberOfThreads must be at least 1");
+		}
+
+		return new TransferThroughputMeasurement(this, host, transferLength,
+				numberOfThreads, copyBufferSize > 0 ? copyBufferSize
+						: defaultCopyBufferSize);
+	}
+
+	synchronized void recordMeasurement(
+			final TransferThroughputMeasurement measurement,
+			final long bytesTransferred, final long elapsedNanos) {
+
+		if (elapsedNanos <= 0 || bytesTransferred <= 0) {
+			return;
+		}
+
+		double bytesPerSecond = bytesTransferred * 1000000000.0 / elapsedNanos;
+		log.debug("measured {} bytes per second for {}",
+				(long) bytesPerSecond, measurement);
+		profileFor(measurement.getHost(), measurement.getTransferLength())
+				.record(new Setting(measurement.getNumberOfThreads(),
+						measurement.getCopyBufferSize()), bytesPerSecond);
+	}
+
+	/**
+	 * Get what has been learned for each host and range of file sizes
+	 *
+	 * @return <code>List</code> of {@link TransferTuningProfile}, in the order
+	 *         the profiles were first used, leaving out profiles with no
+	 *         measurements
+	 */
+	public synchronized List<TransferTuningProfile> getProfiles() {
+		List<TransferTuningProfile> tuningProfiles = new ArrayList<TransferTuningProfile>();
+		for (Profile profile : profiles.values()) {
+			TransferTuningProfile tuningProfile = profile.snapshot();
+			if (tuningProfile != null) {
+				tuningProfiles.add(tuningProfile);
+			}
+		}
+		return tuningProfiles;
+	}
+
+	/**
+	 * Get what has been learned for transfers of a file to or from a host
+	 *
+	 * @param host
+	 *            <code>String</code> with the iRODS host
+	 * @param transferLength
+	 *            <code>long</code> with the length of the file
+	 * @return {@link TransferTuningProfile}, or <code>null</code> if no such
+	 *         transfer has been measured
+	 */
+	public synchronized TransferTuningProfile getProfile(final String host,
+			final long transferLength) {
+		Profile profile = profiles.get(profileKey(host,
+				sizeBucket(transferLength)));
+		if (profile == null) {
+			return null;
+		}
+		return profile.snapshot();
+	}
+
+	/**
+	 * Forget everything learned
+	 */
+	public synchronized void clear() {
+		profiles.clear();
+	}
+
+	/**
+	 * @return <code>int</code> with the most threads that are tried
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the copy buffer size tried first
+	 */
+	public int getDefaultCopyBufferSize() {
+		return defaultCopyBufferSize;
+	}
+
+	private Profile profileFor(final String host, final long transferLength) {
+		int sizeBucket = sizeBucket(transferLength);
+		String key = profileKey(host, sizeBucket);
+		Profile profile = profiles.get(key);
+		if (profile == null) {
+			profile = new Profile(host, sizeBucket);
+			profiles.put(key, profile);
+		}
+		return profile;
+	}
+
+	private static String profileKey(final String host, final int sizeBucket) {
+		return host + '#' + sizeBucket;
+	}
+
+	/**
+	 * Size ranges grow by a factor of four, bucket n holds lengths from 4^n up
+	 * to 4^(n+1)
+	 */
+	static int sizeBucket(final long transferLength) {
+		return (63 - Long.numberOfLeadingZeros(Math.max(transferLength, 1L))) / 2;
+	}
+
+	private static long bucketStart(final int sizeBucket) {
+		return 1L << (sizeBucket * 2);
+	}
+
+	private static long bucketEnd(final int sizeBucket) {
+		int shift = sizeBucket * 2 + 2;
+		return shift >= 63 ? Long.MAX_VALUE : 1L << shift;
+	}
+
+	/**
+	 * A thread count and copy buffer size
+	 */
+	private static final class Setting {
+		private final int numberOfThreads;
+		private final int copyBufferSize;
+
+		Setting(final int numberOfThreads, final int copyBufferSize) {
+			this.numberOfThreads = numberOfThreads;
+			this.copyBufferSize = copyBufferSize;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Setting)) {
+				return false;
+			}
+			Setting other = (Setting) obj;
+			return numberOfThreads == other.numberOfThreads
+					&& copyBufferSize == other.copyBufferSize;
+		}
+
+		@Override
+		public int hashCode() {
+			return numberOfThreads * 31 + copyBufferSize;
+		}
+
+		@Override
+		public String toString() {
+			return "Setting [numberOfThreads=" + numberOfThreads
+					+ ", copyBufferSize=" + copyBufferSize + "]";
+		}
+	}
+
+	/**
+	 * What is known of one setting in a profile
+	 */
+	private static final class SettingHistory {
+		private double bytesPerSecond = 0;
+		private int measurementCount = 0;
+		private int lastTried = -1;
+	}
+
+	/**
+	 * Settings tried and measured for one host and size range
+	 */
+	private final class Profile {
+		private final String host;
+		private final int sizeBucket;
+		private final Map<Setting, SettingHistory> history = new HashMap<Setting, SettingHistory>();
+		private int transferCount = 0;
+		private int measurementCount = 0;
+
+		Profile(final String host, final int sizeBucket) {
+			this.host = host;
+			this.sizeBucket = sizeBucket;
+		}
+
+		Setting nextSetting(final int threadCeiling) {
+			Setting best = best(threadCeiling);
+			if (best == null) {
+				best = new Setting(threadCeiling, defaultCopyBufferSize);
+			}
+
+			Setting next = best;
+			if (history.containsKey(best)) {
+				for (Setting neighbour : neighbours(best, threadCeiling)) {
+					SettingHistory neighbourHistory = history.get(neighbour);
+					if (neighbourHistory == null
+							|| transferCount - neighbourHistory.lastTried > STALE_AFTER_TRANSFERS) {
+						next = neighbour;
+						break;
+					}
+				}
+			}
+
+			historyFor(next).lastTried = transferCount;
+			transferCount++;
+			return next;
+		}
+
+		void record(final Setting setting, final double bytesPerSecond) {
+			SettingHistory settingHistory = historyFor(setting);
+			if (settingHistory.measurementCount == 0) {
+				settingHistory.bytesPerSecond = bytesPerSecond;
+			} else {
+				settingHistory.bytesPerSecond = SMOOTHING * bytesPerSecond
+						+ (1 - SMOOTHING) * settingHistory.bytesPerSecond;
+			}
+			settingHistory.measurementCount++;
+			measurementCount++;
+		}
+
+		TransferTuningProfile snapshot() {
+			Setting best = best(Integer.MAX_VALUE);
+			if (best == null) {
+				return null;
+			}
+
+			int settingsMeasured = 0;
+			for (SettingHistory settingHistory : history.values()) {
+				if (settingHistory.measurementCount > 0) {
+					settingsMeasured++;
+				}
+			}
+
+			return new TransferTuningProfile(host, bucketStart(sizeBucket),
+					bucketEnd(sizeBucket), best.numberOfThreads,
+					best.copyBufferSize,
+					(long) history.get(best).bytesPerSecond, measurementCount,
+					settingsMeasured);
+		}
+
+		private Setting best(final int threadCeiling) {
+			Setting best = null;
+			double bestBytesPerSecond = -1;
+			for (Map.Entry<Setting, SettingHistory> entry : history.entrySet()) {
+				if (entry.getValue().measurementCount > 0
+						&& entry.getKey().numberOfThreads <= threadCeiling
+						&& entry.getValue().bytesPerSecond > bestBytesPerSecond) {
+					best = entry.getKey();
+					bestBytesPerSecond = entry.getValue().bytesPerSecond;
+				}
+			}
+			return best;
+		}
+
+		private List<Setting> neighbours(final Setting setting,
+				final int threadCeiling) {
+			List<Setting> neighbours = new ArrayList<Setting>(4);
+			if (setting.numberOfThreads > 1) {
+				neighbours.add(new Setting(setting.numberOfThreads - 1,
+						setting.copyBufferSize));
+			}
+			if (setting.numberOfThreads < threadCeiling) {
+				neighbours.add(new Setting(setting.numberOfThreads + 1,
+						setting.copyBufferSize));
+			}
+			if (setting.copyBufferSize * 2L <= MAX_COPY_BUFFER_SIZE) {
+				neighbours.add(new Setting(setting.numberOfThreads,
+						setting.copyBufferSize * 2));
+			}
+			if (setting.copyBufferSize / 2 >= MIN_COPY_BUFFER_SIZE) {
+				neighbours.add(new Setting(setting.numberOfThreads,
+						setting.copyBufferSize / 2));
+			}
+			return neighbours;
+		}
+
+		private SettingHistory historyFor(final Setting setting) {
+			SettingHistory settingHistory = history.get(setting);
+			if (settingHistory == null) {
+				settingHistory = new SettingHistory();
+				history.put(setting, settingHistory);
+			}
+			return settingHistory;
+		}
+	}
+
+}
@@ -0,0 +1,813 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartStatus;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restart manager that keeps restart information in an append-only journal
+ * file, so that long file restarts survive a restart of the JVM. The journal
+ * is read back when the manager is created.
+ * <p/>
+ * Storing, deleting and counting restarts write to the journal and force it
+ * to disk before returning. Segment updates, which come from every parallel
+ * thread after each buffer, only mark the segment as changed. A background
+ * thread writes the latest offset and length of each changed segment every
+ * flush interval, so a crash loses at most that interval of progress, and the
+ * restart sends those bytes again.
+ * <p/>
+ * Each record carries its length and a CRC, and a torn record at the end of
+ * the journal, from a crash during a write, is dropped on reading. When the
+ * journal grows past the compaction threshold, and to twice its size after the
+ * last compaction, it is rewritten with one record per stored restart and
+ * swapped in with a rename.
+ * <p/>
+ * A journal is used by one manager at a time. The manager holds an exclusive
+ * lock on a <code>.lock</code> file next to the journal until it is closed, and
+ * creating a second manager on the same journal, in this JVM or another, fails
+ * with a <code>FileRestartManagementException</code>. Call {@link #close()} to
+ * write any pending segment updates, stop the flush thread and release the
+ * journal.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class FileBasedTransferRestartManager extends AbstractRestartManager {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(FileBasedTransferRestartManager.class);
+
+	/**
+	 * Default milliseconds between writes of changed segments
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * Default journal size in bytes before it is compacted
+	 */
+	public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 4 * 1024 * 1024;
+
+	private static final byte RECORD_STORE = 1;
+	private static final byte RECORD_SEGMENT = 2;
+	private static final byte RECORD_DELETE = 3;
+
+	/**
+	 * Payload length and CRC before each record
+	 */
+	private static final int RECORD_HEADER_LENGTH = 8;
+
+	private final File journalFile;
+	private final long compactionThresholdBytes;
+	private final ConcurrentHashMap<FileRestartInfoIdentifier, FileRestartInfo> restarts = new ConcurrentHashMap<FileRestartInfoIdentifier, FileRestartInfo>();
+
+	/**
+	 * Segments changed since the last flush, with the restart that holds them.
+	 * Segments do not override equals, so they are keyed by identity.
+	 */
+	private final ConcurrentHashMap<FileRestartDataSegment, FileRestartInfo> dirtySegments = new ConcurrentHashMap<FileRestartDataSegment, FileRestartInfo>();
+
+	private final Object journalLock = new Object();
+	private final FileChannel lockChannel;
+	private FileChannel journal;
+	private long journalLength = 0;
+	private long compactedLength = 0;
+	private final ScheduledExecutorService flusher;
+
+	/**
+	 * Open or create a journal, with the default flush interval and compaction
+	 * threshold
+	 *
+	 * @param journalFile
+	 *            <code>File</code> with the journal
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or created, or is in use by
+	 *             another manager
+	 */
+	public FileBasedTransferRestartManager(final File journalFile)
+			throws FileRestartManagementException {
+		this(journalFile, DEFAULT_FLUSH_INTERVAL_MILLIS,
+				DEFAULT_COMPACTION_THRESHOLD_BYTES);
+	}
+
+	/**
+	 * Open or create a journal
+	 *
+	 * @param journalFile
+	 *            <code>File</code> with the journal
+	 * @param flushIntervalMillis
+	 *            <code>long</code> with the milliseconds between writes of
+	 *            changed segments
+	 * @param compactionThresholdBytes
+	 *            <code>long</code> with the journal size in bytes before it is
+	 *            compacted
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or created, or is in use by
+	 *             another manager
+	 */
+	public FileBasedTransferRestartManager(final File journalFile,
+			final long flushIntervalMillis, final long compactionThresholdBytes)
+			throws FileRestartManagementException {
+
+		if (journalFile == null) {
+			throw new IllegalArgumentException("null journalFile");
+		}
+
+		if (flushIntervalMillis <= 0) {
+			throw new IllegalArgumentException(
+					"flushIntervalMillis must be greater than zero");
+		}
+
+		if (compactionThresholdBytes <= 0) {
+			throw new IllegalArgumentException(
+					"compactionThresholdBytes must be greater than zero");
+		}
+
+		log.info("opening restart journal:{}", journalFile);
+		this.journalFile = journalFile;
+		this.compactionThresholdBytes = compactionThresholdBytes;
+
+		File parent = journalFile.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+
+		/*
+		 * the journal is replaced on compaction, so the lock is held on a file
+		 * that stays put
+		 */
+		try {
+			lockChannel = new RandomAccessFile(lockFile(), "rw").getChannel();
+		} catch (IOException e) {
+			log.error("unable to open restart journal lock", e);
+			throw new FileRestartManagementException(
+					"unable to open restart journal lock", e);
+		}
+		FileLock ownerLock;
+		try {
+			ownerLock = tryLock(lockChannel);
+		} catch (FileRestartManagementException e) {
+			closeLockChannel();
+			throw e;
+		}
+		if (ownerLock == null) {
+			closeLockChannel();
+			log.warn("restart journal is in use:{}", journalFile);
+			throw new FileRestartManagementException(
+					"restart journal is in use by another manager:"
+							+ journalFile);
+		}
+
+		// left by a crash during compaction, the journal itself is intact
+		compactionFile().delete();
+
+		synchronized (journalLock) {
+			try {
+				journal = new RandomAccessFile(journalFile, "rw").getChannel();
+				replay();
+				compactedLength = journalLength;
+				compactIfNeeded();
+			} catch (IOException e) {
+				log.error("unable to open restart journal", e);
+				if (journal != null) {
+					try {
+						journal.close();
+					} catch (IOException e2) {
+						log.warn("error closing restart journal", e2);
+					}
+					journal = null;
+				}
+				closeLockChannel();
+				throw new FileRestartManagementException(
+						"unable to open restart journal", e);
+			}
+		}
+
+		log.info("restarts read from journal:{}", restarts.size());
+
+		flusher = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"jargon-restart-journal");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		flusher.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					flush();
+				} catch (FileRestartManagementException e) {
+					log.error("unable to write segment updates to journal", e);
+				}
+			}
+		}, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#storeRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfoIdentifier storeRestart(
+			final FileRestartInfo fileRestartInfo)
+			throws FileRestartManagementException {
+
+		log.info("storeRestart()");
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		FileRestartInfoIdentifier identifier = FileRestartInfoIdentifier
+				.instanceFromFileRestartInfo(fileRestartInfo);
+
+		synchronized (journalLock) {
+			restarts.put(identifier, fileRestartInfo);
+			writeAndForce(storeRecord(identifier, fileRestartInfo));
+		}
+		return identifier;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#deleteRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public void deleteRestart(
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.info("deleteRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		synchronized (journalLock) {
+			if (restarts.remove(fileRestartInfoIdentifier) != null) {
+				writeAndForce(deleteRecord(fileRestartInfoIdentifier));
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#retrieveRestart
+	 * (org.irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public FileRestartInfo retrieveRestart(
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.debug("retrieveRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+		return restarts.get(fileRestartInfoIdentifier);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#updateSegment(org
+	 * .irods.jargon.core.transfer.FileRestartInfo,
+	 * org.irods.jargon.core.transfer.FileRestartDataSegment)
+	 */
+	@Override
+	public void updateSegment(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment)
+			throws FileRestartManagementException {
+
+		log.info("updateSegment()");
+
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		if (fileRestartDataSegment == null) {
+			throw new IllegalArgumentException("null fileRestartDataSegment");
+		}
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo
+					.identifierFromThisInfo());
+			if (actualRestartInfo == null
+					|| actualRestartInfo.getFileRestartDataSegments().size() <= fileRestartDataSegment
+							.getThreadNumber()) {
+				log.error(
+						"fileRestartInfo does not contain the given segment:{}",
+						fileRestartInfo);
+				throw new FileRestartManagementException(
+						"unable to find segment");
+			}
+
+			actualRestartInfo.getFileRestartDataSegments().set(
+					fileRestartDataSegment.getThreadNumber(),
+					fileRestartDataSegment);
+			storeRestart(actualRestartInfo);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#
+	 * incrementRestartAttempts(org.irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfo incrementRestartAttempts(
+			final FileRestartInfo fileRestartInfo)
+			throws RestartFailedException, FileRestartManagementException {
+
+		log.info("incrementRestartAttempts()");
+		if (fileRestartInfo == null) {
+			log.info("no restart to increment, returning null");
+			return null;
+		}
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo
+					.identifierFromThisInfo());
+			if (actualRestartInfo == null) {
+				log.error("nothing to increment!");
+				return null;
+			}
+			int currentRestarts = actualRestartInfo.getNumberRestarts() + 1;
+			if (currentRestarts > ConnectionConstants.MAX_FILE_RESTART_ATTEMPTS) {
+				log.error("violates max restart attempts, go ahead and fail the restart attempt");
+				throw new RestartFailedException(
+						"restart failed with too many attempts");
+			}
+			actualRestartInfo.setNumberRestarts(currentRestarts);
+			storeRestart(actualRestartInfo);
+			return fileRestartInfo;
+		}
+	}
+
+	/**
+	 * Mark the segment as changed, it is written by the next flush
+	 */
+	@Override
+	protected void segmentUpdated(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment) {
+		dirtySegments.put(fileRestartDataSegment, fileRestartInfo);
+	}
+
+	/**
+	 * Write the latest values of the changed segments to the journal, and
+	 * force it to disk. This is done every flush interval, and need only be
+	 * called to make sure progress is saved at a given point.
+	 *
+	 * @throws FileRestartManagementException
+	 */
+	public void flush() throws FileRestartManagementException {
+
+		synchronized (journalLock) {
+			if (journal == null) {
+				return;
+			}
+
+			boolean written = false;
+			Iterator<Map.Entry<FileRestartDataSegment, FileRestartInfo>> iterator = dirtySegments
+					.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<FileRestartDataSegment, FileRestartInfo> entry = iterator
+						.next();
+				/*
+				 * removed before reading, so an update made while this record
+				 * is written marks the segment again
+				 */
+				iterator.remove();
+				FileRestartDataSegment segment = entry.getKey();
+				FileRestartInfoIdentifier identifier = entry.getValue()
+						.identifierFromThisInfo();
+
+				if (restarts.get(identifier) != entry.getValue()) {
+					// deleted, or stored again, since the update
+					continue;
+				}
+
+				long offset;
+				long length;
+				synchronized (segment) {
+					offset = segment.getOffset();
+					length = segment.getLength();
+				}
+				write(segmentRecord(identifier, segment.getThreadNumber(),
+						offset, length));
+				written = true;
+			}
+
+			if (written) {
+				force();
+				compactIfNeeded();
+			}
+		}
+	}
+
+	/**
+	 * Write any pending segment updates, close the journal and release its
+	 * lock. The manager may not be used afterwards, and closing it again does
+	 * nothing.
+	 *
+	 * @throws FileRestartManagementException
+	 */
+	public void close() throws FileRestartManagementException {
+		log.info("closing restart journal:{}", journalFile);
+		flusher.shutdown();
+		flush();
+		synchronized (journalLock) {
+			if (journal != null) {
+				try {
+					journal.close();
+				} catch (IOException e) {
+					throw new FileRestartManagementException(
+							"unable to close restart journal", e);
+				} finally {
+					journal = null;
+					closeLockChannel();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return <code>File</code> with the journal
+	 */
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	/**
+	 * @return <code>long</code> with the current size of the journal in bytes
+	 */
+	public long getJournalLength() {
+		synchronized (journalLock) {
+			return journalLength;
+		}
+	}
+
+	private File compactionFile() {
+		return new File(journalFile.getAbsolutePath() + ".compact");
+	}
+
+	private File lockFile() {
+		return new File(journalFile.getAbsolutePath() + ".lock");
+	}
+
+	/**
+	 * @return <code>FileLock</code> that is held, or <code>null</code> if
+	 *         another manager, in this JVM or another, holds it
+	 */
+	private static FileLock tryLock(final FileChannel channel)
+			throws FileRestartManagementException {
+		try {
+			return channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			return null;
+		} catch (IOException e) {
+			log.error("unable to lock restart journal", e);
+			throw new FileRestartManagementException(
+					"unable to lock restart journal", e);
+		}
+	}
+
+	/**
+	 * Closing the channel releases the lock
+	 */
+	private void closeLockChannel() {
+		try {
+			lockChannel.close();
+		} catch (IOException e) {
+			log.warn("error closing restart journal lock", e);
+		}
+	}
+
+	/**
+	 * Read the journal into the map of restarts, and cut off a torn record at
+	 * the end
+	 */
+	private void replay() throws IOException {
+		long fileLength = journal.size();
+		long position = 0;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(journalFile)));
+		try {
+			while (fileLength - position >= RECORD_HEADER_LENGTH) {
+				int payloadLength = in.readInt();
+				int crc = in.readInt();
+				if (payloadLength <= 0
+						|| payloadLength > fileLength - position
+								- RECORD_HEADER_LENGTH) {
+					break;
+				}
+				byte[] payload = new byte[payloadLength];
+				in.readFully(payload);
+				if (crcOf(payload) != crc) {
+					break;
+				}
+				apply(payload);
+				position += RECORD_HEADER_LENGTH + payloadLength;
+			}
+		} catch (EOFException e) {
+			// torn record, handled below
+		} finally {
+			in.close();
+		}
+
+		if (position < fileLength) {
+			log.warn("dropping {} bytes of incomplete record from journal",
+					fileLength - position);
+			journal.truncate(position);
+			journal.force(true);
+		}
+
+		journalLength = position;
+		journal.position(journalLength);
+	}
+
+	private void apply(final byte[] payload) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				payload));
+		byte type = in.readByte();
+		FileRestartInfoIdentifier identifier = readIdentifier(in);
+
+		if (type == RECORD_STORE) {
+			FileRestartInfo info = new FileRestartInfo();
+			info.setIrodsAccountIdentifier(identifier
+					.getIrodsAccountIdentifier());
+			info.setIrodsAbsolutePath(identifier.getAbsolutePath());
+			info.setRestartType(identifier.getRestartType());
+			info.setLocalAbsolutePath(in.readUTF());
+			info.setRestartStatus(RestartStatus.valueOf(in.readUTF()));
+			info.setNumberRestarts(in.readInt());
+			int segmentCount = in.readInt();
+			List<FileRestartDataSegment> segments = new ArrayList<FileRestartDataSegment>(
+					segmentCount);
+			for (int i = 0; i < segmentCount; i++) {
+				FileRestartDataSegment segment = new FileRestartDataSegment(
+						in.readInt());
+				segment.setOffset(in.readLong());
+				segment.setLength(in.readLong());
+				segments.add(segment);
+			}
+			info.setFileRestartDataSegments(segments);
+			restarts.put(identifier, info);
+
+		} else if (type == RECORD_SEGMENT) {
+			int threadNumber = in.readInt();
+			long offset = in.readLong();
+			long length = in.readLong();
+			FileRestartInfo info = restarts.get(identifier);
+			if (info != null
+					&& threadNumber < info.getFileRestartDataSegments().size()) {
+				FileRestartDataSegment segment = info
+						.getFileRestartDataSegments().get(threadNumber);
+				segment.setOffset(offset);
+				segment.setLength(length);
+			}
+
+		} else if (type == RECORD_DELETE) {
+			restarts.remove(identifier);
+
+		} else {
+			throw new IOException("unknown journal record type:" + type);
+		}
+	}
+
+	/**
+	 * Rewrite the journal with one record per restart, if it has grown enough
+	 */
+	private void compactIfNeeded() throws FileRestartManagementException {
+
+		if (journalLength <= compactionThresholdBytes
+				|| journalLength <= compactedLength * 2) {
+			return;
+		}
+
+		log.info("compacting restart journal of {} bytes", journalLength);
+		File compactionFile = compactionFile();
+
+		try {
+			FileChannel compacted = new RandomAccessFile(compactionFile, "rw")
+					.getChannel();
+			long compactedSize = 0;
+			try {
+				compacted.truncate(0);
+				for (Map.Entry<FileRestartInfoIdentifier, FileRestartInfo> entry : restarts
+						.entrySet()) {
+					compactedSize += writeRecord(compacted,
+							storeRecord(entry.getKey(), entry.getValue()));
+				}
+				compacted.force(true);
+			} finally {
+				compacted.close();
+			}
+
+			journal.close();
+			journal = null;
+			try {
+				Files.move(compactionFile.toPath(), journalFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(compactionFile.toPath(), journalFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			journal = new RandomAccessFile(journalFile, "rw").getChannel();
+			journalLength = compactedSize;
+			compactedLength = compactedSize;
+			journal.position(journalLength);
+			log.info("restart journal compacted to {} bytes", journalLength);
+
+		} catch (IOException e) {
+			log.error("unable to compact restart journal", e);
+			throw new FileRestartManagementException(
+					"unable to compact restart journal", e);
+		}
+	}
+
+	private void writeAndForce(final byte[] payload)
+			throws FileRestartManagementException {
+		write(payload);
+		force();
+		compactIfNeeded();
+	}
+
+	private void write(final byte[] payload)
+			throws FileRestartManagementException {
+		if (journal == null) {
+			throw new FileRestartManagementException(
+					"restart journal is closed");
+		}
+
+		try {
+			journalLength += writeRecord(journal, payload);
+		} catch (IOException e) {
+			log.error("unable to write to restart journal", e);
+			throw new FileRestartManagementException(
+					"unable to write to restart journal", e);
+		}
+	}
+
+	private void force() throws FileRestartManagementException {
+		try {
+			journal.force(false);
+		} catch (IOException e) {
+			log.error("unable to force restart journal to disk", e);
+			throw new FileRestartManagementException(
+					"unable to force restart journal to disk", e);
+		}
+	}
+
+	private static int writeRecord(final FileChannel channel,
+			final byte[] payload) throws IOException {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH
+				+ payload.length);
+		record.putInt(payload.length);
+		record.putInt(crcOf(payload));
+		record.put(payload);
+		record.flip();
+		while (record.hasRemaining()) {
+			channel.write(record);
+		}
+		return RECORD_HEADER_LENGTH + payload.length;
+	}
+
+	private static int crcOf(final byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private static byte[] storeRecord(
+			final FileRestartInfoIdentifier identifier,
+			final FileRestartInfo info) throws FileRestartManagementException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(RECORD_STORE);
+			writeIdentifier(out, identifier);
+			out.writeUTF(nullToEmpty(info.getLocalAbsolutePath()));
+			out.writeUTF(info.getRestartStatus().name());
+			out.writeInt(info.getNumberRestarts());
+			List<FileRestartDataSegment> segments = info
+					.getFileRestartDataSegments();
+			out.writeInt(segments.size());
+			for (FileRestartDataSegment segment : segments) {
+				synchronized (segment) {
+					out.writeInt(segment.getThreadNumber());
+					out.writeLong(segment.getOffset());
+					out.writeLong(segment.getLength());
+				}
+			}
+			out.close();
+		} catch (IOException e) {
+			throw new FileRestartManagementException(
+					"unable to build journal record", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] segmentRecord(
+			final FileRestartInfoIdentifier identifier, final int threadNumber,
+			final long offset, final long length)
+			throws FileRestartManagementException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(RECORD_SEGMENT);
+			writeIdentifier(out, identifier);
+			out.writeInt(threadNumber);
+			out.writeLong(offset);
+			out.writeLong(length);
+			out.close();
+		} catch (IOException e) {
+			throw new FileRestartManagementException(
+					"unable to build journal record", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] deleteRecord(
+			final FileRestartInfoIdentifier identifier)
+			throws FileRestartManagementException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(RECORD_DELETE);
+			writeIdentifier(out, identifier);
+			out.close();
+		} catch (IOException e) {
+			throw new FileRestartManagementException(
+					"unable to build journal record", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeIdentifier(final DataOutputStream out,
+			final FileRestartInfoIdentifier identifier) throws IOException {
+		out.writeUTF(nullToEmpty(identifier.getIrodsAccountIdentifier()));
+		out.writeUTF(nullToEmpty(identifier.getAbsolutePath()));
+		out.writeUTF(identifier.getRestartType().name());
+	}
+
+	private static FileRestartInfoIdentifier readIdentifier(
+			final DataInputStream in) throws IOException {
+		FileRestartInfoIdentifier identifier = new FileRestartInfoIdentifier();
+		identifier.setIrodsAccountIdentifier(in.readUTF());
+		identifier.setAbsolutePath(in.readUTF());
+		identifier.setRestartType(RestartType.valueOf(in.readUTF()));
+		return identifier;
+	}
+
+	private static String nullToEmpty(final String value) {
+		return value == null ? "" : value;
+	}
+
+}
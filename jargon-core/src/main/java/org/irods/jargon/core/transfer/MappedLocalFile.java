@@ -0,0 +1,241 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local file accessed through <code>MappedByteBuffer</code> windows, used by
+ * parallel transfer threads when the
+ * {@link org.irods.jargon.core.packinstr.TransferOptions.LocalFileIOStrategy}
+ * is <code>MEMORY_MAPPED</code>. Socket bytes are read straight into the mapped
+ * window on a get, and written straight from it on a put, so no heap buffer
+ * sits between the socket and the file.
+ * <p/>
+ * Each thread opens its own instance and maps one window at a time, aligned
+ * on the window size. Instances are not thread safe. Mapped memory is
+ * released when the garbage collector finds the old windows, and some
+ * platforms will not delete the file until then.
+ * <p/>
+ * This is used internally by the parallel transfer threads.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class MappedLocalFile {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(MappedLocalFile.class);
+
+	/**
+	 * Default size of a mapped window, 64MB
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private final RandomAccessFile randomAccessFile;
+	private final FileChannel fileChannel;
+	private final FileChannel.MapMode mapMode;
+	private final int windowSize;
+	private MappedByteBuffer window = null;
+	private long windowStart = -1;
+
+	/**
+	 * Open a local file to be written by a parallel get
+	 *
+	 * @param localFile
+	 *            <code>File</code> to write, which is created if needed
+	 * @param windowSize
+	 *            <code>int</code> with the size of each mapped window
+	 * @return <code>MappedLocalFile</code>
+	 * @throws IOException
+	 */
+	public static MappedLocalFile instanceForWrite(final File localFile,
+			final int windowSize) throws IOException {
+		return new MappedLocalFile(localFile, FileChannel.MapMode.READ_WRITE,
+				windowSize);
+	}
+
+	/**
+	 * Open a local file to be read by a parallel put
+	 *
+	 * @param localFile
+	 *            <code>File</code> to read
+	 * @param windowSize
+	 *            <code>int</code> with the size of each mapped window
+	 * @return <code>MappedLocalFile</code>
+	 * @throws IOException
+	 */
+	public static MappedLocalFile instanceForRead(final File localFile,
+			final int windowSize) throws IOException {
+		return new MappedLocalFile(localFile, FileChannel.MapMode.READ_ONLY,
+				windowSize);
+	}
+
+	/**
+	 * Set the length of a local file before a parallel get, so that the
+	 * threads map windows of a file that is already its full size rather than
+	 * each growing it
+	 *
+	 * @param localFile
+	 *            <code>File</code> to size, which is created if needed
+	 * @param length
+	 *            <code>long</code> with the length of the transfer
+	 * @throws IOException
+	 */
+	public static void presize(final File localFile, final long length)
+			throws IOException {
+		if (localFile == null) {
+			throw new IllegalArgumentException("null localFile");
+		}
+
+		if (length < 0) {
+			throw new IllegalArgumentException("negative length");
+		}
+
+		RandomAccessFile sizer = new RandomAccessFile(localFile, "rw");
+		try {
+			log.info("presizing local file to:{}", length);
+			sizer.setLength(length);
+		} finally {
+			sizer.close();
+		}
+	}
+
+	private MappedLocalFile(final File localFile,
+			final FileChannel.MapMode mapMode, final int windowSize)
+					throws IOException {
+		if (localFile == null) {
+			throw new IllegalArgumentException("null localFile");
+		}
+
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive");
+		}
+
+		randomAccessFile = new RandomAccessFile(localFile,
+				mapMode == FileChannel.MapMode.READ_ONLY ? "r" : "rw");
+		fileChannel = randomAccessFile.getChannel();
+		this.mapMode = mapMode;
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Read from the source channel into the file until <code>length</code>
+	 * bytes are read or the source ends
+	 *
+	 * @param src
+	 *            <code>ReadableByteChannel</code>, which must be blocking
+	 * @param offset
+	 *            <code>long</code> with the file offset to write at
+	 * @param length
+	 *            <code>long</code> with the number of bytes to read
+	 * @return <code>long</code> with the number of bytes read, which is less
+	 *         than <code>length</code> only if the source ended
+	 * @throws IOException
+	 */
+	public long readFrom(final ReadableByteChannel src, final long offset,
+			final long length) throws IOException {
+		if (mapMode == FileChannel.MapMode.READ_ONLY) {
+			throw new IllegalStateException("file is open for reading");
+		}
+
+		long count = 0;
+		while (count < length) {
+			ByteBuffer target = windowFor(offset + count, length - count);
+			while (target.hasRemaining()) {
+				int read = src.read(target);
+				if (read < 0) {
+					return count;
+				}
+				count += read;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Write from the file to the destination channel until
+	 * <code>length</code> bytes are written or the end of the file is reached
+	 *
+	 * @param dest
+	 *            <code>WritableByteChannel</code>, which must be blocking
+	 * @param offset
+	 *            <code>long</code> with the file offset to read from
+	 * @param length
+	 *            <code>long</code> with the number of bytes to write
+	 * @return <code>long</code> with the number of bytes written, which is
+	 *         less than <code>length</code> only if the file is too short
+	 * @throws IOException
+	 */
+	public long writeTo(final WritableByteChannel dest, final long offset,
+			final long length) throws IOException {
+		long available = Math.min(length, fileChannel.size() - offset);
+		long count = 0;
+		while (count < available) {
+			ByteBuffer source = windowFor(offset + count, available - count);
+			while (source.hasRemaining()) {
+				count += dest.write(source);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Close the file. Windows already mapped stay valid until they are
+	 * collected.
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		window = null;
+		randomAccessFile.close();
+	}
+
+	/**
+	 * Get a buffer over the file from <code>position</code>, mapping the
+	 * window that holds it if it is not the current one
+	 *
+	 * @param position
+	 *            <code>long</code> with the file position
+	 * @param remaining
+	 *            <code>long</code> with the most bytes wanted
+	 * @return <code>ByteBuffer</code> positioned at the file position, and
+	 *         limited to the end of the window or the bytes wanted
+	 * @throws IOException
+	 */
+	private ByteBuffer windowFor(final long position, final long remaining)
+			throws IOException {
+		long start = position - (position % windowSize);
+		if (window == null || windowStart != start
+				|| position - start >= window.capacity()) {
+			/*
+			 * Windows stop at the end of the file, as mapping past it for
+			 * writing would grow the file, so a write past the end maps just
+			 * what it needs
+			 */
+			long end = fileChannel.size();
+			if (mapMode != FileChannel.MapMode.READ_ONLY) {
+				end = Math.max(end, position + remaining);
+			}
+			long size = Math.min(windowSize, end - start);
+			log.debug("mapping window at:{}", start);
+			window = fileChannel.map(mapMode, start, size);
+			windowStart = start;
+		}
+
+		ByteBuffer buffer = window.duplicate();
+		int from = (int) (position - start);
+		buffer.limit((int) Math.min(buffer.capacity(), from + remaining));
+		buffer.position(from);
+		return buffer;
+	}
+
+}
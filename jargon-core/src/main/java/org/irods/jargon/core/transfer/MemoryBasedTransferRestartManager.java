@@ -91,14 +91,21 @@ public class MemoryBasedTransferRestartManager extends AbstractRestartManager {
 			final FileRestartInfoIdentifier fileRestartInfoIdentifier)
 					throws FileRestartManagementException {
 
-		log.info("retrieveRestart()");
+		log.debug("retrieveRestart()");
 		if (fileRestartInfoIdentifier == null) {
 			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
 		}
-		synchronized (this) {
-			return cacheOfRestartInfo.get(fileRestartInfoIdentifier);
-		}
+		return cacheOfRestartInfo.get(fileRestartInfoIdentifier);
+
+	}
 
+	/**
+	 * The segment was updated in the stored <code>FileRestartInfo</code>
+	 * itself, so there is nothing more to do
+	 */
+	@Override
+	protected void segmentUpdated(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment) {
 	}
 
 	/*
@@ -154,6 +154,11 @@ AbstractParallelFileTransferStrategy {
 
 		try {
 
+			if (isMemoryMapped()) {
+				log.info("presizing local file for memory mapped get");
+				MappedLocalFile.presize(localFile, transferLength);
+			}
+
 			for (int i = 0; i < numberOfThreads; i++) {
 				final ParallelGetTransferThread parallelTransfer = ParallelGetTransferThread
 						.instance(this, i);
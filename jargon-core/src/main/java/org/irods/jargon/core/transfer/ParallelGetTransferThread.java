@@ -11,6 +11,7 @@ import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Callable;
 
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
@@ -74,7 +75,16 @@ Callable<ParallelTransferResult> {
 	@Override
 	public ParallelTransferResult call() throws JargonException {
 		try {
-			Socket s = new Socket();
+			/*
+			 * A memory mapped get reads the data from the socket channel into
+			 * the mapped file
+			 */
+			Socket s;
+			if (parallelGetFileTransferStrategy.isMemoryMapped()) {
+				s = SocketChannel.open().socket();
+			} else {
+				s = new Socket();
+			}
 			if (parallelGetFileTransferStrategy.getPipelineConfiguration()
 					.getParallelTcpSendWindowSize() > 0) {
 				s.setSendBufferSize(parallelGetFileTransferStrategy
@@ -121,7 +131,12 @@ Callable<ParallelTransferResult> {
 			int outputBuffSize = parallelGetFileTransferStrategy
 					.getJargonProperties().getInternalOutputStreamBufferSize();
 
-			if (inputBuffSize < 0) {
+			/*
+			 * Headers are read from the stream and data from the channel when
+			 * memory mapped, so nothing may be buffered ahead of the channel
+			 */
+			if (inputBuffSize < 0
+					|| parallelGetFileTransferStrategy.isMemoryMapped()) {
 				setIn(getS().getInputStream());
 			} else if (inputBuffSize == 0) {
 				setIn(new BufferedInputStream(getS().getInputStream()));
@@ -174,6 +189,11 @@ Callable<ParallelTransferResult> {
 			log.info("connection listener configured, will produce callbacks");
 		}
 
+		if (parallelGetFileTransferStrategy.isMemoryMapped()) {
+			getMemoryMapped();
+			return;
+		}
+
 		RandomAccessFile local = null;
 
 		try {
@@ -204,6 +224,130 @@ Callable<ParallelTransferResult> {
 		}
 	}
 
+	private void getMemoryMapped() throws JargonException {
+		MappedLocalFile local = null;
+
+		try {
+			log.info("opening memory mapped local file");
+			local = MappedLocalFile.instanceForWrite(
+					parallelGetFileTransferStrategy.getLocalFile(),
+					MappedLocalFile.DEFAULT_WINDOW_SIZE);
+			processingLoopForGetDataMapped(local, getS().getChannel());
+		} catch (JargonException je) {
+			log.error("a jargon exception occurred in the get loop");
+			throw je;
+		} catch (IOException e) {
+			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER,
+					parallelGetFileTransferStrategy.toString(), e);
+			throw new JargonException(
+					IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
+		} finally {
+			log.info("closing sockets, this close eats exceptions");
+			close();
+			if (local != null) {
+				try {
+					local.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read each block iRODS sends from the socket channel straight into the
+	 * mapped local file, in chunks of the parallel copy buffer size so that
+	 * progress call-backs and interrupts are handled as in the random access
+	 * file loop
+	 *
+	 * @param local
+	 *            {@link MappedLocalFile} open for writing
+	 * @param channel
+	 *            <code>SocketChannel</code> of this thread
+	 * @throws JargonException
+	 * @throws IOException
+	 */
+	private void processingLoopForGetDataMapped(final MappedLocalFile local,
+			final SocketChannel channel) throws JargonException, IOException {
+		int chunkSize = parallelGetFileTransferStrategy.getJargonProperties()
+				.getParallelCopyBufferSize();
+
+		while (true) {
+			int operation = readInt();
+			readInt();
+			long offset = readLong();
+			long length = readLong();
+			log.info(">>>new offset:{}", offset);
+			log.info(">>>new length:{}", length);
+
+			if (operation == DONE_OPR) {
+				break;
+			}
+
+			if (operation != GET_OPR) {
+				log.error(
+						"Parallel transfer expected GET,  server requested {}",
+						operation);
+				throw new JargonException(
+						"parallel get transfer, unexpected transfer type from iRODS:"
+								+ operation);
+			}
+
+			if (length < 0) {
+				String msg = "length < 0 passed in header from iRODS during parallel get operation";
+				log.error(msg);
+				throw new JargonException(msg);
+			} else if (length == 0) {
+				return;
+			}
+
+			if (offset > 0
+					&& parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+				parallelGetFileTransferStrategy.getRestartManager()
+				.updateOffsetForSegment(
+						parallelGetFileTransferStrategy
+						.getFileRestartInfo()
+						.identifierFromThisInfo(),
+						getThreadNumber(), offset);
+			}
+
+			long done = 0;
+			while (done < length) {
+				if (Thread.interrupted()) {
+					throw new IOException(
+							"interrupted, consider connection corrupted and return IOException to clear");
+				}
+
+				long wanted = Math.min(chunkSize, length - done);
+				long read = local.readFrom(channel, offset + done, wanted);
+				if (read != wanted) {
+					log.error("did not read expected length from the socket channel");
+					throw new JargonException("did not read expected length");
+				}
+				done += read;
+
+				if (parallelGetFileTransferStrategy
+						.getConnectionProgressStatusListener() != null) {
+					parallelGetFileTransferStrategy
+					.getConnectionProgressStatusListener()
+					.connectionProgressStatusCallback(
+							ConnectionProgressStatus
+							.instanceForReceive(read));
+				}
+			}
+
+			if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+				parallelGetFileTransferStrategy.getRestartManager()
+				.updateLengthForSegment(
+						parallelGetFileTransferStrategy
+						.getFileRestartInfo()
+						.identifierFromThisInfo(), getThreadNumber(),
+						length);
+				log.debug("signal storage of new info");
+			}
+		}
+	}
+
 	/**
 	 * @param local
 	 * @throws JargonException
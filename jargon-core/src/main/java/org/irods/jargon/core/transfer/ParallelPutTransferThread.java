@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Callable;
 
 import org.irods.jargon.core.connection.ConnectionConstants;
@@ -30,6 +31,7 @@ Callable<ParallelTransferResult> {
 
 	private final ParallelPutFileTransferStrategy parallelPutFileTransferStrategy;
 	private RandomAccessFile localRandomAccessFile = null;
+	private MappedLocalFile localMappedFile = null;
 
 	public static final Logger log = LoggerFactory
 			.getLogger(ParallelPutTransferThread.class);
@@ -70,7 +72,16 @@ Callable<ParallelTransferResult> {
 			log.info(
 					"opening socket to parallel transfer (high) port at port:{}",
 					parallelPutFileTransferStrategy.getPort());
-			Socket s = new Socket();
+			/*
+			 * A memory mapped put writes the data from the mapped file to the
+			 * socket channel
+			 */
+			Socket s;
+			if (parallelPutFileTransferStrategy.isMemoryMapped()) {
+				s = SocketChannel.open().socket();
+			} else {
+				s = new Socket();
+			}
 			if (parallelPutFileTransferStrategy.getPipelineConfiguration()
 					.getParallelTcpSendWindowSize() > 0) {
 				s.setSendBufferSize(parallelPutFileTransferStrategy
@@ -154,8 +165,14 @@ Callable<ParallelTransferResult> {
 			 * parallelPutFileTransferStrategy.getLocalFile()), bufferSize); }
 			 */
 
-			localRandomAccessFile = new RandomAccessFile(
-					parallelPutFileTransferStrategy.getLocalFile(), "r");
+			if (parallelPutFileTransferStrategy.isMemoryMapped()) {
+				localMappedFile = MappedLocalFile.instanceForRead(
+						parallelPutFileTransferStrategy.getLocalFile(),
+						MappedLocalFile.DEFAULT_WINDOW_SIZE);
+			} else {
+				localRandomAccessFile = new RandomAccessFile(
+						parallelPutFileTransferStrategy.getLocalFile(), "r");
+			}
 
 			log.info("writing the cookie (password) for the output thread");
 
@@ -182,7 +199,12 @@ Callable<ParallelTransferResult> {
 			log.info("socket conns for parallel transfer closed, now close the file stream");
 			// close file stream
 			try {
-				localRandomAccessFile.close();
+				if (localRandomAccessFile != null) {
+					localRandomAccessFile.close();
+				}
+				if (localMappedFile != null) {
+					localMappedFile.close();
+				}
 				log.info("streams and files closed");
 			} catch (IOException e) {
 			}
@@ -212,8 +234,10 @@ Callable<ParallelTransferResult> {
 		boolean done = false;
 		// c code - size_t buf_size = 2 * TRANS_BUF_SZ * sizeof( unsigned char
 		// );
-		buffer = new byte[parallelPutFileTransferStrategy.getJargonProperties()
-		                  .getParallelCopyBufferSize()];
+		if (localMappedFile == null) {
+			buffer = new byte[parallelPutFileTransferStrategy
+			                  .getJargonProperties().getParallelCopyBufferSize()];
+		}
 		long currentOffset = 0;
 
 		try {
@@ -273,6 +297,11 @@ Callable<ParallelTransferResult> {
 					log.info("   length:" + length);
 				}
 
+				if (localMappedFile != null) {
+					writeLoopForCurrentHeaderDirectiveMapped(offset, length);
+					continue;
+				}
+
 				if (offset != currentOffset) {
 					// seekToStartingPoint(offset - currentOffset); // FIXME:
 					// test!
@@ -300,6 +329,97 @@ Callable<ParallelTransferResult> {
 		}
 	}
 
+	/**
+	 * Write the block iRODS asked for from the mapped local file straight to
+	 * the socket channel, in chunks of the parallel copy buffer size so that
+	 * progress call-backs, restart updates, and interrupts are handled as in
+	 * the random access file loop
+	 *
+	 * @param offset
+	 *            <code>long</code> with the offset of the block in the file
+	 * @param length
+	 *            <code>long</code> with the length of the block
+	 * @throws JargonException
+	 */
+	private void writeLoopForCurrentHeaderDirectiveMapped(final long offset,
+			final long length) throws JargonException {
+		int chunkSize = parallelPutFileTransferStrategy.getJargonProperties()
+				.getParallelCopyBufferSize();
+		long totalWritten = 0;
+		long totalWrittenSinceLastRestartUpdate = 0;
+		log.debug("writeLoopForCurrentHeaderDirectiveMapped()");
+
+		try {
+			/*
+			 * Anything still buffered in the stream must precede the channel
+			 * writes
+			 */
+			getOut().flush();
+			SocketChannel channel = getS().getChannel();
+
+			while (totalWritten < length) {
+				if (Thread.interrupted()) {
+					throw new IOException(
+							"interrupted, consider connection corrupted and return IOException to clear");
+				}
+
+				long written = localMappedFile.writeTo(channel, offset
+						+ totalWritten, Math.min(chunkSize, length
+								- totalWritten));
+				if (written <= 0) {
+					log.debug("end of local file...break out of write");
+					break;
+				}
+				totalWritten += written;
+				totalWrittenSinceLastRestartUpdate += written;
+
+				if (parallelPutFileTransferStrategy
+						.getConnectionProgressStatusListener() != null) {
+					parallelPutFileTransferStrategy
+					.getConnectionProgressStatusListener()
+					.connectionProgressStatusCallback(
+							ConnectionProgressStatus
+							.instanceForSend(written));
+				}
+
+				if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+						&& totalWrittenSinceLastRestartUpdate >= ConnectionConstants.MIN_FILE_RESTART_SIZE) {
+					parallelPutFileTransferStrategy.getRestartManager()
+					.updateLengthForSegment(
+							parallelPutFileTransferStrategy
+							.getFileRestartInfo()
+							.identifierFromThisInfo(),
+							getThreadNumber(),
+							totalWrittenSinceLastRestartUpdate);
+					totalWrittenSinceLastRestartUpdate = 0;
+				}
+			}
+
+			if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+					&& totalWrittenSinceLastRestartUpdate > 0) {
+				parallelPutFileTransferStrategy.getRestartManager()
+				.updateLengthForSegment(
+						parallelPutFileTransferStrategy
+						.getFileRestartInfo()
+						.identifierFromThisInfo(),
+						getThreadNumber(),
+						totalWrittenSinceLastRestartUpdate);
+			}
+
+		} catch (Throwable e) {
+			// this is throwable to prevent unchecked exceptions from leaking
+			log.error("error writing to iRODS parallel transfer socket", e);
+			JargonException je = new JargonException(e);
+			setExceptionInTransfer(je);
+			throw je;
+		}
+
+		if (totalWritten != length) {
+			throw new JargonException(
+					"transferLength and totalWritten do not agree");
+		}
+	}
+
 	/**
 	 * @param buffer
 	 * @param length
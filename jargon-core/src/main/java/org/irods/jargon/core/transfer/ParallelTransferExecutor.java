@@ -0,0 +1,350 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the threads of parallel transfers for one session on an elastic pool
+ * of daemon threads shared by every session in the JVM. Threads are made as
+ * transfers need them and end after {@link #IDLE_THREAD_TIMEOUT_SECONDS}
+ * idle, so many sessions do not each hold a pool of their own.
+ * <p/>
+ * Each session may run at most a given number of threads at once. A transfer
+ * given to {@link #invokeAll(Collection)} waits, in arrival order, until all
+ * of its threads can start together, instead of being rejected, and its
+ * threads are never queued behind one another. iRODS waits for each of the
+ * connections of a parallel transfer, so starting only some of them could
+ * stall the server. A transfer with more threads than the limit runs once the
+ * session is idle, using the whole limit.
+ * <p/>
+ * {@link #getStatistics()} gives the queue depth and thread use of the
+ * session.
+ * <p/>
+ * This object is thread safe. Shutting it down refuses new work for this
+ * session only, the shared threads stay for other sessions.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ParallelTransferExecutor extends AbstractExecutorService {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ParallelTransferExecutor.class);
+
+	/**
+	 * Seconds a shared thread waits for work before it ends
+	 */
+	public static final int IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+	private static final AtomicInteger threadNumber = new AtomicInteger();
+
+	/**
+	 * Threads shared by all sessions, a hand-off queue so there is always a
+	 * thread for admitted work
+	 */
+	private static final ExecutorService sharedThreads = new ThreadPoolExecutor(
+			0, Integer.MAX_VALUE, IDLE_THREAD_TIMEOUT_SECONDS,
+			TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable) {
+					Thread thread = new Thread(runnable,
+							"jargon-parallel-transfer-"
+									+ threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	private final int maxThreads;
+	private final Semaphore threadPermits;
+	private final Object terminationLock = new Object();
+	private volatile boolean shutdown = false;
+	private int tasksInFlight = 0;
+
+	private final AtomicInteger activeThreads = new AtomicInteger();
+	private final AtomicInteger peakActiveThreads = new AtomicInteger();
+	private final AtomicInteger waitingTransfers = new AtomicInteger();
+	private final AtomicInteger peakWaitingTransfers = new AtomicInteger();
+	private final AtomicLong admittedTransfers = new AtomicLong();
+	private final AtomicLong completedTasks = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong busyThreadNanos = new AtomicLong();
+	private final long createdNanos = System.nanoTime();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxThreads
+	 *            <code>int</code> with the most threads this session runs at
+	 *            once
+	 */
+	public ParallelTransferExecutor(final int maxThreads) {
+		if (maxThreads < 1) {
+			throw new IllegalArgumentException("maxThreads must be at least 1");
+		}
+
+		this.maxThreads = maxThreads;
+		threadPermits = new Semaphore(maxThreads, true);
+	}
+
+	/**
+	 * Run all of the threads of one parallel transfer at once, waiting for
+	 * enough threads if the session is busy, and return when they have all
+	 * finished.
+	 */
+	@Override
+	public <T> List<Future<T>> invokeAll(
+			final Collection<? extends Callable<T>> tasks)
+			throws InterruptedException {
+
+		if (tasks == null) {
+			throw new IllegalArgumentException("null tasks");
+		}
+
+		int permits = Math.min(Math.max(tasks.size(), 1), maxThreads);
+		admit(permits, tasks.size());
+		List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+		boolean done = false;
+
+		try {
+			for (Callable<T> task : tasks) {
+				FutureTask<T> future = new FutureTask<T>(measured(task));
+				futures.add(future);
+				sharedThreads.execute(future);
+			}
+
+			for (Future<T> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// the caller sees the failure through its future
+				} catch (CancellationException e) {
+					// the caller sees the cancellation through its future
+				}
+			}
+
+			done = true;
+			return futures;
+
+		} finally {
+			if (!done) {
+				for (Future<T> future : futures) {
+					future.cancel(true);
+				}
+			}
+			release(permits, tasks.size());
+		}
+	}
+
+	/**
+	 * Run one task on a shared thread, waiting for a thread if the session is
+	 * busy.
+	 */
+	@Override
+	public void execute(final Runnable command) {
+
+		if (command == null) {
+			throw new IllegalArgumentException("null command");
+		}
+
+		try {
+			admit(1, 1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException(
+					"interrupted waiting for a parallel transfer thread", e);
+		}
+
+		try {
+			sharedThreads.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						measured(Executors.callable(command)).call();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						// a callable made from a runnable throws nothing else
+						throw new IllegalStateException(e);
+					} finally {
+						release(1, 1);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			release(1, 1);
+			throw e;
+		}
+	}
+
+	private void admit(final int permits, final int tasks)
+			throws InterruptedException {
+
+		synchronized (terminationLock) {
+			if (shutdown) {
+				throw new RejectedExecutionException(
+						"parallel transfer executor is shut down");
+			}
+			tasksInFlight += tasks;
+		}
+
+		try {
+			// a timed try keeps arrival order, an untimed one would barge
+			if (!threadPermits.tryAcquire(permits, 0, TimeUnit.NANOSECONDS)) {
+				int waiting = waitingTransfers.incrementAndGet();
+				updatePeak(peakWaitingTransfers, waiting);
+				long start = System.nanoTime();
+				try {
+					threadPermits.acquire(permits);
+				} finally {
+					waitingTransfers.decrementAndGet();
+					totalWaitNanos.addAndGet(System.nanoTime() - start);
+				}
+			}
+		} catch (InterruptedException e) {
+			finished(tasks);
+			throw e;
+		}
+
+		admittedTransfers.incrementAndGet();
+	}
+
+	private void release(final int permits, final int tasks) {
+		threadPermits.release(permits);
+		finished(tasks);
+	}
+
+	private void finished(final int tasks) {
+		synchronized (terminationLock) {
+			tasksInFlight -= tasks;
+			if (tasksInFlight == 0) {
+				terminationLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Count a task as active while it runs, and as complete before its result
+	 * is seen
+	 */
+	private <T> Callable<T> measured(final Callable<T> callable) {
+		return new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				updatePeak(peakActiveThreads, activeThreads.incrementAndGet());
+				long start = System.nanoTime();
+				try {
+					return callable.call();
+				} finally {
+					busyThreadNanos.addAndGet(System.nanoTime() - start);
+					activeThreads.decrementAndGet();
+					completedTasks.incrementAndGet();
+				}
+			}
+		};
+	}
+
+	private static void updatePeak(final AtomicInteger peak, final int value) {
+		int current = peak.get();
+		while (value > current && !peak.compareAndSet(current, value)) {
+			current = peak.get();
+		}
+	}
+
+	/**
+	 * Get the queue depth and thread use of this session
+	 *
+	 * @return {@link ParallelTransferExecutorStatistics}
+	 */
+	public ParallelTransferExecutorStatistics getStatistics() {
+		return new ParallelTransferExecutorStatistics(maxThreads,
+				activeThreads.get(), peakActiveThreads.get(),
+				waitingTransfers.get(), peakWaitingTransfers.get(),
+				admittedTransfers.get(), completedTasks.get(),
+				TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+				TimeUnit.NANOSECONDS.toMillis(busyThreadNanos.get()),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+						- createdNanos));
+	}
+
+	/**
+	 * @return <code>int</code> with the most threads this session runs at
+	 *         once
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	@Override
+	public void shutdown() {
+		log.info("shutting down parallel transfer executor");
+		synchronized (terminationLock) {
+			shutdown = true;
+			terminationLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Refuse new work. Work already handed to the shared threads is left to
+	 * finish, so the returned list is always empty.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown();
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		synchronized (terminationLock) {
+			return shutdown && tasksInFlight == 0;
+		}
+	}
+
+	@Override
+	public boolean awaitTermination(final long timeout, final TimeUnit unit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (terminationLock) {
+			while (!(shutdown && tasksInFlight == 0)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+			}
+			return true;
+		}
+	}
+
+}
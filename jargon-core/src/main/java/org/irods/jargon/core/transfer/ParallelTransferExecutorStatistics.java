@@ -0,0 +1,162 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+/**
+ * Immutable snapshot of the queue depth and thread use of a
+ * {@link ParallelTransferExecutor}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ParallelTransferExecutorStatistics {
+
+	private final int maxThreads;
+	private final int activeThreads;
+	private final int peakActiveThreads;
+	private final int waitingTransfers;
+	private final int peakWaitingTransfers;
+	private final long admittedTransfers;
+	private final long completedTasks;
+	private final long totalWaitMillis;
+	private final long busyThreadMillis;
+	private final long elapsedMillis;
+
+	ParallelTransferExecutorStatistics(final int maxThreads,
+			final int activeThreads, final int peakActiveThreads,
+			final int waitingTransfers, final int peakWaitingTransfers,
+			final long admittedTransfers, final long completedTasks,
+			final long totalWaitMillis, final long busyThreadMillis,
+			final long elapsedMillis) {
+		this.maxThreads = maxThreads;
+		this.activeThreads = activeThreads;
+		this.peakActiveThreads = peakActiveThreads;
+		this.waitingTransfers = waitingTransfers;
+		this.peakWaitingTransfers = peakWaitingTransfers;
+		this.admittedTransfers = admittedTransfers;
+		this.completedTasks = completedTasks;
+		this.totalWaitMillis = totalWaitMillis;
+		this.busyThreadMillis = busyThreadMillis;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * @return <code>int</code> with the most threads the session runs at once
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the threads running now
+	 */
+	public int getActiveThreads() {
+		return activeThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the most threads that have run at once
+	 */
+	public int getPeakActiveThreads() {
+		return peakActiveThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the transfers waiting for threads now,
+	 *         the queue depth
+	 */
+	public int getWaitingTransfers() {
+		return waitingTransfers;
+	}
+
+	/**
+	 * @return <code>int</code> with the most transfers that have waited at
+	 *         once
+	 */
+	public int getPeakWaitingTransfers() {
+		return peakWaitingTransfers;
+	}
+
+	/**
+	 * @return <code>long</code> with the transfers that have been given
+	 *         threads
+	 */
+	public long getAdmittedTransfers() {
+		return admittedTransfers;
+	}
+
+	/**
+	 * @return <code>long</code> with the threads that have finished
+	 */
+	public long getCompletedTasks() {
+		return completedTasks;
+	}
+
+	/**
+	 * @return <code>long</code> with the milliseconds transfers have spent
+	 *         waiting for threads, in all
+	 */
+	public long getTotalWaitMillis() {
+		return totalWaitMillis;
+	}
+
+	/**
+	 * @return <code>long</code> with the average milliseconds a transfer
+	 *         waited for threads
+	 */
+	public long getAverageWaitMillis() {
+		if (admittedTransfers == 0) {
+			return 0;
+		}
+		return totalWaitMillis / admittedTransfers;
+	}
+
+	/**
+	 * @return <code>float</code> with the share of the thread limit in use
+	 *         now, from 0 to 1
+	 */
+	public float getUtilization() {
+		return (float) activeThreads / maxThreads;
+	}
+
+	/**
+	 * @return <code>float</code> with the share of the thread limit used
+	 *         since the executor was made, from 0 to 1
+	 */
+	public float getAverageUtilization() {
+		if (elapsedMillis == 0) {
+			return 0;
+		}
+		return Math.min(1.0f, (float) busyThreadMillis
+				/ (elapsedMillis * maxThreads));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ParallelTransferExecutorStatistics [maxThreads=");
+		builder.append(maxThreads);
+		builder.append(", activeThreads=");
+		builder.append(activeThreads);
+		builder.append(", peakActiveThreads=");
+		builder.append(peakActiveThreads);
+		builder.append(", waitingTransfers=");
+		builder.append(waitingTransfers);
+		builder.append(", peakWaitingTransfers=");
+		builder.append(peakWaitingTransfers);
+		builder.append(", admittedTransfers=");
+		builder.append(admittedTransfers);
+		builder.append(", completedTasks=");
+		builder.append(completedTasks);
+		builder.append(", totalWaitMillis=");
+		builder.append(totalWaitMillis);
+		builder.append(", busyThreadMillis=");
+		builder.append(busyThreadMillis);
+		builder.append(", elapsedMillis=");
+		builder.append(elapsedMillis);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
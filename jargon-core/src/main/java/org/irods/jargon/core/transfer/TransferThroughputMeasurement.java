@@ -0,0 +1,149 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+
+/**
+ * Measures the throughput of one parallel transfer for an
+ * {@link AdaptiveTransferTuner}. The transfer threads report the bytes they
+ * move to this listener, which passes each callback on to any intra-file
+ * progress listener of the transfer. Call {@link #complete()} once the
+ * transfer succeeds to record the measurement.
+ * <p/>
+ * This object is thread safe, as all the threads of a transfer share it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TransferThroughputMeasurement implements
+		ConnectionProgressStatusListener {
+
+	private final AdaptiveTransferTuner adaptiveTransferTuner;
+	private final String host;
+	private final long transferLength;
+	private final int numberOfThreads;
+	private final int copyBufferSize;
+	private final long startNanos;
+	private final AtomicLong bytesTransferred = new AtomicLong();
+	private volatile ConnectionProgressStatusListener delegate = null;
+
+	TransferThroughputMeasurement(
+			final AdaptiveTransferTuner adaptiveTransferTuner,
+			final String host, final long transferLength,
+			final int numberOfThreads, final int copyBufferSize) {
+		this.adaptiveTransferTuner = adaptiveTransferTuner;
+		this.host = host;
+		this.transferLength = transferLength;
+		this.numberOfThreads = numberOfThreads;
+		this.copyBufferSize = copyBufferSize;
+		startNanos = System.nanoTime();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.connection.ConnectionProgressStatusListener#
+	 * connectionProgressStatusCallback
+	 * (org.irods.jargon.core.connection.ConnectionProgressStatus)
+	 */
+	@Override
+	public void connectionProgressStatusCallback(
+			final ConnectionProgressStatus connectionProgressStatus) {
+		bytesTransferred.addAndGet(connectionProgressStatus.getByteCount());
+		ConnectionProgressStatusListener listener = delegate;
+		if (listener != null) {
+			listener.connectionProgressStatusCallback(connectionProgressStatus);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.connection.ConnectionProgressStatusListener#
+	 * finalConnectionProgressStatusCallback
+	 * (org.irods.jargon.core.connection.ConnectionProgressStatus)
+	 */
+	@Override
+	public void finalConnectionProgressStatusCallback(
+			final ConnectionProgressStatus connectionProgressStatus) {
+		ConnectionProgressStatusListener listener = delegate;
+		if (listener != null) {
+			listener.finalConnectionProgressStatusCallback(connectionProgressStatus);
+		}
+	}
+
+	/**
+	 * Record this measurement with the tuner that started it. If the threads
+	 * reported no bytes, the whole transfer length is taken as moved.
+	 */
+	public void complete() {
+		long elapsedNanos = System.nanoTime() - startNanos;
+		long bytes = bytesTransferred.get();
+		if (bytes == 0) {
+			bytes = transferLength;
+		}
+		adaptiveTransferTuner.recordMeasurement(this, bytes, elapsedNanos);
+	}
+
+	void setDelegate(final ConnectionProgressStatusListener delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return <code>String</code> with the host the tuner learns for
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return <code>long</code> with the length of the file transferred
+	 */
+	public long getTransferLength() {
+		return transferLength;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of threads of the transfer
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the copy buffer size of each thread
+	 */
+	public int getCopyBufferSize() {
+		return copyBufferSize;
+	}
+
+	/**
+	 * @return <code>long</code> with the bytes reported by the threads so far
+	 */
+	public long getBytesTransferred() {
+		return bytesTransferred.get();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TransferThroughputMeasurement [host=");
+		builder.append(host);
+		builder.append(", transferLength=");
+		builder.append(transferLength);
+		builder.append(", numberOfThreads=");
+		builder.append(numberOfThreads);
+		builder.append(", copyBufferSize=");
+		builder.append(copyBufferSize);
+		builder.append(", bytesTransferred=");
+		builder.append(bytesTransferred.get());
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+/**
+ * Immutable snapshot of what an {@link AdaptiveTransferTuner} has learned for
+ * transfers of files of a range of sizes to or from one host: the best
+ * measured thread count and copy buffer size, and the throughput they gave.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TransferTuningProfile {
+
+	private final String host;
+	private final long minimumLength;
+	private final long maximumLength;
+	private final int numberOfThreads;
+	private final int copyBufferSize;
+	private final long bytesPerSecond;
+	private final int measurementCount;
+	private final int settingsMeasured;
+
+	TransferTuningProfile(final String host, final long minimumLength,
+			final long maximumLength, final int numberOfThreads,
+			final int copyBufferSize, final long bytesPerSecond,
+			final int measurementCount, final int settingsMeasured) {
+		this.host = host;
+		this.minimumLength = minimumLength;
+		this.maximumLength = maximumLength;
+		this.numberOfThreads = numberOfThreads;
+		this.copyBufferSize = copyBufferSize;
+		this.bytesPerSecond = bytesPerSecond;
+		this.measurementCount = measurementCount;
+		this.settingsMeasured = settingsMeasured;
+	}
+
+	/**
+	 * @return <code>String</code> with the host of the transfers
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return <code>long</code> with the smallest file length, inclusive, of
+	 *         the transfers
+	 */
+	public long getMinimumLength() {
+		return minimumLength;
+	}
+
+	/**
+	 * @return <code>long</code> with the largest file length, exclusive, of
+	 *         the transfers
+	 */
+	public long getMaximumLength() {
+		return maximumLength;
+	}
+
+	/**
+	 * @return <code>int</code> with the best measured number of threads
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the best measured copy buffer size of each
+	 *         thread
+	 */
+	public int getCopyBufferSize() {
+		return copyBufferSize;
+	}
+
+	/**
+	 * @return <code>long</code> with the smoothed throughput, in bytes per
+	 *         second, of the best setting
+	 */
+	public long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	/**
+	 * @return <code>long</code> with the smoothed throughput, in bytes per
+	 *         second, of each thread of the best setting
+	 */
+	public long getBytesPerSecondPerStream() {
+		return bytesPerSecond / numberOfThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of transfers measured
+	 */
+	public int getMeasurementCount() {
+		return measurementCount;
+	}
+
+	/**
+	 * @return <code>int</code> with the number of distinct thread count and
+	 *         buffer size settings measured
+	 */
+	public int getSettingsMeasured() {
+		return settingsMeasured;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TransferTuningProfile [host=");
+		builder.append(host);
+		builder.append(", minimumLength=");
+		builder.append(minimumLength);
+		builder.append(", maximumLength=");
+		builder.append(maximumLength);
+		builder.append(", numberOfThreads=");
+		builder.append(numberOfThreads);
+		builder.append(", copyBufferSize=");
+		builder.append(copyBufferSize);
+		builder.append(", bytesPerSecond=");
+		builder.append(bytesPerSecond);
+		builder.append(", measurementCount=");
+		builder.append(measurementCount);
+		builder.append(", settingsMeasured=");
+		builder.append(settingsMeasured);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.irods.jargon.core.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps idle direct <code>ByteBuffer</code>s for reuse. Direct buffers are
+ * expensive to allocate, and their native memory is only returned when the
+ * garbage collector finds them, so code that copies many streams should borrow
+ * and return buffers here rather than allocating one per copy.
+ * <p/>
+ * Buffers are pooled by capacity, and at most <code>maxIdle</code> buffers are
+ * kept in all. A buffer that is returned when the pool is full is left for the
+ * garbage collector. This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ByteBufferPool {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ByteBufferPool.class);
+
+	private final int maxIdle;
+	private final Map<Integer, ArrayDeque<ByteBuffer>> idleBuffers = new HashMap<Integer, ArrayDeque<ByteBuffer>>();
+	private int idleCount = 0;
+
+	/**
+	 * @param maxIdle
+	 *            <code>int</code> with the most idle buffers kept, 0 will
+	 *            allocate a buffer for every request
+	 */
+	public ByteBufferPool(final int maxIdle) {
+		if (maxIdle < 0) {
+			throw new IllegalArgumentException("negative maxIdle");
+		}
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Borrow a cleared direct buffer of the given capacity
+	 *
+	 * @param capacity
+	 *            <code>int</code> with the size of the buffer
+	 * @return <code>ByteBuffer</code> that should be given back with
+	 *         {@link #release(ByteBuffer)} when done
+	 */
+	public ByteBuffer acquire(final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+
+		synchronized (this) {
+			ArrayDeque<ByteBuffer> buffers = idleBuffers.get(capacity);
+			if (buffers != null && !buffers.isEmpty()) {
+				idleCount--;
+				ByteBuffer buffer = buffers.pop();
+				buffer.clear();
+				return buffer;
+			}
+		}
+
+		log.debug("allocating direct buffer of {} bytes", capacity);
+		return ByteBuffer.allocateDirect(capacity);
+	}
+
+	/**
+	 * Give back a buffer from {@link #acquire(int)}. The buffer must not be
+	 * used by the caller afterwards.
+	 *
+	 * @param buffer
+	 *            <code>ByteBuffer</code> to return, <code>null</code> is
+	 *            ignored
+	 */
+	public void release(final ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect()) {
+			return;
+		}
+
+		synchronized (this) {
+			if (idleCount >= maxIdle) {
+				return;
+			}
+			ArrayDeque<ByteBuffer> buffers = idleBuffers.get(buffer
+					.capacity());
+			if (buffers == null) {
+				buffers = new ArrayDeque<ByteBuffer>();
+				idleBuffers.put(buffer.capacity(), buffers);
+			}
+			buffers.push(buffer);
+			idleCount++;
+		}
+	}
+
+	/**
+	 * @return <code>int</code> with the number of buffers currently idle in the
+	 *         pool
+	 */
+	public synchronized int getIdleCount() {
+		return idleCount;
+	}
+
+	/**
+	 * @return <code>int</code> with the most idle buffers kept
+	 */
+	public int getMaxIdle() {
+		return maxIdle;
+	}
+
+}
@@ -2,6 +2,7 @@ package org.irods.jargon.core.utils;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
@@ -21,8 +22,31 @@ public final class ChannelTools {
 					throws IOException {
 		log.info("fast channel copy on streams, buffer length set to:{}",
 				bufferSize);
-		final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
-		while (src.read(buffer) != -1) {
+		fastChannelCopy(src, dest, ByteBuffer.allocateDirect(bufferSize));
+	}
+
+	/**
+	 * Copy the source channel to the destination through the given buffer,
+	 * which is typically a pooled direct buffer. The buffer is cleared first,
+	 * and its contents are undefined afterwards.
+	 *
+	 * @param src
+	 *            <code>ReadableByteChannel</code> read to the end
+	 * @param dest
+	 *            <code>WritableByteChannel</code> written to
+	 * @param buffer
+	 *            <code>ByteBuffer</code> to copy through
+	 * @return <code>long</code> with the number of bytes copied
+	 * @throws IOException
+	 */
+	public static long fastChannelCopy(final ReadableByteChannel src,
+			final WritableByteChannel dest, final ByteBuffer buffer)
+					throws IOException {
+		long count = 0;
+		int read;
+		buffer.clear();
+		while ((read = src.read(buffer)) != -1) {
+			count += read;
 			// prepare the buffer to be drained
 			buffer.flip();
 			// write to the channel, may block
@@ -40,5 +64,63 @@ public final class ChannelTools {
 		while (buffer.hasRemaining()) {
 			dest.write(buffer);
 		}
+		return count;
+	}
+
+	/**
+	 * Copy the source channel to the end of a local file with
+	 * <code>FileChannel.transferFrom</code>, which lets the JVM move the data
+	 * without copying it through the Java heap.
+	 *
+	 * @param src
+	 *            <code>ReadableByteChannel</code> read to the end, which must
+	 *            be blocking
+	 * @param target
+	 *            <code>FileChannel</code> written from its current position
+	 * @param chunkSize
+	 *            <code>long</code> with the most bytes moved per call
+	 * @return <code>long</code> with the number of bytes copied
+	 * @throws IOException
+	 */
+	public static long transferToFileChannel(final ReadableByteChannel src,
+			final FileChannel target, final long chunkSize) throws IOException {
+		long position = target.position();
+		long count = 0;
+		long transferred;
+		// a blocking source only transfers nothing at the end of its data
+		while ((transferred = target.transferFrom(src, position + count,
+				chunkSize)) > 0) {
+			count += transferred;
+		}
+		target.position(position + count);
+		return count;
+	}
+
+	/**
+	 * Copy a local file, from its current position to the end, to the
+	 * destination channel with <code>FileChannel.transferTo</code>, which lets
+	 * the JVM move the data without copying it through the Java heap.
+	 *
+	 * @param source
+	 *            <code>FileChannel</code> read from its current position
+	 * @param dest
+	 *            <code>WritableByteChannel</code> written to
+	 * @param chunkSize
+	 *            <code>long</code> with the most bytes moved per call
+	 * @return <code>long</code> with the number of bytes copied
+	 * @throws IOException
+	 */
+	public static long transferFromFileChannel(final FileChannel source,
+			final WritableByteChannel dest, final long chunkSize)
+					throws IOException {
+		long position = source.position();
+		long size = source.size();
+		long count = 0;
+		while (position + count < size) {
+			count += source.transferTo(position + count,
+					Math.min(chunkSize, size - position - count), dest);
+		}
+		source.position(position + count);
+		return count;
 	}
-}
\ No newline at end of file
+}
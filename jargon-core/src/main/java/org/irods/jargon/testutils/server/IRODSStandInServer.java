@@ -0,0 +1,368 @@
+package org.irods.jargon.testutils.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stand-in iRODS server that runs in the test JVM, so that load and
+ * performance tests can drive the real jargon connection, protocol and
+ * transfer code without an iRODS grid.
+ * <p/>
+ * The server listens on a loopback TCP port and speaks the iRODS XML protocol
+ * as an iRODS 4.1 server would, so an {@link IRODSAccount} from
+ * {@link #buildIRODSAccount(String)} works with the standard connection
+ * factories and protocol managers. It answers for:
+ * <ul>
+ * <li>the startup pack, native (challenge and response) authentication, and
+ * the server info call</li>
+ * <li>general queries against collections, data objects, AVU metadata,
+ * users, the zone and the one resource, with conditions, order by, distinct,
+ * aggregates and paging</li>
+ * <li>object stat, collection create and remove, data object delete, and AVU
+ * add, remove and modify on data objects and collections</li>
+ * <li>data object create, open, read, write, seek and close, as used by the
+ * jargon streams</li>
+ * <li>put and get of single buffer files, and of files over 32MB using
+ * either parallel transfer through a portal, or, with no threads, the
+ * descriptor based read and write loops</li>
+ * <li>checksums (MD5)</li>
+ * </ul>
+ * Anything else is answered with <code>SYS_UNMATCHED_API_NUM</code>. There
+ * are no access controls beyond authentication, no replicas, no trash, and
+ * data object contents are held in memory, limited to 2GB each.
+ * <p/>
+ * {@link #setLatencyMillis(int)} adds a delay before each reply, and
+ * {@link #setBandwidthBytesPerSecond(long)} paces each socket, so a test may
+ * see how jargon behaves over a slow wide area link. The counts in
+ * {@link #getApiRequestCount()} show how many round trips an operation made.
+ * <p/>
+ * A typical test:
+ *
+ * <pre>
+ * IRODSStandInServer server = new IRODSStandInServer();
+ * server.start();
+ * IRODSAccount account = server.buildIRODSAccount(&quot;rods&quot;);
+ * // ... use the account with an IRODSFileSystem ...
+ * server.stop();
+ * </pre>
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSStandInServer {
+
+	public static final String DEFAULT_ZONE = "standInZone";
+	public static final String DEFAULT_RESOURCE = "standInResc";
+	public static final String ADMIN_USER = "rods";
+	public static final int DEFAULT_MAX_PARALLEL_THREADS = 4;
+	public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 60000;
+
+	static final String RELEASE_VERSION = "rods4.1.8";
+	static final String API_VERSION = "d";
+
+	private static final String HOST = "127.0.0.1";
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSStandInServer.class);
+
+	private final StandInCatalog catalog;
+	private final Map<String, String> passwords = new ConcurrentHashMap<String, String>();
+	private final Set<Socket> connections = new HashSet<Socket>();
+	private final AtomicLong apiRequestCount = new AtomicLong();
+	private final AtomicInteger threadNumber = new AtomicInteger();
+	private final long bootTime = StandInCatalog.now();
+	private volatile int latencyMillis = 0;
+	private volatile long bandwidthBytesPerSecond = 0;
+	private volatile int maxParallelThreads = DEFAULT_MAX_PARALLEL_THREADS;
+	private volatile int socketTimeoutMillis = DEFAULT_SOCKET_TIMEOUT_MILLIS;
+	private volatile boolean stopping = false;
+	private ServerSocket serverSocket = null;
+
+	/**
+	 * Create a server for the default zone and resource, with the admin user
+	 * <code>rods</code>, password <code>rods</code>
+	 */
+	public IRODSStandInServer() {
+		this(DEFAULT_ZONE, DEFAULT_RESOURCE);
+	}
+
+	/**
+	 * Create a server for the given zone and resource, with the admin user
+	 * <code>rods</code>, password <code>rods</code>
+	 *
+	 * @param zone
+	 *            <code>String</code> with the zone name
+	 * @param resource
+	 *            <code>String</code> with the name of the one storage resource
+	 */
+	public IRODSStandInServer(final String zone, final String resource) {
+		if (zone == null || zone.isEmpty()) {
+			throw new IllegalArgumentException("null or empty zone");
+		}
+		if (resource == null || resource.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resource");
+		}
+		catalog = new StandInCatalog(zone, resource);
+		passwords.put(ADMIN_USER, ADMIN_USER);
+	}
+
+	/**
+	 * Start listening on an ephemeral loopback port
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void start() throws IOException {
+		if (serverSocket != null) {
+			throw new IllegalStateException("already started");
+		}
+
+		stopping = false;
+		serverSocket = new ServerSocket(0, 50, InetAddress.getByName(HOST));
+		final ServerSocket listener = serverSocket;
+		newThread(new Runnable() {
+			@Override
+			public void run() {
+				acceptConnections(listener);
+			}
+		}, "listener").start();
+		log.info("stand-in iRODS server listening on {}:{}", HOST,
+				listener.getLocalPort());
+	}
+
+	/**
+	 * Stop listening and close every client connection. The catalog is kept,
+	 * so the server may be started again.
+	 */
+	public synchronized void stop() {
+		if (serverSocket == null) {
+			return;
+		}
+
+		stopping = true;
+		closeQuietly(serverSocket);
+		serverSocket = null;
+
+		synchronized (connections) {
+			for (Socket socket : connections) {
+				closeQuietly(socket);
+			}
+			connections.clear();
+		}
+	}
+
+	/**
+	 * Add a user, with a home collection
+	 *
+	 * @param userName
+	 *            <code>String</code> with the user name
+	 * @param password
+	 *            <code>String</code> with the password for native
+	 *            authentication
+	 */
+	public void addUser(final String userName, final String password) {
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+		if (password == null) {
+			throw new IllegalArgumentException("null password");
+		}
+		catalog.addUser(userName);
+		passwords.put(userName, password);
+	}
+
+	/**
+	 * Build an account that connects to this server as the given user, with
+	 * the user's home collection and the server resource as defaults
+	 *
+	 * @param userName
+	 *            <code>String</code> with a user added by
+	 *            {@link #addUser(String, String)}, or <code>rods</code>
+	 * @return {@link IRODSAccount}
+	 * @throws JargonException
+	 */
+	public IRODSAccount buildIRODSAccount(final String userName)
+			throws JargonException {
+		String password = passwords.get(userName);
+		if (password == null) {
+			throw new IllegalArgumentException("unknown user:" + userName);
+		}
+		return IRODSAccount.instance(HOST, getPort(), userName, password, "/"
+				+ catalog.getZone() + "/home/" + userName, catalog.getZone(),
+				catalog.getResource());
+	}
+
+	/**
+	 * @return <code>int</code> with the port the server listens on
+	 */
+	public synchronized int getPort() {
+		if (serverSocket == null) {
+			throw new IllegalStateException("server is not started");
+		}
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return <code>String</code> with the loopback address the server
+	 *         listens on
+	 */
+	public String getHost() {
+		return HOST;
+	}
+
+	/**
+	 * @return {@link StandInCatalog} that holds the contents of the server,
+	 *         which tests may load or inspect directly
+	 */
+	public StandInCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * @return <code>long</code> with the count of API calls answered since
+	 *         the server was created
+	 */
+	public long getApiRequestCount() {
+		return apiRequestCount.get();
+	}
+
+	/**
+	 * @return <code>int</code> with the delay, in milliseconds, before each
+	 *         reply
+	 */
+	public int getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	/**
+	 * @param latencyMillis
+	 *            <code>int</code> with the delay, in milliseconds, before each
+	 *            reply, 0 for none
+	 */
+	public void setLatencyMillis(final int latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	/**
+	 * @return <code>long</code> with the rate each socket is paced to, 0 for
+	 *         no limit
+	 */
+	public long getBandwidthBytesPerSecond() {
+		return bandwidthBytesPerSecond;
+	}
+
+	/**
+	 * @param bandwidthBytesPerSecond
+	 *            <code>long</code> with the rate each new socket is paced to,
+	 *            0 for no limit
+	 */
+	public void setBandwidthBytesPerSecond(final long bandwidthBytesPerSecond) {
+		this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+	}
+
+	/**
+	 * @return <code>int</code> with the most threads the server offers for a
+	 *         parallel transfer
+	 */
+	public int getMaxParallelThreads() {
+		return maxParallelThreads;
+	}
+
+	/**
+	 * @param maxParallelThreads
+	 *            <code>int</code> with the most threads the server offers for
+	 *            a parallel transfer, 0 to answer large transfers with the
+	 *            single thread read and write loops
+	 */
+	public void setMaxParallelThreads(final int maxParallelThreads) {
+		this.maxParallelThreads = maxParallelThreads;
+	}
+
+	/**
+	 * @return <code>int</code> with the socket read and accept timeout in
+	 *         milliseconds
+	 */
+	public int getSocketTimeoutMillis() {
+		return socketTimeoutMillis;
+	}
+
+	/**
+	 * @param socketTimeoutMillis
+	 *            <code>int</code> with the socket read and accept timeout in
+	 *            milliseconds, used for new sockets
+	 */
+	public void setSocketTimeoutMillis(final int socketTimeoutMillis) {
+		this.socketTimeoutMillis = socketTimeoutMillis;
+	}
+
+	String getPassword(final String userName) {
+		return passwords.get(userName);
+	}
+
+	long getBootTime() {
+		return bootTime;
+	}
+
+	boolean isStopping() {
+		return stopping;
+	}
+
+	void countApiRequest() {
+		apiRequestCount.incrementAndGet();
+	}
+
+	void connectionClosed(final Socket socket) {
+		synchronized (connections) {
+			connections.remove(socket);
+		}
+		closeQuietly(socket);
+	}
+
+	Thread newThread(final Runnable runnable, final String purpose) {
+		Thread thread = new Thread(runnable, "jargon-stand-in-" + purpose
+				+ "-" + threadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private void acceptConnections(final ServerSocket listener) {
+		while (!listener.isClosed()) {
+			Socket socket;
+			try {
+				socket = listener.accept();
+			} catch (IOException e) {
+				if (!stopping) {
+					log.error("stand-in server stopped accepting", e);
+				}
+				return;
+			}
+
+			synchronized (connections) {
+				connections.add(socket);
+			}
+			newThread(new StandInConnection(this, socket), "connection")
+					.start();
+		}
+	}
+
+	private static void closeQuietly(final java.io.Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// nothing to do
+		}
+	}
+
+}
@@ -0,0 +1,735 @@
+package org.irods.jargon.testutils.server;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+
+/**
+ * In-memory iRODS catalog behind an {@link IRODSStandInServer}, holding the
+ * collections, data objects (with their contents), users and AVU metadata
+ * that the stand-in server answers for.
+ * <p/>
+ * Tests may load a tree before connecting by calling
+ * {@link #createCollection(String, String, boolean)} and
+ * {@link #putDataObject(String, String, byte[])}. Errors carry the iRODS error
+ * code that the server would send back, in
+ * {@link JargonException#getUnderlyingIRODSExceptionCode()}.
+ * <p/>
+ * The namespace is guarded by this object, the contents of each data object
+ * by the data object itself, so that parallel transfer threads may move the
+ * segments of one file at the same time.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class StandInCatalog {
+
+	private final String zone;
+	private final String resource;
+	private final AtomicLong nextId = new AtomicLong(10000);
+	private final Map<String, CatalogCollection> collections = new TreeMap<String, CatalogCollection>();
+	private final Map<String, Long> users = new TreeMap<String, Long>();
+
+	/**
+	 * Create a catalog for the given zone, holding the zone, home and trash
+	 * collections
+	 *
+	 * @param zone
+	 *            <code>String</code> with the zone name
+	 * @param resource
+	 *            <code>String</code> with the name of the one storage resource
+	 */
+	public StandInCatalog(final String zone, final String resource) {
+
+		if (zone == null || zone.isEmpty()) {
+			throw new IllegalArgumentException("null or empty zone");
+		}
+
+		if (resource == null || resource.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resource");
+		}
+
+		this.zone = zone;
+		this.resource = resource;
+		users.put("rods", nextId.incrementAndGet());
+
+		CatalogCollection root = new CatalogCollection(
+				nextId.incrementAndGet(), "/", "", "rods", now());
+		collections.put(root.getPath(), root);
+		try {
+			createCollection(zonePath("home"), "rods", true);
+			createCollection(zonePath("trash/home"), "rods", true);
+		} catch (JargonException e) {
+			throw new IllegalStateException("cannot create zone collections",
+					e);
+		}
+	}
+
+	/**
+	 * Add a user with a home collection, if not already present
+	 *
+	 * @param userName
+	 *            <code>String</code> with the user name
+	 */
+	public synchronized void addUser(final String userName) {
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+
+		if (users.containsKey(userName)) {
+			return;
+		}
+
+		users.put(userName, nextId.incrementAndGet());
+		try {
+			createCollection(zonePath("home/" + userName), userName, true);
+		} catch (JargonException e) {
+			throw new IllegalStateException("cannot create home collection",
+					e);
+		}
+	}
+
+	/**
+	 * Create a collection
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the collection
+	 * @param owner
+	 *            <code>String</code> with the user that will own it
+	 * @param createParents
+	 *            <code>boolean</code> that creates missing parents if
+	 *            <code>true</code>, as <code>imkdir -p</code> does
+	 * @throws JargonException
+	 *             if the collection exists, or a parent is missing
+	 */
+	public synchronized void createCollection(final String path,
+			final String owner, final boolean createParents)
+			throws JargonException {
+
+		String myPath = normalize(path);
+		if (collections.containsKey(myPath)) {
+			if (createParents) {
+				return;
+			}
+			throw new JargonException("collection exists:" + myPath,
+					ErrorEnum.CATALOG_ALREADY_HAS_ITEM_BY_THAT_NAME.getInt());
+		}
+
+		String parentPath = parentOf(myPath);
+		CatalogCollection parent = collections.get(parentPath);
+		if (parent == null) {
+			if (!createParents) {
+				throw new JargonException("no parent collection for:" + myPath,
+						ErrorEnum.CAT_UNKNOWN_COLLECTION.getInt());
+			}
+			createCollection(parentPath, owner, true);
+			parent = collections.get(parentPath);
+		}
+
+		if (parent.getDataObjects().containsKey(nameOf(myPath))) {
+			throw new JargonException("data object exists at:" + myPath,
+					ErrorEnum.CAT_NAME_EXISTS_AS_DATAOBJ.getInt());
+		}
+
+		CatalogCollection collection = new CatalogCollection(
+				nextId.incrementAndGet(), myPath, parentPath, owner, now());
+		collections.put(myPath, collection);
+		parent.getChildren().add(myPath);
+		parent.touch(now());
+	}
+
+	/**
+	 * Remove a collection
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the collection
+	 * @param recursive
+	 *            <code>boolean</code> that removes everything under the
+	 *            collection if <code>true</code>, otherwise the collection
+	 *            must be empty
+	 * @throws JargonException
+	 */
+	public synchronized void removeCollection(final String path,
+			final boolean recursive) throws JargonException {
+
+		String myPath = normalize(path);
+		CatalogCollection collection = collections.get(myPath);
+		if (collection == null) {
+			throw new JargonException("no collection:" + myPath,
+					ErrorEnum.CAT_UNKNOWN_COLLECTION.getInt());
+		}
+
+		if (!recursive
+				&& (!collection.getChildren().isEmpty() || !collection
+						.getDataObjects().isEmpty())) {
+			throw new JargonException("collection not empty:" + myPath,
+					ErrorEnum.CAT_COLLECTION_NOT_EMPTY.getInt());
+		}
+
+		for (String child : new ArrayList<String>(collection.getChildren())) {
+			removeCollection(child, true);
+		}
+
+		collections.remove(myPath);
+		CatalogCollection parent = collections.get(collection.getParentPath());
+		if (parent != null) {
+			parent.getChildren().remove(myPath);
+			parent.touch(now());
+		}
+	}
+
+	/**
+	 * Create or replace a data object with the given contents
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the data
+	 *            object, its collection must exist
+	 * @param owner
+	 *            <code>String</code> with the user that will own it
+	 * @param content
+	 *            <code>byte[]</code> with the contents
+	 * @throws JargonException
+	 */
+	public void putDataObject(final String path, final String owner,
+			final byte[] content) throws JargonException {
+
+		if (content == null) {
+			throw new IllegalArgumentException("null content");
+		}
+
+		CatalogDataObject dataObject = createDataObject(path, owner, true);
+		dataObject.write(0, content, 0, content.length);
+		dataObject.close(now());
+	}
+
+	/**
+	 * Get a copy of the contents of a data object
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the data object
+	 * @return <code>byte[]</code> with the contents
+	 * @throws JargonException
+	 *             if the data object does not exist
+	 */
+	public byte[] getDataObjectContent(final String path)
+			throws JargonException {
+		return findDataObjectOrFail(path).copyContent();
+	}
+
+	/**
+	 * Add an AVU to a data object or collection
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the data object
+	 *            or collection
+	 * @param attribute
+	 *            <code>String</code> with the attribute
+	 * @param value
+	 *            <code>String</code> with the value
+	 * @param unit
+	 *            <code>String</code> with the unit, may be blank
+	 * @throws JargonException
+	 *             if the target does not exist, or already has the AVU
+	 */
+	public synchronized void addAVU(final String path, final String attribute,
+			final String value, final String unit) throws JargonException {
+
+		List<CatalogAVU> avus = findAVUs(path);
+		for (CatalogAVU avu : avus) {
+			if (avu.matches(attribute, value, unit)) {
+				throw new JargonException("duplicate AVU",
+						ErrorEnum.CATALOG_ALREADY_HAS_ITEM_BY_THAT_NAME
+								.getInt());
+			}
+		}
+
+		avus.add(new CatalogAVU(nextId.incrementAndGet(), attribute, value,
+				unit == null ? "" : unit, now()));
+	}
+
+	/**
+	 * Remove the AVUs of a data object or collection that match the given
+	 * values
+	 *
+	 * @param path
+	 *            <code>String</code> with the absolute path of the data object
+	 *            or collection
+	 * @param attribute
+	 *            <code>String</code> with the attribute
+	 * @param value
+	 *            <code>String</code> with the value
+	 * @param unit
+	 *            <code>String</code> with the unit, or <code>null</code> to
+	 *            match any unit
+	 * @return <code>int</code> with the count of AVUs removed
+	 * @throws JargonException
+	 */
+	public synchronized int removeAVU(final String path,
+			final String attribute, final String value, final String unit)
+			throws JargonException {
+
+		int removed = 0;
+		Iterator<CatalogAVU> iterator = findAVUs(path).iterator();
+		while (iterator.hasNext()) {
+			CatalogAVU avu = iterator.next();
+			if (avu.getAttribute().equals(attribute)
+					&& avu.getValue().equals(value)
+					&& (unit == null || avu.getUnit().equals(unit))) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * @return <code>int</code> with the count of collections, including the
+	 *         root, zone, home and trash collections
+	 */
+	public synchronized int getCollectionCount() {
+		return collections.size();
+	}
+
+	/**
+	 * @return <code>int</code> with the count of data objects
+	 */
+	public synchronized int getDataObjectCount() {
+		int count = 0;
+		for (CatalogCollection collection : collections.values()) {
+			count += collection.getDataObjects().size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return the zone
+	 */
+	public String getZone() {
+		return zone;
+	}
+
+	/**
+	 * @return the resource
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	synchronized CatalogCollection findCollection(final String path) {
+		return collections.get(normalize(path));
+	}
+
+	synchronized CatalogDataObject findDataObject(final String path) {
+		String myPath = normalize(path);
+		CatalogCollection collection = collections.get(parentOf(myPath));
+		if (collection == null) {
+			return null;
+		}
+		return collection.getDataObjects().get(nameOf(myPath));
+	}
+
+	CatalogDataObject findDataObjectOrFail(final String path)
+			throws JargonException {
+		CatalogDataObject dataObject = findDataObject(path);
+		if (dataObject == null) {
+			throw new JargonException("no data object:" + path,
+					ErrorEnum.CAT_NO_ROWS_FOUND.getInt());
+		}
+		return dataObject;
+	}
+
+	/**
+	 * Create a data object, or, if <code>force</code> is set, empty an
+	 * existing one
+	 */
+	synchronized CatalogDataObject createDataObject(final String path,
+			final String owner, final boolean force) throws JargonException {
+
+		String myPath = normalize(path);
+		CatalogCollection collection = collections.get(parentOf(myPath));
+		if (collection == null) {
+			throw new JargonException("no collection for:" + myPath,
+					ErrorEnum.CAT_UNKNOWN_COLLECTION.getInt());
+		}
+
+		if (collections.containsKey(myPath)) {
+			throw new JargonException("collection exists at:" + myPath,
+					ErrorEnum.CAT_NAME_EXISTS_AS_COLLECTION.getInt());
+		}
+
+		CatalogDataObject dataObject = collection.getDataObjects().get(
+				nameOf(myPath));
+		if (dataObject != null) {
+			if (!force) {
+				throw new JargonException("data object exists:" + myPath,
+						ErrorEnum.OVERWITE_WITHOUT_FORCE_FLAG.getInt());
+			}
+			dataObject.truncate(now());
+			return dataObject;
+		}
+
+		dataObject = new CatalogDataObject(nextId.incrementAndGet(),
+				collection, nameOf(myPath), owner, now());
+		collection.getDataObjects().put(dataObject.getName(), dataObject);
+		collection.touch(now());
+		return dataObject;
+	}
+
+	synchronized void deleteDataObject(final String path)
+			throws JargonException {
+		String myPath = normalize(path);
+		CatalogCollection collection = collections.get(parentOf(myPath));
+		if (collection == null
+				|| collection.getDataObjects().remove(nameOf(myPath)) == null) {
+			throw new JargonException("no data object:" + myPath,
+					ErrorEnum.CAT_NO_ROWS_FOUND.getInt());
+		}
+		collection.touch(now());
+	}
+
+	/**
+	 * Find the AVU list of a data object or collection, which may only be
+	 * changed while holding the catalog lock
+	 */
+	synchronized List<CatalogAVU> findAVUs(final String path)
+			throws JargonException {
+		CatalogDataObject dataObject = findDataObject(path);
+		if (dataObject != null) {
+			return dataObject.getAvus();
+		}
+		CatalogCollection collection = findCollection(path);
+		if (collection != null) {
+			return collection.getAvus();
+		}
+		throw new JargonException("no data object or collection:" + path,
+				ErrorEnum.CAT_NO_ROWS_FOUND.getInt());
+	}
+
+	/**
+	 * Copy out the collections a query has to look at, narrowed to one
+	 * collection, or to the children of one collection, where the query
+	 * pinned either down
+	 */
+	synchronized List<CatalogCollection> snapshotCollections(
+			final String collectionName, final String parentName) {
+		List<CatalogCollection> snapshot = new ArrayList<CatalogCollection>();
+		if (collectionName != null) {
+			CatalogCollection collection = collections
+					.get(normalize(collectionName));
+			if (collection != null) {
+				snapshot.add(collection);
+			}
+		} else if (parentName != null) {
+			CatalogCollection parent = collections.get(normalize(parentName));
+			if (parent != null) {
+				for (String child : parent.getChildren()) {
+					snapshot.add(collections.get(child));
+				}
+			}
+		} else {
+			snapshot.addAll(collections.values());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Copy out the data objects of the given collections
+	 */
+	synchronized List<CatalogDataObject> snapshotDataObjects(
+			final List<CatalogCollection> inCollections) {
+		List<CatalogDataObject> snapshot = new ArrayList<CatalogDataObject>();
+		for (CatalogCollection collection : inCollections) {
+			snapshot.addAll(collection.getDataObjects().values());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Copy out the AVUs of a data object or collection
+	 */
+	synchronized List<CatalogAVU> snapshotAVUs(final List<CatalogAVU> avus) {
+		return new ArrayList<CatalogAVU>(avus);
+	}
+
+	synchronized Map<String, Long> snapshotUsers() {
+		return new TreeMap<String, Long>(users);
+	}
+
+	synchronized long userId(final String userName) {
+		Long id = users.get(userName);
+		return id == null ? 0 : id;
+	}
+
+	private String zonePath(final String relative) {
+		return "/" + zone + "/" + relative;
+	}
+
+	static long now() {
+		return System.currentTimeMillis() / 1000;
+	}
+
+	static String normalize(final String path) {
+		if (path == null || path.isEmpty()) {
+			throw new IllegalArgumentException("null or empty path");
+		}
+		String myPath = path;
+		while (myPath.length() > 1 && myPath.endsWith("/")) {
+			myPath = myPath.substring(0, myPath.length() - 1);
+		}
+		return myPath;
+	}
+
+	static String parentOf(final String path) {
+		int idx = path.lastIndexOf('/');
+		if (idx <= 0) {
+			return "/";
+		}
+		return path.substring(0, idx);
+	}
+
+	static String nameOf(final String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * A collection in the catalog
+	 */
+	static final class CatalogCollection {
+		private final long id;
+		private final String path;
+		private final String parentPath;
+		private final String owner;
+		private final long createTime;
+		private volatile long modifyTime;
+		private final TreeSet<String> children = new TreeSet<String>();
+		private final TreeMap<String, CatalogDataObject> dataObjects = new TreeMap<String, CatalogDataObject>();
+		private final List<CatalogAVU> avus = new ArrayList<CatalogAVU>();
+
+		CatalogCollection(final long id, final String path,
+				final String parentPath, final String owner,
+				final long createTime) {
+			this.id = id;
+			this.path = path;
+			this.parentPath = parentPath;
+			this.owner = owner;
+			this.createTime = createTime;
+			modifyTime = createTime;
+		}
+
+		void touch(final long time) {
+			modifyTime = time;
+		}
+
+		long getId() {
+			return id;
+		}
+
+		String getPath() {
+			return path;
+		}
+
+		String getParentPath() {
+			return parentPath;
+		}
+
+		String getOwner() {
+			return owner;
+		}
+
+		long getCreateTime() {
+			return createTime;
+		}
+
+		long getModifyTime() {
+			return modifyTime;
+		}
+
+		TreeSet<String> getChildren() {
+			return children;
+		}
+
+		TreeMap<String, CatalogDataObject> getDataObjects() {
+			return dataObjects;
+		}
+
+		List<CatalogAVU> getAvus() {
+			return avus;
+		}
+	}
+
+	/**
+	 * A data object in the catalog, along with its contents
+	 */
+	static final class CatalogDataObject {
+		private final long id;
+		private final CatalogCollection collection;
+		private final String name;
+		private final String owner;
+		private final long createTime;
+		private long modifyTime;
+		private byte[] content = new byte[0];
+		private long length;
+		private String checksum = "";
+		private final List<CatalogAVU> avus = new ArrayList<CatalogAVU>();
+
+		CatalogDataObject(final long id, final CatalogCollection collection,
+				final String name, final String owner, final long createTime) {
+			this.id = id;
+			this.collection = collection;
+			this.name = name;
+			this.owner = owner;
+			this.createTime = createTime;
+			modifyTime = createTime;
+		}
+
+		synchronized int read(final long offset, final byte[] buffer,
+				final int bufferOffset, final int len) {
+			if (offset >= length) {
+				return 0;
+			}
+			int count = (int) Math.min(len, length - offset);
+			System.arraycopy(content, (int) offset, buffer, bufferOffset,
+					count);
+			return count;
+		}
+
+		synchronized void write(final long offset, final byte[] buffer,
+				final int bufferOffset, final int len) {
+			long end = offset + len;
+			if (end > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException(
+						"stand-in data objects are limited to 2GB");
+			}
+			if (end > content.length) {
+				long newSize = Math.max(end, Math.min(
+						(long) content.length * 2, Integer.MAX_VALUE - 8));
+				byte[] grown = new byte[(int) newSize];
+				System.arraycopy(content, 0, grown, 0, (int) length);
+				content = grown;
+			}
+			System.arraycopy(buffer, bufferOffset, content, (int) offset, len);
+			length = Math.max(length, end);
+			checksum = "";
+		}
+
+		synchronized void truncate(final long time) {
+			content = new byte[0];
+			length = 0;
+			checksum = "";
+			modifyTime = time;
+		}
+
+		synchronized void close(final long time) {
+			modifyTime = time;
+		}
+
+		synchronized byte[] copyContent() {
+			byte[] copy = new byte[(int) length];
+			System.arraycopy(content, 0, copy, 0, (int) length);
+			return copy;
+		}
+
+		synchronized long getLength() {
+			return length;
+		}
+
+		synchronized long getModifyTime() {
+			return modifyTime;
+		}
+
+		synchronized String getChecksum() {
+			return checksum;
+		}
+
+		synchronized void setChecksum(final String checksum) {
+			this.checksum = checksum;
+		}
+
+		long getId() {
+			return id;
+		}
+
+		CatalogCollection getCollection() {
+			return collection;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		String getPath() {
+			if (collection.getPath().equals("/")) {
+				return "/" + name;
+			}
+			return collection.getPath() + "/" + name;
+		}
+
+		String getOwner() {
+			return owner;
+		}
+
+		long getCreateTime() {
+			return createTime;
+		}
+
+		List<CatalogAVU> getAvus() {
+			return avus;
+		}
+	}
+
+	/**
+	 * An AVU on a data object or collection
+	 */
+	static final class CatalogAVU {
+		private final long id;
+		private final String attribute;
+		private final String value;
+		private final String unit;
+		private final long createTime;
+
+		CatalogAVU(final long id, final String attribute, final String value,
+				final String unit, final long createTime) {
+			this.id = id;
+			this.attribute = attribute;
+			this.value = value;
+			this.unit = unit;
+			this.createTime = createTime;
+		}
+
+		boolean matches(final String attribute, final String value,
+				final String unit) {
+			return this.attribute.equals(attribute)
+					&& this.value.equals(value)
+					&& this.unit.equals(unit == null ? "" : unit);
+		}
+
+		long getId() {
+			return id;
+		}
+
+		String getAttribute() {
+			return attribute;
+		}
+
+		String getValue() {
+			return value;
+		}
+
+		String getUnit() {
+			return unit;
+		}
+
+		long getCreateTime() {
+			return createTime;
+		}
+	}
+
+}
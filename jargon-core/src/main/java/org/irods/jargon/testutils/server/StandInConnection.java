@@ -0,0 +1,886 @@
+package org.irods.jargon.testutils.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.CollInp;
+import org.irods.jargon.core.packinstr.DataObjInp;
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.MiscSvrInfo;
+import org.irods.jargon.core.packinstr.OpenedDataObjInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.utils.Base64;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.irods.jargon.testutils.server.StandInCatalog.CatalogDataObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves one client connection of the {@link IRODSStandInServer}: the startup
+ * handshake, native authentication, and the API calls listed in the server
+ * documentation, each answered in the iRODS XML protocol. Calls that are not
+ * handled are answered with <code>SYS_UNMATCHED_API_NUM</code>.
+ * <p/>
+ * Open data object descriptors and open query continuations belong to the
+ * connection, as they belong to the agent in iRODS.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class StandInConnection implements Runnable {
+
+	private static final String ENCODING = "UTF-8";
+	private static final String API_REPLY = "RODS_API_REPLY";
+	private static final String VERSION_REPLY = "RODS_VERSION";
+	private static final String CONNECT = "RODS_CONNECT";
+	private static final String DISCONNECT = "RODS_DISCONNECT";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int READ_ONLY = 0;
+	private static final int ACCESS_MODE_MASK = 3;
+
+	private static final SecureRandom random = new SecureRandom();
+
+	private static final Logger log = LoggerFactory
+			.getLogger(StandInConnection.class);
+
+	private final IRODSStandInServer server;
+	private final StandInCatalog catalog;
+	private final Socket socket;
+	private final StandInThrottle inThrottle;
+	private final StandInThrottle outThrottle;
+	private final Map<Integer, OpenDataObject> openDataObjects = new HashMap<Integer, OpenDataObject>();
+	private final Map<Integer, OpenQuery> openQueries = new HashMap<Integer, OpenQuery>();
+	private DataInputStream in;
+	private DataOutputStream out;
+	private String clientUser = null;
+	private byte[] challenge = null;
+	private boolean authenticated = false;
+	private int nextDescriptor = 3;
+	private int nextContinueIndex = 1;
+	private long byteStreamRemaining = 0;
+
+	StandInConnection(final IRODSStandInServer server, final Socket socket) {
+		this.server = server;
+		catalog = server.getCatalog();
+		this.socket = socket;
+		inThrottle = new StandInThrottle(server.getBandwidthBytesPerSecond());
+		outThrottle = new StandInThrottle(server.getBandwidthBytesPerSecond());
+	}
+
+	@Override
+	public void run() {
+		try {
+			socket.setSoTimeout(server.getSocketTimeoutMillis());
+			socket.setTcpNoDelay(true);
+			in = new DataInputStream(new BufferedInputStream(
+					socket.getInputStream(), BUFFER_SIZE));
+			out = new DataOutputStream(new BufferedOutputStream(
+					socket.getOutputStream(), BUFFER_SIZE));
+
+			if (!startup()) {
+				return;
+			}
+
+			Request request;
+			while ((request = readRequest()) != null) {
+				if (request.type.equals(DISCONNECT)) {
+					break;
+				}
+				server.countApiRequest();
+				dispatch(request);
+				skipByteStream();
+			}
+		} catch (EOFException e) {
+			log.debug("client closed the connection");
+		} catch (Exception e) {
+			if (!server.isStopping()) {
+				log.warn("stand-in connection ended with an error", e);
+			}
+		} finally {
+			for (OpenDataObject openDataObject : openDataObjects.values()) {
+				openDataObject.dataObject.close(StandInCatalog.now());
+			}
+			openDataObjects.clear();
+			openQueries.clear();
+			server.connectionClosed(socket);
+		}
+	}
+
+	private boolean startup() throws Exception {
+		Request request = readRequest();
+		if (request == null || !request.type.equals(CONNECT)
+				|| request.body == null) {
+			log.warn("connection did not start with a startup pack");
+			return false;
+		}
+
+		clientUser = request.body.getTag("clientUser").getStringValue();
+
+		sendMessage(VERSION_REPLY, new Tag("Version_PI", new Tag[] {
+				new Tag("status", 0),
+				new Tag("relVersion", IRODSStandInServer.RELEASE_VERSION),
+				new Tag("apiVersion", IRODSStandInServer.API_VERSION),
+				new Tag("reconnPort", 0),
+				new Tag("reconnAddr", server.getHost()),
+				new Tag("cookie", 0) }), 0, null, 0, 0);
+		return true;
+	}
+
+	private void dispatch(final Request request) throws Exception {
+
+		int apiNumber = request.apiNumber;
+
+		if (!authenticated && apiNumber != IRODSConstants.AUTH_REQUEST_AN
+				&& apiNumber != IRODSConstants.AUTH_RESPONSE_AN
+				&& apiNumber != MiscSvrInfo.API_NBR) {
+			sendError(ErrorEnum.SYS_NO_API_PRIV.getInt(),
+					"authenticate before calling api:" + apiNumber);
+			return;
+		}
+
+		try {
+			switch (apiNumber) {
+			case MiscSvrInfo.API_NBR:
+				miscServerInfo();
+				break;
+			case IRODSConstants.AUTH_REQUEST_AN:
+				authRequest();
+				break;
+			case IRODSConstants.AUTH_RESPONSE_AN:
+				authResponse(request.body);
+				break;
+			case IRODSConstants.GEN_QUERY_AN:
+				genQuery(request.body);
+				break;
+			case IRODSConstants.OBJ_STAT_AN:
+				objStat(request.body);
+				break;
+			case DataObjInp.CREATE_FILE_API_NBR:
+				openDataObject(request.body, true);
+				break;
+			case DataObjInp.OPEN_FILE_API_NBR:
+				openDataObject(request.body, false);
+				break;
+			case OpenedDataObjInp.CLOSE_API_NBR:
+				closeDataObject(request.body);
+				break;
+			case OpenedDataObjInp.SEEK_API_NBR:
+				seekDataObject(request.body);
+				break;
+			case OpenedDataObjInp.READ_API_NBR:
+				readDataObject(request.body);
+				break;
+			case OpenedDataObjInp.WRITE_API_NBR:
+				writeDataObject(request.body);
+				break;
+			case DataObjInp.PUT_FILE_API_NBR:
+				putDataObject(request.body);
+				break;
+			case DataObjInp.GET_FILE_API_NBR:
+				getDataObject(request.body);
+				break;
+			case IRODSConstants.OPR_COMPLETE_AN:
+				operationComplete(request.body);
+				break;
+			case DataObjInp.DELETE_FILE_API_NBR:
+				catalog.deleteDataObject(objPath(request.body));
+				sendEmptyReply(0);
+				break;
+			case CollInp.MKDIR_API_NBR:
+				catalog.createCollection(collName(request.body), clientUser,
+						hasKeyword(request.body, CollInp.RECURSIVE_OPR));
+				sendEmptyReply(0);
+				break;
+			case CollInp.RMDIR_API_NBR:
+				removeCollection(request.body);
+				break;
+			case IRODSConstants.MOD_AVU_METADATA_AN:
+				modifyAVU(request.body);
+				break;
+			case DataObjInp.CHECKSUM_API_NBR:
+				checksum(request.body);
+				break;
+			default:
+				sendError(ErrorEnum.SYS_UNMATCHED_API_NUM.getInt(),
+						"api not handled by the stand-in server:" + apiNumber);
+				break;
+			}
+		} catch (JargonException e) {
+			int status = e.getUnderlyingIRODSExceptionCode();
+			sendError(status < 0 ? status : ErrorEnum.SYS_API_INPUT_ERR
+					.getInt(), e.getMessage());
+		} catch (RuntimeException e) {
+			log.warn("stand-in server could not process api:{}", apiNumber, e);
+			sendError(ErrorEnum.SYS_API_INPUT_ERR.getInt(), String.valueOf(e));
+		}
+	}
+
+	private void miscServerInfo() throws Exception {
+		sendReply(new Tag(MiscSvrInfo.PI_TAG, new Tag[] {
+				new Tag(MiscSvrInfo.SERVER_TYPE_TAG, 1),
+				new Tag(MiscSvrInfo.SERVER_BOOT_TIME_TAG,
+						(int) server.getBootTime()),
+				new Tag(MiscSvrInfo.REL_VERSION_TAG,
+						IRODSStandInServer.RELEASE_VERSION),
+				new Tag(MiscSvrInfo.API_VERSION_TAG,
+						IRODSStandInServer.API_VERSION),
+				new Tag(MiscSvrInfo.RODS_ZONE_TAG, catalog.getZone()),
+				new Tag(MiscSvrInfo.COOKIE_TAG, 0) }), 0);
+	}
+
+	private void authRequest() throws Exception {
+		challenge = new byte[ConnectionConstants.CHALLENGE_LENGTH];
+		random.nextBytes(challenge);
+		sendReply(new Tag("authRequestOut_PI", new Tag[] { new Tag(
+				"challenge", Base64.toString(challenge)) }), 0);
+	}
+
+	private void authResponse(final Tag body) throws Exception {
+		String userName = body.getTag("username").getStringValue();
+		String response = body.getTag("response").getStringValue();
+		String password = server.getPassword(userName);
+
+		if (challenge == null || password == null
+				|| !expectedResponse(password).equals(response)) {
+			challenge = null;
+			sendError(ErrorEnum.CAT_INVALID_AUTHENTICATION.getInt(),
+					"authentication failed for:" + userName);
+			return;
+		}
+
+		challenge = null;
+		authenticated = true;
+		sendEmptyReply(0);
+	}
+
+	/**
+	 * The md5 of the challenge and the password, padded to the iRODS
+	 * maximums, with any zero byte made one
+	 */
+	private String expectedResponse(final String password)
+			throws NoSuchAlgorithmException, UnsupportedEncodingException {
+		byte[] buffer = new byte[ConnectionConstants.CHALLENGE_LENGTH
+				+ ConnectionConstants.MAX_PASSWORD_LENGTH];
+		byte[] passwordBytes = password.getBytes(ENCODING);
+		System.arraycopy(challenge, 0, buffer, 0, challenge.length);
+		System.arraycopy(passwordBytes, 0, buffer,
+				ConnectionConstants.CHALLENGE_LENGTH,
+				Math.min(passwordBytes.length,
+						ConnectionConstants.MAX_PASSWORD_LENGTH));
+		byte[] digest = MessageDigest.getInstance("MD5").digest(buffer);
+		for (int i = 0; i < digest.length; i++) {
+			if (digest[i] == 0) {
+				digest[i] = 1;
+			}
+		}
+		return Base64.toString(digest);
+	}
+
+	private void genQuery(final Tag body) throws Exception {
+		int maxRows = body.getTag(GenQueryInp.MAX_ROWS).getIntValue();
+		int continueIndex = body.getTag(GenQueryInp.CONTINUE_INX)
+				.getIntValue();
+
+		if (continueIndex > 0) {
+			if (maxRows <= 0) {
+				openQueries.remove(continueIndex);
+				sendEmptyReply(0);
+				return;
+			}
+			OpenQuery openQuery = openQueries.get(continueIndex);
+			if (openQuery == null) {
+				sendError(ErrorEnum.CAT_NO_ROWS_FOUND.getInt(),
+						"no open query for continuation:" + continueIndex);
+				return;
+			}
+			sendQueryPage(continueIndex, openQuery, maxRows);
+			return;
+		}
+
+		if (maxRows <= 0) {
+			sendEmptyReply(0);
+			return;
+		}
+
+		StandInGenQuery query = StandInGenQuery.instance(catalog, body);
+		List<String[]> results = query.execute();
+		Tag partialStartIndex = body.getTag(GenQueryInp.PARTIAL_START_INDEX);
+		int start = partialStartIndex == null ? 0 : Math.max(0,
+				partialStartIndex.getIntValue());
+
+		if (results.size() <= start) {
+			sendError(ErrorEnum.CAT_NO_ROWS_FOUND.getInt(), "no rows found");
+			return;
+		}
+
+		OpenQuery openQuery = new OpenQuery(query.getSelectColumns(), results,
+				start);
+		sendQueryPage(nextContinueIndex++, openQuery, maxRows);
+	}
+
+	private void sendQueryPage(final int continueIndex,
+			final OpenQuery openQuery, final int maxRows) throws Exception {
+		int from = openQuery.position;
+		int count = Math.min(maxRows, openQuery.results.size() - from);
+		openQuery.position += count;
+
+		int nextIndex = 0;
+		if (openQuery.position < openQuery.results.size()) {
+			openQueries.put(continueIndex, openQuery);
+			nextIndex = continueIndex;
+		} else {
+			openQueries.remove(continueIndex);
+		}
+
+		sendReply(StandInGenQuery.buildResponse(openQuery.selectColumns,
+				openQuery.results, from, count, nextIndex), 0);
+	}
+
+	private void objStat(final Tag body) throws Exception {
+		String path = objPath(body);
+
+		CatalogDataObject dataObject = catalog.findDataObject(path);
+		if (dataObject != null) {
+			sendReply(objStatResponse(dataObject.getLength(), 1, 33188,
+					dataObject.getId(), dataObject.getChecksum(),
+					dataObject.getOwner(), dataObject.getCreateTime(),
+					dataObject.getModifyTime()), 0);
+			return;
+		}
+
+		StandInCatalog.CatalogCollection collection = catalog
+				.findCollection(path);
+		if (collection != null) {
+			sendReply(objStatResponse(0, 2, 0, collection.getId(), "",
+					collection.getOwner(), collection.getCreateTime(),
+					collection.getModifyTime()), 0);
+			return;
+		}
+
+		sendError(ErrorEnum.USER_FILE_DOES_NOT_EXIST.getInt(),
+				"no data object or collection:" + path);
+	}
+
+	private Tag objStatResponse(final long size, final int type,
+			final int mode, final long id, final String checksum,
+			final String owner, final long createTime, final long modifyTime) {
+		return new Tag("RodsObjStat_PI", new Tag[] { new Tag("objSize", size),
+				new Tag("objType", type), new Tag("dataMode", mode),
+				new Tag("dataId", String.valueOf(id)),
+				new Tag("chksum", checksum), new Tag("ownerName", owner),
+				new Tag("ownerZone", catalog.getZone()),
+				new Tag("createTime", String.format("%011d", createTime)),
+				new Tag("modifyTime", String.format("%011d", modifyTime)) });
+	}
+
+	private void openDataObject(final Tag body, final boolean create)
+			throws Exception {
+		String path = objPath(body);
+		int openFlags = body.getTag(DataObjInp.OPEN_FLAGS).getIntValue();
+		boolean force = hasKeyword(body, DataObjInp.FORCE_FLAG_KW);
+
+		CatalogDataObject dataObject;
+		if (create) {
+			dataObject = catalog.createDataObject(path, clientUser, force);
+		} else {
+			dataObject = catalog.findDataObject(path);
+			if (dataObject == null) {
+				if ((openFlags & DataObjInp.CREATE) == 0) {
+					sendError(ErrorEnum.CAT_NO_ROWS_FOUND.getInt(),
+							"no data object:" + path);
+					return;
+				}
+				dataObject = catalog.createDataObject(path, clientUser, false);
+			} else if ((openFlags & DataObjInp.TRUNCATE) != 0) {
+				dataObject.truncate(StandInCatalog.now());
+			}
+		}
+
+		boolean writable = create
+				|| (openFlags & ACCESS_MODE_MASK) != READ_ONLY;
+		sendEmptyReply(register(new OpenDataObject(dataObject, writable, null)));
+	}
+
+	private void closeDataObject(final Tag body) throws Exception {
+		OpenDataObject openDataObject = openDataObjects
+				.remove(descriptor(body));
+		if (openDataObject == null) {
+			sendError(ErrorEnum.SYS_BAD_FILE_DESCRIPTOR.getInt(),
+					"bad file descriptor");
+			return;
+		}
+		if (openDataObject.writable) {
+			openDataObject.dataObject.close(StandInCatalog.now());
+		}
+		sendEmptyReply(0);
+	}
+
+	private void seekDataObject(final Tag body) throws Exception {
+		OpenDataObject openDataObject = openDataObjects.get(descriptor(body));
+		if (openDataObject == null) {
+			sendError(ErrorEnum.SYS_BAD_FILE_DESCRIPTOR.getInt(),
+					"bad file descriptor");
+			return;
+		}
+
+		long offset = body.getTag(OpenedDataObjInp.OFFSET).getLongValue();
+		int whence = body.getTag(OpenedDataObjInp.WHENCE).getIntValue();
+		if (whence == OpenedDataObjInp.SEEK_CURRENT) {
+			offset += openDataObject.position;
+		} else if (whence == OpenedDataObjInp.SEEK_END) {
+			offset += openDataObject.dataObject.getLength();
+		}
+		if (offset < 0) {
+			sendError(ErrorEnum.SYS_API_INPUT_ERR.getInt(),
+					"seek before start of data object");
+			return;
+		}
+		openDataObject.position = offset;
+
+		sendReply(new Tag("fileLseekOut_PI", new Tag[] { new Tag("offset",
+				offset) }), 0);
+	}
+
+	private void readDataObject(final Tag body) throws Exception {
+		OpenDataObject openDataObject = openDataObjects.get(descriptor(body));
+		if (openDataObject == null) {
+			sendError(ErrorEnum.SYS_BAD_FILE_DESCRIPTOR.getInt(),
+					"bad file descriptor");
+			return;
+		}
+
+		int length = body.getTag(OpenedDataObjInp.LEN).getIntValue();
+		byte[] buffer = new byte[Math.max(0, length)];
+		int read = openDataObject.dataObject.read(openDataObject.position,
+				buffer, 0, buffer.length);
+		openDataObject.position += read;
+		sendMessage(API_REPLY, null, read, buffer, 0, read);
+	}
+
+	private void writeDataObject(final Tag body) throws Exception {
+		OpenDataObject openDataObject = openDataObjects.get(descriptor(body));
+		if (openDataObject == null || !openDataObject.writable) {
+			sendError(ErrorEnum.SYS_BAD_FILE_DESCRIPTOR.getInt(),
+					"bad file descriptor");
+			return;
+		}
+
+		long written = readByteStreamInto(openDataObject.dataObject,
+				openDataObject.position);
+		openDataObject.position += written;
+		sendEmptyReply((int) written);
+	}
+
+	private void putDataObject(final Tag body) throws Exception {
+		String path = objPath(body);
+		long dataSize = body.getTag(DataObjInp.DATA_SIZE).getLongValue();
+		boolean force = hasKeyword(body, DataObjInp.FORCE_FLAG_KW);
+
+		CatalogDataObject dataObject = catalog.createDataObject(path,
+				clientUser, force);
+
+		if (hasKeyword(body, DataObjInp.DATA_INCLUDED_KW)
+				|| dataSize <= ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			readByteStreamInto(dataObject, 0);
+			dataObject.close(StandInCatalog.now());
+			sendEmptyReply(0);
+			return;
+		}
+
+		int numThreads = threadsFor(body.getTag(DataObjInp.NUM_THREADS)
+				.getIntValue());
+		StandInPortal portal = null;
+		if (numThreads > 0) {
+			portal = new StandInPortal(server, dataObject, true, dataSize,
+					numThreads);
+		}
+
+		int descriptor = register(new OpenDataObject(dataObject, true, portal));
+		sendPortalReply(descriptor, portal);
+	}
+
+	private void getDataObject(final Tag body) throws Exception {
+		CatalogDataObject dataObject = catalog
+				.findDataObjectOrFail(objPath(body));
+		long length = dataObject.getLength();
+
+		if (length > 0 && length <= ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			byte[] content = dataObject.copyContent();
+			sendMessage(API_REPLY, null, 0, content, 0, content.length);
+			return;
+		}
+
+		int numThreads = 0;
+		if (length > ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			numThreads = threadsFor(body.getTag(DataObjInp.NUM_THREADS)
+					.getIntValue());
+		}
+
+		if (numThreads == 0) {
+			sendPortalReply(
+					register(new OpenDataObject(dataObject, false, null)), null);
+			return;
+		}
+
+		/*
+		 * From 4.1.6 the client sends no operation complete after a parallel
+		 * get, so the portal is not held in the descriptor table
+		 */
+		StandInPortal portal = new StandInPortal(server, dataObject, false,
+				length, numThreads);
+		sendPortalReply(nextDescriptor++, portal);
+	}
+
+	private void sendPortalReply(final int descriptor,
+			final StandInPortal portal) throws Exception {
+		Tag portList = new Tag("PortList_PI", new Tag[] {
+				new Tag("portNum", portal == null ? 0 : portal.getPort()),
+				new Tag("cookie", portal == null ? 0 : portal.getCookie()),
+				new Tag("sock", 0), new Tag("windowSize", 0),
+				new Tag("hostAddr", server.getHost()) });
+		Tag response = new Tag("PortalOprOut_PI", new Tag[] {
+				new Tag("status", 0),
+				new Tag(IRODSConstants.L1_DESC_INX, descriptor),
+				new Tag(IRODSConstants.numThreads, portal == null ? 0
+						: portal.getNumThreads()), new Tag("chksum", ""),
+				portList });
+
+		if (portal != null) {
+			portal.start();
+		}
+		sendReply(response, descriptor);
+	}
+
+	private void operationComplete(final Tag body) throws Exception {
+		int descriptor = body.getTag("myInt").getIntValue();
+		OpenDataObject openDataObject = openDataObjects.remove(descriptor);
+		if (openDataObject == null) {
+			sendError(ErrorEnum.SYS_BAD_FILE_DESCRIPTOR.getInt(),
+					"bad file descriptor");
+			return;
+		}
+
+		if (openDataObject.portal != null) {
+			Exception failure = openDataObject.portal.awaitCompletion();
+			if (failure != null) {
+				sendError(ErrorEnum.SYS_COPY_LEN_ERR.getInt(),
+						"parallel transfer failed:" + failure);
+				return;
+			}
+		}
+
+		openDataObject.dataObject.close(StandInCatalog.now());
+		sendEmptyReply(0);
+	}
+
+	private void removeCollection(final Tag body) throws Exception {
+		String path = collName(body);
+		catalog.removeCollection(path,
+				hasKeyword(body, CollInp.RECURSIVE_OPR));
+		sendReply(new Tag(IRODSConstants.CollOprStat_PI, new Tag[] {
+				new Tag("filesCnt", 0), new Tag("totalFileCnt", 0),
+				new Tag("bytesWritten", 0), new Tag("lastObjPath", path) }), 0);
+	}
+
+	private void modifyAVU(final Tag body) throws Exception {
+		List<String> args = new ArrayList<String>();
+		for (int i = 0; i < 10; i++) {
+			Tag arg = body.getTag("arg" + i);
+			String value = arg == null ? null : arg.getStringValue();
+			args.add(value == null ? "" : value);
+		}
+
+		String action = args.get(0);
+		String targetType = args.get(1);
+		if (!(targetType.equals("-d") || targetType.equals("-c") || targetType
+				.equals("-C"))) {
+			sendError(ErrorEnum.CAT_INVALID_ARGUMENT.getInt(),
+					"stand-in server only holds data object and collection AVUs");
+			return;
+		}
+
+		String path = args.get(2);
+		String attribute = args.get(3);
+		String value = args.get(4);
+		String unit = "";
+		int next = 5;
+		if (!isModArgument(args.get(next))) {
+			unit = args.get(next);
+			next++;
+		}
+
+		if (action.equals("add")) {
+			catalog.addAVU(path, attribute, value, unit);
+		} else if (action.equals("rm") || action.equals("rmw")) {
+			catalog.removeAVU(path, attribute, value,
+					unit.isEmpty() ? null : unit);
+		} else if (action.equals("mod")) {
+			String newAttribute = attribute;
+			String newValue = value;
+			String newUnit = unit;
+			for (int i = next; i < args.size(); i++) {
+				String arg = args.get(i);
+				if (arg.startsWith("n:")) {
+					newAttribute = arg.substring(2);
+				} else if (arg.startsWith("v:")) {
+					newValue = arg.substring(2);
+				} else if (arg.startsWith("u:")) {
+					newUnit = arg.substring(2);
+				}
+			}
+			if (catalog.removeAVU(path, attribute, value, unit) == 0) {
+				sendError(ErrorEnum.CAT_NO_ROWS_FOUND.getInt(),
+						"no AVU to modify");
+				return;
+			}
+			catalog.addAVU(path, newAttribute, newValue, newUnit);
+		} else {
+			sendError(ErrorEnum.CAT_INVALID_ARGUMENT.getInt(),
+					"unknown AVU action:" + action);
+			return;
+		}
+
+		sendEmptyReply(0);
+	}
+
+	private static boolean isModArgument(final String arg) {
+		return arg.startsWith("n:") || arg.startsWith("v:")
+				|| arg.startsWith("u:");
+	}
+
+	private void checksum(final Tag body) throws Exception {
+		CatalogDataObject dataObject = catalog
+				.findDataObjectOrFail(objPath(body));
+		String checksum = dataObject.getChecksum();
+		if (checksum.isEmpty()) {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(
+					dataObject.copyContent());
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest) {
+				hex.append(String.format("%02x", b & 0xff));
+			}
+			checksum = hex.toString();
+			dataObject.setChecksum(checksum);
+		}
+		sendReply(new Tag("STR_PI", new Tag[] { new Tag("myStr", checksum) }),
+				0);
+	}
+
+	/**
+	 * No threads when the client asks for none, the server default when it
+	 * leaves the count to the server, otherwise the smaller of the two
+	 */
+	private int threadsFor(final int requested) {
+		int max = server.getMaxParallelThreads();
+		if (requested < 0 || max <= 0) {
+			return 0;
+		} else if (requested == 0) {
+			return max;
+		}
+		return Math.min(requested, max);
+	}
+
+	private int register(final OpenDataObject openDataObject) {
+		int descriptor = nextDescriptor++;
+		openDataObjects.put(descriptor, openDataObject);
+		return descriptor;
+	}
+
+	private static String objPath(final Tag body) {
+		return body.getTag(DataObjInp.OBJ_PATH).getStringValue();
+	}
+
+	private static String collName(final Tag body) {
+		return body.getTag(CollInp.COLL_NAME).getStringValue();
+	}
+
+	private static int descriptor(final Tag body) {
+		return body.getTag(OpenedDataObjInp.L1_DESC_INX).getIntValue();
+	}
+
+	private static boolean hasKeyword(final Tag body, final String keyword) {
+		Tag keyValues = body.getTag("KeyValPair_PI");
+		if (keyValues == null || keyValues.getTags() == null) {
+			return false;
+		}
+		for (Tag tag : keyValues.getTags()) {
+			if (tag.getName().equals("keyWord")
+					&& keyword.equals(tag.getStringValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Read a request header and body, leaving any byte stream to be read by
+	 * the handler
+	 *
+	 * @return {@link Request}, or <code>null</code> if the client closed the
+	 *         connection
+	 */
+	private Request readRequest() throws Exception {
+		int headerLength;
+		try {
+			headerLength = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+
+		Tag header = Tag.readNextTag(readBytes(headerLength), ENCODING);
+		Request request = new Request();
+		request.type = header.getTag("type").getStringValue();
+		int messageLength = header.getTag("msgLen").getIntValue();
+		int errorLength = header.getTag("errorLen").getIntValue();
+		byteStreamRemaining = header.getTag("bsLen").getLongValue();
+		request.apiNumber = header.getTag("intInfo").getIntValue();
+
+		if (messageLength > 0) {
+			request.body = Tag.readNextTag(readBytes(messageLength), ENCODING);
+		}
+		if (errorLength > 0) {
+			readBytes(errorLength);
+		}
+		return request;
+	}
+
+	private byte[] readBytes(final int length) throws Exception {
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		inThrottle.pace(length);
+		return bytes;
+	}
+
+	private long readByteStreamInto(final CatalogDataObject dataObject,
+			final long offset) throws Exception {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long position = offset;
+		while (byteStreamRemaining > 0) {
+			int chunk = (int) Math.min(buffer.length, byteStreamRemaining);
+			in.readFully(buffer, 0, chunk);
+			inThrottle.pace(chunk);
+			dataObject.write(position, buffer, 0, chunk);
+			position += chunk;
+			byteStreamRemaining -= chunk;
+		}
+		return position - offset;
+	}
+
+	private void skipByteStream() throws Exception {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		while (byteStreamRemaining > 0) {
+			int chunk = (int) Math.min(buffer.length, byteStreamRemaining);
+			in.readFully(buffer, 0, chunk);
+			inThrottle.pace(chunk);
+			byteStreamRemaining -= chunk;
+		}
+	}
+
+	private void sendReply(final Tag body, final int intInfo) throws Exception {
+		sendMessage(API_REPLY, body, intInfo, null, 0, 0);
+	}
+
+	private void sendEmptyReply(final int intInfo) throws Exception {
+		sendMessage(API_REPLY, null, intInfo, null, 0, 0);
+	}
+
+	private void sendError(final int status, final String message)
+			throws Exception {
+		Tag error = new Tag("RError_PI", new Tag[] {
+				new Tag("count", 1),
+				new Tag("RErrMsg_PI", new Tag[] { new Tag("status", status),
+						new Tag("msg", message == null ? "" : message) }) });
+		byte[] errorBytes = error.parseTag().getBytes(ENCODING);
+		writeMessage(API_REPLY, new byte[0], errorBytes, status, null, 0, 0);
+	}
+
+	private void sendMessage(final String type, final Tag body,
+			final int intInfo, final byte[] bytes, final int offset,
+			final int length) throws Exception {
+		byte[] bodyBytes = body == null ? new byte[0] : body.parseTag()
+				.getBytes(ENCODING);
+		writeMessage(type, bodyBytes, new byte[0], intInfo, bytes, offset,
+				length);
+	}
+
+	private void writeMessage(final String type, final byte[] body,
+			final byte[] error, final int intInfo, final byte[] bytes,
+			final int offset, final int length) throws Exception {
+
+		int latencyMillis = server.getLatencyMillis();
+		if (latencyMillis > 0) {
+			Thread.sleep(latencyMillis);
+		}
+
+		byte[] header = new Tag("MsgHeader_PI", new Tag[] {
+				new Tag("type", type), new Tag("msgLen", body.length),
+				new Tag("errorLen", error.length),
+				new Tag("bsLen", bytes == null ? 0 : length),
+				new Tag("intInfo", intInfo) }).parseTag().getBytes(ENCODING);
+
+		out.writeInt(header.length);
+		out.write(header);
+		out.write(body);
+		out.write(error);
+		outThrottle.pace(4 + header.length + body.length + error.length);
+
+		if (bytes != null) {
+			for (int sent = 0; sent < length; sent += BUFFER_SIZE) {
+				int chunk = Math.min(BUFFER_SIZE, length - sent);
+				out.write(bytes, offset + sent, chunk);
+				outThrottle.pace(chunk);
+			}
+		}
+		out.flush();
+	}
+
+	private static final class Request {
+		private String type;
+		private int apiNumber;
+		private Tag body;
+	}
+
+	private static final class OpenDataObject {
+		private final CatalogDataObject dataObject;
+		private final boolean writable;
+		private final StandInPortal portal;
+		private long position = 0;
+
+		OpenDataObject(final CatalogDataObject dataObject,
+				final boolean writable, final StandInPortal portal) {
+			this.dataObject = dataObject;
+			this.writable = writable;
+			this.portal = portal;
+		}
+	}
+
+	private static final class OpenQuery {
+		private final int[] selectColumns;
+		private final List<String[]> results;
+		private int position;
+
+		OpenQuery(final int[] selectColumns, final List<String[]> results,
+				final int position) {
+			this.selectColumns = selectColumns;
+			this.results = results;
+			this.position = position;
+		}
+	}
+
+}
@@ -0,0 +1,804 @@
+package org.irods.jargon.testutils.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.GenQueryOut;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.testutils.server.StandInCatalog.CatalogAVU;
+import org.irods.jargon.testutils.server.StandInCatalog.CatalogCollection;
+import org.irods.jargon.testutils.server.StandInCatalog.CatalogDataObject;
+
+/**
+ * Answers a <code>GenQueryInp_PI</code> from the {@link StandInCatalog}.
+ * <p/>
+ * The query is run against one kind of row, picked from the columns it
+ * names: data object AVUs, collection AVUs, data objects, collections,
+ * resources, users or zones, in that order of precedence. A data object row
+ * also answers for its collection, its owner (as the user and access
+ * columns) and the resource, a collection row for its owner. Conditions,
+ * the upper case option, distinct, order by and the MIN/MAX/SUM/AVG/COUNT
+ * selects are honored; results are always ordered, by the order by columns
+ * and then by every selected column, so paging is stable.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class StandInGenQuery {
+
+	static final int SELECT_MIN = 2;
+	static final int SELECT_MAX = 3;
+	static final int SELECT_SUM = 4;
+	static final int SELECT_AVG = 5;
+	static final int SELECT_COUNT = 6;
+
+	private static final String[] OPERATORS = { "sounds not like",
+			"sounds like", "not like", "between", "like", "in", "n<=", "n>=",
+			"n<", "n>", "n=", "<>", "<=", ">=", "=", "<", ">" };
+
+	private static final Map<Integer, RodsGenQueryEnum> COLUMNS = new HashMap<Integer, RodsGenQueryEnum>();
+
+	static {
+		for (RodsGenQueryEnum column : RodsGenQueryEnum.values()) {
+			if (!COLUMNS.containsKey(column.getNumericValue())) {
+				COLUMNS.put(column.getNumericValue(), column);
+			}
+		}
+	}
+
+	enum RowKind {
+		ZONE, USER, RESOURCE, COLLECTION, DATA_OBJECT, COLLECTION_AVU, DATA_OBJECT_AVU
+	}
+
+	private final StandInCatalog catalog;
+	private final int[] selectColumns;
+	private final int[] selectOptions;
+	private final List<Condition> conditions;
+	private final boolean distinct;
+	private final boolean upperCase;
+
+	private StandInGenQuery(final StandInCatalog catalog,
+			final int[] selectColumns, final int[] selectOptions,
+			final List<Condition> conditions, final boolean distinct,
+			final boolean upperCase) {
+		this.catalog = catalog;
+		this.selectColumns = selectColumns;
+		this.selectOptions = selectOptions;
+		this.conditions = conditions;
+		this.distinct = distinct;
+		this.upperCase = upperCase;
+	}
+
+	/**
+	 * Read the selects and conditions of a query
+	 *
+	 * @param catalog
+	 *            {@link StandInCatalog} to query
+	 * @param genQueryInp
+	 *            {@link Tag} with the <code>GenQueryInp_PI</code>
+	 * @return {@link StandInGenQuery} ready to run
+	 * @throws JargonException
+	 *             if a condition cannot be read
+	 */
+	static StandInGenQuery instance(final StandInCatalog catalog,
+			final Tag genQueryInp) throws JargonException {
+
+		int options = genQueryInp.getTag("options").getIntValue();
+
+		Tag selects = genQueryInp.getTag(GenQueryInp.INX_IVAL_PAIR_PI);
+		int selectCount = selects.getTag(GenQueryInp.IILEN).getIntValue();
+		int[] selectColumns = new int[selectCount];
+		int[] selectOptions = new int[selectCount];
+		for (int i = 0; i < selectCount; i++) {
+			selectColumns[i] = selects.getTags()[1 + i].getIntValue();
+			selectOptions[i] = selects.getTags()[1 + selectCount + i]
+					.getIntValue();
+		}
+
+		List<Condition> conditions = new ArrayList<Condition>();
+		Tag conditionTags = genQueryInp.getTag(GenQueryInp.INX_VAL_PAIR_PI);
+		int conditionCount = conditionTags == null ? 0 : conditionTags
+				.getTag(GenQueryInp.ISLEN).getIntValue();
+		for (int i = 0; i < conditionCount; i++) {
+			conditions.add(Condition.parse(conditionTags.getTags()[1 + i]
+					.getIntValue(), conditionTags.getTags()[1 + conditionCount
+					+ i].getStringValue()));
+		}
+
+		return new StandInGenQuery(catalog, selectColumns, selectOptions,
+				conditions, (options & 1) == 0,
+				(options & GenQueryInp.UPPER_CASE_WHERE) != 0);
+	}
+
+	/**
+	 * Run the query
+	 *
+	 * @return <code>List</code> of <code>String[]</code> with every result
+	 *         row, in order
+	 */
+	List<String[]> execute() {
+
+		List<Row> candidates = candidateRows();
+		List<Row> matches = new ArrayList<Row>();
+		for (Row row : candidates) {
+			if (matches(row)) {
+				matches.add(row);
+			}
+		}
+
+		List<String[]> results;
+		if (isAggregate()) {
+			results = aggregate(matches);
+		} else {
+			results = new ArrayList<String[]>(matches.size());
+			for (Row row : matches) {
+				String[] values = new String[selectColumns.length];
+				for (int i = 0; i < selectColumns.length; i++) {
+					values[i] = row.value(selectColumns[i]);
+				}
+				results.add(values);
+			}
+		}
+
+		if (distinct) {
+			Set<List<String>> seen = new LinkedHashSet<List<String>>();
+			List<String[]> distinctResults = new ArrayList<String[]>();
+			for (String[] values : results) {
+				if (seen.add(java.util.Arrays.asList(values))) {
+					distinctResults.add(values);
+				}
+			}
+			results = distinctResults;
+		}
+
+		Collections.sort(results, new ResultComparator(selectOptions));
+		return results;
+	}
+
+	/**
+	 * Build the <code>GenQueryOut_PI</code> for a page of results
+	 *
+	 * @param selectColumns
+	 *            <code>int[]</code> with the selected column numbers
+	 * @param results
+	 *            <code>List</code> of every result row
+	 * @param from
+	 *            <code>int</code> with the first row to send
+	 * @param count
+	 *            <code>int</code> with the count of rows to send
+	 * @param continueIndex
+	 *            <code>int</code> with the continuation, 0 if this page is the
+	 *            last
+	 * @return {@link Tag} with the response
+	 */
+	static Tag buildResponse(final int[] selectColumns,
+			final List<String[]> results, final int from, final int count,
+			final int continueIndex) {
+
+		Tag response = new Tag(GenQueryOut.PI_NAME, new Tag[] {
+				new Tag(GenQueryOut.ROW_CNT, count),
+				new Tag(GenQueryOut.ATTRIB_CNT, selectColumns.length),
+				new Tag(GenQueryOut.CONTINUE_INX, continueIndex),
+				new Tag("totalRowCount", results.size()) });
+
+		for (int i = 0; i < selectColumns.length; i++) {
+			int resultLength = 1;
+			Tag[] values = new Tag[count + 2];
+			for (int j = 0; j < count; j++) {
+				String value = results.get(from + j)[i];
+				resultLength = Math.max(resultLength, value.length() + 1);
+				values[j + 2] = new Tag("value", value);
+			}
+			values[0] = new Tag("attriInx", selectColumns[i]);
+			values[1] = new Tag("reslen", resultLength);
+			response.addTag(new Tag("SqlResult_PI", values));
+		}
+
+		return response;
+	}
+
+	int[] getSelectColumns() {
+		return selectColumns;
+	}
+
+	private boolean isAggregate() {
+		for (int option : selectOptions) {
+			if (option >= SELECT_MIN && option <= SELECT_COUNT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(final Row row) {
+		for (Condition condition : conditions) {
+			String value = row.value(condition.column);
+			if (upperCase) {
+				value = value.toUpperCase(Locale.US);
+			}
+			if (!condition.matches(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<String[]> aggregate(final List<Row> rows) {
+
+		Map<List<String>, List<Row>> groups = new LinkedHashMap<List<String>, List<Row>>();
+		for (Row row : rows) {
+			List<String> key = new ArrayList<String>();
+			for (int i = 0; i < selectColumns.length; i++) {
+				if (!isAggregateOption(selectOptions[i])) {
+					key.add(row.value(selectColumns[i]));
+				}
+			}
+			List<Row> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<Row>();
+				groups.put(key, group);
+			}
+			group.add(row);
+		}
+
+		List<String[]> results = new ArrayList<String[]>();
+		for (List<Row> group : groups.values()) {
+			String[] values = new String[selectColumns.length];
+			for (int i = 0; i < selectColumns.length; i++) {
+				values[i] = aggregateValue(selectColumns[i], selectOptions[i],
+						group);
+			}
+			results.add(values);
+		}
+		return results;
+	}
+
+	private static boolean isAggregateOption(final int option) {
+		return option >= SELECT_MIN && option <= SELECT_COUNT;
+	}
+
+	private static String aggregateValue(final int column, final int option,
+			final List<Row> group) {
+
+		if (option == SELECT_COUNT) {
+			return String.valueOf(group.size());
+		}
+
+		if (!isAggregateOption(option)) {
+			return group.get(0).value(column);
+		}
+
+		if (option == SELECT_MIN || option == SELECT_MAX) {
+			String best = null;
+			for (Row row : group) {
+				String value = row.value(column);
+				if (best == null) {
+					best = value;
+				} else {
+					int compare = compareValues(value, best);
+					if (option == SELECT_MIN ? compare < 0 : compare > 0) {
+						best = value;
+					}
+				}
+			}
+			return best;
+		}
+
+		long longSum = 0;
+		double doubleSum = 0;
+		boolean integral = true;
+		for (Row row : group) {
+			String value = row.value(column);
+			try {
+				longSum += Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				integral = false;
+			}
+			doubleSum += parseDouble(value);
+		}
+
+		if (option == SELECT_SUM) {
+			return integral ? String.valueOf(longSum) : String
+					.valueOf(doubleSum);
+		}
+		return String.valueOf(doubleSum / group.size());
+	}
+
+	/**
+	 * Pick the kind of row from the columns used, and copy out the candidate
+	 * rows, narrowed to one collection, or the children of one collection,
+	 * when an equals condition pins either down
+	 */
+	private List<Row> candidateRows() {
+
+		RowKind kind = null;
+		for (int column : selectColumns) {
+			kind = moreSpecific(kind, kindOf(column));
+		}
+		for (Condition condition : conditions) {
+			kind = moreSpecific(kind, kindOf(condition.column));
+		}
+
+		List<Row> rows = new ArrayList<Row>();
+		if (kind == null) {
+			return rows;
+		}
+
+		switch (kind) {
+		case ZONE:
+			rows.add(new Row(null, null, null, "rods"));
+			return rows;
+		case RESOURCE:
+			rows.add(new Row(null, null, null, "rods"));
+			return rows;
+		case USER:
+			for (String user : catalog.snapshotUsers().keySet()) {
+				rows.add(new Row(null, null, null, user));
+			}
+			return rows;
+		default:
+			break;
+		}
+
+		String collectionName = null;
+		String parentName = null;
+		for (Condition condition : conditions) {
+			if (!upperCase && condition.isSimpleEquals()) {
+				if (condition.column == RodsGenQueryEnum.COL_COLL_NAME
+						.getNumericValue()) {
+					collectionName = condition.values.get(0);
+				} else if (condition.column == RodsGenQueryEnum.COL_COLL_PARENT_NAME
+						.getNumericValue()) {
+					parentName = condition.values.get(0);
+				}
+			}
+		}
+
+		List<CatalogCollection> collections = catalog.snapshotCollections(
+				collectionName, parentName);
+
+		if (kind == RowKind.COLLECTION) {
+			for (CatalogCollection collection : collections) {
+				rows.add(new Row(collection, null, null, collection.getOwner()));
+			}
+		} else if (kind == RowKind.COLLECTION_AVU) {
+			for (CatalogCollection collection : collections) {
+				for (CatalogAVU avu : catalog.snapshotAVUs(collection
+						.getAvus())) {
+					rows.add(new Row(collection, null, avu, collection
+							.getOwner()));
+				}
+			}
+		} else {
+			for (CatalogDataObject dataObject : catalog
+					.snapshotDataObjects(collections)) {
+				if (kind == RowKind.DATA_OBJECT) {
+					rows.add(new Row(dataObject.getCollection(), dataObject,
+							null, dataObject.getOwner()));
+				} else {
+					for (CatalogAVU avu : catalog.snapshotAVUs(dataObject
+							.getAvus())) {
+						rows.add(new Row(dataObject.getCollection(),
+								dataObject, avu, dataObject.getOwner()));
+					}
+				}
+			}
+		}
+		return rows;
+	}
+
+	private static RowKind moreSpecific(final RowKind current,
+			final RowKind candidate) {
+		if (current == null) {
+			return candidate;
+		}
+		if (candidate == null) {
+			return current;
+		}
+		return candidate.ordinal() > current.ordinal() ? candidate : current;
+	}
+
+	static RowKind kindOf(final int column) {
+		if (column >= 600 && column < 610) {
+			return RowKind.DATA_OBJECT_AVU;
+		} else if (column >= 610 && column < 620) {
+			return RowKind.COLLECTION_AVU;
+		} else if ((column >= 400 && column < 500)
+				|| (column >= 700 && column < 710)) {
+			return RowKind.DATA_OBJECT;
+		} else if ((column >= 500 && column < 600)
+				|| (column >= 710 && column < 720)
+				|| (column >= 1300 && column < 1310)) {
+			return RowKind.COLLECTION;
+		} else if (column >= 300 && column < 400) {
+			return RowKind.RESOURCE;
+		} else if (column >= 200 && column < 300) {
+			return RowKind.USER;
+		} else if (column >= 100 && column < 200) {
+			return RowKind.ZONE;
+		}
+		return null;
+	}
+
+	static int compareValues(final String left, final String right) {
+		if (isNumber(left) && isNumber(right)) {
+			return Double.compare(parseDouble(left), parseDouble(right));
+		}
+		return left.compareTo(right);
+	}
+
+	private static boolean isNumber(final String value) {
+		if (value.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (!(Character.isDigit(c) || c == '.' || (c == '-' && i == 0))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static double parseDouble(final String value) {
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static String time(final long seconds) {
+		return String.format("%011d", seconds);
+	}
+
+	/**
+	 * One candidate row, answering for any column from the entities it joins
+	 */
+	private final class Row {
+		private final CatalogCollection collection;
+		private final CatalogDataObject dataObject;
+		private final CatalogAVU avu;
+		private final String user;
+
+		Row(final CatalogCollection collection,
+				final CatalogDataObject dataObject, final CatalogAVU avu,
+				final String user) {
+			this.collection = collection;
+			this.dataObject = dataObject;
+			this.avu = avu;
+			this.user = user;
+		}
+
+		String value(final int columnNumber) {
+			RodsGenQueryEnum column = COLUMNS.get(columnNumber);
+			if (column == null) {
+				return "";
+			}
+
+			switch (column) {
+			case COL_ZONE_ID:
+				return "1";
+			case COL_ZONE_NAME:
+			case COL_USER_ZONE:
+			case COL_R_ZONE_NAME:
+				return catalog.getZone();
+			case COL_ZONE_TYPE:
+				return "local";
+			case COL_USER_ID:
+				return String.valueOf(catalog.userId(user));
+			case COL_USER_NAME:
+				return user;
+			case COL_USER_TYPE:
+				return user.equals("rods") ? "rodsadmin" : "rodsuser";
+			case COL_R_RESC_ID:
+				return "2";
+			case COL_R_RESC_NAME:
+				return catalog.getResource();
+			case COL_R_TYPE_NAME:
+				return "unixfilesystem";
+			case COL_R_CLASS_NAME:
+				return "cache";
+			case COL_R_LOC:
+				return "localhost";
+			case COL_R_VAULT_PATH:
+				return "/var/lib/irods/Vault";
+			default:
+				break;
+			}
+
+			if (avu != null) {
+				switch (column) {
+				case COL_META_DATA_ATTR_NAME:
+				case COL_META_COLL_ATTR_NAME:
+					return avu.getAttribute();
+				case COL_META_DATA_ATTR_VALUE:
+				case COL_META_COLL_ATTR_VALUE:
+					return avu.getValue();
+				case COL_META_DATA_ATTR_UNITS:
+				case COL_META_COLL_ATTR_UNITS:
+					return avu.getUnit();
+				case COL_META_DATA_ATTR_ID:
+				case COL_META_COLL_ATTR_ID:
+					return String.valueOf(avu.getId());
+				case COL_META_DATA_CREATE_TIME:
+				case COL_META_DATA_MODIFY_TIME:
+					return time(avu.getCreateTime());
+				default:
+					break;
+				}
+			}
+
+			if (dataObject != null) {
+				switch (column) {
+				case COL_D_DATA_ID:
+				case COL_DATA_ACCESS_DATA_ID:
+					return String.valueOf(dataObject.getId());
+				case COL_D_COLL_ID:
+					return String.valueOf(collection.getId());
+				case COL_DATA_NAME:
+					return dataObject.getName();
+				case COL_DATA_REPL_NUM:
+				case COL_D_MAP_ID:
+					return "0";
+				case COL_DATA_TYPE_NAME:
+					return "generic";
+				case COL_DATA_SIZE:
+					return String.valueOf(dataObject.getLength());
+				case COL_D_RESC_NAME:
+					return catalog.getResource();
+				case COL_D_DATA_PATH:
+					return "/var/lib/irods/Vault" + dataObject.getPath();
+				case COL_D_OWNER_NAME:
+					return dataObject.getOwner();
+				case COL_D_OWNER_ZONE:
+					return catalog.getZone();
+				case COL_D_REPL_STATUS:
+					return "1";
+				case COL_D_DATA_CHECKSUM:
+					return dataObject.getChecksum();
+				case COL_D_CREATE_TIME:
+					return time(dataObject.getCreateTime());
+				case COL_D_MODIFY_TIME:
+					return time(dataObject.getModifyTime());
+				case COL_D_DATA_MODE:
+					return "33188";
+				case COL_DATA_ACCESS_TYPE:
+					return "1200";
+				case COL_DATA_ACCESS_NAME:
+					return "own";
+				case COL_DATA_TOKEN_NAMESPACE:
+					return "access_type";
+				case COL_DATA_ACCESS_USER_ID:
+					return String.valueOf(catalog.userId(dataObject.getOwner()));
+				default:
+					break;
+				}
+			}
+
+			if (collection != null) {
+				switch (column) {
+				case COL_COLL_ID:
+				case COL_COLL_ACCESS_COLL_ID:
+					return String.valueOf(collection.getId());
+				case COL_COLL_NAME:
+					return collection.getPath();
+				case COL_COLL_PARENT_NAME:
+					return collection.getParentPath();
+				case COL_COLL_OWNER_NAME:
+				case COL_COLL_ACCESS_USER_NAME:
+					return collection.getOwner();
+				case COL_COLL_OWNER_ZONE:
+				case COL_COLL_ACCESS_USER_ZONE:
+					return catalog.getZone();
+				case COL_COLL_MAP_ID:
+					return "0";
+				case COL_COLL_CREATE_TIME:
+					return time(collection.getCreateTime());
+				case COL_COLL_MODIFY_TIME:
+					return time(collection.getModifyTime());
+				case COL_COLL_ACCESS_TYPE:
+					return "1200";
+				case COL_COLL_ACCESS_NAME:
+					return "own";
+				case COL_COLL_TOKEN_NAMESPACE:
+					return "access_type";
+				case COL_COLL_ACCESS_USER_ID:
+					return String.valueOf(catalog.userId(collection.getOwner()));
+				default:
+					break;
+				}
+			}
+
+			return "";
+		}
+	}
+
+	/**
+	 * Orders by the order by columns first, then by every column
+	 */
+	private static final class ResultComparator implements
+			Comparator<String[]> {
+		private final int[] selectOptions;
+
+		ResultComparator(final int[] selectOptions) {
+			this.selectOptions = selectOptions;
+		}
+
+		@Override
+		public int compare(final String[] left, final String[] right) {
+			for (int i = 0; i < selectOptions.length; i++) {
+				if (selectOptions[i] == GenQueryInp.ORDER_BY
+						|| selectOptions[i] == GenQueryInp.ORDER_BY_DESC) {
+					int compare = compareValues(left[i], right[i]);
+					if (compare != 0) {
+						return selectOptions[i] == GenQueryInp.ORDER_BY ? compare
+								: -compare;
+					}
+				}
+			}
+			for (int i = 0; i < left.length; i++) {
+				int compare = compareValues(left[i], right[i]);
+				if (compare != 0) {
+					return compare;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * One condition, read from the <code>" operator value "</code> form that
+	 * jargon sends
+	 */
+	static final class Condition {
+		private final int column;
+		private final String operator;
+		private final List<String> values;
+		private final Pattern pattern;
+
+		private Condition(final int column, final String operator,
+				final List<String> values) {
+			this.column = column;
+			this.operator = operator;
+			this.values = values;
+			if (operator.endsWith("like") && !operator.startsWith("sounds")) {
+				pattern = likePattern(values.get(0));
+			} else {
+				pattern = null;
+			}
+		}
+
+		static Condition parse(final int column, final String condition)
+				throws JargonException {
+
+			String trimmed = condition.trim();
+			String lower = trimmed.toLowerCase(Locale.US);
+			for (String operator : OPERATORS) {
+				if (!lower.startsWith(operator)) {
+					continue;
+				}
+				if (Character.isLetter(operator.charAt(operator.length() - 1))
+						&& lower.length() > operator.length()
+						&& Character.isLetterOrDigit(lower.charAt(operator
+								.length()))) {
+					continue;
+				}
+				List<String> values = quotedValues(trimmed.substring(
+						operator.length()).trim());
+				if (values.isEmpty()) {
+					throw new JargonException("no value in condition:"
+							+ condition, ErrorEnum.SYS_API_INPUT_ERR.getInt());
+				}
+				if (operator.equals("between") && values.size() != 2) {
+					throw new JargonException("between needs two values:"
+							+ condition, ErrorEnum.SYS_API_INPUT_ERR.getInt());
+				}
+				return new Condition(column, operator, values);
+			}
+			throw new JargonException("unknown operator in condition:"
+					+ condition, ErrorEnum.SYS_API_INPUT_ERR.getInt());
+		}
+
+		boolean isSimpleEquals() {
+			return operator.equals("=");
+		}
+
+		boolean matches(final String value) {
+			if (operator.equals("=") || operator.equals("in")) {
+				return values.contains(value);
+			} else if (operator.equals("<>")) {
+				return !values.get(0).equals(value);
+			} else if (operator.equals("like")) {
+				return pattern.matcher(value).matches();
+			} else if (operator.equals("not like")) {
+				return !pattern.matcher(value).matches();
+			} else if (operator.startsWith("sounds")) {
+				boolean sounds = values.get(0).equalsIgnoreCase(value);
+				return operator.equals("sounds like") ? sounds : !sounds;
+			} else if (operator.equals("between")) {
+				return compareValues(value, values.get(0)) >= 0
+						&& compareValues(value, values.get(1)) <= 0;
+			} else if (operator.startsWith("n")) {
+				if (!isNumber(value) || !isNumber(values.get(0))) {
+					return false;
+				}
+				return compareMatches(operator.substring(1), Double.compare(
+						parseDouble(value), parseDouble(values.get(0))));
+			}
+			return compareMatches(operator,
+					compareValues(value, values.get(0)));
+		}
+
+		private static boolean compareMatches(final String operator,
+				final int compare) {
+			if (operator.equals("<")) {
+				return compare < 0;
+			} else if (operator.equals("<=")) {
+				return compare <= 0;
+			} else if (operator.equals(">")) {
+				return compare > 0;
+			} else if (operator.equals(">=")) {
+				return compare >= 0;
+			}
+			return compare == 0;
+		}
+
+		/**
+		 * Pull the values out of <code>'a'</code>,
+		 * <code>('a','b')</code> or <code>'a' 'b'</code>, or take the bare
+		 * value
+		 */
+		private static List<String> quotedValues(final String text) {
+			List<String> values = new ArrayList<String>();
+			int start = text.indexOf('\'');
+			while (start >= 0) {
+				int end = text.indexOf('\'', start + 1);
+				if (end < 0) {
+					break;
+				}
+				values.add(text.substring(start + 1, end));
+				start = text.indexOf('\'', end + 1);
+			}
+			if (values.isEmpty() && !text.isEmpty()) {
+				values.add(text);
+			}
+			return values;
+		}
+
+		private static Pattern likePattern(final String like) {
+			StringBuilder regex = new StringBuilder();
+			StringBuilder literal = new StringBuilder();
+			for (int i = 0; i < like.length(); i++) {
+				char c = like.charAt(i);
+				if (c == '%' || c == '_') {
+					if (literal.length() > 0) {
+						regex.append(Pattern.quote(literal.toString()));
+						literal.setLength(0);
+					}
+					regex.append(c == '%' ? ".*" : ".");
+				} else {
+					literal.append(c);
+				}
+			}
+			if (literal.length() > 0) {
+				regex.append(Pattern.quote(literal.toString()));
+			}
+			return Pattern.compile(regex.toString(), Pattern.DOTALL);
+		}
+	}
+
+}
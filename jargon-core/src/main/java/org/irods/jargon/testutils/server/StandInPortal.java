@@ -0,0 +1,225 @@
+package org.irods.jargon.testutils.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.testutils.server.StandInCatalog.CatalogDataObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The parallel transfer portal of the {@link IRODSStandInServer}. Listens on
+ * its own loopback port for the given number of client threads, checks the
+ * cookie each sends, and moves one segment of the data object over each
+ * socket, using the same 24 byte operation headers that an iRODS agent sends.
+ * The last segment carries any remainder.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class StandInPortal {
+
+	static final int PUT_OPR = 1;
+	static final int GET_OPR = 2;
+	static final int DONE_OPR = 9999;
+
+	private static final int HEADER_LENGTH = 24;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final SecureRandom random = new SecureRandom();
+
+	private static final Logger log = LoggerFactory
+			.getLogger(StandInPortal.class);
+
+	private final IRODSStandInServer server;
+	private final ServerSocket serverSocket;
+	private final CatalogDataObject dataObject;
+	private final boolean put;
+	private final long length;
+	private final int numThreads;
+	private final int cookie;
+	private final CountDownLatch segmentsDone;
+	private volatile Exception failure = null;
+
+	/**
+	 * Open the portal listener
+	 *
+	 * @param server
+	 *            {@link IRODSStandInServer} that owns the portal
+	 * @param dataObject
+	 *            {@link CatalogDataObject} to write to or read from
+	 * @param put
+	 *            <code>boolean</code> that is <code>true</code> if the client
+	 *            is sending the data
+	 * @param length
+	 *            <code>long</code> with the length to move
+	 * @param numThreads
+	 *            <code>int</code> with the count of client threads to expect
+	 * @throws IOException
+	 */
+	StandInPortal(final IRODSStandInServer server,
+			final CatalogDataObject dataObject, final boolean put,
+			final long length, final int numThreads) throws IOException {
+		this.server = server;
+		this.dataObject = dataObject;
+		this.put = put;
+		this.length = length;
+		this.numThreads = numThreads;
+		cookie = random.nextInt() & Integer.MAX_VALUE;
+		segmentsDone = new CountDownLatch(numThreads);
+		serverSocket = new ServerSocket(0, numThreads,
+				InetAddress.getByName(server.getHost()));
+		serverSocket.setSoTimeout(server.getSocketTimeoutMillis());
+	}
+
+	/**
+	 * Start accepting the client threads
+	 */
+	void start() {
+		server.newThread(new Runnable() {
+			@Override
+			public void run() {
+				acceptSegments();
+			}
+		}, "portal-" + serverSocket.getLocalPort()).start();
+	}
+
+	/**
+	 * Wait for every segment to be moved
+	 *
+	 * @return <code>Exception</code> that failed a segment, or
+	 *         <code>null</code> if all were moved
+	 * @throws InterruptedException
+	 */
+	Exception awaitCompletion() throws InterruptedException {
+		if (!segmentsDone.await(server.getSocketTimeoutMillis(),
+				TimeUnit.MILLISECONDS)) {
+			return new IOException("timed out waiting for parallel transfer");
+		}
+		return failure;
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	int getCookie() {
+		return cookie;
+	}
+
+	int getNumThreads() {
+		return numThreads;
+	}
+
+	private void acceptSegments() {
+		int accepted = 0;
+		try {
+			for (; accepted < numThreads; accepted++) {
+				final Socket socket = serverSocket.accept();
+				socket.setSoTimeout(server.getSocketTimeoutMillis());
+				final int segment = accepted;
+				server.newThread(new Runnable() {
+					@Override
+					public void run() {
+						moveSegment(socket, segment);
+					}
+				}, "portal-segment-" + segment).start();
+			}
+		} catch (IOException e) {
+			log.error("portal accept failed", e);
+			failure = e;
+			for (; accepted < numThreads; accepted++) {
+				segmentsDone.countDown();
+			}
+		} finally {
+			closeQuietly(serverSocket);
+		}
+	}
+
+	private void moveSegment(final Socket socket, final int segment) {
+		long segmentLength = length / numThreads;
+		long offset = segmentLength * segment;
+		if (segment == numThreads - 1) {
+			segmentLength = length - offset;
+		}
+
+		StandInThrottle throttle = new StandInThrottle(
+				server.getBandwidthBytesPerSecond());
+
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					socket.getInputStream(), BUFFER_SIZE));
+			OutputStream out = new BufferedOutputStream(
+					socket.getOutputStream(), BUFFER_SIZE);
+
+			if (in.readInt() != cookie) {
+				throw new IOException("bad cookie from parallel client thread");
+			}
+
+			writeHeader(out, put ? PUT_OPR : GET_OPR, offset, segmentLength);
+
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long position = offset;
+			long remaining = segmentLength;
+			while (remaining > 0) {
+				int chunk = (int) Math.min(buffer.length, remaining);
+				if (put) {
+					in.readFully(buffer, 0, chunk);
+					dataObject.write(position, buffer, 0, chunk);
+				} else {
+					chunk = dataObject.read(position, buffer, 0, chunk);
+					if (chunk == 0) {
+						throw new IOException(
+								"data object shrank during parallel get");
+					}
+					out.write(buffer, 0, chunk);
+				}
+				throttle.pace(chunk);
+				position += chunk;
+				remaining -= chunk;
+			}
+
+			writeHeader(out, DONE_OPR, 0, 0);
+		} catch (Exception e) {
+			log.error("parallel transfer segment failed", e);
+			failure = e;
+		} finally {
+			closeQuietly(socket);
+			segmentsDone.countDown();
+		}
+	}
+
+	/**
+	 * Jargon reads each field with a single read, so the header goes out in
+	 * one write
+	 */
+	private static void writeHeader(final OutputStream out,
+			final int operation, final long offset, final long length)
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.putInt(operation);
+		header.putInt(0);
+		header.putLong(offset);
+		header.putLong(length);
+		out.write(header.array());
+		out.flush();
+	}
+
+	private static void closeQuietly(final java.io.Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// nothing to do
+		}
+	}
+
+}
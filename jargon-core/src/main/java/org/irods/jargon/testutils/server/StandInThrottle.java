@@ -0,0 +1,47 @@
+package org.irods.jargon.testutils.server;
+
+/**
+ * Paces the bytes moved over one socket of the {@link IRODSStandInServer} to
+ * a set rate, so that a test may see how jargon behaves on a slow link. Each
+ * socket gets its own throttle, as each connection of a real network path
+ * gets its own share of the window.
+ * <p/>
+ * Not thread safe, each throttle is used by one thread.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class StandInThrottle {
+
+	private final long bytesPerSecond;
+	private final long startNanos = System.nanoTime();
+	private long bytesMoved = 0;
+
+	/**
+	 * @param bytesPerSecond
+	 *            <code>long</code> with the rate, 0 or less for no limit
+	 */
+	StandInThrottle(final long bytesPerSecond) {
+		this.bytesPerSecond = bytesPerSecond;
+	}
+
+	/**
+	 * Count bytes moved, sleeping until the rate allows them
+	 *
+	 * @param count
+	 *            <code>long</code> with the count of bytes just moved
+	 * @throws InterruptedException
+	 */
+	void pace(final long count) throws InterruptedException {
+		if (bytesPerSecond <= 0 || count <= 0) {
+			return;
+		}
+		bytesMoved += count;
+		long dueMillis = bytesMoved * 1000 / bytesPerSecond;
+		long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+		if (dueMillis > elapsedMillis) {
+			Thread.sleep(dueMillis - elapsedMillis);
+		}
+	}
+
+}
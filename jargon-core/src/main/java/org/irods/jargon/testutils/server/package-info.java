@@ -0,0 +1,8 @@
+/**
+ * An in-process stand-in for an iRODS server, speaking the iRODS protocol on a
+ * loopback port, for load and performance tests that need no iRODS grid.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+package org.irods.jargon.testutils.server;
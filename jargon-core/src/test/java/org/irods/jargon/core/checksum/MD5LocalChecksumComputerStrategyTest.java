@@ -1,5 +1,8 @@
 package org.irods.jargon.core.checksum;
 
+import java.io.FileInputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Properties;
 
 import junit.framework.Assert;
@@ -56,4 +59,31 @@ public class MD5LocalChecksumComputerStrategyTest {
 
 	}
 
+	@Test
+	public void testDigestOfStreamMatchesFileChecksum() throws Exception {
+		String testFileName = "testDigestOfStreamMatchesFileChecksum.txt";
+		String absPath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH);
+		String localFileName = FileGenerator
+				.generateFileOfFixedLengthGivenName(absPath, testFileName,
+						100000);
+
+		MD5LocalChecksumComputerStrategy checksumStrategy = new MD5LocalChecksumComputerStrategy();
+		MessageDigest messageDigest = checksumStrategy.instanceMessageDigest();
+		DigestInputStream in = new DigestInputStream(new FileInputStream(
+				localFileName), messageDigest);
+		byte[] buffer = new byte[1000];
+		while (in.read(buffer) != -1) {
+			// digest is updated as the bytes are read
+		}
+		in.close();
+
+		ChecksumValue expected = checksumStrategy
+				.computeChecksumValueForLocalFile(localFileName);
+		ChecksumValue actual = checksumStrategy
+				.checksumValueFromDigest(messageDigest.digest());
+		Assert.assertEquals("digest of stream should match file checksum",
+				expected, actual);
+	}
+
 }
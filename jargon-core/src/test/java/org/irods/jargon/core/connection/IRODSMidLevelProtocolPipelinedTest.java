@@ -0,0 +1,181 @@
+package org.irods.jargon.core.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.DuplicateDataException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.utils.Host;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Drives pipelined requests against a mock connection that serves canned
+ * replies, tracking how many requests are outstanding at each read
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSMidLevelProtocolPipelinedTest {
+
+	private static final int WINDOW = 2;
+
+	private AbstractConnection connection;
+	private IRODSMidLevelProtocol protocol;
+	private ByteArrayOutputStream replies;
+	private ByteArrayInputStream replyStream;
+	private int requestsSent;
+	private int requestsFlushed;
+	private int maxOutstanding;
+	private int repliesRead;
+
+	@Before
+	public void setUp() throws Exception {
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setPipelinedRequestWindowSize(WINDOW);
+		final PipelineConfiguration pipelineConfiguration = PipelineConfiguration
+				.instance(jargonProperties);
+
+		connection = Mockito.mock(AbstractConnection.class);
+		Mockito.when(connection.getPipelineConfiguration()).thenReturn(
+				pipelineConfiguration);
+		Mockito.when(connection.isConnected()).thenReturn(true);
+		replies = new ByteArrayOutputStream();
+		requestsSent = 0;
+		requestsFlushed = 0;
+		maxOutstanding = 0;
+		repliesRead = 0;
+
+		// each request starts with a header sent as a whole array
+		Mockito.doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(final InvocationOnMock invocation) {
+				requestsSent++;
+				return null;
+			}
+		}).when(connection).send(Matchers.any(byte[].class));
+		Mockito.doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(final InvocationOnMock invocation) {
+				requestsFlushed = requestsSent;
+				return null;
+			}
+		}).when(connection).flush();
+		Mockito.when(
+				connection.read(Matchers.any(byte[].class), Matchers.anyInt(),
+						Matchers.anyInt())).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(final InvocationOnMock invocation) {
+				if (replyStream == null) {
+					replyStream = new ByteArrayInputStream(replies
+							.toByteArray());
+				}
+				Object[] args = invocation.getArguments();
+				return replyStream.read((byte[]) args[0], (Integer) args[1],
+						(Integer) args[2]);
+			}
+		});
+
+		protocol = new IRODSMidLevelProtocol(connection,
+				Mockito.mock(IRODSProtocolManager.class)) {
+			@Override
+			Tag readHeader() throws JargonException {
+				maxOutstanding = Math.max(maxOutstanding, requestsFlushed
+						- repliesRead);
+				repliesRead++;
+				return super.readHeader();
+			}
+		};
+	}
+
+	@Test
+	public void testRepliesInOrderWithinWindow() throws Exception {
+		List<IRodsPI> requests = new ArrayList<IRodsPI>();
+		for (int i = 0; i < 5; i++) {
+			requests.add(avuRequest(i));
+			addReply(0);
+		}
+
+		List<PipelinedReply> results = protocol
+				.irodsFunctionPipelined(requests);
+
+		Assert.assertEquals("wrong number of replies", 5, results.size());
+		for (int i = 0; i < 5; i++) {
+			Assert.assertSame("replies out of order", requests.get(i),
+					results.get(i).getRequest());
+			Assert.assertFalse("should not fail", results.get(i).isFailed());
+		}
+		Assert.assertEquals("all requests should be sent", 5, requestsSent);
+		Assert.assertTrue("requests not pipelined", maxOutstanding > 1);
+		Assert.assertTrue("window exceeded", maxOutstanding <= WINDOW);
+	}
+
+	@Test
+	public void testErrorHeldInReply() throws Exception {
+		List<IRodsPI> requests = new ArrayList<IRodsPI>();
+		for (int i = 0; i < 3; i++) {
+			requests.add(avuRequest(i));
+		}
+		addReply(0);
+		addReply(-809000);
+		addReply(0);
+
+		List<PipelinedReply> results = protocol
+				.irodsFunctionPipelined(requests);
+
+		Assert.assertFalse("first should succeed", results.get(0).isFailed());
+		Assert.assertTrue("second should fail", results.get(1).isFailed());
+		Assert.assertTrue("wrong exception type", results.get(1)
+				.getException() instanceof DuplicateDataException);
+		Assert.assertFalse("third should still be read", results.get(2)
+				.isFailed());
+		try {
+			results.get(1).getReply();
+			Assert.fail("should rethrow the error");
+		} catch (DuplicateDataException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullRequestSendsNothing() throws Exception {
+		List<IRodsPI> requests = new ArrayList<IRodsPI>();
+		requests.add(avuRequest(0));
+		requests.add(null);
+		try {
+			protocol.irodsFunctionPipelined(requests);
+		} finally {
+			Assert.assertEquals("nothing should be sent", 0, requestsSent);
+		}
+	}
+
+	private void addReply(final int intInfo) throws Exception {
+		String header = "<MsgHeader_PI><type>RODS_API_REPLY</type>"
+				+ "<msgLen>0</msgLen><errorLen>0</errorLen><bsLen>0</bsLen>"
+				+ "<intInfo>" + intInfo + "</intInfo></MsgHeader_PI>";
+		byte[] headerBytes = header.getBytes("UTF-8");
+		byte[] length = new byte[4];
+		Host.copyInt(headerBytes.length, length);
+		replies.write(length);
+		replies.write(headerBytes);
+	}
+
+	private IRodsPI avuRequest(final int i) throws Exception {
+		return ModAvuMetadataInp.instanceForAddCollectionMetadata(
+				"/zone/home/user/coll", AvuData.instance("attr" + i, "value",
+						"unit"));
+	}
+
+}
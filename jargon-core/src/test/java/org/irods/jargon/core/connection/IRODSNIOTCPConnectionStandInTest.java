@@ -0,0 +1,101 @@
+package org.irods.jargon.core.connection;
+
+import java.io.File;
+import java.net.SocketTimeoutException;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Gets over an {@link IRODSNIOTCPConnection} from the in-process
+ * {@link IRODSStandInServer}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSNIOTCPConnectionStandInTest {
+
+	private static final int LENGTH = 300 * 1024;
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private File localFile;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("nio", "nio");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		SettableJargonProperties jargonProperties = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		jargonProperties.setConnectionFactory("nio");
+		jargonProperties.setIRODSSocketTimeout(1);
+		irodsFileSystem.getIrodsSession()
+				.setJargonProperties(jargonProperties);
+		irodsAccount = server.buildIRODSAccount("nio");
+		server.getCatalog().putDataObject(
+				irodsAccount.getHomeDirectory() + "/nio.dat", "nio",
+				new byte[LENGTH]);
+		localFile = File.createTempFile("IRODSNIOTCPConnectionStandInTest",
+				".dat");
+		localFile.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+		localFile.delete();
+	}
+
+	@Test
+	public void testGet() throws Exception {
+		get();
+		// the channel is back in blocking mode for the next request
+		get();
+
+		Assert.assertEquals("wrong file length", LENGTH, localFile.length());
+	}
+
+	@Test
+	public void testGetTimesOutWhenServerStopsSending() throws Exception {
+		// the first 64k of the data is sent at once, the rest seconds later
+		server.setBandwidthBytesPerSecond(16 * 1024);
+
+		long start = System.currentTimeMillis();
+		try {
+			get();
+			Assert.fail("stalled get should time out");
+		} catch (JargonException e) {
+			Throwable cause = e;
+			while (cause != null && !(cause instanceof SocketTimeoutException)) {
+				cause = cause.getCause();
+			}
+			Assert.assertNotNull("not a socket timeout", cause);
+		}
+		Assert.assertTrue("did not time out in time",
+				System.currentTimeMillis() - start < 3000);
+	}
+
+	private void get() throws Exception {
+		localFile.delete();
+		IRODSFile irodsFile = irodsFileSystem.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(
+				irodsAccount.getHomeDirectory() + "/nio.dat");
+		DataTransferOperations dataTransferOperations = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		dataTransferOperations.getOperation(irodsFile, localFile, null, null);
+	}
+
+}
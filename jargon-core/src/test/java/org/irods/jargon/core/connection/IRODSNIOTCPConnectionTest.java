@@ -0,0 +1,115 @@
+package org.irods.jargon.core.connection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Reads from an {@link IRODSNIOTCPConnection} connected to a local server
+ * socket that sends a short header followed by a payload
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSNIOTCPConnectionTest {
+
+	private static final int HEADER_LENGTH = 16;
+	private static final int PAYLOAD_LENGTH = 300 * 1024;
+
+	private ServerSocket serverSocket;
+	private Thread serverThread;
+	private byte[] sent;
+	private IRODSNIOTCPConnection connection;
+
+	@Before
+	public void setUp() throws Exception {
+		sent = new byte[HEADER_LENGTH + PAYLOAD_LENGTH];
+		new Random(42).nextBytes(sent);
+		serverSocket = new ServerSocket(0);
+		serverThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Socket socket = serverSocket.accept();
+					OutputStream outputStream = socket.getOutputStream();
+					outputStream.write(sent);
+					outputStream.flush();
+					socket.close();
+				} catch (Exception e) {
+					// test will fail on the short read
+				}
+			}
+		});
+		serverThread.start();
+
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setInputToOutputCopyBufferByteSize(64 * 1024);
+		IRODSAccount irodsAccount = IRODSAccount.instance("localhost",
+				serverSocket.getLocalPort(), "client", "password",
+				"/zone/home/client", "zone", "");
+		connection = new IRODSNIOTCPConnection(irodsAccount,
+				PipelineConfiguration.instance(jargonProperties),
+				Mockito.mock(IRODSProtocolManager.class));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		connection.shutdown();
+		serverThread.join();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testReadToFileAfterBufferedHeader() throws Exception {
+		byte[] header = new byte[HEADER_LENGTH];
+		connection.read(header, 0, HEADER_LENGTH);
+		Assert.assertTrue("header not read",
+				Arrays.equals(Arrays.copyOf(sent, HEADER_LENGTH), header));
+
+		File target = File.createTempFile("IRODSNIOTCPConnectionTest", ".dat");
+		target.deleteOnExit();
+		connection.read(new FileOutputStream(target), PAYLOAD_LENGTH, null);
+
+		Assert.assertEquals("wrong file length", PAYLOAD_LENGTH,
+				target.length());
+		byte[] actual = new byte[PAYLOAD_LENGTH];
+		FileInputStream fileInputStream = new FileInputStream(target);
+		try {
+			int read = 0;
+			while (read < PAYLOAD_LENGTH) {
+				read += fileInputStream.read(actual, read, PAYLOAD_LENGTH
+						- read);
+			}
+		} finally {
+			fileInputStream.close();
+		}
+		Assert.assertTrue("file content differs", Arrays.equals(Arrays
+				.copyOfRange(sent, HEADER_LENGTH, sent.length), actual));
+		target.delete();
+	}
+
+	@Test
+	public void testReadToStreamReusesBuffer() throws Exception {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		connection.read(target, sent.length, null);
+		Assert.assertTrue("stream content differs",
+				Arrays.equals(sent, target.toByteArray()));
+		Assert.assertSame("copy buffer should be reused",
+				connection.getReadToStreamBuffer(PAYLOAD_LENGTH),
+				connection.getReadToStreamBuffer(PAYLOAD_LENGTH));
+	}
+
+}
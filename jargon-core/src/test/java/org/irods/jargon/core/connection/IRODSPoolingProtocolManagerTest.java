@@ -0,0 +1,211 @@
+package org.irods.jargon.core.connection;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class IRODSPoolingProtocolManagerTest {
+
+	private IRODSSession irodsSession;
+	private PipelineConfiguration pipelineConfiguration;
+	private IRODSAccount irodsAccount;
+	private MockConnectingPoolingProtocolManager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setSocketRenewalIntervalInSeconds(600);
+		irodsSession = new IRODSSession(jargonProperties);
+		pipelineConfiguration = PipelineConfiguration
+				.instance(jargonProperties);
+		irodsAccount = IRODSAccount.instance("host", 1247, "user", "password",
+				"/zone/home/user", "zone", "resc");
+		manager = new MockConnectingPoolingProtocolManager();
+		manager.setEvictionIntervalInSeconds(0);
+	}
+
+	@Test
+	public void testReturnedConnectionIsReused() throws Exception {
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		AbstractIRODSMidLevelProtocol second = borrow(irodsAccount);
+		Assert.assertSame("returned connection not reused", first, second);
+
+		ConnectionPoolStatistics statistics = manager.getPoolStatistics();
+		Assert.assertEquals("wrong hits", 1, statistics.getHits());
+		Assert.assertEquals("wrong misses", 1, statistics.getMisses());
+		Assert.assertEquals("wrong active", 1, statistics.getNumActive());
+		Assert.assertEquals("wrong idle", 0, statistics.getNumIdle());
+		Mockito.verify(first, Mockito.times(2)).setIrodsProtocolManager(
+				manager);
+	}
+
+	@Test
+	public void testConnectionNotSharedWithOtherPassword() throws Exception {
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		IRODSAccount otherPassword = IRODSAccount.instance("host", 1247,
+				"user", "other", "/zone/home/user", "zone", "resc");
+		AbstractIRODSMidLevelProtocol second = borrow(otherPassword);
+		Assert.assertNotSame("connection shared across credentials", first,
+				second);
+	}
+
+	@Test
+	public void testReturnBeyondMaxIdleIsShutDown() throws Exception {
+		manager.setMaxIdlePerAccount(1);
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		AbstractIRODSMidLevelProtocol second = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		manager.returnIRODSProtocol(second);
+		Mockito.verify(first, Mockito.never()).shutdown();
+		Mockito.verify(second).shutdown();
+		Assert.assertEquals("wrong idle", 1, manager.getPoolStatistics()
+				.getNumIdle());
+	}
+
+	@Test
+	public void testDisconnectedIdleConnectionNotReused() throws Exception {
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		Mockito.when(first.isConnected()).thenReturn(false);
+		AbstractIRODSMidLevelProtocol second = borrow(irodsAccount);
+		Assert.assertNotSame("dead connection reused", first, second);
+		Mockito.verify(first).obliterateConnectionAndDiscardErrors();
+		Assert.assertEquals("wrong misses", 2, manager.getPoolStatistics()
+				.getMisses());
+	}
+
+	@Test
+	public void testExpiredConnectionNotPooled() throws Exception {
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		Mockito.when(first.getConnectTimeInMillis()).thenReturn(
+				System.currentTimeMillis() - 601 * 1000L);
+		manager.returnIRODSProtocol(first);
+		Mockito.verify(first).shutdown();
+		Assert.assertEquals("wrong idle", 0, manager.getPoolStatistics()
+				.getNumIdle());
+	}
+
+	@Test
+	public void testTimeoutWaitingAtMaxActive() throws Exception {
+		manager.setMaxActivePerAccount(1);
+		manager.setMaxWaitInMillis(10);
+		borrow(irodsAccount);
+		try {
+			borrow(irodsAccount);
+			Assert.fail("should have timed out");
+		} catch (JargonException e) {
+			// expected
+		}
+		Assert.assertEquals("wrong timeouts", 1, manager.getPoolStatistics()
+				.getTimeouts());
+	}
+
+	@Test
+	public void testWaiterGetsReturnedConnection() throws Exception {
+		manager.setMaxActivePerAccount(1);
+		manager.setMaxWaitInMillis(-1);
+		final AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		final AtomicReference<AbstractIRODSMidLevelProtocol> waited = new AtomicReference<AbstractIRODSMidLevelProtocol>();
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Thread waiter = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					waited.set(borrow(irodsAccount));
+				} catch (JargonException e) {
+					// leaves the reference null
+				}
+				done.countDown();
+			}
+		});
+		waiter.start();
+
+		Assert.assertFalse("waiter should block",
+				done.await(50, TimeUnit.MILLISECONDS));
+		manager.returnIRODSProtocol(first);
+		Assert.assertTrue("waiter not released",
+				done.await(5, TimeUnit.SECONDS));
+		Assert.assertSame("waiter should get returned connection", first,
+				waited.get());
+	}
+
+	@Test
+	public void testReturnWithForceReleasesPermit() throws Exception {
+		manager.setMaxActivePerAccount(1);
+		manager.setMaxWaitInMillis(10);
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnWithForce(first);
+		Mockito.verify(first).obliterateConnectionAndDiscardErrors();
+		AbstractIRODSMidLevelProtocol second = borrow(irodsAccount);
+		Assert.assertNotSame("discarded connection reused", first, second);
+	}
+
+	@Test
+	public void testEvictExpiredAndKeepMinIdle() throws Exception {
+		manager.setMinIdlePerAccount(2);
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		Mockito.when(first.getConnectTimeInMillis()).thenReturn(
+				System.currentTimeMillis() - 601 * 1000L);
+
+		manager.evictIdleProtocols();
+
+		Mockito.verify(first).shutdown();
+		ConnectionPoolStatistics statistics = manager.getPoolStatistics();
+		Assert.assertEquals("wrong evicted", 1, statistics.getEvicted());
+		Assert.assertEquals("min idle not restored", 2,
+				statistics.getNumIdle());
+		Assert.assertEquals("wrong created", 3, statistics.getCreated());
+	}
+
+	@Test
+	public void testDestroyClosesIdle() throws Exception {
+		AbstractIRODSMidLevelProtocol first = borrow(irodsAccount);
+		manager.returnIRODSProtocol(first);
+		manager.destroy();
+		Mockito.verify(first).shutdown();
+		try {
+			borrow(irodsAccount);
+			Assert.fail("pool should be closed");
+		} catch (JargonException e) {
+			// expected
+		}
+	}
+
+	private AbstractIRODSMidLevelProtocol borrow(final IRODSAccount account)
+			throws JargonException {
+		return manager.getIRODSProtocol(account, pipelineConfiguration,
+				irodsSession);
+	}
+
+	/**
+	 * Creates connected mock protocols rather than connecting to iRODS
+	 */
+	private static class MockConnectingPoolingProtocolManager extends
+			IRODSPoolingProtocolManager {
+
+		@Override
+		protected AbstractIRODSMidLevelProtocol createNewProtocol(
+				final IRODSAccount irodsAccount,
+				final PipelineConfiguration pipelineConfiguration,
+				final IRODSSession irodsSession) {
+			AbstractIRODSMidLevelProtocol protocol = Mockito
+					.mock(AbstractIRODSMidLevelProtocol.class);
+			Mockito.when(protocol.isConnected()).thenReturn(true);
+			Mockito.when(protocol.getConnectTimeInMillis()).thenReturn(
+					System.currentTimeMillis());
+			return protocol;
+		}
+	}
+
+}
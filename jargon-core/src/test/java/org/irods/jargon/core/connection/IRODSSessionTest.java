@@ -1,11 +1,15 @@
 package org.irods.jargon.core.connection;
 
+import java.io.File;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
 import junit.framework.Assert;
 
 import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.pub.ObjStatCache;
+import org.irods.jargon.core.transfer.FileBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
 import org.irods.jargon.testutils.TestingPropertiesHelper;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -155,6 +159,80 @@ public class IRODSSessionTest {
 
 	}
 
+	@Test
+	public void testBuildSharedTransferExecutor() throws Exception {
+		IRODSProtocolManager irodsConnectionManager = IRODSSimpleProtocolManager
+				.instance();
+		testingPropertiesHelper
+		.buildIRODSAccountFromTestProperties(testingProperties);
+		IRODSSession irodsSession = IRODSSession
+				.instance(irodsConnectionManager);
+		irodsSession.closeSession();
+
+		SettableJargonProperties overrideJargonProperties = new SettableJargonProperties();
+		overrideJargonProperties.setUseTransferThreadsPool(true);
+		overrideJargonProperties.setUseSharedTransferExecutor(true);
+		overrideJargonProperties.setSharedTransferExecutorMaxThreads(12);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		Executor executor = irodsSession.getParallelTransferThreadPool();
+		Assert.assertSame("should use the shared transfer executor",
+				irodsSession.getParallelTransferExecutor(), executor);
+		Assert.assertEquals("wrong thread limit", 12, irodsSession
+				.getParallelTransferExecutor().getMaxThreads());
+
+	}
+
+	@Test
+	public void testBuildObjStatCache() throws Exception {
+		IRODSProtocolManager irodsConnectionManager = IRODSSimpleProtocolManager
+				.instance();
+		IRODSSession irodsSession = IRODSSession
+				.instance(irodsConnectionManager);
+
+		SettableJargonProperties overrideJargonProperties = new SettableJargonProperties();
+		overrideJargonProperties.setUseObjStatCache(false);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		Assert.assertNull("cache should be off", irodsSession.getObjStatCache());
+
+		overrideJargonProperties.setUseObjStatCache(true);
+		overrideJargonProperties.setObjStatCacheMaxEntries(100);
+		overrideJargonProperties.setObjStatCacheTimeToLiveMillis(2000);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		ObjStatCache objStatCache = irodsSession.getObjStatCache();
+		Assert.assertNotNull("cache should be built", objStatCache);
+		Assert.assertEquals(100, objStatCache.getMaxEntries());
+		Assert.assertEquals(2000, objStatCache.getTimeToLiveMillis());
+		Assert.assertSame("cache should be kept", objStatCache,
+				irodsSession.getObjStatCache());
+	}
+
+	@Test
+	public void testTurnOffObjStatCache() throws Exception {
+		IRODSProtocolManager irodsConnectionManager = IRODSSimpleProtocolManager
+				.instance();
+		IRODSSession irodsSession = IRODSSession
+				.instance(irodsConnectionManager);
+
+		SettableJargonProperties overrideJargonProperties = new SettableJargonProperties();
+		overrideJargonProperties.setUseObjStatCache(true);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		Assert.assertNotNull("cache should be built",
+				irodsSession.getObjStatCache());
+
+		overrideJargonProperties = new SettableJargonProperties(
+				overrideJargonProperties);
+		overrideJargonProperties.setUseObjStatCache(false);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		Assert.assertNull("cache should be dropped",
+				irodsSession.getObjStatCache());
+
+		ObjStatCache injected = new ObjStatCache(10, 1000);
+		irodsSession.setObjStatCache(injected);
+		irodsSession.setJargonProperties(overrideJargonProperties);
+		Assert.assertSame("injected cache should be kept", injected,
+				irodsSession.getObjStatCache());
+	}
+
 	@Test
 	public void testGetTransferOptionsWithComputeAndVerifyChecksumValTrue()
 			throws Exception {
@@ -270,6 +348,37 @@ public class IRODSSessionTest {
 
 	}
 
+	@Test
+	public void testRestartJournalSharedBySessions() throws Exception {
+		File journalFile = new File(System.getProperty("java.io.tmpdir"),
+				"IRODSSessionTest-" + System.nanoTime() + ".journal");
+		SettableJargonProperties settableJargonProperties = new SettableJargonProperties();
+		settableJargonProperties.setLongTransferRestart(true);
+		settableJargonProperties.setRestartJournalFile(journalFile
+				.getAbsolutePath());
+		IRODSSession firstSession = new IRODSSession(settableJargonProperties);
+		IRODSSession secondSession = new IRODSSession(settableJargonProperties);
+
+		try {
+			Assert.assertTrue("first session not journaled",
+					firstSession.getRestartManager() instanceof FileBasedTransferRestartManager);
+			Assert.assertTrue(
+					"second session should fall back to memory",
+					secondSession.getRestartManager() instanceof MemoryBasedTransferRestartManager);
+
+			firstSession.setRestartManager(new MemoryBasedTransferRestartManager());
+			secondSession.closeRestartManager();
+			Assert.assertTrue(
+					"journal not released on replace",
+					secondSession.getRestartManager() instanceof FileBasedTransferRestartManager);
+		} finally {
+			firstSession.closeRestartManager();
+			secondSession.closeRestartManager();
+			journalFile.delete();
+			new File(journalFile.getAbsolutePath() + ".lock").delete();
+		}
+	}
+
 	@Test
 	public void testBuildPipelineConfiguration() throws Exception {
 		IRODSProtocolManager irodsConnectionManager = IRODSSimpleProtocolManager
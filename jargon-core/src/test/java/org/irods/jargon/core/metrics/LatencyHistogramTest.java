@@ -0,0 +1,80 @@
+package org.irods.jargon.core.metrics;
+
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals("should have no count", 0, histogram.getCount());
+		Assert.assertEquals("should have no mean", 0, histogram.getMeanNanos());
+		Assert.assertEquals("should have no percentile", 0,
+				histogram.getPercentileNanos(99));
+	}
+
+	@Test
+	public void testCountTotalAndMax() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(100);
+		histogram.record(300);
+		histogram.record(-5);
+		Assert.assertEquals("wrong count", 3, histogram.getCount());
+		Assert.assertEquals("wrong total", 400, histogram.getTotalNanos());
+		Assert.assertEquals("wrong max", 300, histogram.getMaxNanos());
+		Assert.assertEquals("wrong mean", 133, histogram.getMeanNanos());
+	}
+
+	@Test
+	public void testPercentileWithinBucket() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(1000);
+		}
+		histogram.record(1000000);
+
+		long p50 = histogram.getPercentileNanos(50);
+		Assert.assertTrue("p50 below value", p50 >= 1000);
+		Assert.assertTrue("p50 more than twice value", p50 < 2000);
+		long p99 = histogram.getPercentileNanos(99);
+		Assert.assertTrue("p99 should not include the outlier", p99 < 2000);
+		Assert.assertEquals("p100 should be the max", 1000000,
+				histogram.getPercentileNanos(100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPercentileOutOfRange() {
+		new LatencyHistogram().getPercentileNanos(101);
+	}
+
+	@Test
+	public void testConcurrentRecords() throws Exception {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final int threads = 4;
+		final int perThread = 10000;
+		final CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			final int offset = t;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < perThread; i++) {
+						histogram.record(i + offset);
+					}
+					done.countDown();
+				}
+			}).start();
+		}
+		done.await();
+
+		Assert.assertEquals("lost counts", threads * perThread,
+				histogram.getCount());
+		Assert.assertEquals("wrong max", perThread - 1 + threads - 1,
+				histogram.getMaxNanos());
+	}
+
+}
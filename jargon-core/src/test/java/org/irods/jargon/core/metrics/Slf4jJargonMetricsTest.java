@@ -0,0 +1,134 @@
+package org.irods.jargon.core.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class Slf4jJargonMetricsTest {
+
+	private static final int GEN_QUERY_AN = 702;
+	private static final int OBJ_STAT_AN = 633;
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private IRODSAccessObjectFactory accessObjectFactory;
+	private Slf4jJargonMetrics metrics;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("metrics", "metrics");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		metrics = new Slf4jJargonMetrics();
+		irodsFileSystem.getIrodsSession().setJargonMetrics(metrics);
+		irodsAccount = server.buildIRODSAccount("metrics");
+		accessObjectFactory = irodsFileSystem.getIRODSAccessObjectFactory();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testApiCallsAndConnection() throws Exception {
+		CollectionAndDataObjectListAndSearchAO listAO = accessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		listAO.retrieveObjectStatForPath(irodsAccount.getHomeDirectory());
+		listAO.listDataObjectsAndCollectionsUnderPath(irodsAccount
+				.getHomeDirectory());
+
+		Assert.assertEquals("one connect expected", 1, metrics
+				.getConnectLatency().getCount());
+		Assert.assertEquals("one authenticate expected", 1, metrics
+				.getAuthenticateLatency().getCount());
+		Assert.assertNotNull("no obj stat latency",
+				metrics.getApiLatency(OBJ_STAT_AN));
+		Assert.assertNotNull("no gen query latency",
+				metrics.getApiLatency(GEN_QUERY_AN));
+		Assert.assertTrue("no gen query pages", metrics.getGenQueryPages() > 0);
+		Assert.assertEquals("no bytes before close", 0, metrics.getBytesSent());
+
+		irodsFileSystem.closeAndEatExceptions();
+
+		Assert.assertEquals("one close expected", 1,
+				metrics.getConnectionsClosed());
+		Assert.assertTrue("no bytes sent", metrics.getBytesSent() > 0);
+		Assert.assertTrue("no bytes received",
+				metrics.getBytesReceived() > 0);
+	}
+
+	@Test
+	public void testFailedCallCounted() throws Exception {
+		accessObjectFactory.getCollectionAndDataObjectListAndSearchAO(
+				irodsAccount).listDataObjectsAndCollectionsUnderPath(
+				irodsAccount.getHomeDirectory());
+		long failuresBefore = metrics.getApiFailures();
+		try {
+			accessObjectFactory.getCollectionAndDataObjectListAndSearchAO(
+					irodsAccount).retrieveObjectStatForPath(
+					irodsAccount.getHomeDirectory() + "/notThere");
+			Assert.fail("object should not exist");
+		} catch (Exception e) {
+			// expected
+		}
+		Assert.assertEquals("failure not counted", failuresBefore + 1,
+				metrics.getApiFailures());
+	}
+
+	@Test
+	public void testPutAndGetTransfers() throws Exception {
+		int length = 200 * 1024;
+		File localFile = File.createTempFile("metrics", ".dat");
+		File returnedFile = new File(localFile.getAbsolutePath() + ".back");
+		localFile.deleteOnExit();
+		returnedFile.deleteOnExit();
+		byte[] content = new byte[length];
+		new Random(length).nextBytes(content);
+		FileOutputStream outputStream = new FileOutputStream(localFile);
+		outputStream.write(content);
+		outputStream.close();
+
+		try {
+			IRODSFile irodsFile = accessObjectFactory.getIRODSFileFactory(
+					irodsAccount).instanceIRODSFile(
+					irodsAccount.getHomeDirectory() + "/metrics.dat");
+			DataTransferOperations dataTransferOperations = accessObjectFactory
+					.getDataTransferOperations(irodsAccount);
+			dataTransferOperations.putOperation(localFile, irodsFile, null,
+					null);
+			dataTransferOperations.getOperation(irodsFile, returnedFile, null,
+					null);
+		} finally {
+			localFile.delete();
+			returnedFile.delete();
+		}
+
+		Assert.assertEquals("one put expected", 1,
+				metrics.getTransferCount(TransferType.PUT));
+		Assert.assertEquals("wrong put bytes", length,
+				metrics.getTransferBytes(TransferType.PUT));
+		Assert.assertEquals("one get expected", 1,
+				metrics.getTransferCount(TransferType.GET));
+		Assert.assertEquals("wrong get bytes", length,
+				metrics.getTransferBytes(TransferType.GET));
+	}
+
+}
@@ -2,6 +2,8 @@ package org.irods.jargon.core.packinstr;
 
 import junit.framework.Assert;
 
+import org.irods.jargon.core.checksum.ChecksumValue;
+
 import org.irods.jargon.core.exception.JargonException;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -66,6 +68,49 @@ public class DataObjInpTest {
 				DataObjInp.PUT_FILE_API_NBR, dataObjInp.getApiNumber());
 	}
 
+	@Test
+	public final void testPutVerifiedByIRODSByDefault() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeAndVerifyChecksumAfterTransfer(true);
+		DataObjInp dataObjInp = DataObjInp.instanceForNormalPutStrategy(
+				"/abspath", 100, "aresource", true, transferOptions, false);
+		ChecksumValue checksumValue = new ChecksumValue();
+		checksumValue.setChecksumTransmissionFormat("sha2:abc=");
+		dataObjInp.setFileChecksumValue(checksumValue);
+
+		String tags = dataObjInp.getParsedTags();
+		Assert.assertTrue("no verifyChksum keyword",
+				tags.contains("<keyWord>verifyChksum</keyWord>"));
+		Assert.assertTrue("no local checksum sent",
+				tags.contains("<svalue>sha2:abc=</svalue>"));
+		Assert.assertFalse("should not register an iRODS checksum",
+				tags.contains("<keyWord>regChksum</keyWord>"));
+	}
+
+	@Test
+	public final void testPutChecksumDuringTransferRegistersChecksum()
+			throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeAndVerifyChecksumAfterTransfer(true);
+		transferOptions.setComputeChecksumDuringTransfer(true);
+		DataObjInp dataObjInp = DataObjInp.instanceForNormalPutStrategy(
+				"/abspath", 100, "aresource", true, transferOptions, false);
+
+		String tags = dataObjInp.getParsedTags();
+		Assert.assertTrue("no regChksum keyword",
+				tags.contains("<keyWord>regChksum</keyWord>"));
+		Assert.assertFalse("should not verify in iRODS",
+				tags.contains("<keyWord>verifyChksum</keyWord>"));
+	}
+
+	@Test(expected = JargonException.class)
+	public final void testPutVerifiedWithoutChecksumValue() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeAndVerifyChecksumAfterTransfer(true);
+		DataObjInp.instanceForNormalPutStrategy("/abspath", 100, "aresource",
+				true, transferOptions, false).getParsedTags();
+	}
+
 	@Test
 	public final void testInstanceForGet() throws Exception {
 		DataObjInp dataObjInp = DataObjInp.instanceForGet("/abspath", 0, null);
@@ -0,0 +1,118 @@
+package org.irods.jargon.core.packinstr;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.junit.Test;
+
+public class PackingInstructionWriterTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Test
+	public void testWriteDataObjInp() throws Exception {
+		DataObjInp dataObjInp = DataObjInp.instanceForOpen(
+				"/zone/home/user/a&b<c>d\"e`f.txt",
+				DataObjInp.OpenFlags.READ_WRITE);
+		assertSameAsParseTag(dataObjInp, UTF8);
+	}
+
+	@Test
+	public void testWriteModAvuWithMultiByteValues() throws Exception {
+		AvuData avuData = AvuData.instance("attrib été", "value 日本 & more",
+				"unit 😀");
+		ModAvuMetadataInp modAvu = ModAvuMetadataInp
+				.instanceForAddCollectionMetadata("/zone/home/ü", avuData);
+		assertSameAsParseTag(modAvu, UTF8);
+		assertSameAsParseTag(modAvu, Charset.forName("ISO-8859-1"));
+	}
+
+	@Test
+	public void testWriteGenQueryInp() throws Exception {
+		String queryString = "select "
+				+ RodsGenQueryEnum.COL_D_COLL_ID.getName() + " ,"
+				+ RodsGenQueryEnum.COL_COLL_ACCESS_COLL_ID.getName()
+				+ " where " + RodsGenQueryEnum.COL_COLL_ACCESS_TYPE.getName()
+				+ " = " + "'2'";
+
+		IRODSServerProperties props = IRODSServerProperties.instance(
+				IRODSServerProperties.IcatEnabled.ICAT_ENABLED, 100, "rods2.2",
+				"d", "zone");
+
+		IRODSGenQuery irodsQuery = IRODSGenQuery.instance(queryString, 500);
+		TranslatedIRODSGenQuery translatedIRODSQuery = new IRODSGenQueryTranslator(
+				props).getTranslatedQuery(irodsQuery);
+		GenQueryInp genQueryInp = GenQueryInp.instance(translatedIRODSQuery,
+				0, null);
+		assertSameAsParseTag(genQueryInp, UTF8);
+	}
+
+	@Test
+	public void testWriteNullValue() throws Exception {
+		Tag tag = new Tag("outer", new Tag[] { new Tag("inner", (String) null) });
+		PackingInstructionWriter writer = new PackingInstructionWriter(UTF8);
+		writer.write(tag);
+		Assert.assertEquals("null value not written as parseTag() does",
+				tag.parseTag(), writer.toString());
+	}
+
+	@Test
+	public void testWriteNonAsciiCompatibleEncoding() throws Exception {
+		DataObjInp dataObjInp = DataObjInp.instanceForOpen("/zone/home/é",
+				DataObjInp.OpenFlags.READ);
+		assertSameAsParseTag(dataObjInp, Charset.forName("UTF-16"));
+	}
+
+	@Test
+	public void testResetReusesBuffer() throws Exception {
+		PackingInstructionWriter writer = new PackingInstructionWriter(UTF8);
+		writer.write(new Tag("a", "first message"));
+		byte[] buffer = writer.getBuffer();
+		writer.reset();
+		Assert.assertEquals("length not reset", 0, writer.getLength());
+		writer.write(new Tag("b", "x"));
+		Assert.assertSame("buffer should be reused", buffer,
+				writer.getBuffer());
+		Assert.assertEquals("wrong content after reset", "<b>x</b>\n",
+				writer.toString());
+	}
+
+	@Test
+	public void testResetDropsLargeBuffer() throws Exception {
+		PackingInstructionWriter writer = new PackingInstructionWriter(UTF8);
+		char[] big = new char[PackingInstructionWriter.MAX_RETAINED_CAPACITY + 1];
+		Arrays.fill(big, 'x');
+		Tag tag = new Tag("rule", new String(big));
+		writer.write(tag);
+		Assert.assertEquals("wrong content after growth", tag.parseTag(),
+				writer.toString());
+		writer.reset();
+		Assert.assertEquals("large buffer should be released",
+				PackingInstructionWriter.INITIAL_CAPACITY,
+				writer.getBuffer().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWriteNullPI() throws Exception {
+		new PackingInstructionWriter(UTF8).write((IRodsPI) null);
+	}
+
+	private void assertSameAsParseTag(final IRodsPI irodsPI,
+			final Charset charset) throws Exception {
+		byte[] expected = irodsPI.getParsedTags().getBytes(charset);
+		PackingInstructionWriter writer = new PackingInstructionWriter(charset);
+		writer.write(irodsPI);
+		byte[] actual = Arrays.copyOf(writer.getBuffer(), writer.getLength());
+		Assert.assertTrue("serialized bytes differ from parseTag()",
+				Arrays.equals(expected, actual));
+	}
+
+}
@@ -0,0 +1,157 @@
+package org.irods.jargon.core.packinstr;
+
+import java.nio.charset.Charset;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TagReaderTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public void testReadHeader() throws Exception {
+		String header = "<MsgHeader_PI>\n<type>RODS_API_REPLY</type>\n<msgLen>0</msgLen>\n<errorLen>0</errorLen>\n<bsLen>0</bsLen>\n<intInfo>0</intInfo>\n</MsgHeader_PI>\n";
+		Tag tag = TagReader.readTag(header.getBytes(ENCODING), 0,
+				header.length(), true, Charset.forName(ENCODING));
+		Assert.assertEquals("wrong root", "MsgHeader_PI", tag.getName());
+		Assert.assertEquals("wrong number of children", 5, tag.getLength());
+		Assert.assertEquals("wrong type", "RODS_API_REPLY",
+				tag.getTags()[0].getStringValue());
+		Assert.assertEquals("wrong intInfo", 0, tag.getTags()[4].getIntValue());
+		assertSameAsStringParsing(header, true);
+	}
+
+	@Test
+	public void testReadGenQueryOut() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<GenQueryOut_PI>\n<rowCnt>2</rowCnt>\n<attriCnt>2</attriCnt>\n<continueInx>0</continueInx>\n<totalRowCount>0</totalRowCount>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>403</attriInx>\n<reslen>50</reslen>\n<value>file1.txt</value>\n<value>file2.txt</value>\n</SqlResult_PI>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>407</attriInx>\n<reslen>33</reslen>\n<value>100</value>\n<value></value>\n</SqlResult_PI>\n");
+		sb.append("</GenQueryOut_PI>\n");
+		String message = sb.toString();
+
+		Tag tag = TagReader.readTag(message.getBytes(ENCODING), 0,
+				message.length(), true, Charset.forName(ENCODING));
+		Assert.assertEquals("wrong number of children", 6, tag.getLength());
+		Tag result = tag.getTag("SqlResult_PI", 1);
+		Assert.assertEquals("wrong value", "100", result.getTag("value", 0)
+				.getStringValue());
+		Assert.assertEquals("empty value should be empty string", "",
+				result.getTag("value", 1).getStringValue());
+		assertSameAsStringParsing(message, true);
+	}
+
+	@Test
+	public void testReadDecodesEntities() throws Exception {
+		String message = "<DataObjInp_PI><objPath>/a/b&amp;c&lt;d&gt;e&quot;f&apos;g&bogus;h&amp</objPath></DataObjInp_PI>";
+		Tag tag = TagReader.readTag(message.getBytes(ENCODING), 0,
+				message.length(), true, Charset.forName(ENCODING));
+		Assert.assertEquals("entities not decoded", "/a/b&c<d>e\"f`g&bogus;h&amp",
+				tag.getTag("objPath").getStringValue());
+		assertSameAsStringParsing(message, true);
+	}
+
+	@Test
+	public void testReadWithoutDecode() throws Exception {
+		String message = "<DataObjInp_PI><objPath>/a/b&amp;c</objPath></DataObjInp_PI>";
+		Tag tag = TagReader.readTag(message.getBytes(ENCODING), 0,
+				message.length(), false, Charset.forName(ENCODING));
+		Assert.assertEquals("value should be raw", "/a/b&amp;c",
+				tag.getTag("objPath").getStringValue());
+		assertSameAsStringParsing(message, false);
+	}
+
+	@Test
+	public void testReadMultiByteValues() throws Exception {
+		String message = "<RErrMsg_PI>\n<status>-1</status>\n<msg>\nété 日本 &amp; more\nlines</msg>\n</RErrMsg_PI>\n";
+		byte[] bytes = message.getBytes(ENCODING);
+		Tag tag = TagReader.readTag(bytes, 0, bytes.length, true,
+				Charset.forName(ENCODING));
+		Assert.assertEquals("wrong multi-byte value",
+				"été 日本 & more\nlines", tag.getTag("msg")
+				.getStringValue());
+		assertSameAsStringParsing(message, true);
+	}
+
+	@Test
+	public void testReadNestedStructs() throws Exception {
+		String message = "<ModAVUMetadataInp_PI><arg0>add</arg0>\n<KeyValPair_PI><ssLen>1</ssLen>\n<keyWord>a</keyWord>\n<svalue>b</svalue>\n</KeyValPair_PI>\n<arg9></arg9>\n</ModAVUMetadataInp_PI>\n";
+		Tag tag = TagReader.readTag(message.getBytes(ENCODING), 0,
+				message.length(), true, Charset.forName(ENCODING));
+		Assert.assertEquals("wrong nested value", "b",
+				tag.getTag("KeyValPair_PI").getTag("svalue").getStringValue());
+		assertSameAsStringParsing(message, true);
+	}
+
+	@Test
+	public void testReadRegionOfArray() throws Exception {
+		String message = "xx<INT_PI><myInt>5</myInt></INT_PI>yy";
+		byte[] bytes = message.getBytes(ENCODING);
+		Tag tag = TagReader.readTag(bytes, 2, bytes.length - 4, true,
+				Charset.forName(ENCODING));
+		Assert.assertEquals("wrong value", 5, tag.getTag("myInt")
+				.getIntValue());
+	}
+
+	@Test
+	public void testReadNoTag() throws Exception {
+		byte[] bytes = new byte[10];
+		Assert.assertNull("should be no tag", TagReader.readTag(bytes, 0,
+				bytes.length, true, Charset.forName(ENCODING)));
+	}
+
+	@Test
+	public void testReadNextTagDelegatesForSupportedCharset() throws Exception {
+		String message = "<INT_PI><myInt>5</myInt></INT_PI>";
+		Tag tag = Tag.readNextTag(message.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("wrong value", 5, tag.getTag("myInt")
+				.getIntValue());
+	}
+
+	@Test
+	public void testIsSupportedCharset() throws Exception {
+		Assert.assertTrue(TagReader.isSupportedCharset(Charset
+				.forName("UTF-8")));
+		Assert.assertTrue(TagReader.isSupportedCharset(Charset
+				.forName("ISO-8859-1")));
+		Assert.assertFalse(TagReader.isSupportedCharset(Charset
+				.forName("UTF-16")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadNullData() throws Exception {
+		TagReader.readTag(null, 0, 0, true, Charset.forName(ENCODING));
+	}
+
+	private void assertSameAsStringParsing(final String message,
+			final boolean decode) throws Exception {
+		byte[] bytes = message.getBytes(ENCODING);
+		Tag expected = Tag.readNextTagUsingStringParsing(bytes, decode,
+				ENCODING);
+		Tag actual = TagReader.readTag(bytes, 0, bytes.length, decode,
+				Charset.forName(ENCODING));
+		assertSameTree(expected, actual);
+	}
+
+	private void assertSameTree(final Tag expected, final Tag actual) {
+		Assert.assertEquals("tag name differs", expected.getName(),
+				actual.getName());
+		Assert.assertEquals("value differs for " + expected.getName(),
+				expected.getStringValue(), actual.getStringValue());
+		Tag[] expectedTags = expected.getTags();
+		Tag[] actualTags = actual.getTags();
+		if (expectedTags == null) {
+			Assert.assertNull("unexpected children for " + expected.getName(),
+					actualTags);
+			return;
+		}
+		Assert.assertEquals("child count differs for " + expected.getName(),
+				expectedTags.length, actualTags.length);
+		for (int i = 0; i < expectedTags.length; i++) {
+			assertSameTree(expectedTags[i], actualTags[i]);
+		}
+	}
+
+}
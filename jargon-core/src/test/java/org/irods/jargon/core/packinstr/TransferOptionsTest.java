@@ -46,4 +46,45 @@ public class TransferOptionsTest {
 				actual.isIntraFileStatusCallbacks());
 	}
 
+	@Test
+	public final void testCopyConstructorLocalFileIOStrategy()
+			throws Exception {
+		TransferOptions expected = new TransferOptions();
+		expected.setLocalFileIOStrategy(TransferOptions.LocalFileIOStrategy.MEMORY_MAPPED);
+		TransferOptions actual = new TransferOptions(expected);
+		Assert.assertEquals("did not properly set localFileIOStrategy",
+				TransferOptions.LocalFileIOStrategy.MEMORY_MAPPED,
+				actual.getLocalFileIOStrategy());
+	}
+
+	@Test
+	public final void testCopyConstructorRecursiveTransferThreads()
+			throws Exception {
+		TransferOptions expected = new TransferOptions();
+		expected.setRecursiveTransferThreads(4);
+		TransferOptions actual = new TransferOptions(expected);
+		Assert.assertEquals("did not properly set recursiveTransferThreads",
+				4, actual.getRecursiveTransferThreads());
+	}
+
+	@Test
+	public final void testCopyConstructorComputeChecksumDuringTransfer()
+			throws Exception {
+		TransferOptions expected = new TransferOptions();
+		expected.setComputeChecksumDuringTransfer(true);
+		TransferOptions actual = new TransferOptions(expected);
+		Assert.assertTrue("did not properly set computeChecksumDuringTransfer",
+				actual.isComputeChecksumDuringTransfer());
+	}
+
+	@Test
+	public final void testCopyConstructorParallelCopyBufferSize()
+			throws Exception {
+		TransferOptions expected = new TransferOptions();
+		expected.setParallelCopyBufferSize(2097152);
+		TransferOptions actual = new TransferOptions(expected);
+		Assert.assertEquals("did not properly set parallelCopyBufferSize",
+				2097152, actual.getParallelCopyBufferSize());
+	}
+
 }
@@ -0,0 +1,78 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.pub.BulkObjStatUtils.QueryBatch;
+import org.junit.Test;
+
+public class BulkObjStatUtilsTest {
+
+	@Test
+	public void testPlanQueriesOneBatch() throws Exception {
+		Map<String, Set<String>> namesByParent = new LinkedHashMap<String, Set<String>>();
+		namesByParent.put("/zone/home/a", names("f1", "f2"));
+		namesByParent.put("/zone/home/b", names("f3"));
+
+		List<QueryBatch> batches = BulkObjStatUtils.planQueries(namesByParent,
+				BulkObjStatUtils.MAX_CONDITION_CHARS);
+		Assert.assertEquals("should be one query", 1, batches.size());
+		Assert.assertFalse(batches.get(0).isWholeCollection());
+		Assert.assertEquals(2, batches.get(0).getNamesByParent().size());
+	}
+
+	@Test
+	public void testPlanQueriesSplitsOnConditionSize() throws Exception {
+		Map<String, Set<String>> namesByParent = new LinkedHashMap<String, Set<String>>();
+		for (int i = 0; i < 10; i++) {
+			namesByParent.put("/zone/home/coll" + i, names("file1", "file2"));
+		}
+
+		List<QueryBatch> batches = BulkObjStatUtils.planQueries(namesByParent,
+				60);
+		Assert.assertTrue("should split into several queries",
+				batches.size() > 1);
+		int parents = 0;
+		for (QueryBatch batch : batches) {
+			Assert.assertFalse(batch.isWholeCollection());
+			Assert.assertTrue("batch over condition size",
+					batch.getConditionChars() <= 60);
+			parents += batch.getNamesByParent().size();
+		}
+		Assert.assertEquals("lost a parent", 10, parents);
+	}
+
+	@Test
+	public void testPlanQueriesListsDenseParentWhole() throws Exception {
+		List<String> manyNames = new ArrayList<String>();
+		for (int i = 0; i < 50; i++) {
+			manyNames.add("file" + i);
+		}
+		Map<String, Set<String>> namesByParent = new LinkedHashMap<String, Set<String>>();
+		namesByParent.put("/zone/home/small", names("f1"));
+		namesByParent.put("/zone/home/dense",
+				new LinkedHashSet<String>(manyNames));
+
+		List<QueryBatch> batches = BulkObjStatUtils.planQueries(namesByParent,
+				100);
+		Assert.assertEquals(2, batches.size());
+		QueryBatch whole = batches.get(0);
+		Assert.assertTrue("dense parent should be listed whole",
+				whole.isWholeCollection());
+		Assert.assertEquals(50,
+				whole.getNamesByParent().get("/zone/home/dense").size());
+		Assert.assertFalse(batches.get(1).isWholeCollection());
+	}
+
+	private Set<String> names(final String... names) {
+		return new LinkedHashSet<String>(Arrays.asList(names));
+	}
+
+}
@@ -3033,6 +3033,78 @@ public class DataTransferOperationsImplTest {
 
 	}
 
+	@Test
+	public void testPutAndGetCollectionWithManyFilesConcurrently()
+			throws Exception {
+
+		String rootCollection = "testPutAndGetCollectionWithManyFilesConcurrently";
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+		String returnedCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection + "Returned");
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath, rootCollection, 2, 3, 2,
+						"testFile", ".txt", 5, 4, 1, 200);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileFactory irodsFileFactory = irodsFileSystem
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock
+				.instance();
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setRecursiveTransferThreads(4);
+		transferControlBlock.setTransferOptions(transferOptions);
+		TransferStatusCallbackListenerTestingImplementation listener = new TransferStatusCallbackListenerTestingImplementation();
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, listener,
+				transferControlBlock);
+
+		Assert.assertEquals("did not count transfers equal to total counted",
+				transferControlBlock.getTotalFilesToTransfer(),
+				transferControlBlock.getTotalFilesTransferredSoFar());
+		Assert.assertEquals("should be a put callback for each file",
+				transferControlBlock.getTotalFilesToTransfer(),
+				listener.getPutCallbackCtr());
+		Assert.assertEquals("should be no errors", 0,
+				listener.getExceptionCallbackCtr());
+
+		IRODSFile irodsCollection = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath + "/"
+						+ rootCollection);
+		assertionHelper.assertTwoFilesAreEqualByRecursiveTreeComparison(
+				localFile, (File) irodsCollection);
+
+		File returnedFile = new File(returnedCollectionAbsolutePath);
+		TransferControlBlock getControlBlock = DefaultTransferControlBlock
+				.instance();
+		getControlBlock.setTransferOptions(new TransferOptions(transferOptions));
+		dataTransferOperationsAO.getOperation(irodsCollection, returnedFile,
+				null, getControlBlock);
+
+		Assert.assertEquals("did not get every file",
+				getControlBlock.getTotalFilesToTransfer(),
+				getControlBlock.getTotalFilesTransferredSoFar());
+		assertionHelper.assertTwoFilesAreEqualByRecursiveTreeComparison(
+				localFile, new File(returnedFile, rootCollection));
+	}
+
 	@Test
 	public void testPutCollectionWithTwoFilesNoControlBlockCallback()
 			throws Exception {
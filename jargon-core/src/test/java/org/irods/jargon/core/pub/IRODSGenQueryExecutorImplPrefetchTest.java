@@ -0,0 +1,115 @@
+package org.irods.jargon.core.pub;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Paged iteration with prefetch through the public access objects, run
+ * against the in-process {@link IRODSStandInServer}
+ */
+public class IRODSGenQueryExecutorImplPrefetchTest {
+
+	private static final int PAGE_SIZE = 3;
+	private static final int FILE_COUNT = 10;
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private String collection;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("prefetch", "prefetch");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		SettableJargonProperties jargonProperties = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		jargonProperties.setMaxFilesAndDirsQueryMax(PAGE_SIZE);
+		irodsFileSystem.getIrodsSession()
+				.setJargonProperties(jargonProperties);
+		irodsAccount = server.buildIRODSAccount("prefetch");
+		collection = irodsAccount.getHomeDirectory() + "/paged";
+		server.getCatalog().createCollection(collection + "/sub", "prefetch",
+				true);
+		for (int i = 0; i < FILE_COUNT; i++) {
+			server.getCatalog().putDataObject(collection + "/file" + i,
+					"prefetch", new byte[i]);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testIterateIRODSQueryInZoneWithPrefetch() throws Exception {
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+						QueryConditionOperators.EQUAL, collection);
+
+		GenQueryResultIterator iterator = irodsFileSystem
+				.getIRODSAccessObjectFactory()
+				.getIRODSGenQueryExecutor(irodsAccount)
+				.iterateIRODSQueryInZone(
+						builder.exportIRODSQueryFromBuilder(PAGE_SIZE), "",
+						true);
+		Set<String> names = new HashSet<String>();
+		try {
+			while (iterator.hasNext()) {
+				IRODSQueryResultRow row = iterator.next();
+				names.add(row.getColumn(0));
+			}
+		} finally {
+			iterator.close();
+		}
+
+		Assert.assertEquals("did not get every page", FILE_COUNT, names.size());
+		Assert.assertTrue("missing last file", names.contains("file"
+				+ (FILE_COUNT - 1)));
+	}
+
+	@Test
+	public void testIterateListingWithPrefetch() throws Exception {
+		CollectionAndDataObjectListingIterator iterator = irodsFileSystem
+				.getIRODSAccessObjectFactory()
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+				.iterateDataObjectsAndCollectionsUnderPath(collection, true);
+		int collections = 0;
+		int dataObjects = 0;
+		try {
+			while (iterator.hasNext()) {
+				CollectionAndDataObjectListingEntry entry = iterator.next();
+				if (entry.isCollection()) {
+					collections++;
+				} else {
+					dataObjects++;
+				}
+			}
+		} finally {
+			iterator.close();
+		}
+
+		Assert.assertEquals("wrong collection count", 1, collections);
+		Assert.assertEquals("did not get every page", FILE_COUNT, dataObjects);
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.irods.jargon.core.pub;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ObjStatCacheTest {
+
+	private static IRODSAccount account;
+	private static IRODSAccount otherAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		account = IRODSAccount.instance("host", 1247, "user", "password",
+				"/zone/home/user", "zone", "");
+		otherAccount = IRODSAccount.instance("host", 1247, "other",
+				"password", "/zone/home/other", "zone", "");
+	}
+
+	@Test
+	public void testHitAndMiss() throws Exception {
+		ObjStatCache cache = new ObjStatCache(10, 60000);
+		ObjStat objStat = new ObjStat();
+
+		Assert.assertNull(cache.retrieveObjStat(account, "/zone/home/a"));
+		cache.cacheObjStat(account, "/zone/home/a", objStat);
+		Assert.assertSame(objStat, cache.retrieveObjStat(account, "/zone/home/a"));
+		Assert.assertSame("trailing slash should match", objStat,
+				cache.retrieveObjStat(account, "/zone/home/a/"));
+		Assert.assertNull("accounts should be kept apart",
+				cache.retrieveObjStat(otherAccount, "/zone/home/a"));
+		Assert.assertNull("listing entries should be kept apart",
+				cache.retrieveListingEntry(account, "/zone/home/a"));
+
+		ObjStatCacheStatistics statistics = cache.getStatistics();
+		Assert.assertEquals(2, statistics.getHits());
+		Assert.assertEquals(3, statistics.getMisses());
+		Assert.assertEquals(1, statistics.getEntries());
+		Assert.assertEquals(0.4f, statistics.getHitRatio(), 0.001f);
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+		ObjStatCache cache = new ObjStatCache(10, 1);
+		cache.cacheObjStat(account, "/zone/home/a", new ObjStat());
+		Thread.sleep(20);
+		Assert.assertNull("entry should expire",
+				cache.retrieveObjStat(account, "/zone/home/a"));
+		Assert.assertEquals(1, cache.getStatistics().getExpirations());
+		Assert.assertEquals(0, cache.getStatistics().getEntries());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() throws Exception {
+		ObjStatCache cache = new ObjStatCache(2, 60000);
+		cache.cacheObjStat(account, "/zone/home/a", new ObjStat());
+		cache.cacheObjStat(account, "/zone/home/b", new ObjStat());
+		cache.retrieveObjStat(account, "/zone/home/a");
+		cache.cacheObjStat(account, "/zone/home/c", new ObjStat());
+
+		Assert.assertNotNull(cache.retrieveObjStat(account, "/zone/home/a"));
+		Assert.assertNull("least recently used should go",
+				cache.retrieveObjStat(account, "/zone/home/b"));
+		Assert.assertNotNull(cache.retrieveObjStat(account, "/zone/home/c"));
+		Assert.assertEquals(1, cache.getStatistics().getEvictions());
+	}
+
+	@Test
+	public void testInvalidatePathAndParent() throws Exception {
+		ObjStatCache cache = new ObjStatCache(10, 60000);
+		cache.cacheObjStat(account, "/zone/home/coll", new ObjStat());
+		cache.cacheObjStat(otherAccount, "/zone/home/coll/file", new ObjStat());
+		cache.cacheListingEntry(account, "/zone/home/coll/file",
+				new CollectionAndDataObjectListingEntry());
+		cache.cacheObjStat(account, "/zone/home/coll/file2", new ObjStat());
+
+		cache.invalidate("/zone/home/coll/file");
+
+		Assert.assertNull("parent should be dropped",
+				cache.retrieveObjStat(account, "/zone/home/coll"));
+		Assert.assertNull("other accounts should be dropped",
+				cache.retrieveObjStat(otherAccount, "/zone/home/coll/file"));
+		Assert.assertNull("listing entry should be dropped",
+				cache.retrieveListingEntry(account, "/zone/home/coll/file"));
+		Assert.assertNotNull("sibling should be kept",
+				cache.retrieveObjStat(account, "/zone/home/coll/file2"));
+		Assert.assertEquals(3, cache.getStatistics().getInvalidations());
+	}
+
+	@Test
+	public void testInvalidateTree() throws Exception {
+		ObjStatCache cache = new ObjStatCache(10, 60000);
+		cache.cacheObjStat(account, "/zone/home/coll", new ObjStat());
+		cache.cacheObjStat(account, "/zone/home/coll/sub/file", new ObjStat());
+		cache.cacheObjStat(account, "/zone/home/collection", new ObjStat());
+
+		cache.invalidateTree("/zone/home/coll/");
+
+		Assert.assertNull(cache.retrieveObjStat(account, "/zone/home/coll"));
+		Assert.assertNull("children should be dropped",
+				cache.retrieveObjStat(account, "/zone/home/coll/sub/file"));
+		Assert.assertNotNull("path with the same prefix should be kept",
+				cache.retrieveObjStat(account, "/zone/home/collection"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroMaxEntries() throws Exception {
+		new ObjStatCache(0, 1000);
+	}
+
+}
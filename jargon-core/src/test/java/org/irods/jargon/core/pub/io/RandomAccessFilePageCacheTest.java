@@ -0,0 +1,280 @@
+package org.irods.jargon.core.pub.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Exercises the page cache of {@link IRODSRandomAccessFile} against an in
+ * memory file, counting the calls that would be round trips to iRODS
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class RandomAccessFilePageCacheTest {
+
+	private static final int PAGE_SIZE = 16;
+
+	private InMemoryFile file;
+	private FileIOOperations fileIOOperations;
+	private IRODSFile irodsFile;
+
+	@Before
+	public void setUp() throws Exception {
+		file = new InMemoryFile();
+		fileIOOperations = Mockito.mock(FileIOOperations.class);
+		irodsFile = Mockito.mock(IRODSFile.class);
+		Mockito.when(irodsFile.exists()).thenReturn(true);
+		Mockito.when(irodsFile.isFile()).thenReturn(true);
+		Mockito.when(irodsFile.getFileDescriptor()).thenReturn(1);
+		Mockito.when(irodsFile.getAbsolutePath()).thenReturn("/zone/file");
+		Mockito.when(irodsFile.length()).thenAnswer(new Answer<Long>() {
+			@Override
+			public Long answer(final InvocationOnMock invocation) {
+				return (long) file.size;
+			}
+		});
+		Mockito.when(
+				fileIOOperations.fileRead(Matchers.anyInt(),
+						Matchers.any(byte[].class), Matchers.anyInt(),
+						Matchers.anyInt())).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(final InvocationOnMock invocation) {
+				Object[] args = invocation.getArguments();
+				return file.read((byte[]) args[1], (Integer) args[2],
+						(Integer) args[3]);
+			}
+		});
+		Mockito.when(
+				fileIOOperations.write(Matchers.anyInt(),
+						Matchers.any(byte[].class), Matchers.anyInt(),
+						Matchers.anyInt())).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(final InvocationOnMock invocation) {
+				Object[] args = invocation.getArguments();
+				return file.write((byte[]) args[1], (Integer) args[2],
+						(Integer) args[3]);
+			}
+		});
+		Mockito.when(
+				fileIOOperations.seek(Matchers.anyInt(), Matchers.anyLong(),
+						Matchers.any(SeekWhenceType.class))).thenAnswer(
+				new Answer<Long>() {
+					@Override
+					public Long answer(final InvocationOnMock invocation) {
+						Object[] args = invocation.getArguments();
+						return file.seek((Long) args[1],
+								(SeekWhenceType) args[2]);
+					}
+				});
+	}
+
+	@Test
+	public void testReadHeaderCostsOneReadPerPage() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(bytes);
+		for (int i = 0; i < 12; i++) {
+			header.writeInt(i);
+		}
+		file.setContents(bytes.toByteArray());
+
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		for (int i = 0; i < 12; i++) {
+			Assert.assertEquals("wrong value read", i,
+					randomAccessFile.readInt());
+		}
+
+		Assert.assertEquals("wrong file pointer", 48,
+				randomAccessFile.getFilePointer());
+		Mockito.verify(fileIOOperations, Mockito.times(3)).fileRead(
+				Matchers.anyInt(), Matchers.any(byte[].class),
+				Matchers.anyInt(), Matchers.anyInt());
+	}
+
+	@Test
+	public void testReadAtEndOfFile() throws Exception {
+		file.setContents(new byte[] { 1, (byte) 200 });
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		Assert.assertEquals("wrong first byte", 1, randomAccessFile.read());
+		Assert.assertEquals("byte should be unsigned", 200,
+				randomAccessFile.read());
+		Assert.assertEquals("should be at eof", -1, randomAccessFile.read());
+		Assert.assertEquals("pointer moved at eof", 2,
+				randomAccessFile.getFilePointer());
+	}
+
+	@Test
+	public void testWritesHeldUntilSeek() throws Exception {
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		randomAccessFile.writeInt(1);
+		randomAccessFile.writeInt(2);
+		randomAccessFile.writeInt(3);
+
+		Assert.assertEquals("cached writes not in length", 12,
+				randomAccessFile.length());
+		Assert.assertEquals("wrong file pointer", 12,
+				randomAccessFile.getFilePointer());
+		Assert.assertEquals("write should be held", 0, file.size);
+
+		randomAccessFile.seek(4, SeekWhenceType.SEEK_START);
+		Assert.assertEquals("writes not flushed on seek", 12, file.size);
+		Mockito.verify(fileIOOperations, Mockito.times(1)).write(
+				Matchers.anyInt(), Matchers.any(byte[].class),
+				Matchers.anyInt(), Matchers.anyInt());
+		Assert.assertEquals("wrong value after seek", 2,
+				randomAccessFile.readInt());
+	}
+
+	@Test
+	public void testCloseFlushes() throws Exception {
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		randomAccessFile.writeLong(42L);
+		randomAccessFile.close();
+		Assert.assertEquals("write not flushed on close", 8, file.size);
+		Mockito.verify(irodsFile).close();
+	}
+
+	@Test
+	public void testEvictionWritesBackDirtyPage() throws Exception {
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(2);
+		byte[] chunk = new byte[PAGE_SIZE / 2];
+		Arrays.fill(chunk, (byte) 7);
+		for (int i = 0; i < 6; i++) {
+			randomAccessFile.write(chunk);
+		}
+
+		Assert.assertEquals("evicted page not written", PAGE_SIZE, file.size);
+		randomAccessFile.close();
+		Assert.assertEquals("wrong length", PAGE_SIZE * 3, file.size);
+		for (int i = 0; i < file.size; i++) {
+			Assert.assertEquals("wrong byte", 7, file.contents[i]);
+		}
+	}
+
+	@Test
+	public void testPartialPageWritePreservesFile() throws Exception {
+		byte[] contents = new byte[PAGE_SIZE * 2];
+		Arrays.fill(contents, (byte) 1);
+		file.setContents(contents);
+
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		randomAccessFile.seek(PAGE_SIZE - 2, SeekWhenceType.SEEK_START);
+		randomAccessFile.writeInt(0);
+		randomAccessFile.seek(-4, SeekWhenceType.SEEK_CURRENT);
+		Assert.assertEquals("wrong value read back", 0,
+				randomAccessFile.readInt());
+		randomAccessFile.close();
+
+		Assert.assertEquals("length changed", PAGE_SIZE * 2, file.size);
+		Assert.assertEquals("byte before write changed", 1,
+				file.contents[PAGE_SIZE - 3]);
+		Assert.assertEquals("byte after write changed", 1,
+				file.contents[PAGE_SIZE + 2]);
+		Assert.assertEquals("written byte", 0, file.contents[PAGE_SIZE + 1]);
+	}
+
+	@Test
+	public void testLargeReadBypassesCache() throws Exception {
+		byte[] contents = new byte[PAGE_SIZE * 4];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = (byte) i;
+		}
+		file.setContents(contents);
+
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(1);
+		randomAccessFile.writeByte(99);
+		byte[] buffer = new byte[PAGE_SIZE * 2];
+		randomAccessFile.readFully(buffer);
+
+		Assert.assertEquals("cached write not flushed before read", 99,
+				file.contents[0]);
+		Assert.assertEquals("wrong byte read", 1, buffer[0]);
+		Assert.assertEquals("wrong file pointer", PAGE_SIZE * 2 + 1,
+				randomAccessFile.getFilePointer());
+	}
+
+	@Test
+	public void testSeekFromEnd() throws Exception {
+		file.setContents(new byte[10]);
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		randomAccessFile.seek(0, SeekWhenceType.SEEK_END);
+		randomAccessFile.writeShort(5);
+		Assert.assertEquals("wrong length", 12, randomAccessFile.length());
+		randomAccessFile.seek(-2, SeekWhenceType.SEEK_END);
+		Assert.assertEquals("wrong value", 5, randomAccessFile.readShort());
+	}
+
+	@Test
+	public void testReadLine() throws Exception {
+		file.setContents("one\r\ntwo\rthree\n\nfour".getBytes("UTF-8"));
+		IRODSRandomAccessFile randomAccessFile = newCachedFile(4);
+		Assert.assertEquals("one", randomAccessFile.readLine());
+		Assert.assertEquals("two", randomAccessFile.readLine());
+		Assert.assertEquals("three", randomAccessFile.readLine());
+		Assert.assertEquals("", randomAccessFile.readLine());
+		Assert.assertEquals("four", randomAccessFile.readLine());
+		Assert.assertNull("should be at eof", randomAccessFile.readLine());
+	}
+
+	private IRODSRandomAccessFile newCachedFile(final int pageCount)
+			throws Exception {
+		return new IRODSRandomAccessFile(irodsFile, fileIOOperations,
+				PAGE_SIZE, pageCount);
+	}
+
+	/**
+	 * Stands in for a data object, with one file descriptor position
+	 */
+	private static class InMemoryFile {
+		private byte[] contents = new byte[0];
+		private int size = 0;
+		private int position = 0;
+
+		void setContents(final byte[] contents) {
+			this.contents = contents.clone();
+			size = contents.length;
+		}
+
+		int read(final byte[] buffer, final int offset, final int length) {
+			int count = Math.min(length, size - position);
+			if (count <= 0) {
+				return -1;
+			}
+			System.arraycopy(contents, position, buffer, offset, count);
+			position += count;
+			return count;
+		}
+
+		int write(final byte[] buffer, final int offset, final int length) {
+			if (position + length > contents.length) {
+				contents = Arrays.copyOf(contents, position + length);
+			}
+			System.arraycopy(buffer, offset, contents, position, length);
+			position += length;
+			size = Math.max(size, position);
+			return length;
+		}
+
+		long seek(final long offset, final SeekWhenceType whence) {
+			if (whence == SeekWhenceType.SEEK_CURRENT) {
+				position += offset;
+			} else if (whence == SeekWhenceType.SEEK_END) {
+				position = size + (int) offset;
+			} else {
+				position = (int) offset;
+			}
+			return position;
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+package org.irods.jargon.core.pub.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReadAheadIrodsInputStreamTest {
+
+	private static final int BLOCK_SIZE = 1000;
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private IRODSFileFactory irodsFileFactory;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("readahead", "readahead");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		SettableJargonProperties jargonProperties = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		jargonProperties.setGetBufferSize(BLOCK_SIZE);
+		jargonProperties.setReadAheadBlocks(2);
+		irodsFileSystem.getIrodsSession()
+				.setJargonProperties(jargonProperties);
+		irodsAccount = server.buildIRODSAccount("readahead");
+		irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testReadWholeFile() throws Exception {
+		byte[] content = putContent("whole.dat", 10 * BLOCK_SIZE + 123);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsAccount
+						.getHomeDirectory() + "/whole.dat");
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		byte[] buffer = new byte[700];
+		int read;
+		while ((read = stream.read(buffer)) != -1) {
+			actual.write(buffer, 0, read);
+		}
+		stream.close();
+
+		Assert.assertTrue("content not read back",
+				Arrays.equals(content, actual.toByteArray()));
+	}
+
+	@Test
+	public void testReadBlockSizedFile() throws Exception {
+		byte[] content = putContent("exact.dat", 3 * BLOCK_SIZE);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsFileFactory
+						.instanceIRODSFile(irodsAccount.getHomeDirectory(),
+								"exact.dat"));
+		byte[] actual = new byte[content.length + 10];
+		int read = stream.read(actual);
+		Assert.assertEquals("wrong length read", content.length, read);
+		Assert.assertEquals("expected end of file", -1, stream.read());
+		stream.close();
+
+		Assert.assertTrue("content not read back", Arrays.equals(content,
+				Arrays.copyOf(actual, content.length)));
+	}
+
+	@Test
+	public void testReadByteAndSkip() throws Exception {
+		byte[] content = putContent("skip.dat", 5 * BLOCK_SIZE);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsAccount
+						.getHomeDirectory() + "/skip.dat");
+		Assert.assertEquals("wrong first byte", content[0] & 0xFF,
+				stream.read());
+		Assert.assertEquals("wrong skip", 2500, stream.skip(2500));
+		Assert.assertEquals("wrong byte after skip", content[2501] & 0xFF,
+				stream.read());
+		Assert.assertEquals("wrong skip past end", content.length - 2502,
+				stream.skip(content.length));
+		Assert.assertEquals("expected end of file", -1, stream.read());
+		stream.close();
+	}
+
+	@Test
+	public void testEmptyFile() throws Exception {
+		putContent("empty.dat", 0);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsAccount
+						.getHomeDirectory() + "/empty.dat");
+		Assert.assertEquals("expected end of file", -1,
+				stream.read(new byte[10]));
+		stream.close();
+	}
+
+	@Test
+	public void testCloseBeforeEnd() throws Exception {
+		putContent("partial.dat", 20 * BLOCK_SIZE);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsAccount
+						.getHomeDirectory() + "/partial.dat");
+		Assert.assertEquals("wrong length read", 10,
+				stream.read(new byte[10]));
+		stream.close();
+		stream.close();
+
+		try {
+			stream.read();
+			Assert.fail("read after close should fail");
+		} catch (IOException e) {
+			// expected
+		}
+
+		Assert.assertTrue("file not readable after close", irodsFileFactory
+				.instanceIRODSFile(irodsAccount.getHomeDirectory(),
+						"partial.dat").exists());
+	}
+
+	@Test(expected = JargonException.class)
+	public void testMissingFile() throws Exception {
+		irodsFileFactory.instanceReadAheadIRODSFileInputStream(irodsAccount
+				.getHomeDirectory() + "/missing.dat");
+	}
+
+	@Test
+	public void testFetchErrorThrownAfterFetchedBlocks() throws Exception {
+		putContent("lost.dat", 20 * BLOCK_SIZE);
+
+		ReadAheadIrodsInputStream stream = irodsFileFactory
+				.instanceReadAheadIRODSFileInputStream(irodsAccount
+						.getHomeDirectory() + "/lost.dat");
+		stream.read();
+		// the fetcher can be no more than the ring ahead, so it must fail
+		server.stop();
+
+		long read = 1;
+		try {
+			while (stream.read() != -1) {
+				read++;
+			}
+			Assert.fail("lost connection not reported");
+		} catch (IOException e) {
+			Assert.assertTrue("fetched blocks not read first",
+					read >= BLOCK_SIZE);
+			Assert.assertTrue("read past the lost connection",
+					read < 20 * BLOCK_SIZE);
+		} finally {
+			stream.close();
+		}
+	}
+
+	private byte[] putContent(final String name, final int length)
+			throws JargonException {
+		byte[] content = new byte[length];
+		new Random(length).nextBytes(content);
+		server.getCatalog().putDataObject(
+				irodsAccount.getHomeDirectory() + "/" + name, "readahead",
+				content);
+		return content;
+	}
+
+}
@@ -0,0 +1,200 @@
+package org.irods.jargon.core.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class GenQueryResultIteratorTest {
+
+	private TranslatedIRODSGenQuery translatedIRODSGenQuery;
+	private GenQueryProcessor genQueryProcessor;
+
+	@Before
+	public void setUp() throws Exception {
+		List<GenQuerySelectField> selectFields = new ArrayList<GenQuerySelectField>();
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_DATA_NAME, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		translatedIRODSGenQuery = TranslatedIRODSGenQuery.instance(
+				selectFields, new ArrayList<TranslatedGenQueryCondition>(),
+				IRODSGenQuery.instance("hello", 2));
+		genQueryProcessor = Mockito.mock(GenQueryProcessor.class);
+	}
+
+	@Test
+	public void testIterateAcrossPages() throws Exception {
+		IRODSQueryResultSet first = page(2, "a", "b");
+		IRODSQueryResultSet second = page(3, "c", "d");
+		IRODSQueryResultSet last = page(0, "e");
+		expectPage(0, first);
+		expectPage(2, second);
+		expectPage(3, last);
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		StringBuilder sb = new StringBuilder();
+		while (iterator.hasNext()) {
+			sb.append(iterator.next().getColumn(0));
+		}
+
+		Assert.assertEquals("wrong rows", "abcde", sb.toString());
+		Assert.assertFalse("should stay exhausted", iterator.hasNext());
+		iterator.close();
+		Mockito.verify(genQueryProcessor, Mockito.never()).closeResults(
+				Mockito.any(IRODSQueryResultSet.class));
+	}
+
+	@Test
+	public void testIterateAcrossPagesWithPrefetch() throws Exception {
+		expectPage(0, page(2, "a", "b"));
+		expectPage(2, page(3, "c", "d"));
+		expectPage(3, page(0, "e"));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null, true);
+		StringBuilder sb = new StringBuilder();
+		while (iterator.hasNext()) {
+			sb.append(iterator.next().getColumn(0));
+		}
+
+		Assert.assertEquals("wrong rows", "abcde", sb.toString());
+	}
+
+	@Test
+	public void testNextPageNotRequestedUntilNeeded() throws Exception {
+		IRODSQueryResultSet first = page(2, "a", "b");
+		expectPage(0, first);
+		expectPage(2, page(0, "c"));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		Assert.assertEquals("wrong row", "a", iterator.next().getColumn(0));
+		Assert.assertEquals("wrong row", "b", iterator.next().getColumn(0));
+		Mockito.verify(genQueryProcessor, Mockito.never())
+				.executeTranslatedIRODSQuery(translatedIRODSGenQuery, 2, 0,
+						QueryCloseBehavior.MANUAL_CLOSE, null);
+
+		Assert.assertEquals("wrong row", "c", iterator.next().getColumn(0));
+		Assert.assertFalse("should be exhausted", iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseEarlyClosesCurrentPage() throws Exception {
+		IRODSQueryResultSet first = page(2, "a", "b");
+		expectPage(0, first);
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		Assert.assertEquals("wrong row", "a", iterator.next().getColumn(0));
+		iterator.close();
+
+		Mockito.verify(genQueryProcessor, Mockito.times(1)).closeResults(
+				first);
+	}
+
+	@Test
+	public void testCloseEarlyClosesPrefetchedPage() throws Exception {
+		IRODSQueryResultSet first = page(2, "a", "b");
+		IRODSQueryResultSet second = page(3, "c", "d");
+		expectPage(0, first);
+		expectPage(2, second);
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null, true);
+		Assert.assertEquals("wrong row", "a", iterator.next().getColumn(0));
+		iterator.close();
+		iterator.close();
+
+		Mockito.verify(genQueryProcessor, Mockito.times(1)).closeResults(
+				second);
+		Assert.assertFalse("closed iterator has no rows", iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseAfterFailedPrefetchClosesCurrentPage()
+			throws Exception {
+		IRODSQueryResultSet first = page(2, "a", "b");
+		expectPage(0, first);
+		Mockito.when(
+				genQueryProcessor.executeTranslatedIRODSQuery(
+						translatedIRODSGenQuery, 2, 0,
+						QueryCloseBehavior.MANUAL_CLOSE, null)).thenThrow(
+				new JargonException("boom"));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null, true);
+		Assert.assertEquals("wrong row", "a", iterator.next().getColumn(0));
+		iterator.close();
+
+		Mockito.verify(genQueryProcessor, Mockito.times(1)).closeResults(
+				first);
+	}
+
+	@Test
+	public void testEmptyQuery() throws Exception {
+		expectPage(0, page(0));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		Assert.assertFalse("should have no rows", iterator.hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextPastEnd() throws Exception {
+		expectPage(0, page(0, "a"));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test(expected = JargonRuntimeException.class)
+	public void testErrorGettingNextPage() throws Exception {
+		expectPage(0, page(2, "a"));
+		Mockito.when(
+				genQueryProcessor.executeTranslatedIRODSQuery(
+						translatedIRODSGenQuery, 2, 0,
+						QueryCloseBehavior.MANUAL_CLOSE, null)).thenThrow(
+				new JargonException("boom"));
+
+		GenQueryResultIterator iterator = GenQueryResultIterator.instance(
+				genQueryProcessor, translatedIRODSGenQuery, null);
+		iterator.next();
+		iterator.hasNext();
+	}
+
+	private void expectPage(final int continueIndex,
+			final IRODSQueryResultSet page) throws Exception {
+		Mockito.when(
+				genQueryProcessor.executeTranslatedIRODSQuery(
+						translatedIRODSGenQuery, continueIndex, 0,
+						QueryCloseBehavior.MANUAL_CLOSE, null))
+				.thenReturn(page);
+	}
+
+	private IRODSQueryResultSet page(final int continuation,
+			final String... names) throws Exception {
+		List<String> columnNames = new ArrayList<String>();
+		columnNames.add(RodsGenQueryEnum.COL_DATA_NAME.getName());
+		List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+		for (String name : names) {
+			List<String> values = new ArrayList<String>();
+			values.add(name);
+			rows.add(IRODSQueryResultRow.instance(values, columnNames));
+		}
+		return IRODSQueryResultSet.instance(translatedIRODSGenQuery, rows,
+				continuation, 0);
+	}
+
+}
@@ -0,0 +1,168 @@
+package org.irods.jargon.core.query;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagReader;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.junit.Test;
+
+public class IRODSColumnarQueryResultSetTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public void testInstance() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 5, 0, 3);
+		Assert.assertEquals("wrong row count", 3, resultSet.getRowCount());
+		Assert.assertEquals("wrong column count", 4,
+				resultSet.getNumberOfResultColumns());
+		Assert.assertTrue("should have more records",
+				resultSet.isHasMoreRecords());
+		Assert.assertEquals("wrong continuation", 5,
+				resultSet.getContinuationIndex());
+		Assert.assertEquals("wrong column index", 2,
+				resultSet.getColumnIndex(RodsGenQueryEnum.COL_DATA_SIZE
+						.getName()));
+		Assert.assertEquals("missing column should be -1", -1,
+				resultSet.getColumnIndex("NOT_A_COLUMN"));
+	}
+
+	@Test
+	public void testGetStringGivesBackValuesAsSent() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 0, 0, 3);
+		String modifyTime = RodsGenQueryEnum.COL_D_MODIFY_TIME.getName();
+		Assert.assertEquals("padded time not kept", "01375000000",
+				resultSet.getString(0, modifyTime));
+		Assert.assertEquals("blank time not kept", "",
+				resultSet.getString(1, modifyTime));
+		Assert.assertEquals("unpadded time not kept", "1375000100",
+				resultSet.getString(2, modifyTime));
+		Assert.assertEquals("size not kept", "0",
+				resultSet.getString(1, RodsGenQueryEnum.COL_DATA_SIZE.getName()));
+	}
+
+	@Test
+	public void testGetLongOrZeroAndDate() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 0, 0, 3);
+		Assert.assertEquals("wrong size", 12345L,
+				resultSet.getLongOrZero(2, 2));
+		Assert.assertEquals("blank should be zero", 0L,
+				resultSet.getLongOrZero(1, 3));
+		Assert.assertNull("blank date should be null",
+				resultSet.getDateOrNull(1, 3));
+		Assert.assertEquals("wrong date", new Date(1375000000L * 1000L),
+				resultSet.getDateOrNull(0, 3));
+	}
+
+	@Test
+	public void testRepeatedValuesShared() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 0, 0, 3);
+		Assert.assertSame("owner should be shared",
+				resultSet.getString(0, 1), resultSet.getString(2, 1));
+	}
+
+	@Test
+	public void testNonNumericLongColumnKeptAsString() throws Exception {
+		List<GenQuerySelectField> selectFields = new ArrayList<GenQuerySelectField>();
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		TranslatedIRODSGenQuery query = TranslatedIRODSGenQuery.instance(
+				selectFields, new ArrayList<TranslatedGenQueryCondition>(),
+				IRODSGenQuery.instance("hello", 100));
+		StringBuilder sb = new StringBuilder();
+		sb.append("<GenQueryOut_PI>\n<rowCnt>2</rowCnt>\n<attriCnt>1</attriCnt>\n<continueInx>0</continueInx>\n<totalRowCount>0</totalRowCount>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>407</attriInx>\n<reslen>33</reslen>\n<value>100</value>\n<value>big</value>\n</SqlResult_PI>\n");
+		sb.append("</GenQueryOut_PI>\n");
+
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(query, readTag(sb.toString()), 0, 0, 2);
+		Assert.assertEquals("wrong value", "big", resultSet.getString(1, 0));
+		Assert.assertEquals("wrong value", 100L, resultSet.getLongOrZero(0, 0));
+	}
+
+	@Test
+	public void testGetResultsMatchesColumns() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 0, 10, 3);
+		List<IRODSQueryResultRow> rows = resultSet.getResults();
+		Assert.assertEquals("wrong number of rows", 3, rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			for (int j = 0; j < resultSet.getNumberOfResultColumns(); j++) {
+				Assert.assertEquals("row value differs",
+						resultSet.getString(i, j), rows.get(i).getColumn(j));
+			}
+		}
+		Assert.assertEquals("wrong record count", 11, rows.get(0)
+				.getRecordCount());
+		Assert.assertTrue("last row should be last result", rows.get(2)
+				.isLastResult());
+		Assert.assertSame("rows should be cached", rows,
+				resultSet.getResults());
+	}
+
+	@Test(expected = DataNotFoundException.class)
+	public void testEmptyResponse() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), null, 0, 0, 0);
+		Assert.assertEquals("should have no rows", 0, resultSet.getRowCount());
+		Assert.assertTrue("should have no results", resultSet.getResults()
+				.isEmpty());
+		resultSet.getFirstResult();
+	}
+
+	@Test(expected = JargonException.class)
+	public void testGetStringRowOutOfRange() throws Exception {
+		IRODSColumnarQueryResultSet resultSet = IRODSColumnarQueryResultSet
+				.instance(buildQuery(), buildResponse(), 0, 0, 3);
+		resultSet.getString(3, 0);
+	}
+
+	private TranslatedIRODSGenQuery buildQuery() throws Exception {
+		List<GenQuerySelectField> selectFields = new ArrayList<GenQuerySelectField>();
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_DATA_NAME, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_D_OWNER_NAME, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		selectFields.add(GenQuerySelectField.instance(
+				RodsGenQueryEnum.COL_D_MODIFY_TIME, SelectFieldTypes.FIELD,
+				GenQueryField.SelectFieldSource.DEFINED_QUERY_FIELD));
+		return TranslatedIRODSGenQuery.instance(selectFields,
+				new ArrayList<TranslatedGenQueryCondition>(),
+				IRODSGenQuery.instance("hello", 100));
+	}
+
+	private Tag buildResponse() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<GenQueryOut_PI>\n<rowCnt>3</rowCnt>\n<attriCnt>4</attriCnt>\n<continueInx>0</continueInx>\n<totalRowCount>3</totalRowCount>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>403</attriInx>\n<reslen>50</reslen>\n<value>file1.txt</value>\n<value>file2.txt</value>\n<value>file3.txt</value>\n</SqlResult_PI>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>411</attriInx>\n<reslen>50</reslen>\n<value>rods</value>\n<value>test1</value>\n<value>rods</value>\n</SqlResult_PI>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>407</attriInx>\n<reslen>33</reslen>\n<value>100</value>\n<value>0</value>\n<value>12345</value>\n</SqlResult_PI>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>420</attriInx>\n<reslen>32</reslen>\n<value>01375000000</value>\n<value></value>\n<value>1375000100</value>\n</SqlResult_PI>\n");
+		sb.append("</GenQueryOut_PI>\n");
+		return readTag(sb.toString());
+	}
+
+	private Tag readTag(final String message) throws Exception {
+		return TagReader.readTag(message.getBytes(ENCODING), 0,
+				message.length(), true, Charset.forName(ENCODING));
+	}
+
+}
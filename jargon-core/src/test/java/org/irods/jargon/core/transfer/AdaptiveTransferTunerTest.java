@@ -0,0 +1,157 @@
+package org.irods.jargon.core.transfer;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AdaptiveTransferTunerTest {
+
+	private static final String HOST = "irods.example.org";
+	private static final long LENGTH = 100L * 1024 * 1024;
+	private static final int BUFFER = 1024 * 1024;
+
+	@Test
+	public void testFirstTransferUsesMaxThreadsAndDefaultBuffer()
+			throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(4, BUFFER);
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setMaxThreads(0);
+		tuner.tuneTransferOptions(HOST, LENGTH, transferOptions);
+		Assert.assertEquals("wrong threads", 4, transferOptions.getMaxThreads());
+		Assert.assertEquals("wrong buffer", BUFFER,
+				transferOptions.getParallelCopyBufferSize());
+		Assert.assertNull("nothing measured yet",
+				tuner.getProfile(HOST, LENGTH));
+	}
+
+	@Test
+	public void testSmallFileAndNoParallelNotTuned() throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(4, BUFFER);
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setMaxThreads(0);
+		tuner.tuneTransferOptions(HOST, 1024, transferOptions);
+		Assert.assertEquals("small file should not be tuned", 0,
+				transferOptions.getMaxThreads());
+
+		transferOptions.setMaxThreads(-1);
+		tuner.tuneTransferOptions(HOST, LENGTH, transferOptions);
+		Assert.assertEquals("no parallel should not be tuned", -1,
+				transferOptions.getMaxThreads());
+		Assert.assertEquals("buffer should not be set", 0,
+				transferOptions.getParallelCopyBufferSize());
+	}
+
+	@Test
+	public void testSettlesOnFastestSetting() throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(4, BUFFER);
+
+		for (int i = 0; i < 30; i++) {
+			TransferOptions transferOptions = new TransferOptions();
+			transferOptions.setMaxThreads(0);
+			tuner.tuneTransferOptions(HOST, LENGTH, transferOptions);
+			int threads = transferOptions.getMaxThreads();
+			int buffer = transferOptions.getParallelCopyBufferSize();
+			TransferThroughputMeasurement measurement = tuner
+					.startMeasurement(HOST, LENGTH, threads, buffer);
+			tuner.recordMeasurement(measurement, LENGTH,
+					elapsedNanosFor(threads, buffer));
+		}
+
+		TransferTuningProfile profile = tuner.getProfile(HOST, LENGTH);
+		Assert.assertNotNull("no profile", profile);
+		Assert.assertEquals("wrong best threads", 2,
+				profile.getNumberOfThreads());
+		Assert.assertEquals("wrong best buffer", BUFFER * 2,
+				profile.getCopyBufferSize());
+		Assert.assertEquals("wrong measurement count", 30,
+				profile.getMeasurementCount());
+		Assert.assertEquals("per stream throughput",
+				profile.getBytesPerSecond() / 2,
+				profile.getBytesPerSecondPerStream());
+
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setMaxThreads(0);
+		tuner.tuneTransferOptions(HOST, LENGTH, transferOptions);
+		Assert.assertEquals("should use best threads", 2,
+				transferOptions.getMaxThreads());
+		Assert.assertEquals("should use best buffer", BUFFER * 2,
+				transferOptions.getParallelCopyBufferSize());
+	}
+
+	@Test
+	public void testThreadCapInOptionsRespected() throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(8, BUFFER);
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setMaxThreads(3);
+		tuner.tuneTransferOptions(HOST, LENGTH, transferOptions);
+		Assert.assertEquals("should not exceed cap in options", 3,
+				transferOptions.getMaxThreads());
+	}
+
+	@Test
+	public void testProfilesKeptByHostAndSize() throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(4, BUFFER);
+		tuner.recordMeasurement(tuner.startMeasurement(HOST, LENGTH, 4, 0),
+				LENGTH, 1000000000L);
+		tuner.recordMeasurement(
+				tuner.startMeasurement(HOST, LENGTH * 16, 4, 0), LENGTH * 16,
+				1000000000L);
+		tuner.recordMeasurement(
+				tuner.startMeasurement("other.example.org", LENGTH, 4, 0),
+				LENGTH, 1000000000L);
+
+		Assert.assertEquals("wrong number of profiles", 3, tuner.getProfiles()
+				.size());
+		TransferTuningProfile profile = tuner.getProfile(HOST, LENGTH);
+		Assert.assertEquals("default buffer should be recorded", BUFFER,
+				profile.getCopyBufferSize());
+		Assert.assertEquals("wrong throughput", LENGTH,
+				profile.getBytesPerSecond());
+		Assert.assertTrue("length outside profile range",
+				profile.getMinimumLength() <= LENGTH
+						&& LENGTH < profile.getMaximumLength());
+
+		tuner.clear();
+		Assert.assertTrue("profiles should be cleared", tuner.getProfiles()
+				.isEmpty());
+	}
+
+	@Test
+	public void testMeasurementCountsBytesAndForwardsCallbacks()
+			throws Exception {
+		AdaptiveTransferTuner tuner = new AdaptiveTransferTuner(4, BUFFER);
+		ConnectionProgressStatusListener listener = Mockito
+				.mock(ConnectionProgressStatusListener.class);
+		TransferThroughputMeasurement measurement = tuner.startMeasurement(
+				HOST, LENGTH, 2, 0);
+		measurement.setDelegate(listener);
+
+		ConnectionProgressStatus status = ConnectionProgressStatus
+				.instanceForSend(1000);
+		measurement.connectionProgressStatusCallback(status);
+		measurement.connectionProgressStatusCallback(status);
+		measurement.complete();
+
+		Assert.assertEquals("wrong byte count", 2000,
+				measurement.getBytesTransferred());
+		Mockito.verify(listener, Mockito.times(2))
+				.connectionProgressStatusCallback(status);
+		Assert.assertEquals("measurement not recorded", 1, tuner
+				.getProfile(HOST, LENGTH).getMeasurementCount());
+	}
+
+	/**
+	 * Simulated transfer time, fastest with 2 threads and twice the default
+	 * buffer, and slower the further a setting is from that
+	 */
+	private long elapsedNanosFor(final int threads, final int buffer) {
+		int bufferSteps = Math.abs(Integer.numberOfTrailingZeros(buffer)
+				- Integer.numberOfTrailingZeros(BUFFER * 2));
+		return 1000000000L * (10 + Math.abs(threads - 2) + bufferSteps);
+	}
+
+}
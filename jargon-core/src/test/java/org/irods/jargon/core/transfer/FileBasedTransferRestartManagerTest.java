@@ -0,0 +1,166 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Mike Conway - DICE
+ *
+ */
+public class FileBasedTransferRestartManagerTest {
+
+	private File journalFile;
+
+	@Before
+	public void setUp() throws Exception {
+		journalFile = new File(System.getProperty("java.io.tmpdir"),
+				"FileBasedTransferRestartManagerTest-" + System.nanoTime()
+						+ ".journal");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		journalFile.delete();
+		new File(journalFile.getAbsolutePath() + ".compact").delete();
+		new File(journalFile.getAbsolutePath() + ".lock").delete();
+	}
+
+	@Test
+	public void testStoreAndReopen() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				journalFile);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo("/irods/path", 4));
+		manager.updateOffsetForSegment(identifier, 2, 1000);
+		manager.updateLengthForSegment(identifier, 2, 300);
+		manager.updateLengthForSegment(identifier, 2, 500);
+		manager.close();
+
+		manager = new FileBasedTransferRestartManager(journalFile);
+		FileRestartInfo retrievedInfo = manager.retrieveRestart(identifier);
+		Assert.assertNotNull("restart not read from journal", retrievedInfo);
+		Assert.assertEquals("/local/path", retrievedInfo.getLocalAbsolutePath());
+		Assert.assertEquals(4, retrievedInfo.getFileRestartDataSegments()
+				.size());
+		FileRestartDataSegment segment = retrievedInfo
+				.getFileRestartDataSegments().get(2);
+		Assert.assertEquals(1000, segment.getOffset());
+		Assert.assertEquals(800, segment.getLength());
+		manager.close();
+	}
+
+	@Test
+	public void testDeleteAndReopen() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				journalFile);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo("/irods/path", 2));
+		manager.deleteRestart(identifier);
+		manager.close();
+
+		manager = new FileBasedTransferRestartManager(journalFile);
+		Assert.assertNull("did not remove info",
+				manager.retrieveRestart(identifier));
+		manager.close();
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				journalFile, FileBasedTransferRestartManager.DEFAULT_FLUSH_INTERVAL_MILLIS,
+				1024);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo("/irods/path", 2));
+		for (int i = 0; i < 200; i++) {
+			manager.updateLengthForSegment(identifier, 1, 10);
+			manager.flush();
+		}
+		Assert.assertTrue("journal was not compacted",
+				manager.getJournalLength() < 4096);
+		manager.close();
+
+		manager = new FileBasedTransferRestartManager(journalFile);
+		Assert.assertEquals(2000, manager.retrieveRestart(identifier)
+				.getFileRestartDataSegments().get(1).getLength());
+		manager.close();
+	}
+
+	@Test
+	public void testTornRecordIgnored() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				journalFile);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo("/irods/path", 2));
+		manager.close();
+		long goodLength = journalFile.length();
+
+		RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+		file.seek(goodLength);
+		file.writeInt(500);
+		file.writeInt(0);
+		file.write(new byte[20]);
+		file.close();
+
+		manager = new FileBasedTransferRestartManager(journalFile);
+		Assert.assertNotNull("lost restart before torn record",
+				manager.retrieveRestart(identifier));
+		Assert.assertEquals("torn record not dropped", goodLength,
+				manager.getJournalLength());
+		manager.close();
+	}
+
+	@Test
+	public void testJournalInUse() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				journalFile);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo("/irods/path", 2));
+
+		try {
+			new FileBasedTransferRestartManager(journalFile);
+			Assert.fail("second manager opened a journal in use");
+		} catch (FileRestartManagementException e) {
+			// expected
+		}
+
+		manager.close();
+		manager.close();
+
+		manager = new FileBasedTransferRestartManager(journalFile);
+		Assert.assertNotNull("journal not usable after close",
+				manager.retrieveRestart(identifier));
+		manager.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullJournalFile() throws Exception {
+		new FileBasedTransferRestartManager(null);
+	}
+
+	private FileRestartInfo buildRestartInfo(final String irodsPath,
+			final int nbrThreads) throws Exception {
+		IRODSAccount account = TestingPropertiesHelper.buildBogusIrodsAccount();
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath(irodsPath);
+		fileRestartInfo.setLocalAbsolutePath("/local/path");
+		fileRestartInfo.setRestartType(RestartType.PUT);
+		fileRestartInfo.setIrodsAccountIdentifier(account.toString());
+		for (int i = 0; i < nbrThreads; i++) {
+			fileRestartInfo.getFileRestartDataSegments().add(
+					new FileRestartDataSegment(i));
+		}
+		return fileRestartInfo;
+	}
+
+}
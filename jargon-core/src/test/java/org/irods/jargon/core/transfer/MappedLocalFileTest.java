@@ -0,0 +1,134 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedLocalFileTest {
+
+	private static final int WINDOW = 1000;
+
+	private File localFile;
+	private byte[] data;
+
+	@Before
+	public void setUp() throws Exception {
+		localFile = File.createTempFile("MappedLocalFileTest", ".dat");
+		data = new byte[3500];
+		new Random(42).nextBytes(data);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		localFile.delete();
+	}
+
+	@Test
+	public void testReadFromAcrossWindowsOutOfOrder() throws Exception {
+		MappedLocalFile.presize(localFile, data.length);
+		MappedLocalFile mappedLocalFile = MappedLocalFile.instanceForWrite(
+				localFile, WINDOW);
+		try {
+			// second half first, as another thread might
+			long read = mappedLocalFile.readFrom(
+					Channels.newChannel(new ByteArrayInputStream(data, 1700,
+							1800)), 1700, 1800);
+			Assert.assertEquals("wrong count for second half", 1800, read);
+			read = mappedLocalFile.readFrom(Channels
+					.newChannel(new ByteArrayInputStream(data, 0, 1700)), 0,
+					1700);
+			Assert.assertEquals("wrong count for first half", 1700, read);
+		} finally {
+			mappedLocalFile.close();
+		}
+
+		Assert.assertEquals("file should keep its size", data.length,
+				localFile.length());
+		Assert.assertTrue("file content differs",
+				Arrays.equals(data, readLocalFile()));
+	}
+
+	@Test
+	public void testReadFromGrowsFileOnlyAsNeeded() throws Exception {
+		MappedLocalFile mappedLocalFile = MappedLocalFile.instanceForWrite(
+				localFile, WINDOW);
+		try {
+			mappedLocalFile.readFrom(
+					Channels.newChannel(new ByteArrayInputStream(data)), 0,
+					data.length);
+		} finally {
+			mappedLocalFile.close();
+		}
+
+		Assert.assertEquals("file grown past the data", data.length,
+				localFile.length());
+		Assert.assertTrue("file content differs",
+				Arrays.equals(data, readLocalFile()));
+	}
+
+	@Test
+	public void testReadFromShortSource() throws Exception {
+		MappedLocalFile.presize(localFile, data.length);
+		MappedLocalFile mappedLocalFile = MappedLocalFile.instanceForWrite(
+				localFile, WINDOW);
+		try {
+			long read = mappedLocalFile.readFrom(Channels
+					.newChannel(new ByteArrayInputStream(data, 0, 500)), 0,
+					data.length);
+			Assert.assertEquals("should stop at the end of the source", 500,
+					read);
+		} finally {
+			mappedLocalFile.close();
+		}
+	}
+
+	@Test
+	public void testWriteToStopsAtEndOfFile() throws Exception {
+		FileOutputStream fileOutputStream = new FileOutputStream(localFile);
+		fileOutputStream.write(data);
+		fileOutputStream.close();
+
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		MappedLocalFile mappedLocalFile = MappedLocalFile.instanceForRead(
+				localFile, WINDOW);
+		try {
+			long written = mappedLocalFile.writeTo(
+					Channels.newChannel(target), 900, data.length);
+			Assert.assertEquals("should stop at the end of the file",
+					data.length - 900, written);
+		} finally {
+			mappedLocalFile.close();
+		}
+
+		Assert.assertTrue("written content differs", Arrays.equals(
+				Arrays.copyOfRange(data, 900, data.length),
+				target.toByteArray()));
+	}
+
+	private byte[] readLocalFile() throws Exception {
+		byte[] actual = new byte[(int) localFile.length()];
+		FileInputStream fileInputStream = new FileInputStream(localFile);
+		try {
+			int read = 0;
+			while (read < actual.length) {
+				read += fileInputStream.read(actual, read, actual.length
+						- read);
+			}
+		} finally {
+			fileInputStream.close();
+		}
+		return actual;
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.irods.jargon.core.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class ParallelTransferExecutorTest {
+
+	@Test
+	public void testInvokeAllRunsAllThreadsTogether() throws Exception {
+		ParallelTransferExecutor executor = new ParallelTransferExecutor(4);
+		List<Callable<Boolean>> tasks = latchedTasks(3, new CountDownLatch(3));
+
+		List<Future<Boolean>> futures = executor.invokeAll(tasks);
+
+		for (Future<Boolean> future : futures) {
+			Assert.assertTrue("threads did not run together", future.get());
+		}
+		ParallelTransferExecutorStatistics statistics = executor
+				.getStatistics();
+		Assert.assertEquals("wrong completed count", 3,
+				statistics.getCompletedTasks());
+		Assert.assertEquals("threads should be done", 0,
+				statistics.getActiveThreads());
+		Assert.assertTrue("peak should count all threads",
+				statistics.getPeakActiveThreads() >= 3);
+	}
+
+	@Test
+	public void testTransferQueuedWhileSessionBusy() throws Exception {
+		final ParallelTransferExecutor executor = new ParallelTransferExecutor(
+				2);
+		final CountDownLatch release = new CountDownLatch(1);
+		List<Callable<Boolean>> first = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < 2; i++) {
+			first.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return release.await(10, TimeUnit.SECONDS);
+				}
+			});
+		}
+		FutureTask<List<Future<Boolean>>> firstTransfer = invokeAllOnThread(
+				executor, first);
+		waitFor(executor, 2, 0);
+
+		FutureTask<List<Future<Boolean>>> secondTransfer = invokeAllOnThread(
+				executor, latchedTasks(2, new CountDownLatch(2)));
+		waitFor(executor, 2, 1);
+		Assert.assertFalse("second transfer should wait",
+				secondTransfer.isDone());
+
+		release.countDown();
+		for (Future<Boolean> future : firstTransfer.get(10, TimeUnit.SECONDS)) {
+			Assert.assertTrue(future.get());
+		}
+		for (Future<Boolean> future : secondTransfer
+				.get(10, TimeUnit.SECONDS)) {
+			Assert.assertTrue(future.get());
+		}
+
+		ParallelTransferExecutorStatistics statistics = executor
+				.getStatistics();
+		Assert.assertEquals("wrong peak queue depth", 1,
+				statistics.getPeakWaitingTransfers());
+		Assert.assertEquals("queue should be empty", 0,
+				statistics.getWaitingTransfers());
+		Assert.assertEquals("wrong admitted count", 2,
+				statistics.getAdmittedTransfers());
+		Assert.assertEquals("limit exceeded", 2,
+				statistics.getPeakActiveThreads());
+	}
+
+	@Test
+	public void testTransferWithMoreThreadsThanLimitRuns() throws Exception {
+		ParallelTransferExecutor executor = new ParallelTransferExecutor(1);
+		List<Future<Boolean>> futures = executor.invokeAll(latchedTasks(3,
+				new CountDownLatch(3)));
+		for (Future<Boolean> future : futures) {
+			Assert.assertTrue("threads did not run together", future.get());
+		}
+	}
+
+	@Test
+	public void testFailedThreadReportedInFuture() throws Exception {
+		ParallelTransferExecutor executor = new ParallelTransferExecutor(2);
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		tasks.add(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				throw new IllegalStateException("failed");
+			}
+		});
+
+		Future<Boolean> future = executor.invokeAll(tasks).get(0);
+		try {
+			future.get();
+			Assert.fail("should have failed");
+		} catch (ExecutionException e) {
+			Assert.assertTrue("wrong cause",
+					e.getCause() instanceof IllegalStateException);
+		}
+		Assert.assertEquals("threads should be released", 0, executor
+				.getStatistics().getActiveThreads());
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void testShutdownRefusesWork() throws Exception {
+		ParallelTransferExecutor executor = new ParallelTransferExecutor(2);
+		executor.shutdown();
+		Assert.assertTrue("should be terminated", executor.awaitTermination(1,
+				TimeUnit.SECONDS));
+		executor.invokeAll(latchedTasks(1, new CountDownLatch(1)));
+	}
+
+	private List<Callable<Boolean>> latchedTasks(final int count,
+			final CountDownLatch latch) {
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < count; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					latch.countDown();
+					return latch.await(10, TimeUnit.SECONDS);
+				}
+			});
+		}
+		return tasks;
+	}
+
+	private FutureTask<List<Future<Boolean>>> invokeAllOnThread(
+			final ParallelTransferExecutor executor,
+			final List<Callable<Boolean>> tasks) {
+		FutureTask<List<Future<Boolean>>> transfer = new FutureTask<List<Future<Boolean>>>(
+				new Callable<List<Future<Boolean>>>() {
+					@Override
+					public List<Future<Boolean>> call() throws Exception {
+						return executor.invokeAll(tasks);
+					}
+				});
+		new Thread(transfer).start();
+		return transfer;
+	}
+
+	private void waitFor(final ParallelTransferExecutor executor,
+			final int activeThreads, final int waitingTransfers)
+			throws InterruptedException {
+		for (int i = 0; i < 1000; i++) {
+			ParallelTransferExecutorStatistics statistics = executor
+					.getStatistics();
+			if (statistics.getActiveThreads() == activeThreads
+					&& statistics.getWaitingTransfers() == waitingTransfers) {
+				return;
+			}
+			Thread.sleep(10);
+		}
+		Assert.fail("executor did not reach the expected state");
+	}
+
+}
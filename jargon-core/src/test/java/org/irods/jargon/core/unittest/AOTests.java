@@ -6,6 +6,7 @@ import org.irods.jargon.core.pub.CollectionAOImplTest;
 import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAOImplForSoftLinksTest;
 import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAOImplTest;
 import org.irods.jargon.core.pub.CollectionAuditAOImplTest;
+import org.irods.jargon.core.pub.BulkObjStatUtilsTest;
 import org.irods.jargon.core.pub.CollectionListingUtilsTest;
 import org.irods.jargon.core.pub.DataObjectAOImplForSoftLinkTest;
 import org.irods.jargon.core.pub.DataObjectAOImplTest;
@@ -28,6 +29,7 @@ import org.irods.jargon.core.pub.IRODSFileSystemTest;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutorImplBuilderQueriesTest;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutorImplTest;
 import org.irods.jargon.core.pub.IRODSRegistrationOfFilesAOImplTest;
+import org.irods.jargon.core.pub.ObjStatCacheTest;
 import org.irods.jargon.core.pub.MountedCollectionAOImplForMSSOTest;
 import org.irods.jargon.core.pub.MountedCollectionAOImplTest;
 import org.irods.jargon.core.pub.MountedFilesystemCollectionAOImplTest;
@@ -87,7 +89,8 @@ import org.junit.runners.Suite;
 		IRODSFileSystemSingletonWrapperTest.class, ResourceAOHelperTest.class,
 		DataObjectChecksumUtilitiesAOImplTest.class,
 		CollectionListingUtilsTest.class, FederatedDataObjectAOImplTest.class,
-		TrashOperationsTest.class })
+		TrashOperationsTest.class, ObjStatCacheTest.class,
+		BulkObjStatUtilsTest.class })
 /**
  * Suite to run Access Object tests in org.irods.jargon.pub.*
  * <p/>
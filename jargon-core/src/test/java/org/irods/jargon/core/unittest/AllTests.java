@@ -6,6 +6,8 @@ import org.irods.jargon.core.query.IRODSGenQueryTranslatorTest;
 import org.irods.jargon.core.query.TranslatedIRODSQueryTest;
 import org.irods.jargon.core.remoteexecute.RemoteExecuteServiceImplTest;
 import org.irods.jargon.core.security.IRODSPasswordUtilitiesTest;
+import org.irods.jargon.core.utils.ByteBufferPoolTest;
+import org.irods.jargon.core.utils.ChannelToolsTest;
 import org.irods.jargon.core.utils.IRODSUriUserInfoTest;
 import org.irods.jargon.core.utils.IRODSUriUtilsTest;
 import org.irods.jargon.core.utils.LocalFileUtilsTest;
@@ -21,7 +23,8 @@ import org.junit.runners.Suite;
 		LocalFileUtilsTest.class, RemoteExecuteServiceImplTest.class,
 		IRODSPasswordUtilitiesTest.class, IRODSUriUtilsTest.class,
 		IRODSUriUserInfoTest.class, MiscIRODSUtilsTest.class, AuthTests.class,
-		ChecksumTests.class, TransferRestartTests.class, IrodsVersionTest.class })
+		ChecksumTests.class, TransferRestartTests.class, IrodsVersionTest.class,
+		ByteBufferPoolTest.class, ChannelToolsTest.class })
 /**
  * Suite to run all tests (except long running and functional), further refined by settings in testing.properites.  Some subtests may be shut
  * off by these properties.
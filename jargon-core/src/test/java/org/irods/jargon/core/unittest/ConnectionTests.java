@@ -5,11 +5,17 @@ import org.irods.jargon.core.connection.DefaultPropertiesJargonConfigTest;
 import org.irods.jargon.core.connection.DiscoveredServerPropertiesCacheTest;
 import org.irods.jargon.core.connection.EnvironmentalInfoAccessorTest;
 import org.irods.jargon.core.connection.IRODSAccountTest;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocolPipelinedTest;
+import org.irods.jargon.core.connection.IRODSNIOTCPConnectionTest;
+import org.irods.jargon.core.connection.IRODSPoolingProtocolManagerTest;
 import org.irods.jargon.core.connection.IRODSServerPropertiesTest;
 import org.irods.jargon.core.connection.IRODSSessionTest;
 import org.irods.jargon.core.connection.IRODSSimpleConnectionTest;
 import org.irods.jargon.core.connection.IRODSSimpleProtocolManagerTest;
 import org.irods.jargon.core.connection.PAMAuthTest;
+import org.irods.jargon.core.metrics.LatencyHistogramTest;
+import org.irods.jargon.core.metrics.Slf4jJargonMetricsTest;
+import org.irods.jargon.testutils.server.IRODSStandInServerTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -20,7 +26,11 @@ import org.junit.runners.Suite;
 	IRODSServerPropertiesTest.class,
 	DefaultPropertiesJargonConfigTest.class,
 	ConnectionProgressStatusTest.class, PAMAuthTest.class,
-	DiscoveredServerPropertiesCacheTest.class, IRODSAccountTest.class })
+	DiscoveredServerPropertiesCacheTest.class, IRODSAccountTest.class,
+	IRODSPoolingProtocolManagerTest.class,
+	IRODSMidLevelProtocolPipelinedTest.class,
+	IRODSNIOTCPConnectionTest.class, IRODSStandInServerTest.class,
+	LatencyHistogramTest.class, Slf4jJargonMetricsTest.class })
 public class ConnectionTests {
 
 }
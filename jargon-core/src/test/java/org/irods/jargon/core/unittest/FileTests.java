@@ -18,7 +18,9 @@ import org.irods.jargon.core.pub.io.MountedFileSystemIRODSFileInputStreamTest;
 import org.irods.jargon.core.pub.io.MountedFilesystemIRODSFileImplTest;
 import org.irods.jargon.core.pub.io.MountedFilesystemIRODSFileOutputStreamTest;
 import org.irods.jargon.core.pub.io.PackingIrodsInputStreamTest;
+import org.irods.jargon.core.pub.io.ReadAheadIrodsInputStreamTest;
 import org.irods.jargon.core.pub.io.PackingIrodsOutputStreamTest;
+import org.irods.jargon.core.pub.io.RandomAccessFilePageCacheTest;
 import org.irods.jargon.core.pub.io.RemoteExecutionBinaryResultInputStreamTest;
 import org.irods.jargon.core.pub.io.SessionClosingIRODSFIleInputStreamTest;
 import org.irods.jargon.core.pub.io.SessionClosingIRODSFileOutputStreamTest;
@@ -29,7 +31,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({ IRODSFileFactoryImplTest.class, IRODSFileImplTest.class,
 	IRODSFileSystemAOImplTest.class, IRODSFileOutputStreamTest.class,
 	IRODSFileInputStreamTest.class, FileIOOperationsAOImplTest.class,
-	IRODSRandomAccessFileTest.class, IRODSFileWriterTest.class,
+	IRODSRandomAccessFileTest.class, RandomAccessFilePageCacheTest.class,
+	IRODSFileWriterTest.class,
 	IRODSFileReaderTest.class,
 	SessionClosingIRODSFIleInputStreamTest.class,
 	SessionClosingIRODSFileOutputStreamTest.class,
@@ -41,7 +44,8 @@ import org.junit.runners.Suite;
 	MountedFilesystemIRODSFileImplTest.class,
 	MountedFileSystemIRODSFileInputStreamTest.class,
 	MountedFilesystemIRODSFileOutputStreamTest.class,
-	PackingIrodsOutputStreamTest.class, PackingIrodsInputStreamTest.class })
+	PackingIrodsOutputStreamTest.class, PackingIrodsInputStreamTest.class,
+	ReadAheadIrodsInputStreamTest.class })
 public class FileTests {
 
 }
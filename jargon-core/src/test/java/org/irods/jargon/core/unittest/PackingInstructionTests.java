@@ -21,6 +21,7 @@ import org.irods.jargon.core.packinstr.GetTempPasswordInTest;
 import org.irods.jargon.core.packinstr.ModAccessControlInpTest;
 import org.irods.jargon.core.packinstr.ModAvuMetadataInpTest;
 import org.irods.jargon.core.packinstr.OpenedDataObjInpTest;
+import org.irods.jargon.core.packinstr.PackingInstructionWriterTest;
 import org.irods.jargon.core.packinstr.PamAuthRequestInpTest;
 import org.irods.jargon.core.packinstr.ReconnMsgTest;
 import org.irods.jargon.core.packinstr.SSLEndInpTest;
@@ -28,6 +29,7 @@ import org.irods.jargon.core.packinstr.SSLStartInpTest;
 import org.irods.jargon.core.packinstr.SimpleQueryInpTest;
 import org.irods.jargon.core.packinstr.SpecificQueryInpTest;
 import org.irods.jargon.core.packinstr.StructFileExtAndRegInpTest;
+import org.irods.jargon.core.packinstr.TagReaderTest;
 import org.irods.jargon.core.packinstr.TransferOptionsTest;
 import org.irods.jargon.core.packinstr.UserAdminInpTest;
 import org.junit.runner.RunWith;
@@ -48,7 +50,8 @@ import org.junit.runners.Suite;
 	DataObjInpForMcollTest.class, DataObjInpForUnmountTest.class,
 	ReconnMsgTest.class, SpecificQueryInpTest.class,
 	PamAuthRequestInpTest.class, SSLStartInpTest.class,
-	SSLEndInpTest.class, AuthReqPluginRequestInpTest.class })
+	SSLEndInpTest.class, AuthReqPluginRequestInpTest.class,
+	TagReaderTest.class, PackingInstructionWriterTest.class })
 public class PackingInstructionTests {
 
 }
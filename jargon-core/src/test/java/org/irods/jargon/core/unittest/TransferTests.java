@@ -1,13 +1,17 @@
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.transfer.AdaptiveTransferTunerTest;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlockTest;
+import org.irods.jargon.core.transfer.MappedLocalFileTest;
+import org.irods.jargon.core.transfer.ParallelTransferExecutorTest;
 import org.irods.jargon.core.transfer.TransferStatusTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TransferStatusTest.class,
-	DefaultTransferControlBlockTest.class })
+	DefaultTransferControlBlockTest.class, MappedLocalFileTest.class,
+	AdaptiveTransferTunerTest.class, ParallelTransferExecutorTest.class })
 public class TransferTests {
 
 }
@@ -12,6 +12,7 @@ import org.irods.jargon.core.connection.SettableJargonProperties;
 import org.irods.jargon.core.protovalues.UserTypeEnum;
 import org.irods.jargon.core.pub.CollectionAO;
 import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListingIterator;
 import org.irods.jargon.core.pub.DataObjectAO;
 import org.irods.jargon.core.pub.DataTransferOperations;
 import org.irods.jargon.core.pub.IRODSFileSystem;
@@ -193,6 +194,56 @@ public class IRODSThousandFilesTest {
 		Assert.assertFalse("did not get results", metadataElements.isEmpty());
 	}
 
+	@Test
+	public void testIterateFilesAndCollectionsUnderPathAcrossPages()
+			throws Exception {
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		SettableJargonProperties props = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		props.setMaxFilesAndDirsQueryMax(150);
+		irodsFileSystem.getIrodsSession().setJargonProperties(props);
+
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH + "/"
+								+ collDir);
+
+		CollectionAndDataObjectListAndSearchAO actual = irodsFileSystem
+				.getIRODSAccessObjectFactory()
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		CollectionAndDataObjectListingIterator entries = actual
+				.iterateDataObjectsAndCollectionsUnderPath(targetIrodsCollection);
+
+		int count = 0;
+		try {
+			while (entries.hasNext()) {
+				CollectionAndDataObjectListingEntry entry = entries.next();
+				Assert.assertTrue("should be a data object",
+						entry.isDataObject());
+				count++;
+				Assert.assertEquals("count should run across pages", count,
+						entry.getCount());
+			}
+		} finally {
+			entries.close();
+		}
+
+		Assert.assertEquals("did not list every file", 1000, count);
+
+		// stop early, the query should be closed and the connection usable
+		entries = actual
+				.iterateDataObjectsAndCollectionsUnderPath(targetIrodsCollection);
+		entries.next();
+		entries.close();
+		Assert.assertFalse("closed iterator has no entries", entries.hasNext());
+		Assert.assertFalse("connection not usable after close", actual
+				.listDataObjectsAndCollectionsUnderPath(targetIrodsCollection)
+				.isEmpty());
+	}
+
 	@Test
 	public void testListFilesAndCollectionsUnderPathWithAccessInfoViaGenQuery()
 			throws Exception {
@@ -0,0 +1,53 @@
+package org.irods.jargon.core.utils;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class ByteBufferPoolTest {
+
+	@Test
+	public void testReleasedBufferIsReused() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(2);
+		ByteBuffer buffer = pool.acquire(1024);
+		Assert.assertTrue("should be direct", buffer.isDirect());
+		buffer.put((byte) 1);
+		pool.release(buffer);
+		Assert.assertEquals("wrong idle count", 1, pool.getIdleCount());
+
+		ByteBuffer reused = pool.acquire(1024);
+		Assert.assertSame("buffer not reused", buffer, reused);
+		Assert.assertEquals("reused buffer not cleared", 0, reused.position());
+		Assert.assertEquals("wrong idle count", 0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testBufferOfOtherSizeNotReused() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(2);
+		ByteBuffer buffer = pool.acquire(1024);
+		pool.release(buffer);
+		ByteBuffer other = pool.acquire(2048);
+		Assert.assertNotSame("wrong size reused", buffer, other);
+		Assert.assertEquals("wrong capacity", 2048, other.capacity());
+	}
+
+	@Test
+	public void testIdleLimit() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(1);
+		ByteBuffer first = pool.acquire(16);
+		ByteBuffer second = pool.acquire(16);
+		pool.release(first);
+		pool.release(second);
+		Assert.assertEquals("idle limit not kept", 1, pool.getIdleCount());
+	}
+
+	@Test
+	public void testZeroIdleNeverPools() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(0);
+		pool.release(pool.acquire(16));
+		Assert.assertEquals("should not pool", 0, pool.getIdleCount());
+	}
+
+}
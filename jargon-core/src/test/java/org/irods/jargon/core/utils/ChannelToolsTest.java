@@ -0,0 +1,73 @@
+package org.irods.jargon.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class ChannelToolsTest {
+
+	private static final int LENGTH = 100000;
+
+	@Test
+	public void testFastChannelCopyWithSmallBuffer() throws Exception {
+		byte[] source = sourceBytes();
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		long count = ChannelTools.fastChannelCopy(
+				Channels.newChannel(new ByteArrayInputStream(source)),
+				Channels.newChannel(target), ByteBuffer.allocateDirect(333));
+		Assert.assertEquals("wrong count", LENGTH, count);
+		Assert.assertTrue("wrong bytes",
+				Arrays.equals(source, target.toByteArray()));
+	}
+
+	@Test
+	public void testTransferToAndFromFileChannel() throws Exception {
+		byte[] source = sourceBytes();
+		File file = File.createTempFile("ChannelToolsTest", ".dat");
+		file.deleteOnExit();
+
+		FileOutputStream fileOutputStream = new FileOutputStream(file);
+		long written;
+		try {
+			written = ChannelTools.transferToFileChannel(
+					Channels.newChannel(new ByteArrayInputStream(source)),
+					fileOutputStream.getChannel(), 4096);
+		} finally {
+			fileOutputStream.close();
+		}
+		Assert.assertEquals("wrong count written", LENGTH, written);
+		Assert.assertEquals("wrong file length", LENGTH, file.length());
+
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		long read;
+		try {
+			read = ChannelTools.transferFromFileChannel(
+					randomAccessFile.getChannel(),
+					Channels.newChannel(target), 4096);
+		} finally {
+			randomAccessFile.close();
+		}
+		Assert.assertEquals("wrong count read", LENGTH, read);
+		Assert.assertTrue("wrong bytes",
+				Arrays.equals(source, target.toByteArray()));
+	}
+
+	private byte[] sourceBytes() {
+		byte[] source = new byte[LENGTH];
+		for (int i = 0; i < source.length; i++) {
+			source[i] = (byte) (i * 31);
+		}
+		return source;
+	}
+
+}
@@ -0,0 +1,210 @@
+package org.irods.jargon.testutils.server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.exception.AuthenticationException;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the {@link IRODSStandInServer} with the standard jargon access
+ * objects
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSStandInServerTest {
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private IRODSAccessObjectFactory accessObjectFactory;
+	private String home;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("test1", "test1pw");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = server.buildIRODSAccount("test1");
+		accessObjectFactory = irodsFileSystem.getIRODSAccessObjectFactory();
+		home = irodsAccount.getHomeDirectory();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testConnectAndGetServerProperties() throws Exception {
+		IRODSServerProperties properties = accessObjectFactory
+				.getIRODSServerProperties(irodsAccount);
+		Assert.assertEquals("wrong zone", IRODSStandInServer.DEFAULT_ZONE,
+				properties.getRodsZone());
+		Assert.assertTrue("should be 4.1 or later", properties
+				.isTheIrodsServerAtLeastAtTheGivenReleaseVersion("rods4.1.0"));
+		Assert.assertTrue("no api requests counted",
+				server.getApiRequestCount() > 0);
+	}
+
+	@Test(expected = AuthenticationException.class)
+	public void testConnectBadPassword() throws Exception {
+		IRODSAccount badAccount = IRODSAccount.instance(server.getHost(),
+				server.getPort(), "test1", "wrong", home,
+				IRODSStandInServer.DEFAULT_ZONE,
+				IRODSStandInServer.DEFAULT_RESOURCE);
+		accessObjectFactory.getIRODSServerProperties(badAccount);
+	}
+
+	@Test
+	public void testMkdirsAndList() throws Exception {
+		IRODSFileFactory irodsFileFactory = accessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile collection = irodsFileFactory.instanceIRODSFile(home
+				+ "/testMkdirsAndList/a/b");
+		Assert.assertTrue("mkdirs failed", collection.mkdirs());
+		Assert.assertTrue("not a collection", collection.isDirectory());
+		server.getCatalog().putDataObject(
+				home + "/testMkdirsAndList/file.txt", "test1",
+				"hello".getBytes("UTF-8"));
+
+		CollectionAndDataObjectListAndSearchAO listAO = accessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		List<CollectionAndDataObjectListingEntry> entries = listAO
+				.listDataObjectsAndCollectionsUnderPath(home
+						+ "/testMkdirsAndList");
+
+		Assert.assertEquals("wrong entry count", 2, entries.size());
+		Assert.assertEquals("collection should come first", home
+				+ "/testMkdirsAndList/a", entries.get(0).getFormattedAbsolutePath());
+		Assert.assertEquals("wrong data object", "file.txt", entries.get(1)
+				.getPathOrName());
+		Assert.assertEquals("wrong data object size", 5, entries.get(1)
+				.getDataSize());
+	}
+
+	@Test
+	public void testPutAndGetSmallFile() throws Exception {
+		putAndGet("testPutAndGetSmallFile.dat", 300 * 1024);
+	}
+
+	@Test
+	public void testPutAndGetEmptyFile() throws Exception {
+		putAndGet("testPutAndGetEmptyFile.dat", 0);
+	}
+
+	@Test
+	public void testPutAndGetParallel() throws Exception {
+		putAndGet("testPutAndGetParallel.dat", 40 * 1024 * 1024 + 17);
+	}
+
+	@Test
+	public void testPutAndGetLargeFileNoThreads() throws Exception {
+		server.setMaxParallelThreads(0);
+		putAndGet("testPutAndGetLargeFileNoThreads.dat", 33 * 1024 * 1024 + 5);
+	}
+
+	@Test
+	public void testAddAndFindAVU() throws Exception {
+		String path = home + "/testAddAndFindAVU.txt";
+		server.getCatalog().putDataObject(path, "test1",
+				"avu".getBytes("UTF-8"));
+
+		DataObjectAO dataObjectAO = accessObjectFactory
+				.getDataObjectAO(irodsAccount);
+		dataObjectAO.addAVUMetadata(path,
+				AvuData.instance("attr1", "value1", "unit1"));
+		dataObjectAO.addAVUMetadata(path,
+				AvuData.instance("attr2", "value2", ""));
+
+		List<MetaDataAndDomainData> metadata = dataObjectAO
+				.findMetadataValuesForDataObject(path);
+		Assert.assertEquals("wrong AVU count", 2, metadata.size());
+		Assert.assertEquals("wrong attribute", "attr1", metadata.get(0)
+				.getAvuAttribute());
+		Assert.assertEquals("wrong unit", "unit1", metadata.get(0)
+				.getAvuUnit());
+	}
+
+	@Test
+	public void testReadWithStream() throws Exception {
+		String path = home + "/testReadWithStream.dat";
+		byte[] content = randomBytes(100 * 1024 + 3);
+		server.getCatalog().putDataObject(path, "test1", content);
+
+		InputStream inputStream = accessObjectFactory.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFileInputStream(path);
+		byte[] read = IOUtils.toByteArray(inputStream);
+		inputStream.close();
+
+		Assert.assertTrue("stream read wrong bytes",
+				Arrays.equals(content, read));
+	}
+
+	private void putAndGet(final String name, final int length)
+			throws Exception {
+		File localFile = File.createTempFile("standin", ".dat");
+		File returnedFile = new File(localFile.getAbsolutePath() + ".back");
+		localFile.deleteOnExit();
+		returnedFile.deleteOnExit();
+		byte[] content = randomBytes(length);
+		FileOutputStream outputStream = new FileOutputStream(localFile);
+		outputStream.write(content);
+		outputStream.close();
+
+		try {
+			IRODSFile irodsFile = accessObjectFactory.getIRODSFileFactory(
+					irodsAccount).instanceIRODSFile(home + "/" + name);
+			DataTransferOperations dataTransferOperations = accessObjectFactory
+					.getDataTransferOperations(irodsAccount);
+			dataTransferOperations.putOperation(localFile, irodsFile, null,
+					null);
+
+			Assert.assertTrue("put content differs", Arrays.equals(content,
+					server.getCatalog().getDataObjectContent(home + "/" + name)));
+
+			dataTransferOperations.getOperation(irodsFile, returnedFile, null,
+					null);
+			FileInputStream inputStream = new FileInputStream(returnedFile);
+			byte[] returned = IOUtils.toByteArray(inputStream);
+			inputStream.close();
+			Assert.assertTrue("get content differs",
+					Arrays.equals(content, returned));
+		} finally {
+			localFile.delete();
+			returnedFile.delete();
+		}
+	}
+
+	private static byte[] randomBytes(final int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+}
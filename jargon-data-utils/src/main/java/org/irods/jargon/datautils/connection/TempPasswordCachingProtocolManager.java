@@ -1,15 +1,13 @@
 package org.irods.jargon.datautils.connection;
 
-import org.apache.commons.pool.impl.GenericObjectPool;
-import org.apache.commons.pool.impl.GenericObjectPool.Config;
 import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSPoolingProtocolManager;
 import org.irods.jargon.core.connection.IRODSProtocolManager;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,18 +15,22 @@ import org.slf4j.LoggerFactory;
  * Special variant of the {@link IRODSProtocolMangaer} that caches a temporary
  * password and only returns that one connection. This effectively shares that
  * single connection.
+ * <p/>
+ * This is an {@link IRODSPoolingProtocolManager} limited to one connection,
+ * which callers wait for in turn. The connection is never evicted for being
+ * idle, and never renewed for its age, as the temporary password it was made
+ * with cannot be used again.
  * 
  * @author Mike Conway - DICE (www.irods.org)
  * 
  */
-public class TempPasswordCachingProtocolManager extends IRODSProtocolManager {
+public class TempPasswordCachingProtocolManager extends
+		IRODSPoolingProtocolManager {
 
 	private final IRODSAccount irodsAccount;
 	private final IRODSSession irodsSession;
 	private final IRODSProtocolManager baseProtocolManager;
 
-	private GenericObjectPool objectPool = null;
-
 	private final Logger log = LoggerFactory
 			.getLogger(TempPasswordCachingProtocolManager.class);
 
@@ -70,79 +72,52 @@ public class TempPasswordCachingProtocolManager extends IRODSProtocolManager {
 		this.irodsSession = irodsSession;
 		this.baseProtocolManager = baseProtocolManager;
 
+		log.info("caching iRODS account:{}", irodsAccount);
+		setMaxActivePerAccount(1);
+		setMaxIdlePerAccount(1);
+		setMaxWaitInMillis(-1);
+		setMaxIdleTimeInSeconds(0);
+		setEvictionIntervalInSeconds(0);
+
 		initialize();
 
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.irods.jargon.core.connection.AbstractIRODSProtocolManager#
-	 * getIRODSProtocol(org.irods.jargon.core.connection.IRODSAccount,
-	 * org.irods.jargon.core.connection.PipelineConfiguration)
+	/**
+	 * Borrow the single cached connection, waiting for it if another caller
+	 * holds it. The given account is ignored in favor of the cached one.
 	 */
 	@Override
 	public IRODSMidLevelProtocol getIRODSProtocol(
 			final IRODSAccount irodsAccount,
 			final PipelineConfiguration pipelineConfiguration,
 			final IRODSSession irodsSession) throws JargonException {
-		try {
-			IRODSMidLevelProtocol command = (IRODSMidLevelProtocol) objectPool
-					.borrowObject();
-
-			command.setIrodsProtocolManager(this);
-			return command;
-		} catch (Exception e) {
-			throw new JargonException(e);
-		}
+		return (IRODSMidLevelProtocol) super.getIRODSProtocol(
+				this.irodsAccount, pipelineConfiguration, irodsSession);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see
-	 * org.irods.jargon.core.connection.AbstractIRODSProtocolManager#destroy()
+	/**
+	 * The connection is obtained from the base protocol manager with the
+	 * cached account
 	 */
 	@Override
-	public void destroy() throws JargonException {
-		log.info("destroy");
-		try {
-			objectPool.clear();
-			objectPool.close();
-		} catch (Exception e) {
-			log.error("exception calling close, which closes objectPool", e);
-			throw new JargonException(e);
-		}
+	protected AbstractIRODSMidLevelProtocol createNewProtocol(
+			final IRODSAccount irodsAccount,
+			final PipelineConfiguration pipelineConfiguration,
+			final IRODSSession irodsSession) throws JargonException {
+		log.info("creating the cached iRODS connection");
+		return baseProtocolManager.getIRODSProtocol(this.irodsAccount,
+				pipelineConfiguration, this.irodsSession);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see
-	 * org.irods.jargon.core.connection.AbstractIRODSProtocolManager#initialize
-	 * ()
+	/**
+	 * The cached connection is kept whatever the socket renewal interval, a
+	 * new one could not authenticate with the spent temporary password
 	 */
 	@Override
-	public void initialize() throws JargonException {
-		log.info("initialize()");
-
-		if (irodsAccount == null) {
-			throw new JargonRuntimeException(
-					"null irodsAccount, initialize cannot be called");
-		}
-
-		log.info("creating factory for conns");
-		ConnectionCreatingPoolableObjectFactory factory = new ConnectionCreatingPoolableObjectFactory(
-				irodsAccount, irodsSession, baseProtocolManager);
-		log.info("factory created, setting up config and creating pool");
-		GenericObjectPool.Config config = new Config();
-		config.maxActive = 1;
-		config.maxIdle = 1;
-		config.whenExhaustedAction = GenericObjectPool.WHEN_EXHAUSTED_BLOCK;
-
-		objectPool = new GenericObjectPool(factory, config);
-		log.info("pool initialized");
-
+	protected boolean isExpired(final AbstractIRODSMidLevelProtocol protocol,
+			final int socketRenewalIntervalInSeconds) {
+		return false;
 	}
 
 	/**
@@ -152,23 +127,4 @@ public class TempPasswordCachingProtocolManager extends IRODSProtocolManager {
 		return irodsAccount;
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see
-	 * org.irods.jargon.core.connection.IRODSProtocolManager#returnIRODSProtocol
-	 * (org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol)
-	 */
-	@Override
-	public void returnIRODSProtocol(
-			final AbstractIRODSMidLevelProtocol abstractIRODSMidLevelProtocol)
-			throws JargonException {
-		try {
-			objectPool.returnObject(abstractIRODSMidLevelProtocol);
-		} catch (Exception e) {
-			log.error("error returning connection", e);
-			throw new JargonException("error returning connection to pool", e);
-		}
-	}
-
 }
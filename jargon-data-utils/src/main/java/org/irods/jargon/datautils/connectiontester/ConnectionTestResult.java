@@ -28,6 +28,15 @@ public class ConnectionTestResult {
 	 * A list of results by test type requested
 	 */
 	private List<TestResultEntry> testResults = new ArrayList<TestResultEntry>();
+	/**
+	 * A list of results by workload, for a load test
+	 */
+	private List<LoadTestResultEntry> loadTestResults = new ArrayList<LoadTestResultEntry>();
+	/**
+	 * Total number of milliseconds a load test ran, from the start of the
+	 * first client to the end of the last
+	 */
+	private long loadTestMilliseconds = 0L;
 
 	/**
 	 * 
@@ -80,6 +89,36 @@ public class ConnectionTestResult {
 		this.testResults = testResults;
 	}
 
+	/**
+	 * @return the loadTestResults
+	 */
+	public List<LoadTestResultEntry> getLoadTestResults() {
+		return loadTestResults;
+	}
+
+	/**
+	 * @param loadTestResults
+	 *            the loadTestResults to set
+	 */
+	public void setLoadTestResults(List<LoadTestResultEntry> loadTestResults) {
+		this.loadTestResults = loadTestResults;
+	}
+
+	/**
+	 * @return the loadTestMilliseconds
+	 */
+	public long getLoadTestMilliseconds() {
+		return loadTestMilliseconds;
+	}
+
+	/**
+	 * @param loadTestMilliseconds
+	 *            the loadTestMilliseconds to set
+	 */
+	public void setLoadTestMilliseconds(long loadTestMilliseconds) {
+		this.loadTestMilliseconds = loadTestMilliseconds;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -105,6 +144,12 @@ public class ConnectionTestResult {
 			builder.append(testResults.subList(0,
 					Math.min(testResults.size(), maxLen)));
 		}
+		if (loadTestResults != null && !loadTestResults.isEmpty()) {
+			builder.append(", loadTestResults=");
+			builder.append(loadTestResults);
+			builder.append(", loadTestMilliseconds=");
+			builder.append(loadTestMilliseconds);
+		}
 		builder.append("]");
 		return builder.toString();
 	}
@@ -8,6 +8,10 @@ import org.irods.jargon.core.exception.JargonException;
  * Interface for a service to run connection tests, essentially doing a
  * configurable set of gets and puts of different sizes to see how fast and how
  * successful they are.
+ * <p/>
+ * {@link #runLoadTest()} instead generates load, with a number of concurrent
+ * clients each running a weighted mix of {@link WorkloadType} operations for
+ * a set time, and reports latency percentiles and throughput per workload.
  * 
  * @author Mike Conway - DICE
  *
@@ -17,8 +21,49 @@ public interface ConnectionTester {
 	public abstract ConnectionTestResult runTests(final List<TestType> testTypes)
 			throws JargonException;
 
+	/**
+	 * Run a load test as described by the
+	 * {@link ConnectionTesterConfiguration}: the configured number of
+	 * clients, each on its own thread and connection, started evenly over the
+	 * ramp up time, each choosing operations at random by the workload
+	 * weights until the duration has passed or it has done its number of
+	 * operations.
+	 * 
+	 * @return {@link ConnectionTestResult} with a {@link LoadTestResultEntry}
+	 *         per workload that was run
+	 * @throws JargonException
+	 *             if the test could not be set up, failures of individual
+	 *             operations, and of clients that could not connect, are
+	 *             counted in the results
+	 */
+	public abstract ConnectionTestResult runLoadTest() throws JargonException;
+
 	public enum TestType {
 		SMALL, MEDIUM, LARGE, EXTRA_LARGE
 	}
 
+	/**
+	 * Operations that make up a load test
+	 */
+	public enum WorkloadType {
+		/**
+		 * Put of a new small file, the size is
+		 * <code>smallFileLength</code> in the configuration
+		 */
+		SMALL_FILE_STORM,
+		/**
+		 * Listing of the collection the client puts its files in
+		 */
+		LISTING,
+		/**
+		 * Query of the AVU metadata of a data object
+		 */
+		METADATA_QUERY,
+		/**
+		 * Put and then get of a file of <code>largeFileLength</code>, large
+		 * enough for a parallel transfer by default
+		 */
+		LARGE_PARALLEL_TRANSFER
+	}
+
 }
\ No newline at end of file
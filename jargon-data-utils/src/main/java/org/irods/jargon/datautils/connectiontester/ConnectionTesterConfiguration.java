@@ -3,6 +3,11 @@
  */
 package org.irods.jargon.datautils.connectiontester;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
+
 /**
  * 
  * configuration for the connection tester specifying details for the test
@@ -29,10 +34,56 @@ public class ConnectionTesterConfiguration {
 	 */
 	private boolean cleanupOnCompletion = true;
 
+	/**
+	 * Number of clients, each with its own thread and connection, in a load
+	 * test
+	 */
+	private int concurrentClients = 1;
+
+	/**
+	 * Seconds over which the clients of a load test are started, evenly
+	 * spaced, 0 to start them all at once
+	 */
+	private int rampUpSeconds = 0;
+
+	/**
+	 * Seconds a load test runs for, from the start of the first client
+	 */
+	private int durationSeconds = 60;
+
+	/**
+	 * Operations each load test client does before it stops, 0 to run for
+	 * the whole duration
+	 */
+	private int operationsPerClient = 0;
+
+	/**
+	 * Length of the files put by the small file storm workload
+	 */
+	private long smallFileLength = 32 * 1024;
+
+	/**
+	 * Length of the file put and gotten by the large parallel transfer
+	 * workload, by default over the 32MB above which iRODS uses parallel
+	 * transfer
+	 */
+	private long largeFileLength = 40 * 1024 * 1024;
+
+	/**
+	 * Relative weight of each workload in a load test, a workload with no
+	 * weight, or weight 0, is not run
+	 */
+	private Map<WorkloadType, Integer> workloadWeights = new EnumMap<WorkloadType, Integer>(
+			WorkloadType.class);
+
 	/**
 	 * 
 	 */
 	public ConnectionTesterConfiguration() {
+		workloadWeights.put(WorkloadType.SMALL_FILE_STORM, 6);
+		workloadWeights.put(WorkloadType.LISTING, 2);
+		workloadWeights.put(WorkloadType.METADATA_QUERY, 2);
+		workloadWeights.put(WorkloadType.LARGE_PARALLEL_TRANSFER, 0);
 	}
 
 	/**
@@ -80,6 +131,123 @@ public class ConnectionTesterConfiguration {
 		this.cleanupOnCompletion = cleanupOnCompletion;
 	}
 
+	/**
+	 * @return the concurrentClients
+	 */
+	public int getConcurrentClients() {
+		return concurrentClients;
+	}
+
+	/**
+	 * @param concurrentClients
+	 *            the concurrentClients to set
+	 */
+	public void setConcurrentClients(int concurrentClients) {
+		this.concurrentClients = concurrentClients;
+	}
+
+	/**
+	 * @return the rampUpSeconds
+	 */
+	public int getRampUpSeconds() {
+		return rampUpSeconds;
+	}
+
+	/**
+	 * @param rampUpSeconds
+	 *            the rampUpSeconds to set
+	 */
+	public void setRampUpSeconds(int rampUpSeconds) {
+		this.rampUpSeconds = rampUpSeconds;
+	}
+
+	/**
+	 * @return the durationSeconds
+	 */
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * @param durationSeconds
+	 *            the durationSeconds to set
+	 */
+	public void setDurationSeconds(int durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	/**
+	 * @return the operationsPerClient
+	 */
+	public int getOperationsPerClient() {
+		return operationsPerClient;
+	}
+
+	/**
+	 * @param operationsPerClient
+	 *            the operationsPerClient to set
+	 */
+	public void setOperationsPerClient(int operationsPerClient) {
+		this.operationsPerClient = operationsPerClient;
+	}
+
+	/**
+	 * @return the smallFileLength
+	 */
+	public long getSmallFileLength() {
+		return smallFileLength;
+	}
+
+	/**
+	 * @param smallFileLength
+	 *            the smallFileLength to set
+	 */
+	public void setSmallFileLength(long smallFileLength) {
+		this.smallFileLength = smallFileLength;
+	}
+
+	/**
+	 * @return the largeFileLength
+	 */
+	public long getLargeFileLength() {
+		return largeFileLength;
+	}
+
+	/**
+	 * @param largeFileLength
+	 *            the largeFileLength to set
+	 */
+	public void setLargeFileLength(long largeFileLength) {
+		this.largeFileLength = largeFileLength;
+	}
+
+	/**
+	 * @return the workloadWeights
+	 */
+	public Map<WorkloadType, Integer> getWorkloadWeights() {
+		return workloadWeights;
+	}
+
+	/**
+	 * @param workloadWeights
+	 *            the workloadWeights to set
+	 */
+	public void setWorkloadWeights(Map<WorkloadType, Integer> workloadWeights) {
+		this.workloadWeights = workloadWeights;
+	}
+
+	/**
+	 * Set the weight of one workload, leaving the others
+	 * 
+	 * @param workloadType
+	 *            {@link WorkloadType} to weight
+	 * @param weight
+	 *            <code>int</code> with the relative weight, 0 to not run it
+	 */
+	public void setWorkloadWeight(WorkloadType workloadType, int weight) {
+		workloadWeights.put(workloadType, weight);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -101,6 +269,22 @@ public class ConnectionTesterConfiguration {
 		}
 		builder.append("cleanupOnCompletion=");
 		builder.append(cleanupOnCompletion);
+		builder.append(", concurrentClients=");
+		builder.append(concurrentClients);
+		builder.append(", rampUpSeconds=");
+		builder.append(rampUpSeconds);
+		builder.append(", durationSeconds=");
+		builder.append(durationSeconds);
+		builder.append(", operationsPerClient=");
+		builder.append(operationsPerClient);
+		builder.append(", smallFileLength=");
+		builder.append(smallFileLength);
+		builder.append(", largeFileLength=");
+		builder.append(largeFileLength);
+		if (workloadWeights != null) {
+			builder.append(", workloadWeights=");
+			builder.append(workloadWeights);
+		}
 		builder.append("]");
 		return builder.toString();
 	}
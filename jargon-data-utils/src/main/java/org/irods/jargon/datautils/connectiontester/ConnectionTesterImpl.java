@@ -10,8 +10,15 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
@@ -19,6 +26,7 @@ import org.irods.jargon.core.pub.DataTransferOperations;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.service.AbstractJargonService;
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
 import org.irods.jargon.datautils.connectiontester.TestResultEntry.OperationType;
 import org.irods.jargon.testutils.TestingUtilsException;
 import org.slf4j.Logger;
@@ -90,6 +98,178 @@ public class ConnectionTesterImpl extends AbstractJargonService implements
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.datautils.connectiontester.ConnectionTester#runLoadTest()
+	 */
+	@Override
+	public ConnectionTestResult runLoadTest() throws JargonException {
+
+		log.info("runLoadTest()");
+		log.info("using configuration:{}", connectionTesterConfiguration);
+		validateLoadTestConfiguration();
+
+		ConnectionTestResult testResult = new ConnectionTestResult();
+		testResult.setConfiguration(connectionTesterConfiguration);
+		testResult.setIrodsAccount(getIrodsAccount());
+
+		int clients = connectionTesterConfiguration.getConcurrentClients();
+		File smallSourceFile = new File(
+				connectionTesterConfiguration.getLocalSourceParentDirectory(),
+				"loadTestSmall.dat");
+		File largeSourceFile = new File(
+				connectionTesterConfiguration.getLocalSourceParentDirectory(),
+				"loadTestLarge.dat");
+		ExecutorService executorService = Executors
+				.newFixedThreadPool(clients);
+
+		try {
+			// the storm and the metadata query fixture both put the small file
+			generateFileOfFixedLengthGivenName(
+					smallSourceFile.getParent(), smallSourceFile.getName(),
+					connectionTesterConfiguration.getSmallFileLength());
+			if (weightOf(WorkloadType.LARGE_PARALLEL_TRANSFER) > 0) {
+				generateFileOfFixedLengthGivenName(
+						largeSourceFile.getParent(), largeSourceFile.getName(),
+						connectionTesterConfiguration.getLargeFileLength());
+			}
+
+			long startTime = System.currentTimeMillis();
+			long deadlineNanos = System.nanoTime()
+					+ TimeUnit.SECONDS.toNanos(connectionTesterConfiguration
+							.getDurationSeconds());
+			long rampUpMillis = TimeUnit.SECONDS
+					.toMillis(connectionTesterConfiguration.getRampUpSeconds());
+
+			List<Future<Map<WorkloadType, WorkloadStatistics>>> futures = new ArrayList<Future<Map<WorkloadType, WorkloadStatistics>>>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(executorService.submit(new LoadTestClient(i,
+						getIrodsAccessObjectFactory(), getIrodsAccount(),
+						connectionTesterConfiguration, rampUpMillis * i
+								/ clients, deadlineNanos, smallSourceFile,
+						largeSourceFile)));
+			}
+
+			Map<WorkloadType, WorkloadStatistics> totals = new EnumMap<WorkloadType, WorkloadStatistics>(
+					WorkloadType.class);
+			for (Future<Map<WorkloadType, WorkloadStatistics>> future : futures) {
+				try {
+					for (WorkloadStatistics clientStatistics : future.get()
+							.values()) {
+						totalFor(totals, clientStatistics.getWorkloadType())
+								.addAll(clientStatistics);
+					}
+				} catch (ExecutionException e) {
+					// the statistics of the client are lost, count it as
+					// failing each workload and keep the other clients
+					log.error("load test client failed", e.getCause());
+					for (WorkloadType workloadType : WorkloadType.values()) {
+						if (weightOf(workloadType) > 0) {
+							totalFor(totals, workloadType).recordFailure(
+									e.getCause());
+						}
+					}
+				}
+			}
+
+			long elapsedMillis = System.currentTimeMillis() - startTime;
+			testResult.setLoadTestMilliseconds(elapsedMillis);
+			for (WorkloadStatistics total : totals.values()) {
+				testResult.getLoadTestResults().add(
+						total.toResultEntry(elapsedMillis));
+			}
+
+			log.info("load test result:{}", testResult);
+			return testResult;
+
+		} catch (TestingUtilsException e) {
+			log.error("error generating local file", e);
+			throw new JargonException("error generating local file", e);
+		} catch (InterruptedException e) {
+			log.error("interrupted waiting for load test clients", e);
+			Thread.currentThread().interrupt();
+			throw new JargonException(
+					"interrupted waiting for load test clients", e);
+		} finally {
+			executorService.shutdownNow();
+			if (connectionTesterConfiguration.isCleanupOnCompletion()) {
+				smallSourceFile.delete();
+				largeSourceFile.delete();
+			}
+		}
+	}
+
+	private void validateLoadTestConfiguration() {
+		if (connectionTesterConfiguration.getConcurrentClients() < 1) {
+			throw new IllegalArgumentException(
+					"concurrentClients must be at least 1");
+		}
+
+		if (connectionTesterConfiguration.getDurationSeconds() < 1) {
+			throw new IllegalArgumentException(
+					"durationSeconds must be at least 1");
+		}
+
+		if (connectionTesterConfiguration.getRampUpSeconds() < 0) {
+			throw new IllegalArgumentException(
+					"rampUpSeconds cannot be less than zero");
+		}
+
+		if (connectionTesterConfiguration.getLocalSourceParentDirectory() == null
+				|| connectionTesterConfiguration
+						.getLocalSourceParentDirectory().isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty localSourceParentDirectory");
+		}
+
+		if (connectionTesterConfiguration.getIrodsParentDirectory() == null
+				|| connectionTesterConfiguration.getIrodsParentDirectory()
+						.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsParentDirectory");
+		}
+
+		if (connectionTesterConfiguration.getSmallFileLength() < 1
+				|| connectionTesterConfiguration.getLargeFileLength() < 1) {
+			throw new IllegalArgumentException(
+					"smallFileLength and largeFileLength must be at least 1");
+		}
+
+		int totalWeight = 0;
+		for (WorkloadType workloadType : WorkloadType.values()) {
+			int weight = weightOf(workloadType);
+			if (weight < 0) {
+				throw new IllegalArgumentException(
+						"workload weights cannot be less than zero");
+			}
+			totalWeight += weight;
+		}
+
+		if (totalWeight == 0) {
+			throw new IllegalArgumentException(
+					"no workload has a weight above zero");
+		}
+	}
+
+	private WorkloadStatistics totalFor(
+			final Map<WorkloadType, WorkloadStatistics> totals,
+			final WorkloadType workloadType) {
+		WorkloadStatistics total = totals.get(workloadType);
+		if (total == null) {
+			total = new WorkloadStatistics(workloadType);
+			totals.put(workloadType, total);
+		}
+		return total;
+	}
+
+	private int weightOf(final WorkloadType workloadType) {
+		Integer weight = connectionTesterConfiguration.getWorkloadWeights()
+				.get(workloadType);
+		return weight == null ? 0 : weight;
+	}
+
 	/**
 	 * Do a put and get and return the results
 	 * 
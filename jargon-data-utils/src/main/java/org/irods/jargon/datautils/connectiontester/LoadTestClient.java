@@ -0,0 +1,334 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.connectiontester;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.DuplicateDataException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.TransferOptions.ForceOption;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One client of a load test, run on its own thread, and so with its own iRODS
+ * connection. The client works in its own collection under the configured
+ * iRODS parent, choosing each operation at random by the workload weights,
+ * until the deadline or its operation count is reached.
+ * <p/>
+ * A client that cannot set up its collection, such as when iRODS refuses the
+ * connection, records that as one failure of each of its workloads and ends.
+ * Puts overwrite, so a run can reuse the collections of an earlier run that
+ * was not cleaned up.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+class LoadTestClient implements Callable<Map<WorkloadType, WorkloadStatistics>> {
+
+	static final String METADATA_ATTRIBUTE = "connectionTesterClient";
+
+	private static final Logger log = LoggerFactory
+			.getLogger(LoadTestClient.class);
+
+	private final int clientNumber;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final ConnectionTesterConfiguration configuration;
+	private final long startDelayMillis;
+	private final long deadlineNanos;
+	private final File smallSourceFile;
+	private final File largeSourceFile;
+	private final WorkloadType[] workloadTypes;
+	private final int[] cumulativeWeights;
+	private final Random random;
+	private final Map<WorkloadType, WorkloadStatistics> statistics = new EnumMap<WorkloadType, WorkloadStatistics>(
+			WorkloadType.class);
+
+	private String clientCollection;
+	private String metadataFileName;
+	private File localGetFile;
+	private int operations = 0;
+
+	/**
+	 * @param clientNumber
+	 *            <code>int</code> from 0, naming the collection and local
+	 *            files of the client
+	 * @param irodsAccessObjectFactory
+	 * @param irodsAccount
+	 * @param configuration
+	 * @param startDelayMillis
+	 *            <code>long</code> to wait before the first operation, for
+	 *            ramp up
+	 * @param deadlineNanos
+	 *            <code>long</code> with the <code>System.nanoTime()</code>
+	 *            after which no operation is started
+	 * @param smallSourceFile
+	 *            <code>File</code> put by the small file storm
+	 * @param largeSourceFile
+	 *            <code>File</code> put by the large transfer
+	 */
+	LoadTestClient(final int clientNumber,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount,
+			final ConnectionTesterConfiguration configuration,
+			final long startDelayMillis, final long deadlineNanos,
+			final File smallSourceFile, final File largeSourceFile) {
+		this.clientNumber = clientNumber;
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.configuration = configuration;
+		this.startDelayMillis = startDelayMillis;
+		this.deadlineNanos = deadlineNanos;
+		this.smallSourceFile = smallSourceFile;
+		this.largeSourceFile = largeSourceFile;
+		random = new Random(clientNumber);
+
+		int types = 0;
+		for (WorkloadType workloadType : WorkloadType.values()) {
+			if (weightOf(workloadType) > 0) {
+				types++;
+			}
+		}
+		workloadTypes = new WorkloadType[types];
+		cumulativeWeights = new int[types];
+		int total = 0;
+		int i = 0;
+		for (WorkloadType workloadType : WorkloadType.values()) {
+			int weight = weightOf(workloadType);
+			if (weight > 0) {
+				total += weight;
+				workloadTypes[i] = workloadType;
+				cumulativeWeights[i] = total;
+				statistics.put(workloadType,
+						new WorkloadStatistics(workloadType));
+				i++;
+			}
+		}
+	}
+
+	@Override
+	public Map<WorkloadType, WorkloadStatistics> call() throws Exception {
+		if (startDelayMillis > 0) {
+			Thread.sleep(startDelayMillis);
+		}
+
+		log.info("starting load test client:{}", clientNumber);
+		try {
+			try {
+				setUp();
+			} catch (Exception e) {
+				log.warn("load test client:{} could not set up:{}",
+						clientNumber, e.getMessage());
+				for (WorkloadStatistics workloadStatistics : statistics
+						.values()) {
+					workloadStatistics.recordFailure(e);
+				}
+				return statistics;
+			}
+
+			int limit = configuration.getOperationsPerClient();
+			while ((limit <= 0 || operations < limit)
+					&& System.nanoTime() < deadlineNanos
+					&& !Thread.currentThread().isInterrupted()) {
+				runOperation(chooseWorkload());
+				operations++;
+			}
+			log.info("load test client:{} done after {} operations",
+					clientNumber, operations);
+			return statistics;
+		} finally {
+			cleanUp();
+			irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsAccount);
+		}
+	}
+
+	/**
+	 * Create the collection of the client, and the data object the metadata
+	 * queries read, failing the client if iRODS cannot be reached
+	 */
+	private void setUp() throws JargonException {
+		IRODSFileFactory irodsFileFactory = irodsAccessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile collection = irodsFileFactory.instanceIRODSFile(
+				configuration.getIrodsParentDirectory(), "loadTestClient"
+						+ clientNumber);
+		collection.mkdirs();
+		clientCollection = collection.getAbsolutePath();
+		localGetFile = new File(configuration.getLocalSourceParentDirectory(),
+				"loadTestGet" + clientNumber + ".dat");
+
+		if (statistics.containsKey(WorkloadType.METADATA_QUERY)) {
+			metadataFileName = "metadata.dat";
+			IRODSFile metadataFile = irodsFileFactory.instanceIRODSFile(
+					clientCollection, metadataFileName);
+			irodsAccessObjectFactory.getDataTransferOperations(irodsAccount)
+					.putOperation(smallSourceFile, metadataFile, null,
+							buildForcedTransferControlBlock());
+			try {
+				irodsAccessObjectFactory.getDataObjectAO(irodsAccount)
+						.addAVUMetadata(
+								metadataFile.getAbsolutePath(),
+								AvuData.instance(METADATA_ATTRIBUTE,
+										String.valueOf(clientNumber), ""));
+			} catch (DuplicateDataException e) {
+				log.info("metadata left by an earlier run is used");
+			}
+		}
+	}
+
+	/**
+	 * @return {@link TransferControlBlock} that overwrites an existing data
+	 *         object
+	 */
+	private TransferControlBlock buildForcedTransferControlBlock()
+			throws JargonException {
+		TransferControlBlock transferControlBlock = irodsAccessObjectFactory
+				.buildDefaultTransferControlBlockBasedOnJargonProperties();
+		transferControlBlock.getTransferOptions().setForceOption(
+				ForceOption.USE_FORCE);
+		return transferControlBlock;
+	}
+
+	private WorkloadType chooseWorkload() {
+		int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (pick < cumulativeWeights[i]) {
+				return workloadTypes[i];
+			}
+		}
+		return workloadTypes[workloadTypes.length - 1];
+	}
+
+	/**
+	 * Run and time one operation, a failure is counted and the client goes
+	 * on, on a new connection if the old one was lost
+	 */
+	private void runOperation(final WorkloadType workloadType) {
+		WorkloadStatistics workloadStatistics = statistics.get(workloadType);
+		try {
+			switch (workloadType) {
+			case SMALL_FILE_STORM:
+				smallFilePut(workloadStatistics);
+				break;
+			case LISTING:
+				listing(workloadStatistics);
+				break;
+			case METADATA_QUERY:
+				metadataQuery(workloadStatistics);
+				break;
+			case LARGE_PARALLEL_TRANSFER:
+				largeTransfer(workloadStatistics);
+				break;
+			}
+		} catch (Exception e) {
+			log.warn("load test operation failed:{}", e.getMessage());
+			workloadStatistics.recordFailure(e);
+		}
+	}
+
+	private void smallFilePut(final WorkloadStatistics workloadStatistics)
+			throws Exception {
+		IRODSFile irodsFile = irodsAccessObjectFactory.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(clientCollection,
+				"small" + operations + ".dat");
+		DataTransferOperations dataTransferOperations = irodsAccessObjectFactory
+				.getDataTransferOperations(irodsAccount);
+		TransferControlBlock transferControlBlock = buildForcedTransferControlBlock();
+
+		long start = System.nanoTime();
+		dataTransferOperations.putOperation(smallSourceFile, irodsFile, null,
+				transferControlBlock);
+		workloadStatistics.recordSuccess(System.nanoTime() - start,
+				smallSourceFile.length());
+	}
+
+	private void listing(final WorkloadStatistics workloadStatistics)
+			throws Exception {
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = irodsAccessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+
+		long start = System.nanoTime();
+		listAndSearchAO.listDataObjectsAndCollectionsUnderPath(clientCollection);
+		workloadStatistics.recordSuccess(System.nanoTime() - start, 0L);
+	}
+
+	private void metadataQuery(final WorkloadStatistics workloadStatistics)
+			throws Exception {
+		DataObjectAO dataObjectAO = irodsAccessObjectFactory
+				.getDataObjectAO(irodsAccount);
+
+		long start = System.nanoTime();
+		dataObjectAO.findMetadataValuesForDataObject(clientCollection,
+				metadataFileName);
+		workloadStatistics.recordSuccess(System.nanoTime() - start, 0L);
+	}
+
+	/**
+	 * Put and get the large file, timed as one operation, then remove both
+	 * copies outside of the timing
+	 */
+	private void largeTransfer(final WorkloadStatistics workloadStatistics)
+			throws Exception {
+		IRODSFile irodsFile = irodsAccessObjectFactory.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(clientCollection,
+				"large" + operations + ".dat");
+		DataTransferOperations dataTransferOperations = irodsAccessObjectFactory
+				.getDataTransferOperations(irodsAccount);
+		TransferControlBlock transferControlBlock = buildForcedTransferControlBlock();
+		localGetFile.delete();
+
+		try {
+			long start = System.nanoTime();
+			dataTransferOperations.putOperation(largeSourceFile, irodsFile,
+					null, transferControlBlock);
+			dataTransferOperations.getOperation(irodsFile, localGetFile, null,
+					null);
+			workloadStatistics.recordSuccess(System.nanoTime() - start,
+					largeSourceFile.length() * 2);
+		} finally {
+			localGetFile.delete();
+			irodsFile.deleteWithForceOption();
+		}
+	}
+
+	private void cleanUp() {
+		if (localGetFile != null) {
+			localGetFile.delete();
+		}
+
+		if (!configuration.isCleanupOnCompletion() || clientCollection == null) {
+			return;
+		}
+
+		try {
+			irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)
+					.instanceIRODSFile(clientCollection)
+					.deleteWithForceOption();
+		} catch (Exception e) {
+			log.warn("unable to remove load test collection:{}",
+					clientCollection, e);
+		}
+	}
+
+	private int weightOf(final WorkloadType workloadType) {
+		Integer weight = configuration.getWorkloadWeights().get(workloadType);
+		return weight == null ? 0 : weight;
+	}
+
+}
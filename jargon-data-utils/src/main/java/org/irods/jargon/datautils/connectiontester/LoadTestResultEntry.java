@@ -0,0 +1,304 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.connectiontester;
+
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
+
+/**
+ * Result of one workload in a load test, over all of its clients
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class LoadTestResultEntry {
+
+	/**
+	 * Type of workload
+	 */
+	private WorkloadType workloadType = WorkloadType.SMALL_FILE_STORM;
+
+	/**
+	 * Operations attempted, including failures
+	 */
+	private long operationCount = 0L;
+
+	/**
+	 * Operations that failed
+	 */
+	private long failureCount = 0L;
+
+	/**
+	 * Total bytes moved by the operations that succeeded
+	 */
+	private long totalBytes = 0L;
+
+	/**
+	 * Mean latency of the operations that succeeded, in microseconds
+	 */
+	private long meanMicroseconds = 0L;
+
+	/**
+	 * Median latency in microseconds
+	 */
+	private long p50Microseconds = 0L;
+
+	/**
+	 * 95th percentile latency in microseconds
+	 */
+	private long p95Microseconds = 0L;
+
+	/**
+	 * 99th percentile latency in microseconds
+	 */
+	private long p99Microseconds = 0L;
+
+	/**
+	 * Longest latency in microseconds
+	 */
+	private long maxMicroseconds = 0L;
+
+	/**
+	 * Operations that succeeded per second of the load test
+	 */
+	private double operationsPerSecond = 0;
+
+	/**
+	 * Bytes per second of the load test
+	 */
+	private long bytesPerSecond = 0L;
+
+	/**
+	 * The first failure, if any (may be null)
+	 */
+	private Throwable exception = null;
+
+	/**
+	 *
+	 */
+	public LoadTestResultEntry() {
+	}
+
+	/**
+	 * @return the workloadType
+	 */
+	public WorkloadType getWorkloadType() {
+		return workloadType;
+	}
+
+	/**
+	 * @param workloadType
+	 *            the workloadType to set
+	 */
+	public void setWorkloadType(WorkloadType workloadType) {
+		this.workloadType = workloadType;
+	}
+
+	/**
+	 * @return the operationCount
+	 */
+	public long getOperationCount() {
+		return operationCount;
+	}
+
+	/**
+	 * @param operationCount
+	 *            the operationCount to set
+	 */
+	public void setOperationCount(long operationCount) {
+		this.operationCount = operationCount;
+	}
+
+	/**
+	 * @return the failureCount
+	 */
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * @param failureCount
+	 *            the failureCount to set
+	 */
+	public void setFailureCount(long failureCount) {
+		this.failureCount = failureCount;
+	}
+
+	/**
+	 * @return the totalBytes
+	 */
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * @param totalBytes
+	 *            the totalBytes to set
+	 */
+	public void setTotalBytes(long totalBytes) {
+		this.totalBytes = totalBytes;
+	}
+
+	/**
+	 * @return the meanMicroseconds
+	 */
+	public long getMeanMicroseconds() {
+		return meanMicroseconds;
+	}
+
+	/**
+	 * @param meanMicroseconds
+	 *            the meanMicroseconds to set
+	 */
+	public void setMeanMicroseconds(long meanMicroseconds) {
+		this.meanMicroseconds = meanMicroseconds;
+	}
+
+	/**
+	 * @return the p50Microseconds
+	 */
+	public long getP50Microseconds() {
+		return p50Microseconds;
+	}
+
+	/**
+	 * @param p50Microseconds
+	 *            the p50Microseconds to set
+	 */
+	public void setP50Microseconds(long p50Microseconds) {
+		this.p50Microseconds = p50Microseconds;
+	}
+
+	/**
+	 * @return the p95Microseconds
+	 */
+	public long getP95Microseconds() {
+		return p95Microseconds;
+	}
+
+	/**
+	 * @param p95Microseconds
+	 *            the p95Microseconds to set
+	 */
+	public void setP95Microseconds(long p95Microseconds) {
+		this.p95Microseconds = p95Microseconds;
+	}
+
+	/**
+	 * @return the p99Microseconds
+	 */
+	public long getP99Microseconds() {
+		return p99Microseconds;
+	}
+
+	/**
+	 * @param p99Microseconds
+	 *            the p99Microseconds to set
+	 */
+	public void setP99Microseconds(long p99Microseconds) {
+		this.p99Microseconds = p99Microseconds;
+	}
+
+	/**
+	 * @return the maxMicroseconds
+	 */
+	public long getMaxMicroseconds() {
+		return maxMicroseconds;
+	}
+
+	/**
+	 * @param maxMicroseconds
+	 *            the maxMicroseconds to set
+	 */
+	public void setMaxMicroseconds(long maxMicroseconds) {
+		this.maxMicroseconds = maxMicroseconds;
+	}
+
+	/**
+	 * @return the operationsPerSecond
+	 */
+	public double getOperationsPerSecond() {
+		return operationsPerSecond;
+	}
+
+	/**
+	 * @param operationsPerSecond
+	 *            the operationsPerSecond to set
+	 */
+	public void setOperationsPerSecond(double operationsPerSecond) {
+		this.operationsPerSecond = operationsPerSecond;
+	}
+
+	/**
+	 * @return the bytesPerSecond
+	 */
+	public long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	/**
+	 * @param bytesPerSecond
+	 *            the bytesPerSecond to set
+	 */
+	public void setBytesPerSecond(long bytesPerSecond) {
+		this.bytesPerSecond = bytesPerSecond;
+	}
+
+	/**
+	 * @return the exception
+	 */
+	public Throwable getException() {
+		return exception;
+	}
+
+	/**
+	 * @param exception
+	 *            the exception to set
+	 */
+	public void setException(Throwable exception) {
+		this.exception = exception;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("LoadTestResultEntry [");
+		if (workloadType != null) {
+			builder.append("workloadType=");
+			builder.append(workloadType);
+			builder.append(", ");
+		}
+		builder.append("operationCount=");
+		builder.append(operationCount);
+		builder.append(", failureCount=");
+		builder.append(failureCount);
+		builder.append(", totalBytes=");
+		builder.append(totalBytes);
+		builder.append(", meanMicroseconds=");
+		builder.append(meanMicroseconds);
+		builder.append(", p50Microseconds=");
+		builder.append(p50Microseconds);
+		builder.append(", p95Microseconds=");
+		builder.append(p95Microseconds);
+		builder.append(", p99Microseconds=");
+		builder.append(p99Microseconds);
+		builder.append(", maxMicroseconds=");
+		builder.append(maxMicroseconds);
+		builder.append(", operationsPerSecond=");
+		builder.append(operationsPerSecond);
+		builder.append(", bytesPerSecond=");
+		builder.append(bytesPerSecond);
+		if (exception != null) {
+			builder.append(", exception=");
+			builder.append(exception);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.connectiontester;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
+
+/**
+ * Latencies and counts of one workload, kept by a single load test client
+ * without locking, and merged over all clients when the test is done. Every
+ * latency is kept, so the percentiles are exact.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+class WorkloadStatistics {
+
+	private final WorkloadType workloadType;
+	private long[] latencyNanos = new long[256];
+	private int successCount = 0;
+	private long failureCount = 0L;
+	private long totalBytes = 0L;
+	private Throwable firstException = null;
+
+	WorkloadStatistics(final WorkloadType workloadType) {
+		this.workloadType = workloadType;
+	}
+
+	void recordSuccess(final long nanos, final long bytes) {
+		if (successCount == latencyNanos.length) {
+			latencyNanos = Arrays.copyOf(latencyNanos, successCount * 2);
+		}
+		latencyNanos[successCount++] = nanos;
+		totalBytes += bytes;
+	}
+
+	void recordFailure(final Throwable exception) {
+		failureCount++;
+		if (firstException == null) {
+			firstException = exception;
+		}
+	}
+
+	void addAll(final WorkloadStatistics other) {
+		for (int i = 0; i < other.successCount; i++) {
+			recordSuccess(other.latencyNanos[i], 0L);
+		}
+		totalBytes += other.totalBytes;
+		failureCount += other.failureCount;
+		if (firstException == null) {
+			firstException = other.firstException;
+		}
+	}
+
+	WorkloadType getWorkloadType() {
+		return workloadType;
+	}
+
+	/**
+	 * Summarize as a result entry
+	 *
+	 * @param elapsedMillis
+	 *            <code>long</code> with the length of the whole load test, to
+	 *            compute rates from
+	 * @return {@link LoadTestResultEntry}
+	 */
+	LoadTestResultEntry toResultEntry(final long elapsedMillis) {
+		LoadTestResultEntry entry = new LoadTestResultEntry();
+		entry.setWorkloadType(workloadType);
+		entry.setOperationCount(successCount + failureCount);
+		entry.setFailureCount(failureCount);
+		entry.setTotalBytes(totalBytes);
+		entry.setException(firstException);
+
+		if (successCount > 0) {
+			long[] sorted = Arrays.copyOf(latencyNanos, successCount);
+			Arrays.sort(sorted);
+			long sum = 0L;
+			for (long nanos : sorted) {
+				sum += nanos;
+			}
+			entry.setMeanMicroseconds(TimeUnit.NANOSECONDS.toMicros(sum
+					/ successCount));
+			entry.setP50Microseconds(percentileMicros(sorted, 50));
+			entry.setP95Microseconds(percentileMicros(sorted, 95));
+			entry.setP99Microseconds(percentileMicros(sorted, 99));
+			entry.setMaxMicroseconds(TimeUnit.NANOSECONDS
+					.toMicros(sorted[successCount - 1]));
+		}
+
+		if (elapsedMillis > 0) {
+			entry.setOperationsPerSecond(successCount * 1000.0 / elapsedMillis);
+			entry.setBytesPerSecond(totalBytes * 1000 / elapsedMillis);
+		}
+		return entry;
+	}
+
+	/**
+	 * Nearest rank percentile of sorted latencies
+	 */
+	private static long percentileMicros(final long[] sorted,
+			final int percentile) {
+		int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+		return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, rank - 1)]);
+	}
+
+}
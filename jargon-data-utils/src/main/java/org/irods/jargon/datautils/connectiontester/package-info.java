@@ -1,5 +1,6 @@
 /**
- * Service to test conections to iRODS
+ * Service to test conections to iRODS, and to put a grid under load from
+ * many concurrent clients
  * @author Mike Conway - DICE
  *
  */
@@ -0,0 +1,61 @@
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.File;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Service to put a local directory of many small files into iRODS as a single
+ * tar bundle that iRODS extracts, rather than with a protocol exchange for
+ * each file.
+ * 
+ * @author Mike Conway - DICE (www.irods.org)
+ * 
+ */
+public interface BundledPutService {
+
+	/**
+	 * Default size, in bytes, of the largest file that is sent in the bundle
+	 */
+	public static final long DEFAULT_MAX_BUNDLED_FILE_SIZE = 1024 * 1024;
+
+	/**
+	 * Put a local directory into an iRODS collection. Files no larger than
+	 * {@link #getMaxBundledFileSize()} are streamed into a tar as it is sent to
+	 * iRODS, with no temporary local file, and the tar is extracted into the
+	 * collection with the bulk registration optimization and then deleted.
+	 * Larger files are put one at a time.
+	 * <p/>
+	 * As with a put of a directory, the directory is created under the target
+	 * collection with the same name. Extraction does not overwrite, so the
+	 * files must not already be in iRODS.
+	 * 
+	 * @param localSourceDirectory
+	 *            <code>File</code> with the local directory to put
+	 * @param targetIrodsCollectionAbsolutePath
+	 *            <code>String</code> with the absolute path to the iRODS
+	 *            collection that will hold the directory
+	 * @param resourceName
+	 *            <code>String</code> with the target resource, blank (not
+	 *            null) for the default resource
+	 * @throws JargonException
+	 */
+	void putDirectoryAsBundle(File localSourceDirectory,
+			String targetIrodsCollectionAbsolutePath, String resourceName)
+			throws JargonException;
+
+	/**
+	 * @return <code>long</code> with the size, in bytes, of the largest file
+	 *         that is sent in the bundle
+	 */
+	long getMaxBundledFileSize();
+
+	/**
+	 * @param maxBundledFileSize
+	 *            <code>long</code> with the size, in bytes, of the largest
+	 *            file that is sent in the bundle. Larger files are put one at
+	 *            a time.
+	 */
+	void setMaxBundledFileSize(long maxBundledFileSize);
+
+}
@@ -0,0 +1,268 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.ObjStatCache;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.service.AbstractJargonService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Service implementation to put a local directory of many small files into
+ * iRODS as a single tar bundle that iRODS extracts.
+ * <p/>
+ * The tar is written by a {@link StreamingTarBundler} on its own thread into a
+ * pipe, and read from the pipe into an iRODS output stream on the calling
+ * thread, so only the calling thread uses the connection.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BundledPutServiceImpl extends AbstractJargonService implements
+		BundledPutService {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(BundledPutServiceImpl.class);
+
+	/**
+	 * Bytes held in the pipe between the tar writer and the iRODS stream
+	 */
+	private static final int PIPE_BUFFER_SIZE = 256 * 1024;
+
+	private long maxBundledFileSize = DEFAULT_MAX_BUNDLED_FILE_SIZE;
+
+	/**
+	 * Constructor with information needed to connect to iRODS
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 */
+	public BundledPutServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		super(irodsAccessObjectFactory, irodsAccount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.filearchive.BundledPutService#putDirectoryAsBundle
+	 * (java.io.File, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void putDirectoryAsBundle(final File localSourceDirectory,
+			final String targetIrodsCollectionAbsolutePath,
+			final String resourceName) throws JargonException {
+
+		log.info("putDirectoryAsBundle()");
+
+		if (localSourceDirectory == null) {
+			throw new IllegalArgumentException("null localSourceDirectory");
+		}
+
+		if (targetIrodsCollectionAbsolutePath == null
+				|| targetIrodsCollectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty targetIrodsCollectionAbsolutePath");
+		}
+
+		if (resourceName == null) {
+			throw new IllegalArgumentException(
+					"null resourceName, set to blank if not used");
+		}
+
+		log.info("localSourceDirectory:{}", localSourceDirectory);
+		log.info("targetIrodsCollectionAbsolutePath:{}",
+				targetIrodsCollectionAbsolutePath);
+		log.info("resourceName:{}", resourceName);
+		log.info("maxBundledFileSize:{}", maxBundledFileSize);
+
+		if (!localSourceDirectory.isDirectory()) {
+			throw new JargonException(
+					"source file is not a directory, cannot put as a bundle");
+		}
+
+		StreamingTarBundler streamingTarBundler = new StreamingTarBundler(
+				localSourceDirectory, maxBundledFileSize);
+
+		List<String> collections = new ArrayList<String>();
+		for (String relativePath : streamingTarBundler
+				.getRelativeDirectoryPaths()) {
+			collections.add(targetIrodsCollectionAbsolutePath + '/'
+					+ relativePath);
+		}
+		log.info("creating {} collections", collections.size());
+		irodsAccessObjectFactory.getIRODSFileSystemAO(irodsAccount).mkdirs(
+				collections);
+
+		if (!streamingTarBundler.getBundledFiles().isEmpty()) {
+			sendAndExtractBundle(streamingTarBundler, localSourceDirectory,
+					targetIrodsCollectionAbsolutePath, resourceName);
+		}
+
+		DataTransferOperations dataTransferOperations = irodsAccessObjectFactory
+				.getDataTransferOperations(irodsAccount);
+		for (File file : streamingTarBundler.getUnbundledFiles()) {
+			String targetPath = targetIrodsCollectionAbsolutePath + '/'
+					+ streamingTarBundler.entryNameForFile(file);
+			log.info("putting large file to:{}", targetPath);
+			dataTransferOperations.putOperation(file.getAbsolutePath(),
+					targetPath, resourceName, null, null);
+		}
+
+		log.info("bundled put complete");
+	}
+
+	/**
+	 * Stream the tar into iRODS, extract it into the target collection, and
+	 * delete it
+	 */
+	private void sendAndExtractBundle(
+			final StreamingTarBundler streamingTarBundler,
+			final File localSourceDirectory,
+			final String targetIrodsCollectionAbsolutePath,
+			final String resourceName) throws JargonException {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(targetIrodsCollectionAbsolutePath);
+		sb.append('/');
+		sb.append(localSourceDirectory.getName());
+		sb.append("-bundle-");
+		sb.append(System.currentTimeMillis());
+		sb.append(".tar");
+		String bundleAbsolutePath = sb.toString();
+		log.info("sending {} bytes of files in bundle:{}",
+				streamingTarBundler.getBundledLength(), bundleAbsolutePath);
+
+		IRODSFileFactory irodsFileFactory = irodsAccessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile bundleFile = irodsFileFactory
+				.instanceIRODSFile(bundleAbsolutePath);
+		bundleFile.setResource(resourceName);
+
+		try {
+			streamBundle(streamingTarBundler, bundleFile, irodsFileFactory);
+			log.info("extracting bundle");
+			irodsAccessObjectFactory.getBulkFileOperationsAO(irodsAccount)
+					.extractABundleIntoAnIrodsCollectionWithBulkOperationOptimization(
+							bundleAbsolutePath,
+							targetIrodsCollectionAbsolutePath, resourceName);
+		} finally {
+			log.info("deleting bundle");
+			bundleFile.deleteWithForceOption();
+			// the extraction wrote the tree behind the access objects
+			ObjStatCache objStatCache = irodsAccessObjectFactory
+					.getIrodsSession().getObjStatCache();
+			if (objStatCache != null) {
+				objStatCache.invalidateTree(targetIrodsCollectionAbsolutePath);
+			}
+		}
+	}
+
+	private void streamBundle(final StreamingTarBundler streamingTarBundler,
+			final IRODSFile bundleFile, final IRODSFileFactory irodsFileFactory)
+			throws JargonException {
+
+		PipedInputStream tarInputStream = new PipedInputStream(
+				PIPE_BUFFER_SIZE);
+		final PipedOutputStream tarOutputStream;
+		try {
+			tarOutputStream = new PipedOutputStream(tarInputStream);
+		} catch (IOException e) {
+			throw new JargonException("unable to connect tar pipe", e);
+		}
+
+		FutureTask<Void> tarWriter = new FutureTask<Void>(
+				new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try {
+							streamingTarBundler.writeTar(tarOutputStream);
+						} finally {
+							// lets the reader see the end of the tar
+							tarOutputStream.close();
+						}
+						return null;
+					}
+				});
+		Thread thread = new Thread(tarWriter, "jargon-tar-bundle");
+		thread.setDaemon(true);
+		thread.start();
+
+		try {
+			OutputStream irodsOutputStream = irodsFileFactory
+					.instanceIRODSFileOutputStream(bundleFile);
+			irodsAccessObjectFactory.getStream2StreamAO(irodsAccount)
+					.streamToStreamCopyUsingStandardIO(tarInputStream,
+							irodsOutputStream);
+		} finally {
+			// stops the writer if the copy failed
+			try {
+				tarInputStream.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+
+		try {
+			tarWriter.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted writing tar bundle", e);
+		} catch (ExecutionException e) {
+			log.error("error writing tar bundle", e.getCause());
+			throw new JargonException("error writing tar bundle",
+					e.getCause());
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.filearchive.BundledPutService#getMaxBundledFileSize
+	 * ()
+	 */
+	@Override
+	public long getMaxBundledFileSize() {
+		return maxBundledFileSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.filearchive.BundledPutService#setMaxBundledFileSize
+	 * (long)
+	 */
+	@Override
+	public void setMaxBundledFileSize(final long maxBundledFileSize) {
+		if (maxBundledFileSize < 0) {
+			throw new IllegalArgumentException(
+					"maxBundledFileSize must not be negative");
+		}
+		this.maxBundledFileSize = maxBundledFileSize;
+	}
+
+}
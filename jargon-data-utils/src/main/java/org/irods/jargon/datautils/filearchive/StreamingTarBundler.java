@@ -0,0 +1,202 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the small files of a local directory tree as a tar stream, with no
+ * temporary file, so that they may be sent to iRODS as one bundle and
+ * extracted there. Files larger than a given size are left out of the tar, and
+ * are listed so that they may be put one at a time.
+ * <p/>
+ * Entries are named by their path relative to the parent of the source
+ * directory, so that a bundle extracted into a collection makes the same tree
+ * as a put of the directory into that collection.
+ * <p/>
+ * The tree is scanned when this object is created. This object is not thread
+ * safe, though {@link #writeTar(OutputStream)} may be called on a thread other
+ * than the one that created it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class StreamingTarBundler {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(StreamingTarBundler.class);
+
+	private final File sourceDirectory;
+	private final long maxBundledFileSize;
+	private final List<File> bundledFiles = new ArrayList<File>();
+	private final List<File> unbundledFiles = new ArrayList<File>();
+	private final List<String> relativeDirectoryPaths = new ArrayList<String>();
+	private long bundledLength = 0;
+
+	/**
+	 * Scan a local directory tree
+	 *
+	 * @param sourceDirectory
+	 *            <code>File</code> with the local directory to bundle
+	 * @param maxBundledFileSize
+	 *            <code>long</code> with the largest file, in bytes, that goes
+	 *            in the tar
+	 */
+	public StreamingTarBundler(final File sourceDirectory,
+			final long maxBundledFileSize) {
+
+		if (sourceDirectory == null) {
+			throw new IllegalArgumentException("null sourceDirectory");
+		}
+
+		if (!sourceDirectory.isDirectory()) {
+			throw new IllegalArgumentException(
+					"sourceDirectory is not a directory");
+		}
+
+		if (maxBundledFileSize < 0) {
+			throw new IllegalArgumentException(
+					"maxBundledFileSize must not be negative");
+		}
+
+		this.sourceDirectory = sourceDirectory;
+		this.maxBundledFileSize = maxBundledFileSize;
+		scan(sourceDirectory, sourceDirectory.getName());
+		log.info("files in tar:{}", bundledFiles.size());
+		log.info("files to put separately:{}", unbundledFiles.size());
+	}
+
+	private void scan(final File directory, final String relativePath) {
+		relativeDirectoryPaths.add(relativePath);
+
+		File[] children = directory.listFiles();
+		if (children == null) {
+			log.warn("unable to list directory:{}", directory);
+			return;
+		}
+
+		for (File child : children) {
+			if (child.isDirectory()) {
+				scan(child, relativePath + '/' + child.getName());
+			} else if (child.length() > maxBundledFileSize) {
+				unbundledFiles.add(child);
+			} else {
+				bundledFiles.add(child);
+				bundledLength += child.length();
+			}
+		}
+	}
+
+	/**
+	 * Write the tar of the small files to a stream, which is closed when the
+	 * tar is complete
+	 *
+	 * @param outputStream
+	 *            <code>OutputStream</code> that receives the tar
+	 * @throws JargonException
+	 */
+	public void writeTar(final OutputStream outputStream)
+			throws JargonException {
+
+		if (outputStream == null) {
+			throw new IllegalArgumentException("null outputStream");
+		}
+
+		log.info("writeTar()");
+		TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(
+				outputStream);
+		tarArchiveOutputStream
+				.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+		tarArchiveOutputStream
+				.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+
+		try {
+			for (File file : bundledFiles) {
+				TarArchiveEntry entry = new TarArchiveEntry(file,
+						entryNameForFile(file));
+				tarArchiveOutputStream.putArchiveEntry(entry);
+				InputStream fileIn = new BufferedInputStream(
+						new FileInputStream(file));
+				try {
+					IOUtils.copy(fileIn, tarArchiveOutputStream);
+				} finally {
+					fileIn.close();
+				}
+				tarArchiveOutputStream.closeArchiveEntry();
+			}
+			tarArchiveOutputStream.close();
+		} catch (IOException e) {
+			log.error("io exception writing tar", e);
+			throw new JargonException("io exception writing tar", e);
+		}
+	}
+
+	/**
+	 * Get the name of a file as it appears in the tar, which is its path
+	 * relative to the parent of the source directory
+	 *
+	 * @param file
+	 *            <code>File</code> under the source directory
+	 * @return <code>String</code> with the relative path, using '/'
+	 */
+	public String entryNameForFile(final File file) {
+		String sourcePath = sourceDirectory.getAbsolutePath();
+		String filePath = file.getAbsolutePath();
+		if (!filePath.startsWith(sourcePath)) {
+			throw new IllegalArgumentException(
+					"file is not under the source directory");
+		}
+
+		return sourceDirectory.getName()
+				+ filePath.substring(sourcePath.length()).replace(
+						File.separatorChar, '/');
+	}
+
+	/**
+	 * @return <code>List</code> of the <code>File</code>s that go in the tar
+	 */
+	public List<File> getBundledFiles() {
+		return Collections.unmodifiableList(bundledFiles);
+	}
+
+	/**
+	 * @return <code>List</code> of the <code>File</code>s that are too large
+	 *         for the tar
+	 */
+	public List<File> getUnbundledFiles() {
+		return Collections.unmodifiableList(unbundledFiles);
+	}
+
+	/**
+	 * @return <code>List</code> of <code>String</code> with the path of each
+	 *         directory relative to the parent of the source directory,
+	 *         parents before children, starting with the source directory
+	 */
+	public List<String> getRelativeDirectoryPaths() {
+		return Collections.unmodifiableList(relativeDirectoryPaths);
+	}
+
+	/**
+	 * @return <code>long</code> with the total length of the files in the tar
+	 */
+	public long getBundledLength() {
+		return bundledLength;
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.irods.jargon.datautils.tree;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Receives each difference found by a diff as it is found, so that a large
+ * tree may be diffed without building a <code>FileTreeModel</code> of the
+ * whole tree.
+ * <p/>
+ * Calls are made one at a time, on the thread that asked for the diff.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface FileTreeDiffListener {
+
+	/**
+	 * A difference was found
+	 *
+	 * @param fileTreeDiffEntry
+	 *            {@link FileTreeDiffEntry} describing the difference
+	 * @return <code>boolean</code> of <code>true</code> to go on with the
+	 *         diff, or <code>false</code> to stop it
+	 * @throws JargonException
+	 */
+	boolean diffEntryFound(FileTreeDiffEntry fileTreeDiffEntry)
+			throws JargonException;
+
+}
@@ -56,6 +56,46 @@ public interface FileTreeDiffUtility {
 			final long timestampForLastSynchRightHandSide)
 			throws JargonException;
 
+	/**
+	 * Diff the local tree on the left hand side against the iRODS tree on the
+	 * right hand side, handing each difference to a listener as it is found
+	 * instead of building a <code>FileTreeModel</code>. This is the better
+	 * choice for large trees.
+	 * <p/>
+	 * Each iRODS collection is listed with a paged query, rather than stat'ing
+	 * each child, and the local and iRODS children are compared in name order.
+	 * Files of the same length are compared by checksum, with local checksums
+	 * computed on several threads, so checksum differences may be handed over
+	 * after differences found later in the walk. When both timestamps are set,
+	 * files that changed on neither side since the last synch are not
+	 * checksummed.
+	 * <p/>
+	 * Matched directories are not handed to the listener, only differences. A
+	 * directory that is on one side only is handed over once, and not
+	 * descended into.
+	 *
+	 * @param localFileRoot
+	 *            <code>File</code> that is the left hand side of the comparison
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> that is the root directory that will be
+	 *            compared to the <code>localFileRoot</code>
+	 * @param timestampForLastSynchLeftHandSide
+	 *            <code>long</code> with the timestamp of the last synch on the
+	 *            left hand side. Leave as zero to turn off this check.
+	 * @param timestampForLastSynchRightHandSide
+	 *            <code>long</code> with the timestamp of the last synch on the
+	 *            right hand side. Leave as zero to turn off this check.
+	 * @param fileTreeDiffListener
+	 *            {@link FileTreeDiffListener} that receives each difference,
+	 *            and may stop the diff
+	 * @return <code>int</code> with the number of differences found
+	 * @throws JargonException
+	 */
+	int generateDiffLocalToIRODS(File localFileRoot, String irodsAbsolutePath,
+			long timestampForLastSynchLeftHandSide,
+			long timestampForLastSynchRightHandSide,
+			FileTreeDiffListener fileTreeDiffListener) throws JargonException;
+
 	/**
 	 * Handy method that checks a local and iRODS file trees and verifies that
 	 * there are no differences
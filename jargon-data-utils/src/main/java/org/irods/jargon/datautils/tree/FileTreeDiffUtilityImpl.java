@@ -5,7 +5,6 @@ import java.io.FileNotFoundException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.Enumeration;
 
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.IRODSAccount;
@@ -48,6 +47,13 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
 	 */
 	private final TransferControlBlock transferControlBlock;
 
+	/**
+	 * Threads that compute local checksums in a diff handed to a
+	 * <code>FileTreeDiffListener</code>
+	 */
+	private int checksumThreads = Math.min(4, Runtime.getRuntime()
+			.availableProcessors());
+
 	/**
 	 * Default constructor
 	 * 
@@ -113,37 +119,71 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
 
 		log.info("verifyLocalAndIRODSTreesMatch");
 
-		FileTreeModel diffModel = generateDiffLocalToIRODS(localFileRoot,
+		// stop at the first difference
+		int diffCount = generateDiffLocalToIRODS(localFileRoot,
 				irodsAbsolutePath, timestampForLastSynchLeftHandSide,
-				timestampForLastSynchRightHandSide);
+				timestampForLastSynchRightHandSide, new FileTreeDiffListener() {
+					@Override
+					public boolean diffEntryFound(
+							final FileTreeDiffEntry fileTreeDiffEntry) {
+						log.warn("diff found when not expected:{}",
+								fileTreeDiffEntry);
+						return false;
+					}
+				});
 
-		return assertNoDiffsInTree((FileTreeNode) diffModel.getRoot());
+		return diffCount == 0;
 
 	}
 
-	private boolean assertNoDiffsInTree(final FileTreeNode fileTreeNode) {
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.tree.FileTreeDiffUtility#generateDiffLocalToIRODS
+	 * (java.io.File, java.lang.String, long, long,
+	 * org.irods.jargon.datautils.tree.FileTreeDiffListener)
+	 */
+	@Override
+	public int generateDiffLocalToIRODS(final File localFileRoot,
+			final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide,
+			final FileTreeDiffListener fileTreeDiffListener)
+			throws JargonException {
 
-		FileTreeDiffEntry entry = (FileTreeDiffEntry) fileTreeNode
-				.getUserObject();
-		if (entry.getDiffType() != FileTreeDiffEntry.DiffType.DIRECTORY_NO_DIFF) {
-			log.warn("diff found when not expected:{}", entry);
-			return false;
+		if (fileTreeDiffListener == null) {
+			throw new IllegalArgumentException("null fileTreeDiffListener");
 		}
 
-		FileTreeNode childNode = null;
-		boolean noDiffs = true;
-		@SuppressWarnings("unchecked")
-		Enumeration<FileTreeNode> children = fileTreeNode.children();
-		while (children.hasMoreElements()) {
-			childNode = children.nextElement();
-			noDiffs = assertNoDiffsInTree(childNode);
-			if (noDiffs) {
-				break;
-			}
+		checkDiffParameters(localFileRoot, irodsAbsolutePath,
+				timestampForLastSynchLeftHandSide,
+				timestampForLastSynchRightHandSide);
+
+		log.info("generateDiffLocalToIRODS() to listener for localFileRoot:{}",
+				localFileRoot.getAbsolutePath());
+		log.info("irodsAbsolutePath for iRODS root:{}", irodsAbsolutePath);
+
+		IRODSFile rootIRODSFile = irodsAccessObjectFactory.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(irodsAbsolutePath);
+
+		if (!rootIRODSFile.exists()) {
+			throw new JargonException(
+					"root iRODS file does not exist, cannot do a diff");
 		}
 
-		return noDiffs;
+		if (!rootIRODSFile.isDirectory()) {
+			throw new JargonException(
+					"irodsFile is not a directory, cannot do a diff");
+		}
 
+		StreamingFileTreeDiffer streamingFileTreeDiffer = new StreamingFileTreeDiffer(
+				irodsAccount, irodsAccessObjectFactory, transferControlBlock,
+				checksumThreads);
+		return streamingFileTreeDiffer.diff(localFileRoot,
+				rootIRODSFile.getAbsolutePath(),
+				timestampForLastSynchLeftHandSide,
+				timestampForLastSynchRightHandSide, fileTreeDiffListener);
 	}
 
 	/*
@@ -160,33 +200,9 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
 			final long timestampForLastSynchRightHandSide)
 			throws JargonException {
 
-		if (localFileRoot == null) {
-			throw new IllegalArgumentException("null LocalFileRoot");
-		}
-
-		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
-			throw new IllegalArgumentException(
-					"null or empty irodsAbsolutePath");
-		}
-
-		if (!localFileRoot.exists()) {
-			throw new JargonException("localFileRoot does not exist");
-		}
-
-		if (!localFileRoot.isDirectory()) {
-			throw new JargonException(
-					"localFileRoot is not a directory, cannot do a diff");
-		}
-
-		if (timestampForLastSynchLeftHandSide < 0) {
-			throw new IllegalArgumentException(
-					"timestampForLastSynchLeftHandSide is less than zero");
-		}
-
-		if (timestampForLastSynchRightHandSide < 0) {
-			throw new IllegalArgumentException(
-					"timestampForLastSynchRightHandSide is less than zero");
-		}
+		checkDiffParameters(localFileRoot, irodsAbsolutePath,
+				timestampForLastSynchLeftHandSide,
+				timestampForLastSynchRightHandSide);
 
 		log.info("generateDiffLocalToIRODS() for localFileRoot:{}",
 				localFileRoot.getAbsolutePath());
@@ -242,6 +258,41 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
 		return fileTreeModel;
 	}
 
+	private void checkDiffParameters(final File localFileRoot,
+			final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide)
+			throws JargonException {
+
+		if (localFileRoot == null) {
+			throw new IllegalArgumentException("null LocalFileRoot");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (!localFileRoot.exists()) {
+			throw new JargonException("localFileRoot does not exist");
+		}
+
+		if (!localFileRoot.isDirectory()) {
+			throw new JargonException(
+					"localFileRoot is not a directory, cannot do a diff");
+		}
+
+		if (timestampForLastSynchLeftHandSide < 0) {
+			throw new IllegalArgumentException(
+					"timestampForLastSynchLeftHandSide is less than zero");
+		}
+
+		if (timestampForLastSynchRightHandSide < 0) {
+			throw new IllegalArgumentException(
+					"timestampForLastSynchRightHandSide is less than zero");
+		}
+	}
+
 	/**
 	 * Given two relative paths, do the diff. This is the recursive call that
 	 * will descend into child directories and update a shared tree model.
@@ -791,6 +842,27 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
 		return transferControlBlock;
 	}
 
+	/**
+	 * @return <code>int</code> with the threads that compute local checksums
+	 *         in a diff handed to a {@link FileTreeDiffListener}
+	 */
+	public int getChecksumThreads() {
+		return checksumThreads;
+	}
+
+	/**
+	 * @param checksumThreads
+	 *            <code>int</code> with the threads that compute local
+	 *            checksums in a diff handed to a {@link FileTreeDiffListener}
+	 */
+	public void setChecksumThreads(final int checksumThreads) {
+		if (checksumThreads < 1) {
+			throw new IllegalArgumentException(
+					"checksumThreads must be at least 1");
+		}
+		this.checksumThreads = checksumThreads;
+	}
+
 	public boolean isCancelled() {
 		boolean cancelled = false;
 		if (transferControlBlock != null) {
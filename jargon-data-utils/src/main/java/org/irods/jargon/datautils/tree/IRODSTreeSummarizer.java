@@ -0,0 +1,518 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.tree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.GenQueryOrderByField.OrderByType;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.IRODSDataConversionUtil;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the {@link TreeSummary} of an iRODS collection with GenQueries run in
+ * iCAT, rather than by visiting each file.
+ * <p/>
+ * Counts, total bytes, and minimum and maximum lengths are <code>COUNT</code>,
+ * <code>SUM</code>, <code>MIN</code> and <code>MAX</code> aggregates over the
+ * collection and every collection under it, and each size bucket is a
+ * <code>COUNT</code> below the bucket limit. GenQuery cannot aggregate by file
+ * extension, so extensions are counted from one paged query of the data object
+ * names.
+ * <p/>
+ * The collections under the tree are found with a <code>LIKE</code> of the
+ * collection path. When the path holds a <code>LIKE</code> wildcard, the
+ * aggregates are grouped by collection, and collections that matched but are
+ * not under the path are dropped.
+ * <p/>
+ * The aggregates count a row per replica, so they are used only when the tree
+ * has one replica of each data object. Otherwise the tree is walked a
+ * collection at a time by several threads, each on its own connection, with
+ * one paged query for the data objects of each collection.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+class IRODSTreeSummarizer {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSTreeSummarizer.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final int walkThreads;
+
+	/**
+	 * Constructor
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 * @param walkThreads
+	 *            <code>int</code> with the threads that walk the tree when
+	 *            aggregates cannot be used
+	 */
+	IRODSTreeSummarizer(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final int walkThreads) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (walkThreads < 1) {
+			throw new IllegalArgumentException("walkThreads must be at least 1");
+		}
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.walkThreads = walkThreads;
+	}
+
+	/**
+	 * Summarize the data objects in a collection and every collection under
+	 * it
+	 *
+	 * @param collectionPath
+	 *            <code>String</code> with the absolute path of the collection
+	 * @return {@link TreeSummary}
+	 * @throws JargonException
+	 */
+	TreeSummary summarize(final String collectionPath) throws JargonException {
+
+		String path = collectionPath;
+		while (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+
+		TreeSummary treeSummary = summarizeWithAggregates(path);
+		if (treeSummary == null) {
+			log.info("tree has replicas, walking the tree:{}", path);
+			return walk(path);
+		}
+
+		return treeSummary;
+	}
+
+	/**
+	 * @return {@link TreeSummary}, or <code>null</code> if the tree has more
+	 *         than one replica of a data object
+	 */
+	private TreeSummary summarizeWithAggregates(final String path)
+			throws JargonException {
+
+		log.info("summarizing with aggregates:{}", path);
+		TreeSummary treeSummary = new TreeSummary();
+		Set<String> replNumbers = new HashSet<String>();
+		long totalFiles = 0;
+
+		for (IRODSQueryResultRow row : aggregateTree(path,
+				RodsGenQueryEnum.COL_D_DATA_ID, SelectFieldTypes.COUNT, 0)) {
+			long count = IRODSDataConversionUtil
+					.getLongOrZeroFromIRODSValue(row.getColumn(1));
+			if (count > 0) {
+				replNumbers.add(row.getColumn(0));
+				totalFiles += count;
+			}
+		}
+
+		if (replNumbers.size() > 1) {
+			return null;
+		}
+
+		if (totalFiles == 0) {
+			return treeSummary;
+		}
+
+		// a select may name a column once, so each aggregate is its own query
+		long totalBytes = 0;
+		for (IRODSQueryResultRow row : aggregateTree(path,
+				RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.SUM, 0)) {
+			totalBytes += IRODSDataConversionUtil
+					.getLongOrZeroFromIRODSValue(row.getColumn(1));
+		}
+
+		long minLength = Long.MAX_VALUE;
+		for (IRODSQueryResultRow row : aggregateTree(path,
+				RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.MIN, 0)) {
+			if (!row.getColumn(1).isEmpty()) {
+				minLength = Math.min(minLength, IRODSDataConversionUtil
+						.getLongOrZeroFromIRODSValue(row.getColumn(1)));
+			}
+		}
+
+		long maxLength = 0;
+		for (IRODSQueryResultRow row : aggregateTree(path,
+				RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.MAX, 0)) {
+			maxLength = Math.max(maxLength, IRODSDataConversionUtil
+					.getLongOrZeroFromIRODSValue(row.getColumn(1)));
+		}
+
+		treeSummary.addFiles(totalFiles, totalBytes, minLength, maxLength);
+
+		// each size bucket is the count under its limit less the buckets below
+		long countBelow = 0;
+		for (int i = 0; i < TreeSummary.SIZE_BUCKET_LIMITS.length; i++) {
+			long countUnderLimit = 0;
+			for (IRODSQueryResultRow row : aggregateTree(path,
+					RodsGenQueryEnum.COL_D_DATA_ID, SelectFieldTypes.COUNT,
+					TreeSummary.SIZE_BUCKET_LIMITS[i])) {
+				countUnderLimit += IRODSDataConversionUtil
+						.getLongOrZeroFromIRODSValue(row.getColumn(1));
+			}
+			treeSummary.addToSizeBucket(TreeSummary.SIZE_BUCKETS[i],
+					countUnderLimit - countBelow);
+			countBelow = countUnderLimit;
+		}
+		treeSummary.addToSizeBucket(TreeSummary.SIZE_GT_100GB, totalFiles
+				- countBelow);
+
+		for (boolean under : new boolean[] { false, true }) {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			try {
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_ID)
+						.addSelectAsGenQueryValue(
+								RodsGenQueryEnum.COL_DATA_NAME);
+			} catch (GenQueryBuilderException e) {
+				log.error("query builder exception", e);
+				throw new JargonException("error building query", e);
+			}
+			boolean grouped = addCollectionCondition(builder, path, under);
+
+			GenQueryResultIterator rows = TreeQueries.iterate(
+					irodsAccessObjectFactory, irodsAccount, builder, path);
+			try {
+				while (rows.hasNext()) {
+					IRODSQueryResultRow row = rows.next();
+					if (isInTree(row, path, grouped)) {
+						treeSummary.addToExtension(LocalFileUtils
+								.getFileExtension(row.getColumn(1)
+										.toLowerCase()), 1);
+					}
+				}
+			} catch (JargonRuntimeException e) {
+				throw TreeQueries.unwrap(e);
+			} finally {
+				rows.close();
+			}
+		}
+
+		return treeSummary;
+	}
+
+	/**
+	 * Run an aggregate over the data objects directly in the collection, and
+	 * over those in collections under it
+	 *
+	 * @param column
+	 *            {@link RodsGenQueryEnum} that is aggregated
+	 * @param selectFieldType
+	 *            {@link SelectFieldTypes} with the aggregate
+	 * @param sizeLimit
+	 *            <code>long</code> that only data objects shorter than are
+	 *            aggregated, or 0 for all of them
+	 * @return <code>List</code> of rows of the replica number and the
+	 *         aggregate, for each replica number, in the collection and
+	 *         under it
+	 */
+	private List<IRODSQueryResultRow> aggregateTree(final String path,
+			final RodsGenQueryEnum column,
+			final SelectFieldTypes selectFieldType, final long sizeLimit)
+			throws JargonException {
+
+		List<IRODSQueryResultRow> results = new ArrayList<IRODSQueryResultRow>();
+		for (boolean under : new boolean[] { false, true }) {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			try {
+				builder.addSelectAsGenQueryValue(
+						RodsGenQueryEnum.COL_DATA_REPL_NUM)
+						.addSelectAsAgregateGenQueryValue(column,
+								selectFieldType);
+			} catch (GenQueryBuilderException e) {
+				log.error("query builder exception", e);
+				throw new JargonException("error building query", e);
+			}
+			if (sizeLimit > 0) {
+				builder.addConditionAsGenQueryField(
+						RodsGenQueryEnum.COL_DATA_SIZE,
+						QueryConditionOperators.NUMERIC_LESS_THAN, sizeLimit);
+			}
+			boolean grouped = addCollectionCondition(builder, path, under);
+
+			GenQueryResultIterator rows = TreeQueries.iterate(
+					irodsAccessObjectFactory, irodsAccount, builder, path);
+			try {
+				while (rows.hasNext()) {
+					IRODSQueryResultRow row = rows.next();
+					if (isInTree(row, path, grouped)) {
+						results.add(row);
+					}
+				}
+			} catch (JargonRuntimeException e) {
+				throw TreeQueries.unwrap(e);
+			} finally {
+				rows.close();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Walk the tree a collection at a time on several threads
+	 */
+	private TreeSummary walk(final String path) throws JargonException {
+
+		log.info("walking tree with {} threads:{}", walkThreads, path);
+		BlockingQueue<String> collections = new LinkedBlockingQueue<String>();
+		AtomicInteger outstanding = new AtomicInteger(1);
+		collections.add(path);
+
+		ExecutorService executor = Executors.newFixedThreadPool(walkThreads,
+				TreeQueries.daemonThreadFactory("jargon-tree-summary-"));
+		List<Future<TreeSummary>> futures = new ArrayList<Future<TreeSummary>>();
+		WalkState walkState = new WalkState(collections, outstanding);
+		for (int i = 0; i < walkThreads; i++) {
+			futures.add(executor.submit(new WalkWorker(walkState)));
+		}
+
+		TreeSummary treeSummary = new TreeSummary();
+		try {
+			for (Future<TreeSummary> future : futures) {
+				treeSummary.merge(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted walking tree", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("error walking tree", e.getCause());
+		} finally {
+			// stops the other workers if one failed
+			walkState.failed = true;
+			executor.shutdownNow();
+		}
+
+		return treeSummary;
+	}
+
+	/**
+	 * Count the data objects directly in a collection, and return its
+	 * subcollections
+	 */
+	private List<String> walkCollection(final String path,
+			final TreeSummary treeSummary) throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_DATA_REPL_NUM)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_NAME,
+							QueryConditionOperators.EQUAL, path)
+					.addOrderByGenQueryField(RodsGenQueryEnum.COL_DATA_NAME,
+							OrderByType.ASC);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		// ordered by name, so the replicas of a data object are together
+		GenQueryResultIterator rows = TreeQueries.iterate(
+				irodsAccessObjectFactory, irodsAccount, builder, path);
+		try {
+			String lastName = null;
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String name = row.getColumn(0);
+				if (name.equals(lastName)) {
+					continue;
+				}
+				lastName = name;
+				treeSummary.processFileInfo(name, IRODSDataConversionUtil
+						.getLongOrZeroFromIRODSValue(row.getColumn(1)));
+			}
+		} catch (JargonRuntimeException e) {
+			throw TreeQueries.unwrap(e);
+		} finally {
+			rows.close();
+		}
+
+		builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_PARENT_NAME,
+							QueryConditionOperators.EQUAL, path);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		List<String> subcollections = new ArrayList<String>();
+		rows = TreeQueries.iterate(irodsAccessObjectFactory, irodsAccount,
+				builder, path);
+		try {
+			while (rows.hasNext()) {
+				String subcollection = rows.next().getColumn(0);
+				// the root collection is its own parent
+				if (!subcollection.equals(path)) {
+					subcollections.add(subcollection);
+				}
+			}
+		} catch (JargonRuntimeException e) {
+			throw TreeQueries.unwrap(e);
+		} finally {
+			rows.close();
+		}
+
+		return subcollections;
+	}
+
+	/**
+	 * Limit a query to the data objects directly in the collection, or to
+	 * those in collections under it.
+	 * <p/>
+	 * The <code>LIKE</code> for the collections under it can match other
+	 * collections when the path holds a <code>LIKE</code> wildcard, but never
+	 * misses one. The collection name is then selected last, which also
+	 * groups any aggregates by collection, so that
+	 * {@link #isInTree(IRODSQueryResultRow, String, boolean)} can drop the
+	 * rows of collections outside the tree.
+	 *
+	 * @return <code>boolean</code> of <code>true</code> if the collection name
+	 *         was selected
+	 */
+	private boolean addCollectionCondition(final IRODSGenQueryBuilder builder,
+			final String path, final boolean under) throws JargonException {
+		if (!under) {
+			builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.EQUAL, path);
+			return false;
+		}
+
+		builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+				QueryConditionOperators.LIKE, path.equals("/") ? "/%" : path
+						+ "/%");
+		if (path.indexOf('%') < 0 && path.indexOf('_') < 0) {
+			return false;
+		}
+
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+		return true;
+	}
+
+	/**
+	 * @return <code>boolean</code> of <code>true</code> unless the row has the
+	 *         collection name selected last, and it is not under the path
+	 */
+	private boolean isInTree(final IRODSQueryResultRow row, final String path,
+			final boolean grouped) throws JargonException {
+		if (!grouped) {
+			return true;
+		}
+		return row.getColumn(row.getColumnsAsList().size() - 1).startsWith(
+				path + "/");
+	}
+
+	/**
+	 * Collections waiting to be walked, shared by the workers
+	 */
+	private static final class WalkState {
+		private final BlockingQueue<String> collections;
+		/**
+		 * Collections queued or being walked, the walk is over at zero
+		 */
+		private final AtomicInteger outstanding;
+		private volatile boolean failed = false;
+
+		WalkState(final BlockingQueue<String> collections,
+				final AtomicInteger outstanding) {
+			this.collections = collections;
+			this.outstanding = outstanding;
+		}
+	}
+
+	/**
+	 * Takes collections from the queue until none are left, queueing their
+	 * subcollections, on a connection of its own
+	 */
+	private final class WalkWorker implements Callable<TreeSummary> {
+
+		private final WalkState walkState;
+
+		WalkWorker(final WalkState walkState) {
+			this.walkState = walkState;
+		}
+
+		@Override
+		public TreeSummary call() throws Exception {
+			TreeSummary treeSummary = new TreeSummary();
+			try {
+				while (walkState.outstanding.get() > 0 && !walkState.failed) {
+					String path = walkState.collections.poll(100,
+							TimeUnit.MILLISECONDS);
+					if (path == null) {
+						continue;
+					}
+
+					try {
+						for (String subcollection : walkCollection(path,
+								treeSummary)) {
+							walkState.outstanding.incrementAndGet();
+							walkState.collections.add(subcollection);
+						}
+					} finally {
+						walkState.outstanding.decrementAndGet();
+					}
+				}
+			} catch (Exception e) {
+				walkState.failed = true;
+				throw e;
+			} finally {
+				irodsAccessObjectFactory
+						.closeSessionAndEatExceptions(irodsAccount);
+			}
+			return treeSummary;
+		}
+	}
+
+}
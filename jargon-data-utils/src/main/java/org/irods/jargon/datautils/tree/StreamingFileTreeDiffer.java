@@ -0,0 +1,640 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.irods.jargon.core.checksum.ChecksumManager;
+import org.irods.jargon.core.checksum.ChecksumManagerImpl;
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.checksum.LocalChecksumComputerFactory;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.utils.IRODSDataConversionUtil;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diffs a local tree against an iRODS tree one directory at a time, handing
+ * each difference to a {@link FileTreeDiffListener} as it is found.
+ * <p/>
+ * Each iRODS collection is listed with one paged GenQuery for its data objects
+ * and one for its subcollections, which carry the length, modify time and
+ * stored checksum, so no child is stat'ed on its own. The local and iRODS
+ * children are sorted by name and merge-joined. Only the children of the
+ * directory being compared, and the directories waiting to be compared, are
+ * held in memory.
+ * <p/>
+ * Files of the same length are compared by checksum. The local checksums are
+ * computed on a pool of threads while the walk goes on, and the iRODS checksum
+ * is computed only where none is stored. When timestamp checks are on, files
+ * that changed on neither side since the last synch are not checksummed.
+ * <p/>
+ * This object is used for one diff at a time.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class StreamingFileTreeDiffer {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(StreamingFileTreeDiffer.class);
+
+	/**
+	 * Checksum comparisons waiting per checksum thread before the walk waits
+	 * for the oldest
+	 */
+	static final int PENDING_CHECKSUMS_PER_THREAD = 16;
+
+	private final IRODSAccount irodsAccount;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final TransferControlBlock transferControlBlock;
+	private final int checksumThreads;
+
+	private ChecksumManager checksumManager = null;
+	private DataObjectAO dataObjectAO = null;
+	private FileTreeDiffListener listener = null;
+	private int diffCount = 0;
+	private boolean stopped = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the iRODS side
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} used to cancel the diff, or
+	 *            <code>null</code>
+	 * @param checksumThreads
+	 *            <code>int</code> with the threads that compute local
+	 *            checksums
+	 */
+	StreamingFileTreeDiffer(final IRODSAccount irodsAccount,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final TransferControlBlock transferControlBlock,
+			final int checksumThreads) {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (checksumThreads < 1) {
+			throw new IllegalArgumentException(
+					"checksumThreads must be at least 1");
+		}
+
+		this.irodsAccount = irodsAccount;
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.transferControlBlock = transferControlBlock;
+		this.checksumThreads = checksumThreads;
+	}
+
+	/**
+	 * Diff the trees, see
+	 * {@link FileTreeDiffUtility#generateDiffLocalToIRODS(File, String, long, long, FileTreeDiffListener)}
+	 *
+	 * @return <code>int</code> with the differences handed to the listener
+	 * @throws JargonException
+	 */
+	int diff(final File localFileRoot, final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide,
+			final FileTreeDiffListener listener) throws JargonException {
+
+		if (listener == null) {
+			throw new IllegalArgumentException("null listener");
+		}
+
+		this.listener = listener;
+		diffCount = 0;
+		stopped = false;
+
+		boolean checkTimestamps = timestampForLastSynchLeftHandSide != FileTreeDiffUtility.NO_TIMESTAMP_CHECKS
+				&& timestampForLastSynchRightHandSide != FileTreeDiffUtility.NO_TIMESTAMP_CHECKS;
+
+		ExecutorService checksumExecutor = Executors.newFixedThreadPool(
+				checksumThreads,
+				TreeQueries.daemonThreadFactory("jargon-tree-diff-checksum-"));
+		Deque<PendingChecksum> pendingChecksums = new ArrayDeque<PendingChecksum>();
+
+		Deque<DirectoryPair> directories = new ArrayDeque<DirectoryPair>();
+		String irodsRootPath = irodsAbsolutePath;
+		while (irodsRootPath.length() > 1 && irodsRootPath.endsWith("/")) {
+			irodsRootPath = irodsRootPath.substring(0,
+					irodsRootPath.length() - 1);
+		}
+		directories.push(new DirectoryPair(localFileRoot, irodsRootPath));
+
+		try {
+			while (!directories.isEmpty() && !isStopped()) {
+				DirectoryPair pair = directories.pop();
+				List<DirectoryPair> subdirectories = diffDirectory(pair,
+						checkTimestamps, timestampForLastSynchLeftHandSide,
+						timestampForLastSynchRightHandSide, checksumExecutor,
+						pendingChecksums);
+
+				// depth first, in name order
+				for (int i = subdirectories.size() - 1; i >= 0; i--) {
+					directories.push(subdirectories.get(i));
+				}
+			}
+
+			while (!pendingChecksums.isEmpty() && !isStopped()) {
+				completeChecksum(pendingChecksums.poll());
+			}
+		} finally {
+			for (PendingChecksum pendingChecksum : pendingChecksums) {
+				pendingChecksum.future.cancel(true);
+			}
+			checksumExecutor.shutdownNow();
+		}
+
+		log.info("diff complete with {} differences", diffCount);
+		return diffCount;
+	}
+
+	/**
+	 * Merge-join the children of a directory pair, returning the
+	 * subdirectories found on both sides
+	 */
+	private List<DirectoryPair> diffDirectory(final DirectoryPair pair,
+			final boolean checkTimestamps,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide,
+			final ExecutorService checksumExecutor,
+			final Deque<PendingChecksum> pendingChecksums)
+			throws JargonException {
+
+		log.debug("diffing local dir:{}", pair.localDirectory);
+		log.debug("against iRODS collection:{}", pair.irodsAbsolutePath);
+
+		File[] localChildren = pair.localDirectory.listFiles();
+		if (localChildren == null) {
+			throw new JargonException("cannot list local directory:"
+					+ pair.localDirectory.getAbsolutePath());
+		}
+		Arrays.sort(localChildren, new FileNameComparator());
+
+		List<IRODSChild> irodsChildren = listIRODSChildren(pair.irodsAbsolutePath);
+
+		List<DirectoryPair> subdirectories = new ArrayList<DirectoryPair>();
+		String localParentPath = LocalFileUtils.normalizePath(pair.localDirectory
+				.getAbsolutePath());
+		int i = 0;
+		int j = 0;
+
+		while ((i < localChildren.length || j < irodsChildren.size())
+				&& !isStopped()) {
+
+			File localChild = i < localChildren.length ? localChildren[i]
+					: null;
+			IRODSChild irodsChild = j < irodsChildren.size() ? irodsChildren
+					.get(j) : null;
+
+			if (localChild != null && !localChild.isFile()
+					&& !localChild.isDirectory()) {
+				log.debug("skipping local child that is neither file nor dir:{}",
+						localChild);
+				i++;
+				continue;
+			}
+
+			int comparison;
+			if (localChild == null) {
+				comparison = 1;
+			} else if (irodsChild == null) {
+				comparison = -1;
+			} else {
+				comparison = localChild.getName().compareTo(irodsChild.name);
+			}
+
+			if (comparison < 0) {
+				emit(buildEntryForLocalFile(localChild,
+						DiffType.LEFT_HAND_PLUS,
+						childPath(pair.irodsAbsolutePath, localChild.getName()),
+						0, 0, "", ""));
+				i++;
+			} else if (comparison > 0) {
+				emit(buildEntryForIRODSChild(irodsChild,
+						pair.irodsAbsolutePath, DiffType.RIGHT_HAND_PLUS,
+						childPath(localParentPath, irodsChild.name)));
+				j++;
+			} else {
+				if (localChild.isDirectory() && irodsChild.collection) {
+					subdirectories.add(new DirectoryPair(localChild, childPath(
+							pair.irodsAbsolutePath, irodsChild.name)));
+				} else if (localChild.isDirectory() != irodsChild.collection) {
+					log.warn("a file is being compared to a directory of the same name");
+					emit(buildEntryForLocalFile(localChild,
+							DiffType.FILE_NAME_DIR_NAME_COLLISION,
+							childPath(pair.irodsAbsolutePath, irodsChild.name),
+							irodsChild.length, irodsChild.modifiedAt, "", ""));
+				} else {
+					compareFiles(localChild, irodsChild,
+							childPath(pair.irodsAbsolutePath, irodsChild.name),
+							checkTimestamps, timestampForLastSynchLeftHandSide,
+							timestampForLastSynchRightHandSide,
+							checksumExecutor, pendingChecksums);
+				}
+				i++;
+				j++;
+			}
+		}
+
+		return subdirectories;
+	}
+
+	private void compareFiles(final File localFile,
+			final IRODSChild irodsChild, final String irodsAbsolutePath,
+			final boolean checkTimestamps,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide,
+			final ExecutorService checksumExecutor,
+			final Deque<PendingChecksum> pendingChecksums)
+			throws JargonException {
+
+		if (localFile.length() != irodsChild.length) {
+			log.debug("files differ on length:{}", irodsAbsolutePath);
+			emit(buildEntryForLocalFile(localFile, DiffType.FILE_OUT_OF_SYNCH,
+					irodsAbsolutePath, irodsChild.length,
+					irodsChild.modifiedAt, "", ""));
+			return;
+		}
+
+		if (checkTimestamps
+				&& localFile.lastModified() <= timestampForLastSynchLeftHandSide
+				&& irodsChild.modifiedAt <= timestampForLastSynchRightHandSide) {
+			log.debug("neither side changed since last synch:{}",
+					irodsAbsolutePath);
+			return;
+		}
+
+		ChecksumValue irodsChecksum = null;
+		if (!irodsChild.checksum.isEmpty()) {
+			irodsChecksum = getChecksumManager()
+					.determineChecksumEncodingFromIrodsData(irodsChild.checksum);
+		}
+
+		if (irodsChecksum == null) {
+			log.debug("no stored checksum, computing in iRODS for:{}",
+					irodsAbsolutePath);
+			IRODSFile irodsFile = irodsAccessObjectFactory.getIRODSFileFactory(
+					irodsAccount).instanceIRODSFile(irodsAbsolutePath);
+			irodsChecksum = getDataObjectAO().computeChecksumOnDataObject(
+					irodsFile);
+		}
+
+		final LocalChecksumComputerFactory localChecksumComputerFactory = irodsAccessObjectFactory
+				.getIrodsSession().getLocalChecksumComputerFactory();
+		final ChecksumValue checksumToMatch = irodsChecksum;
+		Future<ChecksumValue> future = checksumExecutor
+				.submit(new Callable<ChecksumValue>() {
+					@Override
+					public ChecksumValue call() throws Exception {
+						return localChecksumComputerFactory.instance(
+								checksumToMatch.getChecksumEncoding())
+								.computeChecksumValueForLocalFile(
+										localFile.getAbsolutePath());
+					}
+				});
+
+		pendingChecksums.add(new PendingChecksum(localFile, irodsChild,
+				irodsAbsolutePath, irodsChecksum, future));
+
+		while (pendingChecksums.size() > checksumThreads
+				* PENDING_CHECKSUMS_PER_THREAD
+				&& !isStopped()) {
+			completeChecksum(pendingChecksums.poll());
+		}
+	}
+
+	private void completeChecksum(final PendingChecksum pendingChecksum)
+			throws JargonException {
+
+		ChecksumValue localChecksum;
+		try {
+			localChecksum = pendingChecksum.future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted computing local checksum",
+					e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FileNotFoundException) {
+				log.error("file not found computing checksum", e.getCause());
+				throw new JargonException(
+						"data error while synchronizing, cannot find local file for checksum",
+						e.getCause());
+			}
+			log.error("error computing local checksum", e.getCause());
+			throw new JargonException("error computing local checksum",
+					e.getCause());
+		}
+
+		if (localChecksum.getChecksumStringValue().equals(
+				pendingChecksum.irodsChecksum.getChecksumStringValue())) {
+			log.debug("checksum match, files are same");
+			return;
+		}
+
+		log.debug("files differ on checksum:{}",
+				pendingChecksum.irodsAbsolutePath);
+		emit(buildEntryForLocalFile(pendingChecksum.localFile,
+				DiffType.FILE_OUT_OF_SYNCH, pendingChecksum.irodsAbsolutePath,
+				pendingChecksum.irodsChild.length,
+				pendingChecksum.irodsChild.modifiedAt,
+				localChecksum.getChecksumStringValue(),
+				pendingChecksum.irodsChecksum.getChecksumStringValue()));
+	}
+
+	/**
+	 * List the data objects and subcollections of a collection, sorted by
+	 * name, with one paged query for each
+	 */
+	private List<IRODSChild> listIRODSChildren(final String irodsAbsolutePath)
+			throws JargonException {
+
+		Map<String, IRODSChild> childrenByName = new LinkedHashMap<String, IRODSChild>();
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_D_MODIFY_TIME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_D_DATA_CHECKSUM)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_DATA_REPL_NUM)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_NAME,
+							QueryConditionOperators.EQUAL, irodsAbsolutePath);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		GenQueryResultIterator rows = TreeQueries.iterate(
+				irodsAccessObjectFactory, irodsAccount, builder,
+				irodsAbsolutePath);
+		try {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String name = row.getColumn(0);
+				int replNumber = IRODSDataConversionUtil
+						.getIntOrZeroFromIRODSValue(row.getColumn(4));
+				String checksum = row.getColumn(3);
+				IRODSChild existing = childrenByName.get(name);
+
+				// one row per replica, keep the lowest replica, and any stored
+				// checksum
+				if (existing != null && existing.replNumber <= replNumber) {
+					if (existing.checksum.isEmpty()) {
+						existing.checksum = checksum;
+					}
+					continue;
+				}
+
+				IRODSChild child = new IRODSChild(name, false);
+				child.length = IRODSDataConversionUtil
+						.getLongOrZeroFromIRODSValue(row.getColumn(1));
+				child.modifiedAt = modifiedAtMillis(row.getColumn(2));
+				child.checksum = checksum.isEmpty() && existing != null ? existing.checksum
+						: checksum;
+				child.replNumber = replNumber;
+				childrenByName.put(name, child);
+			}
+		} catch (JargonRuntimeException e) {
+			throw TreeQueries.unwrap(e);
+		} finally {
+			rows.close();
+		}
+
+		builder = new IRODSGenQueryBuilder(true, null);
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_PARENT_NAME,
+							QueryConditionOperators.EQUAL, irodsAbsolutePath);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		List<IRODSChild> children = new ArrayList<IRODSChild>(
+				childrenByName.values());
+		rows = TreeQueries.iterate(irodsAccessObjectFactory, irodsAccount,
+				builder, irodsAbsolutePath);
+		try {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String path = row.getColumn(0);
+				if (path.equals(irodsAbsolutePath)) {
+					// the root collection is its own parent
+					continue;
+				}
+				IRODSChild child = new IRODSChild(
+						path.substring(path.lastIndexOf('/') + 1), true);
+				child.modifiedAt = modifiedAtMillis(row.getColumn(1));
+				children.add(child);
+			}
+		} catch (JargonRuntimeException e) {
+			throw TreeQueries.unwrap(e);
+		} finally {
+			rows.close();
+		}
+
+		Collections.sort(children, new Comparator<IRODSChild>() {
+			@Override
+			public int compare(final IRODSChild child1, final IRODSChild child2) {
+				return child1.name.compareTo(child2.name);
+			}
+		});
+		return children;
+	}
+
+	private long modifiedAtMillis(final String irodsValue) {
+		Date date = IRODSDataConversionUtil.getDateFromIRODSValue(irodsValue);
+		return date == null ? 0 : date.getTime();
+	}
+
+	private void emit(final FileTreeDiffEntry fileTreeDiffEntry)
+			throws JargonException {
+		log.info("diff found:{}", fileTreeDiffEntry);
+		diffCount++;
+		if (!listener.diffEntryFound(fileTreeDiffEntry)) {
+			log.info("listener asked to stop the diff");
+			stopped = true;
+		}
+	}
+
+	private boolean isStopped() {
+		if (transferControlBlock != null
+				&& (transferControlBlock.isCancelled() || transferControlBlock
+						.isPaused())) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	private FileTreeDiffEntry buildEntryForLocalFile(final File diffFile,
+			final DiffType diffType, final String absolutePathOppositeFile,
+			final long lengthOppositeSide, final long timestampOppositeSide,
+			final String checksumThisFile, final String checksumOppositeFile) {
+
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setCreatedAt(new Date(diffFile.lastModified()));
+		entry.setModifiedAt(entry.getCreatedAt());
+		entry.setParentPath(LocalFileUtils.normalizePath(diffFile.getParent()));
+
+		if (diffFile.isFile()) {
+			entry.setDataSize(diffFile.length());
+			entry.setObjectType(ObjectType.DATA_OBJECT);
+			entry.setPathOrName(diffFile.getName());
+			return FileTreeDiffEntry.instanceForFileDiff(diffType, entry,
+					absolutePathOppositeFile, lengthOppositeSide,
+					timestampOppositeSide, checksumThisFile,
+					checksumOppositeFile);
+		}
+
+		entry.setObjectType(ObjectType.COLLECTION);
+		entry.setPathOrName(childPath(entry.getParentPath(), diffFile.getName()));
+		return FileTreeDiffEntry.instance(diffType, entry,
+				absolutePathOppositeFile, lengthOppositeSide,
+				timestampOppositeSide);
+	}
+
+	private FileTreeDiffEntry buildEntryForIRODSChild(
+			final IRODSChild irodsChild, final String irodsParentPath,
+			final DiffType diffType, final String absolutePathOppositeFile) {
+
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setCreatedAt(new Date(irodsChild.modifiedAt));
+		entry.setModifiedAt(entry.getCreatedAt());
+		entry.setParentPath(irodsParentPath);
+
+		if (irodsChild.collection) {
+			entry.setObjectType(ObjectType.COLLECTION);
+			entry.setPathOrName(childPath(irodsParentPath, irodsChild.name));
+		} else {
+			entry.setObjectType(ObjectType.DATA_OBJECT);
+			entry.setPathOrName(irodsChild.name);
+			entry.setDataSize(irodsChild.length);
+		}
+
+		return FileTreeDiffEntry.instance(diffType, entry,
+				absolutePathOppositeFile, 0, 0);
+	}
+
+	private static String childPath(final String parent, final String name) {
+		if (parent.endsWith("/")) {
+			return parent + name;
+		}
+		return parent + "/" + name;
+	}
+
+	private ChecksumManager getChecksumManager() {
+		if (checksumManager == null) {
+			checksumManager = new ChecksumManagerImpl(irodsAccount,
+					irodsAccessObjectFactory);
+		}
+		return checksumManager;
+	}
+
+	private DataObjectAO getDataObjectAO() throws JargonException {
+		if (dataObjectAO == null) {
+			dataObjectAO = irodsAccessObjectFactory
+					.getDataObjectAO(irodsAccount);
+		}
+		return dataObjectAO;
+	}
+
+	/**
+	 * A local directory and the iRODS collection of the same relative path
+	 */
+	private static final class DirectoryPair {
+		private final File localDirectory;
+		private final String irodsAbsolutePath;
+
+		DirectoryPair(final File localDirectory, final String irodsAbsolutePath) {
+			this.localDirectory = localDirectory;
+			this.irodsAbsolutePath = irodsAbsolutePath;
+		}
+	}
+
+	/**
+	 * A data object or subcollection from the listing of a collection
+	 */
+	private static final class IRODSChild {
+		private final String name;
+		private final boolean collection;
+		private long length = 0;
+		private long modifiedAt = 0;
+		private String checksum = "";
+		private int replNumber = 0;
+
+		IRODSChild(final String name, final boolean collection) {
+			this.name = name;
+			this.collection = collection;
+		}
+	}
+
+	/**
+	 * A file of the same length on both sides, waiting on its local checksum
+	 */
+	private static final class PendingChecksum {
+		private final File localFile;
+		private final IRODSChild irodsChild;
+		private final String irodsAbsolutePath;
+		private final ChecksumValue irodsChecksum;
+		private final Future<ChecksumValue> future;
+
+		PendingChecksum(final File localFile, final IRODSChild irodsChild,
+				final String irodsAbsolutePath,
+				final ChecksumValue irodsChecksum,
+				final Future<ChecksumValue> future) {
+			this.localFile = localFile;
+			this.irodsChild = irodsChild;
+			this.irodsAbsolutePath = irodsAbsolutePath;
+			this.irodsChecksum = irodsChecksum;
+			this.future = future;
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.tree;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Paged GenQuery and thread helpers shared by the tree walkers of this
+ * package
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+final class TreeQueries {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(TreeQueries.class);
+
+	private TreeQueries() {
+	}
+
+	/**
+	 * Run a query a page at a time, in the zone of the given path
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 * @param builder
+	 *            {@link IRODSGenQueryBuilder} with the query
+	 * @param irodsAbsolutePath
+	 *            <code>String</code> with the path that gives the zone
+	 * @return {@link GenQueryResultIterator} that must be closed. It throws a
+	 *         <code>JargonRuntimeException</code> for an error getting a
+	 *         page, see {@link #unwrap(JargonRuntimeException)}
+	 * @throws JargonException
+	 */
+	static GenQueryResultIterator iterate(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount,
+			final IRODSGenQueryBuilder builder, final String irodsAbsolutePath)
+			throws JargonException {
+		try {
+			return irodsAccessObjectFactory.getIRODSGenQueryExecutor(
+					irodsAccount).iterateIRODSQueryInZone(
+					builder.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+							.getJargonProperties()
+							.getMaxFilesAndDirsQueryMax()),
+					MiscIRODSUtils.getZoneInPath(irodsAbsolutePath));
+		} catch (JargonQueryException e) {
+			log.error("query exception for query", e);
+			throw new JargonException("error in tree query", e);
+		} catch (GenQueryBuilderException e) {
+			log.error("query exception for query", e);
+			throw new JargonException("error in tree query", e);
+		}
+	}
+
+	/**
+	 * @return {@link JargonException} thrown by a page query, carried out of
+	 *         the iterator by the given runtime exception
+	 */
+	static JargonException unwrap(final JargonRuntimeException e) {
+		if (e.getCause() instanceof JargonException) {
+			return (JargonException) e.getCause();
+		}
+		return new JargonException(e);
+	}
+
+	/**
+	 * @param namePrefix
+	 *            <code>String</code> that names the threads, numbered from 1,
+	 *            so they can be found in a thread dump
+	 * @return <code>ThreadFactory</code> of daemon threads
+	 */
+	static ThreadFactory daemonThreadFactory(final String namePrefix) {
+		return new DaemonThreadFactory(namePrefix);
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final String namePrefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private DaemonThreadFactory(final String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, namePrefix
+					+ count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -27,6 +27,27 @@ public interface TreeSummarizingService {
 	TreeSummary generateTreeSummaryForIrodsFileTree(String irodsFilePath)
 			throws FileNotFoundException, JargonException;
 
+	/**
+	 * Create a summary describing the contents of an iRODS file tree with
+	 * queries run in iCAT, rather than by visiting each file. Counts, lengths
+	 * and size buckets are aggregates over the whole tree, and extensions are
+	 * counted from a paged query of the data object names.
+	 * <p/>
+	 * Where the aggregates would not be exact, as when the tree holds more
+	 * than one replica of a data object, the tree is walked one collection at
+	 * a time by several threads instead.
+	 *
+	 * @param irodsFilePath
+	 *            <code>String</code> with an absolute path to an iRODS
+	 *            collection
+	 * @return {@link TreeSummary}
+	 * @throws FileNotFoundException
+	 * @throws JargonException
+	 */
+	TreeSummary generateTreeSummaryForIrodsFileTreeUsingQueries(
+			String irodsFilePath) throws FileNotFoundException,
+			JargonException;
+
 	/**
 	 * Create a summary describing the contents of a local file tree
 	 * 
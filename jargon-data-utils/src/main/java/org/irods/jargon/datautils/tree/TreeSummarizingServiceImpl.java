@@ -9,6 +9,7 @@ import java.io.FileNotFoundException;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.service.AbstractJargonService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +33,12 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 	private static final Logger log = LoggerFactory
 			.getLogger(TreeSummarizingServiceImpl.class);
 
+	/**
+	 * Threads that walk an iRODS tree when it cannot be summarized with
+	 * aggregate queries
+	 */
+	private int walkThreads = 4;
+
 	/**
 	 * @param irodsAccessObjectFactory
 	 * @param irodsAccount
@@ -79,6 +86,42 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * generateTreeSummaryForIrodsFileTreeUsingQueries(java.lang.String)
+	 */
+	@Override
+	public TreeSummary generateTreeSummaryForIrodsFileTreeUsingQueries(
+			final String irodsFilePath) throws FileNotFoundException,
+			JargonException {
+		log.info("generateTreeSummaryForIrodsFileTreeUsingQueries()");
+
+		if (irodsFilePath == null || irodsFilePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsFilePath");
+		}
+
+		IRODSFile irodsFile = getIrodsAccessObjectFactory()
+				.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(
+						irodsFilePath);
+		if (!irodsFile.exists()) {
+			throw new FileNotFoundException("cannot find iRODS file");
+		}
+
+		if (!irodsFile.isDirectory()) {
+			throw new JargonException("irodsFilePath is not a collection");
+		}
+
+		IRODSTreeSummarizer irodsTreeSummarizer = new IRODSTreeSummarizer(
+				getIrodsAccessObjectFactory(), getIrodsAccount(), walkThreads);
+		TreeSummary summary = irodsTreeSummarizer.summarize(irodsFile
+				.getAbsolutePath());
+		log.info("...done");
+		return summary;
+
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -115,4 +158,24 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 
 	}
 
+	/**
+	 * @return <code>int</code> with the threads that walk an iRODS tree when
+	 *         it cannot be summarized with aggregate queries
+	 */
+	public int getWalkThreads() {
+		return walkThreads;
+	}
+
+	/**
+	 * @param walkThreads
+	 *            <code>int</code> with the threads that walk an iRODS tree
+	 *            when it cannot be summarized with aggregate queries
+	 */
+	public void setWalkThreads(final int walkThreads) {
+		if (walkThreads < 1) {
+			throw new IllegalArgumentException("walkThreads must be at least 1");
+		}
+		this.walkThreads = walkThreads;
+	}
+
 }
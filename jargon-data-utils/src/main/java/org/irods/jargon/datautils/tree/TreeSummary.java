@@ -4,6 +4,7 @@
 package org.irods.jargon.datautils.tree;
 
 import java.io.File;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -28,6 +29,16 @@ public class TreeSummary {
 	public static final String SIZE_100GB = "100GB";
 	public static final String SIZE_GT_100GB = "> 100 GB";
 
+	/**
+	 * Size buckets below the last, in order, with the length each is under
+	 */
+	static final String[] SIZE_BUCKETS = { SIZE_10K, SIZE_100K, SIZE_1M,
+			SIZE_32M, SIZE_100M, SIZE_1GB, SIZE_10GB, SIZE_100GB };
+	static final long[] SIZE_BUCKET_LIMITS = { 10L * 1024, 100L * 1024,
+			1024L * 1024, 32L * 1024 * 1024, 100L * 1024 * 1024,
+			1024L * 1024 * 1024, 10L * 1024 * 1024 * 1024,
+			100L * 1024 * 1024 * 1024 };
+
 	private ConcurrentMap<String, AtomicLong> fileSizeSummaryMap = new ConcurrentHashMap<String, AtomicLong>();
 	private final ConcurrentMap<String, AtomicLong> fileExtensionSummaryMap = new ConcurrentHashMap<String, AtomicLong>();
 
@@ -59,46 +70,106 @@ public class TreeSummary {
 	}
 
 	public void processFileInfo(final File file) {
+		processFileInfo(file.getName(), file.length());
+	}
+
+	/**
+	 * Count a file by its name and length
+	 *
+	 * @param fileName
+	 *            <code>String</code> with the file name
+	 * @param length
+	 *            <code>long</code> with the file length
+	 */
+	public void processFileInfo(final String fileName, final long length) {
+
+		addFiles(1, length, length, length);
+		addToExtension(
+				LocalFileUtils.getFileExtension(fileName.toLowerCase()), 1);
+		addToSizeBucket(sizeBucketFor(length), 1);
 
-		long length = file.length();
-		String extension = LocalFileUtils.getFileExtension(file.getName()
-				.toLowerCase());
+	}
+
+	/**
+	 * Add the totals of files counted elsewhere, such as in a query
+	 *
+	 * @param count
+	 *            <code>long</code> with the number of files
+	 * @param bytes
+	 *            <code>long</code> with the total length of the files
+	 * @param min
+	 *            <code>long</code> with the shortest length
+	 * @param max
+	 *            <code>long</code> with the longest length
+	 */
+	void addFiles(final long count, final long bytes, final long min,
+			final long max) {
 
-		totalBytes += length;
-		totalFiles++;
+		if (count == 0) {
+			return;
+		}
 
-		if (minLength == 0) {
-			minLength = length;
+		if (totalFiles == 0 || min < minLength) {
+			minLength = min;
 		}
 
-		if (length > maxLength) {
-			maxLength = length;
+		if (max > maxLength) {
+			maxLength = max;
 		}
 
+		totalBytes += bytes;
+		totalFiles += count;
+	}
+
+	void addToExtension(final String extension, final long count) {
 		fileExtensionSummaryMap.putIfAbsent(extension, new AtomicLong(0));
-		fileExtensionSummaryMap.get(extension).incrementAndGet();
-
-		// classify length
-		if (length < 10 * 1024) {
-			fileSizeSummaryMap.get(SIZE_10K).incrementAndGet();
-		} else if (length < 100 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100K).incrementAndGet();
-		} else if (length < 1 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_1M).incrementAndGet();
-		} else if (length < 32 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_32M).incrementAndGet();
-		} else if (length < 100 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100M).incrementAndGet();
-		} else if (length < 1 * 1024 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_1GB).incrementAndGet();
-		} else if (length < 10 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_10GB).incrementAndGet();
-		} else if (length < 100 * 1024 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100GB).incrementAndGet();
-		} else {
-			fileSizeSummaryMap.get(SIZE_GT_100GB).incrementAndGet();
+		fileExtensionSummaryMap.get(extension).addAndGet(count);
+	}
+
+	void addToSizeBucket(final String sizeBucket, final long count) {
+		fileSizeSummaryMap.putIfAbsent(sizeBucket, new AtomicLong(0));
+		fileSizeSummaryMap.get(sizeBucket).addAndGet(count);
+	}
+
+	/**
+	 * Add the counts of another summary, such as that of a subtree, to this
+	 * one
+	 *
+	 * @param treeSummary
+	 *            {@link TreeSummary} to add
+	 */
+	public void merge(final TreeSummary treeSummary) {
+
+		if (treeSummary == null) {
+			throw new IllegalArgumentException("null treeSummary");
+		}
+
+		addFiles(treeSummary.totalFiles, treeSummary.totalBytes,
+				treeSummary.minLength, treeSummary.maxLength);
+
+		for (Map.Entry<String, AtomicLong> entry : treeSummary.fileExtensionSummaryMap
+				.entrySet()) {
+			addToExtension(entry.getKey(), entry.getValue().get());
+		}
+
+		for (Map.Entry<String, AtomicLong> entry : treeSummary.fileSizeSummaryMap
+				.entrySet()) {
+			addToSizeBucket(entry.getKey(), entry.getValue().get());
 		}
+	}
 
+	/**
+	 * @param length
+	 *            <code>long</code> with a file length
+	 * @return <code>String</code> with the size bucket the length falls in
+	 */
+	static String sizeBucketFor(final long length) {
+		for (int i = 0; i < SIZE_BUCKET_LIMITS.length; i++) {
+			if (length < SIZE_BUCKET_LIMITS[i]) {
+				return SIZE_BUCKETS[i];
+			}
+		}
+		return SIZE_GT_100GB;
 	}
 
 	/**
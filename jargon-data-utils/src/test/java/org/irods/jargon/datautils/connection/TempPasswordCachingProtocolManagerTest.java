@@ -10,10 +10,13 @@ import junit.framework.Assert;
 import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.PipelineConfiguration;
+import org.irods.jargon.core.connection.SettableJargonProperties;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.pub.EnvironmentalInfoAO;
 import org.irods.jargon.core.pub.IRODSFileSystem;
 import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -56,6 +59,46 @@ public class TempPasswordCachingProtocolManagerTest {
 		commands.disconnect();
 	}
 
+	/**
+	 * A connection older than the socket renewal interval is kept, as the temp
+	 * password cannot authenticate a new one
+	 */
+	@Test
+	public void testAgedConnectionNotRenewed() throws Exception {
+		IRODSStandInServer server = new IRODSStandInServer();
+		server.addUser("temp", "temp");
+		server.start();
+		try {
+			IRODSAccount irodsAccount = server.buildIRODSAccount("temp");
+			SettableJargonProperties jargonProperties = new SettableJargonProperties(
+					irodsFileSystem.getJargonProperties());
+			jargonProperties.setSocketRenewalIntervalInSeconds(1);
+			PipelineConfiguration pipelineConfiguration = PipelineConfiguration
+					.instance(jargonProperties);
+
+			TempPasswordCachingProtocolManager manager = new TempPasswordCachingProtocolManager(
+					irodsAccount, irodsFileSystem.getIrodsSession(),
+					irodsFileSystem.getIrodsProtocolManager());
+			AbstractIRODSMidLevelProtocol first = manager.getIRODSProtocol(
+					irodsAccount, pipelineConfiguration,
+					irodsFileSystem.getIrodsSession());
+			Thread.sleep(1100);
+			manager.returnIRODSProtocol(first);
+
+			AbstractIRODSMidLevelProtocol second = manager.getIRODSProtocol(
+					irodsAccount, pipelineConfiguration,
+					irodsFileSystem.getIrodsSession());
+			Assert.assertSame("aged connection was renewed", first, second);
+			Assert.assertTrue("connection not kept open", second.isConnected());
+			Assert.assertEquals("only one connection should be made", 1,
+					manager.getPoolStatistics().getCreated());
+			manager.returnIRODSProtocol(second);
+			manager.destroy();
+		} finally {
+			server.stop();
+		}
+	}
+
 	@Test
 	public void testGetIRODSProtocolViaIRODSFileSystem() throws Exception {
 		IRODSAccount irodsAccount = testingPropertiesHelper
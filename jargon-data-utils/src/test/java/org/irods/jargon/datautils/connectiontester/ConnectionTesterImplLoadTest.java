@@ -0,0 +1,175 @@
+package org.irods.jargon.datautils.connectiontester;
+
+import java.io.File;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.datautils.connectiontester.ConnectionTester.WorkloadType;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Load test mode of the {@link ConnectionTesterImpl}, run against the
+ * in-process {@link IRODSStandInServer}
+ */
+public class ConnectionTesterImplLoadTest {
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+	private ConnectionTesterConfiguration configuration;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("load", "load");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = server.buildIRODSAccount("load");
+
+		configuration = new ConnectionTesterConfiguration();
+		configuration.setIrodsParentDirectory(irodsAccount.getHomeDirectory());
+		configuration.setLocalSourceParentDirectory(new File(System
+				.getProperty("java.io.tmpdir"), "ConnectionTesterImplLoadTest")
+				.getAbsolutePath());
+		configuration.setDurationSeconds(120);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testMixedWorkloadConcurrentClients() throws Exception {
+		configuration.setConcurrentClients(3);
+		configuration.setOperationsPerClient(30);
+		configuration.setSmallFileLength(4096);
+
+		ConnectionTestResult result = buildTester().runLoadTest();
+
+		Assert.assertEquals("expected storm, listing and metadata results", 3,
+				result.getLoadTestResults().size());
+		long operations = 0;
+		for (LoadTestResultEntry entry : result.getLoadTestResults()) {
+			Assert.assertEquals("no failures expected in " + entry, 0,
+					entry.getFailureCount());
+			Assert.assertTrue("percentiles out of order in " + entry,
+					entry.getP50Microseconds() <= entry.getP95Microseconds()
+							&& entry.getP95Microseconds() <= entry
+									.getP99Microseconds()
+							&& entry.getP99Microseconds() <= entry
+									.getMaxMicroseconds());
+			Assert.assertTrue("no throughput in " + entry,
+					entry.getOperationsPerSecond() > 0);
+			if (entry.getWorkloadType() == WorkloadType.SMALL_FILE_STORM) {
+				Assert.assertEquals("wrong storm bytes",
+						entry.getOperationCount() * 4096,
+						entry.getTotalBytes());
+			}
+			operations += entry.getOperationCount();
+		}
+		Assert.assertEquals("wrong operation count", 90, operations);
+		Assert.assertFalse(
+				"client collection not cleaned up",
+				irodsFileSystem
+						.getIRODSFileFactory(irodsAccount)
+						.instanceIRODSFile(irodsAccount.getHomeDirectory(),
+								"loadTestClient0").exists());
+	}
+
+	@Test
+	public void testLargeParallelTransfer() throws Exception {
+		configuration.setOperationsPerClient(1);
+		configuration.setLargeFileLength(33 * 1024 * 1024 + 1);
+		configuration.getWorkloadWeights().clear();
+		configuration.setWorkloadWeight(WorkloadType.LARGE_PARALLEL_TRANSFER,
+				1);
+
+		ConnectionTestResult result = buildTester().runLoadTest();
+
+		Assert.assertEquals("expected one result", 1, result
+				.getLoadTestResults().size());
+		LoadTestResultEntry entry = result.getLoadTestResults().get(0);
+		Assert.assertEquals("wrong workload",
+				WorkloadType.LARGE_PARALLEL_TRANSFER, entry.getWorkloadType());
+		Assert.assertEquals("transfer failed:" + entry, 0,
+				entry.getFailureCount());
+		Assert.assertEquals("wrong bytes", 2L * (33 * 1024 * 1024 + 1),
+				entry.getTotalBytes());
+	}
+
+	@Test
+	public void testDurationWithRampUp() throws Exception {
+		configuration.setConcurrentClients(2);
+		configuration.setRampUpSeconds(1);
+		configuration.setDurationSeconds(2);
+		configuration.getWorkloadWeights().clear();
+		configuration.setWorkloadWeight(WorkloadType.LISTING, 1);
+
+		ConnectionTestResult result = buildTester().runLoadTest();
+
+		Assert.assertTrue("ended before the duration",
+				result.getLoadTestMilliseconds() >= 2000);
+		LoadTestResultEntry entry = result.getLoadTestResults().get(0);
+		Assert.assertTrue("no listings done", entry.getOperationCount() > 0);
+	}
+
+	@Test
+	public void testRerunWithoutCleanup() throws Exception {
+		configuration.setCleanupOnCompletion(false);
+		configuration.setOperationsPerClient(10);
+
+		for (int run = 0; run < 2; run++) {
+			ConnectionTestResult result = buildTester().runLoadTest();
+			for (LoadTestResultEntry entry : result.getLoadTestResults()) {
+				Assert.assertEquals("no failures expected in run " + run
+						+ ":" + entry, 0, entry.getFailureCount());
+			}
+		}
+		Assert.assertTrue(
+				"client collection should be kept",
+				irodsFileSystem
+						.getIRODSFileFactory(irodsAccount)
+						.instanceIRODSFile(irodsAccount.getHomeDirectory(),
+								"loadTestClient0/metadata.dat").exists());
+	}
+
+	@Test
+	public void testClientsThatCannotConnect() throws Exception {
+		configuration.setConcurrentClients(2);
+		configuration.getWorkloadWeights().clear();
+		configuration.setWorkloadWeight(WorkloadType.LISTING, 1);
+		configuration.setWorkloadWeight(WorkloadType.METADATA_QUERY, 1);
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+
+		ConnectionTestResult result = buildTester().runLoadTest();
+
+		Assert.assertEquals("expected listing and metadata results", 2,
+				result.getLoadTestResults().size());
+		for (LoadTestResultEntry entry : result.getLoadTestResults()) {
+			Assert.assertEquals("expected a failure per client in " + entry,
+					2, entry.getFailureCount());
+			Assert.assertEquals("no successes expected in " + entry,
+					entry.getFailureCount(), entry.getOperationCount());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoWorkloadWeights() throws Exception {
+		configuration.getWorkloadWeights().clear();
+		buildTester().runLoadTest();
+	}
+
+	private ConnectionTester buildTester() throws Exception {
+		return new ConnectionTesterImpl(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount,
+				configuration);
+	}
+
+}
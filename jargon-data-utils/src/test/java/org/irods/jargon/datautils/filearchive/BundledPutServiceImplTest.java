@@ -0,0 +1,89 @@
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.File;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.testutils.AssertionHelper;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.irods.jargon.testutils.filemanip.FileGenerator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BundledPutServiceImplTest {
+
+	private static Properties testingProperties = new Properties();
+	private static TestingPropertiesHelper testingPropertiesHelper = new TestingPropertiesHelper();
+	private static org.irods.jargon.testutils.filemanip.ScratchFileUtils scratchFileUtils = null;
+	public static final String IRODS_TEST_SUBDIR_PATH = "BundledPutServiceImplTest";
+	private static org.irods.jargon.testutils.IRODSTestSetupUtilities irodsTestSetupUtilities = null;
+	private static IRODSFileSystem irodsFileSystem = null;
+	private static AssertionHelper assertionHelper = null;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+		testingProperties = testingPropertiesHelper.getTestProperties();
+		scratchFileUtils = new org.irods.jargon.testutils.filemanip.ScratchFileUtils(
+				testingProperties);
+		scratchFileUtils
+				.clearAndReinitializeScratchDirectory(IRODS_TEST_SUBDIR_PATH);
+		irodsTestSetupUtilities = new org.irods.jargon.testutils.IRODSTestSetupUtilities();
+		irodsTestSetupUtilities.clearIrodsScratchDirectory();
+		irodsTestSetupUtilities.initializeIrodsScratchDirectory();
+		irodsTestSetupUtilities
+				.initializeDirectoryForTest(IRODS_TEST_SUBDIR_PATH);
+		assertionHelper = new AssertionHelper();
+	}
+
+	@AfterClass
+	public static void afterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Test
+	public void testPutDirectoryAsBundle() throws Exception {
+
+		String rootCollection = "testPutDirectoryAsBundle";
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath, rootCollection, 2, 3, 2,
+						"testFile", ".txt", 10, 5, 1, 20 * 1024);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		BundledPutService bundledPutService = new BundledPutServiceImpl(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount);
+		bundledPutService.setMaxBundledFileSize(10 * 1024);
+		File localFile = new File(localCollectionAbsolutePath);
+		bundledPutService.putDirectoryAsBundle(localFile,
+				irodsCollectionRootAbsolutePath, "");
+
+		IRODSFile irodsCollection = irodsFileSystem.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(
+				irodsCollectionRootAbsolutePath + "/" + rootCollection);
+		assertionHelper.assertTwoFilesAreEqualByRecursiveTreeComparison(
+				localFile, (File) irodsCollection);
+
+		IRODSFile parentCollection = irodsFileSystem.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(
+				irodsCollectionRootAbsolutePath);
+		Assert.assertEquals("bundle should be deleted", 1,
+				parentCollection.list().length);
+	}
+
+}
@@ -0,0 +1,98 @@
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.irods.jargon.testutils.filemanip.FileGenerator;
+import org.irods.jargon.testutils.filemanip.ScratchFileUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StreamingTarBundlerTest {
+
+	private static Properties testingProperties = new Properties();
+	private static ScratchFileUtils scratchFileUtils = null;
+	public static final String IRODS_TEST_SUBDIR_PATH = "StreamingTarBundlerTest";
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		TestingPropertiesHelper testingPropertiesLoader = new TestingPropertiesHelper();
+		testingProperties = testingPropertiesLoader.getTestProperties();
+		scratchFileUtils = new ScratchFileUtils(testingProperties);
+		scratchFileUtils
+				.clearAndReinitializeScratchDirectory(IRODS_TEST_SUBDIR_PATH);
+	}
+
+	@Test
+	public void testWriteTarLeavesOutLargeFiles() throws Exception {
+		String rootCollection = "testWriteTarLeavesOutLargeFiles";
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+		File subdirectory = new File(localCollectionAbsolutePath, "subdir");
+		subdirectory.mkdirs();
+		FileGenerator.generateFileOfFixedLengthGivenName(
+				localCollectionAbsolutePath, "small1.txt", 100);
+		FileGenerator.generateFileOfFixedLengthGivenName(
+				subdirectory.getAbsolutePath(), "small2.txt", 200);
+		FileGenerator.generateFileOfFixedLengthGivenName(
+				localCollectionAbsolutePath, "large.txt", 5000);
+
+		StreamingTarBundler streamingTarBundler = new StreamingTarBundler(
+				new File(localCollectionAbsolutePath), 1000);
+		ByteArrayOutputStream tar = new ByteArrayOutputStream();
+		streamingTarBundler.writeTar(tar);
+
+		Map<String, Long> entries = new HashMap<String, Long>();
+		TarArchiveInputStream in = new TarArchiveInputStream(
+				new ByteArrayInputStream(tar.toByteArray()));
+		TarArchiveEntry entry;
+		while ((entry = in.getNextTarEntry()) != null) {
+			entries.put(entry.getName(), entry.getSize());
+		}
+		in.close();
+
+		Assert.assertEquals("wrong number of entries", 2, entries.size());
+		Assert.assertEquals("missing top level file", Long.valueOf(100),
+				entries.get(rootCollection + "/small1.txt"));
+		Assert.assertEquals("missing file in subdirectory", Long.valueOf(200),
+				entries.get(rootCollection + "/subdir/small2.txt"));
+		Assert.assertEquals("large file should be put separately", 1,
+				streamingTarBundler.getUnbundledFiles().size());
+		Assert.assertEquals("wrong bundled length", 300,
+				streamingTarBundler.getBundledLength());
+	}
+
+	@Test
+	public void testRelativeDirectoryPathsParentsFirst() throws Exception {
+		String rootCollection = "testRelativeDirectoryPathsParentsFirst";
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+		new File(localCollectionAbsolutePath, "a/b").mkdirs();
+
+		StreamingTarBundler streamingTarBundler = new StreamingTarBundler(
+				new File(localCollectionAbsolutePath),
+				BundledPutService.DEFAULT_MAX_BUNDLED_FILE_SIZE);
+
+		Assert.assertEquals("wrong directories", 3, streamingTarBundler
+				.getRelativeDirectoryPaths().size());
+		Assert.assertEquals("source directory should be first",
+				rootCollection, streamingTarBundler
+						.getRelativeDirectoryPaths().get(0));
+		Assert.assertEquals("parent should come before child", rootCollection
+				+ "/a", streamingTarBundler.getRelativeDirectoryPaths().get(1));
+		Assert.assertEquals("child should be last", rootCollection + "/a/b",
+				streamingTarBundler.getRelativeDirectoryPaths().get(2));
+	}
+
+}
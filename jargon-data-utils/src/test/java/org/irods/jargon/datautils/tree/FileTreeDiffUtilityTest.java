@@ -1889,4 +1889,122 @@ public class FileTreeDiffUtilityTest {
 				descendModelAndFindAnyDiff(fileTreeNode) == 0);
 	}
 
+	@Test
+	public void testFileTreeDiffToListenerNoDiff() throws Exception {
+
+		String rootCollection = "testFileTreeDiffToListenerNoDiff";
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath,
+						"testFileTreeDiffToListenerNoDiff", 2, 3, 2,
+						"testFile", ".txt", 3, 2, 1, 2);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileSystem irodsFileSystem = IRODSFileSystem.instance();
+		IRODSFileFactory irodsFileFactory = irodsFileSystem
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, null, null);
+
+		String targetIrodsAbsolutePath = irodsCollectionRootAbsolutePath + "/"
+				+ rootCollection;
+
+		FileTreeDiffUtility fileTreeDiffUtility = new FileTreeDiffUtilityImpl(
+				irodsAccount, irodsFileSystem.getIRODSAccessObjectFactory());
+		final List<FileTreeDiffEntry> diffs = new ArrayList<FileTreeDiffEntry>();
+		int diffCount = fileTreeDiffUtility.generateDiffLocalToIRODS(localFile,
+				targetIrodsAbsolutePath, 0, 0, new FileTreeDiffListener() {
+					@Override
+					public boolean diffEntryFound(
+							final FileTreeDiffEntry fileTreeDiffEntry) {
+						diffs.add(fileTreeDiffEntry);
+						return true;
+					}
+				});
+		irodsFileSystem.close();
+		Assert.assertEquals("should be no diffs", 0, diffCount);
+		Assert.assertTrue("listener should not be called", diffs.isEmpty());
+	}
+
+	@Test
+	public void testFileTreeDiffToListenerLocalPlusOneFile() throws Exception {
+
+		String rootCollection = "testFileTreeDiffToListenerLocalPlusOneFile";
+		String testFileName = "testFileTreeDiffToListenerLocalPlusOneFile.txt";
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath,
+						"testFileTreeDiffToListenerLocalPlusOneFile", 2, 3, 2,
+						"testFile", ".txt", 3, 2, 1, 2);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileSystem irodsFileSystem = IRODSFileSystem.instance();
+		IRODSFileFactory irodsFileFactory = irodsFileSystem
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, null, null);
+
+		FileGenerator.generateFileOfFixedLengthGivenName(
+				localCollectionAbsolutePath, testFileName, 2);
+
+		String targetIrodsAbsolutePath = irodsCollectionRootAbsolutePath + "/"
+				+ rootCollection;
+
+		FileTreeDiffUtility fileTreeDiffUtility = new FileTreeDiffUtilityImpl(
+				irodsAccount, irodsFileSystem.getIRODSAccessObjectFactory());
+		final List<FileTreeDiffEntry> diffs = new ArrayList<FileTreeDiffEntry>();
+		int diffCount = fileTreeDiffUtility.generateDiffLocalToIRODS(localFile,
+				targetIrodsAbsolutePath, 0, 0, new FileTreeDiffListener() {
+					@Override
+					public boolean diffEntryFound(
+							final FileTreeDiffEntry fileTreeDiffEntry) {
+						diffs.add(fileTreeDiffEntry);
+						return true;
+					}
+				});
+		irodsFileSystem.close();
+		Assert.assertEquals("should be one diff", 1, diffCount);
+		FileTreeDiffEntry fileTreeDiffEntry = diffs.get(0);
+		Assert.assertEquals(DiffType.LEFT_HAND_PLUS,
+				fileTreeDiffEntry.getDiffType());
+		Assert.assertEquals(testFileName, fileTreeDiffEntry
+				.getCollectionAndDataObjectListingEntry().getPathOrName());
+		Assert.assertEquals(targetIrodsAbsolutePath + "/" + testFileName,
+				fileTreeDiffEntry.getAbsPathOppositeFile());
+	}
+
 }
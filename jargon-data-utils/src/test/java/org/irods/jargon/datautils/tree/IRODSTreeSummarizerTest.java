@@ -0,0 +1,83 @@
+package org.irods.jargon.datautils.tree;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.testutils.server.IRODSStandInServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link IRODSTreeSummarizer} run against the in-process
+ * {@link IRODSStandInServer}
+ */
+public class IRODSTreeSummarizerTest {
+
+	private IRODSStandInServer server;
+	private IRODSFileSystem irodsFileSystem;
+	private IRODSAccount irodsAccount;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new IRODSStandInServer();
+		server.addUser("summary", "summary");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = server.buildIRODSAccount("summary");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.stop();
+	}
+
+	@Test
+	public void testSummarize() throws Exception {
+		String root = irodsAccount.getHomeDirectory() + "/tree";
+		put(root + "/a.txt", 100);
+		put(root + "/sub/b.txt", 20000);
+		put(root + "/sub/deeper/c.dat", 300);
+		put(irodsAccount.getHomeDirectory() + "/other.txt", 5);
+
+		TreeSummary treeSummary = buildSummarizer().summarize(root + "/");
+
+		Assert.assertEquals("wrong file count", 3, treeSummary.getTotalFiles());
+		Assert.assertEquals("wrong bytes", 20400, treeSummary.getTotalBytes());
+		Assert.assertEquals("wrong txt count", 2, treeSummary
+				.getFileExtensionSummaryMap().get(".txt").get());
+		Assert.assertEquals("wrong 10k bucket", 2, treeSummary
+				.getFileSizeSummaryMap().get(TreeSummary.SIZE_10K).get());
+	}
+
+	@Test
+	public void testSummarizePathWithLikeWildcard() throws Exception {
+		String home = irodsAccount.getHomeDirectory();
+		put(home + "/a_b/a.txt", 100);
+		put(home + "/a_b/sub/b.txt", 200);
+		// matched by a LIKE of a_b/%, but not under the tree
+		put(home + "/aXb/sub/c.dat", 300000);
+
+		TreeSummary treeSummary = buildSummarizer().summarize(home + "/a_b");
+
+		Assert.assertEquals("wrong file count", 2, treeSummary.getTotalFiles());
+		Assert.assertEquals("wrong bytes", 300, treeSummary.getTotalBytes());
+		Assert.assertNull("counted a file outside the tree", treeSummary
+				.getFileExtensionSummaryMap().get(".dat"));
+		Assert.assertEquals("wrong 10k bucket", 2, treeSummary
+				.getFileSizeSummaryMap().get(TreeSummary.SIZE_10K).get());
+	}
+
+	private IRODSTreeSummarizer buildSummarizer() throws Exception {
+		return new IRODSTreeSummarizer(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount, 2);
+	}
+
+	private void put(final String path, final int length) throws Exception {
+		server.getCatalog().createCollection(
+				path.substring(0, path.lastIndexOf('/')), "summary", true);
+		server.getCatalog().putDataObject(path, "summary", new byte[length]);
+	}
+
+}
@@ -148,4 +148,61 @@ public class TreeSummarizingServiceImplTest {
 		Assert.assertTrue("did not compute an average", avgLength > 0);
 
 	}
+
+	@Test
+	public void testIrodsTreeUsingQueries() throws Exception {
+
+		String rootCollection = "testIrodsTreeUsingQueries";
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath,
+						"testIrodsTreeUsingQueries", 2, 3, 2, "testFile",
+						".txt", 3, 2, 20, 200);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileFactory irodsFileFactory = irodsFileSystem
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, null, null);
+
+		TreeSummarizingService service = new TreeSummarizingServiceImpl(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount);
+
+		String irodsTreeAbsolutePath = irodsCollectionRootAbsolutePath + "/"
+				+ rootCollection;
+		TreeSummary summary = service
+				.generateTreeSummaryForIrodsFileTreeUsingQueries(irodsTreeAbsolutePath);
+		TreeSummary visitedSummary = service
+				.generateTreeSummaryForIrodsFileTree(irodsTreeAbsolutePath);
+		Assert.assertNotNull("did not get tree summary", summary);
+
+		Assert.assertEquals("file count differs from visited tree",
+				visitedSummary.getTotalFiles(), summary.getTotalFiles());
+		Assert.assertEquals("total bytes differs from visited tree",
+				visitedSummary.getTotalBytes(), summary.getTotalBytes());
+		Assert.assertEquals("txt count differs from visited tree",
+				visitedSummary.getFileExtensionSummaryMap().get(".txt")
+						.longValue(), summary.getFileExtensionSummaryMap()
+						.get(".txt").longValue());
+		Assert.assertEquals("max length differs from visited tree",
+				visitedSummary.getMaxLength(), summary.getMaxLength());
+
+	}
 }
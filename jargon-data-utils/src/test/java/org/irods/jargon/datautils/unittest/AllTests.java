@@ -1,11 +1,13 @@
 package org.irods.jargon.datautils.unittest;
 
-import org.irods.jargon.datautils.connection.ConnectionCreatingPoolableObjectFactoryTest;
 import org.irods.jargon.datautils.connection.TempPasswordCachingProtocolManagerTest;
+import org.irods.jargon.datautils.connectiontester.ConnectionTesterImplLoadTest;
 import org.irods.jargon.datautils.connectiontester.ConnectionTesterImplTest;
 import org.irods.jargon.datautils.datacache.DataCacheServiceImplTest;
+import org.irods.jargon.datautils.filearchive.BundledPutServiceImplTest;
 import org.irods.jargon.datautils.filearchive.LocalFileGzipCompressorTest;
 import org.irods.jargon.datautils.filearchive.LocalTarFileArchiverTest;
+import org.irods.jargon.datautils.filearchive.StreamingTarBundlerTest;
 import org.irods.jargon.datautils.image.ImageServiceFactoryImplTest;
 import org.irods.jargon.datautils.image.MediaHandlingUtilsTest;
 import org.irods.jargon.datautils.image.ThumbnailServiceImplTest;
@@ -28,7 +30,6 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({ FileTreeDiffEntryTest.class, FileTreeNodeTest.class,
 		FileTreeDiffUtilityTest.class, SynchPropertiesServiceImplTest.class,
 		DataCacheServiceImplTest.class,
-		ConnectionCreatingPoolableObjectFactoryTest.class,
 		TempPasswordCachingProtocolManagerTest.class,
 		ThumbnailServiceImplTest.class, ImageServiceFactoryImplTest.class,
 		ShoppingCartEntryTest.class, FileShoppingCartTest.class,
@@ -37,7 +38,9 @@ import org.junit.runners.Suite;
 		DiffTreePostProcessorTest.class,
 		FileTreeIteratorVisitorInvokerTest.class,
 		TreeSummarizingServiceImplTest.class, LocalTarFileArchiverTest.class,
-		LocalFileGzipCompressorTest.class, ConnectionTesterImplTest.class })
+		LocalFileGzipCompressorTest.class, ConnectionTesterImplTest.class,
+		ConnectionTesterImplLoadTest.class,
+		StreamingTarBundlerTest.class, BundledPutServiceImplTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,186 @@
+package org.irods.jargon.metrics.dropwizard;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.metrics.JargonMetrics;
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * {@link JargonMetrics} that publishes to a Dropwizard {@link MetricRegistry},
+ * from where any of the Dropwizard reporters (JMX, Graphite, console and so
+ * on) can send them on. Give an instance to the
+ * <code>IRODSSession</code> with <code>setJargonMetrics()</code> before the
+ * first connection is made.
+ * <p/>
+ * The metrics registered, each under the given prefix, are:
+ * <ul>
+ * <li><code>api.&lt;number&gt;</code> timer and
+ * <code>api.&lt;number&gt;.failures</code> meter for each iRODS API number
+ * used</li>
+ * <li><code>connection.connect</code> and
+ * <code>connection.authenticate</code> timers</li>
+ * <li><code>connection.closed</code> counter, and
+ * <code>connection.bytesSent</code> and <code>connection.bytesReceived</code>
+ * meters, updated as each connection closes</li>
+ * <li><code>genquery.pages</code> meter and <code>genquery.rows</code>
+ * histogram of rows per page</li>
+ * <li><code>transfer.&lt;type&gt;</code> timer and
+ * <code>transfer.&lt;type&gt;.bytes</code> meter for each transfer type</li>
+ * </ul>
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class DropwizardJargonMetrics implements JargonMetrics {
+
+	private final MetricRegistry metricRegistry;
+	private final String prefix;
+	private final ConcurrentMap<Integer, ApiMetrics> apiMetrics = new ConcurrentHashMap<Integer, ApiMetrics>();
+	private final Timer connectTimer;
+	private final Timer authenticateTimer;
+	private final Counter connectionsClosed;
+	private final Meter bytesSent;
+	private final Meter bytesReceived;
+	private final Meter genQueryPages;
+	private final Histogram genQueryRows;
+	private final Map<TransferType, Timer> transferTimers = new EnumMap<TransferType, Timer>(
+			TransferType.class);
+	private final Map<TransferType, Meter> transferBytes = new EnumMap<TransferType, Meter>(
+			TransferType.class);
+
+	/**
+	 * Register the jargon metrics with a registry
+	 *
+	 * @param metricRegistry
+	 *            {@link MetricRegistry} to register with
+	 * @param prefix
+	 *            <code>String</code> put in front of every metric name, such
+	 *            as <code>jargon</code>
+	 */
+	public DropwizardJargonMetrics(final MetricRegistry metricRegistry,
+			final String prefix) {
+		if (metricRegistry == null) {
+			throw new IllegalArgumentException("null metricRegistry");
+		}
+
+		if (prefix == null || prefix.isEmpty()) {
+			throw new IllegalArgumentException("null or empty prefix");
+		}
+
+		this.metricRegistry = metricRegistry;
+		this.prefix = prefix;
+		connectTimer = metricRegistry.timer(name("connection", "connect"));
+		authenticateTimer = metricRegistry.timer(name("connection",
+				"authenticate"));
+		connectionsClosed = metricRegistry.counter(name("connection",
+				"closed"));
+		bytesSent = metricRegistry.meter(name("connection", "bytesSent"));
+		bytesReceived = metricRegistry.meter(name("connection",
+				"bytesReceived"));
+		genQueryPages = metricRegistry.meter(name("genquery", "pages"));
+		genQueryRows = metricRegistry.histogram(name("genquery", "rows"));
+
+		// all types up front, the maps are then only read
+		for (TransferType transferType : TransferType.values()) {
+			String type = transferType.name().toLowerCase();
+			transferTimers.put(transferType,
+					metricRegistry.timer(name("transfer", type)));
+			transferBytes.put(transferType,
+					metricRegistry.meter(name("transfer", type, "bytes")));
+		}
+	}
+
+	@Override
+	public void recordApiCall(final int apiNumber, final long elapsedNanos,
+			final boolean succeeded) {
+		ApiMetrics metrics = apiMetrics.get(apiNumber);
+		if (metrics == null) {
+			// the registry returns the already registered metric on a race
+			ApiMetrics created = new ApiMetrics(metricRegistry.timer(name(
+					"api", String.valueOf(apiNumber))),
+					metricRegistry.meter(name("api",
+							String.valueOf(apiNumber), "failures")));
+			metrics = apiMetrics.putIfAbsent(apiNumber, created);
+			if (metrics == null) {
+				metrics = created;
+			}
+		}
+
+		metrics.timer.update(elapsedNanos, TimeUnit.NANOSECONDS);
+		if (!succeeded) {
+			metrics.failures.mark();
+		}
+	}
+
+	@Override
+	public void recordConnect(final String host, final long connectNanos,
+			final long authenticateNanos) {
+		connectTimer.update(connectNanos, TimeUnit.NANOSECONDS);
+		authenticateTimer.update(authenticateNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordConnectionClosed(final String host,
+			final long bytesSent, final long bytesReceived,
+			final long openMillis) {
+		connectionsClosed.inc();
+		this.bytesSent.mark(bytesSent);
+		this.bytesReceived.mark(bytesReceived);
+	}
+
+	@Override
+	public void recordGenQueryPage(final int rowCount, final boolean morePages) {
+		genQueryPages.mark();
+		genQueryRows.update(rowCount);
+	}
+
+	@Override
+	public void recordTransfer(final TransferType transferType,
+			final long bytes, final long elapsedNanos) {
+		transferTimers.get(transferType).update(elapsedNanos,
+				TimeUnit.NANOSECONDS);
+		transferBytes.get(transferType).mark(bytes);
+	}
+
+	/**
+	 * @return {@link MetricRegistry} the metrics are registered with
+	 */
+	public MetricRegistry getMetricRegistry() {
+		return metricRegistry;
+	}
+
+	/**
+	 * @return <code>String</code> put in front of every metric name
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+
+	private String name(final String... names) {
+		return MetricRegistry.name(prefix, names);
+	}
+
+	/**
+	 * Timer and failure meter for one API number
+	 */
+	private static final class ApiMetrics {
+		private final Timer timer;
+		private final Meter failures;
+
+		private ApiMetrics(final Timer timer, final Meter failures) {
+			this.timer = timer;
+			this.failures = failures;
+		}
+	}
+
+}
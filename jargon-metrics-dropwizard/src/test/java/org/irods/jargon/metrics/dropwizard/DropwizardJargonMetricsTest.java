@@ -0,0 +1,71 @@
+package org.irods.jargon.metrics.dropwizard;
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class DropwizardJargonMetricsTest {
+
+	@Test
+	public void testApiCallsRegisteredPerApiNumber() {
+		MetricRegistry registry = new MetricRegistry();
+		DropwizardJargonMetrics metrics = new DropwizardJargonMetrics(
+				registry, "jargon");
+		metrics.recordApiCall(702, TimeUnit.MILLISECONDS.toNanos(2), true);
+		metrics.recordApiCall(702, TimeUnit.MILLISECONDS.toNanos(4), false);
+		metrics.recordApiCall(633, 1000, true);
+
+		Assert.assertEquals("wrong 702 count", 2,
+				registry.timer("jargon.api.702").getCount());
+		Assert.assertEquals("wrong 702 failures", 1,
+				registry.meter("jargon.api.702.failures").getCount());
+		Assert.assertEquals("wrong 633 count", 1,
+				registry.timer("jargon.api.633").getCount());
+		Assert.assertEquals("wrong 633 failures", 0,
+				registry.meter("jargon.api.633.failures").getCount());
+	}
+
+	@Test
+	public void testConnectionQueryAndTransfer() {
+		MetricRegistry registry = new MetricRegistry();
+		DropwizardJargonMetrics metrics = new DropwizardJargonMetrics(
+				registry, "jargon");
+		metrics.recordConnect("host", 100, 200);
+		metrics.recordConnectionClosed("host", 1000, 5000, 10);
+		metrics.recordGenQueryPage(500, true);
+		metrics.recordGenQueryPage(20, false);
+		metrics.recordTransfer(TransferType.PUT, 4096, 1000000);
+
+		Assert.assertEquals("wrong connects", 1,
+				registry.timer("jargon.connection.connect").getCount());
+		Assert.assertEquals("wrong authenticates", 1,
+				registry.timer("jargon.connection.authenticate").getCount());
+		Assert.assertEquals("wrong closes", 1,
+				registry.counter("jargon.connection.closed").getCount());
+		Assert.assertEquals("wrong bytes sent", 1000,
+				registry.meter("jargon.connection.bytesSent").getCount());
+		Assert.assertEquals("wrong bytes received", 5000,
+				registry.meter("jargon.connection.bytesReceived").getCount());
+		Assert.assertEquals("wrong pages", 2,
+				registry.meter("jargon.genquery.pages").getCount());
+		Assert.assertEquals("wrong row samples", 2,
+				registry.histogram("jargon.genquery.rows").getCount());
+		Assert.assertEquals("wrong puts", 1,
+				registry.timer("jargon.transfer.put").getCount());
+		Assert.assertEquals("wrong put bytes", 4096,
+				registry.meter("jargon.transfer.put.bytes").getCount());
+		Assert.assertEquals("no gets expected", 0,
+				registry.timer("jargon.transfer.get").getCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullRegistry() {
+		new DropwizardJargonMetrics(null, "jargon");
+	}
+
+}